@@ -42,6 +42,7 @@ package sh.isaac.api;
 //~--- JDK imports ------------------------------------------------------------
 
 import java.util.List;
+import java.util.NoSuchElementException;
 import java.util.Optional;
 import java.util.OptionalInt;
 import java.util.stream.IntStream;
@@ -236,6 +237,25 @@ public interface AssemblageService
     */
    <C extends SemanticChronology> Stream<C> getSemanticChronologyStream(int assemblageConceptNid);
 
+   /**
+    * Gets the SemanticChronologies for the specified nids. Implementations may read the semantics from the 
+    * data store in bulk, rather than one at a time.
+    *
+    * @param <C>
+    * @param semanticNids the semantic nids
+    * @return the SemanticChronologies, in the order of the nids. Nids that were mapped, but for which no 
+    * SemanticChronology was stored, are skipped.
+    */
+   default <C extends SemanticChronology> Stream<C> getSemanticChronologyStream(IntStream semanticNids) {
+      return semanticNids.mapToObj((int semanticNid) -> {
+         try {
+            return (C) getSemanticChronology(semanticNid);
+         } catch (NoSuchElementException e) {
+            return null;
+         }
+      }).filter(obj -> obj != null);
+   }
+
    /**
     * Gets the SemanticChronologies from assemblage.
     *
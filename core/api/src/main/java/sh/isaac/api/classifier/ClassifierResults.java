@@ -39,7 +39,10 @@
 
 package sh.isaac.api.classifier;
 
+import java.time.Duration;
+import java.util.Collections;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
@@ -70,6 +73,9 @@ public class ClassifierResults {
    
    private HashSet<Integer> orphanedConcepts = new HashSet<>();
    
+   //The duration of each phase of the classification.
+   private final Map<String, Duration> phaseDurations = Collections.synchronizedMap(new LinkedHashMap<>());
+   
    private final StampCoordinate stampCoordinate;
    private final LogicCoordinate logicCoordinate;
 
@@ -119,7 +125,8 @@ public class ClassifierResults {
             + (this.commitRecord.isPresent() && this.commitRecord.get().getSemanticNidsInCommit() != null ? this.commitRecord.get().getSemanticNidsInCommit().size(): "0") 
             + " affectedConcepts=" + this.affectedConcepts.size() + ", equivalentSets=" 
             + this.equivalentSets.size() + ", Orphans detected=" + orphanedConcepts.size() 
-            + " Concepts with cycles=" + (conceptsWithCycles.isPresent() ? conceptsWithCycles.get().size() : 0) + '}';
+            + " Concepts with cycles=" + (conceptsWithCycles.isPresent() ? conceptsWithCycles.get().size() : 0) 
+            + ", phase durations=" + this.phaseDurations + '}';
    }
 
    /**
@@ -176,6 +183,23 @@ public class ClassifierResults {
       return orphanedConcepts;
    }
 
+   /**
+    * Record the duration of a phase of the classification.
+    * @param phase the name of the phase
+    * @param duration the time the phase took
+    */
+   public void addPhaseDuration(String phase, Duration duration) {
+      phaseDurations.put(phase, duration);
+   }
+   
+   /**
+    * @return The duration of each phase of the classification, such as axiom extraction, axiom load, classification, 
+    * and write back of the inferred results
+    */
+   public Map<String, Duration> getPhaseDurations() {
+      return Collections.unmodifiableMap(phaseDurations);
+   }
+
    public StampCoordinate getStampCoordinate() {
       return stampCoordinate;
    }
@@ -622,8 +622,11 @@ public abstract class AbstractIntSet<T extends AbstractIntSet<T>> implements Int
        */
       @Override
       public boolean tryAdvance(IntConsumer action) {
-         action.accept(this.intIterator.next());
-         return this.intIterator.hasNext();
+         if (!this.intIterator.hasNext()) {
+            return false;
+         }
+         action.accept(this.intIterator.nextInt());
+         return true;
       }
 
       /**
@@ -0,0 +1,328 @@
+/* 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ *
+ * You may not use this file except in compliance with the License.
+ *
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Contributions from 2013-2017 where performed either by US government 
+ * employees, or under US Veterans Health Administration contracts. 
+ *
+ * US Veterans Health Administration contributions by government employees
+ * are work of the U.S. Government and are not subject to copyright
+ * protection in the United States. Portions contributed by government 
+ * employees are USGovWork (17USC §105). Not subject to copyright. 
+ * 
+ * Contribution by contractors to the US Veterans Health Administration
+ * during this period are contractually contributed under the
+ * Apache License, Version 2.0.
+ *
+ * See: https://www.usa.gov/government-works
+ * 
+ * Contributions prior to 2013:
+ *
+ * Copyright (C) International Health Terminology Standards Development Organisation.
+ * Licensed under the Apache License, Version 2.0.
+ *
+ */
+package sh.isaac.api.collections;
+
+//~--- JDK imports ------------------------------------------------------------
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.StampedLock;
+
+//~--- classes ----------------------------------------------------------------
+/**
+ * A dense, nid indexed reverse index from nid to UUIDs. The primordial UUID of each nid is held as a pair of longs
+ * in spined {@code long[]} arrays, so the primordial lookup is a constant time array read. The rare additional UUIDs
+ * of a nid are held in an overflow table.
+ *
+ * If constructed with a directory, spines are read from disk on first use, and changed spines and the overflow table
+ * are written by {@link #write()}. Each file is written to a temporary file, then moved in place, so a failed write
+ * leaves the previous file.
+ */
+public class NidToUuidIndex {
+    private static final int SPINE_SIZE = 65536;
+    private static final String SPINE_PREFIX = "nid-uuid-";
+    private static final String OVERFLOW_FILE = "nid-uuid-overflow";
+    private static final String TEMP_PREFIX = "tmp-";
+    private static final long[] EMPTY_SPINE = new long[0];
+
+    //~--- fields --------------------------------------------------------------
+
+    /** Interleaved most and least significant bits, indexed by the nid offset within the spine. */
+    private final ConcurrentHashMap<Integer, long[]> spines = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Integer, UUID[]> overflow = new ConcurrentHashMap<>();
+    private final BitSet changedSpines = new BitSet();
+    /** The spines in the directory when this index was opened. Not changed after construction. */
+    private final BitSet storedSpines = new BitSet();
+    private final StampedLock lock = new StampedLock();
+    private final File directory;
+    private volatile boolean overflowChanged = false;
+
+    //~--- constructors --------------------------------------------------------
+    /**
+     * Instantiates a new index, held only in memory.
+     */
+    public NidToUuidIndex() {
+        this.directory = null;
+    }
+
+    /**
+     * Instantiates a new index, persisted in the provided directory.
+     *
+     * @param directory the directory to read and write the index
+     */
+    public NidToUuidIndex(File directory) {
+        this.directory = directory;
+        final String[] fileNames = directory.list();
+        if (fileNames != null) {
+            for (String fileName : fileNames) {
+                if (fileName.startsWith(SPINE_PREFIX) && fileName.substring(SPINE_PREFIX.length()).matches("\\d+")) {
+                    storedSpines.set(Integer.parseInt(fileName.substring(SPINE_PREFIX.length())));
+                }
+            }
+        }
+        File overflowFile = new File(directory, OVERFLOW_FILE);
+        if (overflowFile.isFile()) {
+            try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(overflowFile)))) {
+                int size = in.readInt();
+                for (int i = 0; i < size; i++) {
+                    int nid = in.readInt();
+                    UUID[] uuids = new UUID[in.readInt()];
+                    for (int j = 0; j < uuids.length; j++) {
+                        uuids[j] = new UUID(in.readLong(), in.readLong());
+                    }
+                    overflow.put(nid, uuids);
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    //~--- methods -------------------------------------------------------------
+    /**
+     * @param directory the directory an index may have been written to
+     * @return true, if an index has been written to the directory
+     */
+    public static boolean exists(File directory) {
+        return new File(directory, OVERFLOW_FILE).isFile();
+    }
+
+    /**
+     * Adds the UUID to the UUIDs of the nid. The first UUID added for a nid is its primordial UUID.
+     *
+     * @param nid the nid
+     * @param uuid the uuid
+     */
+    public void add(int nid, UUID uuid) {
+        final long index = (long) nid - Integer.MIN_VALUE;
+        final int spineIndex = (int) (index / SPINE_SIZE);
+        final int position = (int) (index % SPINE_SIZE) * 2;
+        final long[] spine = getSpine(spineIndex, true);
+        final long stamp = lock.writeLock();
+        try {
+            long msb = spine[position];
+            long lsb = spine[position + 1];
+            if (msb == 0 && lsb == 0) {
+                spine[position] = uuid.getMostSignificantBits();
+                spine[position + 1] = uuid.getLeastSignificantBits();
+                changedSpines.set(spineIndex);
+            } else if (msb != uuid.getMostSignificantBits() || lsb != uuid.getLeastSignificantBits()) {
+                UUID[] additional = overflow.get(nid);
+                if (additional == null) {
+                    overflow.put(nid, new UUID[] {uuid});
+                } else if (!Arrays.asList(additional).contains(uuid)) {
+                    UUID[] temp = Arrays.copyOf(additional, additional.length + 1);
+                    temp[additional.length] = uuid;
+                    overflow.put(nid, temp);
+                } else {
+                    return;
+                }
+                overflowChanged = true;
+            }
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * @param nid the nid
+     * @return true, if at least one UUID is indexed for the nid
+     */
+    public boolean contains(int nid) {
+        return getPrimordial(nid) != null;
+    }
+
+    /**
+     * @param nid the nid
+     * @return the UUIDs of the nid, primordial UUID first, or an empty array if none are indexed.
+     */
+    public UUID[] get(int nid) {
+        final UUID primordial = getPrimordial(nid);
+        if (primordial == null) {
+            return new UUID[0];
+        }
+        final UUID[] additional = overflow.get(nid);
+        if (additional == null) {
+            return new UUID[] {primordial};
+        }
+        final UUID[] uuids = new UUID[additional.length + 1];
+        uuids[0] = primordial;
+        System.arraycopy(additional, 0, uuids, 1, additional.length);
+        return uuids;
+    }
+
+    /**
+     * @param nid the nid
+     * @return the primordial UUID of the nid, or null if none is indexed.
+     */
+    public UUID getPrimordial(int nid) {
+        final long index = (long) nid - Integer.MIN_VALUE;
+        final long[] spine = getSpine((int) (index / SPINE_SIZE), false);
+        if (spine == EMPTY_SPINE) {
+            return null;
+        }
+        final int position = (int) (index % SPINE_SIZE) * 2;
+        long stamp = lock.tryOptimisticRead();
+        long msb = spine[position];
+        long lsb = spine[position + 1];
+        if (!lock.validate(stamp)) {
+            stamp = lock.readLock();
+            try {
+                msb = spine[position];
+                lsb = spine[position + 1];
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+        if (msb == 0 && lsb == 0) {
+            return null;
+        }
+        return new UUID(msb, lsb);
+    }
+
+    /**
+     * @return the number of bytes held in memory by the index
+     */
+    public long getMemoryInUse() {
+        return spines.size() * (SPINE_SIZE * 16L) + overflow.size() * 64L;
+    }
+
+    /**
+     * Write the changed spines and the overflow table to the directory of this index. Does nothing for an index
+     * held only in memory.
+     *
+     * @throws IOException Signals that an I/O exception has occurred.
+     */
+    public void write() throws IOException {
+        if (directory == null) {
+            return;
+        }
+        directory.mkdirs();
+        BitSet toWrite;
+        final long stamp = lock.writeLock();
+        try {
+            toWrite = (BitSet) changedSpines.clone();
+            changedSpines.clear();
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+        try {
+            for (int spineIndex = toWrite.nextSetBit(0); spineIndex >= 0; spineIndex = toWrite.nextSetBit(spineIndex + 1)) {
+                final long[] spine = spines.get(spineIndex);
+                final File tempFile = new File(directory, TEMP_PREFIX + SPINE_PREFIX + spineIndex);
+                try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tempFile)))) {
+                    for (long value : spine) {
+                        out.writeLong(value);
+                    }
+                }
+                Files.move(tempFile.toPath(), new File(directory, SPINE_PREFIX + spineIndex).toPath(),
+                        StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            }
+        } catch (IOException e) {
+            // Write the spines again with the next write
+            final long failedStamp = lock.writeLock();
+            try {
+                changedSpines.or(toWrite);
+            } finally {
+                lock.unlockWrite(failedStamp);
+            }
+            throw e;
+        }
+        // Always write the overflow table the first time, it marks the index as present.
+        if (overflowChanged || !exists(directory)) {
+            overflowChanged = false;
+            final File tempFile = new File(directory, TEMP_PREFIX + OVERFLOW_FILE);
+            try {
+                try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tempFile)))) {
+                    out.writeInt(overflow.size());
+                    for (Map.Entry<Integer, UUID[]> entry : overflow.entrySet()) {
+                        out.writeInt(entry.getKey());
+                        out.writeInt(entry.getValue().length);
+                        for (UUID uuid : entry.getValue()) {
+                            out.writeLong(uuid.getMostSignificantBits());
+                            out.writeLong(uuid.getLeastSignificantBits());
+                        }
+                    }
+                }
+                Files.move(tempFile.toPath(), new File(directory, OVERFLOW_FILE).toPath(),
+                        StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (IOException e) {
+                overflowChanged = true;
+                throw e;
+            }
+        }
+    }
+
+    private long[] getSpine(int spineIndex, boolean create) {
+        long[] spine = spines.get(spineIndex);
+        if (spine != null) {
+            return spine;
+        }
+        if (!create && !storedSpines.get(spineIndex)) {
+            return EMPTY_SPINE;
+        }
+        return spines.computeIfAbsent(spineIndex, (key) -> readSpine(key));
+    }
+
+    private long[] readSpine(int spineIndex) {
+        final long[] spine = new long[SPINE_SIZE * 2];
+        if (storedSpines.get(spineIndex)) {
+            final File spineFile = new File(directory, SPINE_PREFIX + spineIndex);
+            try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(spineFile)))) {
+                for (int i = 0; i < spine.length; i++) {
+                    spine[i] = in.readLong();
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        return spine;
+    }
+}
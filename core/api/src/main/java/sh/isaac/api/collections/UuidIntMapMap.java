@@ -36,16 +36,12 @@
  */
 package sh.isaac.api.collections;
 
-import com.github.benmanes.caffeine.cache.Cache;
-import com.github.benmanes.caffeine.cache.Caffeine;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import sh.isaac.api.collections.uuidnidmap.ConcurrentUuidToIntHashMap;
 import sh.isaac.api.collections.uuidnidmap.UuidToIntMap;
 import sh.isaac.api.util.UUIDUtil;
 
-import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.OptionalInt;
 import java.util.UUID;
 import java.util.concurrent.atomic.AtomicInteger;
@@ -85,20 +81,21 @@ public abstract class UuidIntMapMap implements UuidToIntMap {
      */
     ReentrantLock lock = new ReentrantLock();
     /**
-     * The nid to primordial cache.
+     * The nid to uuid index.
      */
-    private Cache<Integer, UUID[]> nidToPrimordialCache = null;
+    protected NidToUuidIndex nidToUuidIndex = new NidToUuidIndex();
+    /**
+     * False if the maps hold UUIDs that were never added to the nid to uuid index, as when opening a
+     * database written before the index existed. The index is rebuilt from the maps on first use.
+     */
+    protected volatile boolean nidToUuidIndexComplete = true;
 
     /**
      * {@inheritDoc}
      */
     @Override
     public boolean cacheContainsNid(int nid) {
-        if (this.nidToPrimordialCache != null) {
-            return this.nidToPrimordialCache.getIfPresent(nid) != null;
-        }
-
-        return false;
+        return this.nidToUuidIndexComplete && this.nidToUuidIndex.contains(nid);
     }
 
     /**
@@ -132,8 +129,10 @@ public abstract class UuidIntMapMap implements UuidToIntMap {
             final boolean returnValue = map.put(keyAsArray, value, stamp);
 
             this.mapElementUpdated(mapIndex);
+            // A nid put directly, such as one recovered from a datastore log, must never be generated again.
+            NEXT_NID_PROVIDER.accumulateAndGet(value, Math::max);
             if (returnValue) {
-               updateCache(value, uuidKey);
+               this.nidToUuidIndex.add(value, uuidKey);
             }
             return returnValue;
         } finally {
@@ -169,26 +168,26 @@ public abstract class UuidIntMapMap implements UuidToIntMap {
     }
 
     /**
-     * Update cache.
-     *
-     * @param nid the nid
-     * @param uuidKey the uuid key
+     * Rebuild the nid to uuid index with a scan of all the maps, if the index is not complete.
      */
-    private void updateCache(int nid, UUID uuidKey) {
-        if (this.nidToPrimordialCache != null) {
-            synchronized (nidToPrimordialCache) {
-                final UUID[] temp = this.nidToPrimordialCache.getIfPresent(nid);
-                UUID[] temp1;
-
-                if (temp == null) {
-                    temp1 = new UUID[]{uuidKey};
-                } else {
-                    temp1 = Arrays.copyOf(temp, temp.length + 1);
-                    temp1[temp.length] = uuidKey;
+    protected void completeNidToUuidIndex() {
+        if (this.nidToUuidIndexComplete) {
+            return;
+        }
+        this.lock.lock();
+        try {
+            if (!this.nidToUuidIndexComplete) {
+                LOG.info("Building nid to uuid index from uuid to nid maps");
+                for (int index = 0; index < NUMBER_OF_MAPS; index++) {
+                    getMap(index).forEachPair((uuid, nid) -> {
+                        this.nidToUuidIndex.add(nid, UUIDUtil.convert(uuid));
+                        return true;
+                    });
                 }
-
-                this.nidToPrimordialCache.put(nid, temp1);
+                this.nidToUuidIndexComplete = true;
             }
+        } finally {
+            this.lock.unlock();
         }
     }
 
@@ -205,31 +204,8 @@ public abstract class UuidIntMapMap implements UuidToIntMap {
      */
     @Override
     public UUID[] getKeysForValue(int nid) {
-        if (this.nidToPrimordialCache != null) {
-            final UUID[] cacheHit = this.nidToPrimordialCache.getIfPresent(nid);
-
-            if ((cacheHit != null) && (cacheHit.length > 0)) {
-                return cacheHit;
-            }
-        }
-
-        final ArrayList<UUID> uuids = new ArrayList<>();
-
-        for (int index = 0; index < NUMBER_OF_MAPS; index++) {
-            getMap(index).keysOf(nid)
-                    .stream()
-                    .forEach(uuid -> {
-                        uuids.add(uuid);
-                    });
-        }
-
-        final UUID[] temp = uuids.toArray(new UUID[uuids.size()]);
-
-        if ((this.nidToPrimordialCache != null) && (temp.length > 0)) {
-            this.nidToPrimordialCache.put(nid, temp);
-        }
-
-        return temp;
+        completeNidToUuidIndex();
+        return this.nidToUuidIndex.get(nid);
     }
 
     /**
@@ -303,7 +279,7 @@ public abstract class UuidIntMapMap implements UuidToIntMap {
 
             this.mapElementUpdated(mapIndex);
             map.put(keyAsArray, intNid, stamp);
-            updateCache(intNid, uuidKey);
+            this.nidToUuidIndex.add(intNid, uuidKey);
             return intNid;
         } finally {
             map.getStampedLock()
@@ -318,7 +294,7 @@ public abstract class UuidIntMapMap implements UuidToIntMap {
      */
     @Override
     public boolean inverseCacheEnabled() {
-        return nidToPrimordialCache != null;
+        return this.nidToUuidIndexComplete;
     }
 
     /**
@@ -327,8 +303,6 @@ public abstract class UuidIntMapMap implements UuidToIntMap {
     @Override
     public void enableInverseCache()
     {
-        if (this.nidToPrimordialCache == null) {
-            this.nidToPrimordialCache = Caffeine.newBuilder().build();
-        }
+        completeNidToUuidIndex();
     }
 }
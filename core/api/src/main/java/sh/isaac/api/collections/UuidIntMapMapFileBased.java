@@ -40,8 +40,6 @@ package sh.isaac.api.collections;
 import java.io.*;
 import java.nio.file.Files;
 //~--- non-JDK imports --------------------------------------------------------
-import sh.isaac.api.ConfigurationService.BuildMode;
-import sh.isaac.api.Get;
 import sh.isaac.api.collections.uuidnidmap.ConcurrentUuidToIntHashMap;
 import sh.isaac.api.externalizable.ByteArrayDataBuffer;
 import sh.isaac.api.memory.DiskSemaphore;
@@ -83,11 +81,11 @@ public class UuidIntMapMapFileBased
             WriteToDiskCache.addToCache(this.maps[i]);
         }
 
-        //Loader utility enables this when doing IBDF file creation to to get from nid back to UUID  - this prevents it from doing table scans.
-        if (Get.configurationService().isInDBBuildMode(BuildMode.IBDF)) {
-            enableInverseCache();
-        }
-        
+        File indexFolder = new File(folder, "nid-uuid-index");
+        boolean mapsWritten = new File(folder, "map.params").isFile();
+        this.nidToUuidIndex = new NidToUuidIndex(indexFolder);
+        this.nidToUuidIndexComplete = !mapsWritten || NidToUuidIndex.exists(indexFolder);
+
         File params = new File(folder, "map.params");
         try {
          if (params.isFile()) {
@@ -147,6 +145,11 @@ public class UuidIntMapMapFileBased
             }
         }
         
+        // An incomplete index is rebuilt at next use, rather than written as if it were complete.
+        if (this.nidToUuidIndexComplete) {
+            this.nidToUuidIndex.write();
+        }
+
         ByteArrayDataBuffer badb = new ByteArrayDataBuffer();
         badb.putInt(getMaxNid());
 
@@ -227,7 +230,7 @@ public class UuidIntMapMapFileBased
                 memoryInUse += map.get().getMemoryInUse();
             }
         }
-        return memoryInUse;
+        return memoryInUse + (int) this.nidToUuidIndex.getMemoryInUse();
     }
 
     //~--- get methods ---------------------------------------------------------
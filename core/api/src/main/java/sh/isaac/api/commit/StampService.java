@@ -186,6 +186,54 @@ public interface StampService
     */
    int getPathNidForStamp(int stampSequence);
 
+   /**
+    * Bulk read of the times of stamps.
+    *
+    * @param stampSequences the stamp sequences
+    * @param times receives the time of each stamp, at the index of the stamp in stampSequences
+    */
+   default void getTimesForStamps(int[] stampSequences, long[] times) {
+      for (int i = 0; i < stampSequences.length; i++) {
+         times[i] = getTimeForStamp(stampSequences[i]);
+      }
+   }
+
+   /**
+    * Bulk read of the author nids of stamps.
+    *
+    * @param stampSequences the stamp sequences
+    * @param authorNids receives the author nid of each stamp, at the index of the stamp in stampSequences
+    */
+   default void getAuthorNidsForStamps(int[] stampSequences, int[] authorNids) {
+      for (int i = 0; i < stampSequences.length; i++) {
+         authorNids[i] = getAuthorNidForStamp(stampSequences[i]);
+      }
+   }
+
+   /**
+    * Bulk read of the module nids of stamps.
+    *
+    * @param stampSequences the stamp sequences
+    * @param moduleNids receives the module nid of each stamp, at the index of the stamp in stampSequences
+    */
+   default void getModuleNidsForStamps(int[] stampSequences, int[] moduleNids) {
+      for (int i = 0; i < stampSequences.length; i++) {
+         moduleNids[i] = getModuleNidForStamp(stampSequences[i]);
+      }
+   }
+
+   /**
+    * Bulk read of the path nids of stamps.
+    *
+    * @param stampSequences the stamp sequences
+    * @param pathNids receives the path nid of each stamp, at the index of the stamp in stampSequences
+    */
+   default void getPathNidsForStamps(int[] stampSequences, int[] pathNids) {
+      for (int i = 0; i < stampSequences.length; i++) {
+         pathNids[i] = getPathNidForStamp(stampSequences[i]);
+      }
+   }
+
    /**
     * Used by the commit manager to get the pending stamps, so that there is a
     * definitive list if items in the commit. Should only be used by developers
@@ -303,5 +351,12 @@ public interface StampService
     * @return
     */
    Stamp getStamp(int stamp);
+
+   /**
+    * Block until every committed stamp added so far is durable. A commit calls this before it is reported as
+    * complete. The default does nothing, for stamp services whose stamps are stored by the datastore.
+    */
+   default void forceCommittedStamps() {
+   }
 }
 
@@ -110,5 +110,50 @@ public class SystemPropertyConstants {
     */
    public static final String FAIL_ON_DATABASE_IDENTITY_MISMATCH = "FAIL_ON_DATABASE_IDENTITY_MISMATCH";
 
+   /** 
+    * Used to disable the write ahead log of the file system datastore, by providing a value of 'false'.  Without the log,
+    * changes are only durable after the next datastore sync.
+    */
+   public static final String DATA_STORE_WRITE_AHEAD_LOG = "DATA_STORE_WRITE_AHEAD_LOG";
+
+   /** 
+    * Used to specify the eviction policy of the datastore cache used in front of remote datastores, either W_TINY_LFU 
+    * (the default) or LRU.
+    */
+   public static final String DATA_STORE_CACHE_POLICY = "DATA_STORE_CACHE_POLICY";
+
+   /** 
+    * Used to specify the maximum bytes of chronology data held by the datastore cache.
+    */
+   public static final String DATA_STORE_CACHE_CHRONOLOGY_BYTES = "DATA_STORE_CACHE_CHRONOLOGY_BYTES";
+
+   /** 
+    * Used to specify the maximum bytes of taxonomy data held by the datastore cache.
+    */
+   public static final String DATA_STORE_CACHE_TAXONOMY_BYTES = "DATA_STORE_CACHE_TAXONOMY_BYTES";
+
+   /** 
+    * Used to specify the maximum bytes of component to semantic nid data held by the datastore cache.
+    */
+   public static final String DATA_STORE_CACHE_SEMANTIC_NIDS_BYTES = "DATA_STORE_CACHE_SEMANTIC_NIDS_BYTES";
+
+   /** 
+    * Used to specify the maximum bytes held by each of the uuid to nid, and nid to uuid maps of the datastore cache.
+    */
+   public static final String DATA_STORE_CACHE_UUID_BYTES = "DATA_STORE_CACHE_UUID_BYTES";
+
+   /** 
+    * Used to enable the cache of the stored data of concept and semantic chronologies of the chronology provider, by
+    * providing the maximum number of chronologies to hold. The cache is disabled by default, since it saves only the
+    * datastore read, which the file system datastore serves from memory. Enable it for datastores with costly reads.
+    */
+   public static final String CHRONOLOGY_CACHE_SIZE = "CHRONOLOGY_CACHE_SIZE";
+
+   /** 
+    * Used to write IBDF v1 files, without the trailing block index of IBDF v2, by providing a value of 'false'.  Readers
+    * that predate IBDF v2 fail at the block index, so files for them must be written in v1.
+    */
+   public static final String IBDF_BLOCK_INDEX = "IBDF_BLOCK_INDEX";
+
 }
 
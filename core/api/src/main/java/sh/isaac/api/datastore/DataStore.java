@@ -42,7 +42,9 @@ package sh.isaac.api.datastore;
 
 import java.util.Optional;
 import java.util.OptionalInt;
+import java.util.UUID;
 import java.util.function.BinaryOperator;
+import java.util.function.ObjIntConsumer;
 import java.util.stream.IntStream;
 import org.jvnet.hk2.annotations.Contract;
 import sh.isaac.api.DatastoreServices;
@@ -100,6 +102,22 @@ public interface DataStore
     */
    Optional<ByteArrayDataBuffer> getChronologyVersionData(int nid);
 
+   /**
+    * Pass the stored chronology data for each of the specified nids that has data to the consumer, in the order of 
+    * the nids.  Nids with no stored data are skipped.  Stores that can read many nids at less cost than reading 
+    * each with {@link #getChronologyVersionData(int)} should override this method.
+    * @param nids the nids to read
+    * @param consumer accepts the data, and the nid it was read for
+    */
+   default void getChronologyVersionData(int[] nids, ObjIntConsumer<ByteArrayDataBuffer> consumer) {
+      for (int nid : nids) {
+         Optional<ByteArrayDataBuffer> data = getChronologyVersionData(nid);
+         if (data.isPresent()) {
+            consumer.accept(data.get(), nid);
+         }
+      }
+   }
+
    /**
     * Gets the SemanticChronology nids for component.
     *
@@ -107,6 +125,22 @@ public interface DataStore
     * @return the SemanticChronology nids for component.  Should not return null, rather, return an empty array, if none
     */
    int[] getSemanticNidsForComponent(int componentNid);
+
+   /**
+    * Gets the SemanticChronology nids for each of the specified components.  Stores that can read many components 
+    * at less cost than reading each with {@link #getSemanticNidsForComponent(int)} should override this method.
+    *
+    * @param componentNids the component nids
+    * @return the SemanticChronology nids for each component, in the order of the component nids.  A component with
+    * no semantics has an empty array.
+    */
+   default int[][] getSemanticNidsForComponents(int[] componentNids) {
+      int[][] results = new int[componentNids.length][];
+      for (int i = 0; i < componentNids.length; i++) {
+         results[i] = getSemanticNidsForComponent(componentNids[i]);
+      }
+      return results;
+   }
    
    /**
     * Get the assemblage nid id that contains the specified nid.
@@ -208,5 +242,33 @@ public interface DataStore
    default boolean implementsExtendedStoreAPI() {
       return false;
    }
+
+   /**
+    * Block until every change written to the datastore so far is durable. A commit calls this before it is reported
+    * as complete. The default does nothing, for datastores whose changes are only durable once synced.
+    */
+   default void forceChanges() {
+   }
+
+   /**
+    * Record a uuid to nid assignment, made by an identifier service that keeps its own map of them, with the changes
+    * of the datastore, so that a crash before the next sync does not lose the nids used by recovered chronologies.
+    * The default does nothing.
+    *
+    * @param uuid the uuid
+    * @param nid the nid assigned to the uuid
+    */
+   default void logUuidForNid(UUID uuid, int nid) {
+   }
+
+   /**
+    * Pass the uuid to nid assignments recovered when the datastore started to the consumer, and forget them. The
+    * identifier service calls this when it starts, and writes the assignments with its map on the next sync. The
+    * default recovers nothing.
+    *
+    * @param consumer passed each recovered uuid, and the nid assigned to it
+    */
+   default void takeRecoveredUuidsForNids(ObjIntConsumer<UUID> consumer) {
+   }
 }
 
@@ -60,5 +60,16 @@ public interface BinaryDataReaderService
     * @return the stream
     */
    Stream<IsaacExternalizable> getStream();
+
+   /**
+    * Return a parallel stream of the ochreExternlizables, already parsed. Sources that can be split, such as 
+    * block indexed IBDF files, are read and parsed by multiple threads, so the encounter order of the stream 
+    * is preserved, but consumers must not depend on the processing order. 
+    *
+    * @return the stream, by default the sequential stream of {@link #getStream()}
+    */
+   default Stream<IsaacExternalizable> getParallelStream() {
+      return getStream();
+   }
 }
 
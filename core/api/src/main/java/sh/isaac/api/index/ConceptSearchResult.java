@@ -184,7 +184,7 @@ public class ConceptSearchResult implements SearchResult {
 	 * @return the score of the component with the best score, relative to the other matches
 	 */
 	public float getBestScore() {
-		return this.nids.first().getValue();
+		return this.nids.first().getKey();
 	}
 
 	/**
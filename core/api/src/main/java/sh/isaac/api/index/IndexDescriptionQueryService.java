@@ -38,10 +38,13 @@
 package sh.isaac.api.index;
 
 import java.util.List;
+import java.util.function.BooleanSupplier;
 import java.util.function.Predicate;
 
 import org.jvnet.hk2.annotations.Contract;
+import sh.isaac.api.Status;
 import sh.isaac.api.component.concept.ConceptSpecification;
+import sh.isaac.api.coordinate.StampCoordinate;
 import sh.isaac.api.util.ArrayUtil;
 
 /**
@@ -116,6 +119,102 @@ public interface IndexDescriptionQueryService extends IndexQueryService {
          Integer sizeLimit,
          Long targetGeneration);
    
+   /**
+    * Type-ahead completion of concepts from the text of their descriptions.  Rather than expanding a prefix over all of the terms of the 
+    * description index, as a prefix {@code query(...)} does, this reads a completion field that the description indexer maintains alongside 
+    * the searchable text, so that each keystroke is a handful of term lookups.
+    * 
+    * Every word of the text is required.  The last word is matched as a prefix, unless the text ends with a space.  Matches are ranked 
+    * active descriptions first, then regular names before fully qualified names before other description types, then shorter descriptions 
+    * first.  The active status and type are those of the most recent version of each description.
+    *
+    * @param text the text typed so far
+    * @param assemblageConcepts - optional - The concept nid(s) of the description assemblages to search within, or null for all.
+    * @param amp - optional - The stamp criteria to restrict the search, or no restriction if not provided.
+    * @param metadataOnly - Only complete concepts which are part of the {@link MetaData#SOLOR_METADATA} tree when true.
+    * @param limit the maximum number of concepts to return
+    * @param cancelled - optional - polled while the search runs.  Return true once the request is superseded, for example by the next 
+    *           keystroke, and the search stops early, returning what it found so far.
+    * @return one result per concept, best first.  The nid of each result is the best matching description of the concept.
+    */
+   public List<ConceptSearchResult> complete(String text,
+         int[] assemblageConcepts,
+         AuthorModulePathRestriction amp,
+         boolean metadataOnly,
+         int limit,
+         BooleanSupplier cancelled);
+   
+   /**
+    * The same search as {@link #query(String, boolean, int[], Predicate, AuthorModulePathRestriction, boolean, int[], int[], Integer, Integer, Long)},
+    * but only of the latest version of each description on {@link #getLatestDocumentCoordinate()}, rather than of all of its versions.  
+    * The index keeps one document for the latest version of each description, so this is a single search, with exact paging, and without 
+    * descriptions that only matched on a retired version.
+    *
+    * @param amp - optional - restricts the author, module and path of the latest version, or no restriction if not provided.
+    * @param activeOnly - only match descriptions whose latest version is active when true, otherwise, match any status.
+    * 
+    * See {@link #query(String, boolean, int[], Predicate, AuthorModulePathRestriction, boolean, int[], int[], Integer, Integer, Long)} for 
+    * the other parameters.
+    * @return a List of {@code SearchResult} that contains the nid of the description that matched, and the score of that match relative to 
+    *         other matches.
+    */
+   public List<SearchResult> queryLatest(String query,
+         boolean prefixSearch,
+         int[] assemblageConcepts,
+         Predicate<Integer> filter,
+         AuthorModulePathRestriction amp,
+         boolean activeOnly,
+         boolean metadataOnly,
+         int[] descriptionTypes,
+         int[] extendedDescriptionTypes,
+         Integer pageNum,
+         Integer sizeLimit,
+         Long targetGeneration);
+
+   /**
+    * @return the coordinate of the latest versions searched by 
+    * {@link #queryLatest(String, boolean, int[], Predicate, AuthorModulePathRestriction, boolean, boolean, int[], int[], Integer, Integer, Long)}
+    */
+   public StampCoordinate getLatestDocumentCoordinate();
+
+   /**
+    * Search the descriptions as they are on a stamp coordinate.  A coordinate of the latest position on the path of 
+    * {@link #getLatestDocumentCoordinate()}, without a module restriction, and either allowing any status, or active only, is answered
+    * with {@link #queryLatest(String, boolean, int[], Predicate, AuthorModulePathRestriction, boolean, boolean, int[], int[], Integer, Integer, Long)}.
+    * Any other coordinate is answered by a search of all versions, restricted to the modules and path of the coordinate.
+    * 
+    * See {@link #query(String, boolean, int[], Predicate, AuthorModulePathRestriction, boolean, int[], int[], Integer, Integer, Long)} for 
+    * the other parameters.
+    * 
+    * @param stampCoordinate the coordinate to search on
+    * @return a List of {@code SearchResult}
+    */
+   default List<SearchResult> queryOnCoordinate(String query,
+         boolean prefixSearch,
+         int[] assemblageConcepts,
+         Predicate<Integer> filter,
+         StampCoordinate stampCoordinate,
+         boolean metadataOnly,
+         int[] descriptionTypes,
+         int[] extendedDescriptionTypes,
+         Integer pageNum,
+         Integer sizeLimit,
+         Long targetGeneration) {
+      
+      final StampCoordinate latestCoordinate = getLatestDocumentCoordinate();
+      final boolean activeOnly = Status.isActiveOnlySet(stampCoordinate.getAllowedStates());
+      if (latestCoordinate != null
+            && stampCoordinate.getStampPosition().getPathNid() == latestCoordinate.getStampPosition().getPathNid()
+            && stampCoordinate.getStampPosition().getTime() == Long.MAX_VALUE
+            && stampCoordinate.getModuleNids().isEmpty()
+            && (activeOnly || stampCoordinate.getAllowedStates().containsAll(Status.ANY_STATUS_SET))) {
+         return queryLatest(query, prefixSearch, assemblageConcepts, filter, null, activeOnly, metadataOnly, descriptionTypes, 
+               extendedDescriptionTypes, pageNum, sizeLimit, targetGeneration);
+      }
+      return query(query, prefixSearch, assemblageConcepts, filter, AuthorModulePathRestriction.restrict(stampCoordinate), metadataOnly, 
+            descriptionTypes, extendedDescriptionTypes, pageNum, sizeLimit, targetGeneration);
+   }
+   
    /**
     * See {@link #query(String, boolean, int[], Predicate, AuthorModulePathRestriction, boolean, int[], int[], Integer, Integer, Long)}
     */
@@ -0,0 +1,119 @@
+/*
+ * Copyright 2019 Organizations participating in ISAAC, ISAAC's KOMET, and SOLOR development include the
+         US Veterans Health Administration, OSHERA, and the Health Services Platform Consortium..
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package sh.isaac.api.index;
+
+import java.util.Objects;
+import java.util.function.IntPredicate;
+import java.util.function.Predicate;
+import sh.isaac.api.collections.IntSet;
+
+/**
+ * A search filter on the nids of the components which match a query, that the indexers test as a primitive
+ * {@link IntPredicate}, without boxing each nid. It can be passed anywhere a {@code Predicate<Integer>} filter is
+ * accepted by {@link IndexQueryService} and its extensions. Other predicates still work, but box every candidate nid.
+ *
+ * Filters used with paging should be reused, or be made over the same set, so that the cached position of the
+ * previous page is found, see {@link #hashCode()}.
+ *
+ * @author kec
+ */
+public final class NidFilter implements Predicate<Integer>, IntPredicate {
+
+    //~--- fields --------------------------------------------------------------
+    private final Object source;
+    private final boolean negated;
+    private final IntPredicate predicate;
+
+    //~--- constructors --------------------------------------------------------
+    private NidFilter(Object source, boolean negated, IntPredicate predicate) {
+        this.source = source;
+        this.negated = negated;
+        this.predicate = predicate;
+    }
+
+    //~--- methods -------------------------------------------------------------
+    /**
+     * @param predicate the test of each nid
+     * @return a filter that passes the nids the predicate accepts
+     */
+    public static NidFilter of(IntPredicate predicate) {
+        if (predicate instanceof NidFilter) {
+            return (NidFilter) predicate;
+        }
+        return new NidFilter(predicate, false, predicate);
+    }
+
+    /**
+     * @param allowedNids a precomputed set of nids, such as a {@link sh.isaac.api.collections.NidSet} or a
+     * {@link sh.isaac.api.collections.RoaringIntSet}, which should not be changed while searches use it
+     * @return a filter that passes only the nids in the set
+     */
+    public static NidFilter of(IntSet allowedNids) {
+        return new NidFilter(allowedNids, false, allowedNids::contains);
+    }
+
+    /**
+     * @param filter a filter passed to a query, may be null
+     * @return the filter as an {@link IntPredicate}, or null if there is no filter
+     */
+    public static IntPredicate asIntPredicate(Predicate<Integer> filter) {
+        if (filter == null || filter instanceof IntPredicate) {
+            return (IntPredicate) filter;
+        }
+        return filter::test;
+    }
+
+    @Override
+    public boolean test(int nid) {
+        return predicate.test(nid);
+    }
+
+    @Override
+    public boolean test(Integer nid) {
+        return predicate.test(nid);
+    }
+
+    @Override
+    public NidFilter negate() {
+        return new NidFilter(source, !negated, predicate.negate());
+    }
+
+    /**
+     * @return the hash code of the set or predicate the filter was made from
+     */
+    @Override
+    public int hashCode() {
+        return negated ? ~source.hashCode() : source.hashCode();
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (!(obj instanceof NidFilter)) {
+            return false;
+        }
+        NidFilter other = (NidFilter) obj;
+        return negated == other.negated && Objects.equals(source, other.source);
+    }
+
+    @Override
+    public String toString() {
+        return "NidFilter{" + (negated ? "not " : "") + source + '}';
+    }
+}
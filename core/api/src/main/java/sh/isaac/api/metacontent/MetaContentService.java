@@ -62,6 +62,12 @@ public interface MetaContentService {
     */
    public void close();
 
+   /**
+    * Write the content of all stores to disk now, rather than at the next flush interval.  Use after an update that must
+    * survive a crash, such as a checkpoint.
+    */
+   public void commit();
+
    /**
     * Open or create a new data store.  The type of the key and value must be specified.
     * Not being consistent with the Key/Value types for a particular store name will result in
@@ -0,0 +1,366 @@
+/*
+ * Copyright 2019 Organizations participating in ISAAC, ISAAC's KOMET, and SOLOR development include the
+         US Veterans Health Administration, OSHERA, and the Health Services Platform Consortium..
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package sh.isaac.api.query;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+import javafx.beans.property.ReadOnlyProperty;
+import sh.isaac.api.Get;
+import sh.isaac.api.bootstrap.TermAux;
+import sh.isaac.api.chronicle.Chronology;
+import sh.isaac.api.chronicle.LatestVersion;
+import sh.isaac.api.chronicle.Version;
+import sh.isaac.api.component.concept.ConceptSpecification;
+import sh.isaac.api.component.semantic.SemanticChronology;
+import sh.isaac.api.component.semantic.version.ComponentNidVersion;
+import sh.isaac.api.component.semantic.version.DescriptionVersion;
+import sh.isaac.api.component.semantic.version.LongVersion;
+import sh.isaac.api.component.semantic.version.StringVersion;
+import sh.isaac.api.coordinate.StampCoordinate;
+import sh.isaac.api.observable.ObservableVersion;
+
+/**
+ * Computes the rows of a {@link Join}. The join field of each component is read once, from the latest 
+ * version, and the two sides are joined with a hash join, built on the smaller side. When the smaller side 
+ * is larger than {@link #MAX_HASH_JOIN_BUILD_ROWS}, and the join fields are comparable, a sort-merge join 
+ * is used instead, to bound the size of the hash table. Either join streams its rows as they are matched. 
+ * 
+ * Fields of the version itself, the referenced component of a semantic, and the fields of description, 
+ * component nid, long and string semantics, are read from the version, with the values of the observable 
+ * version fields. Other fields are read from the observable version, since the observable version defines 
+ * the mapping of field concepts to values. 
+ *
+ * @author kec
+ */
+public class JoinEngine {
+
+    /**
+     * The largest build side of a hash join. 
+     */
+    public static final int MAX_HASH_JOIN_BUILD_ROWS = 1 << 22;
+
+    // The uuids of the observable fields of semantic versions that are read from the version
+    private static final UUID NATIVE_ID_FOR_COMPONENT = UUID.fromString("7e93198d-fa02-596e-943c-34aebff860a5");
+    private static final UUID CASE_SIGNIFICANCE_CONCEPT_NID_FOR_DESCRIPTION = UUID.fromString("57271621-3f3c-58dd-8148-2674bc11b7e5");
+    private static final UUID LANGUAGE_CONCEPT_NID_FOR_DESCRIPTION = UUID.fromString("cd56cceb-8507-5ae5-a928-16079fe6f832");
+    private static final UUID TEXT_FOR_DESCRIPTION = UUID.fromString("8bdcbe5d-e92e-5c10-845e-b585e6061672");
+    private static final UUID DESCRIPTION_TYPE_FOR_DESCRIPTION = UUID.fromString("a00c5ad7-5b8a-5592-a28c-64057dd3caab");
+    private static final UUID COMPONENT_NID_FOR_SEMANTIC = UUID.fromString("0bc32c16-698e-5719-8bd5-efa099c7d782");
+    private static final UUID LONG_VALUE_FOR_SEMANTIC = UUID.fromString("8beae8a8-7a45-52ba-aaf9-16bfa08f4917");
+    private static final UUID STRING_VALUE_FOR_SEMANTIC = UUID.fromString("5c80e7e4-25de-5da4-9bfa-ed5200f5a623");
+
+    private JoinEngine() {
+        // static methods only
+    }
+
+    /**
+     * Join the components of the first and second assemblage of a join specification. 
+     *
+     * @param firstNids the components of the first assemblage
+     * @param secondNids the components of the second assemblage
+     * @param joinSpec the join specification
+     * @param stampCoordinate the stamp coordinate that determines the latest version of each component
+     * @return a stream of [first nid, second nid] pairs with equal join field values
+     */
+    public static Stream<int[]> join(int[] firstNids, int[] secondNids, JoinSpecification joinSpec, StampCoordinate stampCoordinate) {
+        Object[] firstKeys = readFieldValues(firstNids, joinSpec.getFirstField().getFieldSpec(), stampCoordinate);
+        Object[] secondKeys = readFieldValues(secondNids, joinSpec.getSecondField().getFieldSpec(), stampCoordinate);
+        return join(firstNids, firstKeys, secondNids, secondKeys);
+    }
+
+    /**
+     * Join two sets of components by key. Components with a null key are not joined. 
+     *
+     * @param firstNids the first components
+     * @param firstKeys the key of each first component
+     * @param secondNids the second components
+     * @param secondKeys the key of each second component
+     * @return a stream of [first nid, second nid] pairs with equal keys
+     */
+    public static Stream<int[]> join(int[] firstNids, Object[] firstKeys, int[] secondNids, Object[] secondKeys) {
+        if (Math.min(firstNids.length, secondNids.length) > MAX_HASH_JOIN_BUILD_ROWS
+                && isComparable(firstKeys, secondKeys)) {
+            return sortMergeJoin(firstNids, firstKeys, secondNids, secondKeys);
+        }
+        return hashJoin(firstNids, firstKeys, secondNids, secondKeys);
+    }
+
+    /**
+     * Hash join, building the table on the smaller side, and probing with the larger side. 
+     */
+    static Stream<int[]> hashJoin(int[] firstNids, Object[] firstKeys, int[] secondNids, Object[] secondKeys) {
+        boolean buildFirst = firstNids.length <= secondNids.length;
+        int[] buildNids = buildFirst ? firstNids : secondNids;
+        Object[] buildKeys = buildFirst ? firstKeys : secondKeys;
+        int[] probeNids = buildFirst ? secondNids : firstNids;
+        Object[] probeKeys = buildFirst ? secondKeys : firstKeys;
+
+        // each key maps to the first row with the key, and next links the rows with the same key. 
+        HashMap<Object, Integer> firstRowForKey = new HashMap<>(buildKeys.length * 2);
+        int[] next = new int[buildKeys.length];
+        for (int row = buildKeys.length - 1; row >= 0; row--) {
+            if (buildKeys[row] != null) {
+                Integer previous = firstRowForKey.put(buildKeys[row], row);
+                next[row] = previous == null ? -1 : previous;
+            }
+        }
+
+        return IntStream.range(0, probeNids.length)
+                .filter(probeRow -> probeKeys[probeRow] != null)
+                .boxed()
+                .flatMap(probeRow -> {
+                    Integer buildRow = firstRowForKey.get(probeKeys[probeRow]);
+                    if (buildRow == null) {
+                        return Stream.empty();
+                    }
+                    Stream.Builder<int[]> matches = Stream.builder();
+                    for (int row = buildRow; row >= 0; row = next[row]) {
+                        matches.add(buildFirst ? new int[] {buildNids[row], probeNids[probeRow]} 
+                                : new int[] {probeNids[probeRow], buildNids[row]});
+                    }
+                    return matches.build();
+                });
+    }
+
+    /**
+     * Sort-merge join, for keys that are mutually comparable. The rows are merged as the stream is read. 
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    static Stream<int[]> sortMergeJoin(int[] firstNids, Object[] firstKeys, int[] secondNids, Object[] secondKeys) {
+        Comparator<Object> comparator = (o1, o2) -> ((Comparable) o1).compareTo(o2);
+        SortMergeIterator merge = new SortMergeIterator(firstNids, firstKeys, sortedRows(firstKeys, comparator), 
+                secondNids, secondKeys, sortedRows(secondKeys, comparator), comparator);
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(merge, Spliterator.ORDERED | Spliterator.NONNULL), false);
+    }
+
+    private static int[] sortedRows(Object[] keys, Comparator<Object> comparator) {
+        return IntStream.range(0, keys.length)
+                .filter(row -> keys[row] != null)
+                .boxed()
+                .sorted((row1, row2) -> comparator.compare(keys[row1], keys[row2]))
+                .mapToInt(Integer::intValue)
+                .toArray();
+    }
+
+    private static boolean isComparable(Object[] firstKeys, Object[] secondKeys) {
+        Class<?> keyClass = null;
+        for (Object[] keys : new Object[][] {firstKeys, secondKeys}) {
+            for (Object key : keys) {
+                if (key != null) {
+                    if (!(key instanceof Comparable)) {
+                        return false;
+                    }
+                    if (keyClass == null) {
+                        keyClass = key.getClass();
+                    } else if (keyClass != key.getClass()) {
+                        return false;
+                    }
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Read the value of a field from the latest version of each component. 
+     *
+     * @param nids the components
+     * @param fieldSpec the field to read
+     * @param stampCoordinate the stamp coordinate that determines the latest version
+     * @return the value for each component, or null if the component has no latest version, or no such field
+     */
+    public static Object[] readFieldValues(int[] nids, ConceptSpecification fieldSpec, StampCoordinate stampCoordinate) {
+        Optional<Function<Version, Object>> versionField = getVersionField(fieldSpec);
+        Object[] values = new Object[nids.length];
+        IntStream.range(0, nids.length).parallel().forEach(row -> {
+            if (versionField.isPresent()) {
+                Optional<? extends Chronology> chronology = Get.identifiedObjectService().getChronology(nids[row]);
+                if (chronology.isPresent()) {
+                    LatestVersion<Version> latest = chronology.get().getLatestVersion(stampCoordinate);
+                    if (latest.isPresent()) {
+                        values[row] = versionField.get().apply(latest.get());
+                    }
+                }
+            } else {
+                LatestVersion<ObservableVersion> latest = Get.observableChronology(nids[row])
+                        .getLatestObservableVersion(stampCoordinate);
+                if (latest.isPresent()) {
+                    ReadOnlyProperty<?> property = latest.get().getPropertyMap().get(fieldSpec);
+                    if (property != null) {
+                        values[row] = property.getValue();
+                    }
+                }
+            }
+        });
+        return values;
+    }
+
+    /**
+     * @param fieldSpec a field
+     * @return a function to read the field from a version, if the field can be read without an observable version
+     */
+    private static Optional<Function<Version, Object>> getVersionField(ConceptSpecification fieldSpec) {
+        Optional<Function<Version, Object>> semanticField = getSemanticVersionField(fieldSpec.getPrimordialUuid());
+        if (semanticField.isPresent()) {
+            return semanticField;
+        }
+        int fieldNid = fieldSpec.getNid();
+        if (fieldNid == TermAux.STATUS_FOR_VERSION.getNid()) {
+            return Optional.of(Version::getStatus);
+        } else if (fieldNid == TermAux.TIME_FOR_VERSION.getNid()) {
+            return Optional.of(Version::getTime);
+        } else if (fieldNid == TermAux.AUTHOR_NID_FOR_VERSION.getNid()) {
+            return Optional.of(Version::getAuthorNid);
+        } else if (fieldNid == TermAux.MODULE_NID_FOR_VERSION.getNid()) {
+            return Optional.of(Version::getModuleNid);
+        } else if (fieldNid == TermAux.PATH_NID_FOR_VERSION.getNid()) {
+            return Optional.of(Version::getPathNid);
+        } else if (fieldNid == TermAux.STAMP_SEQUENCE_FOR_VERSION.getNid()) {
+            return Optional.of(Version::getStampSequence);
+        } else if (fieldNid == TermAux.ASSEMBLAGE_NID_FOR_COMPONENT.getNid()) {
+            return Optional.of(Version::getAssemblageNid);
+        } else if (fieldNid == TermAux.REFERENCED_COMPONENT_NID_FOR_SEMANTIC.getNid()) {
+            return Optional.of(version -> version.getChronology() instanceof SemanticChronology 
+                    ? ((SemanticChronology) version.getChronology()).getReferencedComponentNid() : null);
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * @param fieldUuid the uuid of a field
+     * @return a function to read the field from a semantic version, with the value of the observable version, 
+     * or null for a version without the field, if the field can be read without an observable version
+     */
+    private static Optional<Function<Version, Object>> getSemanticVersionField(UUID fieldUuid) {
+        if (fieldUuid.equals(NATIVE_ID_FOR_COMPONENT)) {
+            return Optional.of(Version::getNid);
+        } else if (fieldUuid.equals(TEXT_FOR_DESCRIPTION)) {
+            return field(DescriptionVersion.class, DescriptionVersion::getText);
+        } else if (fieldUuid.equals(CASE_SIGNIFICANCE_CONCEPT_NID_FOR_DESCRIPTION)) {
+            return field(DescriptionVersion.class, DescriptionVersion::getCaseSignificanceConceptNid);
+        } else if (fieldUuid.equals(LANGUAGE_CONCEPT_NID_FOR_DESCRIPTION)) {
+            return field(DescriptionVersion.class, DescriptionVersion::getLanguageConceptNid);
+        } else if (fieldUuid.equals(DESCRIPTION_TYPE_FOR_DESCRIPTION)) {
+            return field(DescriptionVersion.class, DescriptionVersion::getDescriptionTypeConceptNid);
+        } else if (fieldUuid.equals(COMPONENT_NID_FOR_SEMANTIC)) {
+            return field(ComponentNidVersion.class, ComponentNidVersion::getComponentNid);
+        } else if (fieldUuid.equals(LONG_VALUE_FOR_SEMANTIC)) {
+            return field(LongVersion.class, LongVersion::getLongValue);
+        } else if (fieldUuid.equals(STRING_VALUE_FOR_SEMANTIC)) {
+            return field(StringVersion.class, StringVersion::getString);
+        }
+        return Optional.empty();
+    }
+
+    private static <T> Optional<Function<Version, Object>> field(Class<T> versionClass, Function<T, Object> field) {
+        return Optional.of(version -> versionClass.isInstance(version) ? field.apply(versionClass.cast(version)) : null);
+    }
+
+    /**
+     * Merges the rows of two sides sorted by key, and returns the pairs of each group of rows with equal keys, 
+     * one pair at a time. 
+     */
+    private static class SortMergeIterator implements Iterator<int[]> {
+
+        private final int[] firstNids;
+        private final Object[] firstKeys;
+        private final int[] firstOrder;
+        private final int[] secondNids;
+        private final Object[] secondKeys;
+        private final int[] secondOrder;
+        private final Comparator<Object> comparator;
+
+        // the next rows to merge
+        private int i = 0;
+        private int j = 0;
+
+        // the current group of rows with equal keys, and the next pair in the group
+        private int firstEnd = 0;
+        private int secondStart = 0;
+        private int secondEnd = 0;
+        private int first = 0;
+        private int second = 0;
+
+        private SortMergeIterator(int[] firstNids, Object[] firstKeys, int[] firstOrder, 
+                int[] secondNids, Object[] secondKeys, int[] secondOrder, Comparator<Object> comparator) {
+            this.firstNids = firstNids;
+            this.firstKeys = firstKeys;
+            this.firstOrder = firstOrder;
+            this.secondNids = secondNids;
+            this.secondKeys = secondKeys;
+            this.secondOrder = secondOrder;
+            this.comparator = comparator;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return first < firstEnd || nextGroup();
+        }
+
+        @Override
+        public int[] next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            int[] pair = {firstNids[firstOrder[first]], secondNids[secondOrder[second]]};
+            if (++second == secondEnd) {
+                second = secondStart;
+                first++;
+            }
+            return pair;
+        }
+
+        /**
+         * @return true if there is another group of rows with equal keys
+         */
+        private boolean nextGroup() {
+            while (i < firstOrder.length && j < secondOrder.length) {
+                Object key = firstKeys[firstOrder[i]];
+                int comparison = comparator.compare(key, secondKeys[secondOrder[j]]);
+                if (comparison < 0) {
+                    i++;
+                } else if (comparison > 0) {
+                    j++;
+                } else {
+                    first = i;
+                    while (i < firstOrder.length && comparator.compare(key, firstKeys[firstOrder[i]]) == 0) {
+                        i++;
+                    }
+                    secondStart = j;
+                    while (j < secondOrder.length && comparator.compare(key, secondKeys[secondOrder[j]]) == 0) {
+                        j++;
+                    }
+                    firstEnd = i;
+                    secondEnd = j;
+                    second = secondStart;
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
@@ -24,6 +24,7 @@ import java.util.function.Supplier;
 import org.jvnet.hk2.annotations.Contract;
 import sh.isaac.api.coordinate.ManifoldCoordinate;
 import sh.isaac.api.index.AuthorModulePathRestriction;
+import sh.isaac.api.index.IndexDescriptionQueryService;
 import sh.isaac.api.index.IndexQueryService;
 import sh.isaac.api.index.SearchResult;
 
@@ -62,6 +63,28 @@ public interface QueryHandler {
      */
     QueryHandle search(final Supplier<List<SearchResult>> searchFunction, final Consumer<QueryHandle> operationToRunWhenSearchComplete, final Integer taskId, final Function<List<CompositeQueryResult>, List<CompositeQueryResult>> filter, boolean mergeOnConcepts, ManifoldCoordinate manifoldForRead, boolean filterOffPathResults);
 
+    /**
+     * Search the descriptions as they are on the stamp coordinate of the manifold, in a background thread, see
+     * {@link IndexDescriptionQueryService#queryOnCoordinate(String, boolean, int[], Predicate, sh.isaac.api.coordinate.StampCoordinate, boolean, int[], int[], Integer, Integer, Long)}.
+     * A search on the latest versions of the default path, which is the usual case, reads only the latest document of each description.
+     *
+     * @param query the query text
+     * @param descriptionTypes - optional - the description types to restrict the search to, or all types if not provided.
+     * @param extendedDescriptionTypes - optional - the extended description types to restrict the search to, or all types if not provided.
+     * @param sizeLimit - restrict to this number of results
+     * @param operationToRunWhenSearchComplete - (optional) Pass the function that you want to have executed when the search is complete and the
+     *            results are ready for use. Note that this function will also be executed in the background thread.
+     * @param taskId - An optional field that is simply handed back during the callback when results are complete. Useful for matching
+     *            requests to this method with callbacks.
+     * @param mergeOnConcepts - see {@link #search(Supplier, Consumer, Integer, Function, boolean, ManifoldCoordinate, boolean)}
+     * @param manifoldForRead - optional - the coordinate to search on, and to read versions with.  If not supplied, uses the default for 
+     *            the user / system.
+     * @return A handle to the running search.
+     */
+    QueryHandle searchDescriptions(String query, int[] descriptionTypes, int[] extendedDescriptionTypes, int sizeLimit, 
+            final Consumer<QueryHandle> operationToRunWhenSearchComplete, final Integer taskId, boolean mergeOnConcepts, 
+            ManifoldCoordinate manifoldForRead);
+
     /**
      * @param searchString the string that contains an identifier
      * @param identifierTypes - optional - null, or the identifier types to restrict the search to
@@ -86,5 +109,26 @@ public interface QueryHandler {
      * @return A handle to the running search.
      */
     QueryHandle searchIdentifiers(String searchString, int[] identifierTypes, final Consumer<QueryHandle> operationToRunWhenSearchComplete, final Integer taskId, final Function<List<CompositeQueryResult>, List<CompositeQueryResult>> postQueryfilter, boolean mergeOnConcepts, ManifoldCoordinate manifoldForRead, boolean filterOffPathResults, Predicate<Integer> queryFilter, AuthorModulePathRestriction amp, int sizeLimit);
+
+    /**
+     * Run a type-ahead completion of concepts in a background thread, see 
+     * {@link IndexDescriptionQueryService#complete(String, int[], AuthorModulePathRestriction, boolean, int, java.util.function.BooleanSupplier)}.
+     * 
+     * A caller that starts a completion per keystroke should cancel the handle of the request that the new one supersedes.  A cancelled 
+     * request that is still searching the index stops early, rather than running to completion.
+     *
+     * @param text the text typed so far
+     * @param amp - optional - The stamp criteria to restrict the search, or no restriction if not provided.
+     * @param metadataOnly - Only complete concepts which are part of the metadata tree when true.
+     * @param limit the maximum number of concepts to return
+     * @param operationToRunWhenSearchComplete - (optional) Pass the function that you want to have executed when the search is complete and the
+     *            results are ready for use. Note that this function will also be executed in the background thread.
+     * @param taskId - An optional field that is simply handed back during the callback when results are complete. Useful for matching
+     *            requests to this method with callbacks.
+     * @param manifoldForRead - optional - if not supplied, uses the default for the user / system, for any operations that require getting a
+     *            version (as opposed to a chronology).
+     * @return A handle to the running search, with one result per concept.
+     */
+    QueryHandle complete(String text, AuthorModulePathRestriction amp, boolean metadataOnly, int limit, final Consumer<QueryHandle> operationToRunWhenSearchComplete, final Integer taskId, ManifoldCoordinate manifoldForRead);
     
 }
@@ -44,6 +44,7 @@ package sh.isaac.api.snapshot.calculator;
 import java.time.Instant;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.EnumSet;
 import java.util.HashSet;
 import java.util.List;
@@ -55,10 +56,12 @@ import javax.inject.Singleton;
 
 //~--- non-JDK imports --------------------------------------------------------
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
-import org.apache.mahout.math.list.IntArrayList;
-import org.apache.mahout.math.set.OpenIntHashSet;
 
 import org.jvnet.hk2.annotations.Service;
 
@@ -70,6 +73,7 @@ import sh.isaac.api.chronicle.Chronology;
 import sh.isaac.api.chronicle.LatestVersion;
 import sh.isaac.api.commit.StampService;
 import sh.isaac.api.coordinate.StampCoordinate;
+import sh.isaac.api.coordinate.StampCoordinateProxy;
 import sh.isaac.api.coordinate.StampPosition;
 import sh.isaac.api.coordinate.StampPrecedence;
 import sh.isaac.api.identity.IdentifiedObject;
@@ -90,7 +94,17 @@ public class RelativePositionCalculator implements StaticIsaacCache {
    /** The Constant LOG. */
    private static final Logger LOG = LogManager.getLogger();
 
-   private static RelativePositionCalculator lastCalculator = null;
+   /** The maximum number of calculators retained by the calculator cache. */
+   private static final int CALCULATOR_CACHE_SIZE = 64;
+
+   /**
+    * Calculators, keyed by the value of their coordinate, so the segment map and the stamp memos of a calculator
+    * are reused by all requests and threads using an equal coordinate.
+    */
+   private static final Cache<StampCoordinate, RelativePositionCalculator> CALCULATOR_CACHE = Caffeine.newBuilder()
+         .maximumSize(CALCULATOR_CACHE_SIZE)
+         .recordStats()
+         .build();
 
    //~--- fields --------------------------------------------------------------
 
@@ -102,7 +116,6 @@ public class RelativePositionCalculator implements StaticIsaacCache {
    private StampCoordinate coordinate;
    private EnumSet<Status>  allowedStates;
    private final ConcurrentHashMap<Integer, Boolean> stampOnRoute = new ConcurrentHashMap<>();
-   private final ConcurrentHashMap<Integer, Boolean> stampIsAllowedState = new ConcurrentHashMap<>();
 
    /**
     * Mapping from pathNid to each segment for that pathNid. There is one entry
@@ -158,11 +171,29 @@ public class RelativePositionCalculator implements StaticIsaacCache {
       final int  ss2PathNid   = getStampService()
                                         .getPathNidForStamp(stampSequence2);
 
-      if (ss1PathNid == ss2PathNid) {
-         final Segment seg = this.pathNidSegmentMap.get(ss1PathNid);
+      return fastRelativePosition(ss1Time, ss1ModuleNid, ss1PathNid, this.pathNidSegmentMap.get(ss1PathNid),
+            ss2Time, ss2ModuleNid, ss2PathNid, this.pathNidSegmentMap.get(ss2PathNid), precedencePolicy);
+   }
 
-         if (seg.containsPosition(ss1PathNid, ss1ModuleNid, ss1Time) &&
-               seg.containsPosition(ss2PathNid, ss2ModuleNid, ss2Time)) {
+   /**
+    * Fast relative position, of stamps already read from the stamp service.
+    *
+    * @param ss1Time the time of stamp 1
+    * @param ss1ModuleNid the module nid of stamp 1
+    * @param ss1PathNid the path nid of stamp 1
+    * @param seg1 the segment of the path of stamp 1, or null if the path is not on route
+    * @param ss2Time the time of stamp 2
+    * @param ss2ModuleNid the module nid of stamp 2
+    * @param ss2PathNid the path nid of stamp 2
+    * @param seg2 the segment of the path of stamp 2, or null if the path is not on route
+    * @param precedencePolicy the precedence policy
+    * @return the relative position
+    */
+   private RelativePosition fastRelativePosition(long ss1Time, int ss1ModuleNid, int ss1PathNid, Segment seg1,
+         long ss2Time, int ss2ModuleNid, int ss2PathNid, Segment seg2, StampPrecedence precedencePolicy) {
+      if (ss1PathNid == ss2PathNid) {
+         if ((seg1 != null) && seg1.containsPosition(ss1PathNid, ss1ModuleNid, ss1Time) &&
+               seg1.containsPosition(ss2PathNid, ss2ModuleNid, ss2Time)) {
             if (ss1Time < ss2Time) {
                return RelativePosition.BEFORE;
             }
@@ -179,9 +210,6 @@ public class RelativePositionCalculator implements StaticIsaacCache {
          return RelativePosition.UNREACHABLE;
       }
 
-      final Segment seg1 = this.pathNidSegmentMap.get(ss1PathNid);
-      final Segment seg2 = this.pathNidSegmentMap.get(ss2PathNid);
-
       if ((seg1 == null) || (seg2 == null)) {
          return RelativePosition.UNREACHABLE;
       }
@@ -474,80 +502,6 @@ public class RelativePositionCalculator implements StaticIsaacCache {
       }
    }
 
-   /**
-    * Handle stamp.
-    *
-    * @param stampsForPosition the stamps for position
-    * @param stampSequence the stamp sequence
-    */
-   private void handleStamp(OpenIntHashSet stampsForPosition, int stampSequence, boolean allowUncommitted) {
-      if (!allowUncommitted) {
-         if (getStampService()
-                .isUncommitted(stampSequence)) {
-            return;
-         }
-      }
-
-      if (!onRoute(stampSequence)) {
-         return;
-      }
-
-      if (stampsForPosition.isEmpty()) {
-         stampsForPosition.add(stampSequence);
-         return;
-      }
-
-      // create a list of values so we don't have any
-      // concurrent modification issues with removing/adding
-      // items to the stampsForPosition.
-      final OpenIntHashSet stampsToCompare = (OpenIntHashSet) stampsForPosition.clone();
-
-      stampsToCompare.forEachKey((prevStamp) -> {
-             switch (fastRelativePosition(stampSequence, prevStamp, this.coordinate.getStampPrecedence())) {
-             case AFTER:
-                stampsForPosition.remove(prevStamp);
-                stampsForPosition.add(stampSequence);
-                break;
-
-             case BEFORE:
-                break;
-
-             case CONTRADICTION:
-                stampsForPosition.add(stampSequence);
-                break;
-
-             case EQUAL:
-
-                // Can only have one stampSequence per time/path
-                // combination.
-                if (prevStamp == stampSequence) {
-                   // stampSequence already added from another position.
-                   // No need to add again.
-                   break;
-                }
-
-                // Duplicate values encountered.  Likely two stamps at the same time on different modules.
-                //TODO this should be using the module preference order to determine which one to put at the top...
-                stampsForPosition.add(stampSequence);
-                break;
-
-             case UNREACHABLE:
-
-                // nothing to do...
-                break;
-
-             default:
-                throw new UnsupportedOperationException(
-                    "n Can't handle: " + fastRelativePosition(
-                        stampSequence,
-                        prevStamp,
-                        this.coordinate.getStampPrecedence()));
-             }
-
-             return true;
-          });
-   }
-
    /**
     * Setup path nid segment map.
     *
@@ -577,14 +531,6 @@ public class RelativePositionCalculator implements StaticIsaacCache {
       }
       return this.stampService;
    }
-   private boolean isAllowedState(int stampSequence) {
-      if (stampIsAllowedState.containsKey(stampSequence)) {
-         return stampIsAllowedState.get(stampSequence);
-      }
-      boolean allowed = this.allowedStates.contains(getStampService().getStatusForStamp(stampSequence));
-      stampIsAllowedState.put(stampSequence, allowed);
-      return allowed;
-   }
    
    /**
     * Gets the calculator.
@@ -593,19 +539,37 @@ public class RelativePositionCalculator implements StaticIsaacCache {
     * @return the calculator
     */
    public static RelativePositionCalculator getCalculator(StampCoordinate coordinate) {
-       RelativePositionCalculator calcToTry = lastCalculator;
-       if (calcToTry != null) {
-           if (calcToTry.coordinate == coordinate) {
-               return calcToTry;
-           }
-       }
+      if (coordinate instanceof StampCoordinateProxy) {
+         coordinate = ((StampCoordinateProxy) coordinate).getStampCoordinate();
+      }
 
-      calcToTry = new RelativePositionCalculator(coordinate);
-      lastCalculator = calcToTry;
+      RelativePositionCalculator calcToTry = CALCULATOR_CACHE.getIfPresent(coordinate);
+
+      if (calcToTry == null) {
+         // Key on a clone, so later changes to an observable coordinate can't change the key of a cached calculator.
+         calcToTry = CALCULATOR_CACHE.get(coordinate.deepClone(), RelativePositionCalculator::new);
+      }
 
       return calcToTry;
    }
 
+   /**
+    * Gets the statistics of the calculator cache.
+    *
+    * @return the hit, miss and eviction counts of the calculator cache
+    */
+   public static CacheStats getCalculatorCacheStats() {
+      return CALCULATOR_CACHE.stats();
+   }
+
+   /**
+    * Discard all cached calculators. Must be called when paths or path origins change, since each calculator holds
+    * segments computed from the path origins of its coordinate.
+    */
+   public static void invalidateCalculators() {
+      CALCULATOR_CACHE.invalidateAll();
+   }
+
    /**
     * Gets the calculator.
     *
@@ -613,18 +577,7 @@ public class RelativePositionCalculator implements StaticIsaacCache {
     * @return the calculator
     */
    public RelativePositionCalculator getCalculatorInstance(StampCoordinate coordinate) {
-       
-       RelativePositionCalculator calcToTry = lastCalculator;
-       if (calcToTry != null) {
-           if (calcToTry.coordinate == coordinate) {
-               return calcToTry;
-           }
-       }
-
-      calcToTry = new RelativePositionCalculator(coordinate);
-      lastCalculator = calcToTry;
-
-      return calcToTry;
+      return getCalculator(coordinate);
    }
 
    /**
@@ -698,22 +651,7 @@ public class RelativePositionCalculator implements StaticIsaacCache {
     * @return the latest stamp sequences as a sorted set in an array
     */
    public int[] getLatestCommittedStampSequencesAsSet(int[] stampSequences) {
-      OpenIntHashSet stampsForPosition = new OpenIntHashSet();
-      for (int stampToCompare: stampSequences) {
-         handleStamp(stampsForPosition, stampToCompare, false);
-      }
-      OpenIntHashSet resultSet = new OpenIntHashSet();
-
-      for (int stampSequence: stampsForPosition.keys().elements()) {
-         if (isAllowedState(stampSequence)) {
-            resultSet.add(stampSequence);
-         }
-      }
-
-      IntArrayList resultList = resultSet.keys();
-
-      resultList.sort();
-      return resultList.elements();
+      return getLatestStampSequences(stampSequences, false);
    }
 
    /**
@@ -723,24 +661,101 @@ public class RelativePositionCalculator implements StaticIsaacCache {
     * @return the latest stamp sequences as set
     */
    public int[] getLatestStampSequencesAsSet(int[] stampSequences) {
-      
-      OpenIntHashSet stampsForPosition = new OpenIntHashSet();
-      for (int stampToCompare: stampSequences) {
-         handleStamp(stampsForPosition, stampToCompare, true);
+      return getLatestStampSequences(stampSequences, true);
+   }
+
+   /**
+    * The time, module and path of the stamps are read with the bulk reads of the stamp service, and the segment of each
+    * path is looked up, once for each stamp, so the stamps are compared without a call to the stamp service or a hash
+    * lookup for each pair of stamps. The latest stamps are held as indexes into stampSequences.
+    *
+    * @param stampSequences the stamp sequences
+    * @param allowUncommitted true if uncommitted stamps may be latest
+    * @return the latest stamp sequences in an allowed state, as a sorted set in an array
+    */
+   private int[] getLatestStampSequences(int[] stampSequences, boolean allowUncommitted) {
+      final int stampCount = stampSequences.length;
+      final long[] times = new long[stampCount];
+      final int[] moduleNids = new int[stampCount];
+      final int[] pathNids = new int[stampCount];
+      final Segment[] segments = new Segment[stampCount];
+      final int[] latest = new int[stampCount];
+      final StampPrecedence precedencePolicy = this.coordinate.getStampPrecedence();
+      int latestCount = 0;
+
+      getStampService().getTimesForStamps(stampSequences, times);
+      getStampService().getModuleNidsForStamps(stampSequences, moduleNids);
+      getStampService().getPathNidsForStamps(stampSequences, pathNids);
+
+      for (int i = 0; i < stampCount; i++) {
+         segments[i] = ((i > 0) && (pathNids[i] == pathNids[i - 1])) ? segments[i - 1] : this.pathNidSegmentMap.get(pathNids[i]);
+
+         if (!allowUncommitted && (times[i] == Long.MAX_VALUE)) {
+            continue;
+         }
+
+         if ((segments[i] == null) || !segments[i].containsPosition(pathNids[i], moduleNids[i], times[i])) {
+            continue;
+         }
+
+         boolean add = latestCount == 0;
+         int kept = 0;
+
+         for (int k = 0; k < latestCount; k++) {
+            final int previous = latest[k];
+
+            switch (fastRelativePosition(times[i], moduleNids[i], pathNids[i], segments[i],
+                  times[previous], moduleNids[previous], pathNids[previous], segments[previous], precedencePolicy)) {
+            case AFTER:
+               add = true;
+               continue;
+
+            case CONTRADICTION:
+               add = true;
+               break;
+
+            case EQUAL:
+               // Duplicate values encountered.  Likely two stamps at the same time on different modules.
+               //TODO this should be using the module preference order to determine which one to put at the top...
+               add |= stampSequences[previous] != stampSequences[i];
+               break;
+
+            default:
+               // BEFORE or UNREACHABLE, nothing to do...
+               break;
+            }
+
+            latest[kept++] = previous;
+         }
+
+         latestCount = kept;
+
+         if (add && !containsStamp(stampSequences, latest, latestCount, stampSequences[i])) {
+            latest[latestCount++] = i;
+         }
       }
-      
-      OpenIntHashSet resultSet = new OpenIntHashSet();
 
-      for (int stampSequence: stampsForPosition.keys().elements()) {
-         if (isAllowedState(stampSequence)) {
-            resultSet.add(stampSequence);
+      final int[] result = new int[latestCount];
+      int resultCount = 0;
+
+      for (int k = 0; k < latestCount; k++) {
+         if (this.allowedStates.contains(getStampService().getStatusForStamp(stampSequences[latest[k]]))) {
+            result[resultCount++] = stampSequences[latest[k]];
          }
       }
 
-      IntArrayList resultList = resultSet.keys();
+      Arrays.sort(result, 0, resultCount);
+      return (resultCount == result.length) ? result : Arrays.copyOf(result, resultCount);
+   }
+
+   private static boolean containsStamp(int[] stampSequences, int[] latest, int latestCount, int stampSequence) {
+      for (int k = 0; k < latestCount; k++) {
+         if (stampSequences[latest[k]] == stampSequence) {
+            return true;
+         }
+      }
 
-      resultList.sort();
-      return resultList.elements();
+      return false;
    }
 
    /**
@@ -911,7 +926,8 @@ public class RelativePositionCalculator implements StaticIsaacCache {
     */
    @Override
    public void reset() {
-      lastCalculator = null;
+      LOG.debug("Relative position calculator cache: {}", CALCULATOR_CACHE.stats());
+      invalidateCalculators();
    }
 }
 
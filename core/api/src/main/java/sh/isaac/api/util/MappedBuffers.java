@@ -0,0 +1,68 @@
+/*
+ * Copyright 2019 Organizations participating in ISAAC, ISAAC's KOMET, and SOLOR development include the
+         US Veterans Health Administration, OSHERA, and the Health Services Platform Consortium..
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package sh.isaac.api.util;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Unmaps mapped files when they are no longer used, rather than when their buffers are garbage collected, so the
+ * files can be replaced or deleted, which some platforms do not allow while a file is mapped.
+ *
+ * @author kec
+ */
+public class MappedBuffers {
+
+    private static final Logger LOG = LogManager.getLogger();
+    private static final MethodHandle INVOKE_CLEANER = findInvokeCleaner();
+
+    /**
+     * Unmap a mapping now. The caller must be the only user of the mapping, since any later read of it, or of a
+     * slice or duplicate of it, fails the JVM.
+     *
+     * @param mapping the buffer returned by the map of a file channel, not a slice or duplicate of it
+     */
+    public static void unmap(ByteBuffer mapping) {
+        if (mapping instanceof MappedByteBuffer && INVOKE_CLEANER != null) {
+            try {
+                INVOKE_CLEANER.invokeExact(mapping);
+            } catch (Throwable ex) {
+                LOG.warn("Unable to unmap a mapped file", ex);
+            }
+        }
+    }
+
+    private static MethodHandle findInvokeCleaner() {
+        try {
+            Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+            Field theUnsafe = unsafeClass.getDeclaredField("theUnsafe");
+            theUnsafe.setAccessible(true);
+            return MethodHandles.lookup()
+                    .findVirtual(unsafeClass, "invokeCleaner", MethodType.methodType(void.class, ByteBuffer.class))
+                    .bindTo(theUnsafe.get(null));
+        } catch (ReflectiveOperationException | RuntimeException ex) {
+            LOG.warn("Mapped files will be unmapped when garbage collected", ex);
+            return null;
+        }
+    }
+}
@@ -0,0 +1,104 @@
+/*
+ * Copyright 2019 Organizations participating in ISAAC, ISAAC's KOMET, and SOLOR development include the
+         US Veterans Health Administration, OSHERA, and the Health Services Platform Consortium..
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package sh.isaac.api.collections;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.UUID;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import sh.isaac.api.util.RecursiveDelete;
+import static org.junit.Assert.*;
+
+/**
+ *
+ * @author kec
+ */
+public class NidToUuidIndexTest {
+
+   private File directory;
+
+   @Before
+   public void setUp() throws IOException {
+      directory = Files.createTempDirectory("nid-uuid-index").toFile();
+   }
+
+   @After
+   public void tearDown() throws IOException {
+      RecursiveDelete.delete(directory);
+   }
+
+   @Test
+   public void testPrimordialAndAdditionalUuids() {
+      NidToUuidIndex index = new NidToUuidIndex();
+      UUID primordial = UUID.randomUUID();
+      UUID additional = UUID.randomUUID();
+      int nid = Integer.MIN_VALUE + 70000;
+
+      assertFalse(index.contains(nid));
+      assertEquals(0, index.get(nid).length);
+      index.add(nid, primordial);
+      index.add(nid, additional);
+      index.add(nid, additional);
+      assertTrue(index.contains(nid));
+      assertEquals(primordial, index.getPrimordial(nid));
+      assertArrayEquals(new UUID[] {primordial, additional}, index.get(nid));
+      assertFalse(index.contains(nid + 1));
+   }
+
+   @Test
+   public void testWriteAndRead() throws IOException {
+      NidToUuidIndex index = new NidToUuidIndex(directory);
+      UUID primordial = UUID.randomUUID();
+      UUID additional = UUID.randomUUID();
+      index.add(Integer.MIN_VALUE + 1, primordial);
+      index.add(Integer.MIN_VALUE + 1, additional);
+      index.add(-1, primordial);
+      assertFalse(NidToUuidIndex.exists(directory));
+      index.write();
+      assertTrue(NidToUuidIndex.exists(directory));
+
+      NidToUuidIndex readIndex = new NidToUuidIndex(directory);
+      assertArrayEquals(new UUID[] {primordial, additional}, readIndex.get(Integer.MIN_VALUE + 1));
+      assertEquals(primordial, readIndex.getPrimordial(-1));
+      assertFalse(readIndex.contains(Integer.MIN_VALUE + 2));
+   }
+
+   @Test
+   public void testRewriteAndRead() throws IOException {
+      NidToUuidIndex index = new NidToUuidIndex(directory);
+      UUID first = UUID.randomUUID();
+      UUID second = UUID.randomUUID();
+      UUID additional = UUID.randomUUID();
+      index.add(Integer.MIN_VALUE + 1, first);
+      index.write();
+      index.add(Integer.MIN_VALUE + 2, second);
+      index.add(Integer.MIN_VALUE + 2, additional);
+      index.write();
+      for (String fileName : directory.list()) {
+         assertFalse(fileName, fileName.startsWith("tmp-"));
+      }
+
+      NidToUuidIndex readIndex = new NidToUuidIndex(directory);
+      assertEquals(first, readIndex.getPrimordial(Integer.MIN_VALUE + 1));
+      assertArrayEquals(new UUID[] {second, additional}, readIndex.get(Integer.MIN_VALUE + 2));
+      // A spine that was never written is not read
+      assertFalse(readIndex.contains(-1));
+   }
+}
@@ -0,0 +1,77 @@
+/*
+ * Copyright 2019 Organizations participating in ISAAC, ISAAC's KOMET, and SOLOR development include the
+         US Veterans Health Administration, OSHERA, and the Health Services Platform Consortium..
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package sh.isaac.api.query;
+
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ *
+ * @author kec
+ */
+public class JoinEngineTest {
+
+   private static final int[] FIRST_NIDS = {-1, -2, -3, -4, -5};
+   private static final Object[] FIRST_KEYS = {"a", "b", null, "b", "c"};
+   private static final int[] SECOND_NIDS = {-11, -12, -13};
+   private static final Object[] SECOND_KEYS = {"b", "c", "b"};
+
+   private static final Set<String> EXPECTED = new TreeSet<>(Set.of("-2:-11", "-2:-13", "-4:-11", "-4:-13", "-5:-12"));
+
+   private static Set<String> toSet(Stream<int[]> results) {
+      return results.map(pair -> pair[0] + ":" + pair[1]).collect(Collectors.toCollection(TreeSet::new));
+   }
+
+   @Test
+   public void hashJoinBuildsOnEitherSide() {
+      assertEquals(EXPECTED, toSet(JoinEngine.hashJoin(FIRST_NIDS, FIRST_KEYS, SECOND_NIDS, SECOND_KEYS)));
+      Set<String> reversed = toSet(JoinEngine.hashJoin(SECOND_NIDS, SECOND_KEYS, FIRST_NIDS, FIRST_KEYS));
+      assertEquals(EXPECTED.size(), reversed.size());
+      assertTrue(reversed.contains("-11:-2"));
+   }
+
+   @Test
+   public void sortMergeJoinMatchesHashJoin() {
+      assertEquals(EXPECTED, toSet(JoinEngine.sortMergeJoin(FIRST_NIDS, FIRST_KEYS, SECOND_NIDS, SECOND_KEYS)));
+   }
+
+   @Test
+   public void sortMergeJoinStreamsRows() {
+      // 10^10 pairs share one key, so the join completes only if the rows are merged as they are read
+      int rows = 100_000;
+      int[] nids = new int[rows];
+      Object[] keys = new Object[rows];
+      for (int row = 0; row < rows; row++) {
+         nids[row] = -1 - row;
+         keys[row] = "key";
+      }
+      int[][] pairs = JoinEngine.sortMergeJoin(nids, keys, nids, keys).limit(rows + 1).toArray(int[][]::new);
+      assertEquals(rows + 1, pairs.length);
+      assertEquals(pairs[0][0], pairs[rows - 1][0]);
+      assertEquals(pairs[0][1], pairs[rows][1]);
+      assertNotEquals(pairs[0][0], pairs[rows][0]);
+   }
+
+   @Test
+   public void noMatches() {
+      assertEquals(0, JoinEngine.join(new int[] {-1}, new Object[] {1}, new int[] {-2}, new Object[] {2}).count());
+   }
+}
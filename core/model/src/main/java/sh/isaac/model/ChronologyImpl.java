@@ -135,6 +135,12 @@ public abstract class ChronologyImpl
      */
     private final CopyOnWriteArrayList<Version> committedVersions = new CopyOnWriteArrayList<>();
 
+    /**
+     * Committed versions read from internal data that are not yet in
+     * {@link #committedVersions}, or null once all versions are there.
+     */
+    private volatile LazyVersions lazyVersions;
+
     //~--- constructors --------------------------------------------------------
     /**
      * No argument constructor for reconstituting an object previously
@@ -148,6 +154,7 @@ public abstract class ChronologyImpl
      * @return true if uncommitted versions where removed. 
      */
     public boolean removeUncommittedVersions() {
+        materializeVersions();
         boolean anyRemoved = false;
         if (this.uncommittedVersions != null) {
             List<Version> toRemove = new ArrayList<>();
@@ -351,6 +358,7 @@ public abstract class ChronologyImpl
      * @param version the version to add
      */
     public <V extends Version> void addVersion(V version) {
+        materializeVersions();
         if (version.isUncommitted()) {
             this.uncommittedVersions.add(version);
         } else {
@@ -431,8 +439,12 @@ public abstract class ChronologyImpl
             setAdditionalChronicleFieldsFromBuffer(data);
             constructorEnd(data);
         }
-        readVersionList(data);
-        if (this.committedVersions.isEmpty() && this.uncommittedVersions.isEmpty()) {
+        if (data.isExternalData()) {
+            readVersionList(data);
+        } else {
+            indexVersionList(data);
+        }
+        if (this.committedVersions.isEmpty() && this.uncommittedVersions.isEmpty() && this.lazyVersions == null) {
            throw new IllegalStateException();
         }
         if (data.isExternalData()) {
@@ -527,6 +539,77 @@ public abstract class ChronologyImpl
         }
     }
 
+    /**
+     * Reads the stamp and position of each version, without decoding the
+     * version fields. Uncommitted versions are decoded, so they are available
+     * to {@link #getUnwrittenVersionList()}; committed versions are decoded
+     * when first requested by stamp, or all together when the version list is
+     * requested.
+     *
+     * @param bb the bb
+     */
+    private void indexVersionList(ByteArrayDataBuffer bb) {
+        if (bb.getUsed() == 0) {
+            throw new IllegalStateException();
+        }
+        int[] stamps = new int[8];
+        int[] offsets = new int[8];
+        int count = 0;
+        int nextPosition = bb.getPosition();
+
+        while (nextPosition < bb.getLimit()) {
+            final int versionLength = bb.getInt();
+            assert versionLength >= 0 : "Length negative: " + versionLength + " buffer: " + bb;
+
+            if (versionLength > 0) {
+                nextPosition = nextPosition + versionLength;
+
+                final int stampSequence = bb.getStampSequence();
+
+                if (stampSequence < 0) {
+                    LOG.warn("read a version length, but no stamp sequence? versionLength {}, stampSequence {}, {}", versionLength, stampSequence, bb);
+                } else if (Get.stampService().isUncommitted(stampSequence)) {
+                    this.uncommittedVersions.add(makeVersion(stampSequence, bb));
+                } else {
+                    if (count == stamps.length) {
+                        stamps = Arrays.copyOf(stamps, count * 2);
+                        offsets = Arrays.copyOf(offsets, count * 2);
+                    }
+                    stamps[count] = stampSequence;
+                    offsets[count] = bb.getPositionStart() + bb.getPosition();
+                    count++;
+                }
+                bb.setPosition(nextPosition);
+            } else {
+                nextPosition = Integer.MAX_VALUE;
+            }
+        }
+        if (count > 0) {
+            this.lazyVersions = new LazyVersions(bb.getData(), bb.getObjectDataFormatVersion(),
+                    Arrays.copyOf(stamps, count), Arrays.copyOf(offsets, count));
+        }
+    }
+
+    /**
+     * Decodes any versions not yet decoded, and moves them to the committed
+     * version list, ahead of versions added since the chronology was read.
+     */
+    private void materializeVersions() {
+        LazyVersions lazy = this.lazyVersions;
+        if (lazy != null) {
+            synchronized (lazy) {
+                if (this.lazyVersions == lazy) {
+                    List<Version> versions = new ArrayList<>(lazy.stamps.length);
+                    for (int i = 0; i < lazy.stamps.length; i++) {
+                        versions.add(lazy.getVersion(i));
+                    }
+                    this.committedVersions.addAll(0, versions);
+                    this.lazyVersions = null;
+                }
+            }
+        }
+    }
+
     /**
      * Write if not canceled.
      *
@@ -877,6 +960,13 @@ public abstract class ChronologyImpl
                 .collect(Collectors.toList());
     }
 
+    /**
+     * @return true if this chronology holds versions that were uncommitted when they were read or added.
+     */
+    public boolean hasUncommittedVersions() {
+        return !this.uncommittedVersions.isEmpty();
+    }
+
     /**
      * Gets the unwritten version list.
      *
@@ -930,6 +1020,14 @@ public abstract class ChronologyImpl
             }
             return Optional.empty();
         }
+        LazyVersions lazy = this.lazyVersions;
+        if (lazy != null) {
+            for (int i = 0; i < lazy.stamps.length; i++) {
+                if (lazy.stamps[i] == stampSequence) {
+                    return Optional.of((V) lazy.getVersion(i));
+                }
+            }
+        }
         for (Version version : this.committedVersions) {
             if (version.getStampSequence() == stampSequence) {
                 return Optional.of((V) version);
@@ -1012,6 +1110,7 @@ public abstract class ChronologyImpl
      */
     @Override
     public <V extends Version> List<V> getVersionList() {
+        materializeVersions();
 
         ArrayList<Version> versionList = new ArrayList<>(this.uncommittedVersions.size()
                 + this.committedVersions.size());
@@ -1021,6 +1120,7 @@ public abstract class ChronologyImpl
     }
 
     public CopyOnWriteArrayList<Version> getCommittedVersionList() {
+        materializeVersions();
         return this.committedVersions;
     }
 
@@ -1043,10 +1143,28 @@ public abstract class ChronologyImpl
         for (Version v : this.uncommittedVersions) {
             builder.add(v.getStampSequence());
         }
+        LazyVersions lazy = this.lazyVersions;
+        if (lazy != null) {
+            // Read the lazy and committed versions under the lock that materializes them, so the stamps of versions
+            // moved from one to the other meanwhile are read once, from one or the other.
+            synchronized (lazy) {
+                if (this.lazyVersions == lazy) {
+                    for (int stampSequence : lazy.stamps) {
+                        builder.add(stampSequence);
+                    }
+                }
+                addCommittedStampSequences(builder);
+            }
+        } else {
+            addCommittedStampSequences(builder);
+        }
+        return builder.keys().elements();
+    }
+
+    private void addCommittedStampSequences(OpenIntHashSet builder) {
         for (Version v : this.committedVersions) {
             builder.add(v.getStampSequence());
         }
-        return builder.keys().elements();
     }
 
     //~--- set methods ---------------------------------------------------------
@@ -1058,6 +1176,7 @@ public abstract class ChronologyImpl
      * @param versions the new versions
      */
     public <V extends Version> void setVersions(Collection<V> versions) {
+        this.lazyVersions = null;
         this.uncommittedVersions.clear();
         this.committedVersions.clear();
         versions.forEach((V version) -> addVersion(version));
@@ -1197,4 +1316,36 @@ public abstract class ChronologyImpl
         return dataArray;
     }
     
+
+    //~--- inner classes -------------------------------------------------------
+    /**
+     * The stamps and data positions of versions read from internal data,
+     * decoded one at a time as they are requested.
+     */
+    private final class LazyVersions {
+
+        private final byte[] data;
+        private final byte objectDataFormatVersion;
+        private final int[] stamps;
+        private final int[] offsets;
+        private final Version[] versions;
+
+        private LazyVersions(byte[] data, byte objectDataFormatVersion, int[] stamps, int[] offsets) {
+            this.data = data;
+            this.objectDataFormatVersion = objectDataFormatVersion;
+            this.stamps = stamps;
+            this.offsets = offsets;
+            this.versions = new Version[stamps.length];
+        }
+
+        private synchronized Version getVersion(int index) {
+            if (this.versions[index] == null) {
+                ByteArrayDataBuffer bb = new ByteArrayDataBuffer(this.data);
+                bb.setObjectDataFormatVersion(this.objectDataFormatVersion);
+                bb.setPosition(this.offsets[index]);
+                this.versions[index] = makeVersion(this.stamps[index], bb);
+            }
+            return this.versions[index];
+        }
+    }
 }
@@ -17,6 +17,7 @@ package sh.isaac.model.collections;
 
 import java.util.Optional;
 import java.util.function.BinaryOperator;
+import java.util.function.IntFunction;
 
 /**
  * An interface to allow different intObject map implementations
@@ -144,4 +145,22 @@ public interface IntObjectMap<E>
 	 * @return the updated value
 	 */
 	public E accumulateAndGet(int index, E newValue, BinaryOperator<E> accumulatorFunction);
+
+	/**
+	 * If the key is not already associated with a value, computes one with the given
+	 * function and enters it into the map. Concurrent callers for the same key all
+	 * return the one value that was entered, although the function may be applied by
+	 * more than one of them.
+	 *
+	 * @param key the key
+	 * @param mappingFunction the function to compute a value
+	 * @return the current (existing or computed) value associated with the key
+	 */
+	public default E computeIfAbsent(int key, IntFunction<? extends E> mappingFunction) {
+		E value = get(key);
+		if (value != null) {
+			return value;
+		}
+		return accumulateAndGet(key, mappingFunction.apply(key), (existing, computed) -> existing == null ? computed : existing);
+	}
 }
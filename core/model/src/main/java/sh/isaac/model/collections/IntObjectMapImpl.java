@@ -19,6 +19,7 @@ package sh.isaac.model.collections;
 import java.util.Optional;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.BinaryOperator;
+import java.util.function.IntFunction;
 
 /**
  *
@@ -64,5 +65,10 @@ public class IntObjectMapImpl<T> extends ConcurrentHashMap<Integer, T> implement
     public T accumulateAndGet(int index, T newValue, BinaryOperator<T> accumulatorFunction) {
         return super.merge(index, newValue, accumulatorFunction);
     }
+
+    @Override
+    public T computeIfAbsent(int key, IntFunction<? extends T> mappingFunction) {
+        return super.computeIfAbsent(key, mappingFunction::apply);
+    }
     
 }
@@ -0,0 +1,186 @@
+/*
+ * Copyright 2019 Organizations participating in ISAAC, ISAAC's KOMET, and SOLOR development include the
+         US Veterans Health Administration, OSHERA, and the Health Services Platform Consortium..
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package sh.isaac.model.collections;
+
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BinaryOperator;
+import java.util.function.Supplier;
+
+/**
+ * A copy of a map that holds only the entries changed since it was copied, and reads the other entries from the
+ * map it was copied from. The map copied from is never changed through the copy, so it must not be changed by its
+ * owner either while the copy is in use.
+ *
+ * A copy of a copy shares the original map, and copies only the changed entries, until the changes grow past a
+ * fraction of the original map, when the entries are combined into a new map.
+ *
+ * @author kec
+ * @param <T>
+ */
+public class IntObjectMapOverlay<T> implements IntObjectMap<T> {
+
+    /**
+     * The entries are combined into a new map when the changed entries exceed 1 / COMBINE_DIVISOR of the base map.
+     */
+    private static final int COMBINE_DIVISOR = 8;
+
+    private final IntObjectMap<T> base;
+    private final int baseSize;
+    private final IntObjectMap<T> changes;
+    private final Supplier<IntObjectMap<T>> mapSupplier;
+    private final AtomicInteger changeCount = new AtomicInteger();
+
+    private IntObjectMapOverlay(IntObjectMap<T> base, int baseSize, Supplier<IntObjectMap<T>> mapSupplier) {
+        this.base = base;
+        this.baseSize = baseSize;
+        this.changes = mapSupplier.get();
+        this.mapSupplier = mapSupplier;
+    }
+
+    /**
+     * Copy a map, without copying its entries.
+     *
+     * @param <T>
+     * @param map the map to copy
+     * @param mapSupplier supplies empty maps of the kind copied, to hold the changed entries, and the combined entries
+     * @return the copy
+     */
+    public static <T> IntObjectMapOverlay<T> copyOf(IntObjectMap<T> map, Supplier<IntObjectMap<T>> mapSupplier) {
+        if (!(map instanceof IntObjectMapOverlay)) {
+            return new IntObjectMapOverlay<>(map, map.size(), mapSupplier);
+        }
+        IntObjectMapOverlay<T> overlay = (IntObjectMapOverlay<T>) map;
+        if (overlay.changeCount.get() * COMBINE_DIVISOR > overlay.baseSize) {
+            IntObjectMap<T> combined = mapSupplier.get();
+            AtomicInteger combinedSize = new AtomicInteger();
+            overlay.forEach((int key, T value) -> {
+                combined.put(key, value);
+                combinedSize.incrementAndGet();
+            });
+            return new IntObjectMapOverlay<>(combined, combinedSize.get(), mapSupplier);
+        }
+        IntObjectMapOverlay<T> copy = new IntObjectMapOverlay<>(overlay.base, overlay.baseSize, mapSupplier);
+        overlay.changes.forEach(copy.changes::put);
+        copy.changeCount.set(overlay.changeCount.get());
+        return copy;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean put(int key, T value) {
+        boolean absent = !containsKey(key);
+        if (changes.put(key, value)) {
+            changeCount.incrementAndGet();
+        }
+        return absent;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public T getAndSet(int key, T value) {
+        T previous = changes.getAndSet(key, value);
+        if (previous == null) {
+            changeCount.incrementAndGet();
+            return base.get(key);
+        }
+        return previous;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public T get(int key) {
+        T value = changes.get(key);
+        if (value != null) {
+            return value;
+        }
+        return base.get(key);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Optional<T> getOptional(int key) {
+        return Optional.ofNullable(get(key));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean containsKey(int key) {
+        return changes.containsKey(key) || base.containsKey(key);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int size() {
+        AtomicInteger added = new AtomicInteger();
+        changes.forEach((int key, T value) -> {
+            if (!base.containsKey(key)) {
+                added.incrementAndGet();
+            }
+        });
+        return baseSize + added.get();
+    }
+
+    /**
+     * The map copied from is never changed through the copy, so a copy cannot be cleared.
+     */
+    @Override
+    public void clear() {
+        throw new UnsupportedOperationException("A copy of a map cannot remove the entries of the map it was copied from");
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void forEach(IntBiConsumer<T> consumer) {
+        base.forEach((int key, T value) -> {
+            if (!changes.containsKey(key)) {
+                consumer.accept(key, value);
+            }
+        });
+        changes.forEach(consumer);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public T accumulateAndGet(int index, T newValue, BinaryOperator<T> accumulatorFunction) {
+        if (!changes.containsKey(index)) {
+            // Start from the entry of the map copied from, unless another thread has already changed the entry
+            T baseValue = base.get(index);
+            if (baseValue != null) {
+                changes.accumulateAndGet(index, baseValue, (current, copied) -> current == null ? copied : current);
+            }
+            changeCount.incrementAndGet();
+        }
+        return changes.accumulateAndGet(index, newValue, accumulatorFunction);
+    }
+}
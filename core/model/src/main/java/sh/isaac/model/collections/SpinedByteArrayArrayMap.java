@@ -18,10 +18,13 @@ package sh.isaac.model.collections;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.BitSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.BinaryOperator;
 import org.apache.logging.log4j.Logger;
 import org.apache.logging.log4j.LogManager;
 import sh.isaac.model.ModelGet;
@@ -35,6 +38,8 @@ public class SpinedByteArrayArrayMap extends SpinedIntObjectMap<byte[][]> {
 
     private static final Logger LOG = LogManager.getLogger();
     private final ByteArrayArrayStore byteArrayArrayStore;
+    /** The indexes within each changed spine of the elements changed since the spine was last written. */
+    private final ConcurrentHashMap<Integer, BitSet> changedElementIndexes = new ConcurrentHashMap<>();
 
     public SpinedByteArrayArrayMap(ByteArrayArrayStore byteArrayArrayStore) {
         this.byteArrayArrayStore = byteArrayArrayStore;
@@ -45,6 +50,13 @@ public class SpinedByteArrayArrayMap extends SpinedIntObjectMap<byte[][]> {
         return byteArrayArrayStore.sizeOnDisk();
     }
 
+    /**
+     * Release the resources the store holds to read the persisted spines, such as mapped files.
+     */
+    public void close() {
+        byteArrayArrayStore.close();
+    }
+
     public int memoryInUse() {
         int sizeInBytes = 0;
         sizeInBytes = sizeInBytes + ((spineSize * 8) * spines.size()); // 8 bytes = pointer to an object
@@ -90,7 +102,7 @@ public class SpinedByteArrayArrayMap extends SpinedIntObjectMap<byte[][]> {
                 if (spineChanged) {
                     wroteAny.set(true);
                     this.changedSpineIndexes.remove(spineIndex);
-                    this.byteArrayArrayStore.put(spineIndex, spine);
+                    this.byteArrayArrayStore.put(spineIndex, spine, takeChangedElementIndexes(spineIndex));
                 }
                 
             });
@@ -107,6 +119,10 @@ public class SpinedByteArrayArrayMap extends SpinedIntObjectMap<byte[][]> {
         int indexInSpine = index % spineSize;
         if (spineIndex < this.spineCount.get()) {
             if (!this.spines.containsKey(spineIndex)) {
+                if (this.byteArrayArrayStore.supportsElementReads(spineIndex)) {
+                    // Read only the requested element, leaving the spine on disk until it is written to. 
+                    return this.byteArrayArrayStore.getElement(spineIndex, indexInSpine);
+                }
                 readSpine(spineIndex);
             }
         }
@@ -123,15 +139,58 @@ public class SpinedByteArrayArrayMap extends SpinedIntObjectMap<byte[][]> {
                 readSpine(spineIndex);
             }
         }
-        this.changedSpineIndexes.add(spineIndex);
-        
-        
         AtomicReferenceArray<byte[][]> spine = this.spines.computeIfAbsent(spineIndex, this::newSpine);
         boolean returnValue = spine.get(indexInSpine) != null;
         spine.accumulateAndGet(indexInSpine, element, this::merge);
+        markElementChanged(spineIndex, indexInSpine);
         return returnValue;
     }
 
+    @Override
+    public byte[][] getAndSet(int index, byte[][] element) {
+        byte[][] previous = super.getAndSet(index, element);
+        markElementChanged(indexToSpineIndex(index));
+        return previous;
+    }
+
+    @Override
+    public byte[][] accumulateAndGet(int index, byte[][] x, BinaryOperator<byte[][]> accumulatorFunction) {
+        byte[][] result = super.accumulateAndGet(index, x, accumulatorFunction);
+        markElementChanged(indexToSpineIndex(index));
+        return result;
+    }
+
+    private void markElementChanged(int index) {
+        markElementChanged(index / spineSize, index % spineSize);
+    }
+
+    /**
+     * Record a changed element. The spine is marked as changed after the element, so that a concurrent
+     * {@link #write()} either sees both, or leaves the spine marked for the next write.
+     */
+    private void markElementChanged(int spineIndex, int indexInSpine) {
+        BitSet changedElements = this.changedElementIndexes.computeIfAbsent(spineIndex, (key) -> new BitSet(spineSize));
+        synchronized (changedElements) {
+            changedElements.set(indexInSpine);
+        }
+        this.changedSpineIndexes.add(spineIndex);
+    }
+
+    /**
+     * @return the changed element indexes, or null if they are unknown, and the entire spine must be written
+     */
+    private int[] takeChangedElementIndexes(int spineIndex) {
+        BitSet changedElements = this.changedElementIndexes.get(spineIndex);
+        if (changedElements == null) {
+            return null;
+        }
+        synchronized (changedElements) {
+            int[] changedIndexes = changedElements.stream().toArray();
+            changedElements.clear();
+            return changedIndexes;
+        }
+    }
+
     private int indexToSpineIndex(int index) {
         if (index < 0) {
            if (ModelGet.sequenceStore() != null) {
@@ -144,6 +203,15 @@ public class SpinedByteArrayArrayMap extends SpinedIntObjectMap<byte[][]> {
         return index;
     }
 
+    private static boolean isSorted(byte[][] value) {
+        for (int i = 1; i < value.length; i++) {
+            if (compare(value[i - 1], value[i]) > 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
     private static int compare(byte[] one, byte[] another) {
         boolean oneStartsWithZero = false;
         boolean anotherStartsWithZero = false;
@@ -172,14 +240,26 @@ public class SpinedByteArrayArrayMap extends SpinedIntObjectMap<byte[][]> {
         return one.length - another.length;
     }
 
+    /**
+     * Merge sorted arrays, keeping one copy of the byte arrays in both. Values are stored sorted, so the merge of a
+     * value written again is the value already stored.
+     */
     private byte[][] merge(byte[][] currentValue, byte[][] updateValue) {
         if (currentValue == null || currentValue.length == 0) {
+            if (updateValue != null) {
+                Arrays.sort(updateValue, SpinedByteArrayArrayMap::compare);
+            }
             return updateValue;
         }
         if (updateValue == null) {
             throw new IllegalStateException("Update value is null");
         }
         Arrays.sort(updateValue, SpinedByteArrayArrayMap::compare);
+        if (!isSorted(currentValue)) {
+            // stored before values were stored sorted
+            currentValue = currentValue.clone();
+            Arrays.sort(currentValue, SpinedByteArrayArrayMap::compare);
+        }
         ArrayList<byte[]> mergedValues = new ArrayList<>(currentValue.length + updateValue.length);
         int updateIndex = 0;
         int currentIndex = 0;
@@ -10,6 +10,46 @@ public interface ByteArrayArrayStore {
 
     void put(int spineIndex, AtomicReferenceArray<byte[][]> spine);
 
+    /**
+     * Write the changed elements of a spine. Stores that can update individual elements in place may override this
+     * to avoid rewriting the entire spine.
+     *
+     * @param spineIndex the index of the spine
+     * @param spine the complete spine
+     * @param changedIndexes the indexes within the spine of the elements changed since the spine was last written,
+     * or null if they are unknown
+     */
+    default void put(int spineIndex, AtomicReferenceArray<byte[][]> spine, int[] changedIndexes) {
+        put(spineIndex, spine);
+    }
+
+    /**
+     * @param spineIndex the index of the spine
+     * @return true if {@link #getElement(int, int)} can read a single element of the persisted spine, without
+     * reading the entire spine.
+     */
+    default boolean supportsElementReads(int spineIndex) {
+        return false;
+    }
+
+    /**
+     * Read a single element of a persisted spine.
+     *
+     * @param spineIndex the index of the spine
+     * @param indexInSpine the index of the element within the spine
+     * @return the element, or null if the element is not present
+     */
+    default byte[][] getElement(int spineIndex, int indexInSpine) {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * Release the resources held to read the persisted spines, such as mapped files. The store may still be used, and
+     * acquires them again as needed.
+     */
+    default void close() {
+    }
+
     int sizeOnDisk();
 
     int getSpineCount();
@@ -263,9 +263,39 @@ public class StampCoordinateImpl
 
         hash = 11 * hash + Objects.hashCode(this.stampPrecedence);
         hash = 11 * hash + Objects.hashCode(this.stampPosition);
-        hash = 11 * hash + Objects.hashCode(this.moduleSpecifications);
+        hash = 11 * hash + uuidHashCode(this.moduleSpecifications);
+        hash = 11 * hash + uuidHashCode(this.authorSpecifications);
         hash = 11 * hash + Objects.hashCode(this.allowedStates);
-        hash = 11 * hash + (this.modulePriorityList == null ? 0 : Objects.hashCode(this.modulePriorityList));
+        hash = 11 * hash + (this.modulePriorityList == null ? 0 : uuidHashCode(this.modulePriorityList));
+        return hash;
+    }
+
+    /**
+     * Hash concepts by their primordial uuids, as the stamp position does, rather than by their nids, so the hash of
+     * a coordinate does not depend on the identifier service, and is unchanged when the services stop.
+     *
+     * @param specifications the concepts to hash
+     * @return the hash code
+     */
+    private static int uuidHashCode(Set<ConceptSpecification> specifications) {
+        int hash = 0;
+        for (ConceptSpecification specification: specifications) {
+            hash += specification.getPrimordialUuid().hashCode();
+        }
+        return hash;
+    }
+
+    /**
+     * Hash concepts by their primordial uuids, in order.
+     *
+     * @param specifications the concepts to hash
+     * @return the hash code
+     */
+    private static int uuidHashCode(List<ConceptSpecification> specifications) {
+        int hash = 1;
+        for (ConceptSpecification specification: specifications) {
+            hash = 31 * hash + specification.getPrimordialUuid().hashCode();
+        }
         return hash;
     }
 
@@ -279,6 +309,7 @@ public class StampCoordinateImpl
 
         return new StampCoordinateImpl(this.stampPrecedence,
                 anotherStampPosition,
+                this.authorSpecifications,
                 this.moduleSpecifications,
                 this.modulePriorityList,
                 this.allowedStates);
@@ -290,7 +321,7 @@ public class StampCoordinateImpl
     @Override
     public StampCoordinate makeCoordinateAnalog(Set<Status> states) {
         return statusAnalogCache.computeIfAbsent(states.hashCode(), hashCodeAgain -> {
-            return new StampCoordinateImpl(this.stampPrecedence, this.stampPosition, this.moduleSpecifications, this.modulePriorityList, states);
+            return new StampCoordinateImpl(this.stampPrecedence, this.stampPosition, this.authorSpecifications, this.moduleSpecifications, this.modulePriorityList, states);
         });
     }
 
@@ -306,7 +337,7 @@ public class StampCoordinateImpl
         if (add) {
             newNids.addAll(this.moduleSpecifications);
         }
-        return new StampCoordinateImpl(this.stampPrecedence, this.stampPosition, newNids, this.modulePriorityList, this.allowedStates);
+        return new StampCoordinateImpl(this.stampPrecedence, this.stampPosition, this.authorSpecifications, newNids, this.modulePriorityList, this.allowedStates);
     }
     
     /**
@@ -314,7 +345,7 @@ public class StampCoordinateImpl
      */
     @Override
     public StampCoordinate makeModulePreferenceOrderAnalog(List<ConceptSpecification> newModulePreferenceOrder) {
-        return new StampCoordinateImpl(this.stampPrecedence, this.stampPosition, this.moduleSpecifications, newModulePreferenceOrder, this.allowedStates);
+        return new StampCoordinateImpl(this.stampPrecedence, this.stampPosition, this.authorSpecifications, this.moduleSpecifications, newModulePreferenceOrder, this.allowedStates);
     }
 
     /**
@@ -492,10 +523,11 @@ public class StampCoordinateImpl
     @XmlElement(name = "Concept")
     @XmlElementWrapper(name = "authors")
     public Set<ConceptSpecification> getAuthorSpecifications() {
-        return moduleSpecifications;
+        return authorSpecifications;
     }
 
     public void setAuthorSpecifications(Set<ConceptSpecification> authorSpecifications) {
+        statusAnalogCache.clear();
         this.authorSpecifications = authorSpecifications;
     }
 
@@ -16,6 +16,7 @@
  */
 package sh.isaac.model.datastream;
 
+import java.io.BufferedInputStream;
 import java.io.DataInputStream;
 import java.io.EOFException;
 import java.io.FileInputStream;
@@ -116,7 +117,7 @@ public class BinaryDatastreamReader
 
     @Override
     protected Integer call() throws Exception {
-        try (DataInputStream input = new DataInputStream(path == null ? inputStream : new FileInputStream(path.toFile()))) {
+        try (DataInputStream input = new DataInputStream(new BufferedInputStream(path == null ? inputStream : new FileInputStream(path.toFile())))) {
             long bytesProcessed = 0;
             int objectCount = 0;
             while (true) {
@@ -128,6 +129,10 @@ public class BinaryDatastreamReader
                         break;
                     }
                     final int recordSizeInBytes = input.readInt();
+                    if (recordSizeInBytes == IbdfBlockIndex.END_OF_RECORDS) {
+                        //the block index of an IBDF v2 file follows the records
+                        break;
+                    }
                     objectCount++;
                     bytesProcessed += 4;
                     final byte[] objectData = new byte[recordSizeInBytes];
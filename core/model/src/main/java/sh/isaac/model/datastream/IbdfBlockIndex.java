@@ -0,0 +1,178 @@
+/*
+ * Copyright 2019 Organizations participating in ISAAC, ISAAC's KOMET, and SOLOR development include the
+         US Veterans Health Administration, OSHERA, and the Health Services Platform Consortium..
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package sh.isaac.model.datastream;
+
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Arrays;
+import java.util.Optional;
+
+/**
+ * The block index of an IBDF v2 file. An IBDF v2 file holds the same [int length][bytes] records as an IBDF v1 file, 
+ * followed by a trailer: [int {@link #END_OF_RECORDS}][long block offset]... [int block count][long data length][int magic]. 
+ * Each block starts at a record boundary, so a reader can start at any block, and process the blocks of a file in 
+ * parallel. A reader that reads the file sequentially, such as a reader of a stream, stops at the 
+ * {@link #END_OF_RECORDS} marker, since a record length is never negative. 
+ * 
+ * A file without a valid trailer is an IBDF v1 file, and must be read sequentially. 
+ * 
+ * IBDF v2 is a breaking change of the file format: a reader that predates it reads the {@link #END_OF_RECORDS} 
+ * marker as the length of a record, and fails. Files that must be read by such readers are written in v1, by 
+ * setting the system property {@link sh.isaac.api.constants.SystemPropertyConstants#IBDF_BLOCK_INDEX} to false. 
+ *
+ * @author kec
+ */
+public class IbdfBlockIndex {
+
+    /**
+     * A new block is started by the first record that starts at least this many bytes after the start of the 
+     * current block. 
+     */
+    public static final int BLOCK_SIZE = 1 << 20;
+    /**
+     * Written in place of a record length, at the start of the trailer. 
+     */
+    public static final int END_OF_RECORDS = -1;
+    private static final int MAGIC = 0x1BDF_B10C;
+    private static final int TRAILER_FIXED_SIZE = 4 + 8 + 4;
+
+    private long[] blockOffsets;
+    private int blockCount;
+    private long dataLength;
+
+    /**
+     * An index for a file without records. 
+     */
+    public IbdfBlockIndex() {
+        this(new long[16], 0, 0);
+    }
+
+    private IbdfBlockIndex(long[] blockOffsets, int blockCount, long dataLength) {
+        this.blockOffsets = blockOffsets;
+        this.blockCount = blockCount;
+        this.dataLength = dataLength;
+    }
+
+    /**
+     * @return the number of blocks
+     */
+    public int getBlockCount() {
+        return this.blockCount;
+    }
+
+    /**
+     * @return the length of the records, which is the offset of the trailer
+     */
+    public long getDataLength() {
+        return this.dataLength;
+    }
+
+    /**
+     * @param block the block
+     * @return the file offset of the first record of the block
+     */
+    public long getBlockStart(int block) {
+        return this.blockOffsets[block];
+    }
+
+    /**
+     * @param block the block
+     * @return the file offset after the last record of the block
+     */
+    public long getBlockEnd(int block) {
+        return block + 1 < this.blockCount ? this.blockOffsets[block + 1] : this.dataLength;
+    }
+
+    /**
+     * Record the write of a record, starting a new block if the current block is full. Not thread safe, 
+     * writers must serialize their writes. 
+     *
+     * @param recordLength the length of the record, including the length field
+     */
+    public void recordWritten(int recordLength) {
+        if (this.blockCount == 0 || this.dataLength - this.blockOffsets[this.blockCount - 1] >= BLOCK_SIZE) {
+            if (this.blockCount == this.blockOffsets.length) {
+                this.blockOffsets = Arrays.copyOf(this.blockOffsets, this.blockCount * 2);
+            }
+            this.blockOffsets[this.blockCount++] = this.dataLength;
+        }
+        this.dataLength += recordLength;
+    }
+
+    /**
+     * Write the trailer. Must be written immediately after the last record. 
+     *
+     * @param out the output
+     * @throws IOException if the trailer can't be written
+     */
+    public void writeTrailer(DataOutput out) throws IOException {
+        out.writeInt(END_OF_RECORDS);
+        for (int i = 0; i < this.blockCount; i++) {
+            out.writeLong(this.blockOffsets[i]);
+        }
+        out.writeInt(this.blockCount);
+        out.writeLong(this.dataLength);
+        out.writeInt(MAGIC);
+    }
+
+    /**
+     * Read the trailer of a file. 
+     *
+     * @param channel the file
+     * @return the block index, or empty if the file is not an IBDF v2 file
+     * @throws IOException if the file can't be read
+     */
+    public static Optional<IbdfBlockIndex> read(FileChannel channel) throws IOException {
+        long fileLength = channel.size();
+        if (fileLength < TRAILER_FIXED_SIZE) {
+            return Optional.empty();
+        }
+        ByteBuffer fixed = ByteBuffer.allocate(TRAILER_FIXED_SIZE);
+        readFully(channel, fixed, fileLength - TRAILER_FIXED_SIZE);
+        fixed.flip();
+        int blockCount = fixed.getInt();
+        long dataLength = fixed.getLong();
+        if (fixed.getInt() != MAGIC || blockCount < 0 || dataLength < 0
+                || dataLength + 4 + blockCount * 8L + TRAILER_FIXED_SIZE != fileLength) {
+            return Optional.empty();
+        }
+        ByteBuffer offsetBuffer = ByteBuffer.allocate(blockCount * 8);
+        readFully(channel, offsetBuffer, dataLength + 4);
+        offsetBuffer.flip();
+        long[] blockOffsets = new long[Math.max(blockCount, 16)];
+        long previous = -1;
+        for (int i = 0; i < blockCount; i++) {
+            blockOffsets[i] = offsetBuffer.getLong();
+            if (blockOffsets[i] <= previous || blockOffsets[i] >= dataLength || (i == 0 && blockOffsets[i] != 0)) {
+                return Optional.empty();
+            }
+            previous = blockOffsets[i];
+        }
+        return Optional.of(new IbdfBlockIndex(blockOffsets, blockCount, dataLength));
+    }
+
+    private static void readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, position + buffer.position());
+            if (read < 0) {
+                throw new IOException("Unexpected end of file");
+            }
+        }
+    }
+}
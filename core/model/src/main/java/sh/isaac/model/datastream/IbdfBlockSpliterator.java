@@ -0,0 +1,122 @@
+/*
+ * Copyright 2019 Organizations participating in ISAAC, ISAAC's KOMET, and SOLOR development include the
+         US Veterans Health Administration, OSHERA, and the Health Services Platform Consortium..
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package sh.isaac.model.datastream;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.function.IntConsumer;
+import sh.isaac.api.externalizable.ByteArrayDataBuffer;
+
+/**
+ * A {@link Spliterator} over the records of a range of blocks of an IBDF v2 file. Each block is memory-mapped 
+ * when the spliterator reaches it, and the spliterator splits at block boundaries, so the blocks of a file can 
+ * be read and parsed in parallel. 
+ *
+ * @author kec
+ */
+public class IbdfBlockSpliterator
+        implements Spliterator<IsaacExternalizableUnparsed> {
+
+    private final FileChannel channel;
+    private final IbdfBlockIndex blockIndex;
+    private final IntConsumer bytesRead;
+    private int nextBlock;
+    private int endBlock;
+    private ByteBuffer currentBlock;
+
+    /**
+     * @param channel the file
+     * @param blockIndex the block index of the file
+     * @param bytesRead called with the size of each record read, for progress tracking
+     */
+    public IbdfBlockSpliterator(FileChannel channel, IbdfBlockIndex blockIndex, IntConsumer bytesRead) {
+        this(channel, blockIndex, bytesRead, null, 0, blockIndex.getBlockCount());
+    }
+
+    private IbdfBlockSpliterator(FileChannel channel, IbdfBlockIndex blockIndex, IntConsumer bytesRead, 
+            ByteBuffer currentBlock, int nextBlock, int endBlock) {
+        this.channel = channel;
+        this.blockIndex = blockIndex;
+        this.bytesRead = bytesRead;
+        this.currentBlock = currentBlock;
+        this.nextBlock = nextBlock;
+        this.endBlock = endBlock;
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super IsaacExternalizableUnparsed> action) {
+        while (this.currentBlock == null || !this.currentBlock.hasRemaining()) {
+            if (this.nextBlock >= this.endBlock) {
+                this.currentBlock = null;
+                return false;
+            }
+            this.currentBlock = map(this.nextBlock++);
+        }
+        int recordSizeInBytes = this.currentBlock.getInt();
+        byte[] objectData = new byte[recordSizeInBytes];
+        this.currentBlock.get(objectData);
+        ByteArrayDataBuffer byteArrayDataBuffer = new ByteArrayDataBuffer(objectData);
+        byteArrayDataBuffer.setExternalData(true);
+        action.accept(new IsaacExternalizableUnparsed(byteArrayDataBuffer));
+        this.bytesRead.accept(4 + recordSizeInBytes);
+        return true;
+    }
+
+    private ByteBuffer map(int block) {
+        long start = this.blockIndex.getBlockStart(block);
+        try {
+            return this.channel.map(FileChannel.MapMode.READ_ONLY, start, this.blockIndex.getBlockEnd(block) - start);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    /**
+     * Splits off the first half of the blocks that have not been reached. The block in progress, if any, 
+     * goes with the first half, to preserve the encounter order. 
+     */
+    @Override
+    public Spliterator<IsaacExternalizableUnparsed> trySplit() {
+        int remainingBlocks = this.endBlock - this.nextBlock;
+        if (remainingBlocks < 2) {
+            return null;
+        }
+        int splitBlock = this.nextBlock + remainingBlocks / 2;
+        IbdfBlockSpliterator prefix = new IbdfBlockSpliterator(this.channel, this.blockIndex, this.bytesRead, 
+                this.currentBlock, this.nextBlock, splitBlock);
+        this.currentBlock = null;
+        this.nextBlock = splitBlock;
+        return prefix;
+    }
+
+    @Override
+    public long estimateSize() {
+        long start = this.nextBlock < this.endBlock ? this.blockIndex.getBlockStart(this.nextBlock) : 0;
+        long end = this.nextBlock < this.endBlock ? this.blockIndex.getBlockEnd(this.endBlock - 1) : 0;
+        // a rough estimate, 256 bytes per record 
+        return ((end - start) >> 8) + (this.currentBlock == null ? 0 : this.currentBlock.remaining() >> 8);
+    }
+
+    @Override
+    public int characteristics() {
+        return ORDERED | IMMUTABLE | NONNULL;
+    }
+}
@@ -125,44 +125,32 @@ public class GraphCollector
     */
    @Override
    public void accept(HashTreeBuilder graphBuilder, int originNid) {
+      for (int destinationNid: getParentNids(originNid)) {
+         graphBuilder.add(destinationNid, originNid);
+      }
+   }
+
+   /**
+    * Gets the parent nids of a concept, as of the manifold coordinate of this collector.
+    *
+    * @param originNid the concept nid
+    * @return the parent nids
+    */
+   public int[] getParentNids(int originNid) {
       final int[] taxonomyData = this.taxonomyDataProvider.apply(originNid);
       
       if (taxonomyData == null) {
          LOG.error("No taxonomy data for: {} {} with NID: {}", Get.identifierService().getUuidPrimordialForNid(originNid), Get.conceptDescriptionText(originNid), originNid);
-         
-      } else {
-         TaxonomyRecordPrimitive isaacPrimitiveTaxonomyRecord = new TaxonomyRecordPrimitive(taxonomyData);
-         // For debugging.
-         if (Get.configurationService().isVerboseDebugEnabled() && this.watchList.contains(originNid)) {
-            System.out.println("Found watch: " + isaacPrimitiveTaxonomyRecord);
-         }
-         final TaxonomyRecord taxonomyRecordUnpacked = isaacPrimitiveTaxonomyRecord.getTaxonomyRecordUnpacked();
-         final int[] destinationConceptNids =
-            taxonomyRecordUnpacked.getConceptNidsForType(this.ISA_CONCEPT_NID,
-                                                              this.manifoldCoordinate);
-
-//         if (destinationConceptNids.length == 0) {
-//            // again for steping through with the debugger. Remove when issues resolved. 
-//            taxonomyRecordUnpacked.getConceptNidsForType(this.ISA_CONCEPT_NID,
-//                                                              this.manifoldCoordinate);
-//         }
-//         int parentCount = 0;
-         for (int destinationNid: destinationConceptNids) {
-//            parentCount++;
-            graphBuilder.add(destinationNid, originNid);
-         }
-//         if (parentCount == 0) {
-//            System.out.println("No parent for: " + Get.conceptDescriptionText(originNid));
-//            System.out.println("TaxonomyRecord: " + taxonomyRecordUnpacked);
-//            StringBuilder builder = new StringBuilder("[");
-//            for (int element: taxonomyData) {
-//               builder.append(element);
-//               builder.append(", ");
-//            }
-//            builder.replace(builder.length()-1, builder.length()-1, "]");
-//            System.out.println("Source data: " + builder.toString());
-//         }
+         return new int[0];
       }
+      TaxonomyRecordPrimitive isaacPrimitiveTaxonomyRecord = new TaxonomyRecordPrimitive(taxonomyData);
+      // For debugging.
+      if (Get.configurationService().isVerboseDebugEnabled() && this.watchList.contains(originNid)) {
+         System.out.println("Found watch: " + isaacPrimitiveTaxonomyRecord);
+      }
+      final TaxonomyRecord taxonomyRecordUnpacked = isaacPrimitiveTaxonomyRecord.getTaxonomyRecordUnpacked();
+      return taxonomyRecordUnpacked.getConceptNidsForType(this.ISA_CONCEPT_NID,
+                                                              this.manifoldCoordinate);
    }
 
    /**
@@ -39,6 +39,7 @@ package sh.isaac.model.tree;
 //~--- JDK imports ------------------------------------------------------------
 import java.util.UUID;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntFunction;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -50,6 +51,8 @@ import org.apache.mahout.math.set.OpenIntHashSet;
 import sh.isaac.api.Get;
 import sh.isaac.api.ProgressTracker;
 import sh.isaac.api.alert.Alert;
+import sh.isaac.api.alert.AlertCategory;
+import sh.isaac.api.alert.AlertObject;
 import sh.isaac.api.alert.AlertType;
 import sh.isaac.api.bootstrap.TermAux;
 import sh.isaac.api.coordinate.ManifoldCoordinate;
@@ -102,6 +105,17 @@ public class HashTreeBuilder
         }
     }
 
+    /**
+     * Instantiates a new hash tree builder, holding a copy of an existing tree, so the changes
+     * of a commit can be applied without rebuilding the tree or altering the existing tree.
+     *
+     * @param tree the tree to copy
+     */
+    public HashTreeBuilder(HashTreeWithIntArraySets tree) {
+        super(tree);
+        this.builderId = BUILDER_COUNT.getAndIncrement();
+    }
+
     //~--- methods -------------------------------------------------------------
     /**
      * Combine.
@@ -149,6 +163,37 @@ public class HashTreeBuilder
     }
 
     //~--- get methods ---------------------------------------------------------
+    /**
+     * Gets the graph, with the parents of the changed concepts replaced. Only the changed concepts
+     * are checked for cycles, rather than the full depth first traversal of
+     * {@link #getSimpleDirectedGraph(ProgressTracker)}.
+     *
+     * @param changedConceptNids the concepts whose parents may have changed
+     * @param parentNidsProvider provides the current parents of a concept
+     * @return the updated graph
+     */
+    public HashTreeWithIntArraySets getUpdatedDirectedGraph(int[] changedConceptNids, IntFunction<int[]> parentNidsProvider) {
+        for (int conceptNid : changedConceptNids) {
+            setParents(conceptNid, parentNidsProvider.apply(conceptNid));
+        }
+
+        computeRoots();
+
+        for (int conceptNid : changedConceptNids) {
+            for (int parentNid : getTaxonomyParentConceptNids(conceptNid)) {
+                if (parentNid == conceptNid || isDescendentOf(parentNid, conceptNid)) {
+                    String description = "Members include: \n   "
+                            + manifoldCoordinate.getPreferredDescriptionText(conceptNid) + "\n   "
+                            + manifoldCoordinate.getPreferredDescriptionText(parentNid) + "\n";
+                    Alert.publishAddition(new AlertObject(manifoldCoordinate.getTaxonomyPremiseType() + " Cycle found",
+                            description, AlertType.ERROR, AlertCategory.TAXONOMY));
+                }
+            }
+        }
+
+        return this;
+    }
+
     public HashTreeWithIntArraySets getSimpleDirectedGraph() {
         return getSimpleDirectedGraph(null);
     }
@@ -38,6 +38,10 @@
 
 
 package sh.isaac.model.tree;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
 import java.util.Arrays;
 import java.util.LinkedList;
 import java.util.OptionalInt;
@@ -64,6 +68,7 @@ import sh.isaac.model.ModelGet;
 import sh.isaac.model.collections.IntObjectMap;
 import sh.isaac.model.collections.MergeIntArray;
 import sh.isaac.model.collections.IntObjectMapImpl;
+import sh.isaac.model.collections.IntObjectMapOverlay;
 import sh.isaac.model.collections.SpinedIntIntArrayMap;
 import sh.isaac.model.collections.store.IntIntArrayNoStore;
 
@@ -110,6 +115,11 @@ public class HashTreeWithIntArraySets
    protected final int                       assemblageNid;
    protected final OpenIntHashSet roots = new OpenIntHashSet();
 
+   /**
+    * The reachability index, null until built, and discarded when the tree changes.
+    */
+   private SubsumptionIndex subsumptionIndex;
+
    /**
     * Instantiates a new hash tree with bit sets.
     *
@@ -123,8 +133,29 @@ public class HashTreeWithIntArraySets
       this.conceptNidsWithParents    = new OpenIntHashSet();
       this.conceptNidsWithChildren   = new OpenIntHashSet();
       this.conceptNids               = new OpenIntHashSet();
-      this.childNid_ParentNidSetArray_Map = ModelGet.dataStore().implementsSequenceStore() ? new SpinedIntIntArrayMap(new IntIntArrayNoStore()): new IntObjectMapImpl<>();
-      this.parentNid_ChildNidSetArray_Map = ModelGet.dataStore().implementsSequenceStore() ? new SpinedIntIntArrayMap(new IntIntArrayNoStore()) : new IntObjectMapImpl<>();
+      this.childNid_ParentNidSetArray_Map = newIntArrayMap();
+      this.parentNid_ChildNidSetArray_Map = newIntArrayMap();
+   }
+
+   /**
+    * Instantiates a copy of a tree. The parent and child maps of the copy hold only the parent and child arrays
+    * that change, and read the others from the maps of the original tree, since arrays are replaced, never
+    * modified, when the tree changes. The original tree must not be changed while the copy is in use.
+    *
+    * @param tree the tree to copy
+    */
+   protected HashTreeWithIntArraySets(HashTreeWithIntArraySets tree) {
+      this.manifoldCoordinate             = tree.manifoldCoordinate;
+      this.assemblageNid                  = tree.assemblageNid;
+      this.conceptNidsWithParents    = (OpenIntHashSet) tree.conceptNidsWithParents.clone();
+      this.conceptNidsWithChildren   = (OpenIntHashSet) tree.conceptNidsWithChildren.clone();
+      this.conceptNids               = (OpenIntHashSet) tree.conceptNids.clone();
+      this.childNid_ParentNidSetArray_Map = IntObjectMapOverlay.copyOf(tree.childNid_ParentNidSetArray_Map, HashTreeWithIntArraySets::newIntArrayMap);
+      this.parentNid_ChildNidSetArray_Map = IntObjectMapOverlay.copyOf(tree.parentNid_ChildNidSetArray_Map, HashTreeWithIntArraySets::newIntArrayMap);
+   }
+
+   private static IntObjectMap<int[]> newIntArrayMap() {
+      return ModelGet.dataStore().implementsSequenceStore() ? new SpinedIntIntArrayMap(new IntIntArrayNoStore()) : new IntObjectMapImpl<>();
    }
 
    /**
@@ -321,6 +352,7 @@ public class HashTreeWithIntArraySets
       }
 
       childNid_ParentNidSetArray_Map.put(childNid, newParents);
+      this.subsumptionIndex = null;
    }
 
    /**
@@ -331,6 +363,83 @@ public class HashTreeWithIntArraySets
       return getNodeIds().size() + 1;
    }
 
+   /**
+    * Replace the parents of a concept, and update the children of the former and new parents to match.
+    *
+    * @param childNid the concept to set the parents of
+    * @param parentNids the new parents of the concept
+    */
+   protected void setParents(int childNid, int[] parentNids) {
+      this.subsumptionIndex = null;
+      final int[] sortedParentNids = parentNids.clone();
+      Arrays.sort(sortedParentNids);
+
+      final int[] oldParentNids = getParentNidsNoFilter(childNid);
+
+      for (int oldParentNid: oldParentNids) {
+         if (Arrays.binarySearch(sortedParentNids, oldParentNid) < 0) {
+            int[] childNids = removeFromArray(getChildNoFilter(oldParentNid), childNid);
+
+            this.parentNid_ChildNidSetArray_Map.put(oldParentNid, childNids);
+
+            if (childNids.length == 0) {
+               this.conceptNidsWithChildren.remove(oldParentNid);
+               removeIfUnlinked(oldParentNid);
+            }
+         }
+      }
+
+      for (int parentNid: sortedParentNids) {
+         if (Arrays.binarySearch(oldParentNids, parentNid) < 0) {
+            this.conceptNids.add(parentNid);
+            this.conceptNidsWithChildren.add(parentNid);
+            this.parentNid_ChildNidSetArray_Map.accumulateAndGet(parentNid, new int[]{childNid}, MergeIntArray::merge);
+         }
+      }
+
+      this.childNid_ParentNidSetArray_Map.put(childNid, sortedParentNids);
+
+      if (sortedParentNids.length == 0) {
+         this.conceptNidsWithParents.remove(childNid);
+         removeIfUnlinked(childNid);
+      } else {
+         this.conceptNids.add(childNid);
+         this.conceptNidsWithParents.add(childNid);
+      }
+   }
+
+   /**
+    * Removes a concept from the concepts of this tree, if it no longer has a parent or a child.
+    *
+    * @param nid the concept nid
+    */
+   private void removeIfUnlinked(int nid) {
+      if (!this.conceptNidsWithParents.contains(nid) && !this.conceptNidsWithChildren.contains(nid)) {
+         this.conceptNids.remove(nid);
+      }
+   }
+
+   /**
+    * Removes from array.
+    *
+    * @param array the sorted array
+    * @param toRemove the to remove
+    * @return the int[]
+    */
+   private static int[] removeFromArray(int[] array, int toRemove) {
+      int searchResult = Arrays.binarySearch(array, toRemove);
+
+      if (searchResult < 0) {
+         return array;
+      }
+
+      int[] array2 = new int[array.length - 1];
+
+      System.arraycopy(array, 0, array2, 0, searchResult);
+      System.arraycopy(array, searchResult + 1, array2, searchResult, array.length - searchResult - 1);
+      return array2;
+   }
+
    /**
     * Adds the to array.
     *
@@ -473,6 +582,112 @@ public class HashTreeWithIntArraySets
       return assemblageNid;
    }
 
+   /**
+    * Write this tree in the format read by {@link #read(ByteBuffer, ManifoldCoordinate)}: the assemblage nid, 
+    * the concept nids, then the parent and the child map, each as an entry count followed by 
+    * [nid][array length][array] for each entry.
+    *
+    * @param out the output to write to
+    * @throws IOException if the output cannot be written
+    */
+   public final void write(DataOutput out) throws IOException {
+      out.writeInt(this.assemblageNid);
+      int[] nids = this.conceptNids.keys().elements();
+      out.writeInt(nids.length);
+      for (int nid: nids) {
+         out.writeInt(nid);
+      }
+      // The maps are written by the nids held in the key sets, since a spined map iterates by element sequence.
+      writeMap(out, this.conceptNidsWithParents, this.childNid_ParentNidSetArray_Map);
+      writeMap(out, this.conceptNidsWithChildren, this.parentNid_ChildNidSetArray_Map);
+   }
+
+   private static void writeMap(DataOutput out, OpenIntHashSet keys, IntObjectMap<int[]> map) throws IOException {
+      int[] keyNids = keys.keys().elements();
+      int entryCount = 0;
+      for (int nid: keyNids) {
+         int[] nids = map.get(nid);
+         if (nids != null && nids.length > 0) {
+            entryCount++;
+         }
+      }
+      out.writeInt(entryCount);
+      for (int nid: keyNids) {
+         int[] nids = map.get(nid);
+         if (nids != null && nids.length > 0) {
+            out.writeInt(nid);
+            out.writeInt(nids.length);
+            for (int value: nids) {
+               out.writeInt(value);
+            }
+         }
+      }
+   }
+
+   /**
+    * Read a tree written by {@link #write(DataOutput)}, starting at the current position of the buffer.
+    *
+    * @param buffer the buffer, typically mapped from a file
+    * @param manifoldCoordinate the coordinate the tree was built for
+    * @return the tree
+    */
+   public static HashTreeWithIntArraySets read(ByteBuffer buffer, ManifoldCoordinate manifoldCoordinate) {
+      IntBuffer intBuffer = buffer.asIntBuffer();
+      HashTreeWithIntArraySets tree = new HashTreeWithIntArraySets(manifoldCoordinate, intBuffer.get());
+      int[] nids = new int[intBuffer.get()];
+      intBuffer.get(nids);
+      for (int nid: nids) {
+         tree.conceptNids.add(nid);
+      }
+      readMap(intBuffer, tree.childNid_ParentNidSetArray_Map, tree.conceptNidsWithParents);
+      readMap(intBuffer, tree.parentNid_ChildNidSetArray_Map, tree.conceptNidsWithChildren);
+      buffer.position(buffer.position() + intBuffer.position() * Integer.BYTES);
+      tree.computeRoots();
+      return tree;
+   }
+
+   private static void readMap(IntBuffer intBuffer, IntObjectMap<int[]> map, OpenIntHashSet keys) {
+      int entryCount = intBuffer.get();
+      for (int i = 0; i < entryCount; i++) {
+         int nid = intBuffer.get();
+         int[] nids = new int[intBuffer.get()];
+         intBuffer.get(nids);
+         map.put(nid, nids);
+         keys.add(nid);
+      }
+   }
+
+   /**
+    * Build the reachability index used by {@link #isDescendentOf(int, int)} and {@link #getDescendentNidSet(int)}.
+    * Must be called after the tree is complete, since any change to the tree discards the index. Children
+    * are taken from the parent sets, so parents removed to break cycles are respected.
+    */
+   public final void buildSubsumptionIndex() {
+      final long start = System.currentTimeMillis();
+      final SubsumptionIndex index = new SubsumptionIndex(this.roots.keys().elements(), 
+            this.conceptNids.keys().elements(), (parentNid) -> {
+         final int[] childNids = getChildNoFilter(parentNid);
+         int count = 0;
+         final int[] linkedChildNids = new int[childNids.length];
+         for (int childNid: childNids) {
+            if (Arrays.binarySearch(getParentNidsNoFilter(childNid), parentNid) >= 0) {
+               linkedChildNids[count++] = childNid;
+            }
+         }
+         return count == childNids.length ? childNids : Arrays.copyOf(linkedChildNids, count);
+      });
+      this.subsumptionIndex = index;
+      LOG.debug("Subsumption index of {} nodes, {} intervals, built in {} ms", index.size(), 
+            index.getIntervalCount(), System.currentTimeMillis() - start);
+   }
+
+   /**
+    * @return true if the reachability index is built
+    */
+   public final boolean hasSubsumptionIndex() {
+      return this.subsumptionIndex != null;
+   }
+
    /**
     * Gets the children nids.
     *
@@ -522,6 +737,10 @@ public class HashTreeWithIntArraySets
     */
    @Override
    public final NidSet getDescendentNidSet(int parentNid) {
+      final SubsumptionIndex index = this.subsumptionIndex;
+      if (index != null) {
+         return index.getDescendentNidSet(parentNid);
+      }
       final NidSet descendentNids = new NidSet();
       if (this.parentNid_ChildNidSetArray_Map.containsKey(parentNid)) {
          getDescendentsRecursive(parentNid, descendentNids);
@@ -536,6 +755,10 @@ public class HashTreeWithIntArraySets
     */
    @Override
    public final boolean isDescendentOf(int childNid, int parentNid) {
+      final SubsumptionIndex index = this.subsumptionIndex;
+      if (index != null) {
+         return index.isDescendentOf(childNid, parentNid);
+      }
       int[] parentNids = getParentNidsNoFilter(childNid);
 
       if (Arrays.binarySearch(parentNids, parentNid) >= 0) {
@@ -755,6 +978,7 @@ public class HashTreeWithIntArraySets
       if (Get.configurationService().isVerboseDebugEnabled() && (parent == TermAux.SOLOR_ROOT.getNid())) {
          LOG.debug("SOLOR root nid added to tree: " + TermAux.SOLOR_ROOT.getNid());
       }
+      this.subsumptionIndex = null;
       conceptNids.add(parent);
       conceptNids.add(child);
       conceptNidsWithParents.add(child);
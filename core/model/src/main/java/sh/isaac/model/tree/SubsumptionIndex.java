@@ -0,0 +1,247 @@
+/*
+ * Copyright 2019 Organizations participating in ISAAC, ISAAC's KOMET, and SOLOR development include the
+         US Veterans Health Administration, OSHERA, and the Health Services Platform Consortium..
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package sh.isaac.model.tree;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.function.IntFunction;
+import org.apache.mahout.math.list.IntArrayList;
+import org.apache.mahout.math.map.OpenIntIntHashMap;
+import sh.isaac.api.collections.NidSet;
+
+/**
+ * A precomputed reachability index for the nodes of a tree, using interval labels. Each node is numbered in the post
+ * order of a depth first traversal from the roots, and labeled with the sorted, merged intervals of post order numbers
+ * of itself and its descendents. In a tree each node has a single interval; for nodes of a directed acyclic graph
+ * with multiple parents, the descendents reached through a parent that is not the parent in the traversal add
+ * further intervals to the node, and its ancestors, unless the intervals are adjacent. 
+ *
+ * A descendent test is a binary search in the intervals of the parent, and the descendents of a node are the nodes
+ * numbered within its intervals. Edges that close a cycle are ignored. The index is immutable, and must be rebuilt
+ * when the tree changes. 
+ *
+ * @author kec
+ */
+public class SubsumptionIndex {
+    private static final int[] NO_CHILDREN = new int[0];
+
+    /**
+     * Post order number + 1 of each node, 0 is absent.
+     */
+    private final OpenIntIntHashMap nidToPostOrder = new OpenIntIntHashMap();
+
+    /**
+     * Node nid of each post order number.
+     */
+    private final int[] postOrderToNid;
+
+    /**
+     * Inclusive [start, end] pairs of post order numbers of the node and its descendents, by post order number.
+     */
+    private final int[][] postOrderToIntervals;
+
+    /**
+     * Build the index.
+     *
+     * @param rootNids the roots, traversed first
+     * @param nodeNids all nodes of the tree, nodes not reachable from a root (in a cycle) are traversed after the roots
+     * @param childNidsProvider provides the child nids of a node
+     */
+    public SubsumptionIndex(int[] rootNids, int[] nodeNids, IntFunction<int[]> childNidsProvider) {
+        final IntArrayList postOrderNids = new IntArrayList(nodeNids.length);
+        final ArrayList<int[]> postOrderIntervals = new ArrayList<>(nodeNids.length);
+        final OpenIntIntHashMap entered = new OpenIntIntHashMap(nodeNids.length);
+
+        for (int rootNid : rootNids) {
+            traverse(rootNid, childNidsProvider, entered, postOrderNids, postOrderIntervals);
+        }
+        for (int nodeNid : nodeNids) {
+            traverse(nodeNid, childNidsProvider, entered, postOrderNids, postOrderIntervals);
+        }
+        this.postOrderToNid = postOrderNids.elements().length == postOrderNids.size()
+                ? postOrderNids.elements() : Arrays.copyOf(postOrderNids.elements(), postOrderNids.size());
+        this.postOrderToIntervals = postOrderIntervals.toArray(new int[postOrderIntervals.size()][]);
+    }
+
+    /**
+     * Iterative depth first traversal from the start node, assigning post order numbers and intervals.
+     */
+    private void traverse(int startNid, IntFunction<int[]> childNidsProvider, OpenIntIntHashMap entered,
+            IntArrayList postOrderNids, ArrayList<int[]> postOrderIntervals) {
+        if (entered.containsKey(startNid)) {
+            return;
+        }
+        final IntArrayList nidStack = new IntArrayList();
+        final IntArrayList lowStack = new IntArrayList();
+        final IntArrayList childIndexStack = new IntArrayList();
+        final ArrayList<int[]> childrenStack = new ArrayList<>();
+
+        entered.put(startNid, 1);
+        nidStack.add(startNid);
+        lowStack.add(postOrderNids.size());
+        childIndexStack.add(0);
+        childrenStack.add(getChildren(childNidsProvider, startNid));
+
+        while (!nidStack.isEmpty()) {
+            final int top = nidStack.size() - 1;
+            final int[] children = childrenStack.get(top);
+            final int childIndex = childIndexStack.getQuick(top);
+
+            if (childIndex < children.length) {
+                childIndexStack.setQuick(top, childIndex + 1);
+                final int childNid = children[childIndex];
+                if (!entered.containsKey(childNid)) {
+                    entered.put(childNid, 1);
+                    nidStack.add(childNid);
+                    lowStack.add(postOrderNids.size());
+                    childIndexStack.add(0);
+                    childrenStack.add(getChildren(childNidsProvider, childNid));
+                }
+            } else {
+                final int nid = nidStack.getQuick(top);
+                final int postOrder = postOrderNids.size();
+
+                postOrderNids.add(nid);
+                this.nidToPostOrder.put(nid, postOrder + 1);
+                postOrderIntervals.add(mergeIntervals(lowStack.getQuick(top), postOrder, children, postOrderIntervals));
+                nidStack.remove(top);
+                lowStack.remove(top);
+                childIndexStack.remove(top);
+                childrenStack.remove(top);
+            }
+        }
+    }
+
+    private static int[] getChildren(IntFunction<int[]> childNidsProvider, int nid) {
+        final int[] children = childNidsProvider.apply(nid);
+        return children == null ? NO_CHILDREN : children;
+    }
+
+    /**
+     * Merge the interval of the node in the traversal with the intervals of all of its children. Children without a
+     * post order number are on the traversal stack, and close a cycle.
+     */
+    private int[] mergeIntervals(int low, int postOrder, int[] children, ArrayList<int[]> postOrderIntervals) {
+        int count = 1;
+        for (int childNid : children) {
+            final int childPostOrder = this.nidToPostOrder.get(childNid) - 1;
+            if (childPostOrder >= 0) {
+                count += postOrderIntervals.get(childPostOrder).length / 2;
+            }
+        }
+        final long[] intervals = new long[count];
+        int position = 0;
+        intervals[position++] = ((long) low << 32) | postOrder;
+        for (int childNid : children) {
+            final int childPostOrder = this.nidToPostOrder.get(childNid) - 1;
+            if (childPostOrder >= 0) {
+                final int[] childIntervals = postOrderIntervals.get(childPostOrder);
+                for (int i = 0; i < childIntervals.length; i += 2) {
+                    intervals[position++] = ((long) childIntervals[i] << 32) | childIntervals[i + 1];
+                }
+            }
+        }
+        Arrays.sort(intervals);
+
+        final IntArrayList merged = new IntArrayList(4);
+        int start = (int) (intervals[0] >>> 32);
+        int end = (int) intervals[0];
+        for (int i = 1; i < intervals.length; i++) {
+            final int nextStart = (int) (intervals[i] >>> 32);
+            final int nextEnd = (int) intervals[i];
+            if (nextStart <= end + 1) {
+                end = Math.max(end, nextEnd);
+            } else {
+                merged.add(start);
+                merged.add(end);
+                start = nextStart;
+                end = nextEnd;
+            }
+        }
+        merged.add(start);
+        merged.add(end);
+        merged.trimToSize();
+        return merged.elements();
+    }
+
+    /**
+     * @param childNid the child nid
+     * @param parentNid the parent nid
+     * @return true if the child is a descendent of the parent, and not the parent itself
+     */
+    public boolean isDescendentOf(int childNid, int parentNid) {
+        if (childNid == parentNid) {
+            return false;
+        }
+        final int childPostOrder = this.nidToPostOrder.get(childNid) - 1;
+        final int parentPostOrder = this.nidToPostOrder.get(parentNid) - 1;
+        if (childPostOrder < 0 || parentPostOrder < 0) {
+            return false;
+        }
+        final int[] intervals = this.postOrderToIntervals[parentPostOrder];
+        // binary search for the last interval starting at or before the child
+        int low = 0;
+        int high = intervals.length / 2 - 1;
+        while (low <= high) {
+            final int mid = (low + high) >>> 1;
+            if (intervals[mid * 2] <= childPostOrder) {
+                low = mid + 1;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return high >= 0 && intervals[high * 2 + 1] >= childPostOrder;
+    }
+
+    /**
+     * @param parentNid the parent nid
+     * @return the descendents of the parent, not including the parent
+     */
+    public NidSet getDescendentNidSet(int parentNid) {
+        final NidSet descendentNids = new NidSet();
+        final int parentPostOrder = this.nidToPostOrder.get(parentNid) - 1;
+        if (parentPostOrder < 0) {
+            return descendentNids;
+        }
+        final int[] intervals = this.postOrderToIntervals[parentPostOrder];
+        for (int i = 0; i < intervals.length; i += 2) {
+            for (int postOrder = intervals[i]; postOrder <= intervals[i + 1]; postOrder++) {
+                descendentNids.add(this.postOrderToNid[postOrder]);
+            }
+        }
+        descendentNids.remove(parentNid);
+        return descendentNids;
+    }
+
+    /**
+     * @return the number of nodes in the index
+     */
+    public int size() {
+        return this.postOrderToNid.length;
+    }
+
+    /**
+     * @return the total number of intervals, a measure of the size of the index
+     */
+    public long getIntervalCount() {
+        long intervalCount = 0;
+        for (int[] intervals : this.postOrderToIntervals) {
+            intervalCount += intervals.length / 2;
+        }
+        return intervalCount;
+    }
+}
@@ -0,0 +1,89 @@
+/*
+ * Copyright 2019 Organizations participating in ISAAC, ISAAC's KOMET, and SOLOR development include the
+         US Veterans Health Administration, OSHERA, and the Health Services Platform Consortium..
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package sh.isaac.model.collections;
+
+import java.util.HashMap;
+import java.util.Map;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests for {@link IntObjectMapOverlay}.
+ *
+ * @author kec
+ */
+public class IntObjectMapOverlayTest {
+
+    @Test
+    public void testCopyLeavesOriginalUnchanged() {
+        IntObjectMap<int[]> original = new IntObjectMapImpl<>();
+        original.put(-1, new int[] {-2});
+        original.put(-2, new int[] {-3});
+
+        IntObjectMap<int[]> copy = IntObjectMapOverlay.copyOf(original, IntObjectMapImpl::new);
+        Assert.assertArrayEquals(new int[] {-2}, copy.get(-1));
+        Assert.assertFalse(copy.put(-1, new int[] {-3}));
+        Assert.assertTrue(copy.put(-4, new int[] {-1}));
+        Assert.assertArrayEquals(new int[] {-3}, copy.getAndSet(-2, new int[] {-1}));
+        Assert.assertArrayEquals(new int[] {-2, -1}, copy.accumulateAndGet(-2, new int[] {-2}, MergeIntArray::merge));
+        Assert.assertArrayEquals(new int[] {-5}, copy.accumulateAndGet(-5, new int[] {-5}, MergeIntArray::merge));
+
+        Assert.assertEquals(4, copy.size());
+        Map<Integer, int[]> entries = entries(copy);
+        Assert.assertEquals(4, entries.size());
+        Assert.assertArrayEquals(new int[] {-3}, entries.get(-1));
+        Assert.assertArrayEquals(new int[] {-2, -1}, entries.get(-2));
+        Assert.assertArrayEquals(new int[] {-1}, entries.get(-4));
+
+        Assert.assertEquals(2, original.size());
+        Assert.assertArrayEquals(new int[] {-2}, original.get(-1));
+        Assert.assertArrayEquals(new int[] {-3}, original.get(-2));
+        Assert.assertFalse(original.containsKey(-4));
+    }
+
+    @Test
+    public void testCopiesOfCopies() {
+        IntObjectMap<int[]> original = new IntObjectMapImpl<>();
+        for (int key = 1; key <= 100; key++) {
+            original.put(key, new int[] {key});
+        }
+        IntObjectMap<int[]> previous = original;
+        for (int change = 1; change <= 200; change++) {
+            IntObjectMap<int[]> copy = IntObjectMapOverlay.copyOf(previous, IntObjectMapImpl::new);
+            copy.put(change, new int[] {-change});
+            // The previous copy is not changed by its copy
+            if (change > 1) {
+                Assert.assertArrayEquals(new int[] {-(change - 1)}, previous.get(change - 1));
+            }
+            Assert.assertArrayEquals(change > 100 ? null : new int[] {change}, previous.get(change));
+            previous = copy;
+        }
+        Assert.assertEquals(200, previous.size());
+        Map<Integer, int[]> entries = entries(previous);
+        for (int key = 1; key <= 200; key++) {
+            Assert.assertArrayEquals(new int[] {-key}, entries.get(key));
+        }
+        Assert.assertArrayEquals(new int[] {1}, original.get(1));
+        Assert.assertEquals(100, original.size());
+    }
+
+    private static Map<Integer, int[]> entries(IntObjectMap<int[]> map) {
+        Map<Integer, int[]> entries = new HashMap<>();
+        map.forEach((int key, int[] value) -> Assert.assertNull(entries.put(key, value)));
+        return entries;
+    }
+}
@@ -0,0 +1,113 @@
+/*
+ * Copyright 2019 Organizations participating in ISAAC, ISAAC's KOMET, and SOLOR development include the
+         US Veterans Health Administration, OSHERA, and the Health Services Platform Consortium..
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package sh.isaac.model.tree;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import org.junit.Assert;
+import org.junit.Test;
+import sh.isaac.api.collections.NidSet;
+
+/**
+ * Tests for {@link SubsumptionIndex}.
+ * 
+ * @author kec
+ */
+public class SubsumptionIndexTest {
+
+    @Test
+    public void testDiamond() {
+        // 1 -> 2, 1 -> 3, 2 -> 4, 3 -> 4, 4 -> 5
+        Map<Integer, int[]> children = new HashMap<>();
+        children.put(1, new int[] {2, 3});
+        children.put(2, new int[] {4});
+        children.put(3, new int[] {4});
+        children.put(4, new int[] {5});
+        SubsumptionIndex index = new SubsumptionIndex(new int[] {1}, new int[] {1, 2, 3, 4, 5}, children::get);
+
+        Assert.assertTrue(index.isDescendentOf(5, 1));
+        Assert.assertTrue(index.isDescendentOf(5, 3));
+        Assert.assertTrue(index.isDescendentOf(4, 2));
+        Assert.assertTrue(index.isDescendentOf(4, 3));
+        Assert.assertFalse(index.isDescendentOf(3, 2));
+        Assert.assertFalse(index.isDescendentOf(1, 5));
+        Assert.assertFalse(index.isDescendentOf(4, 4));
+        Assert.assertFalse(index.isDescendentOf(6, 1));
+        Assert.assertEquals(NidSet.of(new int[] {4, 5}), index.getDescendentNidSet(3));
+        Assert.assertEquals(NidSet.of(new int[] {2, 3, 4, 5}), index.getDescendentNidSet(1));
+        Assert.assertTrue(index.getDescendentNidSet(5).isEmpty());
+    }
+
+    @Test
+    public void testCycleIgnored() {
+        // 1 -> 2 -> 3 -> 2
+        Map<Integer, int[]> children = new HashMap<>();
+        children.put(1, new int[] {2});
+        children.put(2, new int[] {3});
+        children.put(3, new int[] {2});
+        SubsumptionIndex index = new SubsumptionIndex(new int[] {1}, new int[] {1, 2, 3}, children::get);
+
+        Assert.assertTrue(index.isDescendentOf(3, 1));
+        Assert.assertTrue(index.isDescendentOf(3, 2));
+        Assert.assertEquals(3, index.size());
+    }
+
+    @Test
+    public void testRandomDagMatchesTraversal() {
+        Random random = new Random(42);
+        int nodeCount = 400;
+        Map<Integer, int[]> children = new HashMap<>();
+        int[] nodes = new int[nodeCount];
+        for (int node = 0; node < nodeCount; node++) {
+            nodes[node] = node - nodeCount;  // negative, like nids
+        }
+        for (int node = 1; node < nodeCount; node++) {
+            // each node has 1 to 3 parents with a lower index, so the graph is acyclic
+            int parentCount = 1 + random.nextInt(3);
+            for (int i = 0; i < parentCount; i++) {
+                int parent = nodes[random.nextInt(node)];
+                int[] parentChildren = children.getOrDefault(parent, new int[0]);
+                int[] newChildren = java.util.Arrays.copyOf(parentChildren, parentChildren.length + 1);
+                newChildren[parentChildren.length] = nodes[node];
+                children.put(parent, newChildren);
+            }
+        }
+        SubsumptionIndex index = new SubsumptionIndex(new int[] {nodes[0]}, nodes, children::get);
+
+        for (int parent : nodes) {
+            Set<Integer> expected = new HashSet<>();
+            collectDescendents(parent, children, expected);
+            NidSet descendents = index.getDescendentNidSet(parent);
+            Assert.assertEquals(expected.size(), descendents.size());
+            for (int child : nodes) {
+                Assert.assertEquals(expected.contains(child), index.isDescendentOf(child, parent));
+                Assert.assertEquals(expected.contains(child), descendents.contains(child));
+            }
+        }
+    }
+
+    private static void collectDescendents(int parent, Map<Integer, int[]> children, Set<Integer> descendents) {
+        for (int child : children.getOrDefault(parent, new int[0])) {
+            if (descendents.add(child)) {
+                collectDescendents(child, children, descendents);
+            }
+        }
+    }
+}
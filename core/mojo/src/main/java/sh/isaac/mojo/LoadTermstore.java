@@ -44,8 +44,10 @@ import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.channels.FileChannel;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
@@ -57,11 +59,14 @@ import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentSkipListSet;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Future;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
 import org.apache.maven.plugin.AbstractMojo;
 import org.apache.maven.plugin.MojoExecutionException;
 import org.apache.maven.plugins.annotations.LifecyclePhase;
@@ -96,6 +101,7 @@ import sh.isaac.api.logic.NodeSemantic;
 import sh.isaac.api.logic.assertions.Assertion;
 import sh.isaac.model.configuration.StampCoordinates;
 import sh.isaac.model.datastream.BinaryDatastreamReader;
+import sh.isaac.model.datastream.IbdfBlockIndex;
 import sh.isaac.model.logic.node.AbstractLogicNode;
 import sh.isaac.model.logic.node.AndNode;
 import sh.isaac.model.logic.node.external.ConceptNodeWithUuids;
@@ -238,7 +244,7 @@ public class LoadTermstore extends AbstractMojo
 
 	private boolean setDBBuildMode = true;
 
-	private int itemCount;
+	private final AtomicInteger itemCount = new AtomicInteger();
 
 	private InputStream[] inputIBDFStreams;
 
@@ -358,8 +364,21 @@ public class LoadTermstore extends AbstractMojo
 			{
 				getLog().info("Loading termstore from " + f + (this.activeOnly ? " active items only" : ""));
 				FileHandler fh = new FileHandler(f.toString());
-				final BinaryDatastreamReader reader = new BinaryDatastreamReader(item -> fh.process(item), f);
-				Get.executor().submit(reader).get();
+				if (!this.activeOnly && hasBlockIndex(f))
+				{
+					// The blocks of an IBDF v2 file are parsed and processed in parallel, in no order.  Stamp aliases and comments
+					// name their stamps by uuid, so need not be read before the chronologies.
+					try (Stream<IsaacExternalizable> stream = Get.binaryDataReader(f).getParallelStream())
+					{
+						stream.forEach(item -> fh.process(item));
+					}
+				}
+				else
+				{
+					// Active only loads skip the semantics of skipped components, so need the components read first, in file order
+					final BinaryDatastreamReader reader = new BinaryDatastreamReader(item -> fh.process(item), f);
+					Get.executor().submit(reader).get();
+				}
 				fh.summarize();
 			}
 
@@ -436,7 +455,7 @@ public class LoadTermstore extends AbstractMojo
 			Get.startIndexTask().get();
 
 		}
-		catch (final ExecutionException | InterruptedException | UnsupportedOperationException ex)
+		catch (final ExecutionException | InterruptedException | IOException | UnsupportedOperationException ex)
 		{
 			getLog().error("Loaded with exception");
 			throw new MojoExecutionException(ex.getLocalizedMessage(), ex);
@@ -445,10 +464,11 @@ public class LoadTermstore extends AbstractMojo
 
 	class FileHandler
 	{
-		private int conceptCount, semanticCount, stampAliasCount, stampCommentCount, itemFailure, mergeCount;
-		int duplicateCount = 0;
+		private final AtomicInteger conceptCount = new AtomicInteger(), semanticCount = new AtomicInteger(), stampAliasCount = new AtomicInteger(),
+				stampCommentCount = new AtomicInteger(), itemFailure = new AtomicInteger(), mergeCount = new AtomicInteger();
+		final AtomicInteger duplicateCount = new AtomicInteger();
 		final int statedNid = Get.identifierService().getNidForUuids(TermAux.EL_PLUS_PLUS_STATED_ASSEMBLAGE.getPrimordialUuid());
-		private final HashSet<Integer> skippedItems = new HashSet<>();
+		private final Set<Integer> skippedItems = ConcurrentHashMap.newKeySet();
 		String inputIdentifier;
 
 		protected FileHandler(String fileName)
@@ -460,7 +480,7 @@ public class LoadTermstore extends AbstractMojo
 		{
 			if (object != null)
 			{
-				LoadTermstore.this.itemCount++;
+				final int itemCount = LoadTermstore.this.itemCount.incrementAndGet();
 				try
 				{
 					if (null != object.getIsaacObjectType())
@@ -473,7 +493,7 @@ public class LoadTermstore extends AbstractMojo
 									try
 									{
 										Get.conceptService().writeConcept(((ConceptChronology) object));
-										this.conceptCount++;
+										this.conceptCount.incrementAndGet();
 									}
 									catch (Exception e)
 									{
@@ -593,7 +613,7 @@ public class LoadTermstore extends AbstractMojo
 	
 												NecessarySet(And(assertions));
 												byte[][] data = leb.build().getData(DataTarget.INTERNAL);
-												mergeCount++;
+												mergeCount.incrementAndGet();
 	
 												int stampSequence = Get.stampService().getStampSequence(Status.ACTIVE, System.currentTimeMillis(),
 														TermAux.USER.getNid(), TermAux.SOLOR_MODULE.getNid(), TermAux.DEVELOPMENT_PATH.getNid());
@@ -606,11 +626,11 @@ public class LoadTermstore extends AbstractMojo
 												//don't merge non-metadata graphs.  Builders of IBDF files should have their own file built properly.
 												//But, if there is more than one nid, that means we have multiple stated graphs (not multiple versions of a single
 												//graph - thats an error
-												if (duplicateCount < duplicatesToPrint)
+												if (duplicateCount.get() < duplicatesToPrint)
 												{
 													getLog().warn("Multiple active stated graphs found for concept.  Not merging.  New graph: " + sc);
 												}
-												duplicateCount++;
+												duplicateCount.incrementAndGet();
 											}
 										}
 									}
@@ -627,7 +647,7 @@ public class LoadTermstore extends AbstractMojo
 											deferredActionNids.add(sc.getNid());
 										}
 
-										this.semanticCount++;
+										this.semanticCount.incrementAndGet();
 									}
 									catch (Exception e)
 									{
@@ -644,12 +664,12 @@ public class LoadTermstore extends AbstractMojo
 
 							case STAMP_ALIAS:
 								Get.commitService().addAlias(((StampAlias) object).getStampSequence(), ((StampAlias) object).getStampAlias(), null);
-								this.stampAliasCount++;
+								this.stampAliasCount.incrementAndGet();
 								break;
 
 							case STAMP_COMMENT:
 								Get.commitService().setComment(((StampComment) object).getStampSequence(), ((StampComment) object).getComment());
-								this.stampCommentCount++;
+								this.stampCommentCount.incrementAndGet();
 								break;
 
 							default :
@@ -659,7 +679,7 @@ public class LoadTermstore extends AbstractMojo
 				}
 				catch (final UnsupportedOperationException e)
 				{
-					this.itemFailure++;
+					this.itemFailure.incrementAndGet();
 					getLog().error("Failure at " + this.conceptCount + " concepts, " + this.semanticCount + " semantics, " + this.stampAliasCount
 							+ " stampAlias, " + this.stampCommentCount + " stampComments", e);
 
@@ -683,9 +703,9 @@ public class LoadTermstore extends AbstractMojo
 					}
 				}
 
-				if (LoadTermstore.this.itemCount % 50000 == 0)
+				if (itemCount % 50000 == 0)
 				{
-					getLog().info("Read " + LoadTermstore.this.itemCount + " entries, " + "Loaded " + this.conceptCount + " concepts, " + this.semanticCount
+					getLog().info("Read " + itemCount + " entries, " + "Loaded " + this.conceptCount + " concepts, " + this.semanticCount
 							+ " semantics, " + this.stampAliasCount + " stampAlias, " + this.stampCommentCount + " stampComment");
 				}
 			}
@@ -701,13 +721,13 @@ public class LoadTermstore extends AbstractMojo
 			getLog().info("Loaded " + this.conceptCount + " concepts, " + this.semanticCount + " semantics, " + this.stampAliasCount + " stampAlias, "
 					+ stampCommentCount + " stampComments, " + mergeCount + " merged semantics"
 					+ (skippedItems.size() > 0 ? ", skipped for inactive " + skippedItems.size() : "")
-					+ ((duplicateCount > 0) ? " Duplicates " + duplicateCount : "") + ((this.itemFailure > 0) ? " Failures " + this.itemFailure : "") + " from "
+					+ ((duplicateCount.get() > 0) ? " Duplicates " + duplicateCount : "") + ((this.itemFailure.get() > 0) ? " Failures " + this.itemFailure : "") + " from "
 					+ inputIdentifier);
 			getLog().info("running item count: " + LoadTermstore.this.itemCount);
-			this.conceptCount = 0;
-			this.semanticCount = 0;
-			this.stampAliasCount = 0;
-			this.stampCommentCount = 0;
+			this.conceptCount.set(0);
+			this.semanticCount.set(0);
+			this.stampAliasCount.set(0);
+			this.stampCommentCount.set(0);
 			this.skippedItems.clear();
 		}
 	}
@@ -739,6 +759,21 @@ public class LoadTermstore extends AbstractMojo
 		return skippedAny;
 	}
 
+	/**
+	 * Checks if a file is an IBDF v2 file, which ends with the index of its blocks.
+	 *
+	 * @param file the file
+	 * @return true, if the file has a block index
+	 * @throws IOException if the file cannot be read
+	 */
+	private static boolean hasBlockIndex(Path file) throws IOException
+	{
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ))
+		{
+			return IbdfBlockIndex.read(channel).isPresent();
+		}
+	}
+
 	/**
 	 * Checks if active.
 	 *
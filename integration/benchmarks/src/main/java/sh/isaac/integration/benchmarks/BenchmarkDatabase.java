@@ -0,0 +1,57 @@
+/*
+ * Copyright 2019 Organizations participating in ISAAC, ISAAC's KOMET, and SOLOR development include the
+         US Veterans Health Administration, OSHERA, and the Health Services Platform Consortium..
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package sh.isaac.integration.benchmarks;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import sh.isaac.api.Get;
+import sh.isaac.api.LookupService;
+import sh.isaac.api.constants.DatabaseImplementation;
+import sh.isaac.api.constants.DatabaseInitialization;
+
+/**
+ * Starts and stops the database the benchmarks run against.
+ *
+ * The database is the system metadata, in a {@link DatabaseImplementation#FILESYSTEM} store, in the folder given by
+ * the {@link #DB_PROPERTY} system property. The first start loads the metadata, and later starts, such as those of
+ * other benchmark forks, reuse the folder. Delete the folder to start over.
+ *
+ * @author kec
+ */
+public class BenchmarkDatabase {
+
+    public static final String DB_PROPERTY = "benchmarks.db";
+
+    private static final Logger LOG = LogManager.getLogger();
+
+    //~--- methods -------------------------------------------------------------
+    public static void start() {
+        Path dbFolder = Paths.get(System.getProperty(DB_PROPERTY, "target/benchmark-db"));
+        LOG.info("Starting benchmark database in {}", dbFolder.toAbsolutePath());
+        Get.configurationService().setDataStoreFolderPath(dbFolder);
+        Get.configurationService().setDatabaseImplementation(DatabaseImplementation.FILESYSTEM);
+        Get.configurationService().setDatabaseInitializationMode(DatabaseInitialization.LOAD_METADATA);
+        LookupService.startupPreferenceProvider();
+        LookupService.startupIsaac();
+    }
+
+    public static void stop() {
+        LookupService.shutdownSystem();
+    }
+}
@@ -0,0 +1,55 @@
+/*
+ * Copyright 2019 Organizations participating in ISAAC, ISAAC's KOMET, and SOLOR development include the
+         US Veterans Health Administration, OSHERA, and the Health Services Platform Consortium..
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package sh.isaac.integration.benchmarks;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the benchmarks, and writes the results as JSON, so they can be compared between builds.
+ *
+ * The benchmarks to run, the number of forks, and the result file are read from the {@code benchmarks.include},
+ * {@code benchmarks.forks} and {@code benchmarks.result} system properties, which the benchmarks pom passes from
+ * the properties of the same name.
+ *
+ * @author kec
+ */
+public class BenchmarkRunner {
+
+    private static final Logger LOG = LogManager.getLogger();
+
+    //~--- methods -------------------------------------------------------------
+    public static void main(String[] args) throws RunnerException {
+        String result = System.getProperty("benchmarks.result", "target/jmh-result.json");
+        Options options = new OptionsBuilder()
+                .include(System.getProperty("benchmarks.include", BenchmarkRunner.class.getPackage().getName()))
+                .forks(Integer.getInteger("benchmarks.forks", 2))
+                .jvmArgsAppend("-D" + BenchmarkDatabase.DB_PROPERTY + "="
+                        + System.getProperty(BenchmarkDatabase.DB_PROPERTY, "target/benchmark-db"),
+                        "-Djava.awt.headless=true")
+                .resultFormat(ResultFormatType.JSON)
+                .result(result)
+                .build();
+        new Runner(options).run();
+        LOG.info("Benchmark results written to {}", result);
+    }
+}
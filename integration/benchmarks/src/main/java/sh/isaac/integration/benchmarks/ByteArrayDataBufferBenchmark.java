@@ -0,0 +1,178 @@
+/*
+ * Copyright 2019 Organizations participating in ISAAC, ISAAC's KOMET, and SOLOR development include the
+         US Veterans Health Administration, OSHERA, and the Health Services Platform Consortium..
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package sh.isaac.integration.benchmarks;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import sh.isaac.api.externalizable.ByteArrayDataBuffer;
+
+/**
+ * Writing and reading the primitives of a {@link ByteArrayDataBuffer}, {@link #VALUE_COUNT} values per invocation.
+ * These do not need the database.
+ *
+ * @author kec
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class ByteArrayDataBufferBenchmark {
+
+    private static final int VALUE_COUNT = 1024;
+
+    //~--- fields --------------------------------------------------------------
+    private final ByteArrayDataBuffer buffer = new ByteArrayDataBuffer(VALUE_COUNT * 64);
+    private final int[] intArray = new int[16];
+    private final UUID[] uuids = new UUID[VALUE_COUNT];
+    private final String[] strings = new String[VALUE_COUNT];
+    private byte[] intData;
+    private byte[] longData;
+    private byte[] uuidData;
+    private byte[] utfData;
+
+    //~--- methods -------------------------------------------------------------
+    @Setup
+    public void setup() {
+        for (int i = 0; i < intArray.length; i++) {
+            intArray[i] = i * 31;
+        }
+        for (int i = 0; i < VALUE_COUNT; i++) {
+            uuids[i] = UUID.randomUUID();
+            strings[i] = "Description text number " + i + " \u00e9";
+        }
+        putInts();
+        intData = buffer.getData().clone();
+        putLongs();
+        longData = buffer.getData().clone();
+        putUuids();
+        uuidData = buffer.getData().clone();
+        putUTF();
+        utfData = buffer.getData().clone();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(VALUE_COUNT)
+    public ByteArrayDataBuffer putInts() {
+        buffer.clear();
+        for (int i = 0; i < VALUE_COUNT; i++) {
+            buffer.putInt(i);
+        }
+        return buffer;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(VALUE_COUNT)
+    public int getInts() {
+        ByteArrayDataBuffer reader = new ByteArrayDataBuffer(intData);
+        int sum = 0;
+        for (int i = 0; i < VALUE_COUNT; i++) {
+            sum += reader.getInt();
+        }
+        return sum;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(VALUE_COUNT)
+    public ByteArrayDataBuffer putLongs() {
+        buffer.clear();
+        for (int i = 0; i < VALUE_COUNT; i++) {
+            buffer.putLong(i * 0x1_0000_0001L);
+        }
+        return buffer;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(VALUE_COUNT)
+    public long getLongs() {
+        ByteArrayDataBuffer reader = new ByteArrayDataBuffer(longData);
+        long sum = 0;
+        for (int i = 0; i < VALUE_COUNT; i++) {
+            sum += reader.getLong();
+        }
+        return sum;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(VALUE_COUNT)
+    public ByteArrayDataBuffer putUuids() {
+        buffer.clear();
+        for (UUID uuid : uuids) {
+            buffer.putUuid(uuid);
+        }
+        return buffer;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(VALUE_COUNT)
+    public void getUuids(Blackhole blackhole) {
+        ByteArrayDataBuffer reader = new ByteArrayDataBuffer(uuidData);
+        for (int i = 0; i < VALUE_COUNT; i++) {
+            blackhole.consume(reader.getUuid());
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(VALUE_COUNT)
+    public ByteArrayDataBuffer putUTF() {
+        buffer.clear();
+        for (String string : strings) {
+            buffer.putUTF(string);
+        }
+        return buffer;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(VALUE_COUNT)
+    public void getUTF(Blackhole blackhole) {
+        ByteArrayDataBuffer reader = new ByteArrayDataBuffer(utfData);
+        for (int i = 0; i < VALUE_COUNT; i++) {
+            blackhole.consume(reader.getUTF());
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(VALUE_COUNT)
+    public ByteArrayDataBuffer putIntArrays() {
+        buffer.clear();
+        for (int i = 0; i < VALUE_COUNT; i++) {
+            buffer.putIntArray(intArray);
+        }
+        return buffer;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(VALUE_COUNT)
+    public ByteArrayDataBuffer putIntsGrowing() {
+        ByteArrayDataBuffer growing = new ByteArrayDataBuffer(16);
+        for (int i = 0; i < VALUE_COUNT; i++) {
+            growing.putInt(i);
+        }
+        return growing;
+    }
+}
@@ -0,0 +1,87 @@
+/*
+ * Copyright 2019 Organizations participating in ISAAC, ISAAC's KOMET, and SOLOR development include the
+         US Veterans Health Administration, OSHERA, and the Health Services Platform Consortium..
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package sh.isaac.integration.benchmarks;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import sh.isaac.api.Get;
+import sh.isaac.api.chronicle.Chronology;
+import sh.isaac.api.chronicle.Version;
+import sh.isaac.api.constants.SystemPropertyConstants;
+
+/**
+ * Reads of concept and semantic chronologies through the identified object service, with and without the chronology
+ * data cache, where the stamps of a chronology are decoded when it is read, and its versions only when they are
+ * requested.
+ *
+ * @author kec
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class ChronologyBenchmark {
+
+    /**
+     * The maximum number of chronologies held by the chronology data cache, where 0 disables the cache.
+     */
+    @Param({"0", "100000"})
+    public long chronologyCacheSize;
+
+    //~--- fields --------------------------------------------------------------
+    private int[] nids;
+    private int next = 0;
+
+    //~--- methods -------------------------------------------------------------
+    @Setup
+    public void setup() {
+        System.setProperty(SystemPropertyConstants.CHRONOLOGY_CACHE_SIZE, Long.toString(chronologyCacheSize));
+        BenchmarkDatabase.start();
+        nids = IntStream.concat(Get.conceptService().getConceptNidStream(), Get.assemblageService().getSemanticNidStream())
+                .toArray();
+    }
+
+    @TearDown
+    public void tearDown() {
+        BenchmarkDatabase.stop();
+        System.clearProperty(SystemPropertyConstants.CHRONOLOGY_CACHE_SIZE);
+    }
+
+    @Benchmark
+    public Optional<? extends Chronology> getChronology() {
+        return Get.identifiedObjectService().getChronology(nids[next++ % nids.length]);
+    }
+
+    @Benchmark
+    public List<? extends Version> getChronologyVersions() {
+        return Get.identifiedObjectService().getChronology(nids[next++ % nids.length]).get().getVersionList();
+    }
+}
@@ -0,0 +1,87 @@
+/*
+ * Copyright 2019 Organizations participating in ISAAC, ISAAC's KOMET, and SOLOR development include the
+         US Veterans Health Administration, OSHERA, and the Health Services Platform Consortium..
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package sh.isaac.integration.benchmarks;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import sh.isaac.api.Get;
+import sh.isaac.api.datastore.DataStore;
+import sh.isaac.api.externalizable.ByteArrayDataBuffer;
+import sh.isaac.model.ModelGet;
+
+/**
+ * Reads of the version data of concept and semantic chronologies from the datastore, one nid at a time, and in
+ * batches of {@link #BATCH_SIZE} nids.
+ *
+ * @author kec
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class DataStoreBenchmark {
+
+    private static final int BATCH_SIZE = 256;
+
+    //~--- fields --------------------------------------------------------------
+    private DataStore dataStore;
+    private int[] nids;
+    private int next = 0;
+
+    //~--- methods -------------------------------------------------------------
+    @Setup
+    public void setup() {
+        BenchmarkDatabase.start();
+        dataStore = ModelGet.dataStore();
+        nids = IntStream.concat(Get.conceptService().getConceptNidStream(), Get.assemblageService().getSemanticNidStream())
+                .toArray();
+    }
+
+    @TearDown
+    public void tearDown() {
+        BenchmarkDatabase.stop();
+    }
+
+    @Benchmark
+    public Optional<ByteArrayDataBuffer> getChronologyVersionData() {
+        return dataStore.getChronologyVersionData(nids[next++ % nids.length]);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public void getChronologyVersionDataBatch(Blackhole blackhole) {
+        int[] batch = new int[BATCH_SIZE];
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            batch[i] = nids[next++ % nids.length];
+        }
+        dataStore.getChronologyVersionData(batch, (data, nid) -> blackhole.consume(data));
+    }
+}
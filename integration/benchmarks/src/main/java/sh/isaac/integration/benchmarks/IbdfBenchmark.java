@@ -0,0 +1,102 @@
+/*
+ * Copyright 2019 Organizations participating in ISAAC, ISAAC's KOMET, and SOLOR development include the
+         US Veterans Health Administration, OSHERA, and the Health Services Platform Consortium..
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package sh.isaac.integration.benchmarks;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import sh.isaac.api.Get;
+import sh.isaac.api.externalizable.BinaryDataReaderService;
+import sh.isaac.api.externalizable.DataWriterService;
+import sh.isaac.api.externalizable.IsaacExternalizable;
+
+/**
+ * Writing and reading an IBDF file of every concept and semantic chronology in the database.
+ *
+ * @author kec
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+public class IbdfBenchmark {
+
+    //~--- fields --------------------------------------------------------------
+    private List<IsaacExternalizable> chronologies;
+    private Path readFile;
+    private Path writeFile;
+
+    //~--- methods -------------------------------------------------------------
+    @Setup
+    public void setup() throws IOException {
+        BenchmarkDatabase.start();
+        chronologies = Stream.concat(Get.conceptService().getConceptChronologyStream(),
+                Get.assemblageService().getSemanticChronologyStream())
+                .collect(Collectors.toList());
+        readFile = Files.createTempFile("benchmark-read", ".ibdf");
+        writeFile = Files.createTempFile("benchmark-write", ".ibdf");
+        write(readFile);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(readFile);
+        Files.deleteIfExists(writeFile);
+        BenchmarkDatabase.stop();
+    }
+
+    private void write(Path file) throws IOException {
+        try (DataWriterService writer = Get.binaryDataWriter(file)) {
+            chronologies.forEach(writer::put);
+        }
+    }
+
+    @Benchmark
+    public void write() throws IOException {
+        write(writeFile);
+    }
+
+    @Benchmark
+    public void read(Blackhole blackhole) throws Exception {
+        try (BinaryDataReaderService reader = Get.binaryDataReader(readFile)) {
+            reader.getStream().forEach(blackhole::consume);
+        }
+    }
+
+    @Benchmark
+    public void readParallel(Blackhole blackhole) throws Exception {
+        try (BinaryDataReaderService reader = Get.binaryDataReader(readFile)) {
+            reader.getParallelStream().forEach(blackhole::consume);
+        }
+    }
+}
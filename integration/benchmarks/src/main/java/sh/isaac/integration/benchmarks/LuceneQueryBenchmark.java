@@ -0,0 +1,79 @@
+/*
+ * Copyright 2019 Organizations participating in ISAAC, ISAAC's KOMET, and SOLOR development include the
+         US Veterans Health Administration, OSHERA, and the Health Services Platform Consortium..
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package sh.isaac.integration.benchmarks;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import sh.isaac.api.LookupService;
+import sh.isaac.api.index.SearchResult;
+import sh.isaac.provider.query.lucene.indexers.DescriptionIndexer;
+
+/**
+ * Description index searches, for a term and a prefix, of the first page of results.
+ *
+ * @author kec
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class LuceneQueryBenchmark {
+
+    @Param({"description", "concept"})
+    public String term;
+
+    @Param({"10", "100"})
+    public int sizeLimit;
+
+    //~--- fields --------------------------------------------------------------
+    private DescriptionIndexer descriptionIndexer;
+
+    //~--- methods -------------------------------------------------------------
+    @Setup
+    public void setup() {
+        BenchmarkDatabase.start();
+        descriptionIndexer = LookupService.get().getService(DescriptionIndexer.class);
+        descriptionIndexer.forceMerge();
+    }
+
+    @TearDown
+    public void tearDown() {
+        BenchmarkDatabase.stop();
+    }
+
+    @Benchmark
+    public List<SearchResult> query() {
+        return descriptionIndexer.query(term, sizeLimit);
+    }
+
+    @Benchmark
+    public List<SearchResult> prefixQuery() {
+        return descriptionIndexer.query(term.substring(0, 4), true, null, null, null, sizeLimit, null);
+    }
+}
@@ -0,0 +1,113 @@
+/*
+ * Copyright 2019 Organizations participating in ISAAC, ISAAC's KOMET, and SOLOR development include the
+         US Veterans Health Administration, OSHERA, and the Health Services Platform Consortium..
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package sh.isaac.integration.benchmarks;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import sh.isaac.api.Get;
+import sh.isaac.api.LookupService;
+import sh.isaac.api.bootstrap.TermAux;
+import sh.isaac.api.collections.NidSet;
+import sh.isaac.api.component.concept.ConceptSpecification;
+import sh.isaac.api.query.Clause;
+import sh.isaac.api.query.LetItemKey;
+import sh.isaac.api.query.Query;
+import sh.isaac.provider.query.lucene.indexers.DescriptionIndexer;
+
+/**
+ * Computation of queries over the database: the concepts which are a kind of metadata, and the English descriptions
+ * which match a term.
+ *
+ * @author kec
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class QueryBenchmark {
+
+    //~--- fields --------------------------------------------------------------
+    private Query kindOfQuery;
+    private Query descriptionMatchQuery;
+
+    //~--- methods -------------------------------------------------------------
+    @Setup
+    public void setup() {
+        BenchmarkDatabase.start();
+        LookupService.get().getService(DescriptionIndexer.class).forceMerge();
+
+        LetItemKey metadataKey = new LetItemKey("metadata");
+        LetItemKey textKey = new LetItemKey("text");
+
+        kindOfQuery = new Query(TermAux.SOLOR_CONCEPT_ASSEMBLAGE) {
+            @Override
+            public void Let() {
+                let(metadataKey, TermAux.SOLOR_METADATA);
+                let(DEFAULT_MANIFOLD_COORDINATE_KEY, Get.coordinateFactory().createDefaultStatedManifoldCoordinate());
+            }
+
+            @Override
+            public Clause Where() {
+                Clause kindOf = ConceptIsKindOf(metadataKey);
+                kindOf.setAssemblageForIteration(TermAux.SOLOR_CONCEPT_ASSEMBLAGE);
+                return kindOf;
+            }
+        };
+        descriptionMatchQuery = new Query(TermAux.ENGLISH_LANGUAGE) {
+            @Override
+            public void Let() {
+                let(textKey, "assemblage");
+                let(DEFAULT_MANIFOLD_COORDINATE_KEY, Get.coordinateFactory().createDefaultStatedManifoldCoordinate());
+            }
+
+            @Override
+            public Clause Where() {
+                Clause descriptionMatch = DescriptionLuceneMatch(textKey);
+                descriptionMatch.setAssemblageForIteration(TermAux.ENGLISH_LANGUAGE);
+                return descriptionMatch;
+            }
+        };
+        kindOfQuery.Let();
+        descriptionMatchQuery.Let();
+    }
+
+    @TearDown
+    public void tearDown() {
+        BenchmarkDatabase.stop();
+    }
+
+    @Benchmark
+    public Map<ConceptSpecification, NidSet> kindOf() {
+        return kindOfQuery.compute();
+    }
+
+    @Benchmark
+    public Map<ConceptSpecification, NidSet> descriptionMatch() {
+        return descriptionMatchQuery.compute();
+    }
+}
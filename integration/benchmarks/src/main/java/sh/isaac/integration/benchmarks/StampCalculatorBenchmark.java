@@ -0,0 +1,79 @@
+/*
+ * Copyright 2019 Organizations participating in ISAAC, ISAAC's KOMET, and SOLOR development include the
+         US Veterans Health Administration, OSHERA, and the Health Services Platform Consortium..
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package sh.isaac.integration.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import sh.isaac.api.Get;
+import sh.isaac.api.chronicle.Chronology;
+import sh.isaac.api.snapshot.calculator.RelativePositionCalculator;
+import sh.isaac.model.configuration.StampCoordinates;
+
+/**
+ * Computation of the latest stamps of a chronology, for the version stamps of each concept and semantic in the
+ * database in turn.
+ *
+ * @author kec
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class StampCalculatorBenchmark {
+
+    @Param({"developmentLatest", "developmentLatestActiveOnly"})
+    public String coordinate;
+
+    //~--- fields --------------------------------------------------------------
+    private RelativePositionCalculator calculator;
+    private int[][] stampSequences;
+    private int next = 0;
+
+    //~--- methods -------------------------------------------------------------
+    @Setup
+    public void setup() {
+        BenchmarkDatabase.start();
+        calculator = RelativePositionCalculator.getCalculator("developmentLatest".equals(coordinate)
+                ? StampCoordinates.getDevelopmentLatest() : StampCoordinates.getDevelopmentLatestActiveOnly());
+        stampSequences = Stream.concat(Get.conceptService().getConceptChronologyStream(),
+                Get.assemblageService().getSemanticChronologyStream())
+                .map(Chronology::getVersionStampSequences)
+                .toArray(int[][]::new);
+    }
+
+    @TearDown
+    public void tearDown() {
+        BenchmarkDatabase.stop();
+    }
+
+    @Benchmark
+    public int[] getLatestStampSequencesAsSet() {
+        return calculator.getLatestStampSequencesAsSet(stampSequences[next++ % stampSequences.length]);
+    }
+}
@@ -0,0 +1,85 @@
+/*
+ * Copyright 2019 Organizations participating in ISAAC, ISAAC's KOMET, and SOLOR development include the
+         US Veterans Health Administration, OSHERA, and the Health Services Platform Consortium..
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package sh.isaac.integration.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import sh.isaac.api.Get;
+import sh.isaac.api.TaxonomySnapshot;
+import sh.isaac.api.bootstrap.TermAux;
+import sh.isaac.api.coordinate.ManifoldCoordinate;
+
+/**
+ * Taxonomy queries of the stated taxonomy, for each concept in the database in turn, against a snapshot backed by a
+ * tree, and against one which computes each answer directly.
+ *
+ * The tree of the tree backed snapshot is computed in the background, and is complete well within the warmup.
+ *
+ * @author kec
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class TaxonomyBenchmark {
+
+    @Param({"tree", "noTree"})
+    public String snapshotType;
+
+    //~--- fields --------------------------------------------------------------
+    private TaxonomySnapshot snapshot;
+    private int[] conceptNids;
+    private int metadataNid;
+    private int next = 0;
+
+    //~--- methods -------------------------------------------------------------
+    @Setup
+    public void setup() {
+        BenchmarkDatabase.start();
+        ManifoldCoordinate manifold = Get.coordinateFactory().createDefaultStatedManifoldCoordinate();
+        snapshot = "tree".equals(snapshotType) ? Get.taxonomyService().getSnapshot(manifold)
+                : Get.taxonomyService().getSnapshotNoTree(manifold);
+        conceptNids = Get.conceptService().getConceptNidStream().toArray();
+        metadataNid = TermAux.SOLOR_METADATA.getNid();
+    }
+
+    @TearDown
+    public void tearDown() {
+        BenchmarkDatabase.stop();
+    }
+
+    @Benchmark
+    public boolean isKindOf() {
+        return snapshot.isKindOf(conceptNids[next++ % conceptNids.length], metadataNid);
+    }
+
+    @Benchmark
+    public int[] getTaxonomyChildConceptNids() {
+        return snapshot.getTaxonomyChildConceptNids(conceptNids[next++ % conceptNids.length]);
+    }
+}
@@ -0,0 +1,252 @@
+package sh.isaac.integration.tests.suite1;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentMap;
+import java.util.stream.Stream;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.jvnet.testing.hk2testng.HK2;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import sh.isaac.MetaData;
+import sh.isaac.api.ChangeSetLoadService;
+import sh.isaac.api.Get;
+import sh.isaac.api.LookupService;
+import sh.isaac.api.Status;
+import sh.isaac.api.chronicle.Version;
+import sh.isaac.api.chronicle.VersionType;
+import sh.isaac.api.commit.CommitService;
+import sh.isaac.api.component.semantic.SemanticChronology;
+import sh.isaac.api.component.semantic.version.DescriptionVersion;
+import sh.isaac.api.coordinate.EditCoordinate;
+import sh.isaac.api.externalizable.DataWriterService;
+import sh.isaac.api.externalizable.IsaacExternalizable;
+import sh.isaac.api.externalizable.StampComment;
+import sh.isaac.api.metacontent.MetaContentService;
+import sh.isaac.api.util.RecursiveDelete;
+import sh.isaac.model.semantic.SemanticChronologyImpl;
+import sh.isaac.model.semantic.version.DescriptionVersionImpl;
+
+
+/**
+ *
+ * {@link ChangeSetReplayTest}
+ *
+ * Puts change set files with overlapping copies of the same chronologies in the change set folder, and replays them
+ * with the {@link ChangeSetLoadService}, as if they arrived from another system.
+ *
+ * @author kec
+ */
+@HK2("integration")
+@Test(suiteName="suite1")
+public class ChangeSetReplayTest {
+	private static final Logger LOG = LogManager.getLogger();
+
+	/**
+	 * The versions of each description in each change set file, by the index of the description and of its versions.
+	 */
+	private static final int[][][] FILE_VERSIONS = {
+			{ { 1, 2 }, {} },
+			{ { 2, 3 }, {} },
+			{ { 1, 3 }, { 1 } },
+			{ {}, { 1, 2 } } };
+
+
+	@Test(groups = { "changeSetReplay" }, dependsOnGroups = { "load" })
+	public void testReplayMatchesSequentialImport() throws Exception {
+		LOG.info("Testing change set replay against a sequential import");
+		File directory = Files.createTempDirectory("changesets").toFile();
+		List<Path> replayed = new ArrayList<>();
+		try {
+			int[] stamps = stamps(1);
+			UUID[] replayUuids = { UUID.randomUUID(), UUID.randomUUID() };
+			UUID[] sequentialUuids = { UUID.randomUUID(), UUID.randomUUID() };
+
+			replayed.addAll(placeChangeSets(write(new File(directory, "replay").toPath(), replayUuids, stamps)));
+			Assert.assertEquals(changeSetLoader().readChangesetFiles(), FILE_VERSIONS.length);
+
+			// As change sets were imported before they were replayed in batches: each object of each file, one at a time
+			CommitService commitService = Get.commitService();
+			for (Path file : write(new File(directory, "sequential").toPath(), sequentialUuids, stamps)) {
+				try (Stream<IsaacExternalizable> stream = Get.binaryDataReader(file).getStream()) {
+					stream.forEach(commitService::importNoChecks);
+				}
+			}
+			commitService.postProcessImportNoChecks();
+
+			for (int description = 0; description < replayUuids.length; description++) {
+				List<String> versions = versions(replayUuids[description]);
+				Assert.assertEquals(versions, versions(sequentialUuids[description]));
+				Assert.assertEquals(versions.size(), description == 0 ? 3 : 2, versions.toString());
+			}
+		} finally {
+			removeChangeSets(replayed);
+			RecursiveDelete.delete(directory);
+		}
+	}
+
+	@Test(groups = { "changeSetReplay" }, dependsOnGroups = { "load" })
+	public void testResumeAfterBatchNotCheckpointed() throws Exception {
+		LOG.info("Testing change set replay of a batch that was not checkpointed");
+		File directory = Files.createTempDirectory("changesets").toFile();
+		List<Path> replayed = new ArrayList<>();
+		try {
+			UUID[] uuids = { UUID.randomUUID(), UUID.randomUUID() };
+			replayed.addAll(placeChangeSets(write(directory.toPath(), uuids, stamps(2))));
+			Assert.assertEquals(changeSetLoader().readChangesetFiles(), FILE_VERSIONS.length);
+			List<String> firstVersions = versions(uuids[0]);
+			List<String> secondVersions = versions(uuids[1]);
+
+			// The batch was written, but the replay stopped before its files were checkpointed
+			ConcurrentMap<String, Boolean> processedChangesets = LookupService.getService(MetaContentService.class).getChangesetStore();
+			for (Path file : replayed) {
+				Assert.assertTrue(processedChangesets.containsKey(file.getFileName().toString()));
+				processedChangesets.remove(file.getFileName().toString());
+			}
+
+			// The batch is replayed again, without duplicating the versions written the first time
+			Assert.assertEquals(changeSetLoader().readChangesetFiles(), FILE_VERSIONS.length);
+			Assert.assertEquals(versions(uuids[0]), firstVersions);
+			Assert.assertEquals(versions(uuids[1]), secondVersions);
+			for (Path file : replayed) {
+				Assert.assertTrue(processedChangesets.containsKey(file.getFileName().toString()));
+			}
+
+			// Once checkpointed, it is not replayed again
+			Assert.assertEquals(changeSetLoader().readChangesetFiles(), 0);
+		} finally {
+			removeChangeSets(replayed);
+			RecursiveDelete.delete(directory);
+		}
+	}
+
+	@Test(groups = { "changeSetReplay" }, dependsOnGroups = { "load" })
+	public void testStampCommentsInFileOrder() throws Exception {
+		LOG.info("Testing the order of replayed stamp comments");
+		File directory = Files.createTempDirectory("changesets").toFile();
+		List<Path> replayed = new ArrayList<>();
+		try {
+			int stamp = stamps(3)[1];
+			UUID uuid = UUID.randomUUID();
+			List<Path> files = new ArrayList<>();
+			for (int file = 0; file < 3; file++) {
+				Path path = directory.toPath().resolve("comments-" + uuid + "-" + file + ".ibdf");
+				DataWriterService writer = Get.binaryDataWriter(path);
+				try {
+					writer.put(new StampComment("changesetreplay comment " + (file * 2), stamp));
+					writer.put(new StampComment("changesetreplay comment " + (file * 2 + 1), stamp));
+				} finally {
+					writer.close();
+				}
+				files.add(path);
+			}
+			replayed.addAll(placeChangeSets(files));
+			Assert.assertEquals(changeSetLoader().readChangesetFiles(), files.size());
+
+			// The last comment written replaces the others
+			Assert.assertEquals(Get.commitService().getComment(stamp).get(), "changesetreplay comment 5");
+		} finally {
+			removeChangeSets(replayed);
+			RecursiveDelete.delete(directory);
+		}
+	}
+
+	private static ChangeSetLoadService changeSetLoader() {
+		return LookupService.getService(ChangeSetLoadService.class);
+	}
+
+	private static Path changeSetFolder() {
+		return Get.configurationService().getDataStoreFolderPath().resolve("changesets");
+	}
+
+	/**
+	 * @return the committed stamps of versions 1 to 3, at times that differ for each test
+	 */
+	private static int[] stamps(int test) {
+		EditCoordinate ec = Get.configurationService().getGlobalDatastoreConfiguration().getDefaultEditCoordinate();
+		int[] stamps = new int[4];
+		for (int version = 1; version < stamps.length; version++) {
+			stamps[version] = Get.stampService().getStampSequence(Status.ACTIVE, 1_600_000_000_000L + test * 100 + version,
+					ec.getAuthorNid(), ec.getModuleNid(), ec.getPathNid());
+		}
+		return stamps;
+	}
+
+	/**
+	 * Write the change set files of {@link #FILE_VERSIONS}, with the descriptions of the uuids.
+	 */
+	private static List<Path> write(Path folder, UUID[] uuids, int[] stamps) throws Exception {
+		Files.createDirectories(folder);
+		List<Path> files = new ArrayList<>();
+		for (int file = 0; file < FILE_VERSIONS.length; file++) {
+			Path path = folder.resolve("replay-" + uuids[0] + "-" + file + ".ibdf");
+			DataWriterService writer = Get.binaryDataWriter(path);
+			try {
+				for (int description = 0; description < uuids.length; description++) {
+					if (FILE_VERSIONS[file][description].length > 0) {
+						writer.put(description(uuids[description], FILE_VERSIONS[file][description], stamps));
+					}
+				}
+			} finally {
+				writer.close();
+			}
+			files.add(path);
+		}
+		return files;
+	}
+
+	private static SemanticChronologyImpl description(UUID uuid, int[] versions, int[] stamps) {
+		SemanticChronologyImpl description = new SemanticChronologyImpl(VersionType.DESCRIPTION, uuid,
+				MetaData.ENGLISH_LANGUAGE____SOLOR.getNid(), MetaData.ACTION_PURPOSE____SOLOR.getNid());
+		for (int version : versions) {
+			DescriptionVersionImpl descriptionVersion = description.createMutableVersion(stamps[version]);
+			descriptionVersion.setCaseSignificanceConceptNid(MetaData.DESCRIPTION_NOT_CASE_SENSITIVE____SOLOR.getNid());
+			descriptionVersion.setLanguageConceptNid(MetaData.ENGLISH_LANGUAGE____SOLOR.getNid());
+			descriptionVersion.setDescriptionTypeConceptNid(MetaData.REGULAR_NAME_DESCRIPTION_TYPE____SOLOR.getNid());
+			descriptionVersion.setText("changesetreplay " + version);
+		}
+		return description;
+	}
+
+	/**
+	 * Copy the files to the change set folder, as files that arrive from another system, which are not processed yet.
+	 * The writer recorded them as processed, as it does the change sets it writes.
+	 */
+	private static List<Path> placeChangeSets(List<Path> files) throws Exception {
+		ConcurrentMap<String, Boolean> processedChangesets = LookupService.getService(MetaContentService.class).getChangesetStore();
+		List<Path> placed = new ArrayList<>();
+		for (Path file : files) {
+			placed.add(Files.copy(file, changeSetFolder().resolve(file.getFileName())));
+			processedChangesets.remove(file.getFileName().toString());
+		}
+		return placed;
+	}
+
+	private static void removeChangeSets(List<Path> files) throws Exception {
+		ConcurrentMap<String, Boolean> processedChangesets = LookupService.getService(MetaContentService.class).getChangesetStore();
+		for (Path file : files) {
+			Files.deleteIfExists(file);
+			processedChangesets.remove(file.getFileName().toString());
+		}
+	}
+
+	/**
+	 * @return the stamp and text of each version of the description, in stamp order
+	 */
+	private static List<String> versions(UUID uuid) {
+		SemanticChronology description = Get.assemblageService().getSemanticChronology(Get.identifierService().getNidForUuids(uuid));
+		List<String> versions = new ArrayList<>();
+		for (Version version : description.getVersionList()) {
+			versions.add(version.getStampSequence() + " " + ((DescriptionVersion) version).getText());
+		}
+		Collections.sort(versions);
+		return versions;
+	}
+}
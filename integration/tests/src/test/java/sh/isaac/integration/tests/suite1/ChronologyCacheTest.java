@@ -0,0 +1,59 @@
+package sh.isaac.integration.tests.suite1;
+
+import java.lang.management.ManagementFactory;
+import javax.management.ObjectName;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.jvnet.testing.hk2testng.HK2;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import sh.isaac.MetaData;
+import sh.isaac.api.Get;
+import sh.isaac.api.Status;
+import sh.isaac.api.component.concept.ConceptChronology;
+import sh.isaac.api.coordinate.EditCoordinate;
+
+
+/**
+ * 
+ * {@link ChronologyCacheTest}
+ * 
+ * Reads chronologies through the chronology data cache, which {@link Suite1Management} enables for the suite.
+ *
+ * @author kec
+ */
+@HK2("integration")
+@Test(suiteName="suite1")
+public class ChronologyCacheTest {
+	private static final Logger LOG = LogManager.getLogger();
+
+
+	@Test(groups = { "chronologyCache" }, dependsOnGroups = { "load" })
+	public void testUncommittedVersionIsNotShared() throws Exception {
+		LOG.info("Testing isolation of chronologies read through the cache");
+		Assert.assertTrue(ManagementFactory.getPlatformMBeanServer().isRegistered(new ObjectName("sh.isaac:type=ChronologyCache")));
+		
+		EditCoordinate editCoordinate = Get.configurationService().getGlobalDatastoreConfiguration().getDefaultEditCoordinate();
+		int nid = MetaData.FEATURE____SOLOR.getNid();
+		ConceptChronology holder = Get.conceptService().getConceptChronology(nid);
+		ConceptChronology other = Get.conceptService().getConceptChronology(nid);
+		Assert.assertNotSame(holder, other);
+		int versions = other.getVersionList().size();
+		
+		try {
+			holder.createMutableVersion(Status.INACTIVE, editCoordinate);
+			Assert.assertEquals(holder.getVersionList().size(), versions + 1);
+			Assert.assertTrue(holder.isUncommitted());
+			
+			Assert.assertEquals(other.getVersionList().size(), versions);
+			Assert.assertFalse(other.isUncommitted());
+			ConceptChronology reread = Get.conceptService().getConceptChronology(nid);
+			Assert.assertEquals(reread.getVersionList().size(), versions);
+			Assert.assertFalse(reread.isUncommitted());
+		} finally {
+			Get.commitService().cancel(holder, editCoordinate).get();
+		}
+		Assert.assertEquals(Get.conceptService().getConceptChronology(nid).getVersionList().size(), versions);
+	}
+}
@@ -0,0 +1,209 @@
+package sh.isaac.integration.tests.suite1;
+
+import java.io.File;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.jvnet.testing.hk2testng.HK2;
+import org.testng.Assert;
+import org.testng.SkipException;
+import org.testng.annotations.Test;
+
+import sh.isaac.api.Get;
+import sh.isaac.api.chronicle.Chronology;
+import sh.isaac.api.constants.SystemPropertyConstants;
+import sh.isaac.api.externalizable.DataWriterService;
+import sh.isaac.api.externalizable.IsaacExternalizable;
+import sh.isaac.api.util.RecursiveDelete;
+import sh.isaac.model.datastream.IbdfBlockIndex;
+
+
+/**
+ *
+ * {@link IbdfBlockIndexTest}
+ *
+ * Writes IBDF files with and without the block index of IBDF v2, appends to them, and reads them back
+ * sequentially and in parallel.
+ *
+ * @author kec
+ */
+@HK2("integration")
+@Test(suiteName="suite1")
+public class IbdfBlockIndexTest {
+	private static final Logger LOG = LogManager.getLogger();
+
+
+	@Test(groups = { "ibdf" }, dependsOnGroups = { "load" })
+	public void testTrailerRoundTrip() throws Exception {
+		LOG.info("Testing IBDF v2 round trip");
+		File directory = Files.createTempDirectory("ibdf").toFile();
+		try {
+			Path file = new File(directory, "v2.ibdf").toPath();
+			// The metadata is less than one block
+			List<String> written = write(file, 3);
+
+			IbdfBlockIndex blockIndex = readBlockIndex(file).get();
+			Assert.assertTrue(blockIndex.getBlockCount() > 1, "Only " + blockIndex.getBlockCount() + " blocks");
+			Assert.assertEquals(Files.size(file), trailedLength(blockIndex));
+			Assert.assertEquals(readSequential(file), written);
+			Assert.assertEquals(readParallel(file), written);
+		} finally {
+			RecursiveDelete.delete(directory);
+		}
+	}
+
+	@Test(groups = { "ibdf" }, dependsOnGroups = { "load" })
+	public void testAppendTruncatesTrailer() throws Exception {
+		LOG.info("Testing IBDF v2 append");
+		File directory = Files.createTempDirectory("ibdf").toFile();
+		try {
+			Path file = new File(directory, "v2.ibdf").toPath();
+			List<String> written = write(file);
+			IbdfBlockIndex firstBlockIndex = readBlockIndex(file).get();
+			written.addAll(write(file));
+
+			// The trailer of the first write is replaced by the records of the second, and one trailer follows them
+			IbdfBlockIndex blockIndex = readBlockIndex(file).get();
+			Assert.assertTrue(blockIndex.getBlockCount() > firstBlockIndex.getBlockCount());
+			for (int block = 0; block < firstBlockIndex.getBlockCount(); block++) {
+				Assert.assertEquals(blockIndex.getBlockStart(block), firstBlockIndex.getBlockStart(block));
+			}
+			Assert.assertEquals(Files.size(file), trailedLength(blockIndex));
+			Assert.assertEquals(readSequential(file), written);
+			Assert.assertEquals(readParallel(file), written);
+		} finally {
+			RecursiveDelete.delete(directory);
+		}
+	}
+
+	@Test(groups = { "ibdf" }, dependsOnGroups = { "load" })
+	public void testV1Fallback() throws Exception {
+		LOG.info("Testing IBDF v1 files");
+		File directory = Files.createTempDirectory("ibdf").toFile();
+		System.setProperty(SystemPropertyConstants.IBDF_BLOCK_INDEX, "false");
+		try {
+			Path file = new File(directory, "v1.ibdf").toPath();
+			List<String> written = write(file);
+			Assert.assertFalse(readBlockIndex(file).isPresent());
+			Assert.assertEquals(readSequential(file), written);
+			Assert.assertEquals(readParallel(file), written);
+
+			// An append to a v1 file leaves it in v1, even when block indexes are written
+			System.clearProperty(SystemPropertyConstants.IBDF_BLOCK_INDEX);
+			written.addAll(write(file));
+			Assert.assertFalse(readBlockIndex(file).isPresent());
+			Assert.assertEquals(readSequential(file), written);
+			Assert.assertEquals(readParallel(file), written);
+
+			// An append to a v2 file while v1 files are written removes the trailer
+			Path v2File = new File(directory, "v2.ibdf").toPath();
+			List<String> v2Written = write(v2File);
+			Assert.assertTrue(readBlockIndex(v2File).isPresent());
+			System.setProperty(SystemPropertyConstants.IBDF_BLOCK_INDEX, "false");
+			v2Written.addAll(write(v2File));
+			Assert.assertFalse(readBlockIndex(v2File).isPresent());
+			Assert.assertEquals(readParallel(v2File), v2Written);
+		} finally {
+			System.clearProperty(SystemPropertyConstants.IBDF_BLOCK_INDEX);
+			RecursiveDelete.delete(directory);
+		}
+	}
+
+	@Test(groups = { "ibdf" }, dependsOnGroups = { "load" })
+	public void testPartialReadClosesFile() throws Exception {
+		LOG.info("Testing a partial read of an IBDF v2 file");
+		File directory = Files.createTempDirectory("ibdf").toFile();
+		try {
+			Path file = new File(directory, "v2.ibdf").toPath();
+			List<String> written = write(file);
+			try (Stream<IsaacExternalizable> stream = Get.binaryDataReader(file).getParallelStream()) {
+				Assert.assertEquals(stream.limit(10).map(IbdfBlockIndexTest::key).collect(Collectors.toList()), written.subList(0, 10));
+				Assert.assertEquals(openDescriptors(file), 1);
+			}
+			// Closing the stream closes the file, although not every record was read
+			Assert.assertEquals(openDescriptors(file), 0);
+		} finally {
+			RecursiveDelete.delete(directory);
+		}
+	}
+
+	private static List<String> write(Path file) throws Exception {
+		return write(file, 1);
+	}
+
+	private static List<String> write(Path file, int copies) throws Exception {
+		DataWriterService writer = Get.binaryDataWriter(file);
+		List<String> written = new ArrayList<>();
+		try {
+			for (int copy = 0; copy < copies; copy++) {
+				try (Stream<IsaacExternalizable> stream = Get.isaacExternalizableStream().sequential()) {
+					written.addAll(stream.map(externalizable -> {
+						writer.put(externalizable);
+						return key(externalizable);
+					}).collect(Collectors.toList()));
+				}
+			}
+		} finally {
+			writer.close();
+		}
+		return written;
+	}
+
+	private static List<String> readSequential(Path file) throws Exception {
+		try (Stream<IsaacExternalizable> stream = Get.binaryDataReader(file).getStream()) {
+			return stream.map(IbdfBlockIndexTest::key).collect(Collectors.toList());
+		}
+	}
+
+	private static List<String> readParallel(Path file) throws Exception {
+		try (Stream<IsaacExternalizable> stream = Get.binaryDataReader(file).getParallelStream()) {
+			return stream.map(IbdfBlockIndexTest::key).collect(Collectors.toList());
+		}
+	}
+
+	private static Optional<IbdfBlockIndex> readBlockIndex(Path file) throws Exception {
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+			return IbdfBlockIndex.read(channel);
+		}
+	}
+
+	private static long openDescriptors(Path file) throws Exception {
+		Path descriptors = Paths.get("/proc/self/fd");
+		if (!Files.isDirectory(descriptors)) {
+			throw new SkipException("The open files of the process can't be listed");
+		}
+		Path realFile = file.toRealPath();
+		try (Stream<Path> stream = Files.list(descriptors)) {
+			return stream.filter(descriptor -> {
+				try {
+					return Files.readSymbolicLink(descriptor).equals(realFile);
+				} catch (Exception ex) {
+					// closed while listing
+					return false;
+				}
+			}).count();
+		}
+	}
+
+	private static long trailedLength(IbdfBlockIndex blockIndex) {
+		// [int END_OF_RECORDS][long offset]... [int block count][long data length][int magic]
+		return blockIndex.getDataLength() + 4 + blockIndex.getBlockCount() * 8L + 4 + 8 + 4;
+	}
+
+	private static String key(IsaacExternalizable externalizable) {
+		if (externalizable instanceof Chronology) {
+			Chronology chronology = (Chronology) externalizable;
+			return chronology.getIsaacObjectType() + " " + chronology.getPrimordialUuid() + " " + chronology.getVersionList().size();
+		}
+		return externalizable.getIsaacObjectType() + " " + externalizable;
+	}
+}
@@ -0,0 +1,121 @@
+package sh.isaac.integration.tests.suite1;
+
+import static sh.isaac.api.logic.LogicalExpressionBuilder.And;
+import static sh.isaac.api.logic.LogicalExpressionBuilder.ConceptAssertion;
+import static sh.isaac.api.logic.LogicalExpressionBuilder.NecessarySet;
+import java.util.concurrent.ExecutionException;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.jvnet.testing.hk2testng.HK2;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+import javafx.concurrent.Task;
+import sh.isaac.MetaData;
+import sh.isaac.api.Get;
+import sh.isaac.api.LookupService;
+import sh.isaac.api.bootstrap.TermAux;
+import sh.isaac.api.classifier.ClassifierResults;
+import sh.isaac.api.commit.ChangeCheckerMode;
+import sh.isaac.api.component.concept.ConceptBuilder;
+import sh.isaac.api.coordinate.EditCoordinate;
+import sh.isaac.api.coordinate.LogicCoordinate;
+import sh.isaac.api.coordinate.StampCoordinate;
+import sh.isaac.api.logic.LogicalExpressionBuilder;
+import sh.isaac.api.logic.LogicalExpressionBuilderService;
+import sh.isaac.utility.Frills;
+
+/**
+ * 
+ * {@link IncrementalClassifyTest}
+ * 
+ * Classifications that reuse the reasoner state retained for their coordinates.
+ *
+ * @author kec
+ */
+@HK2("integration")
+@Test(suiteName="suite1")
+public class IncrementalClassifyTest {
+	private static final Logger LOG = LogManager.getLogger();
+	private static final String INCREMENTAL_EXTRACT = "Extract axioms (incremental)";
+
+	private final StampCoordinate stampCoordinate = Get.coordinateFactory().createDevelopmentLatestStampCoordinate();
+	private final LogicCoordinate logicCoordinate = Get.coordinateFactory().createStandardElProfileLogicCoordinate();
+	private final EditCoordinate classifierEditCoordinate = Get.coordinateFactory().createClassifierSolorOverlayEditCoordinate();
+
+	@Test(groups = { "incrementalClassify" }, dependsOnGroups = { "load" })
+	public void testAddedDefinitionIsClassifiedIncrementally() throws InterruptedException, ExecutionException {
+		LOG.info("Testing incremental classification of an added definition");
+		classify(this.stampCoordinate);
+
+		int parentNid = MetaData.DESCRIPTION_TYPE_IN_SOURCE_TERMINOLOGY____SOLOR.getNid();
+		int conceptNid = createConcept("incremental classify child", parentNid);
+
+		ClassifierResults results = classify(this.stampCoordinate);
+		Assert.assertTrue(results.getPhaseDurations().containsKey(INCREMENTAL_EXTRACT), results.getPhaseDurations().toString());
+		Assert.assertTrue(results.getAffectedConcepts().contains(conceptNid));
+		Assert.assertTrue(Frills.getLogicGraphChronology(conceptNid, false).isPresent());
+	}
+
+	@Test(groups = { "incrementalClassify" }, dependsOnMethods = { "testAddedDefinitionIsClassifiedIncrementally" })
+	public void testRetainedStateIsKeptPerCoordinate() throws InterruptedException, ExecutionException {
+		LOG.info("Testing retention of classifier data for each coordinate");
+		classify(this.stampCoordinate);
+
+		StampCoordinate activeOnly = Get.coordinateFactory().createDevelopmentLatestActiveOnlyStampCoordinate();
+		Assert.assertFalse(classify(activeOnly).getPhaseDurations().containsKey(INCREMENTAL_EXTRACT));
+
+		// A classification with other coordinates does not discard the state of the first coordinates.
+		Assert.assertTrue(classify(this.stampCoordinate).getPhaseDurations().containsKey(INCREMENTAL_EXTRACT));
+		Assert.assertTrue(classify(activeOnly).getPhaseDurations().containsKey(INCREMENTAL_EXTRACT));
+	}
+
+	@Test(groups = { "incrementalClassify" }, dependsOnMethods = { "testRetainedStateIsKeptPerCoordinate" })
+	public void testConcurrentClassifications() throws InterruptedException, ExecutionException {
+		LOG.info("Testing concurrent classifications with the same coordinates");
+		int parentNid = MetaData.DESCRIPTION_TYPE_IN_SOURCE_TERMINOLOGY____SOLOR.getNid();
+		int first = createConcept("concurrent classify child 1", parentNid);
+		Task<ClassifierResults> firstTask = Get.logicService()
+				.getClassifierService(this.stampCoordinate, this.logicCoordinate, this.classifierEditCoordinate).classify();
+		int second = createConcept("concurrent classify child 2", parentNid);
+		Task<ClassifierResults> secondTask = Get.logicService()
+				.getClassifierService(this.stampCoordinate, this.logicCoordinate, this.classifierEditCoordinate).classify();
+
+		firstTask.get();
+		secondTask.get();
+		
+		for (int conceptNid : new int[] { first, second }) {
+			Assert.assertTrue(Frills.getLogicGraphChronology(conceptNid, false).isPresent());
+		}
+	}
+
+	@Test(groups = { "incrementalClassify" }, dependsOnMethods = { "testConcurrentClassifications" })
+	public void testImportedDefinitionRequiresCompleteClassification() throws InterruptedException, ExecutionException {
+		LOG.info("Testing classification after a stated definition is written outside a commit");
+		classify(this.stampCoordinate);
+
+		// As an import writes it, without a commit
+		int parentNid = MetaData.DESCRIPTION_TYPE_IN_SOURCE_TERMINOLOGY____SOLOR.getNid();
+		Get.assemblageService().writeSemanticChronology(Frills.getLogicGraphChronology(parentNid, true).get());
+
+		Assert.assertFalse(classify(this.stampCoordinate).getPhaseDurations().containsKey(INCREMENTAL_EXTRACT));
+		Assert.assertTrue(classify(this.stampCoordinate).getPhaseDurations().containsKey(INCREMENTAL_EXTRACT));
+	}
+
+	private ClassifierResults classify(StampCoordinate stampCoordinate) throws InterruptedException, ExecutionException {
+		ClassifierResults results = Get.logicService()
+				.getClassifierService(stampCoordinate, this.logicCoordinate, this.classifierEditCoordinate).classify().get();
+		LOG.info("Classify results: " + results);
+		return results;
+	}
+
+	private int createConcept(String name, int parentNid) throws InterruptedException, ExecutionException {
+		EditCoordinate editCoordinate = Get.configurationService().getGlobalDatastoreConfiguration().getDefaultEditCoordinate();
+		ConceptBuilder cb = Get.conceptBuilderService().getDefaultConceptBuilder(name, null, null, TermAux.SOLOR_CONCEPT_ASSEMBLAGE.getNid());
+		LogicalExpressionBuilder defBuilder = LookupService.getService(LogicalExpressionBuilderService.class).getLogicalExpressionBuilder();
+		NecessarySet(And(ConceptAssertion(parentNid, defBuilder)));
+		cb.setLogicalExpression(defBuilder.build());
+		cb.build(editCoordinate, ChangeCheckerMode.ACTIVE);
+		Frills.commitCheck(Get.commitService().commit(editCoordinate, "created " + name));
+		return cb.getNid();
+	}
+}
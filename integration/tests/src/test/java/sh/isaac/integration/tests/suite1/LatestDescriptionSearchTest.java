@@ -0,0 +1,152 @@
+package sh.isaac.integration.tests.suite1;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.jvnet.testing.hk2testng.HK2;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import sh.isaac.MetaData;
+import sh.isaac.api.Get;
+import sh.isaac.api.Status;
+import sh.isaac.api.bootstrap.TermAux;
+import sh.isaac.api.commit.ChangeCheckerMode;
+import sh.isaac.api.commit.CommitRecord;
+import sh.isaac.api.component.semantic.SemanticChronology;
+import sh.isaac.api.component.semantic.version.MutableDescriptionVersion;
+import sh.isaac.api.coordinate.EditCoordinate;
+import sh.isaac.api.index.IndexDescriptionQueryService;
+import sh.isaac.api.index.IndexedGenerationCallable;
+import sh.isaac.api.index.SearchResult;
+import sh.isaac.model.coordinate.EditCoordinateImpl;
+
+
+/**
+ *
+ * {@link LatestDescriptionSearchTest}
+ *
+ * Searches the latest description documents, which are read a page at a time, and are replaced or removed as
+ * descriptions change.
+ *
+ * @author kec
+ */
+@HK2("integration")
+@Test(suiteName="suite1")
+public class LatestDescriptionSearchTest {
+	private static final Logger LOG = LogManager.getLogger();
+
+
+	@Test(groups = { "latestDescriptions" }, dependsOnGroups = { "load" })
+	public void testDeepPaging() throws Exception {
+		LOG.info("Testing deep paging of the latest description documents");
+		IndexDescriptionQueryService indexer = Get.indexDescriptionService();
+		List<Integer> all = nids(indexer.queryLatest("solor", false, null, null, null, false, false, null, null, 1, 10_000, Long.MAX_VALUE));
+		Assert.assertTrue(all.size() > 50, "Only " + all.size() + " matches");
+		// One document per description
+		Assert.assertEquals(new HashSet<>(all).size(), all.size());
+
+		final int pageSize = 7;
+		List<Integer> paged = new ArrayList<>();
+		for (int page = 1; ; page++) {
+			List<Integer> pageNids = nids(indexer.queryLatest("solor", false, null, null, null, false, false, null, null, page, pageSize, null));
+			paged.addAll(pageNids);
+			if (pageNids.size() < pageSize) {
+				break;
+			}
+		}
+		Assert.assertEquals(paged, all);
+
+		// An unlimited size, and pages larger than the 500 hits read at a time, return the same hits
+		Assert.assertEquals(nids(indexer.queryLatest("solor", false, null, null, null, false, false, null, null, 1, Integer.MAX_VALUE, null)), all);
+		final int largePageSize = 600;
+		Assert.assertTrue(all.size() > largePageSize, "Only " + all.size() + " matches");
+		List<Integer> largePaged = new ArrayList<>();
+		for (int page = 1; (page - 1) * largePageSize < all.size(); page++) {
+			largePaged.addAll(nids(indexer.queryLatest("solor", false, null, null, null, false, false, null, null, page, largePageSize, null)));
+		}
+		Assert.assertEquals(largePaged, all);
+
+		// A page past the last hit is empty, even one past the number of documents.
+		Assert.assertTrue(indexer.queryLatest("solor", false, null, null, null, false, false, null, null, all.size() + 1, 1, null).isEmpty());
+		Assert.assertTrue(indexer.queryLatest("solor", false, null, null, null, false, false, null, null, Integer.MAX_VALUE, 1000, null).isEmpty());
+	}
+
+	@Test(groups = { "latestDescriptions" }, dependsOnGroups = { "load" })
+	public void testLatestDocumentIsReplaced() throws Exception {
+		LOG.info("Testing replacement of the latest description document");
+		IndexDescriptionQueryService indexer = Get.indexDescriptionService();
+		EditCoordinate ec = Get.configurationService().getGlobalDatastoreConfiguration().getDefaultEditCoordinate();
+
+		SemanticChronology description = (SemanticChronology) Get.semanticBuilderService().getDescriptionBuilder(
+				MetaData.DESCRIPTION_NOT_CASE_SENSITIVE____SOLOR.getNid(), MetaData.ENGLISH_LANGUAGE____SOLOR.getNid(),
+				MetaData.REGULAR_NAME_DESCRIPTION_TYPE____SOLOR.getNid(), "latestsearchoriginal", MetaData.ACTION_PURPOSE____SOLOR.getNid())
+				.build(ec, ChangeCheckerMode.ACTIVE).get();
+		long generation = commit(description, ec, "add description");
+		Assert.assertEquals(latest(indexer, "latestsearchoriginal", false, generation), List.of(description.getNid()));
+
+		MutableDescriptionVersion changed = description.createMutableVersion(Status.ACTIVE, ec);
+		changed.setText("latestsearchchanged");
+		generation = commit(description, ec, "change description text");
+		Assert.assertTrue(latest(indexer, "latestsearchoriginal", false, generation).isEmpty());
+		Assert.assertEquals(latest(indexer, "latestsearchchanged", false, generation), List.of(description.getNid()));
+		// The search of all versions still matches the text of the earlier version
+		Assert.assertEquals(nids(indexer.query("latestsearchoriginal", false, null, null, null, false, (int[]) null, null, 1, 10, generation)),
+				List.of(description.getNid()));
+
+		MutableDescriptionVersion retired = description.createMutableVersion(Status.INACTIVE, ec);
+		retired.setText("latestsearchchanged");
+		generation = commit(description, ec, "retire description");
+		Assert.assertTrue(latest(indexer, "latestsearchchanged", true, generation).isEmpty());
+		Assert.assertEquals(latest(indexer, "latestsearchchanged", false, generation), List.of(description.getNid()));
+	}
+
+	@Test(groups = { "latestDescriptions" }, dependsOnGroups = { "load" })
+	public void testNoLatestDocumentWithoutLatestVersion() throws Exception {
+		LOG.info("Testing the latest description document of a description without a latest version");
+		IndexDescriptionQueryService indexer = Get.indexDescriptionService();
+		EditCoordinate ec = Get.configurationService().getGlobalDatastoreConfiguration().getDefaultEditCoordinate();
+		// Versions on the master path are not on the development path of the latest documents, so the update deletes the document
+		EditCoordinate masterEc = new EditCoordinateImpl(ec.getAuthorNid(), ec.getModuleNid(), TermAux.MASTER_PATH.getNid());
+
+		SemanticChronology description = (SemanticChronology) Get.semanticBuilderService().getDescriptionBuilder(
+				MetaData.DESCRIPTION_NOT_CASE_SENSITIVE____SOLOR.getNid(), MetaData.ENGLISH_LANGUAGE____SOLOR.getNid(),
+				MetaData.REGULAR_NAME_DESCRIPTION_TYPE____SOLOR.getNid(), "latestsearchmaster", MetaData.ACTION_PURPOSE____SOLOR.getNid())
+				.build(masterEc, ChangeCheckerMode.ACTIVE).get();
+		long generation = commit(description, masterEc, "add description on master");
+		Assert.assertFalse(description.getLatestVersion(indexer.getLatestDocumentCoordinate()).isPresent());
+		Assert.assertTrue(latest(indexer, "latestsearchmaster", false, generation).isEmpty());
+		Assert.assertEquals(nids(indexer.query("latestsearchmaster", false, null, null, null, false, (int[]) null, null, 1, 10, generation)),
+				List.of(description.getNid()));
+
+		// A version on the development path adds the latest document
+		MutableDescriptionVersion developed = description.createMutableVersion(Status.ACTIVE, ec);
+		developed.setText("latestsearchmaster");
+		generation = commit(description, ec, "add description on development");
+		Assert.assertEquals(latest(indexer, "latestsearchmaster", false, generation), List.of(description.getNid()));
+	}
+
+	private static long commit(SemanticChronology description, EditCoordinate ec, String comment) throws Exception {
+		// Registered before the commit, so it is released when the commit indexes the description
+		IndexedGenerationCallable indexed = Get.indexDescriptionService().getIndexedGenerationCallable(description.getNid());
+		Get.commitService().addUncommitted(description).get();
+		Optional<CommitRecord> cr = Get.commitService().commit(ec, comment).get();
+		Assert.assertTrue(cr.isPresent(), "commit failed");
+		return indexed.call();
+	}
+
+	private static List<Integer> latest(IndexDescriptionQueryService indexer, String text, boolean activeOnly, long generation) {
+		return nids(indexer.queryLatest(text, false, null, null, null, activeOnly, false, null, null, 1, 10, generation));
+	}
+
+	private static List<Integer> nids(List<SearchResult> results) {
+		List<Integer> nids = new ArrayList<>();
+		for (SearchResult result : results) {
+			nids.add(result.getNid());
+		}
+		return nids;
+	}
+}
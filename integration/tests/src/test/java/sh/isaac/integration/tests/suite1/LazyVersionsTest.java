@@ -0,0 +1,162 @@
+package sh.isaac.integration.tests.suite1;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.jvnet.testing.hk2testng.HK2;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import sh.isaac.MetaData;
+import sh.isaac.api.Get;
+import sh.isaac.api.Status;
+import sh.isaac.api.chronicle.Version;
+import sh.isaac.api.chronicle.VersionType;
+import sh.isaac.api.component.semantic.version.DescriptionVersion;
+import sh.isaac.api.coordinate.EditCoordinate;
+import sh.isaac.model.semantic.SemanticChronologyImpl;
+import sh.isaac.model.semantic.version.DescriptionVersionImpl;
+
+
+/**
+ *
+ * {@link LazyVersionsTest}
+ *
+ * Reads a stored chronology, whose committed versions are decoded as they are requested, and checks its versions and
+ * stamps before, after, and while its versions are decoded.
+ *
+ * @author kec
+ */
+@HK2("integration")
+@Test(suiteName="suite1")
+public class LazyVersionsTest {
+	private static final Logger LOG = LogManager.getLogger();
+	private static final int VERSIONS = 3;
+
+	private int nid;
+	private int[] stamps;
+
+	@Test(groups = { "lazyVersions" }, dependsOnGroups = { "load" })
+	public void testStampsBeforeVersionsAreDecoded() throws Exception {
+		LOG.info("Testing the stamps and versions of a chronology before its versions are decoded");
+		SemanticChronologyImpl description = read();
+		Assert.assertEquals(sorted(description.getVersionStampSequences()), sorted(stamps));
+
+		// One version is decoded by its stamp, without the others
+		DescriptionVersion second = description.<DescriptionVersion>getVersionForStamp(stamps[1]).get();
+		Assert.assertEquals(second.getText(), "lazy 2");
+		Assert.assertEquals(sorted(description.getVersionStampSequences()), sorted(stamps));
+
+		// The version list decodes all the versions, in the stored order, with the version already decoded
+		List<Version> versions = description.getVersionList();
+		Assert.assertEquals(versions.size(), VERSIONS);
+		for (int version = 0; version < VERSIONS; version++) {
+			Assert.assertEquals(versions.get(version).getStampSequence(), stamps[version]);
+			Assert.assertEquals(((DescriptionVersion) versions.get(version)).getText(), "lazy " + (version + 1));
+		}
+		Assert.assertSame(versions.get(1), second);
+		Assert.assertEquals(sorted(description.getVersionStampSequences()), sorted(stamps));
+	}
+
+	@Test(groups = { "lazyVersions" }, dependsOnGroups = { "load" })
+	public void testStampsWhileVersionsAreDecoded() throws Exception {
+		LOG.info("Testing the stamps of a chronology while its versions are decoded");
+		int readers = 3;
+		ExecutorService executor = Executors.newFixedThreadPool(readers + 1);
+		try {
+			for (int iteration = 0; iteration < 200; iteration++) {
+				SemanticChronologyImpl description = read();
+				CyclicBarrier start = new CyclicBarrier(readers + 1);
+				List<Future<?>> futures = new ArrayList<>();
+				futures.add(executor.submit(() -> {
+					start.await();
+					return description.getVersionList();
+				}));
+				for (int reader = 0; reader < readers; reader++) {
+					futures.add(executor.submit(() -> {
+						start.await();
+						for (int read = 0; read < 20; read++) {
+							Assert.assertEquals(sorted(description.getVersionStampSequences()), sorted(stamps));
+						}
+						return null;
+					}));
+				}
+				for (Future<?> future : futures) {
+					future.get();
+				}
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	@Test(groups = { "lazyVersions" }, dependsOnGroups = { "load" })
+	public void testAddVersionBeforeVersionsAreDecoded() throws Exception {
+		LOG.info("Testing a version added to a chronology before its versions are decoded");
+		SemanticChronologyImpl description = read();
+		int addedStamp = stamp(VERSIONS + 1);
+		version(description, addedStamp, VERSIONS + 1);
+
+		// The stored versions stay ahead of the version added
+		List<Version> versions = description.getVersionList();
+		Assert.assertEquals(versions.size(), VERSIONS + 1);
+		for (int version = 0; version < VERSIONS; version++) {
+			Assert.assertEquals(versions.get(version).getStampSequence(), stamps[version]);
+		}
+		Assert.assertEquals(versions.get(VERSIONS).getStampSequence(), addedStamp);
+		int[] expected = Arrays.copyOf(stamps, VERSIONS + 1);
+		expected[VERSIONS] = addedStamp;
+		Assert.assertEquals(sorted(description.getVersionStampSequences()), sorted(expected));
+
+		// The stored chronology is unchanged
+		Assert.assertEquals(sorted(read().getVersionStampSequences()), sorted(stamps));
+	}
+
+	/**
+	 * @return the stored description, read again, with none of its versions decoded
+	 */
+	private SemanticChronologyImpl read() {
+		if (stamps == null) {
+			stamps = new int[VERSIONS];
+			SemanticChronologyImpl description = new SemanticChronologyImpl(VersionType.DESCRIPTION, UUID.randomUUID(),
+					MetaData.ENGLISH_LANGUAGE____SOLOR.getNid(), MetaData.ACTION_PURPOSE____SOLOR.getNid());
+			for (int version = 0; version < VERSIONS; version++) {
+				stamps[version] = stamp(version + 1);
+				version(description, stamps[version], version + 1);
+			}
+			Get.commitService().importNoChecks(description);
+			nid = description.getNid();
+		}
+		return (SemanticChronologyImpl) Get.assemblageService().getSemanticChronology(nid);
+	}
+
+	/**
+	 * @return a committed stamp, at a time that orders it after the stamps of lower versions
+	 */
+	private static int stamp(int version) {
+		EditCoordinate ec = Get.configurationService().getGlobalDatastoreConfiguration().getDefaultEditCoordinate();
+		return Get.stampService().getStampSequence(Status.ACTIVE, 1_600_000_001_000L + version, ec.getAuthorNid(),
+				ec.getModuleNid(), ec.getPathNid());
+	}
+
+	private static void version(SemanticChronologyImpl description, int stamp, int version) {
+		DescriptionVersionImpl descriptionVersion = description.createMutableVersion(stamp);
+		descriptionVersion.setCaseSignificanceConceptNid(MetaData.DESCRIPTION_NOT_CASE_SENSITIVE____SOLOR.getNid());
+		descriptionVersion.setLanguageConceptNid(MetaData.ENGLISH_LANGUAGE____SOLOR.getNid());
+		descriptionVersion.setDescriptionTypeConceptNid(MetaData.REGULAR_NAME_DESCRIPTION_TYPE____SOLOR.getNid());
+		descriptionVersion.setText("lazy " + version);
+	}
+
+	private static int[] sorted(int[] stampSequences) {
+		int[] sorted = stampSequences.clone();
+		Arrays.sort(sorted);
+		return sorted;
+	}
+}
@@ -0,0 +1,73 @@
+package sh.isaac.integration.tests.suite1;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumSet;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.jvnet.testing.hk2testng.HK2;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import sh.isaac.api.Status;
+import sh.isaac.api.bootstrap.TermAux;
+import sh.isaac.api.component.concept.ConceptSpecification;
+import sh.isaac.api.coordinate.StampPrecedence;
+import sh.isaac.api.snapshot.calculator.RelativePositionCalculator;
+import sh.isaac.model.coordinate.StampCoordinateImpl;
+import sh.isaac.model.coordinate.StampPositionImpl;
+
+
+/**
+ *
+ * {@link StampCoordinateCalculatorTest}
+ *
+ * Checks that equal stamp coordinates, including their authors, share one cached relative position calculator.
+ *
+ * @author kec
+ */
+@HK2("integration")
+@Test(suiteName="suite1")
+public class StampCoordinateCalculatorTest {
+	private static final Logger LOG = LogManager.getLogger();
+
+	@Test(groups = { "stampCoordinate" }, dependsOnGroups = { "load" })
+	public void testAuthorsAreEqualAndHashed() {
+		LOG.info("Testing the equality of stamp coordinates with authors");
+		StampCoordinateImpl coordinate = coordinate(TermAux.USER);
+
+		Assert.assertEquals(coordinate.getAuthorSpecifications(), Collections.singleton(TermAux.USER));
+		Assert.assertEquals(coordinate.getModuleSpecifications(), Collections.singleton(TermAux.SOLOR_MODULE));
+
+		StampCoordinateImpl clone = coordinate.deepClone();
+		Assert.assertEquals(clone, coordinate);
+		Assert.assertEquals(clone.hashCode(), coordinate.hashCode());
+		Assert.assertEquals(clone.getAuthorSpecifications(), Collections.singleton(TermAux.USER));
+
+		Assert.assertNotEquals(coordinate(TermAux.SOLOR_MODULE), coordinate);
+		Assert.assertEquals(coordinate.makeCoordinateAnalog(EnumSet.of(Status.ACTIVE)).getAuthorSpecifications(),
+				Collections.singleton(TermAux.USER));
+	}
+
+	@Test(groups = { "stampCoordinate" }, dependsOnGroups = { "load" })
+	public void testEqualCoordinatesShareCalculator() {
+		LOG.info("Testing the calculators of equal stamp coordinates");
+		StampCoordinateImpl coordinate = coordinate(TermAux.USER);
+		RelativePositionCalculator calculator = RelativePositionCalculator.getCalculator(coordinate);
+
+		Assert.assertSame(RelativePositionCalculator.getCalculator(coordinate), calculator);
+		Assert.assertSame(RelativePositionCalculator.getCalculator(coordinate.deepClone()), calculator);
+		Assert.assertSame(RelativePositionCalculator.getCalculator(coordinate(TermAux.USER)), calculator);
+
+		Assert.assertNotSame(RelativePositionCalculator.getCalculator(coordinate(TermAux.SOLOR_MODULE)), calculator);
+	}
+
+	private static StampCoordinateImpl coordinate(ConceptSpecification author) {
+		return new StampCoordinateImpl(StampPrecedence.PATH,
+				new StampPositionImpl(Long.MAX_VALUE, TermAux.DEVELOPMENT_PATH),
+				Collections.singleton(author),
+				Collections.singleton(TermAux.SOLOR_MODULE),
+				Arrays.asList(TermAux.SOLOR_MODULE),
+				EnumSet.of(Status.ACTIVE, Status.INACTIVE));
+	}
+}
@@ -54,6 +54,7 @@ import org.testng.annotations.Test;
 
 import sh.isaac.api.Get;
 import sh.isaac.api.LookupService;
+import sh.isaac.api.constants.SystemPropertyConstants;
 import sh.isaac.api.memory.HeapUseTicker;
 import sh.isaac.api.progress.ActiveTasksTicker;
 import sh.isaac.api.util.RecursiveDelete;
@@ -86,6 +87,7 @@ public class Suite1Management {
             throws Exception {
    	LOG.info("Suite 1 teardown");
       LookupService.shutdownSystem();
+      System.clearProperty(SystemPropertyConstants.CHRONOLOGY_CACHE_SIZE);
       ActiveTasksTicker.stop();
       HeapUseTicker.stop();
    }
@@ -107,6 +109,8 @@ public class Suite1Management {
 
       LOG.info("termstore folder path exists: " + Get.configurationService().getDataStoreFolderPath().toFile().exists());
 
+      // The suite runs with the chronology data cache enabled, so its tests read through the cache.
+      System.setProperty(SystemPropertyConstants.CHRONOLOGY_CACHE_SIZE, "100000");
       LookupService.startupIsaac();
       ActiveTasksTicker.start(10);
       HeapUseTicker.start(10);
@@ -0,0 +1,166 @@
+package sh.isaac.integration.tests.suite1;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.Optional;
+import javafx.concurrent.Task;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.jvnet.testing.hk2testng.HK2;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import sh.isaac.MetaData;
+import sh.isaac.api.Get;
+import sh.isaac.api.chronicle.Chronology;
+import sh.isaac.api.collections.NidSet;
+import sh.isaac.api.coordinate.ManifoldCoordinate;
+import sh.isaac.api.tree.Tree;
+import sh.isaac.api.util.RecursiveDelete;
+import sh.isaac.model.tree.HashTreeWithIntArraySets;
+import sh.isaac.provider.datastore.taxonomy.TaxonomyProvider;
+import sh.isaac.provider.datastore.taxonomy.TreeSnapshotStore;
+
+
+/**
+ *
+ * {@link TreeSnapshotStoreTest}
+ *
+ * Writes taxonomy trees to a {@link TreeSnapshotStore}, and checks that they read back only while the commit
+ * sequence they were written at is current.
+ *
+ * @author kec
+ */
+@HK2("integration")
+@Test(suiteName="suite1")
+public class TreeSnapshotStoreTest {
+	private static final Logger LOG = LogManager.getLogger();
+
+
+	@Test(groups = { "treeSnapshots" }, dependsOnGroups = { "load" })
+	public void testRoundTrip() throws Exception {
+		LOG.info("Testing persisted taxonomy tree round trip");
+		File directory = Files.createTempDirectory("tree-snapshots").toFile();
+		try {
+			ManifoldCoordinate mc = Get.configurationService().getUserConfiguration(Optional.empty()).getManifoldCoordinate();
+			int root = MetaData.SOLOR_CONCEPT____SOLOR.getNid();
+			int feature = MetaData.FEATURE____SOLOR.getNid();
+			int module = MetaData.MODULE____SOLOR.getNid();
+			int path = MetaData.PATH____SOLOR.getNid();
+			HashTreeWithIntArraySets tree = new HashTreeWithIntArraySets(mc, mc.getLogicCoordinate().getConceptAssemblageNid());
+			tree.add(root, feature);
+			tree.add(root, module);
+			tree.add(feature, path);
+			tree.add(module, path);
+
+			TreeSnapshotStore store = new TreeSnapshotStore(directory);
+			store.write(mc, tree, 42);
+
+			List<TreeSnapshotStore.PersistedTree> persistedTrees = store.getPersistedTrees();
+			Assert.assertEquals(persistedTrees.size(), 1);
+			TreeSnapshotStore.PersistedTree persistedTree = persistedTrees.get(0);
+			Assert.assertEquals(persistedTree.getCommitSequence(), 42);
+			Assert.assertEquals(persistedTree.getManifoldCoordinate().getTaxonomyPremiseType(), mc.getTaxonomyPremiseType());
+			Assert.assertEquals(persistedTree.getManifoldCoordinate().getStampCoordinateUuid(), mc.getStampCoordinateUuid());
+			Assert.assertEquals(persistedTree.getManifoldCoordinate().getLogicCoordinate().getConceptAssemblageNid(),
+					mc.getLogicCoordinate().getConceptAssemblageNid());
+
+			HashTreeWithIntArraySets read = persistedTree.read();
+			Assert.assertEquals(read.getConceptAssemblageNid(), tree.getConceptAssemblageNid());
+			Assert.assertEquals(read.getRootNids(), new int[] {root});
+			Assert.assertEquals(read.getNodeNids(), tree.getNodeNids());
+			for (int nid : new int[] {root, feature, module, path}) {
+				Assert.assertEquals(read.getTaxonomyParentConceptNids(nid), tree.getTaxonomyParentConceptNids(nid));
+				Assert.assertEquals(read.getTaxonomyChildConceptNids(nid), tree.getTaxonomyChildConceptNids(nid));
+			}
+			read.buildSubsumptionIndex();
+			Assert.assertTrue(read.isDescendentOf(path, root));
+			Assert.assertFalse(read.isDescendentOf(root, path));
+
+			// A tree written again for the same coordinate replaces the earlier file.
+			store.write(mc, tree, 43);
+			persistedTrees = store.getPersistedTrees();
+			Assert.assertEquals(persistedTrees.size(), 1);
+			Assert.assertEquals(persistedTrees.get(0).getCommitSequence(), 43);
+
+			store.deleteAll();
+			Assert.assertTrue(store.getPersistedTrees().isEmpty());
+		} finally {
+			RecursiveDelete.delete(directory);
+		}
+	}
+
+	@Test(groups = { "treeSnapshots" }, dependsOnGroups = { "load" })
+	public void testStaleCommitSequenceIsRejected() throws Exception {
+		LOG.info("Testing persisted taxonomy tree staleness");
+		File directory = Files.createTempDirectory("tree-snapshots").toFile();
+		try {
+			ManifoldCoordinate mc = Get.configurationService().getUserConfiguration(Optional.empty()).getManifoldCoordinate();
+			HashTreeWithIntArraySets tree = new HashTreeWithIntArraySets(mc, mc.getLogicCoordinate().getConceptAssemblageNid());
+			tree.add(MetaData.SOLOR_CONCEPT____SOLOR.getNid(), MetaData.FEATURE____SOLOR.getNid());
+
+			TreeSnapshotStore store = new TreeSnapshotStore(directory);
+			long commitSequence = Get.commitService().getCommitManagerSequence();
+			store.write(mc, tree, commitSequence);
+			Assert.assertTrue(store.getPersistedTrees().get(0).isCurrent(commitSequence));
+
+			// An import without checks changes the taxonomy without a commit, so it must still advance the sequence.
+			int conceptNid = MetaData.FEATURE____SOLOR.getNid();
+			NidSet logicGraphNids = Get.assemblageService().getSemanticNidsForComponentFromAssemblage(conceptNid,
+					mc.getLogicCoordinate().getStatedAssemblageNid());
+			Assert.assertFalse(logicGraphNids.isEmpty());
+			Chronology logicGraph = Get.assemblageService().getSemanticChronology(logicGraphNids.findFirst().getAsInt());
+			Get.commitService().importNoChecks(logicGraph);
+			Get.commitService().postProcessImportNoChecks();
+
+			long importSequence = Get.commitService().getCommitManagerSequence();
+			Assert.assertTrue(importSequence > commitSequence);
+			Assert.assertFalse(store.getPersistedTrees().get(0).isCurrent(importSequence));
+		} finally {
+			RecursiveDelete.delete(directory);
+		}
+	}
+
+	@Test(groups = { "treeSnapshots" }, dependsOnGroups = { "load" })
+	public void testDeleteUnmapsUnreadTrees() throws Exception {
+		LOG.info("Testing deletion of persisted taxonomy trees that are not yet read");
+		File directory = Files.createTempDirectory("tree-snapshots").toFile();
+		try {
+			ManifoldCoordinate mc = Get.configurationService().getUserConfiguration(Optional.empty()).getManifoldCoordinate();
+			HashTreeWithIntArraySets tree = new HashTreeWithIntArraySets(mc, mc.getLogicCoordinate().getConceptAssemblageNid());
+			tree.add(MetaData.SOLOR_CONCEPT____SOLOR.getNid(), MetaData.FEATURE____SOLOR.getNid());
+
+			TreeSnapshotStore store = new TreeSnapshotStore(directory);
+			store.write(mc, tree, 42);
+			TreeSnapshotStore.PersistedTree unread = store.getPersistedTrees().get(0);
+
+			// The file is replaced, and then deleted, while it is mapped for the unread tree
+			store.write(mc, tree, 43);
+			TreeSnapshotStore.PersistedTree replaced = store.getPersistedTrees().get(0);
+			store.deleteAll();
+			Assert.assertEquals(directory.listFiles().length, 0);
+			Assert.assertThrows(IllegalStateException.class, () -> unread.read());
+			Assert.assertThrows(IllegalStateException.class, () -> replaced.read());
+		} finally {
+			RecursiveDelete.delete(directory);
+		}
+	}
+
+	@Test(groups = { "treeSnapshots" }, dependsOnGroups = { "load" })
+	public void testImportDropsCachedTrees() throws Exception {
+		LOG.info("Testing cached taxonomy trees after an import");
+		ManifoldCoordinate mc = Get.configurationService().getUserConfiguration(Optional.empty()).getManifoldCoordinate();
+		TaxonomyProvider taxonomyProvider = (TaxonomyProvider) Get.taxonomyService();
+		Task<Tree> treeTask = taxonomyProvider.getTaxonomyTree(mc);
+		treeTask.get();
+		Assert.assertSame(taxonomyProvider.getTaxonomyTree(mc), treeTask);
+
+		// An import is not patched into the cached trees, so they are built again after it
+		NidSet logicGraphNids = Get.assemblageService().getSemanticNidsForComponentFromAssemblage(MetaData.FEATURE____SOLOR.getNid(),
+				mc.getLogicCoordinate().getStatedAssemblageNid());
+		Get.commitService().importNoChecks(Get.assemblageService().getSemanticChronology(logicGraphNids.findFirst().getAsInt()));
+		Get.commitService().postProcessImportNoChecks();
+		Assert.assertNotSame(taxonomyProvider.getTaxonomyTree(mc), treeTask);
+	}
+}
@@ -69,7 +69,6 @@ import sh.isaac.api.component.concept.ConceptChronology;
 import sh.isaac.api.component.concept.ConceptSnapshotService;
 import sh.isaac.api.coordinate.ManifoldCoordinate;
 import sh.isaac.api.index.AuthorModulePathRestriction;
-import sh.isaac.api.index.IndexDescriptionQueryService;
 import sh.isaac.api.query.CompositeQueryResult;
 import sh.isaac.api.query.QueryHandle;
 import sh.isaac.api.util.NumericUtils;
@@ -346,17 +345,10 @@ public class LookAheadConceptPopup extends Popup implements TaskCompleteCallback
 				{
 					//TODO add the ability to pass in the entire search function, so that the end user can have full control over the advanced query options
 					int id = searchCounter++;
-					QueryHandle ssh = Get.queryHandler().search(() -> 
-					{
-						return Get.service(IndexDescriptionQueryService.class).query(text, true, null, null, 
-								AuthorModulePathRestriction.restrict(manifoldCoord.get()), metadataOnly, (int[]) null, null, 1, 5, null);
-					},
+					QueryHandle ssh = Get.queryHandler().complete(text, AuthorModulePathRestriction.restrict(manifoldCoord.get()), metadataOnly, 5,
 					(searchHandle) -> {this.taskComplete(null, searchHandle.getSearchStartTime(), searchHandle.getTaskId());},
 					id,
-					null,
-					true,
-					manifoldCoord.get(),
-					false);
+					manifoldCoord.get());
 					runningSearches.put(id, ssh);
 				}
 			}
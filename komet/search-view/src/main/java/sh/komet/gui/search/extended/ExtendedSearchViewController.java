@@ -114,6 +114,7 @@ import sh.isaac.api.index.IndexSemanticQueryService;
 import sh.isaac.api.index.IndexStatusListener;
 import sh.isaac.api.query.CompositeQueryResult;
 import sh.isaac.api.query.QueryHandle;
+import sh.isaac.api.util.ArrayUtil;
 import sh.isaac.api.util.Interval;
 import sh.isaac.api.util.NumericUtils;
 import sh.isaac.api.util.TaskCompleteCallback;
@@ -758,7 +759,18 @@ public class ExtendedSearchViewController implements TaskCompleteCallback<QueryH
                         LOG.debug("Doing a description search on the extended type {}", descriptionTypeSelection.getValue().getDescription());
                         descriptionTypeRestriction = null;
                         extendedDescriptionTypeRestriction = new ConceptSpecification[]{new ConceptProxy(descriptionTypeSelection.getValue().getNid())};
-                    }   ssh = Get.queryHandler().search(()
+                    }
+                    if (timeStatusRestriction == null && amp == null) {
+                        // Without a stamp restriction of its own, the search is of the descriptions as they are on the view coordinate.
+                        ssh = Get.queryHandler().searchDescriptions(searchText.getText(), ArrayUtil.toNidArray(descriptionTypeRestriction),
+                                ArrayUtil.toNidArray(extendedDescriptionTypeRestriction), searchLimit.getValue(),
+                                ((searchHandle) -> {
+                                    taskComplete(null, searchHandle.getSearchStartTime(), searchHandle.getTaskId());
+                                }),
+                                null, true, readManifoldCoordinate);
+                        break;
+                    }
+                    ssh = Get.queryHandler().search(()
                             -> {
                         return Get.service(IndexDescriptionQueryService.class).query(searchText.getText(), false, null,
                                 timeStatusRestriction == null ? null : timeStatusRestriction.getTimeStatusFilter(), amp, false, descriptionTypeRestriction,
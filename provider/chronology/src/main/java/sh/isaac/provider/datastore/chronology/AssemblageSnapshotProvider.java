@@ -127,12 +127,13 @@ public class AssemblageSnapshotProvider<V extends SemanticVersion>
    @Override
    public List<LatestVersion<V>> getLatestDescriptionVersionsForComponent(int componentNid) {
       List<LatestVersion<V>> results = new ArrayList<>();
-      for (int semanticNid : this.semanticProvider.getSemanticNidsForComponent(componentNid).asArray()) {
-         SemanticChronologyImpl semanticChronology = (SemanticChronologyImpl) this.semanticProvider.getSemanticChronology(semanticNid);
-         if (semanticChronology.getVersionType() == VersionType.DESCRIPTION) {
-            results.add(this.getLatestSemanticVersion(semanticChronology));
-         }
-      }
+      this.semanticProvider.<SemanticChronologyImpl>getSemanticChronologyStream(
+              this.semanticProvider.getSemanticNidsForComponent(componentNid).stream())
+              .forEach((semanticChronology) -> {
+                 if (semanticChronology.getVersionType() == VersionType.DESCRIPTION) {
+                    results.add(this.getLatestSemanticVersion(semanticChronology));
+                 }
+              });
       return results;
    }
 
@@ -181,13 +182,13 @@ public class AssemblageSnapshotProvider<V extends SemanticVersion>
            ProgressTracker... progressTrackers) {
 
       List<LatestVersion<V>> results = new ArrayList<>(semanticNidSet.size());
-      for (int semanticNid : semanticNidSet.asArray()) {
-         final SemanticChronologyImpl sc = (SemanticChronologyImpl) this.semanticProvider.getSemanticChronology(semanticNid);
-         results.add(getLatestSemanticVersion(sc));
-         for (ProgressTracker tracker: progressTrackers) {
-            tracker.completedUnitOfWork();
-         }
-      }
+      this.semanticProvider.<SemanticChronologyImpl>getSemanticChronologyStream(semanticNidSet.stream())
+              .forEach((sc) -> {
+                 results.add(getLatestSemanticVersion(sc));
+                 for (ProgressTracker tracker: progressTrackers) {
+                    tracker.completedUnitOfWork();
+                 }
+              });
       return results;
    }
 
@@ -247,9 +248,8 @@ public class AssemblageSnapshotProvider<V extends SemanticVersion>
 
    private Stream<LatestVersion<V>> getLatestSemanticVersionStreamUnwrapped(IntStream semanticNidStream,
            ProgressTracker... progressTrackers) {
-      return semanticNidStream.mapToObj((int semanticNid) -> {
+      return this.semanticProvider.<SemanticChronologyImpl>getSemanticChronologyStream(semanticNidStream).map((sc) -> {
          try {
-            final SemanticChronologyImpl sc = (SemanticChronologyImpl) this.semanticProvider.getSemanticChronology(semanticNid);
             final int[] stampSequences = sc.getVersionStampSequences();
             final int[] latestStampSequences = this.calculator.getLatestStampSequencesAsSet(
                     stampSequences);
@@ -0,0 +1,173 @@
+/*
+ * Copyright 2019 Organizations participating in ISAAC, ISAAC's KOMET, and SOLOR development include the
+         US Veterans Health Administration, OSHERA, and the Health Services Platform Consortium..
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package sh.isaac.provider.datastore.chronology;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.IntFunction;
+import sh.isaac.api.externalizable.ByteArrayDataBuffer;
+
+/**
+ * A size bounded cache of the stored data of concept and semantic chronologies, keyed by nid.
+ *
+ * The cache holds the data as read from the datastore, not decoded chronologies, and every request is given its own
+ * read only wrapper of the data to decode. Each caller therefore decodes its own chronology, and an uncommitted version
+ * added by one holder of a chronology is never visible to the holder of another. The cache saves the datastore read
+ * and the assembly of the stored versions into one buffer. Decoding is not saved, but is cheap, since only the stamps
+ * of a stored chronology are decoded when it is read, and its versions when they are requested. With the file system
+ * datastore, which reads from memory, a cached read is no faster than an uncached one, so the cache is for datastores
+ * with costly reads. See the ChronologyBenchmark of the benchmarks module.
+ *
+ * Entries are removed when the chronology is written. Commits and cancels change the stored data only by writing the
+ * chronology, so no change or commit notifications are needed. Data read while a write of the same nid is in progress
+ * is not cached: each write advances the generation of the nid's stripe, and data is discarded if the generation
+ * moved while it was read.
+ *
+ * @author kec
+ */
+public class ChronologyDataCache implements ChronologyCacheMXBean {
+
+    private static final int STRIPES = 1024;
+
+    //~--- fields --------------------------------------------------------------
+    private final long maximumSize;
+    private final Cache<Integer, ByteArrayDataBuffer> cache;
+    private final AtomicLongArray stripeGenerations = new AtomicLongArray(STRIPES);
+    private final LongAdder invalidations = new LongAdder();
+
+    //~--- constructors --------------------------------------------------------
+    public ChronologyDataCache(long maximumSize) {
+        this.maximumSize = maximumSize;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .recordStats()
+                .build();
+    }
+
+    //~--- methods -------------------------------------------------------------
+    /**
+     * @param nid the nid of the chronology
+     * @param reader reads the chronology data from the datastore
+     * @return a new wrapper of the cached data, or the data returned by the reader
+     */
+    public Optional<ByteArrayDataBuffer> get(int nid, IntFunction<Optional<ByteArrayDataBuffer>> reader) {
+        ByteArrayDataBuffer cached = getIfPresent(nid);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+        long generation = getGeneration(nid);
+        Optional<ByteArrayDataBuffer> data = reader.apply(nid);
+        data.ifPresent((byteBuffer) -> put(nid, byteBuffer, generation));
+        return data;
+    }
+
+    /**
+     * @param nid the nid of the chronology
+     * @return a new wrapper of the cached data, positioned at its start, or null if there is none
+     */
+    public ByteArrayDataBuffer getIfPresent(int nid) {
+        ByteArrayDataBuffer cached = cache.getIfPresent(nid);
+        return cached == null ? null : cached.newWrapper();
+    }
+
+    /**
+     * @param nid the nid of a chronology that is about to be read
+     * @return the generation to pass to {@link #put(int, ByteArrayDataBuffer, long)} with the data read
+     */
+    public long getGeneration(int nid) {
+        return stripeGenerations.get(stripe(nid));
+    }
+
+    /**
+     * Cache the data read for a chronology, unless the nid was invalidated since the generation was read. The cache
+     * holds its own wrapper of the data, so the caller may decode from the data before or after it is cached.
+     *
+     * @param nid the nid of the chronology
+     * @param data the data read from the datastore
+     * @param generation the generation read before the data was read
+     */
+    public void put(int nid, ByteArrayDataBuffer data, long generation) {
+        ByteArrayDataBuffer wrapper = data.newWrapper();
+        int stripe = stripe(nid);
+        cache.put(nid, wrapper);
+        if (stripeGenerations.get(stripe) != generation) {
+            cache.asMap().remove(nid, wrapper);
+        }
+    }
+
+    /**
+     * Remove the chronology for the nid, and prevent the caching of any read of it already in progress.
+     *
+     * @param nid the nid of the chronology that changed
+     */
+    public void invalidate(int nid) {
+        stripeGenerations.incrementAndGet(stripe(nid));
+        if (cache.asMap().remove(nid) != null) {
+            invalidations.increment();
+        }
+    }
+
+    private static int stripe(int nid) {
+        return nid & (STRIPES - 1);
+    }
+
+    @Override
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    @Override
+    public String toString() {
+        return "ChronologyDataCache{size=" + getSize() + "/" + maximumSize + ", hits=" + getHitCount()
+                + ", misses=" + getMissCount() + ", evictions=" + getEvictionCount()
+                + ", invalidations=" + getInvalidationCount() + '}';
+    }
+
+    //~--- get methods ---------------------------------------------------------
+    @Override
+    public long getHitCount() {
+        return cache.stats().hitCount();
+    }
+
+    @Override
+    public long getMissCount() {
+        return cache.stats().missCount();
+    }
+
+    @Override
+    public long getEvictionCount() {
+        return cache.stats().evictionCount();
+    }
+
+    @Override
+    public long getInvalidationCount() {
+        return invalidations.sum();
+    }
+
+    @Override
+    public long getSize() {
+        return cache.estimatedSize();
+    }
+
+    @Override
+    public long getMaximumSize() {
+        return maximumSize;
+    }
+}
@@ -38,23 +38,34 @@ package sh.isaac.provider.datastore.chronology;
 
 import java.io.FileNotFoundException;
 import java.io.InputStream;
+import java.lang.management.ManagementFactory;
 import java.nio.file.Path;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
 import java.util.NoSuchElementException;
 import java.util.Optional;
+import java.util.PrimitiveIterator;
 import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
 import java.util.UUID;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Future;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
 import java.util.stream.IntStream;
 import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 import javax.annotation.PostConstruct;
 import javax.annotation.PreDestroy;
+import javax.management.JMException;
+import javax.management.ObjectName;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.glassfish.hk2.runlevel.RunLevel;
@@ -88,6 +99,7 @@ import sh.isaac.api.component.semantic.version.MutableStringVersion;
 import sh.isaac.api.component.semantic.version.SemanticVersion;
 import sh.isaac.api.component.semantic.version.StringVersion;
 import sh.isaac.api.constants.DatabaseInitialization;
+import sh.isaac.api.constants.SystemPropertyConstants;
 import sh.isaac.api.coordinate.LanguageCoordinate;
 import sh.isaac.api.coordinate.ManifoldCoordinate;
 import sh.isaac.api.coordinate.StampCoordinate;
@@ -120,8 +132,14 @@ public class ChronologyProvider
      */
     private static final Logger LOG = LogManager.getLogger();
 
+    /** Maximum number of nids a chronology stream reads from the data store at once. */
+    static final int BULK_READ_SIZE = 256;
+
     //~--- fields --------------------------------------------------------------
     private DataStore store;
+
+    /** The cache of chronology data, or null if it is not enabled. */
+    private ChronologyDataCache chronologyCache;
     
    //set to -1, when we haven't loaded yet.  Set to 1, when we have (and did) load metadata.  Set to 0, when we have checked, 
    //but didn't load metadata because the database was already loaded, or the preferences said not to.
@@ -216,11 +234,13 @@ public class ChronologyProvider
         Get.conceptActiveService()
                 .updateStatus(concept);
         store.putChronologyData((ChronologyImpl) concept);
+        invalidateCachedChronology(concept.getNid());
     }
 
     @Override
     public void writeSemanticChronology(SemanticChronology semanticChronicle) {
         store.putChronologyData((ChronologyImpl) semanticChronicle);
+        invalidateCachedChronology(semanticChronicle.getNid());
 //        if (semanticChronicle.getVersionType().equals(VersionType.LOGIC_GRAPH)) {
 //            Get.taxonomyService().updateTaxonomy(semanticChronicle);
 //        }
@@ -265,6 +285,19 @@ public class ChronologyProvider
             if (store == null) {
                 throw new RuntimeException("Failed to get a data store!");
             }
+            long chronologyCacheSize = Long.getLong(SystemPropertyConstants.CHRONOLOGY_CACHE_SIZE, 0);
+            if (chronologyCacheSize > 0) {
+                chronologyCache = new ChronologyDataCache(chronologyCacheSize);
+                try {
+                    ObjectName objectName = new ObjectName(ChronologyCacheMXBean.OBJECT_NAME);
+                    if (!ManagementFactory.getPlatformMBeanServer().isRegistered(objectName)) {
+                        ManagementFactory.getPlatformMBeanServer().registerMBean(chronologyCache, objectName);
+                    }
+                } catch (JMException ex) {
+                    LOG.warn("Unable to register chronology cache MBean", ex);
+                }
+                LOG.info("Caching the data of up to {} chronologies", chronologyCacheSize);
+            }
         } finally {
             progressTask.finished();
         }
@@ -279,6 +312,19 @@ public class ChronologyProvider
             LOG.info("Stopping chronology provider for change to runlevel: " + LookupService.getProceedingToRunLevel());
             this.sync().get();
             this.metadataLoaded.set(-1);
+            if (chronologyCache != null) {
+                try {
+                    ObjectName objectName = new ObjectName(ChronologyCacheMXBean.OBJECT_NAME);
+                    if (ManagementFactory.getPlatformMBeanServer().isRegistered(objectName)) {
+                        ManagementFactory.getPlatformMBeanServer().unregisterMBean(objectName);
+                    }
+                } catch (JMException ex) {
+                    LOG.warn("Unable to unregister chronology cache MBean", ex);
+                }
+                LOG.info("Chronology cache at shutdown: {}", chronologyCache);
+                chronologyCache.invalidateAll();
+                chronologyCache = null;
+            }
         } catch (InterruptedException | ExecutionException ex) {
             LOG.error(ex);
         }
@@ -296,7 +342,15 @@ public class ChronologyProvider
     }
 
     private Optional<ByteArrayDataBuffer> getChronologyData(int nid) {
-        return this.store.getChronologyVersionData(nid);
+        ChronologyDataCache cache = this.chronologyCache;
+        return cache == null ? this.store.getChronologyVersionData(nid) : cache.get(nid, this.store::getChronologyVersionData);
+    }
+
+    private void invalidateCachedChronology(int nid) {
+        ChronologyDataCache cache = this.chronologyCache;
+        if (cache != null) {
+            cache.invalidate(nid);
+        }
     }
 
     @Override
@@ -312,16 +366,148 @@ public class ChronologyProvider
 
     @Override
     public ConceptChronologyImpl getConceptChronology(int conceptId) {
-        Optional<ByteArrayDataBuffer> optionalByteBuffer = store.getChronologyVersionData(conceptId);
+        ConceptChronologyImpl concept = decodeConcept(conceptId);
+
+        if (concept != null) {
+            return concept;
+        }
+
+        throw new NoSuchElementException("No element for: " + conceptId + Arrays.toString(Get.identifierService().getUuidsForNid(conceptId).toArray()));
+    }
+
+    private ConceptChronologyImpl decodeConcept(int conceptId) {
+        Optional<ByteArrayDataBuffer> optionalByteBuffer = getChronologyData(conceptId);
 
         if (optionalByteBuffer.isPresent()) {
-            ByteArrayDataBuffer byteBuffer = optionalByteBuffer.get();
+            return (ConceptChronologyImpl) decode(conceptId, optionalByteBuffer.get(), IsaacObjectType.CONCEPT);
+        }
+        return null;
+    }
 
-            IsaacObjectType.CONCEPT.readAndValidateHeader(byteBuffer);
-            return ConceptChronologyImpl.make(byteBuffer);
+    /**
+     * @param nid the nid the data was read for
+     * @param byteBuffer the stored chronology data
+     * @param objectType the expected type of the chronology, or {@link IsaacObjectType#UNKNOWN} to decode the type 
+     * the identifier service has for the nid
+     * @return the decoded chronology
+     */
+    private ChronologyImpl decode(int nid, ByteArrayDataBuffer byteBuffer, IsaacObjectType objectType) {
+        if (objectType == IsaacObjectType.UNKNOWN) {
+            objectType = ModelGet.identifierService().getObjectTypeForComponent(nid);
         }
+        switch (objectType) {
+            case CONCEPT:
+                IsaacObjectType.CONCEPT.readAndValidateHeader(byteBuffer);
+                return ConceptChronologyImpl.make(byteBuffer);
 
-        throw new NoSuchElementException("No element for: " + conceptId + Arrays.toString(Get.identifierService().getUuidsForNid(conceptId).toArray()));
+            case SEMANTIC:
+                IsaacObjectType.SEMANTIC.readAndValidateHeader(byteBuffer);
+                return SemanticChronologyImpl.make(byteBuffer);
+
+            default:
+                throw new UnsupportedOperationException("Can't handle: " + objectType);
+        }
+    }
+
+    private ChronologyImpl decodeIfStored(int nid, ByteArrayDataBuffer byteBuffer, IsaacObjectType objectType) {
+        try {
+            return decode(nid, byteBuffer, objectType);
+        } catch (NoSuchElementException e) {
+            // This will happen if a nid was mapped, but the object wasn't stored.
+            return null;
+        }
+    }
+
+    /**
+     * Reads the chronologies in batches of {@link #BULK_READ_SIZE} nids, using the bulk read of the data store, 
+     * and the chronology data cache if it is enabled.
+     *
+     * @param nids the nids to read
+     * @param type the type of chronology expected for the nids
+     * @param objectType the expected type of the chronologies, or {@link IsaacObjectType#UNKNOWN} to decode the type
+     * the identifier service has for each nid
+     * @return the chronologies, in the order of the nids, skipping nids without stored data
+     */
+    private <C extends ChronologyImpl> Stream<C> getChronologyStream(IntStream nids, Class<C> type, IsaacObjectType objectType) {
+        Iterator<C> chronologyIterator = batchIterator(nids.iterator(), BULK_READ_SIZE,
+                (batchNids, consumer) -> readChronologies(batchNids, type, objectType, consumer));
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(chronologyIterator,
+                Spliterator.ORDERED | Spliterator.NONNULL), false);
+    }
+
+    /**
+     * @param <T> the type of element read for a nid
+     * @param nids the nids to read
+     * @param batchSize the largest number of nids passed to the reader at once
+     * @param reader passed each batch of nids, in order, and the consumer of the elements read for the batch
+     * @return the elements read for all the nids, in the order the reader gave them to the consumer
+     */
+    static <T> Iterator<T> batchIterator(PrimitiveIterator.OfInt nids, int batchSize,
+            BiConsumer<int[], Consumer<T>> reader) {
+        return new Iterator<T>() {
+            private final ArrayDeque<T> batch = new ArrayDeque<>();
+
+            @Override
+            public boolean hasNext() {
+                while (batch.isEmpty() && nids.hasNext()) {
+                    int[] batchNids = new int[batchSize];
+                    int count = 0;
+                    while (count < batchSize && nids.hasNext()) {
+                        batchNids[count++] = nids.nextInt();
+                    }
+                    reader.accept(count == batchSize ? batchNids : Arrays.copyOf(batchNids, count), batch::add);
+                }
+                return !batch.isEmpty();
+            }
+
+            @Override
+            public T next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return batch.remove();
+            }
+        };
+    }
+
+    private <C extends ChronologyImpl> void readChronologies(int[] nids, Class<C> type, IsaacObjectType objectType,
+            Consumer<C> consumer) {
+        ChronologyDataCache cache = this.chronologyCache;
+        ChronologyImpl[] chronologies = new ChronologyImpl[nids.length];
+        long[] generations = new long[nids.length];
+        int[] readIndexes = IntStream.range(0, nids.length).toArray();
+        if (cache != null) {
+            readIndexes = Arrays.stream(readIndexes)
+                    .filter((i) -> {
+                        ByteArrayDataBuffer cached = cache.getIfPresent(nids[i]);
+                        if (cached == null) {
+                            generations[i] = cache.getGeneration(nids[i]);
+                            return true;
+                        }
+                        chronologies[i] = decodeIfStored(nids[i], cached, objectType);
+                        return false;
+                    }).toArray();
+        }
+        if (readIndexes.length > 0) {
+            // the data arrives in the order of the nids, skipping nids without data
+            int[] indexes = readIndexes;
+            int[] cursor = new int[1];
+            store.getChronologyVersionData(Arrays.stream(indexes).map((i) -> nids[i]).toArray(), (byteBuffer, nid) -> {
+                while (nids[indexes[cursor[0]]] != nid) {
+                    cursor[0]++;
+                }
+                int index = indexes[cursor[0]++];
+                if (cache != null) {
+                    cache.put(nid, byteBuffer, generations[index]);
+                }
+                chronologies[index] = decodeIfStored(nid, byteBuffer, objectType);
+            });
+        }
+        for (ChronologyImpl chronology : chronologies) {
+            if (chronology != null) {
+                consumer.accept(type.cast(chronology));
+            }
+        }
     }
 
     @Override
@@ -334,24 +520,14 @@ public class ChronologyProvider
 
     @Override
     public Stream<ConceptChronology> getConceptChronologyStream() {
-      return ModelGet.identifierService().getNidStreamOfType(IsaacObjectType.CONCEPT).mapToObj((nid) -> {
-         try {
-            return (ConceptChronology) getConceptChronology(nid);
-         } catch (NoSuchElementException e) {
-            return null;  //This will happen if a nid was mapped, but the object wasn't stored.
-         }
-      }).filter(obj -> obj != null);  //remove the nulls
+      return getChronologyStream(ModelGet.identifierService().getNidStreamOfType(IsaacObjectType.CONCEPT),
+              ConceptChronologyImpl.class, IsaacObjectType.CONCEPT).map((concept) -> (ConceptChronology) concept);
     }
 
    @Override
    public Stream<ConceptChronology> getConceptChronologyStream(int assemblageNid) {
-      return Get.identifierService().getNidsForAssemblage(assemblageNid).mapToObj((nid) -> {
-         try {
-            return (ConceptChronology) getConceptChronology(nid);
-         } catch (NoSuchElementException e) {
-            return null; // This will happen if a nid was mapped, but the object wasn't stored.
-         }
-      }).filter(obj -> obj != null); // remove the nulls
+      return getChronologyStream(Get.identifierService().getNidsForAssemblage(assemblageNid),
+              ConceptChronologyImpl.class, IsaacObjectType.CONCEPT).map((concept) -> (ConceptChronology) concept);
    }
 
     @Override
@@ -464,32 +640,19 @@ public class ChronologyProvider
     @Override
     public Optional<? extends Chronology> getChronology(int nid) {
         try {
-            Optional<ByteArrayDataBuffer> optionalByteBuffer = getChronologyData(nid);
-
-            if (optionalByteBuffer.isPresent()) {
-                ByteArrayDataBuffer byteBuffer = optionalByteBuffer.get();
-
-                // concept or semantic?
-                switch (ModelGet.identifierService()
-                        .getObjectTypeForComponent(nid)) {
-                    case CONCEPT:
-                        IsaacObjectType.CONCEPT.readAndValidateHeader(byteBuffer);
-                        return Optional.of(ConceptChronologyImpl.make(byteBuffer));
-
-                    case SEMANTIC:
-                        IsaacObjectType.SEMANTIC.readAndValidateHeader(byteBuffer);
-                        return Optional.of(SemanticChronologyImpl.make(byteBuffer));
-
-                    default:
-                        throw new UnsupportedOperationException(
-                                "Can't handle: " + ModelGet.identifierService().getObjectTypeForComponent(nid));
-                }
-            }
+            return Optional.ofNullable(decodeChronology(nid));
         } catch (NoSuchElementException nse) {
             return Optional.empty();
         }
+    }
 
-        return Optional.empty();
+    private ChronologyImpl decodeChronology(int nid) {
+        Optional<ByteArrayDataBuffer> optionalByteBuffer = getChronologyData(nid);
+
+        if (optionalByteBuffer.isPresent()) {
+            return decode(nid, optionalByteBuffer.get(), IsaacObjectType.UNKNOWN);
+        }
+        return null;
     }
 
     @Override
@@ -525,13 +688,10 @@ public class ChronologyProvider
 
     @Override
     public SemanticChronology getSemanticChronology(int semanticId) {
-        Optional<ByteArrayDataBuffer> optionalByteBuffer = store.getChronologyVersionData(semanticId);
+        SemanticChronologyImpl semantic = decodeSemantic(semanticId);
 
-        if (optionalByteBuffer.isPresent()) {
-            ByteArrayDataBuffer byteBuffer = optionalByteBuffer.get();
-
-            IsaacObjectType.SEMANTIC.readAndValidateHeader(byteBuffer);
-            return SemanticChronologyImpl.make(byteBuffer);
+        if (semantic != null) {
+            return semantic;
         }
 
         // Gather exception data...
@@ -541,27 +701,29 @@ public class ChronologyProvider
         throw new NoSuchElementException("No element for: " + semanticId + " " + uuids + " in " + assemblage);
     }
 
+    private SemanticChronologyImpl decodeSemantic(int semanticId) {
+        Optional<ByteArrayDataBuffer> optionalByteBuffer = getChronologyData(semanticId);
+
+        if (optionalByteBuffer.isPresent()) {
+            return (SemanticChronologyImpl) decode(semanticId, optionalByteBuffer.get(), IsaacObjectType.SEMANTIC);
+        }
+        return null;
+    }
+
    @Override
    public Stream<SemanticChronology> getSemanticChronologyStream() {
-      return getSemanticNidStream().mapToObj((value) -> {
-         try {
-            return (SemanticChronology) getSemanticChronology(value);
-         } catch (NoSuchElementException e) {
-            return null; // This will happen if a nid was mapped, but the object wasn't stored.
-         }
-      }).filter(obj -> obj != null); // remove the nulls
+      return getSemanticChronologyStream(getSemanticNidStream());
    }
 
+    @Override
+    public <C extends SemanticChronology> Stream<C> getSemanticChronologyStream(IntStream semanticNids) {
+        return getChronologyStream(semanticNids, SemanticChronologyImpl.class, IsaacObjectType.SEMANTIC)
+                .map((semantic) -> (C) semantic);
+    }
+
     @Override
     public <C extends SemanticChronology> Stream<C> getSemanticChronologyStreamForComponent(int componentNid) {
-        return getSemanticNidsForComponent(componentNid).stream()
-                .mapToObj((int semanticNid) -> { 
-                try {
-                  return (C) getSemanticChronology(semanticNid);
-               } catch (NoSuchElementException e) {
-                  return null; // This will happen if a nid was mapped, but the object wasn't stored.
-               }
-            }).filter(obj -> obj != null); // remove the nulls
+        return getSemanticChronologyStream(getSemanticNidsForComponent(componentNid).stream());
     }
     
     @Override
@@ -574,13 +736,7 @@ public class ChronologyProvider
           Set<Integer> assemblageConceptNids) {
        final NidSet semanticSequences = getSemanticNidsForComponentFromAssemblages(componentNid, assemblageConceptNids);
 
-       return semanticSequences.stream().mapToObj((int semanticNid) -> {
-           try {
-             return (C) getSemanticChronology(semanticNid);
-          } catch (NoSuchElementException e) {
-             return null; // This will happen if a nid was mapped, but the object wasn't stored.
-          }
-       }).filter(obj -> obj != null); // remove the nulls
+       return getSemanticChronologyStream(semanticSequences.stream());
     }
 
     @Override
@@ -589,22 +745,13 @@ public class ChronologyProvider
             case SEMANTIC:
                 final NidSet semanticSequences = getSemanticNidsFromAssemblage(assemblageConceptNid);
 
-                return semanticSequences.stream()
-                        .mapToObj((int semanticNid) -> 
-                        {
-                             try {
-                               return (C) getSemanticChronology(semanticNid);
-                            } catch (NoSuchElementException e) {
-                               return null; // This will happen if a nid was mapped, but the object wasn't stored.
-                            }
-                         }).filter(obj -> obj != null); // remove the nulls
+                return getSemanticChronologyStream(semanticSequences.stream());
 
             case UNKNOWN:
                 // perhaps not initialized...
                 final NidSet elementSequences = getSemanticNidsFromAssemblage(assemblageConceptNid);
-                return (Stream<C>) elementSequences.stream().mapToObj((nid) -> getChronology(nid))
-                        .filter((optionalObject) -> optionalObject.isPresent())
-                        .map((optionalObject) -> optionalObject.get());
+                return getChronologyStream(elementSequences.stream(), ChronologyImpl.class, IsaacObjectType.UNKNOWN)
+                        .map((chronology) -> (C) chronology);
         }
         throw new IllegalStateException("Assemblage is of type "
                 + getObjectTypeForAssemblage(assemblageConceptNid)
@@ -621,9 +768,8 @@ public class ChronologyProvider
             case UNKNOWN:
                 // perhaps not initialized...
                 final NidSet elementSequences = getSemanticNidsFromAssemblage(assemblageConceptNid);
-                return (Stream<C>) elementSequences.stream().mapToObj((nid) -> getChronology(nid))
-                        .filter((optionalObject) -> optionalObject.isPresent())
-                        .map((optionalObject) -> optionalObject.get());
+                return getChronologyStream(elementSequences.stream(), ChronologyImpl.class, IsaacObjectType.UNKNOWN)
+                        .map((chronology) -> (C) chronology);
 
         }
         throw new IllegalStateException("Assemblage is of type "
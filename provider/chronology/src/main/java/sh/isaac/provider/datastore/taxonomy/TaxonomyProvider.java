@@ -39,10 +39,12 @@ package sh.isaac.provider.datastore.taxonomy;
 import sh.isaac.api.task.LabelTaskWithIndeterminateProgress;
 import sh.isaac.model.taxonomy.TaxonomyRecordPrimitive;
 import java.lang.ref.WeakReference;
+import java.io.IOException;
 import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.EnumSet;
+import java.util.Map;
 import java.util.NoSuchElementException;
 import java.util.Objects;
 import java.util.Optional;
@@ -53,6 +55,7 @@ import java.util.concurrent.ConcurrentSkipListSet;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Future;
 import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.BinaryOperator;
 import java.util.function.IntFunction;
 import java.util.function.Supplier;
@@ -98,6 +101,7 @@ import sh.isaac.model.TaxonomyDebugService;
 import sh.isaac.model.coordinate.ManifoldCoordinateImpl;
 import sh.isaac.model.coordinate.StampCoordinateImpl;
 import sh.isaac.model.coordinate.StampPositionImpl;
+import sh.isaac.model.tree.HashTreeWithIntArraySets;
 import sh.isaac.provider.datastore.chronology.ChronologyUpdate;
 
 /**
@@ -132,6 +136,11 @@ public class TaxonomyProvider
     private final NidSet isANidSet = new NidSet();  //init in startup
     private final NidSet childOfTypeNidSet = new NidSet();  //init in startup
     private final UUID listenerUUID = UUID.randomUUID();
+    /**
+     * True while the persisted trees match the database, false once the taxonomy is changed.
+     */
+    private final AtomicBoolean persistedTreesCurrent = new AtomicBoolean();
+    private TreeSnapshotStore treeSnapshotStore;
 
     /**
      * The change listeners.
@@ -176,11 +185,13 @@ public class TaxonomyProvider
 
     @Override
     public void handleCommit(CommitRecord commitRecord) {
-        // If a logic graph changed, clear our cache.
-        if (this.semanticNidsForUnhandledChanges.size() > 0) {
-            LOG.debug("Clearing snapshot cache due to commit");
-            this.snapshotCache.clear();
-            this.noTreeSnapshotCache.clear();
+        // The concepts with a changed logic graph, whose parents must be updated in the cached trees. 
+        final NidSet changedConceptNids = new NidSet();
+        for (int semanticNid : this.semanticNidsForUnhandledChanges) {
+            if (commitRecord.getSemanticNidsInCommit().contains(semanticNid)) {
+                changedConceptNids.add(Get.assemblageService()
+                        .getSemanticChronology(semanticNid).getReferencedComponentNid());
+            }
         }
 
         this.updatePermits.acquireUninterruptibly();
@@ -193,11 +204,71 @@ public class TaxonomyProvider
             LOG.error("Unexpected error waiting for taxonomy update after commit", e);
             throw new RuntimeException(e);
         }
+
+        if (!changedConceptNids.isEmpty()) {
+            LOG.debug("Updating snapshot cache due to commit");
+            this.noTreeSnapshotCache.clear();
+            updateTaxonomyTrees(changedConceptNids);
+        }
+    }
+
+    /**
+     * Replace each cached tree with a task that patches the changed concepts into a copy of the tree. 
+     * Trees that have not been built successfully are dropped, and will be rebuilt when next requested.
+     *
+     * @param changedConceptNids the concepts whose parents may have changed
+     */
+    private void updateTaxonomyTrees(NidSet changedConceptNids) {
+        for (Map.Entry<SnapshotCacheKey, Task<Tree>> entry : this.snapshotCache.entrySet()) {
+            SnapshotCacheKey snapshotCacheKey = entry.getKey();
+            Task<Tree> previousTask = entry.getValue();
+            Tree previousTree = getCompletedTree(previousTask);
+
+            if (!(previousTree instanceof HashTreeWithIntArraySets)) {
+                this.snapshotCache.remove(snapshotCacheKey, previousTask);
+                continue;
+            }
+
+            ManifoldCoordinate mc = snapshotCacheKey.manifoldCoordinate;
+            int conceptAssemblageNid = mc.getLogicCoordinate().getConceptAssemblageNid();
+            int[] conceptNids = changedConceptNids.stream()
+                    .filter((nid) -> this.identifierService.getAssemblageNid(nid).orElse(Integer.MAX_VALUE) == conceptAssemblageNid)
+                    .toArray();
+
+            if (conceptNids.length == 0) {
+                continue;
+            }
+
+            TreeUpdateTask treeUpdateTask = new TreeUpdateTask((HashTreeWithIntArraySets) previousTree,
+                    conceptNids, getTaxonomyDataProvider(mc), mc);
+
+            if (this.snapshotCache.replace(snapshotCacheKey, previousTask, treeUpdateTask)) {
+                Get.executor().execute(treeUpdateTask);
+            } else {
+                Get.activeTasks().remove(treeUpdateTask);
+            }
+        }
+    }
+
+    /**
+     * @param treeTask a tree task
+     * @return the tree, or null if the task is still running, or did not complete successfully
+     */
+    private static Tree getCompletedTree(Task<Tree> treeTask) {
+        if (!treeTask.isDone() || treeTask.isCancelled()) {
+            return null;
+        }
+        try {
+            return treeTask.get();
+        } catch (InterruptedException | ExecutionException e) {
+            return null;
+        }
     }
 
     @Override
     public void notifyTaxonomyListenersToRefresh() {
         LOG.debug("Clearing snapshot cache due notify request");
+        invalidatePersistedTrees();
         snapshotCache.clear();
         this.noTreeSnapshotCache.clear();
         Platform.runLater(
@@ -236,9 +307,32 @@ public class TaxonomyProvider
     
        
 
+    /**
+     * Update the taxonomy for a change made without a commit, such as an import. Changes made without a commit are 
+     * not patched into the cached trees, so all cached trees are dropped, and are rebuilt when next requested.
+     */
     @Override
     public void updateTaxonomy(SemanticChronology logicGraphChronology) {
+        LOG.trace("Updating taxonomy for change to {}", () -> logicGraphChronology.toString());
+        invalidatePersistedTrees();
+        this.snapshotCache.clear();
+        this.noTreeSnapshotCache.clear();
+        updateTaxonomyData(logicGraphChronology);
+    }
+
+    /**
+     * Update the taxonomy for a logic graph changed by a commit. The cached trees are patched with the changes 
+     * of the commit once it has been handled, by {@link #handleCommit(CommitRecord)}.
+     *
+     * @param logicGraphChronology the logic graph
+     */
+    void updateTaxonomyForCommit(SemanticChronology logicGraphChronology) {
         LOG.trace("Updating taxonomy for commit to {}", () -> logicGraphChronology.toString());
+        invalidatePersistedTrees();
+        updateTaxonomyData(logicGraphChronology);
+    }
+
+    private void updateTaxonomyData(SemanticChronology logicGraphChronology) {
         try {
             ChronologyUpdate.handleTaxonomyUpdate(logicGraphChronology);
         } catch (Throwable e) {
@@ -269,6 +363,9 @@ public class TaxonomyProvider
             this.isANidSet.add(TermAux.IS_A.getNid());
             this.childOfTypeNidSet.clear();
             this.childOfTypeNidSet.add(TermAux.CHILD_OF.getNid());
+            this.treeSnapshotStore = new TreeSnapshotStore(this.store.getDataStorePath().resolve("taxonomy-snapshots").toFile());
+            this.persistedTreesCurrent.set(true);
+            loadPersistedTrees();
         } catch (final Exception e) {
             LookupService.getService(SystemStatusService.class)
                     .notifyServiceConfigurationFailure("Taxonomy Provider", e);
@@ -293,6 +390,7 @@ public class TaxonomyProvider
             // make sure updates are done prior to allowing other services to stop.
             this.updatePermits.acquireUninterruptibly(MAX_AVAILABLE);
             this.updatePermits.release(MAX_AVAILABLE);
+            writePersistedTrees();
             this.semanticNidsForUnhandledChanges.clear();
             this.pendingUpdateTasks.clear();
             this.snapshotCache.clear();
@@ -300,6 +398,7 @@ public class TaxonomyProvider
             this.refreshListeners.clear();
             this.identifierService = null;
             this.store = null;
+            this.treeSnapshotStore = null;
             this.isANidSet.clear();
             this.childOfTypeNidSet.clear();
             Get.commitService().removeChangeListener(this);
@@ -309,6 +408,78 @@ public class TaxonomyProvider
         LOG.info("BdbTaxonomyProvider stopped");
     }
 
+    /**
+     * Load the trees persisted at the last shutdown that are still current, and rebuild the others in the background, 
+     * so the trees of commonly used coordinates are available without waiting for a build on first request.
+     */
+    private void loadPersistedTrees() {
+        long commitSequence = Get.commitService().getCommitManagerSequence();
+        for (TreeSnapshotStore.PersistedTree persistedTree : this.treeSnapshotStore.getPersistedTrees()) {
+            ManifoldCoordinate mc = persistedTree.getManifoldCoordinate();
+            if (persistedTree.isCurrent(commitSequence)) {
+                LOG.debug("Loading persisted tree for {}", mc);
+                TreeLoadTask treeLoadTask = new TreeLoadTask(persistedTree);
+                if (this.snapshotCache.putIfAbsent(new SnapshotCacheKey(mc), treeLoadTask) == null) {
+                    Get.executor().execute(treeLoadTask);
+                } else {
+                    Get.activeTasks().remove(treeLoadTask);
+                }
+            } else {
+                LOG.debug("Persisted tree for {} is stale, rebuilding", mc);
+                getTaxonomyTree(mc);
+            }
+        }
+    }
+
+    /**
+     * Replace the persisted trees with the trees that are built for the current database. A tree built at an earlier 
+     * commit sequence is not persisted, since changes made without a commit, such as an import, which advances the 
+     * commit sequence, are not patched into the cached trees.
+     */
+    private void writePersistedTrees() {
+        this.treeSnapshotStore.deleteAll();
+        long commitSequence = Get.commitService().getCommitManagerSequence();
+        for (Map.Entry<SnapshotCacheKey, Task<Tree>> entry : this.snapshotCache.entrySet()) {
+            ManifoldCoordinate mc = entry.getKey().manifoldCoordinate;
+            Tree tree = getCompletedTree(entry.getValue());
+            if (tree instanceof HashTreeWithIntArraySets && TreeSnapshotStore.canPersist(mc) 
+                    && getCommitSequence(entry.getValue()) == commitSequence) {
+                try {
+                    this.treeSnapshotStore.write(mc, (HashTreeWithIntArraySets) tree, commitSequence);
+                } catch (IOException ex) {
+                    LOG.error("Unable to persist tree for " + mc, ex);
+                }
+            }
+        }
+    }
+
+    /**
+     * @param treeTask a tree task
+     * @return the commit sequence of the database the tree of the task is built from, or -1 if it is not known
+     */
+    private static long getCommitSequence(Task<Tree> treeTask) {
+        if (treeTask instanceof TreeBuilderTask) {
+            return ((TreeBuilderTask) treeTask).getCommitSequence();
+        }
+        if (treeTask instanceof TreeUpdateTask) {
+            return ((TreeUpdateTask) treeTask).getCommitSequence();
+        }
+        if (treeTask instanceof TreeLoadTask) {
+            return ((TreeLoadTask) treeTask).getCommitSequence();
+        }
+        return -1;
+    }
+
+    /**
+     * Delete the persisted trees when the taxonomy changes, since the commit sequence that marks them stale only 
+     * advances after the change is written. 
+     */
+    private void invalidatePersistedTrees() {
+        if (this.persistedTreesCurrent.getAndSet(false)) {
+            this.treeSnapshotStore.deleteAll();
+        }
+    }
+
     @Override
     public IntStream getAllRelationshipOriginNidsOfType(int destinationId, IntSet typeSequenceSet) {
         throw new UnsupportedOperationException(
@@ -429,8 +600,11 @@ public class TaxonomyProvider
         StampCoordinate stampCoordinate;
         StampCoordinate destinationCoordinate;
         int customSortHash = 0;
+        // Not part of the key, retained so a cached tree can be updated after a commit
+        ManifoldCoordinate manifoldCoordinate;
 
         public SnapshotCacheKey(ManifoldCoordinate mc) {
+            this.manifoldCoordinate = mc;
             this.taxPremiseType = mc.getTaxonomyPremiseType();
             this.stampCoordinate = mc.getStampCoordinate();
             this.destinationCoordinate = mc.getDestinationStampCoordinate();
@@ -480,24 +654,14 @@ public class TaxonomyProvider
         final Task<Tree> treeTask = this.snapshotCache.get(snapshotCacheKey);
 
         if (treeTask != null) {
-            return treeTask;
+            if (!treeTask.isDone() || getCompletedTree(treeTask) != null) {
+                return treeTask;
+            }
+            this.snapshotCache.remove(snapshotCacheKey, treeTask);
         }
 
         LOG.debug("Building tree for {}, cache key {}", mc, snapshotCacheKey.hashCode());
-        IntFunction<int[]> taxonomyDataProvider = new IntFunction<int[]>() {
-            final int assemblageNid = mc.getLogicCoordinate().getConceptAssemblageNid();
-            @Override
-            public int[] apply(int conceptNid) {
-                try {
-                    return store.getTaxonomyData(assemblageNid, conceptNid);
-                } catch (IllegalStateException ex) {
-                    LOG.error(ex.getLocalizedMessage() + " retrieving " + Get.conceptDescriptionText(conceptNid), ex);
-                    return new int[0];
-                }
-            }
-        };
-        
-        TreeBuilderTask treeBuilderTask = new TreeBuilderTask(taxonomyDataProvider, mc);
+        TreeBuilderTask treeBuilderTask = new TreeBuilderTask(getTaxonomyDataProvider(mc), mc);
 
         Task<Tree> previousTask = this.snapshotCache.putIfAbsent(snapshotCacheKey, treeBuilderTask);
 
@@ -511,6 +675,21 @@ public class TaxonomyProvider
         return treeBuilderTask;
     }
 
+    private IntFunction<int[]> getTaxonomyDataProvider(ManifoldCoordinate mc) {
+        return new IntFunction<int[]>() {
+            final int assemblageNid = mc.getLogicCoordinate().getConceptAssemblageNid();
+            @Override
+            public int[] apply(int conceptNid) {
+                try {
+                    return store.getTaxonomyData(assemblageNid, conceptNid);
+                } catch (IllegalStateException ex) {
+                    LOG.error(ex.getLocalizedMessage() + " retrieving " + Get.conceptDescriptionText(conceptNid), ex);
+                    return new int[0];
+                }
+            }
+        };
+    }
+
     @Override
     public Supplier<TreeNodeVisitData> getTreeNodeVisitDataSupplier(int conceptAssemblageNid) {
         return () -> new TreeNodeVisitDataImpl(conceptAssemblageNid);
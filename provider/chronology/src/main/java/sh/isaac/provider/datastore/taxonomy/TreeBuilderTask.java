@@ -57,6 +57,7 @@ import sh.isaac.api.progress.Stoppable;
 import sh.isaac.api.task.TimedTaskWithProgressTracker;
 import sh.isaac.api.tree.Tree;
 import sh.isaac.model.tree.HashTreeBuilder;
+import sh.isaac.model.tree.HashTreeWithIntArraySets;
 
 //~--- classes ----------------------------------------------------------------
 
@@ -71,6 +72,7 @@ public class TreeBuilderTask
    private final IntFunction<int[]>        taxonomyDataProvider;
    private final ManifoldCoordinate        manifoldCoordinate;
    private final int                       conceptAssemblageNid;
+   private final long                      commitSequence = Get.commitService().getCommitManagerSequence();
    private boolean                         stopRequested = false;
    private static final String             stopMessage = "Stop requested during compute";
 
@@ -108,6 +110,14 @@ public class TreeBuilderTask
 
    //~--- methods -------------------------------------------------------------
 
+   /**
+    * @return the commit sequence of the database when the task was created, which the tree is current at, if no 
+    * change is made without a commit while it is in use
+    */
+   public long getCommitSequence() {
+      return this.commitSequence;
+   }
+
    @Override
    protected Tree call()
             throws Exception {
@@ -158,7 +168,10 @@ public class TreeBuilderTask
 
       message = "searching for redundancies and cycles";
 
-      Tree tree = graphBuilder.getSimpleDirectedGraph(this);
+      HashTreeWithIntArraySets tree = graphBuilder.getSimpleDirectedGraph(this);
+
+      message = "building subsumption index";
+      tree.buildSubsumptionIndex();
 
       message = "complete";
       LOG.debug("Tree build completed for {}", this.manifoldCoordinate);
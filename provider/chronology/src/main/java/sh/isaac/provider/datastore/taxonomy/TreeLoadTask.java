@@ -0,0 +1,107 @@
+/* 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ *
+ * You may not use this file except in compliance with the License.
+ *
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Contributions from 2013-2017 where performed either by US government 
+ * employees, or under US Veterans Health Administration contracts. 
+ *
+ * US Veterans Health Administration contributions by government employees
+ * are work of the U.S. Government and are not subject to copyright
+ * protection in the United States. Portions contributed by government 
+ * employees are USGovWork (17USC §105). Not subject to copyright. 
+ * 
+ * Contribution by contractors to the US Veterans Health Administration
+ * during this period are contractually contributed under the
+ * Apache License, Version 2.0.
+ *
+ * See: https://www.usa.gov/government-works
+ * 
+ * Contributions prior to 2013:
+ *
+ * Copyright (C) International Health Terminology Standards Development Organisation.
+ * Licensed under the Apache License, Version 2.0.
+ *
+ */
+
+
+
+package sh.isaac.provider.datastore.taxonomy;
+
+//~--- JDK imports ------------------------------------------------------------
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+//~--- non-JDK imports --------------------------------------------------------
+
+import sh.isaac.api.Get;
+import sh.isaac.api.task.TimedTaskWithProgressTracker;
+import sh.isaac.api.tree.Tree;
+import sh.isaac.model.tree.HashTreeWithIntArraySets;
+
+//~--- classes ----------------------------------------------------------------
+
+/**
+ * Loads a tree persisted by a prior run, in place of building it with a {@link TreeBuilderTask}.
+ *
+ * @author kec
+ */
+public class TreeLoadTask
+        extends TimedTaskWithProgressTracker<Tree> {
+   private static final Logger LOG = LogManager.getLogger();
+
+   private final TreeSnapshotStore.PersistedTree persistedTree;
+
+   //~--- constructors --------------------------------------------------------
+
+   public TreeLoadTask(TreeSnapshotStore.PersistedTree persistedTree) {
+      this.persistedTree = persistedTree;
+      this.updateTitle("Loading " + persistedTree.getManifoldCoordinate().getTaxonomyPremiseType() + " snapshot");
+      setCompleteMessageGenerator(
+          (task) -> {
+             updateMessage(getState() + " in " + getFormattedDuration());
+          });
+      Get.activeTasks()
+         .add(this);
+   }
+
+   //~--- methods -------------------------------------------------------------
+
+   /**
+    * @return the commit sequence of the database the persisted tree was built from
+    */
+   public long getCommitSequence() {
+      return this.persistedTree.getCommitSequence();
+   }
+
+   @Override
+   protected Tree call()
+            throws Exception {
+      try {
+         HashTreeWithIntArraySets tree = this.persistedTree.read();
+
+         tree.buildSubsumptionIndex();
+
+         LOG.debug("Tree load completed for {}", this.persistedTree.getManifoldCoordinate());
+         return tree;
+      } catch (Exception e) {
+         LOG.error("Error in Tree Load task", e);
+         throw e;
+      } finally {
+         Get.activeTasks()
+            .remove(this);
+      }
+   }
+}
@@ -0,0 +1,330 @@
+/* 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ *
+ * You may not use this file except in compliance with the License.
+ *
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Contributions from 2013-2017 where performed either by US government 
+ * employees, or under US Veterans Health Administration contracts. 
+ *
+ * US Veterans Health Administration contributions by government employees
+ * are work of the U.S. Government and are not subject to copyright
+ * protection in the United States. Portions contributed by government 
+ * employees are USGovWork (17USC §105). Not subject to copyright. 
+ * 
+ * Contribution by contractors to the US Veterans Health Administration
+ * during this period are contractually contributed under the
+ * Apache License, Version 2.0.
+ *
+ * See: https://www.usa.gov/government-works
+ * 
+ * Contributions prior to 2013:
+ *
+ * Copyright (C) International Health Terminology Standards Development Organisation.
+ * Licensed under the Apache License, Version 2.0.
+ *
+ */
+
+
+
+package sh.isaac.provider.datastore.taxonomy;
+
+//~--- JDK imports ------------------------------------------------------------
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+//~--- non-JDK imports --------------------------------------------------------
+
+import sh.isaac.api.Get;
+import sh.isaac.api.Status;
+import sh.isaac.api.component.concept.ConceptSpecification;
+import sh.isaac.api.coordinate.LogicCoordinate;
+import sh.isaac.api.coordinate.ManifoldCoordinate;
+import sh.isaac.api.coordinate.PremiseType;
+import sh.isaac.api.coordinate.StampCoordinate;
+import sh.isaac.api.coordinate.StampPrecedence;
+import sh.isaac.api.util.MappedBuffers;
+import sh.isaac.model.coordinate.LogicCoordinateImpl;
+import sh.isaac.model.coordinate.ManifoldCoordinateImpl;
+import sh.isaac.model.coordinate.StampCoordinateImpl;
+import sh.isaac.model.coordinate.StampPositionImpl;
+import sh.isaac.model.tree.HashTreeWithIntArraySets;
+
+//~--- classes ----------------------------------------------------------------
+
+/**
+ * Persists built taxonomy trees, one file per coordinate, so they can be loaded at startup rather than rebuilt. 
+ * Each file holds [int magic][long commit sequence], the coordinate the tree was built for, and the tree as 
+ * written by {@link HashTreeWithIntArraySets#write(java.io.DataOutput)}. A tree is only current if the commit 
+ * sequence in its file matches the commit sequence of the database. 
+ *
+ * Trees for coordinates with a custom sort are not persisted, since the sort cannot be restored.
+ *
+ * @author kec
+ */
+public class TreeSnapshotStore {
+   private static final Logger LOG = LogManager.getLogger();
+   private static final int MAGIC = 0x7A58_0002;
+   private static final String TREE_PREFIX = "tree-";
+   private static final String TEMP_PREFIX = "tmp-";
+
+   private final File directory;
+
+   /**
+    * The persisted trees that are mapped, and not yet read.
+    */
+   private final Set<PersistedTree> mappedTrees = ConcurrentHashMap.newKeySet();
+
+   //~--- constructors --------------------------------------------------------
+
+   public TreeSnapshotStore(File directory) {
+      this.directory = directory;
+   }
+
+   //~--- methods -------------------------------------------------------------
+
+   /**
+    * @param manifoldCoordinate the coordinate of a tree
+    * @return true if a tree for the coordinate can be persisted
+    */
+   public static boolean canPersist(ManifoldCoordinate manifoldCoordinate) {
+      return !manifoldCoordinate.hasCustomTaxonomySort();
+   }
+
+   /**
+    * Delete all persisted trees. Trees that were mapped, but not yet read, are unmapped first, and can no longer be read.
+    */
+   public synchronized void deleteAll() {
+      unmapAll();
+      File[] files = this.directory.listFiles();
+      if (files != null) {
+         for (File file: files) {
+            if (!file.delete()) {
+               LOG.warn("Unable to delete persisted tree {}", file);
+            }
+         }
+      }
+   }
+
+   /**
+    * Write a tree, replacing any tree persisted for the same coordinate. Trees that were mapped, but not yet read, 
+    * are unmapped first, so the file can be replaced, and can no longer be read.
+    *
+    * @param manifoldCoordinate the coordinate the tree was built for
+    * @param tree the tree
+    * @param commitSequence the commit sequence of the database the tree was built from
+    * @throws IOException if the tree cannot be written
+    */
+   public synchronized void write(ManifoldCoordinate manifoldCoordinate, HashTreeWithIntArraySets tree, long commitSequence) throws IOException {
+      unmapAll();
+      this.directory.mkdirs();
+      String fileName = TREE_PREFIX + manifoldCoordinate.getTaxonomyPremiseType() + "-" 
+            + manifoldCoordinate.getStampCoordinateUuid() + "-" 
+            + manifoldCoordinate.getDestinationStampCoordinate().getStampCoordinateUuid();
+      File file = new File(this.directory, fileName);
+      File tempFile = new File(this.directory, TEMP_PREFIX + fileName);
+      try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tempFile)))) {
+         out.writeInt(MAGIC);
+         out.writeLong(commitSequence);
+         out.writeInt(manifoldCoordinate.getTaxonomyPremiseType().ordinal());
+         writeStampCoordinate(out, manifoldCoordinate.getStampCoordinate());
+         writeStampCoordinate(out, manifoldCoordinate.getDestinationStampCoordinate());
+         LogicCoordinate logicCoordinate = manifoldCoordinate.getLogicCoordinate();
+         out.writeInt(logicCoordinate.getStatedAssemblageNid());
+         out.writeInt(logicCoordinate.getInferredAssemblageNid());
+         out.writeInt(logicCoordinate.getDescriptionLogicProfileNid());
+         out.writeInt(logicCoordinate.getClassifierNid());
+         out.writeInt(logicCoordinate.getConceptAssemblageNid());
+         tree.write(out);
+      }
+      Files.move(tempFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+   }
+
+   /**
+    * Map each persisted tree, and read the coordinate it was built for. The trees themselves are read 
+    * by {@link PersistedTree#read()}, which unmaps the tree.
+    *
+    * @return the persisted trees
+    */
+   public synchronized List<PersistedTree> getPersistedTrees() {
+      List<PersistedTree> persistedTrees = new ArrayList<>();
+      File[] files = this.directory.listFiles((dir, name) -> name.startsWith(TREE_PREFIX));
+      if (files != null) {
+         for (File file: files) {
+            try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+               MappedByteBuffer mapping = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+               ByteBuffer buffer = mapping.duplicate();
+               if (buffer.getInt() != MAGIC) {
+                  LOG.warn("Ignoring persisted tree with unknown format: {}", file);
+                  MappedBuffers.unmap(mapping);
+                  continue;
+               }
+               long commitSequence = buffer.getLong();
+               PremiseType premiseType = PremiseType.values()[buffer.getInt()];
+               StampCoordinate stampCoordinate = readStampCoordinate(buffer);
+               StampCoordinate destinationStampCoordinate = readStampCoordinate(buffer);
+               LogicCoordinate logicCoordinate = new LogicCoordinateImpl(buffer.getInt(), buffer.getInt(), 
+                     buffer.getInt(), buffer.getInt(), buffer.getInt());
+               ManifoldCoordinate manifoldCoordinate = new ManifoldCoordinateImpl(premiseType, stampCoordinate, 
+                     destinationStampCoordinate, 
+                     Get.configurationService().getUserConfiguration(Optional.empty()).getLanguageCoordinate(), 
+                     logicCoordinate);
+               PersistedTree persistedTree = new PersistedTree(manifoldCoordinate, commitSequence, mapping, buffer.position());
+               this.mappedTrees.add(persistedTree);
+               persistedTrees.add(persistedTree);
+            } catch (IOException | RuntimeException ex) {
+               LOG.warn("Unable to read persisted tree " + file, ex);
+            }
+         }
+      }
+      return persistedTrees;
+   }
+
+   private void unmapAll() {
+      for (PersistedTree persistedTree: this.mappedTrees) {
+         persistedTree.unmap();
+      }
+   }
+
+   private static void writeStampCoordinate(DataOutputStream out, StampCoordinate stampCoordinate) throws IOException {
+      out.writeInt(stampCoordinate.getStampPrecedence().ordinal());
+      out.writeLong(stampCoordinate.getStampPosition().getTime());
+      out.writeInt(stampCoordinate.getStampPosition().getStampPathSpecification().getNid());
+      out.writeInt(stampCoordinate.getAllowedStates().size());
+      for (Status status: stampCoordinate.getAllowedStates()) {
+         out.writeInt(status.ordinal());
+      }
+      writeNids(out, stampCoordinate.getAuthorSpecifications());
+      writeNids(out, stampCoordinate.getModuleSpecifications());
+      writeNids(out, stampCoordinate.getModulePreferenceOrderForVersions());
+   }
+
+   private static void writeNids(DataOutputStream out, Collection<ConceptSpecification> specifications) throws IOException {
+      out.writeInt(specifications.size());
+      for (ConceptSpecification specification: specifications) {
+         out.writeInt(specification.getNid());
+      }
+   }
+
+   private static StampCoordinate readStampCoordinate(ByteBuffer buffer) {
+      StampPrecedence precedence = StampPrecedence.values()[buffer.getInt()];
+      long time = buffer.getLong();
+      int pathNid = buffer.getInt();
+      EnumSet<Status> allowedStates = EnumSet.noneOf(Status.class);
+      int stateCount = buffer.getInt();
+      for (int i = 0; i < stateCount; i++) {
+         allowedStates.add(Status.values()[buffer.getInt()]);
+      }
+      Set<ConceptSpecification> authors = new HashSet<>(readSpecifications(buffer));
+      Set<ConceptSpecification> modules = new HashSet<>(readSpecifications(buffer));
+      List<ConceptSpecification> modulePriorityList = readSpecifications(buffer);
+      return new StampCoordinateImpl(precedence, new StampPositionImpl(time, pathNid), authors, modules, 
+            modulePriorityList, allowedStates);
+   }
+
+   private static List<ConceptSpecification> readSpecifications(ByteBuffer buffer) {
+      int count = buffer.getInt();
+      List<ConceptSpecification> specifications = new ArrayList<>(count);
+      for (int i = 0; i < count; i++) {
+         specifications.add(Get.conceptSpecification(buffer.getInt()));
+      }
+      return specifications;
+   }
+
+   //~--- inner classes -------------------------------------------------------
+
+   /**
+    * A tree persisted by a prior run, mapped but not yet read.
+    */
+   public class PersistedTree {
+      private final ManifoldCoordinate manifoldCoordinate;
+      private final long commitSequence;
+      private final int treeOffset;
+
+      /**
+       * The mapping of the file, null once the tree is read, or the file is deleted or replaced. Guarded by this tree.
+       */
+      private ByteBuffer mapping;
+
+      private PersistedTree(ManifoldCoordinate manifoldCoordinate, long commitSequence, ByteBuffer mapping, int treeOffset) {
+         this.manifoldCoordinate = manifoldCoordinate;
+         this.commitSequence = commitSequence;
+         this.mapping = mapping;
+         this.treeOffset = treeOffset;
+      }
+
+      public ManifoldCoordinate getManifoldCoordinate() {
+         return manifoldCoordinate;
+      }
+
+      public long getCommitSequence() {
+         return commitSequence;
+      }
+
+      /**
+       * @param commitSequence the commit sequence of the database
+       * @return true if the tree was built from the database at the commit sequence
+       */
+      public boolean isCurrent(long commitSequence) {
+         return this.commitSequence == commitSequence;
+      }
+
+      /**
+       * Read the tree, and unmap it, since the tree holds no reference to the mapping.
+       *
+       * @return the tree
+       * @throws IllegalStateException if the persisted tree was deleted or replaced before it was read
+       */
+      public synchronized HashTreeWithIntArraySets read() {
+         if (this.mapping == null) {
+            throw new IllegalStateException("Persisted tree for " + this.manifoldCoordinate + " was removed before it was read");
+         }
+         try {
+            ByteBuffer treeBuffer = this.mapping.duplicate();
+            treeBuffer.position(this.treeOffset);
+            return HashTreeWithIntArraySets.read(treeBuffer.slice(), this.manifoldCoordinate);
+         } finally {
+            unmap();
+         }
+      }
+
+      private synchronized void unmap() {
+         if (this.mapping != null) {
+            MappedBuffers.unmap(this.mapping);
+            this.mapping = null;
+            TreeSnapshotStore.this.mappedTrees.remove(this);
+         }
+      }
+   }
+}
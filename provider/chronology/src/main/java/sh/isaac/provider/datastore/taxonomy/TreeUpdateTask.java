@@ -0,0 +1,130 @@
+/* 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ *
+ * You may not use this file except in compliance with the License.
+ *
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Contributions from 2013-2017 where performed either by US government 
+ * employees, or under US Veterans Health Administration contracts. 
+ *
+ * US Veterans Health Administration contributions by government employees
+ * are work of the U.S. Government and are not subject to copyright
+ * protection in the United States. Portions contributed by government 
+ * employees are USGovWork (17USC §105). Not subject to copyright. 
+ * 
+ * Contribution by contractors to the US Veterans Health Administration
+ * during this period are contractually contributed under the
+ * Apache License, Version 2.0.
+ *
+ * See: https://www.usa.gov/government-works
+ * 
+ * Contributions prior to 2013:
+ *
+ * Copyright (C) International Health Terminology Standards Development Organisation.
+ * Licensed under the Apache License, Version 2.0.
+ *
+ */
+
+
+
+package sh.isaac.provider.datastore.taxonomy;
+
+//~--- JDK imports ------------------------------------------------------------
+
+import java.util.function.IntFunction;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+//~--- non-JDK imports --------------------------------------------------------
+
+import sh.isaac.api.Get;
+import sh.isaac.api.coordinate.ManifoldCoordinate;
+import sh.isaac.api.task.TimedTaskWithProgressTracker;
+import sh.isaac.api.tree.Tree;
+import sh.isaac.model.taxonomy.GraphCollector;
+import sh.isaac.model.tree.HashTreeBuilder;
+import sh.isaac.model.tree.HashTreeWithIntArraySets;
+
+//~--- classes ----------------------------------------------------------------
+
+/**
+ * Produces a new version of a previously built tree, with the parents of the concepts changed
+ * by a commit replaced, rather than rebuilding the tree from all concepts of the assemblage.
+ * The previous tree is not altered, so snapshots that hold it remain consistent.
+ *
+ * @author kec
+ */
+public class TreeUpdateTask
+        extends TimedTaskWithProgressTracker<Tree> {
+   private static final Logger LOG = LogManager.getLogger();
+
+   private final HashTreeWithIntArraySets previousTree;
+   private final int[]                    changedConceptNids;
+   private final IntFunction<int[]>       taxonomyDataProvider;
+   private final ManifoldCoordinate       manifoldCoordinate;
+   private final long                     commitSequence = Get.commitService().getCommitManagerSequence();
+
+   //~--- constructors --------------------------------------------------------
+
+   public TreeUpdateTask(HashTreeWithIntArraySets previousTree,
+                         int[] changedConceptNids,
+                         IntFunction<int[]> taxonomyDataProvider,
+                         ManifoldCoordinate manifoldCoordinate) {
+      this.previousTree         = previousTree;
+      this.changedConceptNids   = changedConceptNids;
+      this.taxonomyDataProvider = taxonomyDataProvider;
+      this.manifoldCoordinate   = manifoldCoordinate;
+      this.addToTotalWork(changedConceptNids.length);
+      this.updateTitle("Updating " + manifoldCoordinate.getTaxonomyPremiseType() + " snapshot");
+      setCompleteMessageGenerator(
+          (task) -> {
+             updateMessage(getState() + " in " + getFormattedDuration());
+          });
+      Get.activeTasks()
+         .add(this);
+   }
+
+   //~--- methods -------------------------------------------------------------
+
+   /**
+    * @return the commit sequence of the database when the task was created, which the tree is current at, if no 
+    * change is made without a commit while it is in use
+    */
+   public long getCommitSequence() {
+      return this.commitSequence;
+   }
+
+   @Override
+   protected Tree call()
+            throws Exception {
+      try {
+         GraphCollector collector = new GraphCollector(this.taxonomyDataProvider, this.manifoldCoordinate);
+         HashTreeWithIntArraySets tree = new HashTreeBuilder(this.previousTree).getUpdatedDirectedGraph(this.changedConceptNids,
+                                                                                    (conceptNid) -> {
+                  completedUnitOfWork();
+                  return collector.getParentNids(conceptNid);
+               });
+
+         tree.buildSubsumptionIndex();
+         LOG.debug("Tree update of {} concepts completed for {}", this.changedConceptNids.length, this.manifoldCoordinate);
+         return tree;
+      } catch (Exception e) {
+         LOG.error("Error in Tree Update task", e);
+         throw e;
+      } finally {
+         Get.activeTasks()
+            .remove(this);
+      }
+   }
+}
@@ -136,7 +136,7 @@ public class UpdateTaxonomyAfterCommitTask
                     if (this.commitRecord.getSemanticNidsInCommit()
                             .contains(semanticNid)) {
                         this.updateMessage("Updating taxonomy for: " + semanticNid);
-                        this.taxonomyProvider.updateTaxonomy((SemanticChronology) Get.assemblageService()
+                        this.taxonomyProvider.updateTaxonomyForCommit((SemanticChronology) Get.assemblageService()
                                 .getSemanticChronology(semanticNid));
                         this.semanticNidsForUnhandledChanges.remove(semanticNid);
                     }
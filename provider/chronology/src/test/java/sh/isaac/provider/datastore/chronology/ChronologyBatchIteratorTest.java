@@ -0,0 +1,77 @@
+/*
+ * Copyright 2019 Organizations participating in ISAAC, ISAAC's KOMET, and SOLOR development include the
+         US Veterans Health Administration, OSHERA, and the Health Services Platform Consortium..
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package sh.isaac.provider.datastore.chronology;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.IntStream;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+import sh.isaac.api.collections.NidSet;
+
+/**
+ * Tests of the nid batching used by the chronology streams.
+ *
+ * @author kec
+ */
+public class ChronologyBatchIteratorTest {
+
+    @Test
+    public void testSetSizesAroundTheBatchSize() {
+        int batchSize = ChronologyProvider.BULK_READ_SIZE;
+        for (int size : new int[] {0, 1, batchSize - 1, batchSize, batchSize + 1, 2 * batchSize + 3}) {
+            NidSet nids = NidSet.of(IntStream.range(0, size).map(i -> Integer.MIN_VALUE + 1 + i * 3));
+            List<int[]> batches = new ArrayList<>();
+            Iterator<Integer> iterator = ChronologyProvider.batchIterator(nids.stream().iterator(), batchSize,
+                    (batchNids, consumer) -> {
+                        batches.add(batchNids);
+                        for (int nid : batchNids) {
+                            consumer.accept(nid);
+                        }
+                    });
+
+            List<Integer> read = new ArrayList<>();
+            iterator.forEachRemaining(read::add);
+
+            Assert.assertEquals(read.size(), size, "size " + size);
+            Assert.assertEquals(read.stream().mapToInt(Integer::intValue).toArray(), nids.asArray(), "size " + size);
+            Assert.assertEquals(batches.size(), (size + batchSize - 1) / batchSize, "size " + size);
+            batches.forEach(batch -> Assert.assertTrue(batch.length > 0 && batch.length <= batchSize));
+            Assert.assertFalse(iterator.hasNext());
+        }
+    }
+
+    @Test
+    public void testSkippedNids() {
+        NidSet nids = NidSet.of(IntStream.range(0, ChronologyProvider.BULK_READ_SIZE + 10).map(i -> Integer.MIN_VALUE + 1 + i));
+        Iterator<Integer> iterator = ChronologyProvider.batchIterator(nids.stream().iterator(),
+                ChronologyProvider.BULK_READ_SIZE, (batchNids, consumer) -> {
+                    for (int nid : batchNids) {
+                        if ((nid & 1) == 0) {
+                            consumer.accept(nid);
+                        }
+                    }
+                });
+        int count = 0;
+        while (iterator.hasNext()) {
+            Assert.assertEquals(iterator.next() & 1, 0);
+            count++;
+        }
+        Assert.assertEquals(count, (ChronologyProvider.BULK_READ_SIZE + 10) / 2);
+    }
+}
@@ -37,16 +37,21 @@
 package sh.isaac.provider.commit;
 
 //~--- JDK imports ------------------------------------------------------------
-import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.nio.file.DirectoryStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
-import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.ExecutionException;
+import java.util.stream.Collectors;
 
 import javax.annotation.PostConstruct;
 import javax.annotation.PreDestroy;
@@ -68,9 +73,16 @@ import sh.isaac.api.chronicle.Version;
 import sh.isaac.api.commit.CommitService;
 import sh.isaac.api.component.semantic.SemanticChronology;
 import sh.isaac.api.component.semantic.version.StringVersion;
+import sh.isaac.api.externalizable.BinaryDataReaderService;
+import sh.isaac.api.externalizable.ByteArrayDataBuffer;
+import sh.isaac.api.externalizable.IsaacExternalizable;
+import sh.isaac.api.externalizable.IsaacObjectType;
 import sh.isaac.api.metacontent.MetaContentService;
 import sh.isaac.api.util.metainf.MetaInfReader;
+import sh.isaac.model.ChronologyImpl;
+import sh.isaac.model.concept.ConceptChronologyImpl;
 import sh.isaac.model.configuration.StampCoordinates;
+import sh.isaac.model.semantic.SemanticChronologyImpl;
 
 //~--- classes ----------------------------------------------------------------
 /**
@@ -109,6 +121,11 @@ public class ChangeSetLoadProvider
      */
     private static final String MAVEN_ARTIFACT_IDENTITY = "dbMavenArtifactIdentity.txt";
 
+    /**
+     * The most bytes of change set files decoded and merged in memory, before they are written and checkpointed.
+     */
+    private static final long REPLAY_BATCH_BYTES = 64L * 1024 * 1024;
+
     //~--- fields --------------------------------------------------------------
     /**
      * The changeset path.
@@ -120,6 +137,11 @@ public class ChangeSetLoadProvider
      */
     private ConcurrentMap<String, Boolean> processedChangesets;
 
+    /**
+     * The store of the processed changesets.
+     */
+    private MetaContentService metaContentService;
+
     //~--- constructors --------------------------------------------------------
     /**
      * Instantiates a new change set load provider.
@@ -132,68 +154,178 @@ public class ChangeSetLoadProvider
     /**
      * Read changeset files.
      *
-     * @return the int
+     * The files that were not processed yet are replayed in batches. The files of a batch are decoded in parallel, and
+     * the chronologies they hold are merged per nid, so that each nid is written once per batch, no matter how many of
+     * the files have a copy of it. Once a batch is written, post processed and synced, its files are checkpointed as
+     * processed, so a replay that is interrupted resumes with the first batch not checkpointed. If a batch can't be
+     * synced, the replay stops there, so no later batch is checkpointed ahead of it. Replaying a batch again is
+     * harmless, as the datastore merges the versions it already has.
+     *
+     * @return the number of files loaded
      * @throws IOException Signals that an I/O exception has occurred.
      */
     @Override
     public int readChangesetFiles()
             throws IOException {
-        final AtomicInteger loaded = new AtomicInteger();
-        final AtomicInteger skipped = new AtomicInteger();
+        int skipped = 0;
 
         LOG.debug("Looking for .ibdf file in {}.", this.changesetPath.toAbsolutePath());
 
-        final CommitService commitService = Get.commitService();
-
-        ArrayList<String> files = new ArrayList<>();
+        final ArrayList<Path> files = new ArrayList<>();
         try (DirectoryStream<Path> stream = Files.newDirectoryStream(this.changesetPath, path -> path.toFile().isFile()
                 && path.toString().endsWith(".ibdf")
                 && path.toFile().length() > 0)) {
-            stream.forEach(
-                    path -> {
-                        LOG.debug("File {}", path.toAbsolutePath());
-                        files.add(path.toString());
-                        try {
-                            if ((this.processedChangesets != null)
-                            && this.processedChangesets.containsKey(path.getFileName().toString())) {
-                                skipped.incrementAndGet();
-                                LOG.debug("Skipping already processed changeset file");
-                            } else {
-                                loaded.incrementAndGet();
-                                LOG.debug("Importing changeset file");
-                                Get.binaryDataReader(path)
-                                        .getStream()
-                                        .forEach(
-                                                o -> {
-                                                    try {
-                                                        commitService.importNoChecks(o);
-                                                    } catch (Throwable e) {
-                                                        LOG.error("Error importing: "
-                                                                + path.toAbsolutePath() + "\n" + o + "\n", e);
-                                                    }
-                                                });
-                                if (this.processedChangesets != null) {
-                                    this.processedChangesets.put(path.getFileName()
-                                            .toString(), true);
-                                }
+            for (Path path : stream) {
+                LOG.debug("File {}", path.toAbsolutePath());
+                if ((this.processedChangesets != null)
+                        && this.processedChangesets.containsKey(path.getFileName().toString())) {
+                    skipped++;
+                    LOG.debug("Skipping already processed changeset file");
+                } else {
+                    files.add(path);
+                }
+            }
+        }
+        Collections.sort(files);
+
+        if (files.isEmpty()) {
+            // Each batch post processes its own imports, but anything imported without checks before startup still needs it
+            postProcess(files);
+        }
+        int batchStart = 0;
+        int loaded = 0;
+        while (batchStart < files.size()) {
+            int batchEnd = batchStart + 1;
+            long batchBytes = files.get(batchStart).toFile().length();
+            while (batchEnd < files.size() && batchBytes + files.get(batchEnd).toFile().length() <= REPLAY_BATCH_BYTES) {
+                batchBytes += files.get(batchEnd).toFile().length();
+                batchEnd++;
+            }
+            if (!replay(files.subList(batchStart, batchEnd))) {
+                LOG.error("Stopped the change set replay at {}; {} files will be replayed at the next start",
+                        files.get(batchStart), files.size() - batchStart);
+                break;
+            }
+            loaded = batchEnd;
+            batchStart = batchEnd;
+        }
+        LOG.info(
+                "Finished Change Set Load Provider load.  Loaded {}, Skipped {} because they were previously processed",
+                loaded,
+                skipped);
+        return loaded;
+    }
+
+    /**
+     * Decode, merge, write and checkpoint a batch of change set files.
+     *
+     * @param files the files of the batch
+     * @return false if the datastore could not be synced, so the batch was not checkpointed
+     */
+    private boolean replay(List<Path> files) {
+        LOG.debug("Importing changeset files {}", files);
+        final CommitService commitService = Get.commitService();
+        final ConcurrentHashMap<Integer, ChronologyImpl> chronologies = new ConcurrentHashMap<>();
+
+        // The chronologies are merged as they are decoded, and the stamp aliases and comments of each file are kept in
+        // the order they were written, since a later comment on a stamp replaces an earlier one
+        final List<List<IsaacExternalizable>> stampData = files.parallelStream().map(path -> {
+            try (BinaryDataReaderService reader = Get.binaryDataReader(path)) {
+                return reader.getParallelStream().filter(o -> {
+                    try {
+                        if (o instanceof ChronologyImpl) {
+                            final ChronologyImpl chronology = (ChronologyImpl) o;
+                            if (chronology.removeUncommittedVersions()) {
+                                LOG.warn("Removed uncommitted versions on import from: " + chronology);
                             }
-                        } catch (final FileNotFoundException e) {
-                            LOG.error("Change Set Load Provider failed to load file {}", path.toAbsolutePath());
-                            throw new RuntimeException(e);
+                            chronologies.merge(chronology.getNid(), chronology, ChangeSetLoadProvider::mergeChronologies);
+                            return false;
                         }
-                    });
+                        return true;
+                    } catch (Throwable e) {
+                        LOG.error("Error importing: " + path.toAbsolutePath() + "\n" + o + "\n", e);
+                        return false;
+                    }
+                }).collect(Collectors.toList());
+            } catch (final Exception e) {
+                LOG.error("Change Set Load Provider failed to load file {}", path.toAbsolutePath());
+                throw new RuntimeException(e);
+            }
+        }).collect(Collectors.toList());
+
+        // Applied in the sorted order of the files
+        stampData.forEach(fileStampData -> fileStampData.forEach(commitService::importNoChecks));
+        chronologies.values().parallelStream().forEach(chronology -> {
             try {
-                commitService.postProcessImportNoChecks();
+                commitService.importNoChecks(chronology);
             } catch (Throwable e) {
-                LOG.error("Error post processing: " + files, e);
+                LOG.error("Error importing: " + files + "\n" + chronology + "\n", e);
             }
+        });
+        LOG.debug("Wrote {} merged chronologies from {} changeset files", chronologies.size(), files.size());
 
+        postProcess(files);
+
+        if (this.processedChangesets != null) {
+            try {
+                Get.dataStore().sync().get();
+            } catch (InterruptedException | ExecutionException e) {
+                LOG.error("Error syncing the datastore after importing: " + files, e);
+                return false;
+            }
+            for (Path path : files) {
+                this.processedChangesets.put(path.getFileName().toString(), true);
+            }
+            this.metaContentService.commit();
         }
-        LOG.info(
-                "Finished Change Set Load Provider load.  Loaded {}, Skipped {} because they were previously processed",
-                loaded.get(),
-                skipped.get());
-        return loaded.get();
+        return true;
+    }
+
+    /**
+     * Update the taxonomy and indexes for the imported semantics.
+     *
+     * @param files the files they were imported from, for the log
+     */
+    private void postProcess(List<Path> files) {
+        try {
+            Get.commitService().postProcessImportNoChecks();
+        } catch (Throwable e) {
+            LOG.error("Error post processing: " + files, e);
+        }
+    }
+
+    /**
+     * Merge two copies of a chronology, from different change set files, into one, the same way the datastore merges a
+     * chronology it writes with the copy it has: the chronology data with
+     * {@link ChronologyImpl#mergeChronologyData(byte[], byte[])}, and the versions, once each.
+     *
+     * @param one a copy of the chronology
+     * @param two another copy of the chronology, with the same nid
+     * @return the merged chronology
+     */
+    private static ChronologyImpl mergeChronologies(ChronologyImpl one, ChronologyImpl two) {
+        if (one.getIsaacObjectType() != two.getIsaacObjectType()) {
+            throw new IllegalStateException("Can't merge a " + one.getIsaacObjectType() + " with a " + two.getIsaacObjectType()
+                    + " for nid " + one.getNid());
+        }
+        final ByteArrayDataBuffer data = new ByteArrayDataBuffer();
+        data.put(ChronologyImpl.mergeChronologyData(one.getChronologyDataToWrite(), two.getChronologyDataToWrite()));
+
+        final HashSet<ByteBuffer> versions = new HashSet<>();
+        for (ChronologyImpl chronology : new ChronologyImpl[]{one, two}) {
+            for (byte[] version : chronology.getVersionDataToWrite()) {
+                if (versions.add(ByteBuffer.wrap(version))) {
+                    data.put(version);
+                }
+            }
+        }
+        data.trimToSize();
+        data.flip();
+        one.getIsaacObjectType().readAndValidateHeader(data);
+        if (one.getIsaacObjectType() == IsaacObjectType.CONCEPT) {
+            return ConceptChronologyImpl.make(data);
+        }
+        return SemanticChronologyImpl.make(data);
     }
 
     /**
@@ -274,6 +406,7 @@ public class ChangeSetLoadProvider
             if (mcs == null) {
                 LOG.warn("No implemantation of a MetaContentService is available, this will lead to reprocessing of all changeset files on each startup");
             }
+            this.metaContentService = mcs;
             this.processedChangesets = (mcs == null) ? null : mcs.getChangesetStore();
 
             readChangesetFiles();
@@ -347,6 +480,7 @@ public class ChangeSetLoadProvider
 
         UUID semanticDbId = readSemanticDbId();
         this.processedChangesets = null;
+        this.metaContentService = null;
         if (semanticDbId == null) {
             semanticDbId = readSemanticDbId();
 
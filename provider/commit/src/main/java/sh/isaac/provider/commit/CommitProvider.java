@@ -678,6 +678,11 @@ public class CommitProvider
                             " in deferred set: " + nid + " UUIDs: " + Arrays.toString(Get.identifierService().getUuidArrayForNid(nid)));
                 }
             }
+            // The import changed the database without a commit, so advance the sequence that state derived from 
+            // the database, such as persisted taxonomy trees, is checked against.
+            if (!nids.isEmpty()) {
+                incrementAndGetSequence();
+            }
             if (Get.configurationService().getGlobalDatastoreConfiguration().enableLuceneIndexes()) {
                 ArrayList<Future<Long>> futures = new ArrayList<>();
                 List<IndexBuilderService> indexers = Get.services(IndexBuilderService.class);
@@ -775,11 +780,15 @@ public class CommitProvider
     }
 
     /**
-     * Handle commit notification.
+     * Handle commit notification. The stamps and changes of the commit are forced to storage before the listeners
+     * are told of it, so a commit is not reported complete until it would survive a crash.
      *
      * @param commitRecord the commit record
      */
     public void handleCommitNotification(CommitRecord commitRecord) {
+        // Stamps first, so a recovered chronology never refers to a stamp that was lost.
+        Get.stampService().forceCommittedStamps();
+        Get.dataStore().forceChanges();
         this.changeListeners.forEach((listenerRef) -> {
             final ChronologyChangeListener listener = listenerRef.get();
 
@@ -0,0 +1,87 @@
+/*
+ * Copyright 2019 Organizations participating in ISAAC, ISAAC's KOMET, and SOLOR development include the
+         US Veterans Health Administration, OSHERA, and the Health Services Platform Consortium..
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package sh.isaac.provider.datastore.cache;
+
+import com.github.benmanes.caffeine.cache.Weigher;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * A size bounded cache, where the size of each entry is its estimated weight in bytes.
+ *
+ * @author kec
+ * @param <K> the key type
+ * @param <V> the value type
+ */
+public interface BoundedCache<K, V> {
+
+    /**
+     * @return the cached value, or null if the key is not cached. Counts a hit or a miss.
+     */
+    V getIfPresent(K key);
+
+    /**
+     * @return the cached value, or the value computed by the loader, which is cached if it is not null, and the key
+     * was not written while it was computed. Counts a hit or a miss.
+     */
+    V get(K key, Function<? super K, ? extends V> loader);
+
+    void put(K key, V value);
+
+    /**
+     * Take before a value is read from the backing store, and pass to {@link #putIfUnchanged(Object, Object, long)}.
+     *
+     * @return the write stamp of the key
+     */
+    long getWriteStamp(K key);
+
+    /**
+     * Cache a value read from the backing store, unless the key was put, updated or invalidated since the write stamp
+     * was taken, in which case the value may be stale. A value already cached is kept.
+     */
+    void putIfUnchanged(K key, V value, long writeStamp);
+
+    /**
+     * Update the value only if the key is already cached. If the function returns null, the key is removed.
+     */
+    void computeIfPresent(K key, BiFunction<? super K, ? super V, ? extends V> remappingFunction);
+
+    void invalidate(K key);
+
+    void invalidateAll();
+
+    CacheStatistics getStatistics();
+
+    /**
+     * Visits every cached entry, without counting hits or misses, or changing the order of eviction.
+     *
+     * @return the estimated bytes of the cached entries with keys that pass the filter
+     */
+    long getWeightedSize(Predicate<? super K> keyFilter);
+
+    static <K, V> BoundedCache<K, V> create(String name, CachePolicy policy, long maximumBytes, Weigher<K, V> weigher) {
+        switch (policy) {
+            case LRU:
+                return new LruBoundedCache<>(name, maximumBytes, weigher);
+            case W_TINY_LFU:
+                return new CaffeineBoundedCache<>(name, maximumBytes, weigher);
+            default:
+                throw new UnsupportedOperationException("Can't handle: " + policy);
+        }
+    }
+}
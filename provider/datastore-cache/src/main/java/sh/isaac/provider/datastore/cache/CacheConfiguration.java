@@ -0,0 +1,110 @@
+/*
+ * Copyright 2019 Organizations participating in ISAAC, ISAAC's KOMET, and SOLOR development include the
+         US Veterans Health Administration, OSHERA, and the Health Services Platform Consortium..
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package sh.isaac.provider.datastore.cache;
+
+import sh.isaac.api.constants.SystemPropertyConstants;
+
+/**
+ * The policy and byte limits of the caches of a {@link CacheProvider}. Unless overridden by the
+ * DATA_STORE_CACHE_* properties in {@link SystemPropertyConstants}, the limits are fractions of the maximum heap.
+ *
+ * @author kec
+ */
+public class CacheConfiguration {
+
+    private CachePolicy policy = CachePolicy.W_TINY_LFU;
+    private long chronologyBytes;
+    private long taxonomyBytes;
+    private long semanticNidsBytes;
+    private long uuidBytes;
+
+    public CacheConfiguration() {
+        long maxMemory = Runtime.getRuntime().maxMemory();
+        this.chronologyBytes = maxMemory / 4;
+        this.taxonomyBytes = maxMemory / 16;
+        this.semanticNidsBytes = maxMemory / 32;
+        this.uuidBytes = maxMemory / 32;
+    }
+
+    /**
+     * @return the default configuration, with any overrides specified as system properties.
+     */
+    public static CacheConfiguration fromSystemProperties() {
+        CacheConfiguration configuration = new CacheConfiguration();
+        String policy = System.getProperty(SystemPropertyConstants.DATA_STORE_CACHE_POLICY);
+        if (policy != null) {
+            configuration.setPolicy(CachePolicy.valueOf(policy.trim().toUpperCase()));
+        }
+        configuration.setChronologyBytes(Long.getLong(SystemPropertyConstants.DATA_STORE_CACHE_CHRONOLOGY_BYTES, configuration.getChronologyBytes()));
+        configuration.setTaxonomyBytes(Long.getLong(SystemPropertyConstants.DATA_STORE_CACHE_TAXONOMY_BYTES, configuration.getTaxonomyBytes()));
+        configuration.setSemanticNidsBytes(Long.getLong(SystemPropertyConstants.DATA_STORE_CACHE_SEMANTIC_NIDS_BYTES, configuration.getSemanticNidsBytes()));
+        configuration.setUuidBytes(Long.getLong(SystemPropertyConstants.DATA_STORE_CACHE_UUID_BYTES, configuration.getUuidBytes()));
+        return configuration;
+    }
+
+    public CachePolicy getPolicy() {
+        return policy;
+    }
+
+    public void setPolicy(CachePolicy policy) {
+        this.policy = policy;
+    }
+
+    /**
+     * @return the limit of the cache of chronology version data
+     */
+    public long getChronologyBytes() {
+        return chronologyBytes;
+    }
+
+    public void setChronologyBytes(long chronologyBytes) {
+        this.chronologyBytes = chronologyBytes;
+    }
+
+    /**
+     * @return the limit of the cache of taxonomy records
+     */
+    public long getTaxonomyBytes() {
+        return taxonomyBytes;
+    }
+
+    public void setTaxonomyBytes(long taxonomyBytes) {
+        this.taxonomyBytes = taxonomyBytes;
+    }
+
+    /**
+     * @return the limit of the cache of semantic nids for each component
+     */
+    public long getSemanticNidsBytes() {
+        return semanticNidsBytes;
+    }
+
+    public void setSemanticNidsBytes(long semanticNidsBytes) {
+        this.semanticNidsBytes = semanticNidsBytes;
+    }
+
+    /**
+     * @return the limit of each of the uuid to nid, and nid to uuid caches
+     */
+    public long getUuidBytes() {
+        return uuidBytes;
+    }
+
+    public void setUuidBytes(long uuidBytes) {
+        this.uuidBytes = uuidBytes;
+    }
+}
@@ -0,0 +1,29 @@
+/*
+ * Copyright 2019 Organizations participating in ISAAC, ISAAC's KOMET, and SOLOR development include the
+         US Veterans Health Administration, OSHERA, and the Health Services Platform Consortium..
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package sh.isaac.provider.datastore.cache;
+
+/**
+ * The eviction policy of a {@link BoundedCache}.
+ *
+ * @author kec
+ */
+public enum CachePolicy {
+    /** Window TinyLFU, as implemented by Caffeine. Resists scans, such as a full stream over an assemblage. */
+    W_TINY_LFU,
+    /** Least recently used. */
+    LRU;
+}
@@ -6,58 +6,85 @@ import sh.isaac.api.Get;
 import sh.isaac.api.IdentifierService;
 import sh.isaac.api.chronicle.VersionType;
 import sh.isaac.api.collections.NidSet;
-import sh.isaac.api.collections.UuidIntMapMapMemoryBased;
-import sh.isaac.api.collections.uuidnidmap.UuidToIntMap;
 import sh.isaac.api.datastore.ChronologySerializeable;
 import sh.isaac.api.externalizable.ByteArrayDataBuffer;
 import sh.isaac.api.externalizable.DataWriteListener;
 import sh.isaac.api.externalizable.IsaacObjectType;
 import sh.isaac.api.util.time.DurationUtil;
-import sh.isaac.model.ChronologyImpl;
 import sh.isaac.model.DataStoreSubService;
 import sh.isaac.model.ModelGet;
 import sh.isaac.model.collections.*;
-import sh.isaac.model.collections.store.ByteArrayArrayStoreProvider;
-import sh.isaac.model.collections.store.IntIntArrayStoreProvider;
 import sh.isaac.model.semantic.SemanticChronologyImpl;
 
+import java.lang.management.ManagementFactory;
 import java.nio.file.Path;
 import java.util.*;
 import java.util.concurrent.*;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.BinaryOperator;
+import java.util.function.ObjIntConsumer;
 import java.util.stream.IntStream;
-
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+/**
+ * A read through, write through cache in front of a remote datastore and identifier service. Chronology data,
+ * taxonomy data, semantic nids and uuids are held in {@link BoundedCache}s, limited in bytes by a
+ * {@link CacheConfiguration}. The assemblage of each nid is not bounded: it is held in a spined map of 4 bytes per
+ * nid, which is loaded in full on first use, since scans by object type read the assemblage of every nid.
+ */
 public class CacheProvider
-        implements DatastoreAndIdentiferService {
+        implements DatastoreAndIdentiferService, DatastoreCacheMXBean {
     private static final Logger LOG = LogManager.getLogger();
+    /** Estimated bytes of the object header and reference of each cached entry. */
+    private static final int ENTRY_OVERHEAD = 32;
 
 
     DataStoreSubService datastoreService;
     IdentifierService identifierService;
 
-    private final ArrayList<DataWriteListener> writeListeners = new ArrayList<>();
+    private final List<DataWriteListener> writeListeners = new CopyOnWriteArrayList<>();
 
-    private UuidToIntMap uuidIntMapMap;
     private ConcurrentHashMap<Integer, IsaacObjectType> assemblageToObjectType_Map;
     private ConcurrentHashMap<Integer, VersionType> assemblageToVersionType_Map;
     private SpinedNidIntMap nidToAssemblageNidMap;
     private int[] assemblageNids;
-    private final SpinedNidNidSetMap componentToSemanticNidsMap = new SpinedNidNidSetMap();
 
-    private final ConcurrentHashMap<Integer, SpinedByteArrayArrayMap> spinedChronologyMapMap
-            = new ConcurrentHashMap<>();
-    private final ConcurrentHashMap<Integer, SpinedIntIntArrayMap> spinedTaxonomyMapMap
-            = new ConcurrentHashMap<>();
+    private final BoundedCache<Integer, byte[][]> chronologyCache;
+    private final BoundedCache<Long, int[]> taxonomyCache;
+    private final BoundedCache<Integer, int[]> componentToSemanticNidsCache;
+    private final BoundedCache<UUID, Integer> uuidToNidCache;
+    private final BoundedCache<Integer, UUID[]> nidToUuidsCache;
 
     public CacheProvider(DataStoreSubService datastoreService,
             IdentifierService identifierService) {
+        this(datastoreService, identifierService, CacheConfiguration.fromSystemProperties());
+    }
+
+    public CacheProvider(DataStoreSubService datastoreService,
+            IdentifierService identifierService, CacheConfiguration configuration) {
         this.datastoreService = datastoreService;
         this.identifierService = identifierService;
-        this.uuidIntMapMap = new UuidIntMapMapMemoryBased();
         this.assemblageToObjectType_Map = new ConcurrentHashMap<>();
         this.assemblageToVersionType_Map = new ConcurrentHashMap<>();
         this.nidToAssemblageNidMap = new SpinedNidIntMap();
+        CachePolicy policy = configuration.getPolicy();
+        this.chronologyCache = BoundedCache.create("chronology", policy, configuration.getChronologyBytes(),
+                (nid, data) -> {
+                    int weight = ENTRY_OVERHEAD;
+                    for (byte[] bytes : data) {
+                        weight += bytes.length + 16;
+                    }
+                    return weight;
+                });
+        this.taxonomyCache = BoundedCache.create("taxonomy", policy, configuration.getTaxonomyBytes(),
+                (key, data) -> ENTRY_OVERHEAD + data.length * 4);
+        this.componentToSemanticNidsCache = BoundedCache.create("semanticNids", policy, configuration.getSemanticNidsBytes(),
+                (nid, semanticNids) -> ENTRY_OVERHEAD + semanticNids.length * 4);
+        this.uuidToNidCache = BoundedCache.create("uuidToNid", policy, configuration.getUuidBytes(),
+                (uuid, nid) -> ENTRY_OVERHEAD + 32);
+        this.nidToUuidsCache = BoundedCache.create("nidToUuids", policy, configuration.getUuidBytes(),
+                (nid, uuids) -> ENTRY_OVERHEAD + uuids.length * 32);
     }
 
     @Override
@@ -67,23 +94,81 @@ public class CacheProvider
             this.assemblageToObjectType_Map.put(assemblageNid, this.datastoreService.getIsaacObjectTypeForAssemblageNid(assemblageNid));
             this.assemblageToVersionType_Map.put(assemblageNid, this.datastoreService.getVersionTypeForAssemblageNid(assemblageNid));
         }
+        try {
+            ObjectName objectName = new ObjectName(OBJECT_NAME);
+            if (!ManagementFactory.getPlatformMBeanServer().isRegistered(objectName)) {
+                ManagementFactory.getPlatformMBeanServer().registerMBean(this, objectName);
+            }
+        } catch (JMException ex) {
+            LOG.warn("Unable to register datastore cache MBean", ex);
+        }
 
     }
 
     @Override
     public void shutdown() {
+        try {
+            ObjectName objectName = new ObjectName(OBJECT_NAME);
+            if (ManagementFactory.getPlatformMBeanServer().isRegistered(objectName)) {
+                ManagementFactory.getPlatformMBeanServer().unregisterMBean(objectName);
+            }
+        } catch (JMException ex) {
+            LOG.warn("Unable to unregister datastore cache MBean", ex);
+        }
+        LOG.info("Datastore cache statistics at shutdown:\n  {}\n  {}\n  {}\n  {}\n  {}", getChronologyStatistics(),
+                getTaxonomyStatistics(), getSemanticNidsStatistics(), getUuidToNidStatistics(), getNidToUuidStatistics());
         this.datastoreService = null;
         this.identifierService = null;
-        this.uuidIntMapMap = null;
         this.assemblageToObjectType_Map = null;
         this.assemblageToVersionType_Map = null;
         this.nidToAssemblageNidMap = null;
         this.assemblageNids = null;
         this.writeListeners.clear();
-        this.componentToSemanticNidsMap.clear();
-        this.spinedChronologyMapMap.clear();
-        this.spinedTaxonomyMapMap.clear();
+        invalidateAll();
+
+    }
+
+    @Override
+    public CacheStatistics getChronologyStatistics() {
+        return chronologyCache.getStatistics();
+    }
+
+    @Override
+    public CacheStatistics getTaxonomyStatistics() {
+        return taxonomyCache.getStatistics();
+    }
+
+    @Override
+    public CacheStatistics getSemanticNidsStatistics() {
+        return componentToSemanticNidsCache.getStatistics();
+    }
+
+    @Override
+    public CacheStatistics getUuidToNidStatistics() {
+        return uuidToNidCache.getStatistics();
+    }
+
+    @Override
+    public CacheStatistics getNidToUuidStatistics() {
+        return nidToUuidsCache.getStatistics();
+    }
+
+    @Override
+    public void invalidateAll() {
+        this.chronologyCache.invalidateAll();
+        this.taxonomyCache.invalidateAll();
+        this.componentToSemanticNidsCache.invalidateAll();
+        this.uuidToNidCache.invalidateAll();
+        this.nidToUuidsCache.invalidateAll();
+    }
+
+    private OptionalInt getCachedNid(UUID uuid) {
+        Integer nid = this.uuidToNidCache.getIfPresent(uuid);
+        return nid == null ? OptionalInt.empty() : OptionalInt.of(nid);
+    }
 
+    private static long taxonomyKey(int assemblageNid, int conceptNid) {
+        return ((long) assemblageNid << 32) | (conceptNid & 0xFFFFFFFFL);
     }
 
     @Override
@@ -93,12 +178,13 @@ public class CacheProvider
 
     @Override
     public void addUuidForNid(UUID uuid, int nid) {
-        OptionalInt old = this.uuidIntMapMap.get(uuid);
+        OptionalInt old = getCachedNid(uuid);
         if (old.isPresent() && old.getAsInt() != nid) {
             throw new RuntimeException("Reassignment of nid for " + uuid + " from " + old + " to " + nid);
         }
-        this.uuidIntMapMap.put(uuid, nid);
         this.identifierService.addUuidForNid(uuid, nid);
+        this.uuidToNidCache.put(uuid, nid);
+        this.nidToUuidsCache.invalidate(nid);
     }
 
     @Override
@@ -142,7 +228,7 @@ public class CacheProvider
         boolean foundAll = true;
         int nid = Integer.MAX_VALUE;
         for (UUID uuid : uuids) {
-            OptionalInt old = this.uuidIntMapMap.get(uuid);
+            OptionalInt old = getCachedNid(uuid);
             if (old.isPresent()) {
                 nid = old.getAsInt();
             } else {
@@ -154,8 +240,9 @@ public class CacheProvider
         }
         nid = this.identifierService.assignNid(uuids);
         for (UUID uuid : uuids) {
-            this.uuidIntMapMap.put(uuid, nid);
+            this.uuidToNidCache.put(uuid, nid);
         }
+        this.nidToUuidsCache.invalidate(nid);
         return nid;
     }
 
@@ -172,34 +259,34 @@ public class CacheProvider
 
     @Override
     public int getNidForUuids(Collection<UUID> uuids) throws NoSuchElementException {
-        OptionalInt optionalNid = this.uuidIntMapMap.get(uuids.iterator().next());
+        OptionalInt optionalNid = getCachedNid(uuids.iterator().next());
         if (optionalNid.isPresent()) {
             return optionalNid.getAsInt();
         }
         int nid = this.identifierService.getNidForUuids(uuids);
         for (UUID uuid : uuids) {
-            this.uuidIntMapMap.put(uuid, nid);
+            this.uuidToNidCache.put(uuid, nid);
         }
         return nid;
     }
 
     @Override
     public int getNidForUuids(UUID... uuids) throws NoSuchElementException {
-        OptionalInt optionalNid = this.uuidIntMapMap.get(uuids[0]);
+        OptionalInt optionalNid = getCachedNid(uuids[0]);
         if (optionalNid.isPresent()) {
             return optionalNid.getAsInt();
         }
         int nid = this.identifierService.getNidForUuids(uuids);
 
         for (UUID uuid : uuids) {
-            this.uuidIntMapMap.put(uuid, nid);
+            this.uuidToNidCache.put(uuid, nid);
         }
         return nid;
     }
 
     @Override
     public boolean hasUuid(Collection<UUID> uuids) throws IllegalArgumentException {
-        OptionalInt optionalNid = this.uuidIntMapMap.get(uuids.iterator().next());
+        OptionalInt optionalNid = getCachedNid(uuids.iterator().next());
         if (optionalNid.isPresent()) {
             return true;
         }
@@ -212,7 +299,7 @@ public class CacheProvider
 
     @Override
     public boolean hasUuid(UUID... uuids) throws IllegalArgumentException {
-        OptionalInt optionalNid = this.uuidIntMapMap.get(uuids[0]);
+        OptionalInt optionalNid = getCachedNid(uuids[0]);
         if (optionalNid.isPresent()) {
             return true;
         }
@@ -230,22 +317,26 @@ public class CacheProvider
 
     @Override
     public List<UUID> getUuidsForNid(int nid) throws NoSuchElementException {
-        //This call is only faster if the cache has it, so test before doing the call.
-        if (this.uuidIntMapMap.cacheContainsNid(nid)) {
-            return Arrays.asList(this.uuidIntMapMap.getKeysForValue(nid));
-        }
-
-        List<UUID> uuids = this.identifierService.getUuidsForNid(nid);
-        for (UUID uuid : uuids) {
-            this.uuidIntMapMap.put(uuid, nid);
-        }
-        return uuids;
+        UUID[] uuids = this.nidToUuidsCache.get(nid, (key) -> {
+            List<UUID> uuidList = this.identifierService.getUuidsForNid(key);
+            for (UUID uuid : uuidList) {
+                this.uuidToNidCache.put(uuid, key);
+            }
+            return uuidList.toArray(new UUID[uuidList.size()]);
+        });
+        return Arrays.asList(uuids);
     }
 
+    /**
+     * {@inheritDoc}
+     *
+     * The estimated bytes in use by the bounded caches, and by the map of nids to assemblages.
+     */
     @Override
     public long getMemoryInUse() {
-        //TODO
-        return -1;
+        return getChronologyStatistics().getWeightedSize() + getTaxonomyStatistics().getWeightedSize()
+                + getSemanticNidsStatistics().getWeightedSize() + getUuidToNidStatistics().getWeightedSize()
+                + getNidToUuidStatistics().getWeightedSize() + this.nidToAssemblageNidMap.sizeInBytes();
     }
 
     @Override
@@ -328,20 +419,20 @@ public class CacheProvider
     @Override
     public void putChronologyData(ChronologySerializeable chronology) {
         try {
-            int assemblageNid = chronology.getAssemblageNid();
+            // Write through, since any cached entry may be evicted. The datastore merges the versions, so the
+            // cached entry is invalidated rather than merged here.
+            this.datastoreService.putChronologyData(chronology);
+            this.chronologyCache.invalidate(chronology.getNid());
 
             if (chronology instanceof SemanticChronologyImpl) {
                 SemanticChronologyImpl semanticChronology = (SemanticChronologyImpl) chronology;
                 int referencedComponentNid = semanticChronology.getReferencedComponentNid();
+                int semanticNid = semanticChronology.getNid();
 
-                //We could optionally check and see if this chronology is already listed for this nid, but its likely cheaper to just let it merge internally
-                componentToSemanticNidsMap.add(referencedComponentNid, semanticChronology.getNid());
+                this.componentToSemanticNidsCache.computeIfPresent(referencedComponentNid,
+                        (key, semanticNids) -> MergeIntArray.merge(semanticNids, new int[] {semanticNid}));
             }
 
-            SpinedByteArrayArrayMap spinedByteArrayArrayMap = getChronologySpinedMap(assemblageNid);
-
-            spinedByteArrayArrayMap.put(chronology.getNid(), ChronologyImpl.getDataList(chronology));
-
             for (DataWriteListener dwl : writeListeners) {
                 dwl.writeData(chronology);
             }
@@ -398,29 +489,88 @@ public class CacheProvider
         if (!assemblageNidOptional.isPresent()) {
             return Optional.empty();
         }
-        SpinedByteArrayArrayMap spinedByteArrayArrayMap = getChronologySpinedMap(assemblageNidOptional.getAsInt());
-        byte[][] data = spinedByteArrayArrayMap.get(nid);
+        byte[][] data = this.chronologyCache.get(nid, (key) -> this.datastoreService.getChronologyVersionData(key)
+                .map(ByteArrayDataBuffer::toDataArray).orElse(null));
         if (data == null) {
-            Optional<ByteArrayDataBuffer> optionalByteBuffer = this.datastoreService.getChronologyVersionData(nid);
-            if (optionalByteBuffer.isPresent()) {
-                data = optionalByteBuffer.get().toDataArray();
-                spinedByteArrayArrayMap.put(nid, data);
-            } else {
-                return Optional.empty();
-            }
-            
+            return Optional.empty();
         }
         return Optional.of(ByteArrayDataBuffer.dataArrayToBuffer(data)); 
     }
 
+    /**
+     * Cached data is returned from the cache; the remainder is read from the datastore in one bulk read.
+     */
+    @Override
+    public void getChronologyVersionData(int[] nids, ObjIntConsumer<ByteArrayDataBuffer> consumer) {
+        byte[][][] found = new byte[nids.length][][];
+        int[] missIndexes = new int[nids.length];
+        int missCount = 0;
+        for (int i = 0; i < nids.length; i++) {
+            if (getAssemblageNid(nids[i]).isPresent()) {
+                found[i] = this.chronologyCache.getIfPresent(nids[i]);
+                if (found[i] == null) {
+                    missIndexes[missCount++] = i;
+                }
+            }
+        }
+        if (missCount > 0) {
+            int[] missNids = new int[missCount];
+            long[] writeStamps = new long[missCount];
+            for (int i = 0; i < missCount; i++) {
+                missNids[i] = nids[missIndexes[i]];
+                writeStamps[i] = this.chronologyCache.getWriteStamp(missNids[i]);
+            }
+            // results arrive in the order of missNids, skipping nids without data
+            int[] cursor = new int[1];
+            this.datastoreService.getChronologyVersionData(missNids, (data, nid) -> {
+                while (missNids[cursor[0]] != nid) {
+                    cursor[0]++;
+                }
+                byte[][] dataArray = data.toDataArray();
+                this.chronologyCache.putIfUnchanged(nid, dataArray, writeStamps[cursor[0]]);
+                found[missIndexes[cursor[0]++]] = dataArray;
+            });
+        }
+        for (int i = 0; i < nids.length; i++) {
+            if (found[i] != null) {
+                consumer.accept(ByteArrayDataBuffer.dataArrayToBuffer(found[i]), nids[i]);
+            }
+        }
+    }
+
     @Override
     public int[] getSemanticNidsForComponent(int componentNid) {
-        if (this.componentToSemanticNidsMap.containsKey(componentNid)) {
-            return this.componentToSemanticNidsMap.get(componentNid);
+        return this.componentToSemanticNidsCache.get(componentNid, this.datastoreService::getSemanticNidsForComponent);
+    }
+
+    /**
+     * Cached semantic nids are returned from the cache; the remainder are read from the datastore in one bulk read.
+     */
+    @Override
+    public int[][] getSemanticNidsForComponents(int[] componentNids) {
+        int[][] results = new int[componentNids.length][];
+        int[] missIndexes = new int[componentNids.length];
+        int missCount = 0;
+        for (int i = 0; i < componentNids.length; i++) {
+            results[i] = this.componentToSemanticNidsCache.getIfPresent(componentNids[i]);
+            if (results[i] == null) {
+                missIndexes[missCount++] = i;
+            }
         }
-        int[] semanticNids = this.datastoreService.getSemanticNidsForComponent(componentNid);
-        this.componentToSemanticNidsMap.put(componentNid, semanticNids);
-        return semanticNids;
+        if (missCount > 0) {
+            int[] missNids = new int[missCount];
+            long[] writeStamps = new long[missCount];
+            for (int i = 0; i < missCount; i++) {
+                missNids[i] = componentNids[missIndexes[i]];
+                writeStamps[i] = this.componentToSemanticNidsCache.getWriteStamp(missNids[i]);
+            }
+            int[][] read = this.datastoreService.getSemanticNidsForComponents(missNids);
+            for (int i = 0; i < missCount; i++) {
+                this.componentToSemanticNidsCache.putIfUnchanged(missNids[i], read[i], writeStamps[i]);
+                results[missIndexes[i]] = read[i];
+            }
+        }
+        return results;
     }
 
     AtomicBoolean startGetAssemblageForNids = new AtomicBoolean(true);
@@ -466,40 +616,18 @@ public class CacheProvider
         }
     }
 
-    private SpinedIntIntArrayMap getTaxonomyMap(int assemblageNid) {
-        SpinedIntIntArrayMap spinedMap = spinedTaxonomyMapMap.computeIfAbsent(
-                assemblageNid,
-                (dbKey) -> {
-                    SpinedIntIntArrayMap spinedIntIntArrayMap = new SpinedIntIntArrayMap(Get.service(IntIntArrayStoreProvider.class).get(assemblageNid));
-                    int spinesRead = spinedIntIntArrayMap.read();
-                    if (spinesRead > 0) {
-                        LOG.info("Read  " + spinesRead + " taxonomy spines for assemblage: "
-                                + " " + assemblageNid + " " + Integer.toUnsignedString(assemblageNid));
-                    }
-                    return spinedIntIntArrayMap;
-                });
-
-        return spinedMap;
-    }
-
     @Override
     public int[] getTaxonomyData(int assemblageNid, int conceptNid) {
-        int[] data = getTaxonomyMap(assemblageNid).get(conceptNid);
-        if (data == null) {
-            data = this.datastoreService.getTaxonomyData(assemblageNid, conceptNid);
-            this.spinedTaxonomyMapMap.get(assemblageNid).put(conceptNid, data);
-        }
-        return data;
+        return this.taxonomyCache.get(taxonomyKey(assemblageNid, conceptNid),
+                (key) -> this.datastoreService.getTaxonomyData(assemblageNid, conceptNid));
     }
+
     @Override
     public int[] accumulateAndGetTaxonomyData(int assemblageNid, int conceptNid, int[] newData, BinaryOperator<int[]> accumulatorFunction) {
-        int[] accumulatedData = getTaxonomyMap(assemblageNid).accumulateAndGet(conceptNid, newData, accumulatorFunction);
-        int[] accumulatedDatastoreData = this.datastoreService.accumulateAndGetTaxonomyData(assemblageNid, conceptNid, accumulatedData, accumulatorFunction);
-        newData = accumulatedDatastoreData;
-        while (!Arrays.equals(accumulatedData, accumulatedDatastoreData)) {
-            accumulatedData = getTaxonomyMap(assemblageNid).accumulateAndGet(conceptNid, accumulatedDatastoreData, accumulatorFunction);
-            accumulatedDatastoreData = this.datastoreService.accumulateAndGetTaxonomyData(assemblageNid, conceptNid, accumulatedData, accumulatorFunction);
-        }
+        // The datastore holds the complete record, so accumulate there. Concurrent accumulations may return in
+        // either order, so the cached record is invalidated rather than replaced with this result.
+        int[] accumulatedDatastoreData = this.datastoreService.accumulateAndGetTaxonomyData(assemblageNid, conceptNid, newData, accumulatorFunction);
+        this.taxonomyCache.invalidate(taxonomyKey(assemblageNid, conceptNid));
         return accumulatedDatastoreData;
     }
 
@@ -526,12 +654,16 @@ public class CacheProvider
         }
     }
 
+    /**
+     * {@inheritDoc}
+     *
+     * The estimated bytes of the cached chronologies of the assemblage. The chronology cache is not partitioned by
+     * assemblage, so every cached chronology is visited.
+     */
     @Override
     public int getAssemblageMemoryInUse(int assemblageNid) {
-        if (spinedChronologyMapMap.containsKey(assemblageNid)) {
-            return getChronologySpinedMap(assemblageNid).memoryInUse();
-        }
-        return 0;
+        long size = this.chronologyCache.getWeightedSize(nid -> this.nidToAssemblageNidMap.get(nid) == assemblageNid);
+        return (int) Math.min(size, Integer.MAX_VALUE);
     }
 
     @Override
@@ -546,9 +678,7 @@ public class CacheProvider
             if (ofType != assemblageToObjectType_Map.get(assemblageNid.getAsInt())) {
                 return false;
             }
-            SpinedByteArrayArrayMap spinedByteArrayArrayMap = getChronologySpinedMap(assemblageNid.getAsInt());
-            byte[][] data = spinedByteArrayArrayMap.get(nid);
-            return data != null;
+            return this.chronologyCache.getIfPresent(nid) != null || this.datastoreService.hasChronologyData(nid, ofType);
         }
         return this.datastoreService.hasChronologyData(nid, ofType);
     }
@@ -574,15 +704,4 @@ public class CacheProvider
     public boolean implementsSequenceStore() {
         return false;
     }
-
-    private SpinedByteArrayArrayMap getChronologySpinedMap(int assemblageNid) {
-        SpinedByteArrayArrayMap spinedMap = spinedChronologyMapMap.computeIfAbsent(
-                assemblageNid,
-                (dbKey) -> {
-                    SpinedByteArrayArrayMap spinedByteArrayArrayMap = new SpinedByteArrayArrayMap(Get.service(ByteArrayArrayStoreProvider.class).get(assemblageNid));
-                    return spinedByteArrayArrayMap;
-                });
-
-        return spinedMap;
-    }
 }
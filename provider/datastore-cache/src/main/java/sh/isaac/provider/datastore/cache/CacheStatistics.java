@@ -0,0 +1,91 @@
+/*
+ * Copyright 2019 Organizations participating in ISAAC, ISAAC's KOMET, and SOLOR development include the
+         US Veterans Health Administration, OSHERA, and the Health Services Platform Consortium..
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package sh.isaac.provider.datastore.cache;
+
+import java.beans.ConstructorProperties;
+
+/**
+ * An immutable snapshot of the counters of a {@link BoundedCache}.
+ *
+ * @author kec
+ */
+public class CacheStatistics {
+
+    private final String name;
+    private final String policy;
+    private final long hitCount;
+    private final long missCount;
+    private final long evictionCount;
+    private final long weightedSize;
+    private final long maximumWeight;
+
+    @ConstructorProperties({"name", "policy", "hitCount", "missCount", "evictionCount", "weightedSize", "maximumWeight"})
+    public CacheStatistics(String name, String policy, long hitCount, long missCount, long evictionCount, long weightedSize, long maximumWeight) {
+        this.name = name;
+        this.policy = policy;
+        this.hitCount = hitCount;
+        this.missCount = missCount;
+        this.evictionCount = evictionCount;
+        this.weightedSize = weightedSize;
+        this.maximumWeight = maximumWeight;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getPolicy() {
+        return policy;
+    }
+
+    public long getHitCount() {
+        return hitCount;
+    }
+
+    public long getMissCount() {
+        return missCount;
+    }
+
+    public long getEvictionCount() {
+        return evictionCount;
+    }
+
+    /**
+     * @return the estimated size in bytes of the cached entries.
+     */
+    public long getWeightedSize() {
+        return weightedSize;
+    }
+
+    /**
+     * @return the size in bytes the cache is bounded to.
+     */
+    public long getMaximumWeight() {
+        return maximumWeight;
+    }
+
+    public double getHitRate() {
+        long requestCount = hitCount + missCount;
+        return requestCount == 0 ? 1.0 : (double) hitCount / requestCount;
+    }
+
+    @Override
+    public String toString() {
+        return name + " [" + policy + "] hits: " + hitCount + " misses: " + missCount + " evictions: " + evictionCount
+                + " bytes: " + weightedSize + "/" + maximumWeight;
+    }
+}
@@ -0,0 +1,120 @@
+/*
+ * Copyright 2019 Organizations participating in ISAAC, ISAAC's KOMET, and SOLOR development include the
+         US Veterans Health Administration, OSHERA, and the Health Services Platform Consortium..
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package sh.isaac.provider.datastore.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Weigher;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import java.util.Map;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * A {@link BoundedCache} with Caffeine's window TinyLFU eviction.
+ *
+ * @author kec
+ */
+public class CaffeineBoundedCache<K, V> implements BoundedCache<K, V> {
+
+    private final String name;
+    private final long maximumBytes;
+    private final Weigher<K, V> weigher;
+    private final Cache<K, V> cache;
+    private final WriteStamps writeStamps = new WriteStamps();
+
+    public CaffeineBoundedCache(String name, long maximumBytes, Weigher<K, V> weigher) {
+        this.name = name;
+        this.maximumBytes = maximumBytes;
+        this.weigher = weigher;
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maximumBytes)
+                .weigher(weigher)
+                .recordStats()
+                .build();
+    }
+
+    @Override
+    public V getIfPresent(K key) {
+        return cache.getIfPresent(key);
+    }
+
+    @Override
+    public V get(K key, Function<? super K, ? extends V> loader) {
+        return cache.get(key, loader);
+    }
+
+    @Override
+    public void put(K key, V value) {
+        writeStamps.advance(key);
+        cache.put(key, value);
+    }
+
+    @Override
+    public long getWriteStamp(K key) {
+        return writeStamps.get(key);
+    }
+
+    @Override
+    public void putIfUnchanged(K key, V value, long writeStamp) {
+        if (writeStamps.get(key) != writeStamp) {
+            return;
+        }
+        // Writes advance the stamp before they change the cache, so a write that raced with the insert is seen
+        // by the second check, and the value it may have missed is removed.
+        if (cache.asMap().putIfAbsent(key, value) == null && writeStamps.get(key) != writeStamp) {
+            cache.asMap().remove(key, value);
+        }
+    }
+
+    @Override
+    public void computeIfPresent(K key, BiFunction<? super K, ? super V, ? extends V> remappingFunction) {
+        writeStamps.advance(key);
+        cache.asMap().computeIfPresent(key, remappingFunction);
+    }
+
+    @Override
+    public void invalidate(K key) {
+        writeStamps.advance(key);
+        cache.invalidate(key);
+    }
+
+    @Override
+    public void invalidateAll() {
+        writeStamps.advanceAll();
+        cache.invalidateAll();
+    }
+
+    @Override
+    public CacheStatistics getStatistics() {
+        CacheStats stats = cache.stats();
+        return new CacheStatistics(name, CachePolicy.W_TINY_LFU.name(), stats.hitCount(), stats.missCount(), stats.evictionCount(),
+                cache.policy().eviction().get().weightedSize().orElse(0), maximumBytes);
+    }
+
+    @Override
+    public long getWeightedSize(Predicate<? super K> keyFilter) {
+        long size = 0;
+        for (Map.Entry<K, V> entry : cache.asMap().entrySet()) {
+            if (keyFilter.test(entry.getKey())) {
+                size += weigher.weigh(entry.getKey(), entry.getValue());
+            }
+        }
+        return size;
+    }
+}
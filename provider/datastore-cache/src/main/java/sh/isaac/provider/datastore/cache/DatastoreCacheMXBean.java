@@ -0,0 +1,48 @@
+/*
+ * Copyright 2019 Organizations participating in ISAAC, ISAAC's KOMET, and SOLOR development include the
+         US Veterans Health Administration, OSHERA, and the Health Services Platform Consortium..
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package sh.isaac.provider.datastore.cache;
+
+/**
+ * Management interface of a {@link CacheProvider}, registered with the platform MBean server as
+ * {@link #OBJECT_NAME}.
+ *
+ * @author kec
+ */
+public interface DatastoreCacheMXBean {
+
+    String OBJECT_NAME = "sh.isaac:type=DatastoreCache";
+
+    CacheStatistics getChronologyStatistics();
+
+    CacheStatistics getTaxonomyStatistics();
+
+    CacheStatistics getSemanticNidsStatistics();
+
+    CacheStatistics getUuidToNidStatistics();
+
+    CacheStatistics getNidToUuidStatistics();
+
+    /**
+     * @return the estimated bytes in use by all caches.
+     */
+    long getMemoryInUse();
+
+    /**
+     * Discard all cached entries. The counters are not reset.
+     */
+    void invalidateAll();
+}
@@ -0,0 +1,166 @@
+/*
+ * Copyright 2019 Organizations participating in ISAAC, ISAAC's KOMET, and SOLOR development include the
+         US Veterans Health Administration, OSHERA, and the Health Services Platform Consortium..
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package sh.isaac.provider.datastore.cache;
+
+import com.github.benmanes.caffeine.cache.Weigher;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * A {@link BoundedCache} with least recently used eviction, backed by an access ordered {@link LinkedHashMap}.
+ * All access is serialized, so this policy is best suited to caches with modest concurrency.
+ *
+ * @author kec
+ */
+public class LruBoundedCache<K, V> implements BoundedCache<K, V> {
+
+    private final String name;
+    private final long maximumBytes;
+    private final Weigher<K, V> weigher;
+    private final LinkedHashMap<K, V> map = new LinkedHashMap<>(1024, 0.75f, true);
+    private final WriteStamps writeStamps = new WriteStamps();
+    private long weightedSize = 0;
+    private long hitCount = 0;
+    private long missCount = 0;
+    private long evictionCount = 0;
+
+    public LruBoundedCache(String name, long maximumBytes, Weigher<K, V> weigher) {
+        this.name = name;
+        this.maximumBytes = maximumBytes;
+        this.weigher = weigher;
+    }
+
+    @Override
+    public synchronized V getIfPresent(K key) {
+        V value = map.get(key);
+        if (value == null) {
+            missCount++;
+        } else {
+            hitCount++;
+        }
+        return value;
+    }
+
+    @Override
+    public V get(K key, Function<? super K, ? extends V> loader) {
+        long writeStamp;
+        synchronized (this) {
+            V value = getIfPresent(key);
+            if (value != null) {
+                return value;
+            }
+            writeStamp = writeStamps.get(key);
+        }
+        // Load outside the lock, so a slow load does not block other readers. A write during the load
+        // leaves the loaded value uncached.
+        V value = loader.apply(key);
+        if (value != null) {
+            putIfUnchanged(key, value, writeStamp);
+        }
+        return value;
+    }
+
+    @Override
+    public synchronized void put(K key, V value) {
+        writeStamps.advance(key);
+        store(key, value);
+    }
+
+    @Override
+    public long getWriteStamp(K key) {
+        return writeStamps.get(key);
+    }
+
+    @Override
+    public synchronized void putIfUnchanged(K key, V value, long writeStamp) {
+        if (writeStamps.get(key) == writeStamp && !map.containsKey(key)) {
+            store(key, value);
+        }
+    }
+
+    @Override
+    public synchronized void computeIfPresent(K key, BiFunction<? super K, ? super V, ? extends V> remappingFunction) {
+        writeStamps.advance(key);
+        V previous = map.get(key);
+        if (previous != null) {
+            V value = remappingFunction.apply(key, previous);
+            weightedSize -= weigher.weigh(key, previous);
+            if (value == null) {
+                map.remove(key);
+            } else {
+                map.put(key, value);
+                weightedSize += weigher.weigh(key, value);
+                evict();
+            }
+        }
+    }
+
+    @Override
+    public synchronized void invalidate(K key) {
+        writeStamps.advance(key);
+        V previous = map.remove(key);
+        if (previous != null) {
+            weightedSize -= weigher.weigh(key, previous);
+        }
+    }
+
+    @Override
+    public synchronized void invalidateAll() {
+        writeStamps.advanceAll();
+        map.clear();
+        weightedSize = 0;
+    }
+
+    @Override
+    public synchronized CacheStatistics getStatistics() {
+        return new CacheStatistics(name, CachePolicy.LRU.name(), hitCount, missCount, evictionCount, weightedSize, maximumBytes);
+    }
+
+    @Override
+    public synchronized long getWeightedSize(Predicate<? super K> keyFilter) {
+        long size = 0;
+        for (Map.Entry<K, V> entry : map.entrySet()) {
+            if (keyFilter.test(entry.getKey())) {
+                size += weigher.weigh(entry.getKey(), entry.getValue());
+            }
+        }
+        return size;
+    }
+
+    private void store(K key, V value) {
+        V previous = map.put(key, value);
+        if (previous != null) {
+            weightedSize -= weigher.weigh(key, previous);
+        }
+        weightedSize += weigher.weigh(key, value);
+        evict();
+    }
+
+    private void evict() {
+        Iterator<Map.Entry<K, V>> eldest = map.entrySet().iterator();
+        while (weightedSize > maximumBytes && eldest.hasNext()) {
+            Map.Entry<K, V> entry = eldest.next();
+            weightedSize -= weigher.weigh(entry.getKey(), entry.getValue());
+            eldest.remove();
+            evictionCount++;
+        }
+    }
+}
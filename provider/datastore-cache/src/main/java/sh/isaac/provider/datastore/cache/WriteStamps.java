@@ -0,0 +1,52 @@
+/*
+ * Copyright 2019 Organizations participating in ISAAC, ISAAC's KOMET, and SOLOR development include the
+         US Veterans Health Administration, OSHERA, and the Health Services Platform Consortium..
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package sh.isaac.provider.datastore.cache;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Counts the writes to the keys of a cache, striped by key hash, so a value read from the backing store can be
+ * checked for writes that happened while it was read. Keys that share a stripe share a count, which only costs a
+ * value that is not cached.
+ *
+ * @author kec
+ */
+final class WriteStamps {
+
+    private static final int STRIPES = 64;
+
+    private final AtomicLongArray stamps = new AtomicLongArray(STRIPES);
+
+    long get(Object key) {
+        return stamps.get(stripe(key));
+    }
+
+    void advance(Object key) {
+        stamps.incrementAndGet(stripe(key));
+    }
+
+    void advanceAll() {
+        for (int i = 0; i < STRIPES; i++) {
+            stamps.incrementAndGet(i);
+        }
+    }
+
+    private static int stripe(Object key) {
+        int hash = key.hashCode();
+        return (hash ^ (hash >>> 16)) & (STRIPES - 1);
+    }
+}
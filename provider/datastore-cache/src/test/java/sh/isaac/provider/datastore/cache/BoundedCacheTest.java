@@ -0,0 +1,95 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ *
+ * You may not use this file except in compliance with the License.
+ *
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package sh.isaac.provider.datastore.cache;
+
+import org.testng.Assert;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+/**
+ * Checks that a value read from the backing store is not cached over a write made while it was read.
+ *
+ * @author kec
+ */
+public class BoundedCacheTest {
+
+    @DataProvider
+    public Object[][] policies() {
+        return new Object[][]{{CachePolicy.LRU}, {CachePolicy.W_TINY_LFU}};
+    }
+
+    private static BoundedCache<Integer, int[]> create(CachePolicy policy) {
+        return BoundedCache.create("test", policy, 1_000_000, (key, value) -> 16 + value.length * 4);
+    }
+
+    @Test(dataProvider = "policies")
+    public void testLoadIsCached(CachePolicy policy) {
+        BoundedCache<Integer, int[]> cache = create(policy);
+        int[] loaded = cache.get(1, (key) -> new int[]{1});
+        Assert.assertSame(cache.getIfPresent(1), loaded);
+    }
+
+    @Test(dataProvider = "policies")
+    public void testLoadRacingInvalidateIsNotCached(CachePolicy policy) {
+        BoundedCache<Integer, int[]> cache = create(policy);
+        cache.put(1, new int[]{1});
+        long writeStamp = cache.getWriteStamp(1);
+        cache.invalidate(1);
+        cache.putIfUnchanged(1, new int[]{1}, writeStamp);
+        Assert.assertNull(cache.getIfPresent(1));
+
+        cache.putIfUnchanged(1, new int[]{2}, cache.getWriteStamp(1));
+        Assert.assertEquals(cache.getIfPresent(1), new int[]{2});
+    }
+
+    @Test(dataProvider = "policies")
+    public void testLoadRacingUpdateIsNotCached(CachePolicy policy) {
+        BoundedCache<Integer, int[]> cache = create(policy);
+        long writeStamp = cache.getWriteStamp(1);
+        cache.put(1, new int[]{1, 2});
+        cache.putIfUnchanged(1, new int[]{1}, writeStamp);
+        Assert.assertEquals(cache.getIfPresent(1), new int[]{1, 2});
+
+        cache.invalidateAll();
+        writeStamp = cache.getWriteStamp(1);
+        cache.invalidateAll();
+        cache.putIfUnchanged(1, new int[]{1}, writeStamp);
+        Assert.assertNull(cache.getIfPresent(1));
+    }
+
+    @Test(dataProvider = "policies")
+    public void testWeightedSizeOfFilteredKeys(CachePolicy policy) {
+        BoundedCache<Integer, int[]> cache = create(policy);
+        cache.put(1, new int[]{1});
+        cache.put(2, new int[]{1, 2});
+        cache.put(3, new int[]{1, 2, 3});
+        Assert.assertEquals(cache.getWeightedSize(key -> key % 2 == 1), 20 + 28);
+        Assert.assertEquals(cache.getWeightedSize(key -> false), 0);
+    }
+
+    @Test
+    public void testLruLoadRacingInvalidateIsNotCached() {
+        // The LRU cache loads outside its lock, so a write can land while the loader runs.
+        BoundedCache<Integer, int[]> cache = create(CachePolicy.LRU);
+        int[] loaded = cache.get(1, (key) -> {
+            cache.invalidate(key);
+            return new int[]{1};
+        });
+        Assert.assertEquals(loaded, new int[]{1});
+        Assert.assertNull(cache.getIfPresent(1));
+    }
+}
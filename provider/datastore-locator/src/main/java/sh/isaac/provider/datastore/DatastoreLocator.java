@@ -26,6 +26,7 @@ import java.util.UUID;
 import java.util.concurrent.Future;
 import java.util.function.BinaryOperator;
 import java.util.function.Function;
+import java.util.function.ObjIntConsumer;
 import java.util.stream.IntStream;
 import javax.annotation.PostConstruct;
 import javax.annotation.PreDestroy;
@@ -235,6 +236,15 @@ public class DatastoreLocator implements DataStore, SequenceStore, ExtendedStore
 		return dataStore.getChronologyVersionData(nid);
 	}
 
+	/** 
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void getChronologyVersionData(int[] nids, ObjIntConsumer<ByteArrayDataBuffer> consumer)
+	{
+		dataStore.getChronologyVersionData(nids, consumer);
+	}
+
 	/** 
 	 * {@inheritDoc}
 	 */
@@ -244,6 +254,15 @@ public class DatastoreLocator implements DataStore, SequenceStore, ExtendedStore
 		return dataStore.getSemanticNidsForComponent(componentNid);
 	}
 
+	/** 
+	 * {@inheritDoc}
+	 */
+	@Override
+	public int[][] getSemanticNidsForComponents(int[] componentNids)
+	{
+		return dataStore.getSemanticNidsForComponents(componentNids);
+	}
+
 	/** 
 	 * {@inheritDoc}
 	 */
@@ -408,6 +427,33 @@ public class DatastoreLocator implements DataStore, SequenceStore, ExtendedStore
 	{
 		return dataStore.implementsExtendedStoreAPI();
 	}
+
+	/** 
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void forceChanges()
+	{
+		dataStore.forceChanges();
+	}
+
+	/** 
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void logUuidForNid(UUID uuid, int nid)
+	{
+		dataStore.logUuidForNid(uuid, nid);
+	}
+
+	/** 
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void takeRecoveredUuidsForNids(ObjIntConsumer<UUID> consumer)
+	{
+		dataStore.takeRecoveredUuidsForNids(consumer);
+	}
 	
 	/** 
 	 * {@inheritDoc}
@@ -0,0 +1,119 @@
+/*
+ * Copyright 2019 Organizations participating in ISAAC, ISAAC's KOMET, and SOLOR development include the
+         US Veterans Health Administration, OSHERA, and the Health Services Platform Consortium..
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package sh.isaac.provider.postgres;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.UUID;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+import org.postgresql.copy.PGCopyOutputStream;
+
+/**
+ * Streams rows into a table with {@code COPY ... FROM STDIN (FORMAT binary)}.
+ *
+ * Each row is started with {@link #startRow()}, followed by one put for each column, in the order the columns were
+ * given. The rows are only stored once {@link #endCopy()} returns; closing the copy without ending it discards them.
+ *
+ * @author kec
+ */
+public class PostgresBinaryCopy implements AutoCloseable {
+
+    private static final byte[] SIGNATURE = {'P', 'G', 'C', 'O', 'P', 'Y', '\n', (byte) 0xFF, '\r', '\n', 0};
+    private static final int BUFFER_SIZE = 256 * 1024;
+
+    //~--- fields --------------------------------------------------------------
+    private final PGCopyOutputStream copyStream;
+    private final DataOutputStream out;
+    private final short columnCount;
+
+    //~--- constructors --------------------------------------------------------
+    /**
+     * @param conn the connection to copy over, which is used by the copy until it is ended or closed
+     * @param table the table to copy into
+     * @param columns the columns of each row
+     * @throws SQLException if the copy cannot be started
+     */
+    public PostgresBinaryCopy(Connection conn, String table, String... columns) throws SQLException {
+        this(conn.unwrap(PGConnection.class).getCopyAPI().copyIn(
+                "COPY " + table + " (" + String.join(", ", columns) + ") FROM STDIN (FORMAT binary); "),
+                columns.length);
+    }
+
+    /**
+     * @param copyIn the started copy
+     * @param columnCount the number of columns of each row
+     * @throws SQLException if the header cannot be written
+     */
+    PostgresBinaryCopy(CopyIn copyIn, int columnCount) throws SQLException {
+        this.columnCount = (short) columnCount;
+        this.copyStream = new PGCopyOutputStream(copyIn, BUFFER_SIZE);
+        this.out = new DataOutputStream(copyStream);
+        try {
+            out.write(SIGNATURE);
+            out.writeInt(0); // flags
+            out.writeInt(0); // header extension length
+        } catch (IOException ex) {
+            close();
+            throw new SQLException(ex);
+        }
+    }
+
+    //~--- methods -------------------------------------------------------------
+    public void startRow() throws IOException {
+        out.writeShort(columnCount);
+    }
+
+    public void putInt(int value) throws IOException {
+        out.writeInt(4);
+        out.writeInt(value);
+    }
+
+    public void putBytes(byte[] value) throws IOException {
+        out.writeInt(value.length);
+        out.write(value);
+    }
+
+    public void putUuid(UUID value) throws IOException {
+        out.writeInt(16);
+        out.writeLong(value.getMostSignificantBits());
+        out.writeLong(value.getLeastSignificantBits());
+    }
+
+    /**
+     * @return the number of rows copied
+     * @throws SQLException if the copy fails
+     */
+    public long endCopy() throws SQLException {
+        try {
+            out.writeShort(-1); // file trailer
+            out.flush();
+        } catch (IOException ex) {
+            throw new SQLException(ex);
+        }
+        return copyStream.endCopy();
+    }
+
+    @Override
+    public void close() throws SQLException {
+        if (copyStream.isActive()) {
+            copyStream.cancelCopy();
+        }
+    }
+}
@@ -0,0 +1,678 @@
+/*
+ * Copyright 2019 Organizations participating in ISAAC, ISAAC's KOMET, and SOLOR development include the
+         US Veterans Health Administration, OSHERA, and the Health Services Platform Consortium..
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package sh.isaac.provider.postgres;
+
+import com.zaxxer.hikari.HikariDataSource;
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.OptionalInt;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import sh.isaac.api.Get;
+import sh.isaac.api.collections.NidSet;
+import sh.isaac.model.collections.SpinedNidIntMap;
+
+/**
+ * Bulk loads chronologies, taxonomy records and uuids while the system is in a db build mode.
+ *
+ * Writes are held in memory until {@link #FLUSH_ROW_COUNT} rows are pending. The pending rows are then streamed with
+ * binary COPY into temporary staging tables over one long-lived connection, and merged into the datastore tables in a
+ * single transaction. The index on the assemblage of semantics is dropped at the first flush, and recreated by
+ * {@link #finish()}. The indexes the load itself reads through, and the keys the merge resolves conflicts on, are kept;
+ * Postgres folds taxonomy_data_pk into the primary key of the taxonomy table, so it is such a key.
+ *
+ * Readers take a {@link PendingView} before they query the database. Pending rows are released only after the
+ * transaction that stored them commits, so each row is found in at least one of the two.
+ *
+ * A failed flush throws from the put, {@link #flush()} or {@link #finish()} that started it, so the load fails. The
+ * rows that were not stored stay pending.
+ *
+ * @author kec
+ */
+public class PostgresBulkLoader {
+
+    private static final Logger LOG = LogManager.getLogger();
+    private static final boolean LOG_SQL_FLAG = false;
+
+    /** Number of pending rows that starts a flush. */
+    private static final int FLUSH_ROW_COUNT = 100_000;
+
+    private static final PendingRows[] NO_ROWS = new PendingRows[0];
+
+    private void logSqlString(String sql) {
+        if (LOG_SQL_FLAG) {
+            LOG.debug(":SQL: " + sql);
+        }
+    }
+
+    //~--- fields --------------------------------------------------------------
+    private final HikariDataSource ds;
+
+    /** Held shared while rows are added, and exclusive while the pending rows are swapped out for a flush. */
+    private final ReentrantReadWriteLock swapLock = new ReentrantReadWriteLock();
+    private final Object flushLock = new Object();
+    private volatile PendingRows pending = new PendingRows();
+    /** Rows being flushed, or kept after a failed flush, newest first. */
+    private volatile PendingRows[] flushing = NO_ROWS;
+    private volatile boolean active = false;
+
+    // guarded by flushLock
+    private Connection conn;
+    private boolean indexesDeferred = false;
+
+    //~--- constructors --------------------------------------------------------
+    public PostgresBulkLoader(HikariDataSource ds) {
+        this.ds = ds;
+    }
+
+    //~--- sql -----------------------------------------------------------------
+    String[] sqlCreateStagingTables() {
+        return new String[]{
+            "CREATE TEMP TABLE IF NOT EXISTS bulk_concepts "
+            + "(o_nid INTEGER, assemblage_nid INTEGER, version_stamp INTEGER, version_data bytea) "
+            + "ON COMMIT DELETE ROWS; ",
+            "CREATE TEMP TABLE IF NOT EXISTS bulk_semantics "
+            + "(o_nid INTEGER, assemblage_nid INTEGER, referenced_component_nid INTEGER, "
+            + "version_stamp INTEGER, version_data bytea) "
+            + "ON COMMIT DELETE ROWS; ",
+            "CREATE TEMP TABLE IF NOT EXISTS bulk_taxonomy "
+            + "(t_nid INTEGER, assemblage_nid INTEGER, taxonomy_data bytea) "
+            + "ON COMMIT DELETE ROWS; ",
+            "CREATE TEMP TABLE IF NOT EXISTS bulk_uuid_primordial "
+            + "(u_nid INTEGER, ouid uuid) "
+            + "ON COMMIT DELETE ROWS; ",
+            "CREATE TEMP TABLE IF NOT EXISTS bulk_uuid_additional "
+            + "(u_nid INTEGER, ouid uuid) "
+            + "ON COMMIT DELETE ROWS; "};
+    }
+
+    String[] sqlMergeStagingTables() {
+        return new String[]{
+            "INSERT INTO concepts_table "
+            + "(o_nid, assemblage_nid, version_stamp, version_data) "
+            + "SELECT o_nid, assemblage_nid, version_stamp, version_data FROM bulk_concepts "
+            + "ON CONFLICT DO NOTHING; ",
+            "INSERT INTO semantics_table "
+            + "(o_nid, assemblage_nid, referenced_component_nid, version_stamp, version_data) "
+            + "SELECT o_nid, assemblage_nid, referenced_component_nid, version_stamp, version_data FROM bulk_semantics "
+            + "ON CONFLICT DO NOTHING; ",
+            "INSERT INTO taxonomy_data_table "
+            + "(t_nid, assemblage_nid, taxonomy_data) "
+            + "SELECT t_nid, assemblage_nid, taxonomy_data FROM bulk_taxonomy "
+            + "ON CONFLICT (t_nid, assemblage_nid) "
+            + "DO UPDATE SET taxonomy_data = EXCLUDED.taxonomy_data; ",
+            "INSERT INTO uuid_primordial_table (u_nid, ouid) "
+            + "SELECT u_nid, ouid FROM bulk_uuid_primordial "
+            + "ON CONFLICT DO NOTHING; ",
+            "INSERT INTO uuid_additional_table (u_nid, ouid) "
+            + "SELECT u_nid, ouid FROM bulk_uuid_additional "
+            + "ON CONFLICT DO NOTHING; "};
+    }
+
+    String[] sqlDeferIndexes() {
+        return new String[]{
+            "DROP INDEX IF EXISTS semantics_table_assemblage_idx; "};
+    }
+
+    String[] sqlRestoreIndexes() {
+        return new String[]{
+            "CREATE INDEX IF NOT EXISTS semantics_table_assemblage_idx "
+            + "ON semantics_table USING btree (assemblage_nid); "};
+    }
+
+    String[] sqlAnalyzeTables() {
+        return new String[]{
+            "ANALYZE concepts_table; ",
+            "ANALYZE semantics_table; ",
+            "ANALYZE taxonomy_data_table; ",
+            "ANALYZE uuid_primordial_table; ",
+            "ANALYZE uuid_additional_table; "};
+    }
+
+    //~--- methods -------------------------------------------------------------
+    /**
+     * @return true if writes should be added to the bulk load, which is the case once the system is in a db build
+     * mode.
+     */
+    public boolean isActive() {
+        if (!active && Get.configurationService().isInDBBuildMode()) {
+            LOG.info("Bulk loading the Postgres datastore.");
+            active = true;
+        }
+        return active;
+    }
+
+    /**
+     * @return the rows not yet stored, to be taken before the database is queried
+     */
+    public PendingView getPending() {
+        PendingRows current = pending;
+        PendingRows[] stored = flushing;
+        if (stored.length == 0) {
+            return new PendingView(new PendingRows[]{current});
+        }
+        PendingRows[] generations = new PendingRows[stored.length + 1];
+        generations[0] = current;
+        System.arraycopy(stored, 0, generations, 1, stored.length);
+        return new PendingView(generations);
+    }
+
+    /**
+     * @param nid the chronology nid
+     * @param assemblageNid the assemblage of the chronology
+     * @param referencedComponentNid the referenced component of a semantic, ignored for a concept
+     * @param semantic true for a semantic, false for a concept
+     * @param versionStamps the stamp of each row, -1 for the chronology row
+     * @param dataList the chronology row followed by the version rows
+     */
+    public void putChronology(int nid, int assemblageNid, int referencedComponentNid, boolean semantic,
+            int[] versionStamps, List<byte[]> dataList) {
+        int pendingRowCount;
+        swapLock.readLock().lock();
+        try {
+            PendingRows rows = pending;
+            PendingChronology chronology = rows.chronologies.computeIfAbsent(nid,
+                    (key) -> new PendingChronology(assemblageNid, referencedComponentNid, semantic));
+            int added = 0;
+            synchronized (chronology) {
+                for (int i = 0; i < dataList.size(); i++) {
+                    if (chronology.versions.putIfAbsent(versionStamps[i], dataList.get(i)) == null) {
+                        added++;
+                    }
+                }
+            }
+            if (semantic) {
+                rows.semanticNidsForComponent.computeIfAbsent(referencedComponentNid,
+                        (key) -> ConcurrentHashMap.newKeySet()).add(nid);
+            }
+            pendingRowCount = rows.rowCount.addAndGet(added);
+        } finally {
+            swapLock.readLock().unlock();
+        }
+        flushIfFull(pendingRowCount);
+    }
+
+    public void putTaxonomyData(int assemblageNid, int conceptNid, int[] taxonomyData) {
+        int pendingRowCount;
+        swapLock.readLock().lock();
+        try {
+            PendingRows rows = pending;
+            if (rows.taxonomyData.put(taxonomyKey(assemblageNid, conceptNid), taxonomyData) == null) {
+                pendingRowCount = rows.rowCount.incrementAndGet();
+            } else {
+                pendingRowCount = rows.rowCount.get();
+            }
+        } finally {
+            swapLock.readLock().unlock();
+        }
+        flushIfFull(pendingRowCount);
+    }
+
+    /**
+     * @param uuid the uuid
+     * @param nid the nid for which the uuid is the primordial uuid
+     * @return true if the uuid was not already pending
+     */
+    public boolean putPrimordialUuid(UUID uuid, int nid) {
+        return putUuid(uuid, nid, true);
+    }
+
+    /**
+     * @param uuid the uuid
+     * @param nid the nid for which the uuid is an additional uuid
+     * @return true if the uuid was not already pending
+     */
+    public boolean putAdditionalUuid(UUID uuid, int nid) {
+        return putUuid(uuid, nid, false);
+    }
+
+    private boolean putUuid(UUID uuid, int nid, boolean primordial) {
+        int pendingRowCount;
+        swapLock.readLock().lock();
+        try {
+            PendingRows rows = pending;
+            if (rows.uuidToNid.putIfAbsent(uuid, nid) != null) {
+                return false;
+            }
+            if (primordial) {
+                rows.primordialUuids.put(nid, uuid);
+            } else {
+                rows.additionalUuids.computeIfAbsent(nid, (key) -> ConcurrentHashMap.newKeySet()).add(uuid);
+            }
+            pendingRowCount = rows.rowCount.incrementAndGet();
+        } finally {
+            swapLock.readLock().unlock();
+        }
+        flushIfFull(pendingRowCount);
+        return true;
+    }
+
+    private void flushIfFull(int pendingRowCount) {
+        if (pendingRowCount >= FLUSH_ROW_COUNT) {
+            synchronized (flushLock) {
+                if (pending.rowCount.get() >= FLUSH_ROW_COUNT) {
+                    flushPending();
+                }
+            }
+        }
+    }
+
+    /**
+     * Store all pending rows.
+     *
+     * @throws RuntimeException if the rows could not be stored. They stay pending, so they are still read, and are
+     * stored with the next flush.
+     */
+    public void flush() {
+        synchronized (flushLock) {
+            flushPending();
+        }
+    }
+
+    /**
+     * Store all pending rows, recreate the deferred indexes, and release the bulk load connection. Rows put after
+     * this call start a new bulk load.
+     *
+     * @throws RuntimeException if the rows could not be stored, or the indexes could not be recreated. The connection
+     * is released; indexes left dropped are recreated when the datastore next starts.
+     */
+    public void finish() {
+        synchronized (flushLock) {
+            try {
+                flushPending();
+                if (conn != null) {
+                    try (Statement stmt = conn.createStatement()) {
+                        if (indexesDeferred) {
+                            for (String sql : sqlRestoreIndexes()) {
+                                logSqlString(sql);
+                                stmt.execute(sql);
+                            }
+                            indexesDeferred = false;
+                        }
+                        conn.commit();
+                        conn.setAutoCommit(true);
+                        for (String sql : sqlAnalyzeTables()) {
+                            logSqlString(sql);
+                            stmt.execute(sql);
+                        }
+                        stmt.execute("RESET synchronous_commit; ");
+                    } catch (SQLException ex) {
+                        throw new RuntimeException("Unable to finish the bulk load", ex);
+                    }
+                }
+            } finally {
+                closeConnection();
+            }
+        }
+    }
+
+    /**
+     * Recreate indexes that a bulk load which did not finish may have left dropped.
+     */
+    public void restoreDeferredIndexes() {
+        try (Connection restoreConn = ds.getConnection();
+            Statement stmt = restoreConn.createStatement()) {
+            for (String sql : sqlRestoreIndexes()) {
+                logSqlString(sql);
+                stmt.execute(sql);
+            }
+        } catch (SQLException ex) {
+            LOG.error(ex.getLocalizedMessage(), ex);
+        }
+    }
+
+    private void flushPending() {
+        swapLock.writeLock().lock();
+        try {
+            if (pending.rowCount.get() != 0) {
+                PendingRows[] generations = new PendingRows[flushing.length + 1];
+                generations[0] = pending;
+                System.arraycopy(flushing, 0, generations, 1, flushing.length);
+                flushing = generations;
+                pending = new PendingRows();
+            } else if (flushing.length == 0) {
+                return;
+            }
+        } finally {
+            swapLock.writeLock().unlock();
+        }
+
+        long startTime = System.currentTimeMillis();
+        PendingRows[] generations = flushing;
+        try {
+            Connection flushConn = getConnection();
+            copyChronologies(flushConn, generations);
+            copyTaxonomyData(flushConn, generations);
+            copyUuids(flushConn, generations);
+            try (Statement stmt = flushConn.createStatement()) {
+                for (String sql : sqlMergeStagingTables()) {
+                    logSqlString(sql);
+                    stmt.execute(sql);
+                }
+            }
+            flushConn.commit();
+            flushing = NO_ROWS;
+            LOG.debug("Bulk loaded {} rows in {} ms", countRows(generations), System.currentTimeMillis() - startTime);
+        } catch (SQLException | IOException ex) {
+            // The rows stay pending, and are stored with the next flush.
+            closeConnection();
+            throw new RuntimeException("Bulk load of " + countRows(generations) + " rows failed", ex);
+        }
+    }
+
+    private Connection getConnection() throws SQLException {
+        if (conn == null) {
+            conn = ds.getConnection();
+            try (Statement stmt = conn.createStatement()) {
+                stmt.execute("SET synchronous_commit TO OFF; ");
+                for (String sql : sqlCreateStagingTables()) {
+                    logSqlString(sql);
+                    stmt.execute(sql);
+                }
+            }
+            conn.setAutoCommit(false);
+        }
+        if (!indexesDeferred) {
+            try (Statement stmt = conn.createStatement()) {
+                for (String sql : sqlDeferIndexes()) {
+                    logSqlString(sql);
+                    stmt.execute(sql);
+                }
+            }
+            conn.commit();
+            indexesDeferred = true;
+        }
+        return conn;
+    }
+
+    private void closeConnection() {
+        if (conn != null) {
+            try {
+                if (!conn.getAutoCommit()) {
+                    conn.rollback();
+                }
+                conn.close();
+            } catch (SQLException ex) {
+                LOG.error(ex.getLocalizedMessage(), ex);
+            }
+            conn = null;
+        }
+    }
+
+    private void copyChronologies(Connection flushConn, PendingRows[] generations) throws SQLException, IOException {
+        try (PostgresBinaryCopy concepts = new PostgresBinaryCopy(flushConn, "bulk_concepts",
+                "o_nid", "assemblage_nid", "version_stamp", "version_data")) {
+            for (PendingRows rows : generations) {
+                for (Map.Entry<Integer, PendingChronology> entry : rows.chronologies.entrySet()) {
+                    PendingChronology chronology = entry.getValue();
+                    if (!chronology.semantic) {
+                        synchronized (chronology) {
+                            for (Map.Entry<Integer, byte[]> version : chronology.versions.entrySet()) {
+                                concepts.startRow();
+                                concepts.putInt(entry.getKey());
+                                concepts.putInt(chronology.assemblageNid);
+                                concepts.putInt(version.getKey());
+                                concepts.putBytes(version.getValue());
+                            }
+                        }
+                    }
+                }
+            }
+            concepts.endCopy();
+        }
+        try (PostgresBinaryCopy semantics = new PostgresBinaryCopy(flushConn, "bulk_semantics",
+                "o_nid", "assemblage_nid", "referenced_component_nid", "version_stamp", "version_data")) {
+            for (PendingRows rows : generations) {
+                for (Map.Entry<Integer, PendingChronology> entry : rows.chronologies.entrySet()) {
+                    PendingChronology chronology = entry.getValue();
+                    if (chronology.semantic) {
+                        synchronized (chronology) {
+                            for (Map.Entry<Integer, byte[]> version : chronology.versions.entrySet()) {
+                                semantics.startRow();
+                                semantics.putInt(entry.getKey());
+                                semantics.putInt(chronology.assemblageNid);
+                                semantics.putInt(chronology.referencedComponentNid);
+                                semantics.putInt(version.getKey());
+                                semantics.putBytes(version.getValue());
+                            }
+                        }
+                    }
+                }
+            }
+            semantics.endCopy();
+        }
+    }
+
+    private void copyTaxonomyData(Connection flushConn, PendingRows[] generations) throws SQLException, IOException {
+        // A record may be pending in more than one generation; only the newest is copied, since an upsert may not
+        // affect the same row twice.
+        Set<Long> copiedKeys = new HashSet<>();
+        try (PostgresBinaryCopy taxonomy = new PostgresBinaryCopy(flushConn, "bulk_taxonomy",
+                "t_nid", "assemblage_nid", "taxonomy_data")) {
+            for (PendingRows rows : generations) {
+                for (Map.Entry<Long, int[]> entry : rows.taxonomyData.entrySet()) {
+                    long key = entry.getKey();
+                    if (copiedKeys.add(key)) {
+                        taxonomy.startRow();
+                        taxonomy.putInt((int) key);
+                        taxonomy.putInt((int) (key >>> 32));
+                        taxonomy.putBytes(PostgresProvider.taxonomyDataToBytes(entry.getValue()));
+                    }
+                }
+            }
+            taxonomy.endCopy();
+        }
+    }
+
+    private void copyUuids(Connection flushConn, PendingRows[] generations) throws SQLException, IOException {
+        try (PostgresBinaryCopy primordial = new PostgresBinaryCopy(flushConn, "bulk_uuid_primordial",
+                "u_nid", "ouid")) {
+            for (PendingRows rows : generations) {
+                for (Map.Entry<Integer, UUID> entry : rows.primordialUuids.entrySet()) {
+                    primordial.startRow();
+                    primordial.putInt(entry.getKey());
+                    primordial.putUuid(entry.getValue());
+                }
+            }
+            primordial.endCopy();
+        }
+        try (PostgresBinaryCopy additional = new PostgresBinaryCopy(flushConn, "bulk_uuid_additional",
+                "u_nid", "ouid")) {
+            for (PendingRows rows : generations) {
+                for (Map.Entry<Integer, Set<UUID>> entry : rows.additionalUuids.entrySet()) {
+                    for (UUID uuid : entry.getValue()) {
+                        additional.startRow();
+                        additional.putInt(entry.getKey());
+                        additional.putUuid(uuid);
+                    }
+                }
+            }
+            additional.endCopy();
+        }
+    }
+
+    private static int countRows(PendingRows[] generations) {
+        int count = 0;
+        for (PendingRows rows : generations) {
+            count += rows.rowCount.get();
+        }
+        return count;
+    }
+
+    private static long taxonomyKey(int assemblageNid, int conceptNid) {
+        return ((long) assemblageNid << 32) | (conceptNid & 0xFFFFFFFFL);
+    }
+
+    //~--- inner classes -------------------------------------------------------
+    private static class PendingChronology {
+
+        final int assemblageNid;
+        final int referencedComponentNid;
+        final boolean semantic;
+        /** Rows keyed by version stamp, guarded by this. */
+        final TreeMap<Integer, byte[]> versions = new TreeMap<>();
+
+        PendingChronology(int assemblageNid, int referencedComponentNid, boolean semantic) {
+            this.assemblageNid = assemblageNid;
+            this.referencedComponentNid = referencedComponentNid;
+            this.semantic = semantic;
+        }
+    }
+
+    private static class PendingRows {
+
+        final AtomicInteger rowCount = new AtomicInteger();
+        final ConcurrentHashMap<Integer, PendingChronology> chronologies = new ConcurrentHashMap<>();
+        final ConcurrentHashMap<Integer, Set<Integer>> semanticNidsForComponent = new ConcurrentHashMap<>();
+        final ConcurrentHashMap<Long, int[]> taxonomyData = new ConcurrentHashMap<>();
+        final ConcurrentHashMap<UUID, Integer> uuidToNid = new ConcurrentHashMap<>();
+        final ConcurrentHashMap<Integer, UUID> primordialUuids = new ConcurrentHashMap<>();
+        final ConcurrentHashMap<Integer, Set<UUID>> additionalUuids = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * The rows that were pending when the view was taken, newest first. Rows stored since then remain visible
+     * through the view.
+     */
+    public static class PendingView {
+
+        private final PendingRows[] generations;
+
+        private PendingView(PendingRows[] generations) {
+            this.generations = generations;
+        }
+
+        /**
+         * @param nid the chronology nid
+         * @param versions the rows read from the database, keyed by version stamp, to which the pending rows are
+         * added
+         */
+        public void addVersions(int nid, SortedMap<Integer, byte[]> versions) {
+            for (PendingRows rows : generations) {
+                PendingChronology chronology = rows.chronologies.get(nid);
+                if (chronology != null) {
+                    synchronized (chronology) {
+                        chronology.versions.forEach(versions::putIfAbsent);
+                    }
+                }
+            }
+        }
+
+        public boolean hasChronology(int nid, boolean semantic) {
+            for (PendingRows rows : generations) {
+                PendingChronology chronology = rows.chronologies.get(nid);
+                if (chronology != null && chronology.semantic == semantic) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        public OptionalInt getAssemblageNid(int nid) {
+            for (PendingRows rows : generations) {
+                PendingChronology chronology = rows.chronologies.get(nid);
+                if (chronology != null) {
+                    return OptionalInt.of(chronology.assemblageNid);
+                }
+            }
+            return OptionalInt.empty();
+        }
+
+        public void addAssemblageOfNids(SpinedNidIntMap nidToAssemblageNidMap) {
+            for (PendingRows rows : generations) {
+                rows.chronologies.forEach((nid, chronology) -> nidToAssemblageNidMap.put(nid, chronology.assemblageNid));
+            }
+        }
+
+        public void addNidsForAssemblage(int assemblageNid, NidSet nids) {
+            for (PendingRows rows : generations) {
+                rows.chronologies.forEach((nid, chronology) -> {
+                    if (chronology.assemblageNid == assemblageNid) {
+                        nids.add(nid);
+                    }
+                });
+            }
+        }
+
+        public void addSemanticNids(int componentNid, NidSet semanticNids) {
+            for (PendingRows rows : generations) {
+                Set<Integer> nids = rows.semanticNidsForComponent.get(componentNid);
+                if (nids != null) {
+                    nids.forEach(semanticNids::add);
+                }
+            }
+        }
+
+        /**
+         * @param assemblageNid the taxonomy assemblage
+         * @param conceptNid the concept
+         * @return the newest pending taxonomy data, or null if there is none
+         */
+        public int[] getTaxonomyData(int assemblageNid, int conceptNid) {
+            long key = taxonomyKey(assemblageNid, conceptNid);
+            for (PendingRows rows : generations) {
+                int[] taxonomyData = rows.taxonomyData.get(key);
+                if (taxonomyData != null) {
+                    return taxonomyData;
+                }
+            }
+            return null;
+        }
+
+        public OptionalInt getNid(UUID uuid) {
+            for (PendingRows rows : generations) {
+                Integer nid = rows.uuidToNid.get(uuid);
+                if (nid != null) {
+                    return OptionalInt.of(nid);
+                }
+            }
+            return OptionalInt.empty();
+        }
+
+        public Optional<UUID> getPrimordialUuid(int nid) {
+            for (PendingRows rows : generations) {
+                UUID uuid = rows.primordialUuids.get(nid);
+                if (uuid != null) {
+                    return Optional.of(uuid);
+                }
+            }
+            return Optional.empty();
+        }
+
+        public void addAdditionalUuids(int nid, List<UUID> uuids) {
+            for (PendingRows rows : generations) {
+                Set<UUID> additionalUuids = rows.additionalUuids.get(nid);
+                if (additionalUuids != null) {
+                    additionalUuids.stream().filter((uuid) -> !uuids.contains(uuid)).forEach(uuids::add);
+                }
+            }
+        }
+    }
+}
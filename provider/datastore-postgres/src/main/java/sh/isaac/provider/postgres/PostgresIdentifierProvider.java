@@ -86,12 +86,14 @@ public class PostgresIdentifierProvider
      */
     private final HikariDataSource ds;
     private final DataStore store;
+    private final PostgresBulkLoader bulkLoader;
     private UuidToIntMap uuidIntMapMap;
 
-    public PostgresIdentifierProvider(DataStore store, HikariDataSource ds) {
+    public PostgresIdentifierProvider(DataStore store, HikariDataSource ds, PostgresBulkLoader bulkLoader) {
         LOG.info("Contructor PostgresIdentifierProvider()");
         this.store = store;
         this.ds = ds;
+        this.bulkLoader = bulkLoader;
     }
 
     @Override
@@ -382,6 +384,10 @@ public class PostgresIdentifierProvider
 
     @Override
     public UUID getUuidPrimordialForNid(int nid) throws NoSuchElementException {
+        Optional<UUID> pendingUuid = this.bulkLoader.getPending().getPrimordialUuid(nid);
+        if (pendingUuid.isPresent()) {
+            return pendingUuid.get();
+        }
         try (Connection conn = this.ds.getConnection();
             PreparedStatement stmt = conn.prepareStatement(sqlReadUuidPrimordialForNid())) {
             stmt.setInt(1, nid);
@@ -402,6 +408,7 @@ public class PostgresIdentifierProvider
     public List<UUID> getUuidsForNid(int nid) throws NoSuchElementException {
         final ArrayList<UUID> uuidList = new ArrayList<>();
         uuidList.add(getUuidPrimordialForNid(nid));
+        PostgresBulkLoader.PendingView pendingRows = this.bulkLoader.getPending();
         try (Connection conn = this.ds.getConnection();
             PreparedStatement stmt = conn.prepareStatement(sqlReadUuidAdditionalForNid())) {
             stmt.setInt(1, nid);
@@ -414,6 +421,7 @@ public class PostgresIdentifierProvider
         } catch (SQLException ex) {
             LOG.error(ex.getLocalizedMessage(), ex);
         }
+        pendingRows.addAdditionalUuids(nid, uuidList);
         return uuidList;
     }
 
@@ -480,7 +488,13 @@ public class PostgresIdentifierProvider
     // absorbed directly into ProstgresIdentifierProvider. 
     private class PostgresUuidToIntMap implements UuidToIntMap {
 
+        /** Number of nids reserved from the nid_sequence at a time while bulk loading. */
+        private static final int NID_BLOCK_SIZE = 1000;
+
         HikariDataSource ds;
+        private final int[] reservedNids = new int[NID_BLOCK_SIZE];
+        private int reservedNidCount = 0;
+        private int reservedNidIndex = 0;
 
         public PostgresUuidToIntMap(HikariDataSource ds) {
             this.ds = ds;
@@ -507,6 +521,10 @@ public class PostgresIdentifierProvider
             return "SELECT u_nid FROM uuid_table WHERE ouid = ?; ";
         }
 
+        String sqlReadNidBlock() {
+            return "SELECT nextval('nid_sequence') FROM generate_series(1, ?) ORDER BY 1; ";
+        }
+
         //~--- methods -------------------------------------------------------------
         //////////////////////
         //// UuidToIntMap ////
@@ -517,6 +535,9 @@ public class PostgresIdentifierProvider
             if (keyUuid == null) {
                 throw new IllegalStateException("UUIDs cannot be null. ");
             }
+            if (bulkLoader.getPending().getNid(keyUuid).isPresent()) {
+                return true;
+            }
 
             try (Connection conn = this.ds.getConnection();
                 PreparedStatement stmt = conn.prepareStatement(sqlReadUuidToNid())) {
@@ -559,6 +580,17 @@ public class PostgresIdentifierProvider
         }
 
         private boolean putUuidNid(UUID uuidKey, int nid) {
+            if (bulkLoader.isActive()) {
+                // the same outcome as the inserts below, which fail on an existing uuid, or for the primordial
+                // table, on an existing nid.
+                if (get(uuidKey).isPresent()) {
+                    return false;
+                }
+                if (!bulkLoader.getPending().getPrimordialUuid(nid).isPresent() && !hasUuidPrimordial(nid)) {
+                    return bulkLoader.putPrimordialUuid(uuidKey, nid);
+                }
+                return bulkLoader.putAdditionalUuid(uuidKey, nid);
+            }
             try (Connection conn = this.ds.getConnection()) {
                 try (PreparedStatement stmt = conn.prepareStatement(sqlCreateUuidPrimordial())) {
                     stmt.setInt(1, nid);
@@ -584,6 +616,20 @@ public class PostgresIdentifierProvider
             return false;
         }
 
+        private boolean hasUuidPrimordial(int nid) {
+            try (Connection conn = this.ds.getConnection();
+                PreparedStatement stmt = conn.prepareStatement(sqlReadUuidPrimordialForNid())) {
+                stmt.setInt(1, nid);
+                logSqlStmt(stmt);
+                try (ResultSet resultSet = stmt.executeQuery()) {
+                    return resultSet.next();
+                }
+            } catch (SQLException ex) {
+                LOG.error(ex.getLocalizedMessage(), ex);
+            }
+            return false;
+        }
+
         @Override // UuidToIntMap
         public boolean put(UUID uuidKey, int nid) {
             // return true if the receiver did not already contain such a key;
@@ -594,6 +640,10 @@ public class PostgresIdentifierProvider
 
         @Override // UuidToIntMap  // :_!_:
         public OptionalInt get(UUID keyUuid) {
+            OptionalInt pendingNid = bulkLoader.getPending().getNid(keyUuid);
+            if (pendingNid.isPresent()) {
+                return pendingNid;
+            }
             try (Connection conn = this.ds.getConnection();
                 PreparedStatement stmt = conn.prepareStatement(sqlReadUuidToNid())) {
                 stmt.setObject(1, keyUuid);
@@ -632,6 +682,32 @@ public class PostgresIdentifierProvider
             throw new NoSuchElementException("No 'nextval()' from 'nid_sequence'.");
         }
 
+        // Hands out nids from blocks reserved with one query, rather than one query per nid.
+        private synchronized int nextNidProvider_IncrementAndGetFromBlock() {
+            if (reservedNidIndex == reservedNidCount) {
+                reservedNidIndex = 0;
+                reservedNidCount = 0;
+                try (Connection conn = this.ds.getConnection();
+                    PreparedStatement stmt = conn.prepareStatement(sqlReadNidBlock())) {
+                    stmt.setInt(1, NID_BLOCK_SIZE);
+                    logSqlStmt(stmt);
+                    try (ResultSet resultSet = stmt.executeQuery()) {
+                        while (resultSet.next()) {
+                            reservedNids[reservedNidCount++] = resultSet.getInt(1);
+                        }
+                    }
+                } catch (SQLException ex) {
+                    LOG.error(ex.getLocalizedMessage(), ex);
+                }
+                if (reservedNidCount == 0) {
+                    throw new NoSuchElementException("No 'nextval()' from 'nid_sequence'.");
+                }
+            }
+            int nid = reservedNids[reservedNidIndex++];
+            NEXT_NID_PROVIDER.accumulateAndGet(nid, Math::max);
+            return nid;
+        }
+
         private int nextNidProvider_Get() { // NEXT_NID_PROVIDER.get()
             return NEXT_NID_PROVIDER.get();
         }
@@ -668,6 +744,11 @@ public class PostgresIdentifierProvider
             }
 
             // :NYI: handle primordial vs. additional
+            if (bulkLoader.isActive()) {
+                int nidNew = nextNidProvider_IncrementAndGetFromBlock();
+                bulkLoader.putPrimordialUuid(uuidKey, nidNew);
+                return nidNew;
+            }
             int nidNew = nextNidProvider_IncrementAndGet();
 
             try (Connection conn = this.ds.getConnection();
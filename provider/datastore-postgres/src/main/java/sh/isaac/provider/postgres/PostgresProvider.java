@@ -28,14 +28,16 @@ import java.sql.Statement;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
 import java.util.NoSuchElementException;
 import java.util.Optional;
 import java.util.OptionalInt;
+import java.util.TreeMap;
 import java.util.UUID;
-import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.Future;
 import java.util.function.BinaryOperator;
+import java.util.function.ObjIntConsumer;
 import java.util.stream.IntStream;
 import javax.xml.bind.DatatypeConverter;
 import org.apache.logging.log4j.LogManager;
@@ -74,6 +76,8 @@ public class PostgresProvider
     private static final Logger LOG = LogManager.getLogger();
     private static final boolean LOG_SQL_FLAG = false;
     private static final boolean LOG_BYTECHECK_FLAG = false;
+    /** Maximum number of nids in the array parameter of one bulk read query. */
+    private static final int BULK_READ_SIZE = 1000;
 
     private void logSqlBytea(Statement stmt, byte[] bytes) {
         if (LOG_SQL_FLAG) {
@@ -98,6 +102,7 @@ public class PostgresProvider
 
     private UUID datastoreId = null; // :???: verify not `static`
     private PostgresIdentifierProvider identifierProvider;
+    private PostgresBulkLoader bulkLoader;
 
     public HikariDataSource ds;
 
@@ -277,7 +282,9 @@ public class PostgresProvider
             } finally {
                 LOG.info("Connection closed.");
             }
-            this.identifierProvider = new PostgresIdentifierProvider(store, this.ds);
+            this.bulkLoader = new PostgresBulkLoader(this.ds);
+            this.bulkLoader.restoreDeferredIndexes();
+            this.identifierProvider = new PostgresIdentifierProvider(store, this.ds, this.bulkLoader);
 
             this.identifierProvider.startMe();
         } finally {
@@ -287,6 +294,7 @@ public class PostgresProvider
 
     @Override // DataStoreSubService
     public void shutdown() {
+        this.bulkLoader.finish();
         this.identifierProvider.stopMe();
         if (this.ds != null) {
             this.ds.close();
@@ -348,8 +356,20 @@ public class PostgresProvider
             + "WHERE assemblage_type_token = ?; ";
     }
 
+    String sqlReadIdentifiedObjectDataForNids() {
+        return "SELECT o_nid, version_stamp, version_data "
+            + "FROM identified_objects_table "
+            + "WHERE o_nid = ANY(?) "
+            + "ORDER BY o_nid, version_stamp ASC; ";
+    }
+
+    String sqlReadSemanticNidsForComponents() {
+        return "SELECT referenced_component_nid, o_nid FROM semantics_table "
+            + "WHERE referenced_component_nid = ANY(?); ";
+    }
+
     String sqlReadIdentifiedObjectData() {
-        return "SELECT version_data "
+        return "SELECT version_stamp, version_data "
             + "FROM identified_objects_table "
             + "WHERE o_nid = ? "
             + "ORDER BY version_stamp ASC; ";
@@ -478,7 +498,19 @@ public class PostgresProvider
             }
             // :DEBUG:END:
 
-            if (chronology instanceof ConceptChronologyImpl) {
+            if (this.bulkLoader.isActive()) {
+                int[] rowStamps = new int[dataList.size()];
+                rowStamps[0] = -1; // version_stamp, base row.
+                System.arraycopy(versionStampSequences, 0, rowStamps, 1, rowStamps.length - 1);
+                if (chronology instanceof ConceptChronologyImpl) {
+                    this.bulkLoader.putChronology(chronologyNid, assemblageNid, Integer.MAX_VALUE, false,
+                        rowStamps, dataList);
+                } else {
+                    this.bulkLoader.putChronology(chronologyNid, assemblageNid,
+                        ((SemanticChronologyImpl) chronology).getReferencedComponentNid(), true,
+                        rowStamps, dataList);
+                }
+            } else if (chronology instanceof ConceptChronologyImpl) {
                 ConceptChronologyImpl concept = (ConceptChronologyImpl) chronology;
                 try (
                     Connection conn = this.ds.getConnection();
@@ -618,24 +650,69 @@ public class PostgresProvider
         if (!assemblageNidOptional.isPresent()) {
             return Optional.empty();
         }
-        final List<byte[]> dataList = new ArrayList();
+        PostgresBulkLoader.PendingView pendingRows = this.bulkLoader.getPending();
+        final TreeMap<Integer, byte[]> versions = new TreeMap<>();
         try (Connection conn = this.ds.getConnection();
             PreparedStatement stmt = conn.prepareStatement(sqlReadIdentifiedObjectData())) {
             stmt.setInt(1, nid);
             logSqlStmt(stmt);
             ResultSet resultSet = stmt.executeQuery();
             while (resultSet.next()) {
-                byte[] bytes = resultSet.getBytes(1);
-                dataList.add(bytes);
+                versions.put(resultSet.getInt(1), resultSet.getBytes(2));
             }
         } catch (SQLException ex) {
             LOG.error(ex.getLocalizedMessage(), ex);
         }
+        pendingRows.addVersions(nid, versions);
 
-        if (dataList.isEmpty()) {
+        if (versions.isEmpty()) {
             return Optional.empty();
         }
+        return Optional.of(toChronologyVersionData(nid, new ArrayList<>(versions.values())));
+    }
+
+    /**
+     * Reads the nids with one query per {@link #BULK_READ_SIZE} nids, rather than one query per nid.
+     */
+    @Override // DataStoreSubService:DataStore
+    public void getChronologyVersionData(int[] nids, ObjIntConsumer<ByteArrayDataBuffer> consumer) {
+        for (int start = 0; start < nids.length; start += BULK_READ_SIZE) {
+            int[] batch = Arrays.copyOfRange(nids, start, Math.min(nids.length, start + BULK_READ_SIZE));
+            Integer[] queryNids = Arrays.stream(batch)
+                    .filter(nid -> ModelGet.identifierService().getAssemblageNid(nid).isPresent())
+                    .boxed().toArray(Integer[]::new);
+            if (queryNids.length == 0) {
+                continue;
+            }
+            PostgresBulkLoader.PendingView pendingRows = this.bulkLoader.getPending();
+            HashMap<Integer, TreeMap<Integer, byte[]>> dataMap = new HashMap<>();
+            try (Connection conn = this.ds.getConnection();
+                PreparedStatement stmt = conn.prepareStatement(sqlReadIdentifiedObjectDataForNids())) {
+                stmt.setArray(1, conn.createArrayOf("integer", queryNids));
+                logSqlStmt(stmt);
+                try (ResultSet resultSet = stmt.executeQuery()) {
+                    while (resultSet.next()) {
+                        dataMap.computeIfAbsent(resultSet.getInt(1), (key) -> new TreeMap<>())
+                                .put(resultSet.getInt(2), resultSet.getBytes(3));
+                    }
+                }
+            } catch (SQLException ex) {
+                LOG.error(ex.getLocalizedMessage(), ex);
+            }
+            for (Integer nid : queryNids) {
+                TreeMap<Integer, byte[]> versions = dataMap.computeIfAbsent(nid, (key) -> new TreeMap<>());
+                pendingRows.addVersions(nid, versions);
+            }
+            for (int nid : batch) {
+                TreeMap<Integer, byte[]> versions = dataMap.get(nid);
+                if (versions != null && !versions.isEmpty()) {
+                    consumer.accept(toChronologyVersionData(nid, new ArrayList<>(versions.values())), nid);
+                }
+            }
+        }
+    }
 
+    private ByteArrayDataBuffer toChronologyVersionData(int nid, List<byte[]> dataList) {
         int size = 0;
         for (byte[] dataEntry : dataList) {
             size = size + dataEntry.length;
@@ -680,11 +757,12 @@ public class PostgresProvider
             throw new IllegalStateException("Size+4 = " + size + 4 + " used = " + byteBuffer.getUsed());
         }
 
-        return Optional.of(byteBuffer);
+        return byteBuffer;
     }
 
     @Override // DataStoreSubService:DataStore
     public int[] getSemanticNidsForComponent(int componentNid) {
+        PostgresBulkLoader.PendingView pendingRows = this.bulkLoader.getPending();
         NidSet results = new NidSet();
         try (Connection conn = this.ds.getConnection();
             PreparedStatement stmt = conn.prepareStatement(sqlReadSemanticNidsForComponent())) {
@@ -698,14 +776,53 @@ public class PostgresProvider
         } catch (SQLException ex) {
             LOG.error(ex.getLocalizedMessage(), ex);
         }
+        pendingRows.addSemanticNids(componentNid, results);
         return results.asArray();
     }
 
+    /**
+     * Reads the components with one query per {@link #BULK_READ_SIZE} components, rather than one query per 
+     * component.
+     */
+    @Override // DataStoreSubService:DataStore
+    public int[][] getSemanticNidsForComponents(int[] componentNids) {
+        int[][] results = new int[componentNids.length][];
+        for (int start = 0; start < componentNids.length; start += BULK_READ_SIZE) {
+            int end = Math.min(componentNids.length, start + BULK_READ_SIZE);
+            Integer[] queryNids = Arrays.stream(componentNids, start, end).boxed().toArray(Integer[]::new);
+            PostgresBulkLoader.PendingView pendingRows = this.bulkLoader.getPending();
+            HashMap<Integer, NidSet> semanticNidMap = new HashMap<>();
+            try (Connection conn = this.ds.getConnection();
+                PreparedStatement stmt = conn.prepareStatement(sqlReadSemanticNidsForComponents())) {
+                stmt.setArray(1, conn.createArrayOf("integer", queryNids));
+                logSqlStmt(stmt);
+                try (ResultSet resultSet = stmt.executeQuery()) {
+                    while (resultSet.next()) {
+                        semanticNidMap.computeIfAbsent(resultSet.getInt(1), (key) -> new NidSet())
+                                .add(resultSet.getInt(2));
+                    }
+                }
+            } catch (SQLException ex) {
+                LOG.error(ex.getLocalizedMessage(), ex);
+            }
+            for (int i = start; i < end; i++) {
+                NidSet semanticNids = semanticNidMap.computeIfAbsent(componentNids[i], (key) -> new NidSet());
+                pendingRows.addSemanticNids(componentNids[i], semanticNids);
+                results[i] = semanticNids.asArray();
+            }
+        }
+        return results;
+    }
+
     @Override // DataStoreSubService:DataStore
     public OptionalInt getAssemblageOfNid(int nid) {
         // Get the assemblage nid id that contains the identified object nid.
         // param: nid The nid of the object to find the assemblage container for
         // return: the assemblage nid that contains the nid
+        OptionalInt pendingAssemblageNid = this.bulkLoader.getPending().getAssemblageNid(nid);
+        if (pendingAssemblageNid.isPresent()) {
+            return pendingAssemblageNid;
+        }
         try (Connection conn = this.ds.getConnection();
             PreparedStatement stmt = conn.prepareStatement(sqlReadAssemblageNidForObjectNid())) {
             stmt.setInt(1, nid);
@@ -728,6 +845,10 @@ public class PostgresProvider
 
     @Override // DataStoreSubService:DataStore
     public int[] getTaxonomyData(int assemblageNid, int conceptNid) {
+        int[] pendingTaxonomyData = this.bulkLoader.getPending().getTaxonomyData(assemblageNid, conceptNid);
+        if (pendingTaxonomyData != null) {
+            return pendingTaxonomyData;
+        }
         try (Connection conn = this.ds.getConnection();
             PreparedStatement stmt = conn.prepareStatement(sqlReadTaxonomyData())) {
             stmt.setInt(1, conceptNid); // t_nid
@@ -748,17 +869,24 @@ public class PostgresProvider
         return new int[0];
     }
 
+    static byte[] taxonomyDataToBytes(int[] taxonomyData) {
+        // 4 bytes inbound taxonomyData int[] length + 4 bytes per element
+        ByteArrayDataBuffer byteBuffer = new ByteArrayDataBuffer((taxonomyData.length * 4) + 4);
+        byteBuffer.putIntArray(taxonomyData);
+        return byteBuffer.getData();
+    }
+
     private void putTaxonomyData(int assemblageNid, int conceptNid, int[] taxonomyData) {
+        if (this.bulkLoader.isActive()) {
+            this.bulkLoader.putTaxonomyData(assemblageNid, conceptNid, taxonomyData);
+            return;
+        }
         try (Connection conn = this.ds.getConnection();
             PreparedStatement stmt = conn.prepareStatement(sqlUpsertTaxonomyData())) {
             stmt.setInt(1, conceptNid); // t_nid
             stmt.setInt(2, assemblageNid); // assemblage_nid
 
-            // 4 bytes inbound taxonomyData int[] length + 4 bytes per element
-            ByteArrayDataBuffer byteBuffer = new ByteArrayDataBuffer((taxonomyData.length * 4) + 4);
-            byteBuffer.putIntArray(taxonomyData);
-
-            byte[] taxonomyBytes = byteBuffer.getData();
+            byte[] taxonomyBytes = taxonomyDataToBytes(taxonomyData);
 
             stmt.setBytes(3, taxonomyBytes); // taxonomy_data
             stmt.setBytes(4, taxonomyBytes); // taxonomy_data
@@ -774,12 +902,14 @@ public class PostgresProvider
 
     @Override // DataStoreSubService:DataStore
     public int[] accumulateAndGetTaxonomyData(int assemblageNid, int conceptNid, int[] newData, BinaryOperator<int[]> accumulatorFunction) {
-        StringBuilder sb = new StringBuilder();
-        sb.append(":TAXONOMY: ");
-        sb.append(debugGetUuidFromInt(assemblageNid).toString());
-        sb.append(" concept=");
-        sb.append(debugGetUuidFromInt(conceptNid).toString());
-        LOG.debug(sb.toString());
+        if (LOG.isDebugEnabled()) {
+            StringBuilder sb = new StringBuilder();
+            sb.append(":TAXONOMY: ");
+            sb.append(debugGetUuidFromInt(assemblageNid).toString());
+            sb.append(" concept=");
+            sb.append(debugGetUuidFromInt(conceptNid).toString());
+            LOG.debug(sb.toString());
+        }
 
         int[] oldData = getTaxonomyData(assemblageNid, conceptNid);
 
@@ -866,8 +996,12 @@ public class PostgresProvider
         if (null == ofType) {
             throw new UnsupportedOperationException("Can't handle null.");
         } else {
+            PostgresBulkLoader.PendingView pendingRows = this.bulkLoader.getPending();
             switch (ofType) {
             case CONCEPT:
+                if (pendingRows.hasChronology(nid, false)) {
+                    return true;
+                }
                 try (Connection conn = this.ds.getConnection();
                     PreparedStatement stmt = conn.prepareStatement(sqlReadConceptVersions())) {
                     stmt.setInt(1, nid);
@@ -881,6 +1015,9 @@ public class PostgresProvider
                 break;
 
             case SEMANTIC:
+                if (pendingRows.hasChronology(nid, true)) {
+                    return true;
+                }
                 try (Connection conn = this.ds.getConnection();
                     PreparedStatement stmt = conn.prepareStatement(sqlReadSemanticVersions())) {
                     stmt.setInt(1, nid);
@@ -911,6 +1048,7 @@ public class PostgresProvider
 
     @Override // DataStoreSubService:DataStore
     public IntStream getNidsForAssemblage(int assemblageNid) {
+        PostgresBulkLoader.PendingView pendingRows = this.bulkLoader.getPending();
         NidSet results = new NidSet();
         try (Connection conn = this.ds.getConnection();
             PreparedStatement stmt = conn.prepareStatement(sqlReadNidsForAssemblage())) {
@@ -924,6 +1062,7 @@ public class PostgresProvider
         } catch (SQLException ex) {
             LOG.error(ex.getLocalizedMessage(), ex);
         }
+        pendingRows.addNidsForAssemblage(assemblageNid, results);
         return results.stream();
     }
 
@@ -963,7 +1102,10 @@ public class PostgresProvider
     @Override // DataStoreStartState:DataStore:DatastoreServices
     public Future<?> sync() {
         // :NOTE: needs to write any pending data to disk.
-        return CompletableFuture.completedFuture(true);
+        return Get.executor().submit(() -> {
+            this.bulkLoader.finish();
+            return null;
+        });
     }
 
     @Override
@@ -1054,6 +1196,7 @@ public class PostgresProvider
         // Get the assemblage nid id that contains the identified object nid.
         // param: nid The nid of the object to find the assemblage container for
         // return: the assemblage nid that contains the nid
+        PostgresBulkLoader.PendingView pendingRows = this.bulkLoader.getPending();
         try (Connection conn = this.ds.getConnection();
              PreparedStatement stmt = conn.prepareStatement(loadAssemblageNidForObjectNid())) {
             logSqlStmt(stmt);
@@ -1065,5 +1208,6 @@ public class PostgresProvider
         } catch (SQLException ex) {
             LOG.error(ex.getLocalizedMessage(), ex);
         }
+        pendingRows.addAssemblageOfNids(nidToAssemblageNidMap);
     }
 }
@@ -50,6 +50,7 @@ import java.time.ZoneOffset;
 import java.time.ZonedDateTime;
 import java.time.format.DateTimeFormatter;
 import java.time.format.FormatStyle;
+import java.util.HashMap;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.NoSuchElementException;
@@ -104,6 +105,11 @@ public class PostgresStampProvider
     private static final Logger LOG = LogManager.getLogger();
     private static final boolean LOG_SQL_FLAG = false;
 
+    /**
+     * Number of stamps held back in a db build mode before they are copied to the data store.
+     */
+    private static final int PENDING_STAMP_FLUSH_COUNT = 10_000;
+
     private void logSqlBytea(Statement stmt, byte[] bytes) {
         if (LOG_SQL_FLAG) {
             LOG.debug(":SQL: " + stmt.toString()
@@ -156,6 +162,11 @@ public class PostgresStampProvider
      */
     private final ConcurrentHashMap<Integer, Stamp> cacheStampSequenceToStampObjectMap;
 
+    /**
+     * Stamps not yet written to the data store, in a db build mode.
+     */
+    private final ConcurrentHashMap<Integer, Stamp> pendingStampSequenceToStampObjectMap = new ConcurrentHashMap<>();
+
     public HikariDataSource ds;
     private DataStore dataStore = null;
 
@@ -543,12 +554,12 @@ public class PostgresStampProvider
     @PreDestroy
     private void stopMe() {
         LOG.info("Stopping PostgresStampProvider pre-destroy. ");
+        writeData();
+
         if (this.ds != null) {
             this.ds.close();
         }
 
-        writeData();
-
         this.nextStampSequence.set(FIRST_STAMP_SEQUENCE);
 
         // :CACHE:
@@ -561,6 +572,7 @@ public class PostgresStampProvider
 
     private void writeData() throws RuntimeException {
         //Just write the unwritten bits to the data store
+        storeStampCreatePending();
         //Should be there already, but make sure we have the latest
         putStampNextSequenceSetval(nextStampSequence.get());
         //stamps are written as they are created
@@ -790,7 +802,9 @@ public class PostgresStampProvider
                     cacheUncommittedStampToStampSequenceMap.get()
                         .put(uncommittedStamp, stampSequence);
                     this.cacheStampSequenceToStampObjectMap.put(stampSequence, stampKey);
-                    putStampNextSequenceSetval(nextStampSequence.get());
+                    if (!Get.configurationService().isInDBBuildMode()) {
+                        putStampNextSequenceSetval(nextStampSequence.get());
+                    }
                     return stampSequence;
                 } finally {
                     this.stampLock.unlock();
@@ -811,7 +825,9 @@ public class PostgresStampProvider
 
                     this.cacheStampSequenceToStampObjectMap.put(stampValue.getAsInt(), stampKey);
                     this.cacheStampObjectToStampSequenceMap.put(stampKey, stampValue.getAsInt());
-                    putStampNextSequenceSetval(nextStampSequence.get());
+                    if (!Get.configurationService().isInDBBuildMode()) {
+                        putStampNextSequenceSetval(nextStampSequence.get());
+                    }
                     storeStampCreate(stampValue.getAsInt(), stampKey);
                 }
             } finally {
@@ -1048,6 +1064,13 @@ public class PostgresStampProvider
     }
 
     private void storeStampCreate(int stampSequence, Stamp stampObject) {
+        if (Get.configurationService().isInDBBuildMode()) {
+            this.pendingStampSequenceToStampObjectMap.put(stampSequence, stampObject);
+            if (this.pendingStampSequenceToStampObjectMap.size() >= PENDING_STAMP_FLUSH_COUNT) {
+                storeStampCreatePending();
+            }
+            return;
+        }
         String sql = "INSERT INTO stamp_committed_table "
             + "(stamp_committed_sequence, stamp_committed_data) "
             + "VALUES (?,?) "
@@ -1069,6 +1092,54 @@ public class PostgresStampProvider
         }
     }
 
+    /**
+     * Copy the stamps held back in a db build mode to the data store, with one COPY and one insert.
+     */
+    private synchronized void storeStampCreatePending() {
+        if (this.pendingStampSequenceToStampObjectMap.isEmpty()) {
+            return;
+        }
+        Map<Integer, Stamp> stamps = new HashMap<>(this.pendingStampSequenceToStampObjectMap);
+        String sqlCreate = "CREATE TEMP TABLE IF NOT EXISTS bulk_stamp_committed "
+            + "(stamp_committed_sequence INTEGER, stamp_committed_data bytea) "
+            + "ON COMMIT DELETE ROWS; ";
+        String sqlMerge = "INSERT INTO stamp_committed_table "
+            + "(stamp_committed_sequence, stamp_committed_data) "
+            + "SELECT stamp_committed_sequence, stamp_committed_data FROM bulk_stamp_committed "
+            + "ON CONFLICT DO NOTHING; ";
+        String sqlSetVal = "SELECT setval('stamp_next_sequence', ?, false); ";
+
+        try (Connection conn = this.ds.getConnection()) {
+            conn.setAutoCommit(false);
+            try (Statement stmt = conn.createStatement()) {
+                logSqlString(sqlCreate);
+                stmt.execute(sqlCreate);
+            }
+            try (PostgresBinaryCopy copy = new PostgresBinaryCopy(conn, "bulk_stamp_committed",
+                    "stamp_committed_sequence", "stamp_committed_data")) {
+                for (Entry<Integer, Stamp> entry : stamps.entrySet()) {
+                    copy.startRow();
+                    copy.putInt(entry.getKey());
+                    copy.putBytes(convertStampToBytes(entry.getValue()));
+                }
+                copy.endCopy();
+            }
+            try (Statement stmt = conn.createStatement()) {
+                logSqlString(sqlMerge);
+                stmt.execute(sqlMerge);
+            }
+            try (PreparedStatement stmt = conn.prepareStatement(sqlSetVal)) {
+                stmt.setInt(1, nextStampSequence.get());
+                logSqlStmt(stmt);
+                stmt.execute();
+            }
+            conn.commit();
+            stamps.forEach(this.pendingStampSequenceToStampObjectMap::remove);
+        } catch (SQLException | IOException ex) {
+            LOG.error(ex.getLocalizedMessage(), ex);
+        }
+    }
+
     private void storeUncommittedStampDeleteAll() {
         String sql = "DELETE FROM stamp_uncommitted_table; ";
 
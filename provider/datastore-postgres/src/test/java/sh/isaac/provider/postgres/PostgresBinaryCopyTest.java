@@ -0,0 +1,185 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ *
+ * You may not use this file except in compliance with the License.
+ *
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package sh.isaac.provider.postgres;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.sql.SQLException;
+import java.util.UUID;
+import org.postgresql.copy.CopyIn;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+/**
+ * Checks the bytes {@link PostgresBinaryCopy} writes against the Postgres binary COPY format.
+ *
+ * @author kec
+ */
+public class PostgresBinaryCopyTest {
+
+    private static final byte[] SIGNATURE = {'P', 'G', 'C', 'O', 'P', 'Y', '\n', (byte) 0xFF, '\r', '\n', 0};
+
+    @Test
+    public void testEmptyCopy() throws Exception {
+        RecordingCopyIn copyIn = new RecordingCopyIn();
+        try (PostgresBinaryCopy copy = new PostgresBinaryCopy(copyIn, 2)) {
+            copy.endCopy();
+        }
+
+        ByteArrayOutputStream expected = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(expected);
+        writeHeader(out);
+        out.writeShort(-1);
+
+        Assert.assertEquals(copyIn.written.toByteArray(), expected.toByteArray());
+        Assert.assertTrue(copyIn.ended);
+        Assert.assertFalse(copyIn.cancelled);
+    }
+
+    @Test
+    public void testRowEncoding() throws Exception {
+        UUID uuid = UUID.fromString("c2f1b3a4-7e3d-4a9b-8f21-0d6c5e4b3a21");
+        byte[] data = {1, 2, 3, (byte) 0xFE};
+        RecordingCopyIn copyIn = new RecordingCopyIn();
+        try (PostgresBinaryCopy copy = new PostgresBinaryCopy(copyIn, 3)) {
+            copy.startRow();
+            copy.putInt(-42);
+            copy.putBytes(data);
+            copy.putUuid(uuid);
+            copy.startRow();
+            copy.putInt(Integer.MAX_VALUE);
+            copy.putBytes(new byte[0]);
+            copy.putUuid(uuid);
+            Assert.assertEquals(copy.endCopy(), 2L);
+        }
+
+        ByteArrayOutputStream expected = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(expected);
+        writeHeader(out);
+        out.writeShort(3);
+        out.writeInt(4);
+        out.writeInt(-42);
+        out.writeInt(data.length);
+        out.write(data);
+        out.writeInt(16);
+        out.writeLong(uuid.getMostSignificantBits());
+        out.writeLong(uuid.getLeastSignificantBits());
+        out.writeShort(3);
+        out.writeInt(4);
+        out.writeInt(Integer.MAX_VALUE);
+        out.writeInt(0);
+        out.writeInt(16);
+        out.writeLong(uuid.getMostSignificantBits());
+        out.writeLong(uuid.getLeastSignificantBits());
+        out.writeShort(-1);
+
+        Assert.assertEquals(copyIn.written.toByteArray(), expected.toByteArray());
+    }
+
+    @Test
+    public void testCloseWithoutEndCancels() throws Exception {
+        RecordingCopyIn copyIn = new RecordingCopyIn();
+        try (PostgresBinaryCopy copy = new PostgresBinaryCopy(copyIn, 1)) {
+            copy.startRow();
+            copy.putInt(7);
+        }
+        Assert.assertTrue(copyIn.cancelled);
+        Assert.assertFalse(copyIn.ended);
+    }
+
+    private static void writeHeader(DataOutputStream out) throws IOException {
+        out.write(SIGNATURE);
+        out.writeInt(0);
+        out.writeInt(0);
+    }
+
+    /**
+     * Records the bytes written to the copy.
+     */
+    private static class RecordingCopyIn implements CopyIn {
+
+        final ByteArrayOutputStream written = new ByteArrayOutputStream();
+        boolean ended = false;
+        boolean cancelled = false;
+
+        @Override
+        public void writeToCopy(byte[] buf, int off, int siz) throws SQLException {
+            if (!isActive()) {
+                throw new SQLException("Copy is not active");
+            }
+            written.write(buf, off, siz);
+        }
+
+        @Override
+        public void flushCopy() throws SQLException {
+        }
+
+        @Override
+        public long endCopy() throws SQLException {
+            ended = true;
+            return getHandledRowCount();
+        }
+
+        @Override
+        public int getFieldCount() {
+            return 0;
+        }
+
+        @Override
+        public int getFormat() {
+            return 1;
+        }
+
+        @Override
+        public int getFieldFormat(int field) {
+            return 1;
+        }
+
+        @Override
+        public boolean isActive() {
+            return !ended && !cancelled;
+        }
+
+        @Override
+        public void cancelCopy() throws SQLException {
+            cancelled = true;
+        }
+
+        @Override
+        public long getHandledRowCount() {
+            // Walks the copied rows by their field counts and lengths, as the server would.
+            byte[] bytes = written.toByteArray();
+            long rows = 0;
+            int offset = SIGNATURE.length + 8;
+            while (offset + 2 <= bytes.length) {
+                short fields = (short) (((bytes[offset] & 0xFF) << 8) | (bytes[offset + 1] & 0xFF));
+                offset += 2;
+                if (fields == -1) {
+                    break;
+                }
+                rows++;
+                for (int i = 0; i < fields; i++) {
+                    int length = ((bytes[offset] & 0xFF) << 24) | ((bytes[offset + 1] & 0xFF) << 16)
+                            | ((bytes[offset + 2] & 0xFF) << 8) | (bytes[offset + 3] & 0xFF);
+                    offset += 4 + length;
+                }
+            }
+            return rows;
+        }
+    }
+}
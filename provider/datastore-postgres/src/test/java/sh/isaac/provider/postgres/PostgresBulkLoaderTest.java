@@ -0,0 +1,211 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ *
+ * You may not use this file except in compliance with the License.
+ *
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package sh.isaac.provider.postgres;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.TreeMap;
+import java.util.UUID;
+import org.testng.Assert;
+import org.testng.SkipException;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+/**
+ * Loads rows into an embedded Postgres server through {@link PostgresBulkLoader}, and reads them back.
+ *
+ * @author kec
+ */
+public class PostgresBulkLoaderTest {
+
+    private static final String[] CREATE_TABLES = {
+        "CREATE TABLE identified_objects_table (o_nid INTEGER, assemblage_nid INTEGER, version_stamp INTEGER, "
+        + "version_data bytea, PRIMARY KEY (o_nid, version_stamp)); ",
+        "CREATE TABLE concepts_table () INHERITS (identified_objects_table); ",
+        "CREATE UNIQUE INDEX concepts_table_pkey ON concepts_table USING btree (o_nid, version_stamp); ",
+        "CREATE TABLE semantics_table (referenced_component_nid INTEGER) INHERITS (identified_objects_table); ",
+        "CREATE UNIQUE INDEX semantics_table_pkey ON semantics_table USING btree (o_nid, version_stamp); ",
+        "CREATE INDEX semantics_table_assemblage_idx ON semantics_table USING btree (assemblage_nid); ",
+        "CREATE TABLE taxonomy_data_table (t_nid INTEGER, assemblage_nid INTEGER, taxonomy_data bytea, "
+        + "CONSTRAINT taxonomy_data_pk UNIQUE (t_nid, assemblage_nid), PRIMARY KEY (t_nid, assemblage_nid)); ",
+        "CREATE TABLE uuid_table (u_nid INTEGER, ouid uuid, UNIQUE (ouid), PRIMARY KEY (u_nid, ouid)); ",
+        "CREATE TABLE uuid_primordial_table (UNIQUE (u_nid)) INHERITS (uuid_table); ",
+        "CREATE UNIQUE INDEX uuid_primordial_table_ouid_key ON uuid_primordial_table USING btree (ouid); ",
+        "CREATE TABLE uuid_additional_table () INHERITS (uuid_table); ",
+        "CREATE UNIQUE INDEX uuid_additional_table_ouid_key ON uuid_additional_table USING btree (ouid); "};
+
+    private static final String DROP_TABLES = "DROP TABLE IF EXISTS identified_objects_table, taxonomy_data_table, "
+            + "uuid_table CASCADE; ";
+
+    private EmbeddedPostgres postgres;
+    private HikariDataSource ds;
+
+    @BeforeClass
+    public void startPostgres() {
+        try {
+            postgres = EmbeddedPostgres.start();
+        } catch (Exception | Error ex) {
+            // initdb refuses to run as root, and the binaries are not available on every platform.
+            throw new SkipException("Embedded Postgres could not be started: " + ex.getMessage(), ex);
+        }
+        HikariConfig config = new HikariConfig();
+        config.setDataSource(postgres.getPostgresDatabase());
+        config.setMaximumPoolSize(4);
+        ds = new HikariDataSource(config);
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void stopPostgres() throws Exception {
+        if (ds != null) {
+            ds.close();
+        }
+        if (postgres != null) {
+            postgres.close();
+        }
+    }
+
+    @BeforeMethod
+    public void createTables() throws SQLException {
+        try (Connection conn = ds.getConnection();
+            Statement stmt = conn.createStatement()) {
+            stmt.execute(DROP_TABLES);
+            for (String sql : CREATE_TABLES) {
+                stmt.execute(sql);
+            }
+        }
+    }
+
+    @Test
+    public void testLoadAndRead() throws SQLException {
+        PostgresBulkLoader loader = new PostgresBulkLoader(ds);
+        UUID conceptUuid = UUID.randomUUID();
+        UUID additionalUuid = UUID.randomUUID();
+
+        loader.putChronology(1, 10, 0, false, new int[]{-1, 5}, Arrays.asList(new byte[]{1}, new byte[]{1, 5}));
+        loader.putChronology(2, 20, 1, true, new int[]{-1, 6}, Arrays.asList(new byte[]{2}, new byte[]{2, 6}));
+        loader.putTaxonomyData(30, 1, new int[]{1, 2, 3});
+        Assert.assertTrue(loader.putPrimordialUuid(conceptUuid, 1));
+        Assert.assertFalse(loader.putPrimordialUuid(conceptUuid, 1));
+        Assert.assertTrue(loader.putAdditionalUuid(additionalUuid, 1));
+        loader.flush();
+
+        // A second generation repeats a stored version and replaces the taxonomy record.
+        loader.putChronology(1, 10, 0, false, new int[]{5, 7}, Arrays.asList(new byte[]{9}, new byte[]{1, 7}));
+        loader.putTaxonomyData(30, 1, new int[]{4, 5});
+        loader.finish();
+
+        Assert.assertEquals(queryCount("SELECT count(*) FROM concepts_table WHERE o_nid = 1"), 3);
+        Assert.assertEquals(queryCount("SELECT count(*) FROM semantics_table WHERE o_nid = 2 "
+                + "AND assemblage_nid = 20 AND referenced_component_nid = 1"), 2);
+        Assert.assertEquals(queryBytes("SELECT version_data FROM concepts_table WHERE o_nid = 1 AND version_stamp = 5"),
+                new byte[]{1, 5});
+        Assert.assertEquals(queryBytes("SELECT taxonomy_data FROM taxonomy_data_table WHERE t_nid = 1 "
+                + "AND assemblage_nid = 30"), PostgresProvider.taxonomyDataToBytes(new int[]{4, 5}));
+        Assert.assertEquals(queryCount("SELECT count(*) FROM uuid_primordial_table WHERE u_nid = 1 AND ouid = '"
+                + conceptUuid + "'"), 1);
+        Assert.assertEquals(queryCount("SELECT count(*) FROM uuid_additional_table WHERE u_nid = 1 AND ouid = '"
+                + additionalUuid + "'"), 1);
+
+        // The deferred index and constraint are back once the load finishes.
+        Assert.assertEquals(queryCount("SELECT count(*) FROM pg_indexes "
+                + "WHERE indexname = 'semantics_table_assemblage_idx'"), 1);
+        Assert.assertEquals(queryCount("SELECT count(*) FROM pg_constraint WHERE conname = 'taxonomy_data_pk'"), 1);
+
+        PostgresBulkLoader.PendingView pending = loader.getPending();
+        Assert.assertFalse(pending.hasChronology(1, false));
+        Assert.assertFalse(pending.getNid(conceptUuid).isPresent());
+    }
+
+    @Test
+    public void testFailedFlushThrowsAndKeepsRowsPending() throws SQLException {
+        PostgresBulkLoader loader = new PostgresBulkLoader(ds);
+        UUID uuid = UUID.randomUUID();
+        loader.putChronology(1, 10, 0, false, new int[]{-1}, Arrays.asList(new byte[][]{{1}}));
+        loader.putPrimordialUuid(uuid, 1);
+
+        execute("ALTER TABLE uuid_additional_table RENAME TO uuid_additional_table_moved; ");
+        try {
+            loader.flush();
+            Assert.fail("The flush should fail while a target table is missing");
+        } catch (RuntimeException ex) {
+            Assert.assertTrue(ex.getCause() instanceof SQLException, ex.toString());
+        }
+
+        PostgresBulkLoader.PendingView pending = loader.getPending();
+        Assert.assertTrue(pending.hasChronology(1, false));
+        Assert.assertEquals(pending.getNid(uuid).getAsInt(), 1);
+        TreeMap<Integer, byte[]> versions = new TreeMap<>();
+        pending.addVersions(1, versions);
+        Assert.assertEquals(versions.get(-1), new byte[]{1});
+        Assert.assertEquals(queryCount("SELECT count(*) FROM concepts_table"), 0);
+
+        // Once the table is back, the rows kept from the failed flush are stored.
+        execute("ALTER TABLE uuid_additional_table_moved RENAME TO uuid_additional_table; ");
+        loader.finish();
+        Assert.assertEquals(queryCount("SELECT count(*) FROM concepts_table WHERE o_nid = 1"), 1);
+        Assert.assertEquals(queryCount("SELECT count(*) FROM uuid_primordial_table WHERE u_nid = 1"), 1);
+        Assert.assertFalse(loader.getPending().hasChronology(1, false));
+    }
+
+    @Test
+    public void testFailedFinishThrows() throws SQLException {
+        PostgresBulkLoader loader = new PostgresBulkLoader(ds);
+        loader.putTaxonomyData(30, 1, new int[]{1});
+        execute("ALTER TABLE taxonomy_data_table RENAME TO taxonomy_data_table_moved; ");
+        try {
+            loader.finish();
+            Assert.fail("The finish should fail while a target table is missing");
+        } catch (RuntimeException ex) {
+            Assert.assertTrue(ex.getCause() instanceof SQLException, ex.toString());
+        }
+        Assert.assertEquals(loader.getPending().getTaxonomyData(30, 1), new int[]{1});
+        execute("ALTER TABLE taxonomy_data_table_moved RENAME TO taxonomy_data_table; ");
+    }
+
+    private void execute(String sql) throws SQLException {
+        try (Connection conn = ds.getConnection();
+            Statement stmt = conn.createStatement()) {
+            stmt.execute(sql);
+        }
+    }
+
+    private int queryCount(String sql) throws SQLException {
+        try (Connection conn = ds.getConnection();
+            Statement stmt = conn.createStatement();
+            ResultSet rs = stmt.executeQuery(sql)) {
+            rs.next();
+            return rs.getInt(1);
+        }
+    }
+
+    private byte[] queryBytes(String sql) throws SQLException {
+        try (Connection conn = ds.getConnection();
+            Statement stmt = conn.createStatement();
+            ResultSet rs = stmt.executeQuery(sql)) {
+            Assert.assertTrue(rs.next(), sql);
+            return rs.getBytes(1);
+        }
+    }
+}
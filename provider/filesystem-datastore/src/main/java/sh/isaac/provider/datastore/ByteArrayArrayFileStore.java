@@ -1,16 +1,53 @@
 package sh.isaac.provider.datastore;
 
+import sh.isaac.api.util.MappedBuffers;
 import sh.isaac.model.collections.store.ByteArrayArrayStore;
 
 import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.Semaphore;
 import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 import static sh.isaac.model.collections.SpineFileUtil.SPINE_PREFIX;
 
+/**
+ * Stores each spine of a {@link sh.isaac.model.collections.SpinedByteArrayArrayMap} in its own file.
+ *
+ * Spines are written in an offset indexed format: a header of [int magic][int element count], followed by a table
+ * with a long file offset for each element (0 if the element is absent), followed by the element records. Each
+ * element record is [int value count] followed by [int length][bytes] for each value. The files are read through a
+ * {@link MappedByteBuffer}, so a read of one element only touches the pages of that element. Changed elements are
+ * appended to the end of the file, and their offsets updated in place; the spine is rewritten in full only when
+ * superseded records take up more than half the file.
+ *
+ * Spines written in the prior format, [int element count] followed by the element records, are still read, and are
+ * converted to the offset indexed format the next time they are written.
+ *
+ * A mapping is read only under the read lock of {@link #mappingLock}, and is unmapped under its write lock, when the
+ * spine is written or the store is closed, so a file is never replaced while it is mapped, and no reader uses a
+ * mapping after it is unmapped.
+ */
 public class ByteArrayArrayFileStore extends SpinedArrayFileStore implements ByteArrayArrayStore {
 
+    private static final int OFFSET_INDEXED_MAGIC = 0xB5A1_0002;
+    private static final int HEADER_SIZE = 8;
+    private static final String TEMP_PREFIX = "tmp-";
+
+    /** Mapped spine files, or {@link #LEGACY_FORMAT} for spines that must be read in full. */
+    private final ConcurrentHashMap<Integer, ByteBuffer> spineMappings = new ConcurrentHashMap<>();
+    private static final ByteBuffer LEGACY_FORMAT = ByteBuffer.allocate(0);
+    private final ReentrantReadWriteLock mappingLock = new ReentrantReadWriteLock();
+
+    /** Unmaps a mapped buffer, or null if mappings must be left to garbage collection. */
+
     public ByteArrayArrayFileStore(File directory) {
         super(directory);
     }
@@ -21,6 +58,278 @@ public class ByteArrayArrayFileStore extends SpinedArrayFileStore implements Byt
 
     @Override
     public Optional<AtomicReferenceArray<byte[][]>> get(int spineIndex) {
+        ByteBuffer mapping;
+        mappingLock.readLock().lock();
+        try {
+            mapping = getMapping(spineIndex);
+            if (mapping == null) {
+                return Optional.empty();
+            }
+            if (mapping != LEGACY_FORMAT) {
+                int arraySize = mapping.getInt(4);
+                AtomicReferenceArray<byte[][]> spine = new AtomicReferenceArray<>(arraySize);
+                int i = 0;
+                for (; i < arraySize; i++) {
+                    long offset = mapping.getLong(HEADER_SIZE + i * 8);
+                    if (offset >= mapping.capacity()) {
+                        break;
+                    }
+                    spine.set(i, readElement(mapping, offset));
+                }
+                if (i == arraySize) {
+                    return Optional.of(spine);
+                }
+            }
+        } finally {
+            mappingLock.readLock().unlock();
+        }
+        if (mapping == LEGACY_FORMAT) {
+            return readLegacySpine(spineIndex);
+        }
+        // element appended since the file was mapped
+        releaseMapping(spineIndex, mapping);
+        return get(spineIndex);
+    }
+
+    @Override
+    public boolean supportsElementReads(int spineIndex) {
+        mappingLock.readLock().lock();
+        try {
+            ByteBuffer mapping = getMapping(spineIndex);
+            return mapping != null && mapping != LEGACY_FORMAT;
+        } finally {
+            mappingLock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public byte[][] getElement(int spineIndex, int indexInSpine) {
+        ByteBuffer mapping;
+        mappingLock.readLock().lock();
+        try {
+            mapping = getMapping(spineIndex);
+            if (mapping == null) {
+                return null;
+            }
+            if (mapping != LEGACY_FORMAT) {
+                long offset = mapping.getLong(HEADER_SIZE + indexInSpine * 8);
+                if (offset < mapping.capacity()) {
+                    return readElement(mapping, offset);
+                }
+            }
+        } finally {
+            mappingLock.readLock().unlock();
+        }
+        if (mapping == LEGACY_FORMAT) {
+            return readLegacySpine(spineIndex).map(spine -> spine.get(indexInSpine)).orElse(null);
+        }
+        // element appended since the file was mapped
+        releaseMapping(spineIndex, mapping);
+        return getElement(spineIndex, indexInSpine);
+    }
+
+    @Override
+    public void put(int spineIndex, AtomicReferenceArray<byte[][]> spine) {
+        put(spineIndex, spine, null);
+    }
+
+    @Override
+    public void put(int spineIndex, AtomicReferenceArray<byte[][]> spine, int[] changedIndexes) {
+        File spineFile = new File(directory, SPINE_PREFIX + spineIndex);
+        diskSemaphore.acquireUninterruptibly();
+        try {
+            long fullSize = getFullSize(spine);
+            boolean writeFull;
+            mappingLock.readLock().lock();
+            try {
+                ByteBuffer mapping = getMapping(spineIndex);
+                writeFull = changedIndexes == null || mapping == null || mapping == LEGACY_FORMAT
+                        || mapping.getInt(4) != spine.length()
+                        || spineFile.length() + getAppendSize(spine, changedIndexes) > 2 * fullSize;
+            } finally {
+                mappingLock.readLock().unlock();
+            }
+            if (writeFull) {
+                writeFull(spineIndex, spine);
+            } else {
+                append(spineFile, spine, changedIndexes);
+            }
+        } catch (IOException ex) {
+            LOG.error(ex);
+        } finally {
+            releaseMapping(spineIndex, null);
+            diskSemaphore.release();
+        }
+    }
+
+    /**
+     * Unmaps all the spine files.
+     */
+    @Override
+    public void close() {
+        mappingLock.writeLock().lock();
+        try {
+            spineMappings.values().forEach(MappedBuffers::unmap);
+            spineMappings.clear();
+        } finally {
+            mappingLock.writeLock().unlock();
+        }
+    }
+
+    private void writeFull(int spineIndex, AtomicReferenceArray<byte[][]> spine) throws IOException {
+        directory.mkdirs();
+        File spineFile = new File(directory, SPINE_PREFIX + spineIndex);
+        File tempFile = new File(directory, TEMP_PREFIX + SPINE_PREFIX + spineIndex);
+        try (DataOutputStream dos = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tempFile)))) {
+            dos.writeInt(OFFSET_INDEXED_MAGIC);
+            dos.writeInt(spine.length());
+            long offset = HEADER_SIZE + spine.length() * 8L;
+            for (int i = 0; i < spine.length(); i++) {
+                byte[][] value = spine.get(i);
+                if (value == null) {
+                    dos.writeLong(0);
+                } else {
+                    dos.writeLong(offset);
+                    offset += getRecordSize(value);
+                }
+            }
+            for (int i = 0; i < spine.length(); i++) {
+                byte[][] value = spine.get(i);
+                if (value != null) {
+                    writeRecord(dos, value);
+                }
+            }
+        }
+        mappingLock.writeLock().lock();
+        try {
+            MappedBuffers.unmap(spineMappings.remove(spineIndex));
+            Files.move(tempFile.toPath(), spineFile.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            mappingLock.writeLock().unlock();
+        }
+    }
+
+    private void append(File spineFile, AtomicReferenceArray<byte[][]> spine, int[] changedIndexes) throws IOException {
+        try (FileChannel channel = FileChannel.open(spineFile.toPath(), StandardOpenOption.WRITE)) {
+            long offset = channel.size();
+            long[] offsets = new long[changedIndexes.length];
+            ByteArrayOutputStream records = new ByteArrayOutputStream();
+            try (DataOutputStream dos = new DataOutputStream(records)) {
+                for (int i = 0; i < changedIndexes.length; i++) {
+                    byte[][] value = spine.get(changedIndexes[i]);
+                    if (value != null) {
+                        offsets[i] = offset + dos.size();
+                        writeRecord(dos, value);
+                    }
+                }
+            }
+            ByteBuffer recordBuffer = ByteBuffer.wrap(records.toByteArray());
+            while (recordBuffer.hasRemaining()) {
+                offset += channel.write(recordBuffer, offset);
+            }
+            // The records must be durable before the offset table refers to them.
+            channel.force(false);
+            ByteBuffer offsetBuffer = ByteBuffer.allocate(8);
+            for (int i = 0; i < changedIndexes.length; i++) {
+                offsetBuffer.clear();
+                offsetBuffer.putLong(offsets[i]).flip();
+                channel.write(offsetBuffer, HEADER_SIZE + changedIndexes[i] * 8L);
+            }
+            channel.force(false);
+        }
+    }
+
+    private ByteBuffer getMapping(int spineIndex) {
+        return spineMappings.computeIfAbsent(spineIndex, (key) -> {
+            File spineFile = new File(directory, SPINE_PREFIX + spineIndex);
+            if (!spineFile.exists()) {
+                return null;
+            }
+            try (FileChannel channel = FileChannel.open(spineFile.toPath(), StandardOpenOption.READ)) {
+                MappedByteBuffer mapping = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+                if (mapping.capacity() < HEADER_SIZE || mapping.getInt(0) != OFFSET_INDEXED_MAGIC) {
+                    MappedBuffers.unmap(mapping);
+                    return LEGACY_FORMAT;
+                }
+                return mapping;
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+        });
+    }
+
+    /**
+     * Remove the mapping of a spine, and unmap it.
+     *
+     * @param spineIndex the index of the spine
+     * @param mapping the mapping to remove, or null to remove any mapping of the spine
+     */
+    private void releaseMapping(int spineIndex, ByteBuffer mapping) {
+        mappingLock.writeLock().lock();
+        try {
+            if (mapping == null) {
+                MappedBuffers.unmap(spineMappings.remove(spineIndex));
+            } else if (spineMappings.remove(spineIndex, mapping)) {
+                MappedBuffers.unmap(mapping);
+            }
+        } finally {
+            mappingLock.writeLock().unlock();
+        }
+    }
+
+    private static byte[][] readElement(ByteBuffer mapping, long offset) {
+        if (offset == 0) {
+            return null;
+        }
+        ByteBuffer buffer = mapping.duplicate();
+        buffer.position((int) offset);
+        byte[][] value = new byte[buffer.getInt()][];
+        for (int j = 0; j < value.length; j++) {
+            value[j] = new byte[buffer.getInt()];
+            buffer.get(value[j]);
+        }
+        return value;
+    }
+
+    private static void writeRecord(DataOutputStream dos, byte[][] value) throws IOException {
+        dos.writeInt(value.length);
+        for (byte[] valuePart : value) {
+            dos.writeInt(valuePart.length);
+            dos.write(valuePart);
+        }
+    }
+
+    private static long getRecordSize(byte[][] value) {
+        long size = 4;
+        for (byte[] valuePart : value) {
+            size += 4 + valuePart.length;
+        }
+        return size;
+    }
+
+    private static long getFullSize(AtomicReferenceArray<byte[][]> spine) {
+        long size = HEADER_SIZE + spine.length() * 8L;
+        for (int i = 0; i < spine.length(); i++) {
+            byte[][] value = spine.get(i);
+            if (value != null) {
+                size += getRecordSize(value);
+            }
+        }
+        return size;
+    }
+
+    private static long getAppendSize(AtomicReferenceArray<byte[][]> spine, int[] changedIndexes) {
+        long size = 0;
+        for (int changedIndex : changedIndexes) {
+            byte[][] value = spine.get(changedIndex);
+            if (value != null) {
+                size += getRecordSize(value);
+            }
+        }
+        return size;
+    }
+
+    private Optional<AtomicReferenceArray<byte[][]>> readLegacySpine(int spineIndex) {
         String spineKey = SPINE_PREFIX + spineIndex;
         File spineFile = new File(directory, spineKey);
         if (spineFile.exists()) {
@@ -53,30 +362,4 @@ public class ByteArrayArrayFileStore extends SpinedArrayFileStore implements Byt
         return Optional.empty();
     }
 
-    @Override
-    public void put(int spineIndex, AtomicReferenceArray<byte[][]> spine) {
-        String spineKey = SPINE_PREFIX + spineIndex;
-        File spineFile = new File(directory, spineKey);
-        diskSemaphore.acquireUninterruptibly();
-        try (DataOutputStream dos = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(spineFile)))) {
-            dos.writeInt(spine.length());
-            for (int i = 0; i < spine.length(); i++) {
-                byte[][] value = spine.get(i);
-                if (value == null) {
-                    dos.writeInt(0);
-                } else {
-                    dos.writeInt(value.length);
-                    for (byte[] valuePart : value) {
-                        dos.writeInt(valuePart.length);
-                        dos.write(valuePart);
-                    }
-                }
-            }
-        } catch (IOException ex) {
-            LOG.error(ex);
-        } finally {
-            diskSemaphore.release();
-        }
-    }
-
 }
@@ -52,7 +52,10 @@ import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.AbstractMap;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -61,6 +64,7 @@ import java.util.Properties;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Future;
 import java.util.concurrent.LinkedBlockingQueue;
@@ -69,6 +73,7 @@ import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.BinaryOperator;
+import java.util.function.ObjIntConsumer;
 import java.util.stream.IntStream;
 import javax.inject.Singleton;
 import org.apache.logging.log4j.LogManager;
@@ -83,6 +88,7 @@ import sh.isaac.api.LookupService;
 import sh.isaac.api.chronicle.VersionType;
 import sh.isaac.api.collections.NidSet;
 import sh.isaac.api.constants.DatabaseImplementation;
+import sh.isaac.api.constants.SystemPropertyConstants;
 import sh.isaac.api.datastore.ChronologySerializeable;
 import sh.isaac.api.datastore.SequenceStore;
 import sh.isaac.api.externalizable.ByteArrayDataBuffer;
@@ -98,6 +104,7 @@ import sh.isaac.model.collections.*;
 import sh.isaac.model.collections.store.ByteArrayArrayStoreProvider;
 import sh.isaac.model.collections.store.IntIntArrayStoreProvider;
 import sh.isaac.model.semantic.SemanticChronologyImpl;
+import sh.isaac.model.taxonomy.TaxonomyRecord;
 
 //~--- classes ----------------------------------------------------------------
 /**
@@ -150,8 +157,14 @@ public class FileSystemDataStore
     private File propertiesFile;
     private File nidToAssemblageNidMapDirectory;
     private File nidToElementSequenceMapDirectory;
+    private File writeAheadLogDirectory;
+    private WriteAheadLog writeAheadLog;
+    /**
+     * The uuid to nid assignments replayed from the write ahead log, until the identifier service takes them.
+     */
+    private final List<Map.Entry<UUID, Integer>> recoveredUuidsForNids = new ArrayList<>();
     
-    private final ArrayList<DataWriteListener> writeListeners = new ArrayList<>();
+    private final List<DataWriteListener> writeListeners = new CopyOnWriteArrayList<>();
 
     private FileSystemDataStore() {
         //Private for HK2 construction only
@@ -176,8 +189,16 @@ public class FileSystemDataStore
 
             SpinedByteArrayArrayMap spinedByteArrayArrayMap = getChronologySpinedMap(assemblageNid);
             int elementSequence = getElementSequenceForNid(chronology.getNid(), assemblageNid);
+            List<byte[]> dataList = getDataList(chronology);
+
+            spinedByteArrayArrayMap.put(elementSequence, dataList);
 
-            spinedByteArrayArrayMap.put(elementSequence, getDataList(chronology));
+            if (writeAheadLog != null) {
+                writeAheadLog.logChronology(chronology.getNid(), assemblageNid, elementSequence,
+                        chronology instanceof SemanticChronologyImpl
+                        ? ((SemanticChronologyImpl) chronology).getReferencedComponentNid() : Integer.MAX_VALUE,
+                        dataList);
+            }
             
             for (DataWriteListener dwl : writeListeners) {
                dwl.writeData(chronology);
@@ -280,6 +301,7 @@ public class FileSystemDataStore
             this.assemblageNid_SequenceGenerator_Map.clear();
             this.properties.clear();
             this.assemblage_ElementToNid_Map.clear();
+            this.spinedChronologyMapMap.values().forEach(SpinedByteArrayArrayMap::close);
             this.spinedChronologyMapMap.clear();
             this.spinedTaxonomyMapMap.clear();
             this.componentToSemanticNidsMap.clear();
@@ -297,6 +319,7 @@ public class FileSystemDataStore
             this.nidToAssemblageNidMapDirectory = new File(isaacDbDirectory, "componentToAssemblageMap");
             this.sequenceGeneratorMapFile = new File(isaacDbDirectory, "sequenceGeneratorMap");
             this.nidToElementSequenceMapDirectory = new File(isaacDbDirectory, "componentToAssemblageElementMap");
+            this.writeAheadLogDirectory = new File(isaacDbDirectory, "writeAheadLog");
 
             if (isaacDbDirectory.exists() && this.propertiesFile.isFile()) {
                 try (Reader reader = new FileReader(propertiesFile)) {
@@ -339,6 +362,8 @@ public class FileSystemDataStore
             }
 
             // assemblage_ElementToNid_Map is lazily loaded
+
+            openWriteAheadLog();
         } catch (IOException ex) {
             LOG.error("Error starting FileSystemDataStore", ex);
             throw new RuntimeException(ex);
@@ -372,10 +397,15 @@ public class FileSystemDataStore
             pendingSync.acquire();
             executor.submit(syncTask)
                     .get();
+            if (this.writeAheadLog != null) {
+                this.writeAheadLog.close();
+                this.writeAheadLog = null;
+            }
             this.datastoreStartState = DataStoreStartState.NOT_YET_CHECKED;
             this.assemblageNid_SequenceGenerator_Map.clear();
             this.properties.clear();
             this.assemblage_ElementToNid_Map.clear();
+            this.spinedChronologyMapMap.values().forEach(SpinedByteArrayArrayMap::close);
             this.spinedChronologyMapMap.clear();
             this.spinedTaxonomyMapMap.clear();
             this.componentToSemanticNidsMap.clear();
@@ -392,6 +422,30 @@ public class FileSystemDataStore
         }
     }
 
+    /**
+     * Replay the changes recorded since the last completed sync into the in memory maps, then start a new write ahead
+     * log segment. Not used in IBDF build mode, where the datastore is never synced to disk.
+     *
+     * The segments are replayed whatever the start state, since a datastore that crashed before its first sync has no
+     * properties file, and so starts as a new datastore, but its committed changes are in the log.
+     */
+    private void openWriteAheadLog()
+            throws IOException {
+        this.recoveredUuidsForNids.clear();
+        if (Get.configurationService().isInDBBuildMode(BuildMode.IBDF) || 
+                "false".equalsIgnoreCase(System.getProperty(SystemPropertyConstants.DATA_STORE_WRITE_AHEAD_LOG))) {
+            LOG.info("Write ahead log disabled");
+            return;
+        }
+        this.writeAheadLog = new WriteAheadLog(writeAheadLogDirectory);
+        int replayed = this.writeAheadLog.replay(new WriteAheadLogReplayer());
+        if (replayed > 0) {
+            LOG.info("Replayed " + replayed + " write ahead log records into a datastore that started as "
+                    + this.datastoreStartState);
+        }
+        this.writeAheadLog.open();
+    }
+
     private void writeAssemblageToObjectTypeFile()
             throws IOException {
         try (DataOutputStream dos = new DataOutputStream(
@@ -495,8 +549,12 @@ public class FileSystemDataStore
    @Override
    public void putAssemblageIsaacObjectType(int assemblageNid, IsaacObjectType type) throws IllegalStateException
    {
-      IsaacObjectType oldValue = assemblageToObjectType_Map.computeIfAbsent(assemblageNid, (i -> type));
-      if (oldValue != type) {
+      IsaacObjectType oldValue = assemblageToObjectType_Map.putIfAbsent(assemblageNid, type);
+      if (oldValue == null) {
+         if (writeAheadLog != null) {
+            writeAheadLog.logAssemblageObjectType(assemblageNid, type);
+         }
+      } else if (oldValue != type) {
          throw new IllegalStateException("Tried to change the isaac object type of " + assemblageNid + " from " + oldValue + " to " + type);
       }
    }
@@ -518,7 +576,10 @@ public class FileSystemDataStore
       if (oldValue != type && oldValue != VersionType.UNKNOWN) {
          throw new IllegalStateException("Tried to change the version type of " + assemblageNid + " from " + oldValue + " to " + type);
       }
-       assemblageToVersionType_Map.put(assemblageNid, type);
+      oldValue = assemblageToVersionType_Map.put(assemblageNid, type);
+      if (oldValue != type && writeAheadLog != null) {
+         writeAheadLog.logAssemblageVersionType(assemblageNid, type);
+      }
    }
 
    @Override
@@ -540,6 +601,43 @@ public class FileSystemDataStore
         return Optional.of(ByteArrayDataBuffer.dataArrayToBuffer(data));
     }
 
+    /**
+     * Reads the nids in order of assemblage and element sequence, so that the elements of each spine are read 
+     * together, and then passes the data to the consumer in the order of the nids.
+     */
+    @Override
+    public void getChronologyVersionData(int[] nids, ObjIntConsumer<ByteArrayDataBuffer> consumer) {
+        int[] assemblageNids = new int[nids.length];
+        int[] elementSequences = new int[nids.length];
+        Integer[] readOrder = new Integer[nids.length];
+        int readCount = 0;
+        for (int i = 0; i < nids.length; i++) {
+            OptionalInt assemblageNidOptional = ModelGet.identifierService().getAssemblageNid(nids[i]);
+            if (assemblageNidOptional.isPresent()) {
+                assemblageNids[i] = assemblageNidOptional.getAsInt();
+                elementSequences[i] = getElementSequenceForNid(nids[i], assemblageNids[i]);
+                readOrder[readCount++] = i;
+            }
+        }
+        Arrays.sort(readOrder, 0, readCount, Comparator.<Integer>comparingInt(i -> assemblageNids[i])
+                .thenComparingInt(i -> elementSequences[i]));
+
+        byte[][][] data = new byte[nids.length][][];
+        SpinedByteArrayArrayMap spinedByteArrayArrayMap = null;
+        for (int j = 0; j < readCount; j++) {
+            int i = readOrder[j];
+            if (j == 0 || assemblageNids[i] != assemblageNids[readOrder[j - 1]]) {
+                spinedByteArrayArrayMap = getChronologySpinedMap(assemblageNids[i]);
+            }
+            data[i] = spinedByteArrayArrayMap.get(elementSequences[i]);
+        }
+        for (int i = 0; i < nids.length; i++) {
+            if (data[i] != null) {
+                consumer.accept(ByteArrayDataBuffer.dataArrayToBuffer(data[i]), nids[i]);
+            }
+        }
+    }
+
     @Override
     public int getAssemblageMemoryInUse(int assemblageNid) {
         return getChronologySpinedMap(assemblageNid).memoryInUse();
@@ -616,7 +714,11 @@ public class FileSystemDataStore
    @Override
    public int[] accumulateAndGetTaxonomyData(int assemblageId, int conceptNid, int[] newData, BinaryOperator<int[]> accumulatorFunction)
    {
-      return getTaxonomyMap(assemblageId).accumulateAndGet(conceptNid, newData, accumulatorFunction);
+      int[] result = getTaxonomyMap(assemblageId).accumulateAndGet(conceptNid, newData, accumulatorFunction);
+      if (writeAheadLog != null) {
+         writeAheadLog.logTaxonomy(assemblageId, conceptNid, result);
+      }
+      return result;
    }
 
    /**
@@ -640,6 +742,59 @@ public class FileSystemDataStore
     }
 
     //~--- inner classes -------------------------------------------------------
+    /**
+     * Applies write ahead log records directly to the in memory maps. The element sequence recorded in the log is
+     * reused, so that replay agrees with any spine data that reached disk before the crash.
+     */
+    private class WriteAheadLogReplayer
+            implements WriteAheadLog.Replayer {
+
+        @Override
+        public void replayChronology(int nid, int assemblageNid, int elementSequence, int referencedComponentNid, byte[][] data) {
+            nidToAssemblageNidMap.put(nid, assemblageNid);
+            nidToElementSequenceMap.put(nid, elementSequence);
+            assemblageNid_SequenceGenerator_Map.computeIfAbsent(assemblageNid, (key) -> new AtomicInteger(1))
+                    .accumulateAndGet(elementSequence + 1, Math::max);
+            getAssemblageNid_ElementSequenceToNid_Map(assemblageNid).put(elementSequence, nid);
+            if (referencedComponentNid != Integer.MAX_VALUE) {
+                componentToSemanticNidsMap.add(referencedComponentNid, nid);
+            }
+            getChronologySpinedMap(assemblageNid).put(elementSequence, data);
+        }
+
+        @Override
+        public void replayAssemblageForNid(int nid, int assemblageNid) {
+            nidToAssemblageNidMap.put(nid, assemblageNid);
+        }
+
+        @Override
+        public void replayAssemblageObjectType(int assemblageNid, IsaacObjectType objectType) {
+            assemblageToObjectType_Map.put(assemblageNid, objectType);
+        }
+
+        @Override
+        public void replayAssemblageVersionType(int assemblageNid, VersionType versionType) {
+            assemblageToVersionType_Map.put(assemblageNid, versionType);
+        }
+
+        @Override
+        public void replayUuidForNid(UUID uuid, int nid) {
+            recoveredUuidsForNids.add(new AbstractMap.SimpleImmutableEntry<>(uuid, nid));
+        }
+
+        @Override
+        public void replayTaxonomy(int assemblageNid, int conceptNid, int[] taxonomyData) {
+            getTaxonomyMap(assemblageNid).accumulateAndGet(conceptNid, taxonomyData, (existing, update) -> {
+                if (existing == null || existing.length == 0) {
+                    return update;
+                }
+                TaxonomyRecord existingRecord = new TaxonomyRecord(existing);
+                existingRecord.merge(new TaxonomyRecord(update));
+                return existingRecord.pack();
+            });
+        }
+    }
+
     private class SyncTask
             extends TimedTaskWithProgressTracker<Void> {
 
@@ -656,6 +811,7 @@ public class FileSystemDataStore
             syncSemaphore.acquireUninterruptibly();
 
             try {
+                long checkpointSegment = writeAheadLog == null ? 0 : writeAheadLog.rotate();
                 if (Get.configurationService().isInDBBuildMode(BuildMode.IBDF)) {
                     //No reason to write out all the files below (some of which fail anyway) during IBDF Build mode, because the 
                     //purpose of IBDF DBBuildMode is to generate IBDF files, not a valid database.
@@ -733,8 +889,18 @@ public class FileSystemDataStore
                         FileSystemDataStore.this.properties.store(writer, null);
                     }
                     completedUnitOfWork();  // 9
-                    
+
+                    // The listeners write state the log recovers, such as the uuid to nid map, so must finish
+                    // before the segments are deleted.
                     writeListeners.forEach(listener -> listener.sync());
+                    if (writeAheadLog != null) {
+                        if (hasRecoveredUuidsForNids()) {
+                            FileSystemDataStore.LOG.warn("Keeping the write ahead log, since the identifier service "
+                                    + "has not taken the uuid to nid assignments recovered from it");
+                        } else {
+                            writeAheadLog.deleteSegmentsBefore(checkpointSegment);
+                        }
+                    }
                 }
                 updateMessage("Write complete");
                 FileSystemDataStore.LOG.info("FileSystemDataStore sync complete.");
@@ -896,6 +1062,9 @@ public class FileSystemDataStore
       }
       else {
          nidToAssemblageNidMap.put(nid,  assemblage);
+         if (writeAheadLog != null) {
+            writeAheadLog.logAssemblageForNid(nid, assemblage);
+         }
       }
    }
    
@@ -903,4 +1072,44 @@ public class FileSystemDataStore
    public boolean implementsSequenceStore() {
       return true;
    }
+
+   /**
+    * Force the write ahead log, grouping the force with those of any concurrent commits.
+    */
+   @Override
+   public void forceChanges() {
+      WriteAheadLog log = this.writeAheadLog;
+      if (log != null) {
+         try {
+            log.force();
+         } catch (IOException ex) {
+            throw new RuntimeException("Unable to force the write ahead log", ex);
+         }
+      }
+   }
+
+   @Override
+   public void logUuidForNid(UUID uuid, int nid) {
+      WriteAheadLog log = this.writeAheadLog;
+      if (log != null) {
+         log.logUuidForNid(uuid, nid);
+      }
+   }
+
+   @Override
+   public void takeRecoveredUuidsForNids(ObjIntConsumer<UUID> consumer) {
+      synchronized (this.recoveredUuidsForNids) {
+         if (!this.recoveredUuidsForNids.isEmpty()) {
+            LOG.info("Recovered " + this.recoveredUuidsForNids.size() + " uuid to nid assignments from the write ahead log");
+         }
+         this.recoveredUuidsForNids.forEach(entry -> consumer.accept(entry.getKey(), entry.getValue()));
+         this.recoveredUuidsForNids.clear();
+      }
+   }
+
+   private boolean hasRecoveredUuidsForNids() {
+      synchronized (this.recoveredUuidsForNids) {
+         return !this.recoveredUuidsForNids.isEmpty();
+      }
+   }
 }
@@ -0,0 +1,520 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ *
+ * You may not use this file except in compliance with the License.
+ *
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Contributions from 2013-2017 where performed either by US government
+ * employees, or under US Veterans Health Administration contracts.
+ *
+ * US Veterans Health Administration contributions by government employees
+ * are work of the U.S. Government and are not subject to copyright
+ * protection in the United States. Portions contributed by government
+ * employees are USGovWork (17USC §105). Not subject to copyright.
+ *
+ * Contribution by contractors to the US Veterans Health Administration
+ * during this period are contractually contributed under the
+ * Apache License, Version 2.0.
+ *
+ * See: https://www.usa.gov/government-works
+ *
+ * Contributions prior to 2013:
+ *
+ * Copyright (C) International Health Terminology Standards Development Organisation.
+ * Licensed under the Apache License, Version 2.0.
+ *
+ */
+package sh.isaac.provider.datastore;
+
+//~--- JDK imports ------------------------------------------------------------
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.CRC32;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import sh.isaac.api.Get;
+import sh.isaac.api.chronicle.VersionType;
+import sh.isaac.api.externalizable.IsaacObjectType;
+
+//~--- classes ----------------------------------------------------------------
+/**
+ * An append only, group committed write ahead log for the {@link FileSystemDataStore}.
+ *
+ * Each mutation of the datastore is appended to an in memory batch. A commit calls {@link #force()}, which returns
+ * once every record appended before the call is written and forced to disk. Commits that call it while a write is in
+ * progress wait for that write, and then share the next one, so concurrent commits are forced together. Records not
+ * followed by a commit, such as those of an import, are written by a scheduled flush every
+ * {@link #FLUSH_INTERVAL_MS} milliseconds, or sooner by the writing thread once the batch exceeds
+ * {@link #MAX_BATCH_BYTES}. The log is split into segments. A sync of the datastore rotates to a new
+ * segment before it starts writing spines, and removes the older segments once the spines are safely written, so
+ * the log only ever holds the changes since the last completed sync.
+ *
+ * Each record is written as [int payload length][int crc32 of payload][payload], where the payload starts with a
+ * record type byte. A truncated or corrupt record at the tail of a segment (a torn write from a crash) ends the
+ * replay of that segment.
+ *
+ * The log records everything recovery needs that is otherwise only written by a sync: chronologies, the assemblage
+ * of each nid, taxonomy data, the object and version type of each assemblage, and the uuid to nid assignments of the
+ * identifier service. Committed stamps are forced by the stamp service itself.
+ *
+ * All records are safe to replay more than once, since chronology data is merged by the spined maps, taxonomy data
+ * is merged as a union of taxonomy records, and the other records only ever set a value to the one it already has.
+ *
+ * @author kec
+ */
+public class WriteAheadLog {
+
+    private static final Logger LOG = LogManager.getLogger();
+
+    public static final String SEGMENT_PREFIX = "wal-";
+    public static final long FLUSH_INTERVAL_MS = 50;
+    public static final int MAX_BATCH_BYTES = 4 * 1024 * 1024;
+
+    private static final byte CHRONOLOGY_RECORD = 1;
+    private static final byte ASSEMBLAGE_FOR_NID_RECORD = 2;
+    private static final byte TAXONOMY_RECORD = 3;
+    private static final byte ASSEMBLAGE_OBJECT_TYPE_RECORD = 4;
+    private static final byte ASSEMBLAGE_VERSION_TYPE_RECORD = 5;
+    private static final byte UUID_FOR_NID_RECORD = 6;
+
+    //~--- fields --------------------------------------------------------------
+    private final File directory;
+    private final ReentrantLock appendLock = new ReentrantLock();
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private final CRC32 crc32 = new CRC32();
+    private ByteBuffer batch = ByteBuffer.allocate(64 * 1024);
+    private FileChannel channel;
+    private long segment;
+    private ScheduledFuture<?> flushJob;
+    /**
+     * The number of bytes appended to all batches, guarded by the append lock.
+     */
+    private long appendedBytes = 0;
+    /**
+     * The number of appended bytes that are written and forced to disk.
+     */
+    private volatile long forcedBytes = 0;
+    /**
+     * A batch taken for writing whose write or force failed, guarded by the write lock. It is written again, from
+     * where the failed write stopped, before any later batch, so its records are neither lost nor reported as forced.
+     */
+    private ByteBuffer unforcedBatch;
+    /**
+     * The number of appended bytes that are forced once the unforced batch is, guarded by the write lock.
+     */
+    private long unforcedBatchAppendedBytes;
+
+    //~--- constructors --------------------------------------------------------
+    public WriteAheadLog(File directory) {
+        this.directory = directory;
+    }
+
+    //~--- methods -------------------------------------------------------------
+    /**
+     * Replay any existing segments, in order, through the provided replayer. Must be called before {@link #open()}.
+     *
+     * @param replayer the target of the replayed records
+     * @return the number of records replayed
+     * @throws IOException if a segment could not be read
+     */
+    public int replay(Replayer replayer) throws IOException {
+        int recordCount = 0;
+        for (long segmentNumber : getSegmentNumbers()) {
+            recordCount += replaySegment(getSegmentFile(segmentNumber), replayer);
+        }
+        return recordCount;
+    }
+
+    /**
+     * Start a new segment, and schedule the group commit flush.
+     *
+     * @throws IOException if the segment could not be created
+     */
+    public void open() throws IOException {
+        open(Get.workExecutors().getScheduledThreadPoolExecutor());
+    }
+
+    /**
+     * Start a new segment, and schedule the group commit flush.
+     *
+     * @param scheduler the executor to run the scheduled flush on
+     * @throws IOException if the segment could not be created
+     */
+    void open(ScheduledExecutorService scheduler) throws IOException {
+        directory.mkdirs();
+        long[] existing = getSegmentNumbers();
+        this.segment = existing.length == 0 ? 1 : existing[existing.length - 1] + 1;
+        this.channel = openSegment(this.segment);
+        this.flushJob = scheduler.scheduleWithFixedDelay(() -> {
+            try {
+                flush();
+            } catch (Throwable e) {
+                LOG.error("Unexpected error flushing write ahead log", e);
+            }
+        }, FLUSH_INTERVAL_MS, FLUSH_INTERVAL_MS, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Flush any pending records, and close the current segment.
+     */
+    public void close() {
+        if (flushJob != null) {
+            flushJob.cancel(false);
+            flushJob = null;
+        }
+        writeLock.lock();
+        try {
+            if (channel != null) {
+                flush();
+                channel.close();
+                channel = null;
+            }
+        } catch (IOException ex) {
+            LOG.error("Error closing write ahead log", ex);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Block until every record appended before this call is written and forced to disk. If another thread is
+     * already writing, wait for it, and return without writing if its write included the records.
+     *
+     * @throws IOException if the write fails
+     */
+    public void force() throws IOException {
+        long target;
+        appendLock.lock();
+        try {
+            target = appendedBytes;
+        } finally {
+            appendLock.unlock();
+        }
+        if (forcedBytes >= target) {
+            return;
+        }
+        writeLock.lock();
+        try {
+            if (forcedBytes < target) {
+                flush();
+            }
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Write and force all pending records to disk. If a prior write or force failed, its batch is written and forced
+     * first.
+     *
+     * @throws IOException if the write fails. The records are kept, and written by the next flush.
+     */
+    public void flush() throws IOException {
+        writeLock.lock();
+        try {
+            if (channel == null) {
+                return;
+            }
+            if (unforcedBatch != null) {
+                writeUnforcedBatch();
+            }
+            appendLock.lock();
+            try {
+                if (batch.position() == 0) {
+                    return;
+                }
+                unforcedBatch = batch;
+                unforcedBatch.flip();
+                unforcedBatchAppendedBytes = appendedBytes;
+                batch = ByteBuffer.allocate(Math.max(64 * 1024, Math.min(unforcedBatch.capacity(), MAX_BATCH_BYTES)));
+            } finally {
+                appendLock.unlock();
+            }
+            writeUnforcedBatch();
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Write the remainder of the unforced batch, and force it. The caller must hold the write lock.
+     */
+    private void writeUnforcedBatch() throws IOException {
+        while (unforcedBatch.hasRemaining()) {
+            channel.write(unforcedBatch);
+        }
+        channel.force(false);
+        forcedBytes = unforcedBatchAppendedBytes;
+        unforcedBatch = null;
+    }
+
+    /**
+     * Flush the current segment, and direct all subsequent records to a new segment.
+     *
+     * @return the number of the new segment. All records written before this call are in lower numbered segments.
+     * @throws IOException if the new segment could not be created
+     */
+    public long rotate() throws IOException {
+        writeLock.lock();
+        try {
+            flush();
+            if (channel != null) {
+                channel.close();
+            }
+            segment++;
+            channel = openSegment(segment);
+            return segment;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Delete the segments whose records are all contained in a completed sync of the datastore.
+     *
+     * @param segmentNumber the segment number returned by {@link #rotate()} before the sync began
+     */
+    public void deleteSegmentsBefore(long segmentNumber) {
+        for (long existing : getSegmentNumbers()) {
+            if (existing < segmentNumber) {
+                File segmentFile = getSegmentFile(existing);
+                if (!segmentFile.delete()) {
+                    LOG.warn("Unable to delete write ahead log segment: " + segmentFile.getAbsolutePath());
+                }
+            }
+        }
+    }
+
+    public void logChronology(int nid, int assemblageNid, int elementSequence, int referencedComponentNid, List<byte[]> dataList) {
+        int size = 1 + 5 * 4;
+        for (byte[] data : dataList) {
+            size += 4 + data.length;
+        }
+        ByteBuffer payload = ByteBuffer.allocate(size);
+        payload.put(CHRONOLOGY_RECORD);
+        payload.putInt(nid);
+        payload.putInt(assemblageNid);
+        payload.putInt(elementSequence);
+        payload.putInt(referencedComponentNid);
+        payload.putInt(dataList.size());
+        for (byte[] data : dataList) {
+            payload.putInt(data.length);
+            payload.put(data);
+        }
+        append(payload.array());
+    }
+
+    public void logAssemblageForNid(int nid, int assemblageNid) {
+        ByteBuffer payload = ByteBuffer.allocate(1 + 2 * 4);
+        payload.put(ASSEMBLAGE_FOR_NID_RECORD);
+        payload.putInt(nid);
+        payload.putInt(assemblageNid);
+        append(payload.array());
+    }
+
+    public void logTaxonomy(int assemblageNid, int conceptNid, int[] taxonomyData) {
+        ByteBuffer payload = ByteBuffer.allocate(1 + (3 + taxonomyData.length) * 4);
+        payload.put(TAXONOMY_RECORD);
+        payload.putInt(assemblageNid);
+        payload.putInt(conceptNid);
+        payload.putInt(taxonomyData.length);
+        for (int value : taxonomyData) {
+            payload.putInt(value);
+        }
+        append(payload.array());
+    }
+
+    public void logAssemblageObjectType(int assemblageNid, IsaacObjectType objectType) {
+        ByteBuffer payload = ByteBuffer.allocate(1 + 4 + 1);
+        payload.put(ASSEMBLAGE_OBJECT_TYPE_RECORD);
+        payload.putInt(assemblageNid);
+        payload.put(objectType.getToken());
+        append(payload.array());
+    }
+
+    public void logAssemblageVersionType(int assemblageNid, VersionType versionType) {
+        ByteBuffer payload = ByteBuffer.allocate(1 + 4 + 1);
+        payload.put(ASSEMBLAGE_VERSION_TYPE_RECORD);
+        payload.putInt(assemblageNid);
+        payload.put(versionType.getVersionTypeToken());
+        append(payload.array());
+    }
+
+    public void logUuidForNid(UUID uuid, int nid) {
+        ByteBuffer payload = ByteBuffer.allocate(1 + 2 * 8 + 4);
+        payload.put(UUID_FOR_NID_RECORD);
+        payload.putLong(uuid.getMostSignificantBits());
+        payload.putLong(uuid.getLeastSignificantBits());
+        payload.putInt(nid);
+        append(payload.array());
+    }
+
+    private void append(byte[] payload) {
+        boolean flushNow;
+        appendLock.lock();
+        try {
+            crc32.reset();
+            crc32.update(payload);
+            int recordSize = 8 + payload.length;
+            if (batch.remaining() < recordSize) {
+                ByteBuffer larger = ByteBuffer.allocate(Math.max(batch.capacity() * 2, batch.position() + recordSize));
+                batch.flip();
+                larger.put(batch);
+                batch = larger;
+            }
+            batch.putInt(payload.length);
+            batch.putInt((int) crc32.getValue());
+            batch.put(payload);
+            appendedBytes += recordSize;
+            flushNow = batch.position() >= MAX_BATCH_BYTES;
+        } finally {
+            appendLock.unlock();
+        }
+        if (flushNow) {
+            try {
+                flush();
+            } catch (IOException ex) {
+                throw new RuntimeException(ex);
+            }
+        }
+    }
+
+    private int replaySegment(File segmentFile, Replayer replayer) throws IOException {
+        int recordCount = 0;
+        CRC32 checksum = new CRC32();
+        try (DataInputStream dis = new DataInputStream(new BufferedInputStream(new FileInputStream(segmentFile), 1024 * 1024))) {
+            while (true) {
+                byte[] payload;
+                try {
+                    int length = dis.readInt();
+                    int crc = dis.readInt();
+                    if (length <= 0) {
+                        LOG.warn("Invalid record length in " + segmentFile.getName() + " after " + recordCount + " records; ignoring remainder.");
+                        break;
+                    }
+                    payload = new byte[length];
+                    dis.readFully(payload);
+                    checksum.reset();
+                    checksum.update(payload);
+                    if ((int) checksum.getValue() != crc) {
+                        LOG.warn("Checksum mismatch in " + segmentFile.getName() + " after " + recordCount + " records; ignoring remainder.");
+                        break;
+                    }
+                } catch (EOFException e) {
+                    break;
+                }
+                replayRecord(ByteBuffer.wrap(payload), replayer);
+                recordCount++;
+            }
+        }
+        return recordCount;
+    }
+
+    private static void replayRecord(ByteBuffer payload, Replayer replayer) {
+        byte recordType = payload.get();
+        switch (recordType) {
+            case CHRONOLOGY_RECORD: {
+                int nid = payload.getInt();
+                int assemblageNid = payload.getInt();
+                int elementSequence = payload.getInt();
+                int referencedComponentNid = payload.getInt();
+                byte[][] data = new byte[payload.getInt()][];
+                for (int i = 0; i < data.length; i++) {
+                    data[i] = new byte[payload.getInt()];
+                    payload.get(data[i]);
+                }
+                replayer.replayChronology(nid, assemblageNid, elementSequence, referencedComponentNid, data);
+                break;
+            }
+            case ASSEMBLAGE_FOR_NID_RECORD:
+                replayer.replayAssemblageForNid(payload.getInt(), payload.getInt());
+                break;
+            case TAXONOMY_RECORD: {
+                int assemblageNid = payload.getInt();
+                int conceptNid = payload.getInt();
+                int[] taxonomyData = new int[payload.getInt()];
+                for (int i = 0; i < taxonomyData.length; i++) {
+                    taxonomyData[i] = payload.getInt();
+                }
+                replayer.replayTaxonomy(assemblageNid, conceptNid, taxonomyData);
+                break;
+            }
+            case ASSEMBLAGE_OBJECT_TYPE_RECORD:
+                replayer.replayAssemblageObjectType(payload.getInt(), IsaacObjectType.fromToken(payload.get()));
+                break;
+            case ASSEMBLAGE_VERSION_TYPE_RECORD:
+                replayer.replayAssemblageVersionType(payload.getInt(), VersionType.getFromToken(payload.get()));
+                break;
+            case UUID_FOR_NID_RECORD:
+                replayer.replayUuidForNid(new UUID(payload.getLong(), payload.getLong()), payload.getInt());
+                break;
+            default:
+                throw new IllegalStateException("Unknown write ahead log record type: " + recordType);
+        }
+    }
+
+    FileChannel openSegment(long segmentNumber) throws IOException {
+        return FileChannel.open(getSegmentFile(segmentNumber).toPath(), StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+    }
+
+    private File getSegmentFile(long segmentNumber) {
+        return new File(directory, SEGMENT_PREFIX + String.format("%019d", segmentNumber));
+    }
+
+    private long[] getSegmentNumbers() {
+        File[] files = directory.listFiles((dir, name) -> name.startsWith(SEGMENT_PREFIX));
+        if (files == null) {
+            return new long[0];
+        }
+        long[] segmentNumbers = new long[files.length];
+        for (int i = 0; i < files.length; i++) {
+            segmentNumbers[i] = Long.parseLong(files[i].getName().substring(SEGMENT_PREFIX.length()));
+        }
+        Arrays.sort(segmentNumbers);
+        return segmentNumbers;
+    }
+
+    //~--- inner classes -------------------------------------------------------
+    /**
+     * Receives the records of the log during {@link WriteAheadLog#replay(Replayer)}.
+     */
+    public interface Replayer {
+
+        void replayChronology(int nid, int assemblageNid, int elementSequence, int referencedComponentNid, byte[][] data);
+
+        void replayAssemblageForNid(int nid, int assemblageNid);
+
+        void replayTaxonomy(int assemblageNid, int conceptNid, int[] taxonomyData);
+
+        void replayAssemblageObjectType(int assemblageNid, IsaacObjectType objectType);
+
+        void replayAssemblageVersionType(int assemblageNid, VersionType versionType);
+
+        void replayUuidForNid(UUID uuid, int nid);
+    }
+}
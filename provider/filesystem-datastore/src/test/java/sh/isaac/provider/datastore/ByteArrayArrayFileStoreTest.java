@@ -0,0 +1,170 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ *
+ * You may not use this file except in compliance with the License.
+ *
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package sh.isaac.provider.datastore;
+
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+import sh.isaac.api.util.RecursiveDelete;
+import sh.isaac.model.collections.SpineFileUtil;
+
+/**
+ * Round trip tests for the offset indexed spine file format.
+ */
+public class ByteArrayArrayFileStoreTest {
+
+    private File directory;
+
+    @BeforeMethod
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("spines").toFile();
+    }
+
+    @AfterMethod
+    public void tearDown() throws IOException {
+        RecursiveDelete.delete(directory);
+    }
+
+    @Test
+    public void testElementReadsAndAppend() {
+        ByteArrayArrayFileStore store = new ByteArrayArrayFileStore(directory);
+        AtomicReferenceArray<byte[][]> spine = new AtomicReferenceArray<>(16);
+        spine.set(1, new byte[][] {{1, 2, 3}, {4}});
+        spine.set(7, new byte[][] {{5, 6}});
+        store.put(0, spine);
+
+        Assert.assertTrue(store.supportsElementReads(0));
+        Assert.assertNull(store.getElement(0, 0));
+        Assert.assertEquals(store.getElement(0, 1), new byte[][] {{1, 2, 3}, {4}});
+        Assert.assertEquals(store.getElement(0, 7), new byte[][] {{5, 6}});
+
+        long fullLength = new File(directory, SpineFileUtil.SPINE_PREFIX + 0).length();
+        spine.set(7, new byte[][] {{5, 6}, {8, 9}});
+        spine.set(3, new byte[][] {{10}});
+        store.put(0, spine, new int[] {3, 7});
+        Assert.assertTrue(new File(directory, SpineFileUtil.SPINE_PREFIX + 0).length() > fullLength, "changes should be appended");
+
+        Assert.assertEquals(store.getElement(0, 1), new byte[][] {{1, 2, 3}, {4}});
+        Assert.assertEquals(store.getElement(0, 3), new byte[][] {{10}});
+        Assert.assertEquals(store.getElement(0, 7), new byte[][] {{5, 6}, {8, 9}});
+        AtomicReferenceArray<byte[][]> read = store.get(0).get();
+        Assert.assertEquals(read.length(), 16);
+        Assert.assertEquals(read.get(7), spine.get(7));
+        Assert.assertNull(read.get(8));
+    }
+
+    @Test
+    public void testLegacyFormatIsConverted() throws IOException {
+        try (DataOutputStream dos = new DataOutputStream(new FileOutputStream(new File(directory, SpineFileUtil.SPINE_PREFIX + 2)))) {
+            dos.writeInt(3);
+            dos.writeInt(0);
+            dos.writeInt(1);
+            dos.writeInt(2);
+            dos.write(new byte[] {7, 7});
+            dos.writeInt(0);
+        }
+        ByteArrayArrayFileStore store = new ByteArrayArrayFileStore(directory);
+        Assert.assertFalse(store.supportsElementReads(2));
+        AtomicReferenceArray<byte[][]> spine = store.get(2).get();
+        Assert.assertEquals(spine.get(1), new byte[][] {{7, 7}});
+
+        spine.set(2, new byte[][] {{9}});
+        store.put(2, spine, new int[] {2});
+        Assert.assertTrue(store.supportsElementReads(2));
+        Assert.assertEquals(store.getElement(2, 1), new byte[][] {{7, 7}});
+        Assert.assertEquals(store.getElement(2, 2), new byte[][] {{9}});
+    }
+
+    @Test
+    public void testCloseAndRewriteWhileMapped() {
+        ByteArrayArrayFileStore store = new ByteArrayArrayFileStore(directory);
+        AtomicReferenceArray<byte[][]> spine = new AtomicReferenceArray<>(4);
+        spine.set(1, new byte[][] {{1}});
+        store.put(0, spine);
+        Assert.assertEquals(store.getElement(0, 1), new byte[][] {{1}});
+
+        // The file is mapped again after the store is closed
+        store.close();
+        Assert.assertEquals(store.getElement(0, 1), new byte[][] {{1}});
+
+        // A mapped file is replaced by a full write, and the new file is read
+        spine.set(1, new byte[][] {{2, 2}});
+        store.put(0, spine);
+        Assert.assertEquals(store.getElement(0, 1), new byte[][] {{2, 2}});
+        Assert.assertFalse(new File(directory, "tmp-" + SpineFileUtil.SPINE_PREFIX + 0).exists());
+        store.close();
+    }
+
+    @Test
+    public void testReadsWhileWriting() throws Exception {
+        ByteArrayArrayFileStore store = new ByteArrayArrayFileStore(directory);
+        AtomicReferenceArray<byte[][]> spine = new AtomicReferenceArray<>(64);
+        for (int i = 0; i < spine.length(); i++) {
+            spine.set(i, new byte[][] {{(byte) i}});
+        }
+        store.put(0, spine);
+        AtomicBoolean writing = new AtomicBoolean(true);
+        int readers = 3;
+        ExecutorService executor = Executors.newFixedThreadPool(readers + 1);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            futures.add(executor.submit(() -> {
+                for (int write = 0; write < 300; write++) {
+                    int index = write % spine.length();
+                    spine.set(index, new byte[][] {{(byte) index}, new byte[write % 7]});
+                    // alternately append the change, and replace the file
+                    store.put(0, spine, write % 2 == 0 ? new int[] {index} : null);
+                }
+                writing.set(false);
+                return null;
+            }));
+            for (int reader = 0; reader < readers; reader++) {
+                futures.add(executor.submit(() -> {
+                    int read = 0;
+                    while (writing.get()) {
+                        int index = read++ % spine.length();
+                        Assert.assertEquals(store.getElement(0, index)[0], new byte[] {(byte) index});
+                        Assert.assertEquals(store.get(0).get().get(index)[0], new byte[] {(byte) index});
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+            store.close();
+        }
+        for (int i = 0; i < spine.length(); i++) {
+            Assert.assertEquals(store.getElement(0, i), spine.get(i));
+        }
+    }
+}
@@ -0,0 +1,411 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ *
+ * You may not use this file except in compliance with the License.
+ *
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package sh.isaac.provider.datastore;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+import sh.isaac.api.chronicle.VersionType;
+import sh.isaac.api.externalizable.IsaacObjectType;
+import sh.isaac.api.util.RecursiveDelete;
+
+/**
+ * Replay and crash recovery tests for the write ahead log. A crash is simulated by replaying the log directory with a
+ * new log, without closing the one that wrote it.
+ */
+public class WriteAheadLogTest {
+
+    private File directory;
+    private ScheduledExecutorService scheduler;
+
+    @BeforeMethod
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("wal").toFile();
+        scheduler = Executors.newSingleThreadScheduledExecutor();
+    }
+
+    @AfterMethod
+    public void tearDown() throws IOException {
+        scheduler.shutdownNow();
+        RecursiveDelete.delete(directory);
+    }
+
+    @Test
+    public void testForcedRecordsSurviveACrash() throws IOException {
+        WriteAheadLog log = new WriteAheadLog(directory);
+        log.open(scheduler);
+        UUID uuid = UUID.randomUUID();
+
+        log.logUuidForNid(uuid, -100);
+        log.logAssemblageObjectType(-2, IsaacObjectType.SEMANTIC);
+        log.logAssemblageVersionType(-2, VersionType.STRING);
+        log.logAssemblageForNid(-100, -2);
+        log.logChronology(-100, -2, 7, -50, Arrays.asList(new byte[] {1, 2}, new byte[] {3}));
+        log.logTaxonomy(-1, -50, new int[] {4, 5, 6});
+        log.force();
+
+        RecordingReplayer replayed = new RecordingReplayer();
+        Assert.assertEquals(new WriteAheadLog(directory).replay(replayed), 6);
+        Assert.assertEquals(replayed.records, Arrays.asList(
+                "uuid " + uuid + " -100",
+                "objectType -2 SEMANTIC",
+                "versionType -2 STRING",
+                "assemblage -100 -2",
+                "chronology -100 -2 7 -50 [[1, 2], [3]]",
+                "taxonomy -1 -50 [4, 5, 6]"));
+        log.close();
+    }
+
+    @Test
+    public void testForceReturnsWithoutWritingWhenNothingIsPending() throws IOException {
+        WriteAheadLog log = new WriteAheadLog(directory);
+        log.open(scheduler);
+        log.force();
+        log.logAssemblageForNid(-3, -2);
+        log.force();
+        long size = totalSegmentBytes();
+        log.force();
+        Assert.assertEquals(totalSegmentBytes(), size);
+        Assert.assertTrue(size > 0);
+        log.close();
+    }
+
+    @Test
+    public void testConcurrentCommitsAreAllForced() throws Exception {
+        WriteAheadLog log = new WriteAheadLog(directory);
+        log.open(scheduler);
+        int threads = 8;
+        int commitsPerThread = 50;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            int thread = t;
+            futures.add(executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < commitsPerThread; i++) {
+                    log.logAssemblageForNid(-(thread * commitsPerThread + i + 1), -2);
+                    log.force();
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(1, TimeUnit.MINUTES);
+        }
+        executor.shutdown();
+
+        RecordingReplayer replayed = new RecordingReplayer();
+        Assert.assertEquals(new WriteAheadLog(directory).replay(replayed), threads * commitsPerThread);
+        log.close();
+    }
+
+    @Test
+    public void testTornRecordEndsReplay() throws IOException {
+        WriteAheadLog log = new WriteAheadLog(directory);
+        log.open(scheduler);
+        log.logAssemblageForNid(-3, -2);
+        log.logAssemblageForNid(-4, -2);
+        log.force();
+        log.close();
+
+        File segment = directory.listFiles()[0];
+        try (RandomAccessFile file = new RandomAccessFile(segment, "rw")) {
+            file.setLength(file.length() - 2);
+        }
+
+        RecordingReplayer replayed = new RecordingReplayer();
+        Assert.assertEquals(new WriteAheadLog(directory).replay(replayed), 1);
+        Assert.assertEquals(replayed.records, Arrays.asList("assemblage -3 -2"));
+    }
+
+    @Test
+    public void testCorruptRecordEndsReplay() throws IOException {
+        WriteAheadLog log = new WriteAheadLog(directory);
+        log.open(scheduler);
+        log.logAssemblageForNid(-3, -2);
+        log.logAssemblageForNid(-4, -2);
+        log.close();
+
+        File segment = directory.listFiles()[0];
+        try (RandomAccessFile file = new RandomAccessFile(segment, "rw")) {
+            file.seek(file.length() - 1);
+            int last = file.read();
+            file.seek(file.length() - 1);
+            file.write(last ^ 0xFF);
+        }
+
+        RecordingReplayer replayed = new RecordingReplayer();
+        Assert.assertEquals(new WriteAheadLog(directory).replay(replayed), 1);
+    }
+
+    @Test
+    public void testSegmentsBeforeACompletedSyncAreNotReplayed() throws IOException {
+        WriteAheadLog log = new WriteAheadLog(directory);
+        log.open(scheduler);
+        log.logAssemblageForNid(-3, -2);
+        long checkpoint = log.rotate();
+        log.logAssemblageForNid(-4, -2);
+        log.force();
+
+        RecordingReplayer beforeSync = new RecordingReplayer();
+        Assert.assertEquals(new WriteAheadLog(directory).replay(beforeSync), 2);
+
+        log.deleteSegmentsBefore(checkpoint);
+        RecordingReplayer afterSync = new RecordingReplayer();
+        Assert.assertEquals(new WriteAheadLog(directory).replay(afterSync), 1);
+        Assert.assertEquals(afterSync.records, Arrays.asList("assemblage -4 -2"));
+        log.close();
+    }
+
+    @Test
+    public void testReopenAppendsToANewSegment() throws IOException {
+        WriteAheadLog log = new WriteAheadLog(directory);
+        log.open(scheduler);
+        log.logAssemblageForNid(-3, -2);
+        log.close();
+
+        WriteAheadLog reopened = new WriteAheadLog(directory);
+        RecordingReplayer replayed = new RecordingReplayer();
+        Assert.assertEquals(reopened.replay(replayed), 1);
+        reopened.open(scheduler);
+        reopened.logAssemblageForNid(-4, -2);
+        reopened.force();
+
+        RecordingReplayer both = new RecordingReplayer();
+        Assert.assertEquals(new WriteAheadLog(directory).replay(both), 2);
+        Assert.assertEquals(both.records, Arrays.asList("assemblage -3 -2", "assemblage -4 -2"));
+        reopened.close();
+    }
+
+    @Test
+    public void testFailedWritesAreRetried() throws IOException {
+        FailingWriteAheadLog log = new FailingWriteAheadLog(directory);
+        log.open(scheduler);
+        log.logAssemblageForNid(-3, -2);
+        log.channel.failWrites = true;
+        Assert.assertThrows(IOException.class, log::force);
+
+        // A record appended after the failed write is not reported as forced while the retry fails
+        log.channel.failWrites = false;
+        log.channel.failForce = true;
+        log.logAssemblageForNid(-4, -2);
+        Assert.assertThrows(IOException.class, log::force);
+        Assert.assertThrows(IOException.class, log::force);
+
+        log.channel.failForce = false;
+        log.logAssemblageForNid(-5, -2);
+        log.force();
+
+        RecordingReplayer replayed = new RecordingReplayer();
+        Assert.assertEquals(new WriteAheadLog(directory).replay(replayed), 3);
+        Assert.assertEquals(replayed.records, Arrays.asList("assemblage -3 -2", "assemblage -4 -2", "assemblage -5 -2"));
+        log.close();
+    }
+
+    private long totalSegmentBytes() {
+        long size = 0;
+        for (File file : directory.listFiles()) {
+            size += file.length();
+        }
+        return size;
+    }
+
+    /**
+     * A log whose segment channel fails writes and forces on request. A failed write writes part of the buffer first,
+     * as a write interrupted by a full disk may.
+     */
+    private static class FailingWriteAheadLog extends WriteAheadLog {
+
+        private FailingChannel channel;
+
+        FailingWriteAheadLog(File directory) {
+            super(directory);
+        }
+
+        @Override
+        FileChannel openSegment(long segmentNumber) throws IOException {
+            channel = new FailingChannel(super.openSegment(segmentNumber));
+            return channel;
+        }
+    }
+
+    private static class FailingChannel extends FileChannel {
+
+        private final FileChannel delegate;
+        private volatile boolean failWrites;
+        private volatile boolean failForce;
+
+        FailingChannel(FileChannel delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public int write(ByteBuffer src) throws IOException {
+            if (failWrites) {
+                ByteBuffer part = src.duplicate();
+                part.limit(part.position() + Math.min(3, part.remaining()));
+                src.position(src.position() + delegate.write(part));
+                throw new IOException("Simulated write failure");
+            }
+            return delegate.write(src);
+        }
+
+        @Override
+        public void force(boolean metaData) throws IOException {
+            if (failForce) {
+                throw new IOException("Simulated force failure");
+            }
+            delegate.force(metaData);
+        }
+
+        @Override
+        public int read(ByteBuffer dst) throws IOException {
+            return delegate.read(dst);
+        }
+
+        @Override
+        public long read(ByteBuffer[] dsts, int offset, int length) throws IOException {
+            return delegate.read(dsts, offset, length);
+        }
+
+        @Override
+        public long write(ByteBuffer[] srcs, int offset, int length) throws IOException {
+            return delegate.write(srcs, offset, length);
+        }
+
+        @Override
+        public long position() throws IOException {
+            return delegate.position();
+        }
+
+        @Override
+        public FileChannel position(long newPosition) throws IOException {
+            delegate.position(newPosition);
+            return this;
+        }
+
+        @Override
+        public long size() throws IOException {
+            return delegate.size();
+        }
+
+        @Override
+        public FileChannel truncate(long size) throws IOException {
+            delegate.truncate(size);
+            return this;
+        }
+
+        @Override
+        public long transferTo(long position, long count, WritableByteChannel target) throws IOException {
+            return delegate.transferTo(position, count, target);
+        }
+
+        @Override
+        public long transferFrom(ReadableByteChannel src, long position, long count) throws IOException {
+            return delegate.transferFrom(src, position, count);
+        }
+
+        @Override
+        public int read(ByteBuffer dst, long position) throws IOException {
+            return delegate.read(dst, position);
+        }
+
+        @Override
+        public int write(ByteBuffer src, long position) throws IOException {
+            return delegate.write(src, position);
+        }
+
+        @Override
+        public MappedByteBuffer map(MapMode mode, long position, long size) throws IOException {
+            return delegate.map(mode, position, size);
+        }
+
+        @Override
+        public FileLock lock(long position, long size, boolean shared) throws IOException {
+            return delegate.lock(position, size, shared);
+        }
+
+        @Override
+        public FileLock tryLock(long position, long size, boolean shared) throws IOException {
+            return delegate.tryLock(position, size, shared);
+        }
+
+        @Override
+        protected void implCloseChannel() throws IOException {
+            delegate.close();
+        }
+    }
+
+    private static class RecordingReplayer implements WriteAheadLog.Replayer {
+
+        private final List<String> records = new ArrayList<>();
+
+        @Override
+        public void replayChronology(int nid, int assemblageNid, int elementSequence, int referencedComponentNid, byte[][] data) {
+            records.add("chronology " + nid + " " + assemblageNid + " " + elementSequence + " " + referencedComponentNid
+                    + " " + Arrays.deepToString(data));
+        }
+
+        @Override
+        public void replayAssemblageForNid(int nid, int assemblageNid) {
+            records.add("assemblage " + nid + " " + assemblageNid);
+        }
+
+        @Override
+        public void replayTaxonomy(int assemblageNid, int conceptNid, int[] taxonomyData) {
+            records.add("taxonomy " + assemblageNid + " " + conceptNid + " " + Arrays.toString(taxonomyData));
+        }
+
+        @Override
+        public void replayAssemblageObjectType(int assemblageNid, IsaacObjectType objectType) {
+            records.add("objectType " + assemblageNid + " " + objectType.name());
+        }
+
+        @Override
+        public void replayAssemblageVersionType(int assemblageNid, VersionType versionType) {
+            records.add("versionType " + assemblageNid + " " + versionType.name());
+        }
+
+        @Override
+        public void replayUuidForNid(UUID uuid, int nid) {
+            records.add("uuid " + uuid + " " + nid);
+        }
+    }
+}
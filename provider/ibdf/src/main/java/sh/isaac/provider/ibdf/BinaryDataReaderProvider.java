@@ -42,6 +42,7 @@ package sh.isaac.provider.ibdf;
 //~--- JDK imports ------------------------------------------------------------
 
 import sh.isaac.model.datastream.IsaacExternalizableUnparsed;
+import java.io.BufferedInputStream;
 import java.io.DataInputStream;
 import java.io.EOFException;
 import java.io.FileInputStream;
@@ -49,10 +50,14 @@ import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.InputStream;
 
+import java.nio.channels.FileChannel;
 import java.nio.file.Path;
 
 import java.util.Spliterator;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Consumer;
 import java.util.stream.Stream;
 import java.util.stream.StreamSupport;
@@ -63,6 +68,8 @@ import sh.isaac.api.externalizable.BinaryDataReaderService;
 import sh.isaac.api.externalizable.ByteArrayDataBuffer;
 import sh.isaac.api.task.TimedTaskWithProgressTracker;
 import sh.isaac.api.externalizable.IsaacExternalizable;
+import sh.isaac.model.datastream.IbdfBlockIndex;
+import sh.isaac.model.datastream.IbdfBlockSpliterator;
 
 //~--- classes ----------------------------------------------------------------
 
@@ -75,17 +82,26 @@ public class BinaryDataReaderProvider
         extends TimedTaskWithProgressTracker<Integer>
          implements BinaryDataReaderService, Spliterator<IsaacExternalizable> {
    /** The objects. */
-   int objects = 0;
+   final AtomicInteger objects = new AtomicInteger();
 
    /** The complete. */
    CountDownLatch complete = new CountDownLatch(1);
 
+   /** Set by the first close, which is called when the records are read, and again when the stream is closed. */
+   final AtomicBoolean closed = new AtomicBoolean();
+
    /** The input. */
    DataInputStream input;
 
    /** The stream bytes. */
    int streamBytes;
 
+   /** The file channel, for block reads of IBDF v2 files, null when reading from a stream. */
+   FileChannel channel;
+
+   /** The block index, null unless the file is an IBDF v2 file. */
+   IbdfBlockIndex blockIndex;
+
    //~--- constructors --------------------------------------------------------
 
    /**
@@ -96,9 +112,13 @@ public class BinaryDataReaderProvider
     */
    public BinaryDataReaderProvider(Path dataPath)
             throws FileNotFoundException {
-      this.input    = new DataInputStream(new FileInputStream(dataPath.toFile()));
+      final FileInputStream fileInputStream = new FileInputStream(dataPath.toFile());
+      this.channel  = fileInputStream.getChannel();
+      this.input    = new DataInputStream(new BufferedInputStream(fileInputStream));
 
       try {
+         // positional reads of the trailer leave the stream at the start of the file
+         this.blockIndex  = IbdfBlockIndex.read(this.channel).orElse(null);
          this.streamBytes = this.input.available();
          addToTotalWork(this.streamBytes);
       } catch (final IOException ex) {
@@ -130,10 +150,13 @@ public class BinaryDataReaderProvider
    }
 
    /**
-    * Close.
+    * Close, which also closes the file channel of a file.
     */
    @Override
    public void close() {
+      if (!this.closed.compareAndSet(false, true)) {
+         return;
+      }
       try {
          this.input.close();
          done();
@@ -164,6 +187,10 @@ public class BinaryDataReaderProvider
       try {
          final int                           startBytesAvailable        = this.input.available();
          final int                           recordSizeInBytes        = this.input.readInt();
+         if (recordSizeInBytes == IbdfBlockIndex.END_OF_RECORDS) {
+            close();
+            return false;
+         }
          final byte[]                        objectData        = new byte[recordSizeInBytes];
          this.input.readFully(objectData);
          
@@ -172,7 +199,7 @@ public class BinaryDataReaderProvider
          IsaacExternalizableUnparsed unparsedObject = new IsaacExternalizableUnparsed(byteArrayDataBuffer);
          action.accept(unparsedObject.parse());
 
-         this.objects++;
+         this.objects.incrementAndGet();
          completedUnitsOfWork(startBytesAvailable - this.input.available());
          return true;
       } catch (final EOFException ex) {
@@ -206,7 +233,7 @@ public class BinaryDataReaderProvider
          throw new RuntimeException(ex);
       }
 
-      return this.objects;
+      return this.objects.get();
    }
 
    //~--- get methods ---------------------------------------------------------
@@ -219,7 +246,38 @@ public class BinaryDataReaderProvider
    @Override
    public Stream<IsaacExternalizable> getStream() {
       running();
-      return StreamSupport.stream(this, false);
+      return StreamSupport.stream(this, false).onClose(this::close);
+   }
+
+   /**
+    * Gets a parallel stream. The blocks of an IBDF v2 file are mapped and parsed in parallel; other sources 
+    * are read sequentially, as by {@link #getStream()}. The file is closed when the last record is read, or 
+    * when the stream is closed, so a caller that may not read every record must close the stream. 
+    *
+    * @return the stream
+    */
+   @Override
+   public Stream<IsaacExternalizable> getParallelStream() {
+      if (this.blockIndex == null) {
+         return getStream();
+      }
+      running();
+      if (this.blockIndex.getBlockCount() == 0) {
+         close();
+         return Stream.empty();
+      }
+      final long       dataLength = this.blockIndex.getDataLength();
+      final AtomicLong bytesRead  = new AtomicLong();
+      final IbdfBlockSpliterator blockSpliterator = new IbdfBlockSpliterator(this.channel, this.blockIndex,
+            (recordBytes) -> {
+               this.objects.incrementAndGet();
+               completedUnitsOfWork(recordBytes);
+               if (bytesRead.addAndGet(recordBytes) == dataLength) {
+                  // mapped blocks remain readable after the channel is closed
+                  close();
+               }
+            });
+      return StreamSupport.stream(blockSpliterator, true).map(IsaacExternalizableUnparsed::parse).onClose(this::close);
    }
 }
 
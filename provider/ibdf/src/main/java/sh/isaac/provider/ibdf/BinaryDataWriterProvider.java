@@ -38,9 +38,13 @@
 package sh.isaac.provider.ibdf;
 
 import java.io.DataOutputStream;
+import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.nio.channels.FileChannel;
 import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Optional;
 import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.RejectedExecutionHandler;
@@ -53,15 +57,20 @@ import org.glassfish.hk2.api.PerLookup;
 import org.jvnet.hk2.annotations.Service;
 import sh.isaac.api.Get;
 import sh.isaac.api.LookupService;
+import sh.isaac.api.constants.SystemPropertyConstants;
 import sh.isaac.api.externalizable.ByteArrayDataBuffer;
 import sh.isaac.api.externalizable.DataWriterService;
 import sh.isaac.api.externalizable.IsaacExternalizable;
 import sh.isaac.api.metacontent.MetaContentService;
 import sh.isaac.api.util.NamedThreadFactory;
 import sh.isaac.api.util.TimeFlushBufferedOutputStream;
+import sh.isaac.model.datastream.IbdfBlockIndex;
 
 /**
- * The Class BinaryDataWriterProvider.
+ * The Class BinaryDataWriterProvider. Writes IBDF v2 files, with a trailing {@link IbdfBlockIndex}, which is 
+ * written each time the file is closed or paused, and removed when writing resumes. Appends to an IBDF v1 
+ * file leave the file in the v1 format. Readers that predate IBDF v2 can't read a v2 file, so v1 files are 
+ * written instead when {@link SystemPropertyConstants#IBDF_BLOCK_INDEX} is false. 
  *
  * @author kec
  */
@@ -81,6 +90,9 @@ public class BinaryDataWriterProvider
    private Path dataPath;
 
    private DataOutputStream output;
+
+   //The block index of the records written, or null, if appending to an IBDF v1 file.
+   private IbdfBlockIndex blockIndex;
    
    //In threaded mode, this is the intermediate buffer / queue to accept / hold input in a non-blocking way.
    private ArrayBlockingQueue<Runnable> queue = null;
@@ -138,7 +150,11 @@ public class BinaryDataWriterProvider
       try {
          if (tpe != null) {
             tpe.shutdown();
+            // the queued writes must complete before the block index is written
+            tpe.awaitTermination(5, TimeUnit.MINUTES);
          }
+      } catch (InterruptedException e) {
+         throw new IOException(e);
       } finally {
           closeFileOnly();
       }
@@ -150,6 +166,9 @@ public class BinaryDataWriterProvider
    private void closeFileOnly()
            throws IOException {
      try {
+        if (this.blockIndex != null) {
+           this.blockIndex.writeTrailer(this.output);
+        }
         this.output.flush();
         this.output.close();
      } finally {
@@ -169,6 +188,7 @@ public class BinaryDataWriterProvider
 
       this.dataPath = path;
       this.dataPath.toFile().getParentFile().mkdirs();
+      this.blockIndex = openBlockIndex(this.dataPath.toFile());
       //this needs to be append mode, because the ibdf file writer is paused and resumed many times during the lifecycle - 
       //specifically, to allow syncing to git....
       this.output = new DataOutputStream(new TimeFlushBufferedOutputStream(new FileOutputStream(this.dataPath.toFile(), true)));
@@ -188,6 +208,32 @@ public class BinaryDataWriterProvider
       }
    }
 
+   /**
+    * Read the block index of the file to append to, and remove it from the file, so records can be appended. 
+    *
+    * @param file the file to append to
+    * @return the block index, or null if the file is an IBDF v1 file, or v1 files are to be written
+    * @throws IOException if the file can't be read
+    */
+   private static IbdfBlockIndex openBlockIndex(File file) throws IOException {
+      final boolean writeBlockIndex = !"false".equalsIgnoreCase(System.getProperty(SystemPropertyConstants.IBDF_BLOCK_INDEX));
+      if (!writeBlockIndex) {
+         LOG.info("Writing IBDF v1 file {}, no block index will be written", file);
+      }
+      if (!file.exists() || file.length() == 0) {
+         return writeBlockIndex ? new IbdfBlockIndex() : null;
+      }
+      try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+         Optional<IbdfBlockIndex> blockIndex = IbdfBlockIndex.read(channel);
+         if (blockIndex.isPresent()) {
+            channel.truncate(blockIndex.get().getDataLength());
+            return writeBlockIndex ? blockIndex.get() : null;
+         }
+         LOG.info("Appending to IBDF v1 file {}, no block index will be written", file);
+         return null;
+      }
+   }
+
    /**
     * {@inheritDoc}
     */
@@ -255,6 +301,9 @@ public class BinaryDataWriterProvider
         this.ioBlock.acquireUninterruptibly();
         this.output.writeInt(bufferToWrite.getLimit());
         this.output.write(bufferToWrite.getData(), 0, bufferToWrite.getLimit());
+        if (this.blockIndex != null) {
+           this.blockIndex.recordWritten(4 + bufferToWrite.getLimit());
+        }
      } catch (final IOException e) {
         throw new RuntimeException(e);
      } finally {
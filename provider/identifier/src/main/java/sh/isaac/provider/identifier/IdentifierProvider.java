@@ -71,6 +71,7 @@ import sh.isaac.api.collections.uuidnidmap.UuidToIntMap;
 import sh.isaac.api.component.concept.ConceptSpecification;
 import sh.isaac.api.datastore.DataStore;
 import sh.isaac.api.datastore.ExtendedStore;
+import sh.isaac.api.externalizable.DataWriteListener;
 import sh.isaac.api.externalizable.IsaacObjectType;
 import sh.isaac.api.task.LabelTaskWithIndeterminateProgress;
 
@@ -98,6 +99,12 @@ public class IdentifierProvider
 
     private File uuidNidMapDirectory;
 
+    /**
+     * Writes the uuid to nid map when the datastore syncs, before the datastore discards the log of the assignments
+     * made since its last sync. Only registered when the map is kept in files.
+     */
+    private DataWriteListener uuidNidMapWriter;
+
     private IdentifierProvider() {
         //Construct with HK2 only
     }
@@ -110,6 +117,9 @@ public class IdentifierProvider
             throw new RuntimeException("Reassignment of nid for " + uuid + " from " + old + " to " + nid);
         }
         this.uuidIntMapMap.put(uuid, nid);
+        if (!old.isPresent()) {
+            this.store.logUuidForNid(uuid, nid);
+        }
     }
 
     /**
@@ -127,7 +137,25 @@ public class IdentifierProvider
             if (this.store.implementsExtendedStoreAPI()) {
                 uuidIntMapMap = new DataStoreUuidToIntMap((ExtendedStore) this.store);
             } else {
-                this.uuidIntMapMap = UuidIntMapMapFileBased.create(uuidNidMapDirectory);
+                UuidIntMapMapFileBased fileBasedMap = UuidIntMapMapFileBased.create(uuidNidMapDirectory);
+                this.uuidIntMapMap = fileBasedMap;
+                this.store.takeRecoveredUuidsForNids((uuid, nid) -> fileBasedMap.put(uuid, nid));
+                this.uuidNidMapWriter = new DataWriteListener() {
+                    @Override
+                    public void writeData(Chronology data) {
+                        // assignments are logged as they are made
+                    }
+
+                    @Override
+                    public void sync() {
+                        try {
+                            fileBasedMap.write();
+                        } catch (IOException ex) {
+                            throw new RuntimeException(ex);
+                        }
+                    }
+                };
+                this.store.registerDataWriteListener(this.uuidNidMapWriter);
             }
 
             //bootstrap our nids for core metadata concepts.
@@ -148,6 +176,10 @@ public class IdentifierProvider
             LOG.info("Stopping identifier provider for change to runlevel: " + LookupService.getProceedingToRunLevel());
             this.sync().get();
             this.store.sync().get();
+            if (this.uuidNidMapWriter != null) {
+                this.store.unregisterDataWriteListener(this.uuidNidMapWriter);
+                this.uuidNidMapWriter = null;
+            }
             this.store = null;
             uuidIntMapMap = null;
         } catch (Throwable ex) {
@@ -247,8 +279,10 @@ public class IdentifierProvider
         }
         final int nid = this.uuidIntMapMap.getWithGeneration(uuids[0]);
 
+        this.store.logUuidForNid(uuids[0], nid);
         for (int i = 1; i < uuids.length; i++) {
             this.uuidIntMapMap.put(uuids[i], nid);
+            this.store.logUuidForNid(uuids[i], nid);
         }
         return nid;
     }
@@ -287,7 +321,7 @@ public class IdentifierProvider
 
     @Override
     public List<UUID> getUuidsForNid(int nid) throws NoSuchElementException {
-        //This call is only faster if the cache has it, so test before doing the call.
+        //The nid to uuid index answers this directly, if it has the nid.
         if (this.uuidIntMapMap.cacheContainsNid(nid)) {
             return Arrays.asList(this.uuidIntMapMap.getKeysForValue(nid));
         }
@@ -300,7 +334,7 @@ public class IdentifierProvider
             return optionalObj.get().getUuidList();
         }
 
-        //Not in the datastore... do the scan lookup.
+        //Not in the datastore... ask the map, which may need to build its index.
         final UUID[] uuids = this.uuidIntMapMap.getKeysForValue(nid);
         if (uuids.length > 0) {
             return Arrays.asList(uuids);
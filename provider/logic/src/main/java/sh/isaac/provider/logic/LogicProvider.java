@@ -63,6 +63,7 @@ import sh.isaac.api.logic.LogicalExpression;
 import sh.isaac.model.coordinate.EditCoordinateImpl;
 import sh.isaac.model.logic.LogicalExpressionImpl;
 import sh.isaac.model.semantic.version.LogicGraphVersionImpl;
+import sh.isaac.provider.logic.csiro.classify.ClassifierData;
 import sh.isaac.provider.logic.csiro.classify.ClassifierProvider;
 import sh.isaac.api.component.semantic.SemanticSnapshotService;
 
@@ -119,6 +120,7 @@ public class LogicProvider
             }
       classifierServiceMap.clear();
       pendingLogicTasks.clear();
+      ClassifierData.reset();
    }
 
 
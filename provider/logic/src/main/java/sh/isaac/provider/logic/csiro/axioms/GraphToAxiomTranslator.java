@@ -46,6 +46,8 @@ package sh.isaac.provider.logic.csiro.axioms;
 
 //~--- JDK imports ------------------------------------------------------------
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Calendar;
 import java.util.Optional;
 import java.util.Set;
@@ -95,6 +97,9 @@ public class GraphToAxiomTranslator {
    /** The axioms. */
    Set<Axiom> axioms = new ConcurrentSkipListSet<>();
 
+   /** Axioms added by each translating thread, merged into the axioms by {@link #getAxioms()}. */
+   ConcurrentHashMap<Thread, ArrayList<Axiom>> threadAxiomBuffers = new ConcurrentHashMap<>();
+
    /** The nid logic concept map. */
    IntObjectMap<Concept> nidLogicConceptMap;
 
@@ -117,6 +122,7 @@ public class GraphToAxiomTranslator {
     */
    public void clear() {
       this.axioms.clear();
+      this.threadAxiomBuffers.clear();
       this.nidLogicRoleMap.clear();
       this.nidLogicFeatureMap.clear();
       this.nidLogicConceptMap.clear();
@@ -125,7 +131,7 @@ public class GraphToAxiomTranslator {
 
    /**
     * Translates the logicGraphSemantic into a set of axioms, and adds those axioms
- to the internal set of axioms.
+ to the internal set of axioms. May be called concurrently from multiple threads.
     *
     * @param logicGraphSemantic the logic graph semantic
     */
@@ -148,7 +154,7 @@ public class GraphToAxiomTranslator {
     */
    @Override
    public String toString() {
-      return "GraphToAxiomTranslator{" + "axioms=" + this.axioms.size() + ", nidLogicConceptMap=" +
+      return "GraphToAxiomTranslator{" + "axioms=" + getAxioms().size() + ", nidLogicConceptMap=" +
              this.nidLogicConceptMap.size() + ", sequenceLogicRoleMap=" +
              this.nidLogicRoleMap.size() + ", sequenceLogicFeatureMap=" + this.nidLogicFeatureMap.size() +
              '}';
@@ -373,7 +379,7 @@ public class GraphToAxiomTranslator {
       final Optional<Concept> conjunctionConcept = generateAxioms(children[0], conceptNid, logicGraph);
 
       if (conjunctionConcept.isPresent()) {
-         this.axioms.add(new ConceptInclusion(getConcept(conceptNid), conjunctionConcept.get()));
+         addAxiom(new ConceptInclusion(getConcept(conceptNid), conjunctionConcept.get()));
       } else {
          throw new IllegalStateException("Child node must return a conjunction concept. Concept: " + conceptNid +
                                          " graph: " + logicGraph);
@@ -458,8 +464,8 @@ public class GraphToAxiomTranslator {
       final Optional<Concept> conjunctionConcept = generateAxioms(children[0], conceptNid, logicGraph);
 
       if (conjunctionConcept.isPresent()) {
-         this.axioms.add(new ConceptInclusion(getConcept(conceptNid), conjunctionConcept.get()));
-         this.axioms.add(new ConceptInclusion(conjunctionConcept.get(), getConcept(conceptNid)));
+         addAxiom(new ConceptInclusion(getConcept(conceptNid), conjunctionConcept.get()));
+         addAxiom(new ConceptInclusion(conjunctionConcept.get(), getConcept(conceptNid)));
       } else {
          throw new IllegalStateException("Child node must return a conjunction concept. Concept: " + conceptNid +
                                          " graph: " + logicGraph);
@@ -468,12 +474,60 @@ public class GraphToAxiomTranslator {
 
    //~--- get methods ---------------------------------------------------------
 
+   /**
+    * Adds the axiom to the buffer of the current thread, so translating threads don't contend
+    * on the sorted axiom set.
+    *
+    * @param axiom the axiom
+    */
+   private void addAxiom(Axiom axiom) {
+      ArrayList<Axiom> threadAxioms = this.threadAxiomBuffers.get(Thread.currentThread());
+
+      if (threadAxioms == null) {
+         threadAxioms = new ArrayList<>();
+         this.threadAxiomBuffers.put(Thread.currentThread(), threadAxioms);
+      }
+
+      threadAxioms.add(axiom);
+   }
+
+   /**
+    * Merges the thread buffers into the axioms. The axiom set is sorted, so the result does not depend
+    * on which thread translated which graph. Must not be called while translations are in progress.
+    */
+   private synchronized void mergeThreadAxiomBuffers() {
+      if (this.threadAxiomBuffers.isEmpty()) {
+         return;
+      }
+
+      int size = 0;
+
+      for (ArrayList<Axiom> threadAxioms: this.threadAxiomBuffers.values()) {
+         size += threadAxioms.size();
+      }
+
+      final Axiom[] bufferedAxioms = new Axiom[size];
+      int           position       = 0;
+
+      for (ArrayList<Axiom> threadAxioms: this.threadAxiomBuffers.values()) {
+         for (Axiom axiom: threadAxioms) {
+            bufferedAxioms[position++] = axiom;
+         }
+      }
+
+      this.threadAxiomBuffers.clear();
+      // sorted insertion keeps the skip list updates local
+      Arrays.parallelSort(bufferedAxioms);
+      this.axioms.addAll(Arrays.asList(bufferedAxioms));
+   }
+
    /**
     * Gets the axioms.
     *
     * @return the axioms
     */
    public Set<Axiom> getAxioms() {
+      mergeThreadAxiomBuffers();
       return this.axioms;
    }
 
@@ -484,14 +538,7 @@ public class GraphToAxiomTranslator {
     * @return the concept
     */
    private Concept getConcept(int name) {
-      final Optional<Concept> optionalConcept = this.nidLogicConceptMap.getOptional(name);
-
-      if (optionalConcept.isPresent()) {
-         return optionalConcept.get();
-      }
-      Concept concept = Factory.createNamedConcept(Integer.toString(name));
-      this.nidLogicConceptMap.put(name, concept);
-      return concept;
+      return this.nidLogicConceptMap.computeIfAbsent(name, nid -> Factory.createNamedConcept(Integer.toString(nid)));
    }
 
    /**
@@ -36,18 +36,29 @@
  */
 package sh.isaac.provider.logic.csiro.classify;
 
+import java.time.Duration;
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.OptionalInt;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentSkipListSet;
-import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import au.csiro.ontology.Node;
 import au.csiro.ontology.Ontology;
 import au.csiro.ontology.classification.IReasoner;
+import au.csiro.ontology.model.Axiom;
 import au.csiro.snorocket.core.SnorocketReasoner;
 import sh.isaac.api.Get;
+import sh.isaac.api.chronicle.Chronology;
 import sh.isaac.api.chronicle.LatestVersion;
 import sh.isaac.api.commit.ChronologyChangeListener;
 import sh.isaac.api.commit.CommitRecord;
@@ -55,27 +66,47 @@ import sh.isaac.api.component.concept.ConceptChronology;
 import sh.isaac.api.component.semantic.SemanticChronology;
 import sh.isaac.api.coordinate.LogicCoordinate;
 import sh.isaac.api.coordinate.StampCoordinate;
+import sh.isaac.api.externalizable.DataWriteListener;
 import sh.isaac.model.semantic.version.LogicGraphVersionImpl;
 import sh.isaac.provider.logic.csiro.axioms.GraphToAxiomTranslator;
 
 
 /**
- * The Class ClassifierData.
+ * The Class ClassifierData. Retains the reasoner state of the last classification, so that a
+ * subsequent classification with the same logic coordinate, and a stamp coordinate that differs 
+ * only by a later time, can load only the stated definitions added since the last classification. 
+ * Changes that remove axioms, such as retirements, require a complete classification. So do stated 
+ * definitions written outside a commit, such as by an import, since they may carry any time, and 
+ * change the definitions visible at the last classification. 
+ * 
+ * The data of the most recently used coordinates is retained, each with its own reasoner. A 
+ * classification holds its data from {@link #beginClassification(StampCoordinate)} to 
+ * {@link #endClassification()}, so classifications with the same coordinates run one at a time.
  *
  * @author kec
  */
 public class ClassifierData
-        implements ChronologyChangeListener {
+        implements ChronologyChangeListener, DataWriteListener {
 
     /**
      * The Constant log.
      */
     private static final Logger LOG = LogManager.getLogger();
 
-//    /**
-//     * The Constant singletonReference.
-//     */
-//    private static final AtomicReference<ClassifierData> SINGLETON = new AtomicReference<>();
+    /**
+     * The most classifier data retained. Each retains a reasoner, which may take a great deal of memory.
+     */
+    private static final int MAX_RETAINED = 2;
+
+    /**
+     * The retained classifier data, least recently used first. Guarded by the class.
+     */
+    private static final List<ClassifierData> RETAINED = new ArrayList<>();
+
+    /**
+     * Held by the thread running a classification with this data.
+     */
+    private final ReentrantLock classificationLock = new ReentrantLock();
 
     /**
      * The listener uuid.
@@ -85,7 +116,7 @@ public class ClassifierData
     /**
      * The incremental allowed.
      */
-    //private boolean incrementalAllowed = false;
+    private volatile boolean incrementalAllowed = false;
 
     /**
      * The all graphs to axiom translator.
@@ -95,7 +126,7 @@ public class ClassifierData
     /**
      * The incremental to axiom translator.
      */
-    //GraphToAxiomTranslator incrementalToAxiomTranslator = new GraphToAxiomTranslator();
+    GraphToAxiomTranslator incrementalToAxiomTranslator = new GraphToAxiomTranslator();
 
     /**
      * The reasoner.
@@ -113,20 +144,40 @@ public class ClassifierData
     Instant lastClassifyInstant;
 
     /**
-     * The last classify type.
+     * The type of the classification in progress, or of the last classification.
      */
-    //ClassificationType lastClassifyType;
+    ClassificationType lastClassifyType;
 
     /**
      * The stamp coordinate.
      */
     StampCoordinate stampCoordinate;
 
+    /**
+     * The stamp coordinate of the last classification.
+     */
+    StampCoordinate lastClassifyStampCoordinate;
+
     /**
      * The logic coordinate.
      */
     LogicCoordinate logicCoordinate;
 
+    /**
+     * Concepts with stated definitions, or status, changed since the last classification.
+     */
+    private final Set<Integer> changedConceptNids = new ConcurrentSkipListSet<>();
+
+    /**
+     * Stated semantics written to the datastore, and not yet seen in a commit.
+     */
+    private final Set<Integer> uncommittedStatedWrites = ConcurrentHashMap.newKeySet();
+
+    /**
+     * The durations of the phases of the classification in progress.
+     */
+    private final Map<String, Duration> phaseDurations = new LinkedHashMap<>();
+
     /**
      * Instantiates a new classifier data.
      *
@@ -145,32 +196,92 @@ public class ClassifierData
      * @return the i reasoner
      */
     public IReasoner classify() {
-        this.loadedConcepts = 
-                new ConcurrentSkipListSet<>(this.allGraphsToAxiomTranslator.getLoadedConcepts());
+        this.reasoner = this.reasoner.classify();
         this.allGraphsToAxiomTranslator.clear();
+        this.incrementalToAxiomTranslator.clear();
         this.lastClassifyInstant = Instant.now();
-
-//        if (this.lastClassifyType == null) {
-//            this.lastClassifyType = ClassificationType.COMPLETE;
-//            this.incrementalAllowed = true;
-//        } else {
-//            if (this.incrementalAllowed) {
-//                this.lastClassifyType = ClassificationType.INCREMENTAL;
-//                this.incrementalToAxiomTranslator.clear();
-//            } else {
-//                this.lastClassifyType = ClassificationType.COMPLETE;
-//            }
-//        }
-
-        return this.reasoner.classify();
+        this.lastClassifyStampCoordinate = this.stampCoordinate;
+        this.incrementalAllowed = true;
+        return this.reasoner;
     }
 
     /**
-     * Clear axioms.
+     * Clear axioms, and prepare for a complete classification.
      */
     public void clearAxioms() {
+        this.incrementalAllowed = false;
+        this.lastClassifyType = ClassificationType.COMPLETE;
+        this.changedConceptNids.clear();
+        this.uncommittedStatedWrites.clear();
         this.allGraphsToAxiomTranslator.clear();
-//        this.incrementalToAxiomTranslator.clear();
+        this.incrementalToAxiomTranslator.clear();
+    }
+
+    /**
+     * Translate the stated definitions of the concepts changed since the last classification, 
+     * and prepare for an incremental classification. 
+     *
+     * @return true if the changes only add axioms, false if a complete classification is required
+     */
+    public boolean extractIncrementalAxioms() {
+        if (!this.incrementalAllowed) {
+            return false;
+        }
+        if (!this.uncommittedStatedWrites.isEmpty()) {
+            LOG.info(this.uncommittedStatedWrites.size() + " stated definitions written outside a commit, complete classification required. ");
+            return false;
+        }
+        // A failure between here and the end of classify leaves the reasoner in an unknown state.
+        this.incrementalAllowed = false;
+        this.incrementalToAxiomTranslator.clear();
+        final Integer[] conceptNids = this.changedConceptNids.toArray(new Integer[0]);
+        this.changedConceptNids.removeAll(List.of(conceptNids));
+
+        for (int conceptNid : conceptNids) {
+            final Optional<LogicGraphVersionImpl> previous = getActiveStatedDefinition(conceptNid, this.lastClassifyStampCoordinate);
+            final Optional<LogicGraphVersionImpl> latest = getActiveStatedDefinition(conceptNid, this.stampCoordinate);
+
+            if (latest.isPresent()) {
+                if (previous.isPresent()) {
+                    if (previous.get().getStampSequence() == latest.get().getStampSequence()) {
+                        continue;
+                    }
+                    if (!getAxioms(latest.get()).containsAll(getAxioms(previous.get()))) {
+                        LOG.info("Axioms removed from: " + Get.conceptDescriptionText(conceptNid) 
+                                + ", complete classification required. ");
+                        return false;
+                    }
+                }
+                this.incrementalToAxiomTranslator.convertToAxiomsAndAdd(latest.get());
+            } else if (previous.isPresent()) {
+                LOG.info("Definition retired for: " + Get.conceptDescriptionText(conceptNid) 
+                        + ", complete classification required. ");
+                return false;
+            }
+        }
+        this.lastClassifyType = ClassificationType.INCREMENTAL;
+        return true;
+    }
+
+    private Optional<LogicGraphVersionImpl> getActiveStatedDefinition(int conceptNid, StampCoordinate stampCoordinate) {
+        if (!Get.conceptService().isConceptActive(conceptNid, stampCoordinate)) {
+            return Optional.empty();
+        }
+        final List<LatestVersion<LogicGraphVersionImpl>> latestVersions = Get.assemblageService()
+                .getSnapshot(LogicGraphVersionImpl.class, stampCoordinate)
+                .getLatestSemanticVersionsForComponentFromAssemblage(conceptNid, this.logicCoordinate.getStatedAssemblageNid());
+        for (LatestVersion<LogicGraphVersionImpl> latestVersion : latestVersions) {
+            if (latestVersion.isPresent() && latestVersion.get().getStatus().isActive()) {
+                return Optional.of(latestVersion.get());
+            }
+        }
+        return Optional.empty();
+    }
+
+    private static Set<Axiom> getAxioms(LogicGraphVersionImpl logicGraphVersion) {
+        final GraphToAxiomTranslator translator = new GraphToAxiomTranslator();
+        translator.convertToAxiomsAndAdd(logicGraphVersion);
+        return translator.getAxioms();
     }
 
     /**
@@ -180,7 +291,7 @@ public class ClassifierData
      */
     @Override
     public void handleChange(ConceptChronology cc) {
-        // Nothing to do... Only concerned about changes to logic graph.
+        // Nothing to do... changes are processed from the commit record.
     }
 
     /**
@@ -190,82 +301,68 @@ public class ClassifierData
      */
     @Override
     public void handleChange(SemanticChronology sc) {
-        if (sc.getAssemblageNid() == this.logicCoordinate.getStatedAssemblageNid()) {
-            LOG.info("Stated form change: " + sc);
-
-            // only process if incremental is a possibility.
-//            if (this.incrementalAllowed) {
-//                final LatestVersion<LogicGraphVersionImpl> optionalLatest
-//                        = sc.getLatestVersion(this.stampCoordinate);
-//
-//                if (optionalLatest.isPresent()) {
-//                    final LatestVersion<LogicGraphVersionImpl> latest = optionalLatest;
-//
-//                    // get stampCoordinate for last classify.
-//                    final StampCoordinate stampToCompare
-//                            = this.stampCoordinate.makeCoordinateAnalog(this.lastClassifyInstant.toEpochMilli());
-//
-//                    // See if there is a change in the optionalLatest vs the last classify.
-//                    final LatestVersion<LogicGraphVersionImpl> optionalPrevious
-//                            = sc.getLatestVersion(stampToCompare);
-//
-//                    if (optionalPrevious.isPresent()) {
-//                        // See if the change has deletions, if so then incremental is not allowed.
-//                        final LatestVersion<LogicGraphVersionImpl> previous = optionalPrevious;
-//                        boolean deletions = false;
-//
-//                        if (latest.get()
-//                                .getGraphData().length <= previous.get().getGraphData().length) {
-//                            // If nodes where deleted, or an existing node was changed but the size remains the same assume deletions
-//                            deletions = true;
-//
-//                            // TODO use a real subtree isomorphism algorithm.
-//                        }
-//
-//                        if (deletions) {
-//                            this.incrementalAllowed = false;
-//                            this.incrementalToAxiomTranslator.clear();
-//                            this.reasoner = new SnorocketReasoner();
-//                        } else {
-//                            // Otherwise add axioms...
-//                            this.incrementalToAxiomTranslator.convertToAxiomsAndAdd(latest.get());
-//                        }
-//                    } else {
-//                        // Otherwise add axioms...
-//                        this.incrementalToAxiomTranslator.convertToAxiomsAndAdd(latest.get());
-//                    }
-//                }
-//            }
-        }
+        // Nothing to do... changes are processed from the commit record.
     }
 
     @Override
     public void handleCommit(CommitRecord commitRecord) {
-        // already handled with the handle change above.
+        // Recorded even while a classification is in progress, for the next classification.
+        final int statedAssemblageNid = this.logicCoordinate.getStatedAssemblageNid();
+        commitRecord.getConceptsInCommit().stream().forEach((conceptNid) -> this.changedConceptNids.add(conceptNid));
+        commitRecord.getSemanticNidsInCommit().stream().forEach((semanticNid) -> {
+            final OptionalInt assemblageNid = Get.identifierService().getAssemblageNid(semanticNid);
+            if (assemblageNid.isPresent() && assemblageNid.getAsInt() == statedAssemblageNid) {
+                final SemanticChronology sc = Get.assemblageService().getSemanticChronology(semanticNid);
+                LOG.debug("Stated form change: " + sc);
+                this.changedConceptNids.add(sc.getReferencedComponentNid());
+                this.uncommittedStatedWrites.remove(semanticNid);
+            }
+        });
+    }
+
+    /**
+     * Record a stated semantic written to the datastore. Commits write their semantics before they are
+     * reported to {@link #handleCommit(CommitRecord)}, so a write that is never reported was made outside
+     * a commit.
+     *
+     * @param data the chronology written
+     */
+    @Override
+    public void writeData(Chronology data) {
+        if (data instanceof SemanticChronology
+                && ((SemanticChronology) data).getAssemblageNid() == this.logicCoordinate.getStatedAssemblageNid()) {
+            this.uncommittedStatedWrites.add(data.getNid());
+        }
+    }
+
+    @Override
+    public void sync() {
+        // Nothing to do... nothing is written.
     }
 
     /**
      * Load axioms.
      */
     public void loadAxioms() {
-//        if (this.incrementalAllowed) {
-//            this.reasoner.loadAxioms(this.incrementalToAxiomTranslator.getAxioms());
-//            this.loadedConcepts = this.incrementalToAxiomTranslator.getLoadedConcepts();
-//            LOG.info("Incremental load of " + this.incrementalToAxiomTranslator.getAxioms().size() + " axioms. ");
-//        } else {
+        if (this.lastClassifyType == ClassificationType.INCREMENTAL) {
+            this.reasoner.loadAxioms(this.incrementalToAxiomTranslator.getAxioms());
+            this.loadedConcepts = this.incrementalToAxiomTranslator.getLoadedConcepts();
+            LOG.info("Incremental load of " + this.incrementalToAxiomTranslator.getAxioms().size() + " axioms. ");
+        } else {
+            this.reasoner = new SnorocketReasoner();
             this.reasoner.loadAxioms(this.allGraphsToAxiomTranslator.getAxioms());
             this.loadedConcepts = this.allGraphsToAxiomTranslator.getLoadedConcepts();
             LOG.info("Complete load of " + this.allGraphsToAxiomTranslator.getAxioms().size() + " axioms. ");
-//        }
-
+        }
+        this.loadedConcepts = new ConcurrentSkipListSet<>(this.loadedConcepts);
     }
 
     @Override
     public String toString() {
         return "ClassifierData{" + "graphToAxiomTranslator=" + this.allGraphsToAxiomTranslator
-                + ",\n incrementalToAxiomTranslator=" + "this.incrementalToAxiomTranslator" + ",\n reasoner="
+                + ",\n incrementalToAxiomTranslator=" + this.incrementalToAxiomTranslator + ",\n reasoner="
                 + this.reasoner + ",\n lastClassifyInstant=" + this.lastClassifyInstant + ",\n lastClassifyType="
-                + "this.lastClassifyType" + ",\n stampCoordinate=" + this.stampCoordinate + ",\n logicCoordinate="
+                + this.lastClassifyType + ",\n stampCoordinate=" + this.stampCoordinate + ",\n logicCoordinate="
                 + this.logicCoordinate + '}';
     }
 
@@ -285,23 +382,26 @@ public class ClassifierData
      * @return the affected concept nid set
      */
     public Set<Integer> getAffectedConceptNidSet() {
-
-//        if (this.lastClassifyType == ClassificationType.COMPLETE) {
+        if (this.lastClassifyType != ClassificationType.INCREMENTAL) {
             return this.loadedConcepts;
-//        }
-//
-//        final Set<Integer> affectedConceptNids = new ConcurrentSkipListSet<>();
-//
-//        for (Node node : this.reasoner.getClassifiedOntology().getAffectedNodes()) {
-//            if (node != null) {
-//                // TODO why does the classifier include null in the affected node set.
-//                for (String equivalent : node.getEquivalentConcepts()) {
-//                    affectedConceptNids.add(Integer.parseInt(equivalent));
-//                }
-//            }
-//        }
-//
-//        return affectedConceptNids;
+        }
+
+        final Set<Integer> affectedConceptNids = new ConcurrentSkipListSet<>(this.loadedConcepts);
+
+        for (Node node : this.reasoner.getClassifiedOntology().getAffectedNodes()) {
+            if (node != null) {
+                // TODO why does the classifier include null in the affected node set.
+                for (String equivalent : node.getEquivalentConcepts()) {
+                    try {
+                        affectedConceptNids.add(Integer.parseInt(equivalent));
+                    } catch (final NumberFormatException numberFormatException) {
+                        // _TOP_ or _BOTTOM_
+                    }
+                }
+            }
+        }
+
+        return affectedConceptNids;
     }
 
     /**
@@ -323,34 +423,77 @@ public class ClassifierData
     }
 
     /**
-     * Gets the.
+     * Gets the classifier data for the coordinates. The classifier data of an earlier classification is
+     * reused if the logic coordinates are equal, and the stamp coordinates differ at most by time, since 
+     * the classifier service replaces latest with the current time. The data must be held with 
+     * {@link #beginClassification(StampCoordinate)} before it is used.
      *
      * @param stampCoordinate the stamp coordinate
      * @param logicCoordinate the logic coordinate
      * @return the classifier data
      */
-    public static ClassifierData get(StampCoordinate stampCoordinate, LogicCoordinate logicCoordinate) {
-//        if (SINGLETON.get() == null) {
-//            SINGLETON.compareAndSet(null, new ClassifierData(stampCoordinate, logicCoordinate));
-//        } else {
-//            ClassifierData classifierData = SINGLETON.get();
-//
-//            while (!classifierData.stampCoordinate.equals(stampCoordinate)
-//                    || !classifierData.logicCoordinate.equals(logicCoordinate)) {
-//                Get.commitService()
-//                        .removeChangeListener(classifierData);
-//
-//                final ClassifierData newClassifierData = new ClassifierData(stampCoordinate, logicCoordinate);
-//
-//                SINGLETON.compareAndSet(classifierData, newClassifierData);
-//                classifierData = SINGLETON.get();
-//            }
-//        }
-//
-//        Get.commitService()
-//                .addChangeListener(SINGLETON.get());
-//        return SINGLETON.get();
-        return new ClassifierData(stampCoordinate, logicCoordinate);
+    public static synchronized ClassifierData get(StampCoordinate stampCoordinate, LogicCoordinate logicCoordinate) {
+        final StampCoordinate stampCoordinateWithoutTime = stampCoordinate.makeCoordinateAnalog(Long.MAX_VALUE);
+        for (Iterator<ClassifierData> iterator = RETAINED.iterator(); iterator.hasNext();) {
+            final ClassifierData classifierData = iterator.next();
+            if (classifierData.logicCoordinate.equals(logicCoordinate)
+                    && classifierData.stampCoordinate.makeCoordinateAnalog(Long.MAX_VALUE).equals(stampCoordinateWithoutTime)) {
+                iterator.remove();
+                RETAINED.add(classifierData);
+                return classifierData;
+            }
+        }
+
+        final ClassifierData classifierData = new ClassifierData(stampCoordinate, logicCoordinate);
+        RETAINED.add(classifierData);
+        Get.commitService().addChangeListener(classifierData);
+        Get.dataStore().registerDataWriteListener(classifierData);
+        
+        // Release the least recently used data that is not held by a classification.
+        for (Iterator<ClassifierData> iterator = RETAINED.iterator(); iterator.hasNext() && RETAINED.size() > MAX_RETAINED;) {
+            final ClassifierData retained = iterator.next();
+            if (retained != classifierData && !retained.classificationLock.isLocked()) {
+                iterator.remove();
+                Get.commitService().removeChangeListener(retained);
+                Get.dataStore().unregisterDataWriteListener(retained);
+            }
+        }
+        return classifierData;
+    }
+
+    /**
+     * Release the retained classifier data, for example when the database is shut down.
+     */
+    public static synchronized void reset() {
+        for (ClassifierData classifierData : RETAINED) {
+            Get.commitService().removeChangeListener(classifierData);
+            Get.dataStore().unregisterDataWriteListener(classifierData);
+        }
+        RETAINED.clear();
+    }
+
+    /**
+     * Hold this data for a classification at the stamp coordinate, waiting for any classification 
+     * already holding it to end. Must be followed by {@link #endClassification()} on the same thread. 
+     *
+     * @param stampCoordinate the stamp coordinate of the classification
+     */
+    public void beginClassification(StampCoordinate stampCoordinate) {
+        this.classificationLock.lock();
+        if (this.lastClassifyStampCoordinate != null 
+                && stampCoordinate.getStampPosition().getTime() 
+                < this.lastClassifyStampCoordinate.getStampPosition().getTime()) {
+            // classifying an earlier position, the changes are not additions.
+            this.incrementalAllowed = false;
+        }
+        this.stampCoordinate = stampCoordinate;
+    }
+
+    /**
+     * Release this data at the end of a classification. 
+     */
+    public void endClassification() {
+        this.classificationLock.unlock();
     }
 
     /**
@@ -359,8 +502,7 @@ public class ClassifierData
      * @return true, if incremental allowed
      */
     public boolean isIncrementalAllowed() {
-        //return this.incrementalAllowed;
-        return false;
+        return this.incrementalAllowed;
     }
 
     /**
@@ -372,6 +514,39 @@ public class ClassifierData
         return this.lastClassifyInstant;
     }
 
+    /**
+     * Gets the type of the classification in progress, or of the last classification.
+     *
+     * @return the classification type
+     */
+    public ClassificationType getLastClassifyType() {
+        return this.lastClassifyType;
+    }
+
+    /**
+     * Record the duration of a phase of the classification in progress. The first phase of
+     * a classification clears the durations of the last classification.
+     *
+     * @param phase the name of the phase
+     * @param startTime the start time of the phase
+     * @param firstPhase true if the phase starts a classification
+     */
+    public void recordPhaseDuration(String phase, Instant startTime, boolean firstPhase) {
+        if (firstPhase) {
+            this.phaseDurations.clear();
+        }
+        this.phaseDurations.put(phase, Duration.between(startTime, Instant.now()));
+    }
+
+    /**
+     * Gets the durations of the phases of the classification in progress, in execution order.
+     *
+     * @return the phase durations
+     */
+    public Map<String, Duration> getPhaseDurations() {
+        return this.phaseDurations;
+    }
+
     @Override
     public UUID getListenerUuid() {
         return this.listenerUuid;
@@ -384,4 +559,4 @@ public class ClassifierData
     public StampCoordinate getStampCoordinate() {
         return stampCoordinate;
     }
-}
\ No newline at end of file
+}
@@ -39,6 +39,8 @@
 
 package sh.isaac.provider.logic.csiro.classify.tasks;
 
+import java.time.Duration;
+import java.time.Instant;
 import java.util.concurrent.Semaphore;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -54,6 +56,7 @@ import sh.isaac.api.memory.MemoryManagementService;
 import sh.isaac.api.progress.PersistTaskResult;
 import sh.isaac.api.task.SequentialAggregateTask;
 import sh.isaac.provider.logic.LogicProvider;
+import sh.isaac.provider.logic.csiro.classify.ClassifierData;
 
 /**
  * The Class AggregateClassifyTask.
@@ -64,6 +67,8 @@ public class AggregateClassifyTask
         extends SequentialAggregateTask<ClassifierResults> implements PersistTaskResult {
 
    private CycleCheck cc = null;
+   private final StampCoordinate stampCoordinate;
+   private final LogicCoordinate logicCoordinate;
    private static Logger log = LogManager.getLogger();
    
    //Classification takes a tremendous amount of memory.  Don't allow it to run in parallel.
@@ -80,6 +85,8 @@ public class AggregateClassifyTask
       super("Classify",
             new Task[] { new ExtractAxioms(stampCoordinate,logicCoordinate), new LoadAxioms(), new ClassifyAxioms(), 
                    new ProcessClassificationResults(stampCoordinate, logicCoordinate, editCoordinate)});
+      this.stampCoordinate = stampCoordinate;
+      this.logicCoordinate = logicCoordinate;
       if (cycleCheckFirst) {
          cc = new CycleCheck(stampCoordinate, logicCoordinate);
       }
@@ -93,20 +100,31 @@ public class AggregateClassifyTask
          LookupService.getService(MemoryManagementService.class)
                   .addState(ApplicationStates.CLASSIFYING);
       }
+      Duration cycleCheckDuration = Duration.ZERO;
       try {
          log.debug("Aggregate classify begins");
          if (cc != null) {
             log.debug("Running cycle check");
+            final Instant cycleCheckStart = Instant.now();
             ClassifierResults cr = cc.call();
+            cycleCheckDuration = Duration.between(cycleCheckStart, Instant.now());
             if (cr != null) {
                // had a cycle.  Abort.
                log.info("At least one cycle detected, classification aborted - summary: {}", cr);
                return cr;
             }
          }
-         ClassifierResults cr = super.call();
+         final ClassifierData classifierData = ClassifierData.get(this.stampCoordinate, this.logicCoordinate);
+         classifierData.beginClassification(this.stampCoordinate);
+         ClassifierResults cr;
+         try {
+            cr = super.call();
+         } finally {
+            classifierData.endClassification();
+         }
          if (cc != null) {
             cr.addOrphans(cc.getOrphans());
+            cr.addPhaseDuration("Cycle check", cycleCheckDuration);
          }
          log.info("Classification task finished - summary: {}", cr.toString());
          return cr;
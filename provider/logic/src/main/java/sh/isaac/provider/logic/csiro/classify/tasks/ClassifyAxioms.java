@@ -88,6 +88,7 @@ public class ClassifyAxioms
            }
            
            inputData.classify();
+           inputData.recordPhaseDuration("Classify axioms", getStartTime(), false);
            return inputData;
        } finally {
            Get.activeTasks().remove(this);
@@ -91,11 +91,13 @@ public class ExtractAxioms
            final AtomicInteger logicGraphMembers = new AtomicInteger();
            final ClassifierData cd = ClassifierData.get(this.stampCoordinate, this.logicCoordinate);
            
-           if (cd.isIncrementalAllowed()) {
-               // axioms are already extracted.
+           if (cd.extractIncrementalAxioms()) {
+               log.info("Incremental classification, only changed definitions extracted");
+               cd.recordPhaseDuration("Extract axioms (incremental)", getStartTime(), true);
            } else {
                cd.clearAxioms();
                processAllStatedAxioms(this.stampCoordinate, this.logicCoordinate, cd, logicGraphMembers);
+               cd.recordPhaseDuration("Extract axioms", getStartTime(), true);
            }
            return cd;
        } finally {
@@ -105,7 +107,8 @@ public class ExtractAxioms
    }
 
    /**
-    * Process all stated axioms.
+    * Process all stated axioms. The logic graphs are translated in parallel, each thread
+    * accumulating axioms in its own buffer of the translator. 
     *
     * @param stampCoordinate the stamp coordinate
     * @param logicCoordinate the logic coordinate
@@ -121,6 +124,7 @@ public class ExtractAxioms
                                                                                   stampCoordinate);
 
       semanticSnapshot.getLatestSemanticVersionsFromAssemblage(logicCoordinate.getStatedAssemblageNid(), this)
+                    .parallel()
                     .forEach((LatestVersion<LogicGraphVersionImpl> latest) -> {
                                 final LogicGraphVersionImpl lgs = latest.get();
                                 final int conceptNid = lgs.getReferencedComponentNid();
@@ -87,6 +87,7 @@ public class LoadAxioms
             throw new RuntimeException("Input data to LoadAxioms must be specified by calling setInput prior to executing");
          }
          inputData.loadAxioms();
+         inputData.recordPhaseDuration("Load axioms", getStartTime(), false);
          return inputData;
       }
       finally {
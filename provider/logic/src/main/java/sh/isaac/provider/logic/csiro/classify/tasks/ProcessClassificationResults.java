@@ -39,6 +39,8 @@ package sh.isaac.provider.logic.csiro.classify.tasks;
 
 import static sh.isaac.api.logic.LogicalExpressionBuilder.And;
 import static sh.isaac.api.logic.LogicalExpressionBuilder.NecessarySet;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
@@ -137,6 +139,8 @@ public class ProcessClassificationResults
             Set<Integer> affectedConceptNids = this.inputData.getAffectedConceptNidSet();
             this.addToTotalWork(affectedConceptNids.size());
             final ClassifierResults classifierResults = collectResults(inferredAxioms, affectedConceptNids);
+            this.inputData.getPhaseDurations().forEach(classifierResults::addPhaseDuration);
+            classifierResults.addPhaseDuration("Write inferred results", Duration.between(getStartTime(), Instant.now()));
 
             return classifierResults;
         } finally {
@@ -162,6 +166,7 @@ public class ProcessClassificationResults
 
             if (node == null) {
                 log.error("Null node for: {} will be skipped in classifier results collect", conceptNid);
+                return;
             }
 
             final Set<String> equivalentConcepts = node.getEquivalentConcepts();
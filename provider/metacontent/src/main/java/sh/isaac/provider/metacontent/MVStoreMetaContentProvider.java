@@ -126,6 +126,14 @@ public class MVStoreMetaContentProvider
       }
    }
 
+   /**
+    * {@inheritDoc}
+    */
+   @Override
+   public void commit() {
+      this.store.commit();
+   }
+
    /**
     * Open store.
     *
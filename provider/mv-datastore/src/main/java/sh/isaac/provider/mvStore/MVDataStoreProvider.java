@@ -25,6 +25,7 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Map.Entry;
 import java.util.Optional;
 import java.util.OptionalInt;
@@ -33,6 +34,7 @@ import java.util.Spliterator;
 import java.util.Spliterator.OfInt;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.Future;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
@@ -91,7 +93,7 @@ public class MVDataStoreProvider implements DataStoreSubService, ExtendedStore
 	private DataStoreStartState datastoreStartState = DataStoreStartState.NOT_YET_CHECKED;
 	private Optional<UUID> dataStoreId = Optional.empty();
 
-	private ArrayList<DataWriteListener> writeListeners = new ArrayList<>();
+	private final List<DataWriteListener> writeListeners = new CopyOnWriteArrayList<>();
 
 	private final String COMPONENT_TO_SEMANTIC_NIDS_MAP = "componentToSemanticNidsMap";
 	private final String NID_TO_ASSEMBLAGE_NID_MAP = "nidToAssemblageNidMap";
@@ -44,6 +44,7 @@ package sh.isaac.provider.path;
 import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
@@ -64,12 +65,17 @@ import org.jvnet.hk2.annotations.Service;
 import sh.isaac.api.Get;
 import sh.isaac.api.LookupService;
 import sh.isaac.api.bootstrap.TermAux;
+import sh.isaac.api.commit.ChronologyChangeListener;
+import sh.isaac.api.commit.CommitRecord;
 import sh.isaac.api.commit.StampService;
+import sh.isaac.api.component.concept.ConceptChronology;
+import sh.isaac.api.component.semantic.SemanticChronology;
 import sh.isaac.api.coordinate.StampCoordinate;
 import sh.isaac.api.coordinate.StampPath;
 import sh.isaac.api.coordinate.StampPosition;
 import sh.isaac.api.identity.StampedVersion;
 import sh.isaac.api.snapshot.calculator.RelativePosition;
+import sh.isaac.api.snapshot.calculator.RelativePositionCalculator;
 import sh.isaac.api.task.LabelTaskWithIndeterminateProgress;
 import sh.isaac.model.coordinate.StampPathImpl;
 import sh.isaac.model.coordinate.StampPositionImpl;
@@ -86,7 +92,7 @@ import sh.isaac.api.VersionManagmentPathService;
 @Service(name = "Path Provider")
 @RunLevel(value = LookupService.SL_L3_DATABASE_SERVICES_STARTED_RUNLEVEL)
 public class VersionManagmentPathProvider
-         implements VersionManagmentPathService {
+         implements VersionManagmentPathService, ChronologyChangeListener {
    /** The Constant LOG. */
    private static final Logger LOG = LogManager.getLogger();
 
@@ -98,6 +104,9 @@ public class VersionManagmentPathProvider
    /** The path map. */
    ConcurrentHashMap<Integer, StampPath> pathMap;
 
+   /** The listener uuid. */
+   private final UUID listenerUuid = UUID.randomUUID();
+
    //~--- constructors --------------------------------------------------------
 
    /**
@@ -146,6 +155,7 @@ public class VersionManagmentPathProvider
                      });
          
          this.pathMap = newMap;
+         RelativePositionCalculator.invalidateCalculators();
       } finally {
          LOCK.unlock();
       }
@@ -350,6 +360,34 @@ public class VersionManagmentPathProvider
                                       Get.conceptService().getConceptChronology(stampPathNid).toString());
    }
    
+   @Override
+   public void handleChange(ConceptChronology cc) {
+      // paths are defined by semantics
+   }
+
+   /**
+    * Calculators hold segments computed from path origins, so discard them when a path or path origin changes.
+    *
+    * @param sc the changed semantic
+    */
+   @Override
+   public void handleChange(SemanticChronology sc) {
+      if (sc.getAssemblageNid() == TermAux.PATH_ASSEMBLAGE.getNid()
+            || sc.getAssemblageNid() == TermAux.PATH_ORIGIN_ASSEMBLAGE.getNid()) {
+         RelativePositionCalculator.invalidateCalculators();
+      }
+   }
+
+   @Override
+   public void handleCommit(CommitRecord commitRecord) {
+      // handled by handleChange
+   }
+
+   @Override
+   public UUID getListenerUuid() {
+      return this.listenerUuid;
+   }
+
    @Override
    public void rebuildPathMap() {
       setupPathMap();
@@ -365,6 +403,7 @@ public class VersionManagmentPathProvider
       try {
          LOG.info("VersionManagementPathProvider starts");
          setupPathMap();
+         Get.commitService().addChangeListener(this);
       } finally {
          progressTask.finished();
       }
@@ -376,6 +415,7 @@ public class VersionManagmentPathProvider
    @PreDestroy
    private void stopMe() {
       LOG.info("VersionManagementPathProvider stops");
+      Get.commitService().removeChangeListener(this);
       this.pathMap = null;
    }
 }
@@ -0,0 +1,91 @@
+/*
+ * Copyright 2019 Organizations participating in ISAAC, ISAAC's KOMET, and SOLOR development include the
+         US Veterans Health Administration, OSHERA, and the Health Services Platform Consortium..
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package sh.isaac.provider.query.lucene;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.BooleanSupplier;
+import org.apache.lucene.index.LeafReaderContext;
+import org.apache.lucene.search.CollectionTerminatedException;
+import org.apache.lucene.search.Collector;
+import org.apache.lucene.search.CollectorManager;
+import org.apache.lucene.search.FilterCollector;
+import org.apache.lucene.search.LeafCollector;
+
+/**
+ * Wraps a collector manager, so a search can be abandoned once the caller no longer wants its result, for example
+ * when a newer type-ahead request supersedes it.
+ *
+ * The cancel check is made as each segment is started, and the remaining segments are skipped once it returns true.
+ * The result then only holds the hits of the segments that were searched before the cancel.
+ *
+ * @param <C> the type of collector of the wrapped manager
+ * @param <T> the type of result
+ * @author kec
+ */
+class CancellableCollectorManager<C extends Collector, T>
+      implements CollectorManager<CancellableCollectorManager.CancellableCollector<C>, T> {
+
+   private final CollectorManager<C, T> delegate;
+   private final BooleanSupplier cancelled;
+
+   /**
+    * @param delegate the manager of the collectors that do the actual collection
+    * @param cancelled returns true once the search should stop
+    */
+   CancellableCollectorManager(CollectorManager<C, T> delegate, BooleanSupplier cancelled) {
+      this.delegate = delegate;
+      this.cancelled = cancelled;
+   }
+
+   @Override
+   public CancellableCollector<C> newCollector() throws IOException {
+      return new CancellableCollector<>(delegate.newCollector(), cancelled);
+   }
+
+   @Override
+   public T reduce(Collection<CancellableCollector<C>> collectors) throws IOException {
+      final List<C> wrapped = new ArrayList<>(collectors.size());
+      for (CancellableCollector<C> collector : collectors) {
+         wrapped.add(collector.wrapped);
+      }
+      return delegate.reduce(wrapped);
+   }
+
+   static final class CancellableCollector<C extends Collector> extends FilterCollector {
+
+      private final C wrapped;
+      private final BooleanSupplier cancelled;
+
+      private CancellableCollector(C wrapped, BooleanSupplier cancelled) {
+         super(wrapped);
+         this.wrapped = wrapped;
+         this.cancelled = cancelled;
+      }
+
+      @Override
+      public LeafCollector getLeafCollector(LeafReaderContext context) throws IOException {
+         if (cancelled.getAsBoolean()) {
+            // The searcher moves on to the next segment, which is skipped in the same way.
+            throw new CollectionTerminatedException();
+         }
+         return super.getLeafCollector(context);
+      }
+   }
+}
@@ -0,0 +1,75 @@
+/*
+ * Copyright 2019 Organizations participating in ISAAC, ISAAC's KOMET, and SOLOR development include the
+         US Veterans Health Administration, OSHERA, and the Health Services Platform Consortium..
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package sh.isaac.provider.query.lucene;
+
+import java.io.IOException;
+import java.util.List;
+import org.apache.lucene.index.DocValues;
+import org.apache.lucene.index.IndexReader;
+import org.apache.lucene.index.LeafReaderContext;
+import org.apache.lucene.index.NumericDocValues;
+import org.apache.lucene.index.ReaderUtil;
+
+/**
+ * Reads an int valued numeric doc values field, such as {@link LuceneIndexer#FIELD_COMPONENT_NID}, of documents
+ * identified by their top level doc id, without loading the stored document.
+ *
+ * Doc values can only be read forward within a segment, so the iterator of a segment is reused while the requested
+ * docs of that segment increase, and is replaced when an earlier doc is requested. Not thread safe.
+ *
+ * @author kec
+ */
+class DocValuesIntReader {
+
+   private final String field;
+   private final List<LeafReaderContext> leaves;
+   private final NumericDocValues[] leafValues;
+
+   /**
+    * @param reader the top level reader of the searcher the doc ids come from
+    * @param field the numeric doc values field to read
+    */
+   DocValuesIntReader(IndexReader reader, String field) {
+      this.field = field;
+      this.leaves = reader.leaves();
+      this.leafValues = new NumericDocValues[leaves.size()];
+   }
+
+   /**
+    * @param doc the top level doc id
+    * @return the value of the field for the doc
+    * @throws IOException if the doc values cannot be read
+    * @throws IllegalStateException if the doc has no value for the field
+    */
+   int get(int doc) throws IOException {
+      final int leafIndex = ReaderUtil.subIndex(doc, leaves);
+      final LeafReaderContext leaf = leaves.get(leafIndex);
+      return get(leafIndex, leaf, doc - leaf.docBase);
+   }
+
+   private int get(int leafIndex, LeafReaderContext leaf, int leafDoc) throws IOException {
+      NumericDocValues values = leafValues[leafIndex];
+      if (values == null || values.docID() >= leafDoc) {
+         values = DocValues.getNumeric(leaf.reader(), field);
+         leafValues[leafIndex] = values;
+      }
+      if (!values.advanceExact(leafDoc)) {
+         throw new IllegalStateException("No " + field + " doc value for doc " + (leaf.docBase + leafDoc));
+      }
+      return (int) values.longValue();
+   }
+}
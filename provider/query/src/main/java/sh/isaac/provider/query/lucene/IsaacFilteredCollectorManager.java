@@ -21,12 +21,13 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashMap;
-import java.util.function.Predicate;
+import java.util.function.IntPredicate;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
-import org.apache.lucene.document.Document;
+import org.apache.lucene.index.DocValues;
 import org.apache.lucene.index.LeafReaderContext;
+import org.apache.lucene.index.NumericDocValues;
 import org.apache.lucene.search.Collector;
 import org.apache.lucene.search.CollectorManager;
 import org.apache.lucene.search.LeafCollector;
@@ -44,7 +45,7 @@ import sh.isaac.api.Get;
  */
 public class IsaacFilteredCollectorManager implements CollectorManager<IsaacFilteredCollectorManager.IsaacFilteredCollector, TopDocs> {
 
-   final Predicate<Integer> filter;
+   final IntPredicate filter;
    final int sizeLimit;
    final ScoreDoc after;
    final ArrayList<IsaacFilteredCollector> collectors = new ArrayList<>();
@@ -52,11 +53,11 @@ public class IsaacFilteredCollectorManager implements CollectorManager<IsaacFilt
 
    /**
     * 
-    * @param filter - optional - arbitrary filtering
+    * @param filter - optional - arbitrary filtering of the component nids of the hits, which are read from the doc values of each segment
     * @param sizeLimit - max number of results to return
     * @param after - optional - specify to begin on a future page of results.  Should be the last ScoreDoc from a previous query.
     */
-   public IsaacFilteredCollectorManager(Predicate<Integer> filter, int sizeLimit, ScoreDoc after) {
+   public IsaacFilteredCollectorManager(IntPredicate filter, int sizeLimit, ScoreDoc after) {
       this.filter = filter;
       this.sizeLimit = sizeLimit;
       this.after = after;
@@ -96,6 +97,8 @@ public class IsaacFilteredCollectorManager implements CollectorManager<IsaacFilt
             leafDelegates.put(context, new LeafCollector() 
             {
                LeafCollector internalDelegate = delegateCollector.getLeafCollector(context);
+               // docs are collected in order within a segment, so the doc values of the segment are read forward only
+               NumericDocValues componentNids = filter == null ? null : DocValues.getNumeric(context.reader(), LuceneIndexer.FIELD_COMPONENT_NID);
                
                @Override
                public void setScorer(Scorable scorer) throws IOException {
@@ -106,19 +109,14 @@ public class IsaacFilteredCollectorManager implements CollectorManager<IsaacFilt
                @Override
                public void collect(int doc) throws IOException {
                   boolean filterPass = false;
-                  int afterDoc = (after == null ? 0 : after.doc) - context.docBase;
-                  if (doc < afterDoc)
-                  {
-                     //This little optimization prevents us from re-evaluating filters and from re-collecting the same docs more than once
-                      LOG.trace("skipping filter eval and collect for item before page 1");
-                      filterPass = false;
-                  }
                   if (filter != null)
                   {
-                    final Document document = context.reader().document(doc);
-                    final int componentNid = document.getField(LuceneIndexer.FIELD_COMPONENT_NID)
-                            .numericValue()
-                            .intValue();
+                     if (!componentNids.advanceExact(doc))
+                     {
+                        LOG.warn("No component nid doc value for doc {}", context.docBase + doc);
+                        return;
+                     }
+                     final int componentNid = (int) componentNids.longValue();
                      try {
                         filterPass = filter.test(componentNid);
                      } catch (IllegalStateException e) {
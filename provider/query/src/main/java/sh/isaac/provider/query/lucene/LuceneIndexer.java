@@ -44,10 +44,12 @@ import java.lang.ref.WeakReference;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.OptionalInt;
 import java.util.Set;
@@ -64,6 +66,7 @@ import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.concurrent.locks.ReentrantLock;
 import java.util.function.BooleanSupplier;
+import java.util.function.IntPredicate;
 import java.util.function.Predicate;
 import java.util.function.Supplier;
 import javax.annotation.PostConstruct;
@@ -75,8 +78,11 @@ import org.apache.lucene.analysis.TokenStream;
 import org.apache.lucene.analysis.tokenattributes.CharTermAttribute;
 import org.apache.lucene.document.Document;
 import org.apache.lucene.document.Field;
+import org.apache.lucene.document.NumericDocValuesField;
 import org.apache.lucene.document.StoredField;
+import org.apache.lucene.document.StringField;
 import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.DirectoryReader;
 import org.apache.lucene.index.IndexFormatTooOldException;
 import org.apache.lucene.index.IndexReader;
 import org.apache.lucene.index.IndexWriter;
@@ -89,6 +95,7 @@ import org.apache.lucene.queryparser.classic.QueryParser;
 import org.apache.lucene.search.BooleanClause.Occur;
 import org.apache.lucene.search.BooleanQuery;
 import org.apache.lucene.search.ControlledRealTimeReopenThread;
+import org.apache.lucene.search.FieldDoc;
 import org.apache.lucene.search.IndexSearcher;
 import org.apache.lucene.search.PrefixQuery;
 import org.apache.lucene.search.Query;
@@ -96,8 +103,10 @@ import org.apache.lucene.search.ReferenceManager;
 import org.apache.lucene.search.ScoreDoc;
 import org.apache.lucene.search.SearcherFactory;
 import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.search.Sort;
 import org.apache.lucene.search.TermQuery;
 import org.apache.lucene.search.TopDocs;
+import org.apache.lucene.search.TopFieldCollector;
 import org.apache.lucene.store.Directory;
 import org.apache.lucene.store.MMapDirectory;
 import com.github.benmanes.caffeine.cache.Cache;
@@ -108,6 +117,7 @@ import sh.isaac.api.Get;
 import sh.isaac.api.LookupService;
 import sh.isaac.api.SystemStatusService;
 import sh.isaac.api.chronicle.Chronology;
+import sh.isaac.api.chronicle.LatestVersion;
 import sh.isaac.api.chronicle.Version;
 import sh.isaac.api.commit.ChronologyChangeListener;
 import sh.isaac.api.commit.CommitRecord;
@@ -122,6 +132,7 @@ import sh.isaac.api.index.IndexBuilderService;
 import sh.isaac.api.index.IndexQueryService;
 import sh.isaac.api.index.IndexStatusListener;
 import sh.isaac.api.index.IndexedGenerationCallable;
+import sh.isaac.api.index.NidFilter;
 import sh.isaac.api.index.SearchResult;
 import sh.isaac.api.task.LabelTaskWithIndeterminateProgress;
 import sh.isaac.api.util.NamedThreadFactory;
@@ -147,19 +158,32 @@ public abstract class LuceneIndexer implements IndexBuilderService
 	}
 
 	// don't need to analyze this - and even though it is an integer, we index it as a string, as that is faster when we are only doing
-	// exact matches.
+	// exact matches.  restrictToSemantic filters on its terms, so the assemblage nid is not also kept as doc values.
 	protected static final String FIELD_SEMANTIC_ASSEMBLAGE_NID = "_semantic_type_sequence_" + PerFieldAnalyzer.WHITE_SPACE_FIELD_MARKER;
 
 	//don't need to analyze, we only ever put a single char here - "t" - when a description is on a concept that is a part of the metadata tree.
 	protected static final String FIELD_CONCEPT_IS_METADATA = "_concept_metadata_marker_" + PerFieldAnalyzer.WHITE_SPACE_FIELD_MARKER;
 	protected static final String FIELD_CONCEPT_IS_METADATA_VALUE = "t";
 
-	// this isn't indexed
+	// this isn't indexed, it is stored, and also kept as numeric doc values, which are what searches read
 	public static final String FIELD_COMPONENT_NID = "_component_nid_";
 	private static final String FIELD_INDEXED_MODULE_NID = "_module_content_" + PerFieldAnalyzer.WHITE_SPACE_FIELD_MARKER;
 	private static final String FIELD_INDEXED_PATH_NID = "_path_content_" + PerFieldAnalyzer.WHITE_SPACE_FIELD_MARKER;
 	private static final String FIELD_INDEXED_AUTHOR_NID = "_author_content_" + PerFieldAnalyzer.WHITE_SPACE_FIELD_MARKER;
 
+	// the key of the one document a chronology has for its latest version on getLatestDocumentCoordinate(), which is replaced as
+	// the chronology changes.  The documents of all versions of a chronology don't have it, nor the markers below.
+	private static final String FIELD_LATEST_COMPONENT_NID = "_latest_component_nid_";
+	// we only ever put a single char here - "t" - on every latest document, and on those whose latest version is active
+	private static final String FIELD_IS_LATEST = "_latest_marker_" + PerFieldAnalyzer.WHITE_SPACE_FIELD_MARKER;
+	private static final String FIELD_LATEST_IS_ACTIVE = "_latest_active_marker_" + PerFieldAnalyzer.WHITE_SPACE_FIELD_MARKER;
+	private static final String FIELD_MARKER_VALUE = "t";
+
+	// the format of the documents written by this class, recorded in the commit data of the index under INDEX_FORMAT_KEY
+	// 1: component nid doc values, 2: latest documents
+	private static final int DOCUMENT_FORMAT = 2;
+	private static final String INDEX_FORMAT_KEY = "isaac.index.format";
+
 	private final Cache<Integer, ScoreDoc> lastDocCache = Caffeine.newBuilder().maximumSize(100).build();
 
 	private File indexFolder = null;
@@ -176,6 +200,8 @@ public abstract class LuceneIndexer implements IndexBuilderService
 
 	private DataStoreStartState databaseValidity = DataStoreStartState.NOT_YET_CHECKED;
 
+	private volatile boolean startupReindexRequired = false;
+
 	private ChronologyChangeListener changeListenerRef;
 
 	protected ExecutorService luceneWriterService;
@@ -191,6 +217,12 @@ public abstract class LuceneIndexer implements IndexBuilderService
 	private final String indexName;
 
 	private final ReentrantLock reindexLock = new ReentrantLock();
+
+	/**
+	 * Serializes the replacement of the latest document of each component, since the documents are written on
+	 * several threads, and two changes to one component must not replace its latest document out of order.
+	 */
+	private final ReentrantLock[] latestDocumentLocks = new ReentrantLock[256];
 	
 	protected List<WeakReference<IndexStatusListener>> statusListeners = new ArrayList<>();
 
@@ -203,6 +235,10 @@ public abstract class LuceneIndexer implements IndexBuilderService
 	protected LuceneIndexer(String indexName)
 	{
 		this.indexName = indexName;
+		for (int i = 0; i < this.latestDocumentLocks.length; i++)
+		{
+			this.latestDocumentLocks[i] = new ReentrantLock();
+		}
 	}
 
 	private IndexWriterConfig getIndexWriterConfig()
@@ -432,6 +468,30 @@ public abstract class LuceneIndexer implements IndexBuilderService
 	 */
 	protected abstract void addFields(Chronology chronicle, Document doc, Set<Integer> pathNids);
 
+	/**
+	 * Implementations that return a coordinate here get, in addition to the document of all versions of each chronology they index,
+	 * one document for its latest version on the coordinate, which is replaced as the chronology changes, and removed if it no
+	 * longer has a latest version.  See {@link #searchLatest(Query, boolean, Predicate, AuthorModulePathRestriction, Integer, Integer, Long)}.
+	 *
+	 * @return the coordinate of the latest documents, or null (the default) if this indexer doesn't write them
+	 */
+	protected StampCoordinate getLatestDocumentCoordinate()
+	{
+		return null;
+	}
+
+	/**
+	 * Add the indexer-specific fields of a latest document.  The nid, author, module, path and status of the version are already
+	 * indexed by this class.
+	 *
+	 * @param chronicle the chronicle
+	 * @param latestVersion the latest version of the chronicle on {@link #getLatestDocumentCoordinate()}
+	 * @param doc the latest document
+	 */
+	protected void addLatestFields(Chronology chronicle, Version latestVersion, Document doc)
+	{
+	}
+
 	/**
 	 * Builds the prefix query.
 	 *
@@ -747,6 +807,7 @@ public abstract class LuceneIndexer implements IndexBuilderService
 	 * @param filter - an optional filter on results - if provided, the filter should expect nids, and can return true, if the nid should be
 	 *            allowed in the result, false otherwise. Note that this may cause large performance slowdowns, depending on the implementation
 	 *            of your filter. If you are utilizing filters along with paging, ensure that your filter has a proper implementation of hashCode()
+	 *            The nids are read from doc values, and a {@link NidFilter} is tested without boxing them.
 	 * @param amp - optional - The stamp criteria to restrict the search, or no restriction if not provided.
 	 * @param pageNum - optional - The desired page number of results. Page numbers start with 1.
 	 * @param sizeLimit - optional - The maximum size of the result list. Pass Integer.MAX_VALUE for unlimited results. Note, utilizing a small
@@ -762,7 +823,124 @@ public abstract class LuceneIndexer implements IndexBuilderService
 	protected final List<SearchResult> search(Query q, Predicate<Integer> filter, AuthorModulePathRestriction amp, Integer pageNum, Integer sizeLimit,
 			Long targetGeneration)
 	{
-		return searchInternal(q, filter, amp, pageNum, sizeLimit, targetGeneration, null);
+		return searchInternal(excludeLatestDocuments(q), filter, amp, pageNum, sizeLimit, targetGeneration, null);
+	}
+
+	/**
+	 * Search only the latest documents, see {@link #getLatestDocumentCoordinate()}.  As each chronology has at most one of them,
+	 * this is a top hits search, read in pages after the last hit, with exact paging, rather than the search and merge on nid of
+	 * {@link #search(Query, Predicate, AuthorModulePathRestriction, Integer, Integer, Long)}.  The amp restricts the author, module and
+	 * path of the latest version.
+	 *
+	 * @param q the query
+	 * @param activeOnly if true, only match chronologies whose latest version is active
+	 * @param filter - optional - see {@link #search(Query, Predicate, AuthorModulePathRestriction, Integer, Integer, Long)}
+	 * @param amp - optional - see {@link #search(Query, Predicate, AuthorModulePathRestriction, Integer, Integer, Long)}
+	 * @param pageNum - optional - see {@link #search(Query, Predicate, AuthorModulePathRestriction, Integer, Integer, Long)}
+	 * @param sizeLimit - optional - see {@link #search(Query, Predicate, AuthorModulePathRestriction, Integer, Integer, Long)}
+	 * @param targetGeneration - optional - see {@link #search(Query, Predicate, AuthorModulePathRestriction, Integer, Integer, Long)}
+	 * @return the list of {@link ComponentSearchResult}
+	 */
+	protected final List<SearchResult> searchLatest(Query q, boolean activeOnly, Predicate<Integer> filter, AuthorModulePathRestriction amp,
+			Integer pageNum, Integer sizeLimit, Long targetGeneration)
+	{
+		IndexSearcher searcher = null;
+		try
+		{
+			searcher = getIndexSearcher(targetGeneration);
+			final BooleanQuery.Builder latestQuery = new BooleanQuery.Builder()
+					.add(this.addAmpRestriction(q, amp), Occur.MUST)
+					.add(new TermQuery(new Term(FIELD_IS_LATEST, FIELD_MARKER_VALUE)), Occur.FILTER);
+			if (activeOnly)
+			{
+				latestQuery.add(new TermQuery(new Term(FIELD_LATEST_IS_ACTIVE, FIELD_MARKER_VALUE)), Occur.FILTER);
+			}
+			q = latestQuery.build();
+			LOG.debug("Running latest query: {}", q.toString());
+
+			final int internalPage = pageNum == null ? 1 : pageNum < 1 ? 1 : pageNum.intValue();
+			final int internalSize = sizeLimit == null ? 100 : sizeLimit < 1 ? 1 : sizeLimit.intValue();
+			final long skip = (long) (internalPage - 1) * internalSize;
+			final int maxDoc = searcher.getIndexReader().maxDoc();
+
+			if (skip >= maxDoc)
+			{
+				return new ArrayList<>();
+			}
+
+			// Read the hits a page of at most 500 at a time, as searchInternal does, since the collector preallocates its queue for
+			// each slice of the index, and an unlimited size would otherwise allocate a queue of every document per slice
+			final IntPredicate intFilter = NidFilter.asIntPredicate(filter);
+			final DocValuesIntReader componentNids = new DocValuesIntReader(searcher.getIndexReader(), FIELD_COMPONENT_NID);
+			final List<SearchResult> results = new ArrayList<>(Math.min(500, internalSize));
+			long toSkip = skip;
+			ScoreDoc after = null;
+
+			while (results.size() < internalSize)
+			{
+				final int pageSize = (int) Math.min(500, toSkip + internalSize - results.size());
+				final TopDocs topDocs = searcher.search(q, new IsaacFilteredCollectorManager(intFilter, pageSize, after));
+
+				if (topDocs.scoreDocs.length == 0)
+				{
+					break;
+				}
+				for (ScoreDoc hit : topDocs.scoreDocs)
+				{
+					after = hit;
+					if (toSkip > 0)
+					{
+						toSkip--;
+					}
+					else
+					{
+						results.add(new ComponentSearchResult(componentNids.get(hit.doc), hit.score));
+					}
+				}
+				if (topDocs.scoreDocs.length < pageSize)
+				{
+					break;
+				}
+			}
+			LOG.debug("Returning {} results from latest query", results.size());
+			return results;
+		}
+		catch (IOException e)
+		{
+			LOG.error("Unexpected error during search", e);
+			throw new RuntimeException(e);
+		}
+		finally
+		{
+			if (searcher != null)
+			{
+				try
+				{
+					this.referenceManager.release(searcher);
+				}
+				catch (IOException e)
+				{
+					LOG.error("Unexpected error releasing searcher", e);
+					throw new RuntimeException(e);
+				}
+			}
+		}
+	}
+
+	/**
+	 * @param q a query for the documents of all versions
+	 * @return the query, restricted so it doesn't also match the latest documents, if this indexer writes them
+	 */
+	private Query excludeLatestDocuments(Query q)
+	{
+		if (getLatestDocumentCoordinate() == null)
+		{
+			return q;
+		}
+		return new BooleanQuery.Builder()
+				.add(q, Occur.MUST)
+				.add(new TermQuery(new Term(FIELD_IS_LATEST, FIELD_MARKER_VALUE)), Occur.MUST_NOT)
+				.build();
 	}
 
 	/**
@@ -797,6 +975,8 @@ public abstract class LuceneIndexer implements IndexBuilderService
 			boolean complete = false; // i.e., results.size() < sizeLimit
 
 			ScoreDoc after = getAfterScoreDoc(q, filter, internalPage, internalSize, targetGeneration);
+			IntPredicate intFilter = NidFilter.asIntPredicate(filter);
+			DocValuesIntReader componentNids = new DocValuesIntReader(searcher.getIndexReader(), FIELD_COMPONENT_NID);
 
 			// Note, we cannot just ask lucene for the same page size / result count as we are asked for, because lucene may have multiple versions
 			// of a component indexed, which each match the query. However, since we only return nids, not versions, these results get merged.
@@ -806,7 +986,7 @@ public abstract class LuceneIndexer implements IndexBuilderService
 			{
 
 				//We use this API for search even when we don't have a filter, because this also enables parallel searching in the lower levels of lucene.
-				TopDocs topDocs = searcher.search(q, new IsaacFilteredCollectorManager(filter, Math.min(500, internalSize), after));
+				TopDocs topDocs = searcher.search(q, new IsaacFilteredCollectorManager(intFilter, Math.min(500, internalSize), after));
 
 				// If no scoreDocs exist, we're done
 				if (topDocs.scoreDocs.length == 0)
@@ -822,8 +1002,7 @@ public abstract class LuceneIndexer implements IndexBuilderService
 
 						// Save the last doc to search after later, if needed
 						after = hit;
-						Document doc = searcher.doc(hit.doc);
-						int componentNid = doc.getField(FIELD_COMPONENT_NID).numericValue().intValue();
+						int componentNid = componentNids.get(hit.doc);
 						if (includedComponentNids.contains(componentNid))
 						{
 							continue;
@@ -880,6 +1059,88 @@ public abstract class LuceneIndexer implements IndexBuilderService
 		}
 	}
 
+	/**
+	 * Run a query for the top few concepts, such as for a type-ahead lookup, where only the best hit of each concept is wanted.
+	 * 
+	 * Hits are read in the order of the sort, a page at a time, until enough concepts are found.  Each concept is returned with
+	 * its best matching component, scored by the value of the first sort field of that hit.
+	 *
+	 * @param q the query
+	 * @param sort the ranking of the hits, the first field of which must be numeric
+	 * @param conceptNidField a numeric doc values field that holds the nid of the concept of each document
+	 * @param limit the maximum number of concepts to return
+	 * @param cancelled checked before each page, and as each segment of the index is searched.  Once it returns true, the search
+	 *            stops, and whatever was found so far is returned.
+	 * @param targetGeneration - optional - see {@link #search(Query, Predicate, AuthorModulePathRestriction, Integer, Integer, Long)}
+	 * @return the concepts, best first
+	 */
+	protected final List<ConceptSearchResult> searchTopConcepts(Query q, Sort sort, String conceptNidField, int limit, BooleanSupplier cancelled,
+			Long targetGeneration)
+	{
+		IndexSearcher searcher = null;
+		try
+		{
+			searcher = getIndexSearcher(targetGeneration);
+			q = excludeLatestDocuments(q);
+			LOG.debug("Running top concept query: {}", q.toString());
+
+			final List<ConceptSearchResult> results = new ArrayList<>(limit);
+			final HashSet<Integer> includedConceptNids = new HashSet<>();
+			final DocValuesIntReader componentNids = new DocValuesIntReader(searcher.getIndexReader(), FIELD_COMPONENT_NID);
+			final DocValuesIntReader conceptNids = new DocValuesIntReader(searcher.getIndexReader(), conceptNidField);
+
+			// A concept may match on several documents, so ask for a few more hits than concepts, and page on if that isn't enough.
+			final int pageSize = Math.max(limit * 4, 20);
+			FieldDoc after = null;
+
+			while (results.size() < limit && !cancelled.getAsBoolean())
+			{
+				final TopDocs topDocs = searcher.search(q,
+						new CancellableCollectorManager<>(TopFieldCollector.createSharedManager(sort, pageSize, after, pageSize), cancelled));
+
+				for (ScoreDoc hit : topDocs.scoreDocs)
+				{
+					after = (FieldDoc) hit;
+					if (includedConceptNids.add(conceptNids.get(hit.doc)))
+					{
+						results.add(new ConceptSearchResult(conceptNids.get(hit.doc), componentNids.get(hit.doc), ((Number) after.fields[0]).floatValue()));
+						if (results.size() == limit)
+						{
+							break;
+						}
+					}
+				}
+
+				if (topDocs.scoreDocs.length < pageSize)
+				{
+					break;
+				}
+			}
+			LOG.debug("Returning {} concepts from query{}", results.size(), cancelled.getAsBoolean() ? " (cancelled)" : "");
+			return results;
+		}
+		catch (IOException e)
+		{
+			LOG.error("Unexpected error during search", e);
+			throw new RuntimeException(e);
+		}
+		finally
+		{
+			if (searcher != null)
+			{
+				try
+				{
+					this.referenceManager.release(searcher);
+				}
+				catch (IOException e)
+				{
+					LOG.error("Unexpected error releasing searcher", e);
+					throw new RuntimeException(e);
+				}
+			}
+		}
+	}
+
 	/**
 	 * Read the previous page's last doc from the cache (or calculate it, if the cache hit fails)
 	 * 
@@ -1064,6 +1325,12 @@ public abstract class LuceneIndexer implements IndexBuilderService
 								Get.assemblageService().getDataStoreId());
 						throw new IndexFormatTooOldException("Index Mismatch", "Index mismatch");
 					}
+					if (!reindexRequired && !isIndexFormatCurrent())
+					{
+						LOG.warn("Index in '{}' was built with an older document format.  Reindexing...", getIndexerName());
+						this.indexWriter.close();
+						throw new IndexFormatTooOldException("Index Mismatch", "Document format mismatch");
+					}
 				}
 				catch (IndexFormatTooOldException e)
 				{
@@ -1076,10 +1343,14 @@ public abstract class LuceneIndexer implements IndexBuilderService
 					reindexRequired = true;
 				}
 
+				// The index is now current, or empty and about to be filled with documents of the current format
+				this.indexWriter.setLiveCommitData(Collections.singletonMap(INDEX_FORMAT_KEY, getIndexFormat()).entrySet());
+
 				// In the case of a blank index, we need to kick it to disk, otherwise, the search manager constructor fails.
 				this.indexWriter.commit();
 
-				final boolean applyAllDeletes = false;
+				// Deletes must be visible to searches, so that a replaced latest document is never found next to its replacement
+				final boolean applyAllDeletes = true;
 				final boolean writeAllDeletes = false;
 
 				// To get concurrent search, we have to provide an executor service (and use the IsaacFilteredCollectorManager)
@@ -1173,7 +1444,14 @@ public abstract class LuceneIndexer implements IndexBuilderService
 				};
 				Get.commitService().addChangeListener(this.changeListenerRef);
 
-				if (reindexRequired)
+				if (reindexRequired && Get.assemblageService().getDataStoreStartState() == DataStoreStartState.EXISTING_DATASTORE)
+				{
+					// Indexing existing content relies on the taxonomy provider, which isn't started yet.
+					LOG.info("Reindex of '" + getIndexerName() + "' due to out-of-date index deferred until startup reaches runlevel "
+							+ LookupService.SL_L5_ISAAC_STARTED_RUNLEVEL);
+					this.startupReindexRequired = true;
+				}
+				else if (reindexRequired)
 				{
 					LOG.info("Starting reindex of '" + getIndexerName() + "' due to out-of-date index");
 					GenerateIndexes gi = new GenerateIndexes(this);
@@ -1197,6 +1475,50 @@ public abstract class LuceneIndexer implements IndexBuilderService
 		}
 	}
 
+	/**
+	 * @return true if the index is empty, or was written in the format of {@link #getIndexFormat()}
+	 * @throws IOException
+	 */
+	private boolean isIndexFormatCurrent() throws IOException
+	{
+		try (DirectoryReader reader = DirectoryReader.open(this.indexWriter))
+		{
+			if (reader.numDocs() == 0)
+			{
+				return true;
+			}
+		}
+		for (Map.Entry<String, String> commitData : this.indexWriter.getLiveCommitData())
+		{
+			if (INDEX_FORMAT_KEY.equals(commitData.getKey()))
+			{
+				return getIndexFormat().equals(commitData.getValue());
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * @return the format recorded in the commit data of the index, made of the format of the documents written by this class and
+	 * by the implementation
+	 */
+	private String getIndexFormat()
+	{
+		return DOCUMENT_FORMAT + "." + getDocumentFormat();
+	}
+
+	/**
+	 * Implementations that change the documents they write, in a way that searches of an existing index would miss, should
+	 * return a new format.  An index written in a different format is rebuilt on startup.
+	 *
+	 * @return the format of the fields added by {@link #addFields(Chronology, Document, Set)} and
+	 * {@link #addLatestFields(Chronology, Version, Document)}
+	 */
+	protected int getDocumentFormat()
+	{
+		return 0;
+	}
+
 	private void startReopenThread()
 	{
 		this.reopenThread.setName("Lucene " + this.indexName + " Reopen Thread");
@@ -1234,7 +1556,24 @@ public abstract class LuceneIndexer implements IndexBuilderService
 		this.lastDocCache.invalidateAll();
 		clearIndexedStatistics();
 		this.dbBuildMode = null;
+		this.startupReindexRequired = false;
+	}
+
+	/**
+	 * @return true, if the index was found out-of-date on startup, and must be rebuilt once the rest of isaac has started.
+	 * @see StartupReindexProvider
+	 */
+	boolean isStartupReindexRequired()
+	{
+		return this.startupReindexRequired;
+	}
 
+	/**
+	 * Called by the {@link StartupReindexProvider} when the deferred rebuild of this index is complete.
+	 */
+	void startupReindexComplete()
+	{
+		this.startupReindexRequired = false;
 	}
 
 	/**
@@ -1518,6 +1857,7 @@ public abstract class LuceneIndexer implements IndexBuilderService
 			{
 				final Document doc = new Document();
 				doc.add(new StoredField(FIELD_COMPONENT_NID, this.chronicle.getNid()));
+				doc.add(new NumericDocValuesField(FIELD_COMPONENT_NID, this.chronicle.getNid()));
 				Set<Integer> foundPathNids = indexStamp(chronicle, doc);
 				addFields(this.chronicle, doc, foundPathNids);
 				// Note that the addDocument operation could cause duplicate documents to be
@@ -1530,7 +1870,13 @@ public abstract class LuceneIndexer implements IndexBuilderService
 				// because the new versions are additive (we don't allow deletion of content)
 				// so the search results will be the same. Duplicates can be removed
 				// by regenerating the index.
-				final long indexGeneration = LuceneIndexer.this.indexWriter.addDocument(doc);
+				long indexGeneration = LuceneIndexer.this.indexWriter.addDocument(doc);
+
+				final StampCoordinate latestCoordinate = getLatestDocumentCoordinate();
+				if (latestCoordinate != null)
+				{
+					indexGeneration = updateLatestDocument(latestCoordinate);
+				}
 
 				releaseLatch(getNid(), indexGeneration);
 				return indexGeneration;
@@ -1541,6 +1887,58 @@ public abstract class LuceneIndexer implements IndexBuilderService
 			}
 		}
 
+		/**
+		 * Replace the latest document of the chronicle, or remove it if the chronicle has no latest version on the coordinate.
+		 * The chronicle is read again from the store under the lock of its nid, so when two changes to the chronicle
+		 * are indexed at once, the last replacement is made from the chronicle with both changes, whichever finishes last.
+		 *
+		 * @param latestCoordinate the coordinate of the latest documents
+		 * @return the index generation of the update
+		 * @throws IOException
+		 */
+		private long updateLatestDocument(StampCoordinate latestCoordinate) throws IOException
+		{
+			final int nid = this.chronicle.getNid();
+			final ReentrantLock lock = LuceneIndexer.this.latestDocumentLocks[Math.floorMod(nid, LuceneIndexer.this.latestDocumentLocks.length)];
+			lock.lock();
+			try
+			{
+				final Optional<? extends Chronology> stored = Get.identifiedObjectService().getChronology(nid);
+				return updateLatestDocument(stored.isPresent() ? stored.get() : this.chronicle, latestCoordinate);
+			}
+			finally
+			{
+				lock.unlock();
+			}
+		}
+
+		private long updateLatestDocument(Chronology chronicle, StampCoordinate latestCoordinate) throws IOException
+		{
+			final Term key = new Term(FIELD_LATEST_COMPONENT_NID, Integer.toString(chronicle.getNid()));
+			final LatestVersion<Version> latest = chronicle.getLatestVersion(latestCoordinate);
+
+			if (!latest.isPresent())
+			{
+				return LuceneIndexer.this.indexWriter.deleteDocuments(key);
+			}
+
+			final Version latestVersion = latest.get();
+			final Document doc = new Document();
+			doc.add(new StringField(FIELD_LATEST_COMPONENT_NID, key.text(), Field.Store.NO));
+			doc.add(new TextField(FIELD_IS_LATEST, FIELD_MARKER_VALUE, Field.Store.NO));
+			if (latestVersion.isActive())
+			{
+				doc.add(new TextField(FIELD_LATEST_IS_ACTIVE, FIELD_MARKER_VALUE, Field.Store.NO));
+			}
+			doc.add(new StoredField(FIELD_COMPONENT_NID, chronicle.getNid()));
+			doc.add(new NumericDocValuesField(FIELD_COMPONENT_NID, chronicle.getNid()));
+			doc.add(new TextField(FIELD_INDEXED_AUTHOR_NID, latestVersion.getAuthorNid() + "", Field.Store.NO));
+			doc.add(new TextField(FIELD_INDEXED_MODULE_NID, latestVersion.getModuleNid() + "", Field.Store.NO));
+			doc.add(new TextField(FIELD_INDEXED_PATH_NID, latestVersion.getPathNid() + "", Field.Store.NO));
+			addLatestFields(chronicle, latestVersion, doc);
+			return LuceneIndexer.this.indexWriter.updateDocument(key, doc);
+		}
+
 		/**
 		 * Add the necessary ids to the index to represent author, module and path
 		 * 
@@ -45,6 +45,7 @@ import org.apache.lucene.analysis.Analyzer;
 import org.apache.lucene.analysis.AnalyzerWrapper;
 import org.apache.lucene.analysis.core.LowerCaseFilter;
 import org.apache.lucene.analysis.core.WhitespaceAnalyzer;
+import org.apache.lucene.analysis.ngram.EdgeNGramTokenFilter;
 import org.apache.lucene.analysis.standard.StandardAnalyzer;
 
 //~--- classes ----------------------------------------------------------------
@@ -55,6 +56,10 @@ import org.apache.lucene.analysis.standard.StandardAnalyzer;
  * with the string "_wsa" - in which case, it is indexed with the {@link WhitespaceAnalyzer} and
  * a {@link LowerCaseFilter}
  *
+ * Fields that end with the string "_eng" are indexed with the {@link StandardAnalyzer} followed by an
+ * {@link EdgeNGramTokenFilter}, so that each prefix of a token (up to {@link #EDGE_NGRAM_MAX_LENGTH} characters)
+ * is a term of its own, and a type-ahead prefix can be matched with a single term lookup.
+ *
  * This can be enhanced in the future to properly handle other languages as well.
  *
  * @author <a href="mailto:daniel.armbrust.list@gmail.com">Dan Armbrust</a>
@@ -64,6 +69,12 @@ public class PerFieldAnalyzer
    /** The Constant WHITE_SPACE_FIELD_MARKER. */
    public static final String WHITE_SPACE_FIELD_MARKER = "_wsa";
 
+   /** The Constant EDGE_NGRAM_FIELD_MARKER. */
+   public static final String EDGE_NGRAM_FIELD_MARKER = "_eng";
+
+   /** The longest prefix indexed in edge n-gram fields.  Longer tokens are also indexed whole. */
+   public static final int EDGE_NGRAM_MAX_LENGTH = 20;
+
    //~--- fields --------------------------------------------------------------
 
    /** The wa. */
@@ -91,7 +102,7 @@ public class PerFieldAnalyzer
    @Override
    public String toString() {
       return "PerFieldAnalyzer(default=" + this.sa + ", fields ending with '" + WHITE_SPACE_FIELD_MARKER + "': " +
-             this.wa + ")";
+             this.wa + ", fields ending with '" + EDGE_NGRAM_FIELD_MARKER + "': " + this.sa + " with edge n-grams)";
    }
 
    /**
@@ -106,6 +117,9 @@ public class PerFieldAnalyzer
    protected TokenStreamComponents wrapComponents(String fieldName, TokenStreamComponents components) {
       if (fieldName.endsWith(WHITE_SPACE_FIELD_MARKER)) {
          return new TokenStreamComponents(components.getSource(), new LowerCaseFilter(components.getTokenStream()));
+      } else if (fieldName.endsWith(EDGE_NGRAM_FIELD_MARKER)) {
+         return new TokenStreamComponents(components.getSource(),
+               new EdgeNGramTokenFilter(components.getTokenStream(), 1, EDGE_NGRAM_MAX_LENGTH, true));
       } else {
          return components;
       }
@@ -0,0 +1,80 @@
+/*
+ * Copyright 2019 Organizations participating in ISAAC, ISAAC's KOMET, and SOLOR development include the
+         US Veterans Health Administration, OSHERA, and the Health Services Platform Consortium..
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package sh.isaac.provider.query.lucene;
+
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.stream.Collectors;
+import javax.annotation.PostConstruct;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.glassfish.hk2.runlevel.RunLevel;
+import org.jvnet.hk2.annotations.Service;
+import sh.isaac.api.LookupService;
+import sh.isaac.api.SystemStatusService;
+import sh.isaac.api.index.GenerateIndexes;
+import sh.isaac.api.index.IndexBuilderService;
+import sh.isaac.api.util.WorkExecutors;
+
+/**
+ * Rebuilds the indexes that were found out-of-date when they started on a database with content.
+ *
+ * Indexing existing content relies on the taxonomy provider, which starts after the indexers, so these rebuilds
+ * wait until the rest of isaac has started.  Startup blocks until the rebuild is complete.
+ *
+ * @author kec
+ */
+@Service
+@RunLevel(value = LookupService.SL_L5_ISAAC_STARTED_RUNLEVEL)
+public class StartupReindexProvider
+{
+	private static final Logger LOG = LogManager.getLogger();
+
+	private StartupReindexProvider()
+	{
+		// For HK2
+	}
+
+	@PostConstruct
+	private void startMe()
+	{
+		final List<LuceneIndexer> indexers = LookupService.get().getAllServices(IndexBuilderService.class).stream()
+				.filter(indexer -> indexer instanceof LuceneIndexer).map(indexer -> (LuceneIndexer) indexer)
+				.filter(LuceneIndexer::isStartupReindexRequired).collect(Collectors.toList());
+
+		if (indexers.isEmpty())
+		{
+			return;
+		}
+
+		LOG.info("Starting deferred reindex of " + indexers.stream().map(LuceneIndexer::getIndexerName).collect(Collectors.toList()));
+		try
+		{
+			GenerateIndexes gi = new GenerateIndexes(indexers.toArray(new IndexBuilderService[indexers.size()]));
+			LookupService.getService(WorkExecutors.class).getExecutor().execute(gi);
+			gi.get();
+			indexers.forEach(LuceneIndexer::startupReindexComplete);
+			LOG.info("Deferred reindex complete");
+		}
+		catch (InterruptedException | ExecutionException e)
+		{
+			LOG.fatal("Error during deferred reindex", e);
+			LookupService.getService(SystemStatusService.class).notifyServiceConfigurationFailure("Startup Reindex", e);
+			throw new RuntimeException(e);
+		}
+	}
+}
@@ -17,6 +17,8 @@
 package sh.isaac.provider.query.lucene.indexers;
 
 import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
@@ -24,14 +26,22 @@ import java.util.Locale;
 import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
+import java.util.function.BooleanSupplier;
 import java.util.function.Predicate;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.TokenStream;
+import org.apache.lucene.analysis.tokenattributes.CharTermAttribute;
 import org.apache.lucene.document.Document;
 import org.apache.lucene.document.Field;
+import org.apache.lucene.document.NumericDocValuesField;
 import org.apache.lucene.document.TextField;
 import org.apache.lucene.index.Term;
 import org.apache.lucene.search.BooleanClause.Occur;
 import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.PrefixQuery;
 import org.apache.lucene.search.Query;
+import org.apache.lucene.search.Sort;
+import org.apache.lucene.search.SortField;
 import org.apache.lucene.search.TermQuery;
 import org.glassfish.hk2.runlevel.RunLevel;
 import org.jvnet.hk2.annotations.Service;
@@ -53,6 +63,7 @@ import sh.isaac.api.externalizable.IsaacObjectType;
 import sh.isaac.api.identity.StampedVersion;
 import sh.isaac.api.index.AuthorModulePathRestriction;
 import sh.isaac.api.index.ComponentSearchResult;
+import sh.isaac.api.index.ConceptSearchResult;
 import sh.isaac.api.index.IndexDescriptionQueryService;
 import sh.isaac.api.index.SearchResult;
 import sh.isaac.api.util.SemanticTags;
@@ -74,6 +85,12 @@ import sh.isaac.provider.query.lucene.PerFieldAnalyzer;
  * 
  * Each of the columns above is also x2, as everything is indexed both with a standard analyzer, and with a whitespace analyzer.
  * 
+ * The text is also indexed as edge n-grams in a completion column, along with a rank and the concept nid as doc values, to 
+ * support type-ahead completion of concepts without prefix expansion.
+ * 
+ * Besides the document of all versions of a description, there is one document of its latest version on the development path, which
+ * is replaced as the description changes, so searches on that coordinate don't need to merge versions.
+ * 
  * @author kec
  * @author aimeefurber
  * @author <a href="mailto:daniel.armbrust.list@gmail.com">Dan Armbrust</a>
@@ -84,11 +101,22 @@ public class DescriptionIndexer extends LuceneIndexer
 		  implements IndexDescriptionQueryService {
 
 	/** The Constant FIELD_INDEXED_STRING_VALUE. */
-	private static final String FIELD_INDEXED_STRING_VALUE = "_string_content_";
+	static final String FIELD_INDEXED_STRING_VALUE = "_string_content_";
 	
 	private static final String FIELD_INDEXED_DESCRIPTION_TYPE_NID = "_desc_type_nid_";
 
 	private static final String FIELD_INDEXED_EXTENDED_DESCRIPTION_TYPE_UUID = "_extended_desc_type_uuid_";
+
+	//Each prefix of each word of the text, so a type-ahead prefix is a single term lookup.
+	static final String FIELD_COMPLETION = "_completion_" + PerFieldAnalyzer.EDGE_NGRAM_FIELD_MARKER;
+
+	//The rank of the description for completion, as doc values, see computeCompletionWeight
+	static final String FIELD_COMPLETION_WEIGHT = "_completion_weight_";
+
+	//The nid of the concept the description is on, as doc values, so completions can be merged on concept without a read of the description
+	private static final String FIELD_REFERENCED_COMPONENT_NID_VALUE = "_referenced_component_nid_value_";
+
+	static final Sort COMPLETION_SORT = new Sort(new SortField(FIELD_COMPLETION_WEIGHT, SortField.Type.LONG, true));
 	
 	/** The Constant INDEX_NAME. */
 	public static final String INDEX_NAME = "descriptions-index";
@@ -97,6 +125,8 @@ public class DescriptionIndexer extends LuceneIndexer
 	private int descExtendedTypeNid= 0;
 	
 	private HashSet<Integer> metadataConcepts = new HashSet<>();
+
+	private StampCoordinate latestDocumentCoordinate = null;
 	
 	//Chars that are generally not useful for our lucene searches, that the query parser has special handling for
 	private final static char[] ESCAPE_CHARS = new char[] {':', '^'};
@@ -127,8 +157,8 @@ public class DescriptionIndexer extends LuceneIndexer
 		}
 		else {
 			//We will just index without the cache, which is slower, but still accurate.
-			//Note, this may be a bug, if this reindex gets triggered on a DB with content during startup, because we now rely on the 
-			//taxonomy provider.  We may have to move the startup-reindex to a later runlevel...
+			//A startup reindex of a DB with content is deferred to the StartupReindexProvider, since we rely on the taxonomy provider, 
+			//so only an empty DB should get here.
 			LOG.info("Can't populate metadata lookup hash for this batch reindex, because the taxonomy provider isn't started yet");
 		}
 	}
@@ -177,28 +207,12 @@ public class DescriptionIndexer extends LuceneIndexer
 		String lastDescText = null;
 		String lastDescType = null;
 
-		boolean isMetadata = false;
-		if (metadataConcepts.size() > 0) {
-			isMetadata = metadataConcepts.contains(semanticChronology.getReferencedComponentNid());
-		}
-		
-		//This is an if instead of an else, to guard against the metadataConcepts cache being emptied during a one-off index op.
-		if (!isMetadata && metadataConcepts.size() == 0){
-			isMetadata = Get.taxonomyService().wasEverKindOf(semanticChronology.getReferencedComponentNid(), TermAux.SOLOR_METADATA.getNid());
-			
-			if (!isMetadata) {
-				//See if it defines a dynamic semantic, even if outside the metadata tree.
-				isMetadata = DynamicUsageDescriptionImpl.isDynamicSemanticNoRead(semanticChronology.getReferencedComponentNid());
-			}
-			//For full correctness, this should check if it defines a static semantic, outside the metadata tree, but we don't in the rest API, 
-			//and komet doesn't currently use queries that depend on the metadata flag
-		}
-		
-		if (isMetadata) {
+		if (isMetadata(semanticChronology.getReferencedComponentNid())) {
 			doc.add(new TextField(FIELD_CONCEPT_IS_METADATA, FIELD_CONCEPT_IS_METADATA_VALUE, Field.Store.NO));
 		}
 		
 		final Set<Integer> uniqueDescriptionTypes = new HashSet<>();
+		DescriptionVersion mostRecentVersion = null;
 
 		for (final StampedVersion stampedVersion : semanticChronology.getVersionList()) {
 			DescriptionVersion descriptionVersion = (DescriptionVersion) stampedVersion;
@@ -207,18 +221,82 @@ public class DescriptionIndexer extends LuceneIndexer
 			if ((lastDescText == null) || (lastDescType == null) || !lastDescText.equals(descriptionVersion.getText())) {
 				// Add to the field that carries all text
 				addField(doc, FIELD_INDEXED_STRING_VALUE, descriptionVersion.getText(), true);
+				doc.add(new TextField(FIELD_COMPLETION, descriptionVersion.getText(), Field.Store.NO));
 				uniqueDescriptionTypes.add(descriptionVersion.getDescriptionTypeConceptNid());
 				lastDescText = descriptionVersion.getText();
 			}
+			if (mostRecentVersion == null || descriptionVersion.getTime() >= mostRecentVersion.getTime()) {
+				mostRecentVersion = descriptionVersion;
+			}
 		}
 		
+		if (mostRecentVersion != null) {
+			doc.add(new NumericDocValuesField(FIELD_COMPLETION_WEIGHT, computeCompletionWeight(mostRecentVersion.isActive(), 
+					mostRecentVersion.getDescriptionTypeConceptNid(), mostRecentVersion.getText().length())));
+		}
+		doc.add(new NumericDocValuesField(FIELD_REFERENCED_COMPONENT_NID_VALUE, semanticChronology.getReferencedComponentNid()));
+		
 		for (Integer i : uniqueDescriptionTypes) {
 			addField(doc, FIELD_INDEXED_DESCRIPTION_TYPE_NID, i.toString(), false);
 		}
 
+		indexExtendedDescriptionTypes(doc, semanticChronology.getNid());
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * 
+	 * The latest document of a description has the same fields as the document of all of its versions, other than the completion fields,
+	 * for its latest text and description type only.
+	 */
+	@Override
+	protected void addLatestFields(Chronology chronicle, Version latestVersion, Document doc) {
+		final SemanticChronology semanticChronology = (SemanticChronology) chronicle;
+		final DescriptionVersion descriptionVersion = (DescriptionVersion) latestVersion;
+
+		doc.add(new TextField(FIELD_SEMANTIC_ASSEMBLAGE_NID, semanticChronology.getAssemblageNid() + "", Field.Store.NO));
+		if (isMetadata(semanticChronology.getReferencedComponentNid())) {
+			doc.add(new TextField(FIELD_CONCEPT_IS_METADATA, FIELD_CONCEPT_IS_METADATA_VALUE, Field.Store.NO));
+		}
+		addField(doc, FIELD_INDEXED_STRING_VALUE, descriptionVersion.getText(), true);
+		addField(doc, FIELD_INDEXED_DESCRIPTION_TYPE_NID, Integer.toString(descriptionVersion.getDescriptionTypeConceptNid()), false);
+		indexExtendedDescriptionTypes(doc, semanticChronology.getNid());
+	}
+
+	/**
+	 * @param conceptNid the concept a description is on
+	 * @return true, if the concept is, or ever was, metadata
+	 */
+	private boolean isMetadata(int conceptNid) {
+		boolean isMetadata = false;
+		if (metadataConcepts.size() > 0) {
+			isMetadata = metadataConcepts.contains(conceptNid);
+		}
+		
+		//This is an if instead of an else, to guard against the metadataConcepts cache being emptied during a one-off index op.
+		if (!isMetadata && metadataConcepts.size() == 0){
+			isMetadata = Get.taxonomyService().wasEverKindOf(conceptNid, TermAux.SOLOR_METADATA.getNid());
+			
+			if (!isMetadata) {
+				//See if it defines a dynamic semantic, even if outside the metadata tree.
+				isMetadata = DynamicUsageDescriptionImpl.isDynamicSemanticNoRead(conceptNid);
+			}
+			//For full correctness, this should check if it defines a static semantic, outside the metadata tree, but we don't in the rest API, 
+			//and komet doesn't currently use queries that depend on the metadata flag
+		}
+		return isMetadata;
+	}
+
+	/**
+	 * Index the extended description types of a description, from all versions of its nested extended type semantics.
+	 *
+	 * @param doc the doc
+	 * @param descriptionNid the description
+	 */
+	private void indexExtendedDescriptionTypes(Document doc, int descriptionNid) {
 		final Set<String> uniqueExtensionTypes = new HashSet<>();
 
-		Get.assemblageService().getSemanticChronologyStreamForComponentFromAssemblage(semanticChronology.getNid(), getDescriptionExtendedTypeNid()).forEach(nestedSemantic -> {
+		Get.assemblageService().getSemanticChronologyStreamForComponentFromAssemblage(descriptionNid, getDescriptionExtendedTypeNid()).forEach(nestedSemantic -> {
 			for (Version nestedVersions : nestedSemantic.getVersionList()) {
 				// this is a UUID, but we want to treat it as a string anyway
 				uniqueExtensionTypes.add(((DynamicVersion) nestedVersions).getData()[0].getDataObject().toString());
@@ -231,6 +309,36 @@ public class DescriptionIndexer extends LuceneIndexer
 	}
 
 
+	/**
+	 * The completion rank of a description - active before inactive, then regular names, fully qualified names and other types, in that
+	 * order, then shorter text before longer.
+	 *
+	 * @param active the status of the description
+	 * @param descriptionTypeNid the description type
+	 * @param textLength the length of the text
+	 * @return the rank, larger is better
+	 */
+	private static long computeCompletionWeight(boolean active, int descriptionTypeNid, int textLength) {
+		if (descriptionTypeNid == TermAux.REGULAR_NAME_DESCRIPTION_TYPE.getNid()) {
+			return computeCompletionWeightForTypeRank(active, 3, textLength);
+		}
+		else if (descriptionTypeNid == TermAux.FULLY_QUALIFIED_NAME_DESCRIPTION_TYPE.getNid()) {
+			return computeCompletionWeightForTypeRank(active, 2, textLength);
+		}
+		return computeCompletionWeightForTypeRank(active, 1, textLength);
+	}
+
+	/**
+	 * @param active the status of the description
+	 * @param typeRank 3 for a regular name, 2 for a fully qualified name, 1 for other types
+	 * @param textLength the length of the text
+	 * @return the rank, larger is better
+	 */
+	static long computeCompletionWeightForTypeRank(boolean active, int typeRank, int textLength) {
+		final long rank = (active ? 4 : 0) + typeRank;
+		return (rank << 16) | (0xFFFF - Math.min(textLength, 0xFFFF));
+	}
+
 	/**
 	 * Adds the field.
 	 *
@@ -276,6 +384,66 @@ public class DescriptionIndexer extends LuceneIndexer
 			Integer sizeLimit,
 			Long targetGeneration) {
 		
+		final String queryLocal = prepareQueryText(query, prefixSearch);
+		final Query q = buildDescriptionQuery(queryLocal, prefixSearch, assemblageConcepts, metadataOnly, descriptionTypes, extendedDescriptionTypes);
+		final List<SearchResult> results = search(q, filter, amp, pageNum, sizeLimit, targetGeneration);
+		return adjustPrefixScores(results, queryLocal, prefixSearch);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public List<SearchResult> queryLatest(final String query,
+			boolean prefixSearch,
+			int[] assemblageConcepts,
+			Predicate<Integer> filter,
+			AuthorModulePathRestriction amp,
+			boolean activeOnly,
+			boolean metadataOnly,
+			int[] descriptionTypes,
+			int[] extendedDescriptionTypes,
+			Integer pageNum,
+			Integer sizeLimit,
+			Long targetGeneration) {
+		
+		final String queryLocal = prepareQueryText(query, prefixSearch);
+		final Query q = buildDescriptionQuery(queryLocal, prefixSearch, assemblageConcepts, metadataOnly, descriptionTypes, extendedDescriptionTypes);
+		final List<SearchResult> results = searchLatest(q, activeOnly, filter, amp, pageNum, sizeLimit, targetGeneration);
+		return adjustPrefixScores(results, queryLocal, prefixSearch);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * 
+	 * The latest version of each description on the development path.
+	 */
+	@Override
+	public StampCoordinate getLatestDocumentCoordinate() {
+		if (this.latestDocumentCoordinate == null) {
+			this.latestDocumentCoordinate = Get.coordinateFactory().createDevelopmentLatestStampCoordinate();
+		}
+		return this.latestDocumentCoordinate;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * 
+	 * 1: completion fields
+	 */
+	@Override
+	protected int getDocumentFormat() {
+		return 1;
+	}
+
+	/**
+	 * Adjust the text of a query for the query parser, unless it is a prefix search or a regular expression.
+	 *
+	 * @param query the query as given
+	 * @param prefixSearch true for a prefix search
+	 * @return the query text to search with
+	 */
+	private static String prepareQueryText(String query, boolean prefixSearch) {
 		String queryLocal = query.trim();
 		if (!queryLocal.startsWith("/") && !queryLocal.endsWith("/")) {
 			//don't activate this block, if it is a regexp.
@@ -294,7 +462,15 @@ public class DescriptionIndexer extends LuceneIndexer
 				queryLocal = handleUnsupportedEscapeChars(queryLocal);
 			}
 		}
-		
+		return queryLocal;
+	}
+
+	/**
+	 * Build the query of the text and restrictions of a description search, for the documents of all versions, or the latest documents, 
+	 * which have the same fields.
+	 */
+	private Query buildDescriptionQuery(String queryLocal, boolean prefixSearch, int[] assemblageConcepts, boolean metadataOnly, 
+			int[] descriptionTypes, int[] extendedDescriptionTypes) {
 		Query q = buildTokenizedStringQuery(queryLocal, FIELD_INDEXED_STRING_VALUE, prefixSearch, metadataOnly, false);
 
 		q = restrictToSemantic(q, assemblageConcepts);
@@ -330,8 +506,18 @@ public class DescriptionIndexer extends LuceneIndexer
 			outerWrapQueryBuilder.add(innerQueryBuilder.build(), Occur.MUST);
 			q = outerWrapQueryBuilder.build();
 		}
-		List<SearchResult> results = search(q, filter, amp, pageNum, sizeLimit, targetGeneration);
-		
+		return q;
+	}
+
+	/**
+	 * Do some post search score manipulation of a page of prefix search results, to get relevant results closer to the top.
+	 *
+	 * @param results the results, which are re-sorted
+	 * @param queryLocal the query text
+	 * @param prefixSearch true for a prefix search, otherwise the results are returned as they are
+	 * @return the results
+	 */
+	private List<SearchResult> adjustPrefixScores(List<SearchResult> results, String queryLocal, boolean prefixSearch) {
 		if (prefixSearch) {
 			long time = System.currentTimeMillis();
 			// Do some post search score manipulation to get relevant results closer to the top.
@@ -523,6 +709,75 @@ public class DescriptionIndexer extends LuceneIndexer
 		return query(query, prefixSearch, assemblageConcepts, filter, amp, false, (int[]) null, null, pageNum, sizeLimit, targetGeneration);
 	}
 	
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public List<ConceptSearchResult> complete(String text,
+			int[] assemblageConcepts,
+			AuthorModulePathRestriction amp,
+			boolean metadataOnly,
+			int limit,
+			BooleanSupplier cancelled) {
+		
+		Query q = buildCompletionQuery(text, metadataOnly);
+		if (q == null) {
+			return new ArrayList<>();
+		}
+		q = restrictToSemantic(q, assemblageConcepts);
+		q = addAmpRestriction(q, amp);
+		return searchTopConcepts(q, COMPLETION_SORT, FIELD_REFERENCED_COMPONENT_NID_VALUE, limit, cancelled == null ? () -> false : cancelled, null);
+	}
+
+	/**
+	 * Build the query for {@link #complete(String, int[], AuthorModulePathRestriction, boolean, int, BooleanSupplier)}.  Every word of the 
+	 * text must match, the last as a prefix unless the text ends with a space.  A prefix is a single term of the completion field, unless it is 
+	 * longer than the longest indexed prefix, in which case it is expanded against the text field, which only has a few terms that long. 
+	 * 
+	 * @param text the text typed so far
+	 * @param metadataOnly true to only match descriptions of metadata concepts
+	 * @return the query, or null, if the text has no words
+	 */
+	static Query buildCompletionQuery(String text, boolean metadataOnly) {
+		final List<String> words = new ArrayList<>();
+		try (Analyzer analyzer = new PerFieldAnalyzer();
+				TokenStream tokenStream = analyzer.tokenStream(FIELD_INDEXED_STRING_VALUE, new StringReader(text))) {
+			final CharTermAttribute charTermAttribute = tokenStream.addAttribute(CharTermAttribute.class);
+			tokenStream.reset();
+			while (tokenStream.incrementToken()) {
+				words.add(charTermAttribute.toString());
+			}
+			tokenStream.end();
+		}
+		catch (IOException e) {
+			throw new RuntimeException(e);
+		}
+		
+		if (words.isEmpty()) {
+			return null;
+		}
+
+		final BooleanQuery.Builder bq = new BooleanQuery.Builder();
+		if (metadataOnly) {
+			bq.add(new TermQuery(new Term(FIELD_CONCEPT_IS_METADATA, FIELD_CONCEPT_IS_METADATA_VALUE)), Occur.MUST);
+		}
+		
+		if (!Character.isWhitespace(text.charAt(text.length() - 1))) {
+			final String prefix = words.remove(words.size() - 1);
+			if (prefix.codePointCount(0, prefix.length()) <= PerFieldAnalyzer.EDGE_NGRAM_MAX_LENGTH) {
+				bq.add(new TermQuery(new Term(FIELD_COMPLETION, prefix)), Occur.MUST);
+			}
+			else {
+				bq.add(new PrefixQuery(new Term(FIELD_INDEXED_STRING_VALUE, prefix)), Occur.MUST);
+			}
+		}
+		
+		for (String word : words) {
+			bq.add(new TermQuery(new Term(FIELD_INDEXED_STRING_VALUE, word)), Occur.MUST);
+		}
+		return bq.build();
+	}
+
 	public int getDescriptionExtendedTypeNid()
 	{
 		if (this.descExtendedTypeNid == 0)
@@ -275,14 +275,15 @@ public class SemanticIndexer extends LuceneIndexer implements IndexSemanticQuery
 		}
 
 		// Due to indexing all of the versions, we may have added duplicate field name/value combinations to the document.
-		// Remove the dupes.
+		// Remove the dupes.  The doc values type is part of the key, so the component nid doc values aren't taken as a dupe 
+		// of the stored component nid.
 		final Iterator<IndexableField> it = doc.iterator();
 		final HashSet<String> uniqueFields = new HashSet<>();
 
 		while (it.hasNext())
 		{
 			final IndexableField field = it.next();
-			final String temp = field.name() + "::" + field.stringValue();
+			final String temp = field.name() + "::" + field.fieldType().docValuesType() + "::" + field.stringValue();
 
 			if (uniqueFields.contains(temp))
 			{
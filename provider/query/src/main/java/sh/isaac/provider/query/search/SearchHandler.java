@@ -63,6 +63,7 @@ import sh.isaac.api.coordinate.ManifoldCoordinate;
 import sh.isaac.api.coordinate.StampCoordinate;
 import sh.isaac.api.index.AuthorModulePathRestriction;
 import sh.isaac.api.index.ComponentSearchResult;
+import sh.isaac.api.index.IndexDescriptionQueryService;
 import sh.isaac.api.index.IndexQueryService;
 import sh.isaac.api.index.IndexSemanticQueryService;
 import sh.isaac.api.index.SearchResult;
@@ -257,6 +258,59 @@ public class SearchHandler implements QueryHandler {
         return searchHandle;
     }
 
+    /**
+     * Search of the descriptions as they are on the manifold, see
+     * {@link QueryHandler#searchDescriptions(String, int[], int[], int, Consumer, Integer, boolean, ManifoldCoordinate)}.
+     */
+    @Override
+    public QueryHandle searchDescriptions(String query, int[] descriptionTypes, int[] extendedDescriptionTypes, int sizeLimit,
+            final Consumer<QueryHandle> operationToRunWhenSearchComplete, final Integer taskId, boolean mergeOnConcepts,
+            ManifoldCoordinate manifoldForRead) {
+        final ManifoldCoordinate manifold = manifoldForRead == null
+                ? Get.configurationService().getUserConfiguration(Optional.empty()).getManifoldCoordinate() : manifoldForRead;
+        return search(() -> Get.service(IndexDescriptionQueryService.class).queryOnCoordinate(query, false, null, null,
+                manifold.getStampCoordinate(), false, descriptionTypes, extendedDescriptionTypes, 1, sizeLimit, null),
+                operationToRunWhenSearchComplete, taskId, null, mergeOnConcepts, manifold, true);
+    }
+
+    /**
+     * Completion of concepts from the text typed so far, see
+     * {@link QueryHandler#complete(String, AuthorModulePathRestriction, boolean, int, Consumer, Integer, ManifoldCoordinate)}.
+     * The cancel state of the returned handle is passed down to the index search, so a superseded request stops early.
+     */
+    @Override
+    public QueryHandle complete(String text, AuthorModulePathRestriction amp, boolean metadataOnly, int limit,
+            final Consumer<QueryHandle> operationToRunWhenSearchComplete, final Integer taskId, ManifoldCoordinate manifoldForRead) {
+        final SearchHandle searchHandle = new SearchHandle(taskId);
+
+        // Do search in background.
+        final Runnable r = () -> {
+            try {
+                final List<SearchResult> searchResults = new ArrayList<>();
+
+                // It may have been superseded while it was queued
+                if (!searchHandle.isCancelled()) {
+                    searchResults.addAll(Get.service(IndexDescriptionQueryService.class).complete(text, null, amp, metadataOnly, limit,
+                            searchHandle::isCancelled));
+                }
+                LOG.debug(searchResults.size() + " results from completion of: " + text);
+
+                // The results are already one per concept
+                processResults(searchHandle, searchResults, null, false, manifoldForRead, false);
+            } catch (final Exception ex) {
+                LOG.error("Unexpected error during lucene completion for: " + text, ex);
+                searchHandle.setError(ex);
+            } finally {
+                if (operationToRunWhenSearchComplete != null) {
+                    operationToRunWhenSearchComplete.accept(searchHandle);
+                }
+            }
+        };
+
+        Get.workExecutors().getExecutor().execute(r);
+        return searchHandle;
+    }
+
     /**
      * Process results.
      *
@@ -0,0 +1,130 @@
+/*
+ * Copyright 2019 Organizations participating in ISAAC, ISAAC's KOMET, and SOLOR development include the
+         US Veterans Health Administration, OSHERA, and the Health Services Platform Consortium..
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package sh.isaac.provider.query.lucene;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.NumericDocValuesField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.DirectoryReader;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.FieldDoc;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.Sort;
+import org.apache.lucene.search.SortField;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.search.TopDocs;
+import org.apache.lucene.search.TopFieldCollector;
+import org.apache.lucene.store.ByteBuffersDirectory;
+import org.apache.lucene.store.Directory;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * {@link CancellableCollectorManager}, and the edge n-gram fields of the {@link PerFieldAnalyzer} that completion searches read.
+ *
+ * @author kec
+ */
+public class CancellableCollectorManagerTest {
+
+    private static final String COMPLETION = "text" + PerFieldAnalyzer.EDGE_NGRAM_FIELD_MARKER;
+    private static final String WEIGHT = "weight";
+    private static final Sort BY_WEIGHT = new Sort(new SortField(WEIGHT, SortField.Type.LONG, true));
+    private static final String[] TEXT = {"Heart attack", "Heartburn", "Head injury", "Chest pain", "Pneumonoultramicroscopicsilicovolcanoconiosis"};
+
+    private Directory directory;
+    private DirectoryReader reader;
+    private IndexSearcher searcher;
+
+    @Before
+    public void setUp() throws IOException {
+        directory = new ByteBuffersDirectory();
+        try (IndexWriter writer = new IndexWriter(directory, new IndexWriterConfig(new PerFieldAnalyzer()))) {
+            for (int i = 0; i < TEXT.length; i++) {
+                Document doc = new Document();
+                doc.add(new TextField(COMPLETION, TEXT[i], Field.Store.NO));
+                doc.add(new NumericDocValuesField(WEIGHT, i));
+                writer.addDocument(doc);
+                // a segment per document
+                writer.commit();
+            }
+        }
+        reader = DirectoryReader.open(directory);
+        searcher = new IndexSearcher(reader);
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        reader.close();
+        directory.close();
+    }
+
+    private TopDocs search(String term) throws IOException {
+        return searcher.search(new TermQuery(new Term(COMPLETION, term)), TopFieldCollector.createSharedManager(BY_WEIGHT, 10, null, 10));
+    }
+
+    @Test
+    public void prefixesAreTerms() throws IOException {
+        Assert.assertEquals(3, search("h").totalHits.value);
+        Assert.assertEquals(2, search("hear").totalHits.value);
+        Assert.assertEquals(1, search("att").totalHits.value);
+        Assert.assertEquals(1, search("heartburn").totalHits.value);
+        Assert.assertEquals(0, search("eart").totalHits.value);
+    }
+
+    @Test
+    public void longTokensKeepPrefixesAndWhole() throws IOException {
+        String word = TEXT[4].toLowerCase();
+        Assert.assertEquals(1, search(word.substring(0, PerFieldAnalyzer.EDGE_NGRAM_MAX_LENGTH)).totalHits.value);
+        Assert.assertEquals(0, search(word.substring(0, PerFieldAnalyzer.EDGE_NGRAM_MAX_LENGTH + 1)).totalHits.value);
+        Assert.assertEquals(1, search(word).totalHits.value);
+    }
+
+    @Test
+    public void notCancelled() throws IOException {
+        Query q = new TermQuery(new Term(COMPLETION, "h"));
+        TopDocs topDocs = searcher.search(q, new CancellableCollectorManager<>(TopFieldCollector.createSharedManager(BY_WEIGHT, 10, null, 10), () -> false));
+        Assert.assertEquals(3, topDocs.scoreDocs.length);
+        Assert.assertEquals(2L, ((FieldDoc) topDocs.scoreDocs[0]).fields[0]);
+        Assert.assertEquals(0L, ((FieldDoc) topDocs.scoreDocs[2]).fields[0]);
+    }
+
+    @Test
+    public void cancelled() throws IOException {
+        Query q = new TermQuery(new Term(COMPLETION, "h"));
+        TopDocs topDocs = searcher.search(q, new CancellableCollectorManager<>(TopFieldCollector.createSharedManager(BY_WEIGHT, 10, null, 10), () -> true));
+        Assert.assertEquals(0, topDocs.scoreDocs.length);
+    }
+
+    @Test
+    public void cancelledPartWay() throws IOException {
+        // Cancel once the first two segments are started
+        AtomicInteger checks = new AtomicInteger();
+        Query q = new TermQuery(new Term(COMPLETION, "h"));
+        TopDocs topDocs = searcher.search(q, new CancellableCollectorManager<>(TopFieldCollector.createSharedManager(BY_WEIGHT, 10, null, 10),
+                () -> checks.incrementAndGet() > 2));
+        Assert.assertEquals(2, topDocs.scoreDocs.length);
+        Assert.assertEquals(TEXT.length, checks.get());
+    }
+}
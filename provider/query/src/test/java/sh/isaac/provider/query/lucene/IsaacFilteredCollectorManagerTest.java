@@ -0,0 +1,129 @@
+/*
+ * Copyright 2019 Organizations participating in ISAAC, ISAAC's KOMET, and SOLOR development include the
+         US Veterans Health Administration, OSHERA, and the Health Services Platform Consortium..
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package sh.isaac.provider.query.lucene;
+
+import java.io.IOException;
+import java.util.HashSet;
+import java.util.Set;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.NumericDocValuesField;
+import org.apache.lucene.document.StoredField;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.index.DirectoryReader;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.search.TopDocs;
+import org.apache.lucene.store.ByteBuffersDirectory;
+import org.apache.lucene.store.Directory;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import sh.isaac.api.collections.NidSet;
+import sh.isaac.api.index.NidFilter;
+
+/**
+ * {@link IsaacFilteredCollectorManager} and {@link DocValuesIntReader} over an index of several segments.
+ *
+ * @author kec
+ */
+public class IsaacFilteredCollectorManagerTest {
+
+    private static final int DOC_COUNT = 60;
+
+    private Directory directory;
+    private DirectoryReader reader;
+    private IndexSearcher searcher;
+
+    @Before
+    public void setUp() throws IOException {
+        directory = new ByteBuffersDirectory();
+        try (IndexWriter writer = new IndexWriter(directory, new IndexWriterConfig())) {
+            for (int nid = 1; nid <= DOC_COUNT; nid++) {
+                Document doc = new Document();
+                doc.add(new StringField("text", nid % 2 == 0 ? "even" : "odd", Field.Store.NO));
+                doc.add(new StoredField(LuceneIndexer.FIELD_COMPONENT_NID, nid));
+                doc.add(new NumericDocValuesField(LuceneIndexer.FIELD_COMPONENT_NID, nid));
+                writer.addDocument(doc);
+                if (nid % 20 == 0) {
+                    writer.commit();
+                }
+            }
+        }
+        reader = DirectoryReader.open(directory);
+        searcher = new IndexSearcher(reader);
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        reader.close();
+        directory.close();
+    }
+
+    private Set<Integer> search(String text, NidFilter filter, int sizeLimit) throws IOException {
+        TopDocs topDocs = searcher.search(new TermQuery(new Term("text", text)),
+                new IsaacFilteredCollectorManager(filter, sizeLimit, null));
+        DocValuesIntReader componentNids = new DocValuesIntReader(reader, LuceneIndexer.FIELD_COMPONENT_NID);
+        Set<Integer> nids = new HashSet<>();
+        for (ScoreDoc hit : topDocs.scoreDocs) {
+            nids.add(componentNids.get(hit.doc));
+        }
+        return nids;
+    }
+
+    @Test
+    public void filterBySet() throws IOException {
+        Assert.assertTrue(reader.leaves().size() > 1);
+        Assert.assertEquals(Set.of(4, 26, 60), search("even", NidFilter.of(NidSet.of(new int[] {3, 4, 26, 59, 60})), 100));
+    }
+
+    @Test
+    public void filterByPredicate() throws IOException {
+        Assert.assertEquals(Set.of(41, 43, 45), search("odd", NidFilter.of(nid -> nid > 40 && nid < 46), 100));
+        Assert.assertEquals(15, search("odd", NidFilter.of(nid -> nid > 40 && nid < 46).negate(), 15).size());
+    }
+
+    @Test
+    public void noFilter() throws IOException {
+        Assert.assertEquals(DOC_COUNT / 2, search("odd", null, 100).size());
+    }
+
+    @Test
+    public void readBackwards() throws IOException {
+        DocValuesIntReader componentNids = new DocValuesIntReader(reader, LuceneIndexer.FIELD_COMPONENT_NID);
+        for (int doc = reader.maxDoc() - 1; doc >= 0; doc--) {
+            Assert.assertEquals(doc + 1, componentNids.get(doc));
+        }
+        Assert.assertEquals(1, componentNids.get(0));
+    }
+
+    @Test
+    public void filterIdentity() {
+        NidSet allowed = NidSet.of(new int[] {1, 2, 3});
+        Assert.assertEquals(NidFilter.of(allowed), NidFilter.of(allowed));
+        Assert.assertEquals(NidFilter.of(allowed).hashCode(), NidFilter.of(allowed).hashCode());
+        Assert.assertNotEquals(NidFilter.of(allowed), NidFilter.of(allowed).negate());
+        Assert.assertNotEquals(NidFilter.of(allowed).hashCode(), NidFilter.of(allowed).negate().hashCode());
+        Assert.assertTrue(NidFilter.of(allowed).test(Integer.valueOf(2)));
+        Assert.assertFalse(NidFilter.of(allowed).negate().test(2));
+    }
+}
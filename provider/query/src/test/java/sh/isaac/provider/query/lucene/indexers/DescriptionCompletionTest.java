@@ -0,0 +1,161 @@
+/*
+ * Copyright 2019 Organizations participating in ISAAC, ISAAC's KOMET, and SOLOR development include the
+         US Veterans Health Administration, OSHERA, and the Health Services Platform Consortium..
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package sh.isaac.provider.query.lucene.indexers;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.NumericDocValuesField;
+import org.apache.lucene.document.StoredField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.DirectoryReader;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.PrefixQuery;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.store.ByteBuffersDirectory;
+import org.apache.lucene.store.Directory;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import sh.isaac.provider.query.lucene.PerFieldAnalyzer;
+
+/**
+ * The completion query of {@link DescriptionIndexer}, run against documents with the completion fields it indexes, in its completion order.
+ *
+ * @author kec
+ */
+public class DescriptionCompletionTest {
+
+    private static final String LONG_WORD = "Pneumonoultramicroscopicsilicovolcanoconiosis";
+
+    private Directory directory;
+    private DirectoryReader reader;
+    private IndexSearcher searcher;
+
+    @Before
+    public void setUp() throws IOException {
+        directory = new ByteBuffersDirectory();
+        try (IndexWriter writer = new IndexWriter(directory, new IndexWriterConfig(new PerFieldAnalyzer()))) {
+            add(writer, "Heart attack", true, 3);
+            add(writer, "Heart attack (disorder)", true, 2);
+            add(writer, "Heart", false, 3);
+            add(writer, "Heartburn", true, 3);
+            add(writer, "Chest pain", true, 3);
+            add(writer, LONG_WORD, true, 3);
+        }
+        reader = DirectoryReader.open(directory);
+        searcher = new IndexSearcher(reader);
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        reader.close();
+        directory.close();
+    }
+
+    private static void add(IndexWriter writer, String text, boolean active, int typeRank) throws IOException {
+        Document doc = new Document();
+        doc.add(new StoredField("text", text));
+        doc.add(new TextField(DescriptionIndexer.FIELD_INDEXED_STRING_VALUE, text, Field.Store.NO));
+        doc.add(new TextField(DescriptionIndexer.FIELD_COMPLETION, text, Field.Store.NO));
+        doc.add(new NumericDocValuesField(DescriptionIndexer.FIELD_COMPLETION_WEIGHT,
+                DescriptionIndexer.computeCompletionWeightForTypeRank(active, typeRank, text.length())));
+        writer.addDocument(doc);
+    }
+
+    private List<String> complete(String text) throws IOException {
+        List<String> results = new ArrayList<>();
+        Query q = DescriptionIndexer.buildCompletionQuery(text, false);
+        if (q != null) {
+            for (ScoreDoc hit : searcher.search(q, 10, DescriptionIndexer.COMPLETION_SORT).scoreDocs) {
+                results.add(searcher.doc(hit.doc).get("text"));
+            }
+        }
+        return results;
+    }
+
+    private static List<String> list(String... text) {
+        List<String> list = new ArrayList<>();
+        for (String t : text) {
+            list.add(t);
+        }
+        return list;
+    }
+
+    @Test
+    public void ranking() throws IOException {
+        // Active before inactive, regular names before fully qualified names, then shorter text.
+        Assert.assertEquals(list("Heartburn", "Heart attack", "Heart attack (disorder)", "Heart"), complete("hea"));
+        Assert.assertTrue(DescriptionIndexer.computeCompletionWeightForTypeRank(true, 1, 500)
+                > DescriptionIndexer.computeCompletionWeightForTypeRank(false, 3, 1));
+        Assert.assertTrue(DescriptionIndexer.computeCompletionWeightForTypeRank(true, 3, 0xFFFF + 10)
+                > DescriptionIndexer.computeCompletionWeightForTypeRank(true, 2, 1));
+    }
+
+    @Test
+    public void everyWordMustMatch() throws IOException {
+        Assert.assertEquals(list("Heart attack", "Heart attack (disorder)"), complete("heart att"));
+        Assert.assertEquals(list("Heart attack (disorder)"), complete("heart attack disord"));
+        Assert.assertEquals(list(), complete("heart pain"));
+    }
+
+    @Test
+    public void trailingSpaceCompletesTheLastWord() throws IOException {
+        // Without a trailing space the last word is a prefix; with one it must match a whole word.
+        Assert.assertEquals(list("Heartburn", "Heart attack", "Heart attack (disorder)", "Heart"), complete("heart"));
+        Assert.assertEquals(list("Heart attack", "Heart attack (disorder)", "Heart"), complete("heart "));
+        Assert.assertEquals(list(), complete("heart att "));
+        Assert.assertEquals(list("Heart attack", "Heart attack (disorder)"), complete("heart attack "));
+    }
+
+    @Test
+    public void noWords() {
+        Assert.assertNull(DescriptionIndexer.buildCompletionQuery("", false));
+        Assert.assertNull(DescriptionIndexer.buildCompletionQuery("   ", false));
+        Assert.assertNull(DescriptionIndexer.buildCompletionQuery("(", false));
+    }
+
+    @Test
+    public void prefixesLongerThanTheIndexedPrefixes() throws IOException {
+        String word = LONG_WORD.toLowerCase();
+        String longest = word.substring(0, PerFieldAnalyzer.EDGE_NGRAM_MAX_LENGTH);
+        String longer = word.substring(0, PerFieldAnalyzer.EDGE_NGRAM_MAX_LENGTH + 1);
+
+        Assert.assertTrue(onlyClause(longest) instanceof TermQuery);
+        Assert.assertTrue(onlyClause(longer) instanceof PrefixQuery);
+
+        Assert.assertEquals(list(LONG_WORD), complete(longest));
+        Assert.assertEquals(list(LONG_WORD), complete(longer));
+        Assert.assertEquals(list(LONG_WORD), complete(word));
+        Assert.assertEquals(list(), complete(longer + "x"));
+    }
+
+    private static Query onlyClause(String text) {
+        List<BooleanClause> clauses = ((BooleanQuery) DescriptionIndexer.buildCompletionQuery(text, false)).clauses();
+        Assert.assertEquals(1, clauses.size());
+        return clauses.get(0).getQuery();
+    }
+}
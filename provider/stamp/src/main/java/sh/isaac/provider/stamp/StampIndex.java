@@ -0,0 +1,159 @@
+/*
+ * Copyright 2019 Organizations participating in ISAAC, ISAAC's KOMET, and SOLOR development include the
+         US Veterans Health Administration, OSHERA, and the Health Services Platform Consortium..
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package sh.isaac.provider.stamp;
+
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import sh.isaac.api.Status;
+
+//~--- classes ----------------------------------------------------------------
+
+/**
+ * Open addressing index from stamp attributes to stamp sequence, held in a primitive array of stamp sequences. The
+ * attributes themselves are not copied: a slot matches when the stamp held by the {@link StampTable} at its sequence
+ * has the attributes looked up.
+ *
+ * Writes must be serialized by the caller, and the stamp must be put in the table before it is put in the index.
+ * Reads are not locked, and may miss a stamp put while the index grows, so a miss should be checked again under the
+ * lock that serializes the writes.
+ *
+ * @author kec
+ */
+public class StampIndex {
+   /**
+    * Returned by {@link #get(Status, long, int, int, int)} when no stamp has the attributes.
+    */
+   public static final int NO_SEQUENCE = -1;
+
+   private static final int EMPTY = 0;
+   private static final int INITIAL_CAPACITY = 1 << 12;
+
+   //~--- fields --------------------------------------------------------------
+
+   private final StampTable stampTable;
+   private volatile AtomicIntegerArray slots = new AtomicIntegerArray(INITIAL_CAPACITY);
+   private int used = 0;
+
+   //~--- constructors --------------------------------------------------------
+
+   /**
+    * @param stampTable the table holding the attributes of the indexed stamp sequences
+    */
+   public StampIndex(StampTable stampTable) {
+      this.stampTable = stampTable;
+   }
+
+   //~--- methods -------------------------------------------------------------
+
+   /**
+    * Index the stamp held by the stamp table at the stamp sequence. If another stamp sequence is indexed for the same
+    * attributes, it is replaced.
+    *
+    * @param stampSequence the stamp sequence, which must be greater than 0
+    */
+   public void put(int stampSequence) {
+      if ((this.used + 1) * 2 > this.slots.length()) {
+         grow();
+      }
+
+      final AtomicIntegerArray current = this.slots;
+      final int mask = current.length() - 1;
+      final Status status = this.stampTable.getStatus(stampSequence);
+      final long time = this.stampTable.getTime(stampSequence);
+      final int authorNid = this.stampTable.getAuthorNid(stampSequence);
+      final int moduleNid = this.stampTable.getModuleNid(stampSequence);
+      final int pathNid = this.stampTable.getPathNid(stampSequence);
+
+      for (int slot = hash(status, time, authorNid, moduleNid, pathNid) & mask; ; slot = (slot + 1) & mask) {
+         final int indexed = current.get(slot);
+         if (indexed == EMPTY) {
+            current.set(slot, stampSequence);
+            this.used++;
+            return;
+         }
+         if (indexed == stampSequence || this.stampTable.matches(indexed, status, time, authorNid, moduleNid, pathNid)) {
+            current.set(slot, stampSequence);
+            return;
+         }
+      }
+   }
+
+   /**
+    * Remove all stamps.
+    */
+   public void clear() {
+      this.slots = new AtomicIntegerArray(INITIAL_CAPACITY);
+      this.used = 0;
+   }
+
+   private void grow() {
+      final AtomicIntegerArray current = this.slots;
+      final AtomicIntegerArray grown = new AtomicIntegerArray(current.length() * 2);
+      final int mask = grown.length() - 1;
+      int grownUsed = 0;
+
+      for (int i = 0; i < current.length(); i++) {
+         final int stampSequence = current.get(i);
+         if (stampSequence != EMPTY && this.stampTable.contains(stampSequence)) {
+            int slot = hash(this.stampTable.getStatus(stampSequence), this.stampTable.getTime(stampSequence),
+                  this.stampTable.getAuthorNid(stampSequence), this.stampTable.getModuleNid(stampSequence),
+                  this.stampTable.getPathNid(stampSequence)) & mask;
+            while (grown.get(slot) != EMPTY) {
+               slot = (slot + 1) & mask;
+            }
+            grown.set(slot, stampSequence);
+            grownUsed++;
+         }
+      }
+
+      this.used = grownUsed;
+      this.slots = grown;
+   }
+
+   private static int hash(Status status, long time, int authorNid, int moduleNid, int pathNid) {
+      int hash = status.ordinal();
+      hash = 31 * hash + Long.hashCode(time);
+      hash = 31 * hash + authorNid;
+      hash = 31 * hash + moduleNid;
+      hash = 31 * hash + pathNid;
+      return hash ^ (hash >>> 16);
+   }
+
+   //~--- get methods ---------------------------------------------------------
+
+   /**
+    * @param status the status
+    * @param time the time
+    * @param authorNid the author nid
+    * @param moduleNid the module nid
+    * @param pathNid the path nid
+    * @return the stamp sequence of the stamp with the attributes, or {@link #NO_SEQUENCE} if none is indexed
+    */
+   public int get(Status status, long time, int authorNid, int moduleNid, int pathNid) {
+      final AtomicIntegerArray current = this.slots;
+      final int mask = current.length() - 1;
+
+      for (int slot = hash(status, time, authorNid, moduleNid, pathNid) & mask; ; slot = (slot + 1) & mask) {
+         final int indexed = current.get(slot);
+         if (indexed == EMPTY) {
+            return NO_SEQUENCE;
+         }
+         if (this.stampTable.matches(indexed, status, time, authorNid, moduleNid, pathNid)) {
+            return indexed;
+         }
+      }
+   }
+}
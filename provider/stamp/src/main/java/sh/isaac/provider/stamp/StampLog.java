@@ -0,0 +1,318 @@
+/*
+ * Copyright 2019 Organizations participating in ISAAC, ISAAC's KOMET, and SOLOR development include the
+         US Veterans Health Administration, OSHERA, and the Health Services Platform Consortium..
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package sh.isaac.provider.stamp;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import sh.isaac.api.Status;
+import sh.isaac.api.commit.StampService;
+
+//~--- classes ----------------------------------------------------------------
+
+/**
+ * Append only log of committed stamps. Each stamp put in the {@link StampTable} is recorded with
+ * {@link #append(int)}, and the recorded stamps are written to the end of the log by {@link #flush(StampTable)},
+ * so a sync only writes the stamps added since the last one. A later record for a stamp sequence replaces an earlier
+ * one; {@link #compact(StampTable, int)} rewrites the log with one record for each stamp.
+ *
+ * The log is a header of a magic number and a format version, followed by fixed length records of the stamp sequence,
+ * the status ordinal, the time, and the author, module and path nids. A partial record left at the end of the log by
+ * an interrupted write is discarded when the log is opened.
+ *
+ * @author kec
+ */
+public class StampLog
+         implements Closeable {
+   private static final Logger LOG = LogManager.getLogger();
+   private static final int MAGIC = 0x53544c47;
+   private static final int FORMAT_VERSION = 1;
+   private static final int HEADER_BYTES = 8;
+   private static final int RECORD_BYTES = 25;
+   private static final int BUFFER_RECORDS = 16 * 1024;
+   private static final Status[] STATUS_VALUES = Status.values();
+
+   //~--- fields --------------------------------------------------------------
+
+   private final Path logPath;
+   private FileChannel channel;
+   private int[] pending = new int[1024];
+   private int pendingCount = 0;
+   private long recordCount = 0;
+
+   //~--- constructors --------------------------------------------------------
+
+   /**
+    * @param logPath the path of the log file
+    */
+   public StampLog(Path logPath) {
+      this.logPath = logPath;
+   }
+
+   //~--- methods -------------------------------------------------------------
+
+   /**
+    * Read the stamps in the log, if it exists, into the table and index, and open the log for appending.
+    *
+    * @param stampTable the table to put the stamps in
+    * @param stampIndex the index to put the stamps in
+    * @return the largest stamp sequence read, or 0 if the log has no stamps
+    * @throws IOException if the log cannot be read, or was not written by this class
+    */
+   public synchronized int open(StampTable stampTable, StampIndex stampIndex)
+            throws IOException {
+      if (!Files.exists(this.logPath) || Files.size(this.logPath) < HEADER_BYTES) {
+         this.channel = create(this.logPath);
+         this.recordCount = 0;
+         return 0;
+      }
+
+      this.channel = openChannel(this.logPath);
+
+      try {
+         final ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+         while (header.hasRemaining()) {
+            this.channel.read(header);
+         }
+         header.flip();
+         if (header.getInt() != MAGIC) {
+            throw new IOException("Not a stamp log: " + this.logPath);
+         }
+         final int formatVersion = header.getInt();
+         if (formatVersion != FORMAT_VERSION) {
+            throw new IOException("Unsupported stamp log format " + formatVersion + ": " + this.logPath);
+         }
+
+         final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_RECORDS * RECORD_BYTES);
+         int maxStampSequence = 0;
+         long records = 0;
+
+         while (this.channel.read(buffer) > 0) {
+            buffer.flip();
+            while (buffer.remaining() >= RECORD_BYTES) {
+               final int stampSequence = buffer.getInt();
+               stampTable.put(stampSequence, STATUS_VALUES[buffer.get()], buffer.getLong(), buffer.getInt(),
+                     buffer.getInt(), buffer.getInt());
+               stampIndex.put(stampSequence);
+               maxStampSequence = Math.max(maxStampSequence, stampSequence);
+               records++;
+            }
+            buffer.compact();
+         }
+
+         final long validSize = validSize(records);
+         if (this.channel.size() > validSize) {
+            LOG.warn("Discarding {} bytes of a partial record at the end of {}", this.channel.size() - validSize,
+                  this.logPath);
+            this.channel.truncate(validSize);
+         }
+
+         this.channel.position(validSize);
+         this.recordCount = records;
+         return maxStampSequence;
+      } catch (IOException | RuntimeException e) {
+         this.channel.close();
+         this.channel = null;
+         throw e;
+      }
+   }
+
+   /**
+    * Record a stamp put in the table, to be written by the next {@link #flush(StampTable)}.
+    *
+    * @param stampSequence the stamp sequence
+    */
+   public synchronized void append(int stampSequence) {
+      if (this.pendingCount == this.pending.length) {
+         this.pending = Arrays.copyOf(this.pending, this.pending.length * 2);
+      }
+      this.pending[this.pendingCount++] = stampSequence;
+   }
+
+   /**
+    * Write the recorded stamps to the end of the log, and force them to storage. If the write fails, the records
+    * written are removed from the log, and the stamps stay recorded, so the next flush writes them again.
+    *
+    * @param stampTable the table holding the recorded stamps
+    * @throws IOException if the log cannot be written
+    */
+   public synchronized void flush(StampTable stampTable)
+            throws IOException {
+      if (this.pendingCount == 0) {
+         return;
+      }
+
+      final ByteBuffer buffer = ByteBuffer.allocate(Math.min(this.pendingCount, BUFFER_RECORDS) * RECORD_BYTES);
+
+      try {
+         for (int i = 0; i < this.pendingCount; i++) {
+            putRecord(buffer, stampTable, this.pending[i]);
+            if (!buffer.hasRemaining()) {
+               writeFully(this.channel, buffer);
+            }
+         }
+
+         writeFully(this.channel, buffer);
+         this.channel.force(false);
+      } catch (IOException | RuntimeException e) {
+         try {
+            this.channel.truncate(validSize(this.recordCount));
+            this.channel.position(validSize(this.recordCount));
+         } catch (IOException truncateException) {
+            e.addSuppressed(truncateException);
+         }
+         throw e;
+      }
+      this.recordCount += this.pendingCount;
+      this.pendingCount = 0;
+
+      if (this.pending.length > BUFFER_RECORDS) {
+         this.pending = new int[1024];
+      }
+   }
+
+   /**
+    * Rewrite the log with one record for each committed stamp in the table. The log is written beside the current one,
+    * and moved over it once complete, so an interrupted compaction leaves the current log in place, and the recorded
+    * stamps still to be written to it.
+    *
+    * @param stampTable the table holding the stamps
+    * @param nextStampSequence the stamp sequence after the last one in the table
+    * @throws IOException if the log cannot be written
+    */
+   public synchronized void compact(StampTable stampTable, int nextStampSequence)
+            throws IOException {
+      final Path compactPath = this.logPath.resolveSibling(this.logPath.getFileName() + ".compact");
+      long records = 0;
+
+      try (FileChannel compactChannel = create(compactPath)) {
+         final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_RECORDS * RECORD_BYTES);
+
+         for (int stampSequence = StampService.FIRST_STAMP_SEQUENCE; stampSequence < nextStampSequence;
+               stampSequence++) {
+            if (stampTable.contains(stampSequence) && stampTable.getTime(stampSequence) != Long.MAX_VALUE) {
+               putRecord(buffer, stampTable, stampSequence);
+               records++;
+               if (!buffer.hasRemaining()) {
+                  writeFully(compactChannel, buffer);
+               }
+            }
+         }
+
+         writeFully(compactChannel, buffer);
+         compactChannel.force(false);
+      }
+
+      if (this.channel != null) {
+         this.channel.close();
+      }
+
+      final long previousRecordCount = this.recordCount;
+      try {
+         replaceLog(compactPath);
+         this.recordCount = records;
+         // Every recorded stamp is already in the table, so was written with the others.
+         this.pendingCount = 0;
+      } finally {
+         // Reopen the compacted log, or the current one if it was not replaced, so later flushes can write to it
+         this.channel = openChannel(this.logPath);
+         this.channel.position(validSize(this.recordCount));
+      }
+      LOG.info("Compacted {} from {} to {} stamp records", this.logPath, previousRecordCount, records);
+   }
+
+   @Override
+   public synchronized void close()
+            throws IOException {
+      if (this.channel != null) {
+         this.channel.close();
+         this.channel = null;
+      }
+      this.pendingCount = 0;
+   }
+
+   /**
+    * @param path the path of an existing log
+    * @return a channel to read and write the log
+    * @throws IOException if the log cannot be opened
+    */
+   FileChannel openChannel(Path path)
+            throws IOException {
+      return FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE);
+   }
+
+   /**
+    * Move a compacted log over the current one.
+    *
+    * @param compactPath the path of the compacted log
+    * @throws IOException if the log cannot be replaced
+    */
+   void replaceLog(Path compactPath)
+            throws IOException {
+      Files.move(compactPath, this.logPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+   }
+
+   private static long validSize(long records) {
+      return HEADER_BYTES + records * RECORD_BYTES;
+   }
+
+   private static FileChannel create(Path path)
+            throws IOException {
+      final FileChannel created = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+            StandardOpenOption.READ, StandardOpenOption.WRITE);
+      final ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+
+      header.putInt(MAGIC).putInt(FORMAT_VERSION);
+      writeFully(created, header);
+      return created;
+   }
+
+   private static void putRecord(ByteBuffer buffer, StampTable stampTable, int stampSequence) {
+      buffer.putInt(stampSequence)
+            .put((byte) stampTable.getStatus(stampSequence).ordinal())
+            .putLong(stampTable.getTime(stampSequence))
+            .putInt(stampTable.getAuthorNid(stampSequence))
+            .putInt(stampTable.getModuleNid(stampSequence))
+            .putInt(stampTable.getPathNid(stampSequence));
+   }
+
+   private static void writeFully(FileChannel channel, ByteBuffer buffer)
+            throws IOException {
+      buffer.flip();
+      while (buffer.hasRemaining()) {
+         channel.write(buffer);
+      }
+      buffer.clear();
+   }
+
+   //~--- get methods ---------------------------------------------------------
+
+   /**
+    * @return the number of records in the log, including records replaced by later ones
+    */
+   public synchronized long getRecordCount() {
+      return this.recordCount;
+   }
+}
@@ -39,24 +39,25 @@
 
 package sh.isaac.provider.stamp;
 
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
 import java.io.DataInputStream;
 import java.io.DataOutputStream;
-import java.io.File;
-import java.io.FileInputStream;
-import java.io.FileOutputStream;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
 import java.time.Instant;
 import java.time.ZoneOffset;
 import java.time.ZonedDateTime;
 import java.time.format.DateTimeFormatter;
 import java.time.format.FormatStyle;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.NoSuchElementException;
 import java.util.Optional;
-import java.util.OptionalInt;
 import java.util.OptionalLong;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
@@ -108,10 +109,28 @@ public class StampProvider
    private static final Logger LOG = LogManager.getLogger();
 
    /**
-    * The Constant STAMP_MANAGER_DATA_FILENAME.
+    * The Constant STAMP_MANAGER_DATA_FILENAME, the file all stamps were rewritten to on each sync, before the stamp
+    * log. It is read once, to upgrade an existing datastore, and then removed.
     */
    private static final String STAMP_MANAGER_DATA_FILENAME = "stamp-manager.data";
 
+   /**
+    * The Constant STAMP_LOG_FILENAME, the append only log of committed stamps.
+    */
+   private static final String STAMP_LOG_FILENAME = "stamp-manager.log";
+
+   /**
+    * The Constant STAMP_MANAGER_UNCOMMITTED_FILENAME, holding the next stamp sequence and the uncommitted stamps,
+    * which are rewritten on each sync.
+    */
+   private static final String STAMP_MANAGER_UNCOMMITTED_FILENAME = "stamp-manager-uncommitted.data";
+
+   /**
+    * The stamp log is compacted on sync once it holds more than this many records, and more than twice as many
+    * records as there are stamps.
+    */
+   private static final long COMPACTION_MIN_RECORDS = 1 << 16;
+
    /**
     * The Constant DEFAULT_STAMP_MANAGER_FOLDER.
     */
@@ -135,21 +154,11 @@ public class StampProvider
     */
    private final AtomicInteger nextStampSequence = new AtomicInteger(FIRST_STAMP_SEQUENCE);
 
-   /**
-    * Persistent map of stamp sequences to a Stamp object.
-    */
-   private final ConcurrentHashMap<Stamp, Integer> stampMap = new ConcurrentHashMap<>();
-
    /**
     * The database validity.
     */
    private DataStoreStartState databaseValidity = DataStoreStartState.NOT_YET_CHECKED;
 
-   /**
-    * The stamp sequence path nid map.
-    */
-   ConcurrentHashMap<Integer, Integer> stampSequence_PathNid_Map = new ConcurrentHashMap<>();
-
    /**
     * The db folder path.
     */
@@ -161,9 +170,19 @@ public class StampProvider
    private Path stampManagerFolder;
 
    /**
-    * Persistent as a result of reading and writing the stampMap.
+    * Stamp attributes indexed by stamp sequence. Persistent as a result of reading and writing the stamp log.
+    */
+   private final StampTable stampTable = new StampTable();
+
+   /**
+    * Stamp sequences indexed by the stamp attributes held in the stamp table.
     */
-   private final ConcurrentHashMap<Integer, Stamp> inverseStampMap;
+   private final StampIndex stampIndex = new StampIndex(this.stampTable);
+
+   /**
+    * The log the committed stamps are appended to, when the local file store is used.
+    */
+   private StampLog stampLog;
    
    private ExtendedStore dataStore = null;
    private ExtendedStoreData<Integer, Stamp> sequenceToStamp; 
@@ -182,7 +201,6 @@ public class StampProvider
       Path       dataStorePath        = configurationService.getDataStoreFolderPath();
 
       this.dbFolderPath = dataStorePath.resolve("stamp-provider");
-      this.inverseStampMap    = new ConcurrentHashMap<>();
       
       if (Get.dataStore().implementsExtendedStoreAPI()) {
          dataStore = (ExtendedStore)Get.dataStore();
@@ -239,10 +257,18 @@ public class StampProvider
     */
    @Override
    public void addStamp(Stamp stamp, int stampSequence) {
-      this.stampMap.put(stamp, stampSequence);
-      this.inverseStampMap.put(stampSequence, stamp);
+      this.stampLock.lock();
+
+      try {
+         this.stampTable.put(stampSequence, stamp);
+         this.stampIndex.put(stampSequence);
+      } finally {
+         this.stampLock.unlock();
+      }
       if (dataStore != null) {
          sequenceToStamp.put(stampSequence, stamp);
+      } else {
+         this.stampLog.append(stampSequence);
       }
       LOG.trace("Added stamp {}", stamp);
    }
@@ -434,6 +460,22 @@ public class StampProvider
       return getStatusForStamp(stampSequence1) == getStatusForStamp(stampSequence2);
    }
 
+   /**
+    * Append the committed stamps added since the last sync to the stamp log, and force it.
+    */
+   @Override
+   public void forceCommittedStamps() {
+      final StampLog log = this.stampLog;
+
+      if (log != null) {
+         try {
+            log.flush(this.stampTable);
+         } catch (final IOException e) {
+            throw new RuntimeException(e);
+         }
+      }
+   }
+
    @Override
    public Future<?> sync() {
       return Get.executor().submit(() -> {
@@ -481,36 +523,40 @@ public class StampProvider
             
             UNCOMMITTED_STAMP_TO_STAMP_SEQUENCE_MAP.get().clear();
             this.nextStampSequence.set(FIRST_STAMP_SEQUENCE);
-            this.stampMap.clear();
-            this.stampSequence_PathNid_Map.clear();
-            this.inverseStampMap.clear();
-            
+            this.stampTable.clear();
+            this.stampIndex.clear();
+
+            final Path logPath = this.stampManagerFolder.resolve(STAMP_LOG_FILENAME);
+            final Path legacyDataPath = this.stampManagerFolder.resolve(STAMP_MANAGER_DATA_FILENAME);
+            boolean upgrade = false;
+
             if (this.databaseValidity == DataStoreStartState.EXISTING_DATASTORE) {
-               try (DataInputStream in = new DataInputStream(
-                                             new FileInputStream(
-                                                 new File(
-                                                     this.stampManagerFolder.toFile(),
-                                                     STAMP_MANAGER_DATA_FILENAME)))) {
-                  this.nextStampSequence.set(in.readInt());
-   
-                  final int stampMapSize = in.readInt();
-   
-                  for (int i = 0; i < stampMapSize; i++) {
-                     final int   stampSequence = in.readInt();
-                     final Stamp stamp         = new Stamp(in);
-   
-                     this.stampMap.put(stamp, stampSequence);
-                     this.inverseStampMap.put(stampSequence, stamp);
-                  }
-   
-                  final int uncommittedSize = in.readInt();
-   
-                  for (int i = 0; i < uncommittedSize; i++) {
-                     UNCOMMITTED_STAMP_TO_STAMP_SEQUENCE_MAP.get()
-                           .put(new UncommittedStamp(in), in.readInt());
-                  }
+               if (!Files.exists(logPath) && Files.exists(legacyDataPath)) {
+                  LOG.info("Upgrading " + STAMP_MANAGER_DATA_FILENAME + " to " + STAMP_LOG_FILENAME);
+                  this.nextStampSequence.set(readLegacyData(legacyDataPath, this.stampTable, this.stampIndex,
+                        UNCOMMITTED_STAMP_TO_STAMP_SEQUENCE_MAP.get()));
+                  upgrade = true;
                }
+            } else {
+               // Stamps left by an earlier datastore in this folder must not be read into the new one.
+               Files.deleteIfExists(logPath);
+               Files.deleteIfExists(this.stampManagerFolder.resolve(STAMP_MANAGER_UNCOMMITTED_FILENAME));
+               Files.deleteIfExists(legacyDataPath);
             }
+
+            this.stampLog = new StampLog(logPath);
+            final int maxLoggedSequence = this.stampLog.open(this.stampTable, this.stampIndex);
+
+            this.nextStampSequence.accumulateAndGet(maxLoggedSequence + 1, Math::max);
+            readUncommitted();
+
+            if (upgrade) {
+               this.stampLog.compact(this.stampTable, this.nextStampSequence.get());
+               writeUncommitted();
+               Files.delete(legacyDataPath);
+            }
+
+            LOG.info("Read {} stamps from {}", this.stampLog.getRecordCount(), logPath);
          }
          else
          {
@@ -519,17 +565,16 @@ public class StampProvider
             this.dataStoreId = null;
             UNCOMMITTED_STAMP_TO_STAMP_SEQUENCE_MAP.get().clear();
             this.nextStampSequence.set(FIRST_STAMP_SEQUENCE);
-            this.stampMap.clear();
-            this.stampSequence_PathNid_Map.clear();
-            this.inverseStampMap.clear();
+            this.stampTable.clear();
+            this.stampIndex.clear();
             //We put the nextStampSequence here in the MAX_VALUE slot.
             OptionalLong oi = dataStore.getSharedStoreLong(DEFAULT_STAMP_MANAGER_FOLDER + "-nextStampSequence");
             if (oi.isPresent()) {
                this.nextStampSequence.set((int)oi.getAsLong());
                sequenceToStamp.getStream().forEach(stampPair ->
                {
-                   this.stampMap.put(stampPair.getValue(), stampPair.getKey());
-                   this.inverseStampMap.put(stampPair.getKey(), stampPair.getValue());
+                   this.stampTable.put(stampPair.getKey(), stampPair.getValue());
+                   this.stampIndex.put(stampPair.getKey());
                });
                
                sequenceToUncommittedStamp.getStream().forEach(stampPair ->
@@ -555,46 +600,38 @@ public class StampProvider
       LOG.info("Stopping StampProvider pre-destroy. ");
 
       writeData();
+      if (this.stampLog != null) {
+         try {
+            this.stampLog.close();
+         } catch (final IOException e) {
+            LOG.error("Error closing the stamp log", e);
+         }
+         this.stampLog = null;
+      }
       this.databaseValidity = DataStoreStartState.NOT_YET_CHECKED;
       UNCOMMITTED_STAMP_TO_STAMP_SEQUENCE_MAP.get().clear();
       this.nextStampSequence.set(FIRST_STAMP_SEQUENCE);
-      this.stampMap.clear();
-      this.stampSequence_PathNid_Map.clear();
-      this.inverseStampMap.clear();
+      this.stampTable.clear();
+      this.stampIndex.clear();
       this.dataStoreId = Optional.empty();
    }
 
    private void writeData() throws RuntimeException {
       if (dataStore == null) {
-         //write to the file store
-         try (DataOutputStream out = new DataOutputStream(
-                 new FileOutputStream(
-                         new File(this.stampManagerFolder.toFile(), STAMP_MANAGER_DATA_FILENAME)))) {
-            out.writeInt(this.nextStampSequence.get());
-            out.writeInt(this.stampMap.size());
-            this.stampMap.forEach(
-                    (Stamp stamp,
-                            Integer stampSequence) -> {
-                       try {
-                          out.writeInt(stampSequence);
-                          stamp.write(out);
-                       } catch (final IOException ex) {
-                          throw new RuntimeException(ex);
-                       }
-                    });
-            
-            final int size = UNCOMMITTED_STAMP_TO_STAMP_SEQUENCE_MAP.get()
-                    .size();
-            
-            out.writeInt(size);
-   
-            for (final Map.Entry<UncommittedStamp, Integer> entry: UNCOMMITTED_STAMP_TO_STAMP_SEQUENCE_MAP.get()
-                    .entrySet()) {
-               entry.getKey()
-                       .write(out);
-               out.writeInt(entry.getValue());
+         //append the stamps added since the last sync to the log, and rewrite the uncommitted stamps
+         if (this.stampLog == null) {
+            return;
+         }
+         try {
+            this.stampLog.flush(this.stampTable);
+
+            final long recordCount = this.stampLog.getRecordCount();
+
+            if (recordCount > COMPACTION_MIN_RECORDS && recordCount > 2L * this.stampTable.size()) {
+               this.stampLog.compact(this.stampTable, this.nextStampSequence.get());
             }
 
+            writeUncommitted();
          } catch (final IOException e) {
             throw new RuntimeException(e);
          }
@@ -615,6 +652,87 @@ public class StampProvider
       }
    }
 
+   /**
+    * Read the stamps, the next stamp sequence, and the uncommitted stamps, from a file written before the stamp log.
+    *
+    * @param legacyDataPath the path of the file
+    * @param stampTable the table to put the stamps in
+    * @param stampIndex the index to put the stamps in
+    * @param uncommitted the map to put the uncommitted stamps in
+    * @return the next stamp sequence
+    * @throws IOException Signals that an I/O exception has occurred.
+    */
+   static int readLegacyData(Path legacyDataPath, StampTable stampTable, StampIndex stampIndex,
+         Map<UncommittedStamp, Integer> uncommitted)
+            throws IOException {
+      try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(legacyDataPath)))) {
+         final int nextStampSequence = in.readInt();
+
+         final int stampMapSize = in.readInt();
+
+         for (int i = 0; i < stampMapSize; i++) {
+            final int    stampSequence = in.readInt();
+            final Status status        = Status.valueOf(in.readUTF());
+
+            stampTable.put(stampSequence, status, in.readLong(), in.readInt(), in.readInt(), in.readInt());
+            stampIndex.put(stampSequence);
+         }
+
+         readUncommitted(in, uncommitted);
+         return nextStampSequence;
+      }
+   }
+
+   private void readUncommitted()
+            throws IOException {
+      final Path uncommittedPath = this.stampManagerFolder.resolve(STAMP_MANAGER_UNCOMMITTED_FILENAME);
+
+      if (Files.exists(uncommittedPath)) {
+         try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(uncommittedPath)))) {
+            this.nextStampSequence.accumulateAndGet(in.readInt(), Math::max);
+            UNCOMMITTED_STAMP_TO_STAMP_SEQUENCE_MAP.get().clear();
+            readUncommitted(in, UNCOMMITTED_STAMP_TO_STAMP_SEQUENCE_MAP.get());
+         }
+      }
+   }
+
+   private static void readUncommitted(DataInputStream in, Map<UncommittedStamp, Integer> uncommitted)
+            throws IOException {
+      final int uncommittedSize = in.readInt();
+
+      for (int i = 0; i < uncommittedSize; i++) {
+         uncommitted.put(new UncommittedStamp(in), in.readInt());
+      }
+   }
+
+   /**
+    * Rewrite the next stamp sequence and the uncommitted stamps. The file is written beside the current one, and moved
+    * over it once complete.
+    *
+    * @throws IOException Signals that an I/O exception has occurred.
+    */
+   private void writeUncommitted()
+            throws IOException {
+      final Path uncommittedPath = this.stampManagerFolder.resolve(STAMP_MANAGER_UNCOMMITTED_FILENAME);
+      final Path writePath = uncommittedPath.resolveSibling(STAMP_MANAGER_UNCOMMITTED_FILENAME + ".tmp");
+      final List<Map.Entry<UncommittedStamp, Integer>> uncommitted = new ArrayList<>(
+                                                                         UNCOMMITTED_STAMP_TO_STAMP_SEQUENCE_MAP.get()
+                                                                               .entrySet());
+
+      try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(writePath)))) {
+         out.writeInt(this.nextStampSequence.get());
+         out.writeInt(uncommitted.size());
+
+         for (final Map.Entry<UncommittedStamp, Integer> entry: uncommitted) {
+            entry.getKey()
+                 .write(out);
+            out.writeInt(entry.getValue());
+         }
+      }
+
+      Files.move(writePath, uncommittedPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+   }
+
    //~--- get methods ---------------------------------------------------------
 
    /**
@@ -645,9 +763,8 @@ public class StampProvider
          return TermAux.USER.getNid();
       }
 
-      if (this.inverseStampMap.containsKey(stampSequence)) {
-         return this.inverseStampMap.get(stampSequence)
-                                    .getAuthorNid();
+      if (this.stampTable.contains(stampSequence)) {
+         return this.stampTable.getAuthorNid(stampSequence);
       }
 
       for (Map.Entry<UncommittedStamp, Integer> entry: UNCOMMITTED_STAMP_TO_STAMP_SEQUENCE_MAP.get()
@@ -697,9 +814,8 @@ public class StampProvider
          return TermAux.UNSPECIFIED_MODULE.getNid();
       }
 
-      if (this.inverseStampMap.containsKey(stampSequence)) {
-         return this.inverseStampMap.get(stampSequence)
-                                    .getModuleNid();
+      if (this.stampTable.contains(stampSequence)) {
+         return this.stampTable.getModuleNid(stampSequence);
       }
 
       for (Map.Entry<UncommittedStamp, Integer> entry: UNCOMMITTED_STAMP_TO_STAMP_SEQUENCE_MAP.get()
@@ -739,14 +855,8 @@ public class StampProvider
          return TermAux.DEVELOPMENT_PATH.getNid();
       }
 
-      if (this.stampSequence_PathNid_Map.containsKey(stampSequence)) {
-         return this.stampSequence_PathNid_Map.get(stampSequence);
-      }
-
-      if (this.inverseStampMap.containsKey(stampSequence)) {
-         this.stampSequence_PathNid_Map.put(stampSequence, this.inverseStampMap.get(stampSequence)
-               .getPathNid());
-         return this.stampSequence_PathNid_Map.get(stampSequence);
+      if (this.stampTable.contains(stampSequence)) {
+         return this.stampTable.getPathNid(stampSequence);
       }
 
       for (Map.Entry<UncommittedStamp, Integer> entry: UNCOMMITTED_STAMP_TO_STAMP_SEQUENCE_MAP.get()
@@ -833,7 +943,7 @@ public class StampProvider
                LOG.trace("Putting {}, {} into uncommitted stamp to sequence map",  usp, stampSequence);
                UNCOMMITTED_STAMP_TO_STAMP_SEQUENCE_MAP.get()
                      .put(usp, stampSequence);
-               this.inverseStampMap.put(stampSequence, stampKey);
+               this.stampTable.put(stampSequence, stampKey);
                if (dataStore != null) {
                   dataStore.putSharedStoreLong(DEFAULT_STAMP_MANAGER_FOLDER + "-nextStampSequence", nextStampSequence.get());
                }
@@ -844,30 +954,39 @@ public class StampProvider
          }
       }
 
-      if (!this.stampMap.containsKey(stampKey)) {
-         // maybe have a few available in an atomic queue, and put back
-         // if not used? Maybe in a thread-local?
-         // Have different sequences, and have the increments be equal to the
-         // number of sequences?
-         this.stampLock.lock();
+      final int stampSequence = this.stampIndex.get(status, time, authorSequence, moduleSequence, pathSequence);
 
-         try {
-            if (!this.stampMap.containsKey(stampKey)) {
-               OptionalInt stampValue = OptionalInt.of(this.nextStampSequence.getAndIncrement());
+      if (stampSequence != StampIndex.NO_SEQUENCE) {
+         return stampSequence;
+      }
 
-               this.inverseStampMap.put(stampValue.getAsInt(), stampKey);
-               this.stampMap.put(stampKey, stampValue.getAsInt());
-               if (dataStore != null) {
-                  dataStore.putSharedStoreLong(DEFAULT_STAMP_MANAGER_FOLDER + "-nextStampSequence", nextStampSequence.get());
-                  sequenceToStamp.put(stampValue.getAsInt(), stampKey);
-               }
-            }
-         } finally {
-            this.stampLock.unlock();
+      // maybe have a few available in an atomic queue, and put back
+      // if not used? Maybe in a thread-local?
+      // Have different sequences, and have the increments be equal to the
+      // number of sequences?
+      this.stampLock.lock();
+
+      try {
+         final int indexedSequence = this.stampIndex.get(status, time, authorSequence, moduleSequence, pathSequence);
+
+         if (indexedSequence != StampIndex.NO_SEQUENCE) {
+            return indexedSequence;
          }
-      }
 
-      return this.stampMap.get(stampKey);
+         final int newSequence = this.nextStampSequence.getAndIncrement();
+
+         this.stampTable.put(newSequence, stampKey);
+         this.stampIndex.put(newSequence);
+         if (dataStore != null) {
+            dataStore.putSharedStoreLong(DEFAULT_STAMP_MANAGER_FOLDER + "-nextStampSequence", nextStampSequence.get());
+            sequenceToStamp.put(newSequence, stampKey);
+         } else {
+            this.stampLog.append(newSequence);
+         }
+         return newSequence;
+      } finally {
+         this.stampLock.unlock();
+      }
    }
 
    /**
@@ -878,7 +997,7 @@ public class StampProvider
    @Override
    public IntStream getStampSequences() {
       return IntStream.rangeClosed(FIRST_STAMP_SEQUENCE, this.nextStampSequence.get())
-                      .filter((stampSequence) -> this.inverseStampMap.containsKey(stampSequence));
+                      .filter((stampSequence) -> this.stampTable.contains(stampSequence));
    }
 
    /**
@@ -893,9 +1012,8 @@ public class StampProvider
          return Status.CANCELED;
       }
 
-      if (this.inverseStampMap.containsKey(stampSequence)) {
-         return this.inverseStampMap.get(stampSequence)
-                                    .getStatus();
+      if (this.stampTable.contains(stampSequence)) {
+         return this.stampTable.getStatus(stampSequence);
       }
 
       for (Map.Entry<UncommittedStamp, Integer> entry: UNCOMMITTED_STAMP_TO_STAMP_SEQUENCE_MAP.get()
@@ -920,9 +1038,8 @@ public class StampProvider
          return Long.MIN_VALUE;
       }
 
-      if (this.inverseStampMap.containsKey(stampSequence)) {
-         return this.inverseStampMap.get(stampSequence)
-                                    .getTime();
+      if (this.stampTable.contains(stampSequence)) {
+         return this.stampTable.getTime(stampSequence);
       }
 
       if (UNCOMMITTED_STAMP_TO_STAMP_SEQUENCE_MAP.get()
@@ -931,8 +1048,52 @@ public class StampProvider
       }
 
       throw new NoSuchElementException(
-          "No stampSequence found: " + stampSequence + " map size: " + this.stampMap.size() + " inverse map size: " +
-          this.inverseStampMap.size());
+          "No stampSequence found: " + stampSequence + " stamp table size: " +
+          this.stampTable.size());
+   }
+
+   /**
+    * Bulk read of the times of stamps, from the stamp table, without a lookup of each stamp.
+    *
+    * @param stampSequences the stamp sequences
+    * @param times receives the time of each stamp, at the index of the stamp in stampSequences
+    */
+   @Override
+   public void getTimesForStamps(int[] stampSequences, long[] times) {
+      this.stampTable.getTimes(stampSequences, times, this::getTimeForStamp);
+   }
+
+   /**
+    * Bulk read of the author nids of stamps, from the stamp table, without a lookup of each stamp.
+    *
+    * @param stampSequences the stamp sequences
+    * @param authorNids receives the author nid of each stamp, at the index of the stamp in stampSequences
+    */
+   @Override
+   public void getAuthorNidsForStamps(int[] stampSequences, int[] authorNids) {
+      this.stampTable.getAuthorNids(stampSequences, authorNids, this::getAuthorNidForStamp);
+   }
+
+   /**
+    * Bulk read of the module nids of stamps, from the stamp table, without a lookup of each stamp.
+    *
+    * @param stampSequences the stamp sequences
+    * @param moduleNids receives the module nid of each stamp, at the index of the stamp in stampSequences
+    */
+   @Override
+   public void getModuleNidsForStamps(int[] stampSequences, int[] moduleNids) {
+      this.stampTable.getModuleNids(stampSequences, moduleNids, this::getModuleNidForStamp);
+   }
+
+   /**
+    * Bulk read of the path nids of stamps, from the stamp table, without a lookup of each stamp.
+    *
+    * @param stampSequences the stamp sequences
+    * @param pathNids receives the path nid of each stamp, at the index of the stamp in stampSequences
+    */
+   @Override
+   public void getPathNidsForStamps(int[] stampSequences, int[] pathNids) {
+      this.stampTable.getPathNids(stampSequences, pathNids, this::getPathNidForStamp);
    }
 
    @Override
@@ -942,8 +1103,8 @@ public class StampProvider
           return new Stamp(Status.CANCELED, Long.MIN_VALUE, TermAux.USER.getNid(), TermAux.UNSPECIFIED_MODULE.getNid(), TermAux.DEVELOPMENT_PATH.getNid());
       }
 
-      if (this.inverseStampMap.containsKey(stampSequence)) {
-         return this.inverseStampMap.get(stampSequence);
+      if (this.stampTable.contains(stampSequence)) {
+         return this.stampTable.getStamp(stampSequence);
       }
 
       for (Map.Entry<UncommittedStamp, Integer> entry: UNCOMMITTED_STAMP_TO_STAMP_SEQUENCE_MAP.get()
@@ -955,8 +1116,8 @@ public class StampProvider
       }
 
       throw new NoSuchElementException(
-         "No stampSequence found: " + stampSequence + " map size: " + this.stampMap.size() + " inverse map size: " +
-         this.inverseStampMap.size());
+         "No stampSequence found: " + stampSequence + " stamp table size: " +
+         this.stampTable.size());
    }
 
    /**
@@ -0,0 +1,385 @@
+/* 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ *
+ * You may not use this file except in compliance with the License.
+ *
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Contributions from 2013-2017 where performed either by US government 
+ * employees, or under US Veterans Health Administration contracts. 
+ *
+ * US Veterans Health Administration contributions by government employees
+ * are work of the U.S. Government and are not subject to copyright
+ * protection in the United States. Portions contributed by government 
+ * employees are USGovWork (17USC §105). Not subject to copyright. 
+ * 
+ * Contribution by contractors to the US Veterans Health Administration
+ * during this period are contractually contributed under the
+ * Apache License, Version 2.0.
+ *
+ * See: https://www.usa.gov/government-works
+ * 
+ * Contributions prior to 2013:
+ *
+ * Copyright (C) International Health Terminology Standards Development Organisation.
+ * Licensed under the Apache License, Version 2.0.
+ *
+ */
+package sh.isaac.provider.stamp;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.function.IntToLongFunction;
+import java.util.function.IntUnaryOperator;
+import sh.isaac.api.Status;
+import sh.isaac.api.commit.Stamp;
+
+//~--- classes ----------------------------------------------------------------
+
+/**
+ * Dense, stamp sequence indexed, columnar storage of stamp attributes. Each column is held in primitive arrays that
+ * grow by spine, so reading an attribute of a stamp is an array read, without boxing, hashing or allocation.
+ *
+ * Writes must be serialized by the caller. A stamp is published by a release write of its status, after its other
+ * attributes are written. A stamp may be written again at the same stamp sequence, as an uncommitted stamp is when it
+ * is committed, so each stamp also has a version, which is odd while the stamp is written: a read of more than one
+ * attribute, or of the time, is retried if the version changed while it read, so readers never see a partially
+ * written stamp, nor the new time of a stamp with its old status.
+ *
+ * @author kec
+ */
+public class StampTable {
+   private static final int SPINE_SHIFT = 14;
+   private static final int SPINE_SIZE = 1 << SPINE_SHIFT;
+   private static final int SPINE_MASK = SPINE_SIZE - 1;
+   private static final Status[] STATUS_VALUES = Status.values();
+   private static final VarHandle STATUS_HANDLE = MethodHandles.arrayElementVarHandle(byte[].class);
+   private static final VarHandle VERSION_HANDLE = MethodHandles.arrayElementVarHandle(int[].class);
+
+   //~--- fields --------------------------------------------------------------
+
+   private volatile Spine[] spines = new Spine[0];
+
+   /** The number of stamps held, counted as they are put, since writes are serialized. */
+   private volatile int size = 0;
+
+   //~--- methods -------------------------------------------------------------
+
+   /**
+    * Put the stamp at the stamp sequence, replacing any stamp already there.
+    *
+    * @param stampSequence the stamp sequence
+    * @param stamp the stamp
+    */
+   public void put(int stampSequence, Stamp stamp) {
+      put(stampSequence, stamp.getStatus(), stamp.getTime(), stamp.getAuthorNid(), stamp.getModuleNid(), stamp.getPathNid());
+   }
+
+   /**
+    * Put the stamp attributes at the stamp sequence, replacing any stamp already there.
+    *
+    * @param stampSequence the stamp sequence
+    * @param status the status
+    * @param time the time
+    * @param authorNid the author nid
+    * @param moduleNid the module nid
+    * @param pathNid the path nid
+    */
+   public void put(int stampSequence, Status status, long time, int authorNid, int moduleNid, int pathNid) {
+      final Spine spine = getSpineForWrite(stampSequence >>> SPINE_SHIFT);
+      final int index = stampSequence & SPINE_MASK;
+      final int version = spine.version[index];
+
+      if (spine.status[index] == 0) {
+         this.size++;
+      }
+      VERSION_HANDLE.setOpaque(spine.version, index, version + 1);
+      VarHandle.storeStoreFence();
+      spine.time[index] = time;
+      spine.authorNid[index] = authorNid;
+      spine.moduleNid[index] = moduleNid;
+      spine.pathNid[index] = pathNid;
+      STATUS_HANDLE.setRelease(spine.status, index, (byte) (status.ordinal() + 1));
+      VERSION_HANDLE.setRelease(spine.version, index, version + 2);
+   }
+
+   /**
+    * Remove all stamps.
+    */
+   public void clear() {
+      this.spines = new Spine[0];
+      this.size = 0;
+   }
+
+   /**
+    * @param stampSequence the stamp sequence
+    * @return true, if a stamp is held for the stamp sequence
+    */
+   public boolean contains(int stampSequence) {
+      final Spine spine = getSpine(stampSequence);
+      return spine != null && ((byte) STATUS_HANDLE.getAcquire(spine.status, stampSequence & SPINE_MASK)) != 0;
+   }
+
+   /**
+    * @param stampSequence the stamp sequence
+    * @param status the status
+    * @param time the time
+    * @param authorNid the author nid
+    * @param moduleNid the module nid
+    * @param pathNid the path nid
+    * @return true, if a stamp with the attributes is held for the stamp sequence
+    */
+   public boolean matches(int stampSequence, Status status, long time, int authorNid, int moduleNid, int pathNid) {
+      final Spine spine = getSpine(stampSequence);
+      if (spine == null) {
+         return false;
+      }
+      final int index = stampSequence & SPINE_MASK;
+      while (true) {
+         final int version = beginRead(spine, index);
+         final boolean matches = ((byte) STATUS_HANDLE.getAcquire(spine.status, index)) == (byte) (status.ordinal() + 1)
+               && spine.time[index] == time
+               && spine.authorNid[index] == authorNid
+               && spine.moduleNid[index] == moduleNid
+               && spine.pathNid[index] == pathNid;
+         if (endRead(spine, index, version)) {
+            return matches;
+         }
+      }
+   }
+
+   /**
+    * @return the number of stamps held
+    */
+   public int size() {
+      return this.size;
+   }
+
+   //~--- get methods ---------------------------------------------------------
+
+   /**
+    * @param stampSequence the stamp sequence
+    * @return the stamp
+    * @throws NoSuchElementException if no stamp is held for the stamp sequence
+    */
+   public Stamp getStamp(int stampSequence) {
+      final Spine spine = getPresentSpine(stampSequence);
+      final int index = stampSequence & SPINE_MASK;
+      while (true) {
+         final int version = beginRead(spine, index);
+         final Status status = STATUS_VALUES[spine.status[index] - 1];
+         final long time = spine.time[index];
+         final int authorNid = spine.authorNid[index];
+         final int moduleNid = spine.moduleNid[index];
+         final int pathNid = spine.pathNid[index];
+         if (endRead(spine, index, version)) {
+            return new Stamp(status, time, authorNid, moduleNid, pathNid);
+         }
+      }
+   }
+
+   /**
+    * @param stampSequence the stamp sequence
+    * @return the status of the stamp
+    * @throws NoSuchElementException if no stamp is held for the stamp sequence
+    */
+   public Status getStatus(int stampSequence) {
+      return STATUS_VALUES[getPresentSpine(stampSequence).status[stampSequence & SPINE_MASK] - 1];
+   }
+
+   /**
+    * @param stampSequence the stamp sequence
+    * @return the time of the stamp
+    * @throws NoSuchElementException if no stamp is held for the stamp sequence
+    */
+   public long getTime(int stampSequence) {
+      return readTime(getPresentSpine(stampSequence), stampSequence & SPINE_MASK);
+   }
+
+   /**
+    * @param stampSequence the stamp sequence
+    * @return the author nid of the stamp
+    * @throws NoSuchElementException if no stamp is held for the stamp sequence
+    */
+   public int getAuthorNid(int stampSequence) {
+      return getPresentSpine(stampSequence).authorNid[stampSequence & SPINE_MASK];
+   }
+
+   /**
+    * @param stampSequence the stamp sequence
+    * @return the module nid of the stamp
+    * @throws NoSuchElementException if no stamp is held for the stamp sequence
+    */
+   public int getModuleNid(int stampSequence) {
+      return getPresentSpine(stampSequence).moduleNid[stampSequence & SPINE_MASK];
+   }
+
+   /**
+    * @param stampSequence the stamp sequence
+    * @return the path nid of the stamp
+    * @throws NoSuchElementException if no stamp is held for the stamp sequence
+    */
+   public int getPathNid(int stampSequence) {
+      return getPresentSpine(stampSequence).pathNid[stampSequence & SPINE_MASK];
+   }
+
+   /**
+    * Bulk read of the times of stamps.
+    *
+    * @param stampSequences the stamp sequences
+    * @param times receives the time of each stamp, at the index of the stamp in stampSequences
+    * @param absent provides the time of a stamp that is not held
+    */
+   public void getTimes(int[] stampSequences, long[] times, IntToLongFunction absent) {
+      final Spine[] current = this.spines;
+      for (int i = 0; i < stampSequences.length; i++) {
+         final Spine spine = getHeldSpine(current, stampSequences[i]);
+         times[i] = spine == null ? absent.applyAsLong(stampSequences[i]) : readTime(spine, stampSequences[i] & SPINE_MASK);
+      }
+   }
+
+   /**
+    * Bulk read of the author nids of stamps.
+    *
+    * @param stampSequences the stamp sequences
+    * @param authorNids receives the author nid of each stamp, at the index of the stamp in stampSequences
+    * @param absent provides the author nid of a stamp that is not held
+    */
+   public void getAuthorNids(int[] stampSequences, int[] authorNids, IntUnaryOperator absent) {
+      final Spine[] current = this.spines;
+      for (int i = 0; i < stampSequences.length; i++) {
+         final Spine spine = getHeldSpine(current, stampSequences[i]);
+         authorNids[i] = spine == null ? absent.applyAsInt(stampSequences[i]) : spine.authorNid[stampSequences[i] & SPINE_MASK];
+      }
+   }
+
+   /**
+    * Bulk read of the module nids of stamps.
+    *
+    * @param stampSequences the stamp sequences
+    * @param moduleNids receives the module nid of each stamp, at the index of the stamp in stampSequences
+    * @param absent provides the module nid of a stamp that is not held
+    */
+   public void getModuleNids(int[] stampSequences, int[] moduleNids, IntUnaryOperator absent) {
+      final Spine[] current = this.spines;
+      for (int i = 0; i < stampSequences.length; i++) {
+         final Spine spine = getHeldSpine(current, stampSequences[i]);
+         moduleNids[i] = spine == null ? absent.applyAsInt(stampSequences[i]) : spine.moduleNid[stampSequences[i] & SPINE_MASK];
+      }
+   }
+
+   /**
+    * Bulk read of the path nids of stamps.
+    *
+    * @param stampSequences the stamp sequences
+    * @param pathNids receives the path nid of each stamp, at the index of the stamp in stampSequences
+    * @param absent provides the path nid of a stamp that is not held
+    */
+   public void getPathNids(int[] stampSequences, int[] pathNids, IntUnaryOperator absent) {
+      final Spine[] current = this.spines;
+      for (int i = 0; i < stampSequences.length; i++) {
+         final Spine spine = getHeldSpine(current, stampSequences[i]);
+         pathNids[i] = spine == null ? absent.applyAsInt(stampSequences[i]) : spine.pathNid[stampSequences[i] & SPINE_MASK];
+      }
+   }
+
+   private Spine getSpine(int stampSequence) {
+      final Spine[] current = this.spines;
+      final int spineIndex = stampSequence >>> SPINE_SHIFT;
+      return spineIndex < current.length ? current[spineIndex] : null;
+   }
+
+   /**
+    * @return the spine of the stamp sequence, or null if no stamp is held for it
+    */
+   private static Spine getHeldSpine(Spine[] current, int stampSequence) {
+      final int spineIndex = stampSequence >>> SPINE_SHIFT;
+      if (spineIndex >= current.length
+            || ((byte) STATUS_HANDLE.getAcquire(current[spineIndex].status, stampSequence & SPINE_MASK)) == 0) {
+         return null;
+      }
+      return current[spineIndex];
+   }
+
+   private static long readTime(Spine spine, int index) {
+      while (true) {
+         final int version = beginRead(spine, index);
+         final long time = spine.time[index];
+         if (endRead(spine, index, version)) {
+            return time;
+         }
+      }
+   }
+
+   /**
+    * @return the version of the stamp, once no write of it is in progress
+    */
+   private static int beginRead(Spine spine, int index) {
+      int version = (int) VERSION_HANDLE.getAcquire(spine.version, index);
+      while ((version & 1) != 0) {
+         Thread.onSpinWait();
+         version = (int) VERSION_HANDLE.getAcquire(spine.version, index);
+      }
+      return version;
+   }
+
+   /**
+    * @return true, if the stamp was not written since its version was read, so the attributes read are consistent
+    */
+   private static boolean endRead(Spine spine, int index, int version) {
+      VarHandle.loadLoadFence();
+      return ((int) VERSION_HANDLE.getOpaque(spine.version, index)) == version;
+   }
+
+   private Spine getPresentSpine(int stampSequence) {
+      final Spine spine = getSpine(stampSequence);
+      if (spine == null || ((byte) STATUS_HANDLE.getAcquire(spine.status, stampSequence & SPINE_MASK)) == 0) {
+         throw new NoSuchElementException("No stampSequence found: " + stampSequence);
+      }
+      return spine;
+   }
+
+   private Spine getSpineForWrite(int spineIndex) {
+      Spine[] current = this.spines;
+      if (spineIndex >= current.length) {
+         synchronized (this) {
+            current = this.spines;
+            if (spineIndex >= current.length) {
+               final Spine[] grown = Arrays.copyOf(current, spineIndex + 1);
+               for (int i = current.length; i < grown.length; i++) {
+                  grown[i] = new Spine();
+               }
+               this.spines = grown;
+               current = grown;
+            }
+         }
+      }
+      return current[spineIndex];
+   }
+
+   //~--- inner classes -------------------------------------------------------
+
+   /**
+    * The columns of one spine of stamps. A status of 0 marks an absent stamp, otherwise the status is the
+    * ordinal of the {@link Status} plus one. The version of a stamp is odd while it is written.
+    */
+   private static class Spine {
+      final long[] time = new long[SPINE_SIZE];
+      final int[] authorNid = new int[SPINE_SIZE];
+      final int[] moduleNid = new int[SPINE_SIZE];
+      final int[] pathNid = new int[SPINE_SIZE];
+      final byte[] status = new byte[SPINE_SIZE];
+      final int[] version = new int[SPINE_SIZE];
+   }
+}
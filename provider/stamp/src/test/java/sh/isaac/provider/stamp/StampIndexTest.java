@@ -0,0 +1,156 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ *
+ * You may not use this file except in compliance with the License.
+ *
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package sh.isaac.provider.stamp;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+import sh.isaac.api.Status;
+
+/**
+ * Lookups in a {@link StampIndex}, including lookups made while another thread puts stamps and grows it, checked again
+ * under the lock that serializes the puts as the stamp provider does.
+ */
+public class StampIndexTest {
+
+    @Test
+    public void testPutAndGet() {
+        StampTable table = new StampTable();
+        StampIndex index = new StampIndex(table);
+        Assert.assertEquals(index.get(Status.ACTIVE, 1, -1, -2, -3), StampIndex.NO_SEQUENCE);
+
+        put(table, index, 1);
+        put(table, index, 2);
+        Assert.assertEquals(get(index, 1), 1);
+        Assert.assertEquals(get(index, 2), 2);
+        Assert.assertEquals(index.get(Status.INACTIVE, time(1), author(1), -2, -3), StampIndex.NO_SEQUENCE);
+
+        // A stamp sequence put again with other attributes is found by the new attributes only
+        table.put(2, status(3), time(3), author(3), -2, -3);
+        index.put(2);
+        Assert.assertEquals(get(index, 3), 2);
+        Assert.assertEquals(get(index, 2), StampIndex.NO_SEQUENCE);
+
+        index.clear();
+        Assert.assertEquals(get(index, 1), StampIndex.NO_SEQUENCE);
+    }
+
+    @Test
+    public void testGrow() {
+        StampTable table = new StampTable();
+        StampIndex index = new StampIndex(table);
+        for (int stampSequence = 1; stampSequence <= 100_000; stampSequence++) {
+            put(table, index, stampSequence);
+        }
+        for (int stampSequence = 1; stampSequence <= 100_000; stampSequence++) {
+            Assert.assertEquals(get(index, stampSequence), stampSequence);
+        }
+        Assert.assertEquals(get(index, 100_001), StampIndex.NO_SEQUENCE);
+    }
+
+    @Test
+    public void testGetWhileGrowing() throws Exception {
+        StampTable table = new StampTable();
+        StampIndex index = new StampIndex(table);
+        ReentrantLock lock = new ReentrantLock();
+        AtomicInteger published = new AtomicInteger();
+        int stampCount = 200_000;
+        int readers = 4;
+        ExecutorService executor = Executors.newFixedThreadPool(readers + 1);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<Integer>> futures = new ArrayList<>();
+            futures.add(executor.submit(() -> {
+                start.await();
+                for (int stampSequence = 1; stampSequence <= stampCount; stampSequence++) {
+                    lock.lock();
+                    try {
+                        put(table, index, stampSequence);
+                    } finally {
+                        lock.unlock();
+                    }
+                    published.set(stampSequence);
+                }
+                return stampCount;
+            }));
+            for (int reader = 0; reader < readers; reader++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    int lookups = 0;
+                    while (published.get() < stampCount) {
+                        int stampSequence = 1 + ThreadLocalRandom.current().nextInt(Math.max(1, published.get()));
+                        if (stampSequence > published.get()) {
+                            continue;
+                        }
+                        int found = get(index, stampSequence);
+                        if (found == StampIndex.NO_SEQUENCE) {
+                            // A miss while the index grows is found again under the lock
+                            lock.lock();
+                            try {
+                                found = get(index, stampSequence);
+                            } finally {
+                                lock.unlock();
+                            }
+                        }
+                        Assert.assertEquals(found, stampSequence);
+                        Assert.assertEquals(get(index, stampCount + 1), StampIndex.NO_SEQUENCE);
+                        lookups++;
+                    }
+                    return lookups;
+                }));
+            }
+            start.countDown();
+            for (Future<Integer> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        for (int stampSequence = 1; stampSequence <= stampCount; stampSequence++) {
+            Assert.assertEquals(get(index, stampSequence), stampSequence);
+        }
+    }
+
+    private static void put(StampTable table, StampIndex index, int stampSequence) {
+        table.put(stampSequence, status(stampSequence), time(stampSequence), author(stampSequence), -2, -3);
+        index.put(stampSequence);
+    }
+
+    private static int get(StampIndex index, int stampSequence) {
+        return index.get(status(stampSequence), time(stampSequence), author(stampSequence), -2, -3);
+    }
+
+    private static Status status(int stampSequence) {
+        return stampSequence % 3 == 0 ? Status.INACTIVE : Status.ACTIVE;
+    }
+
+    private static long time(int stampSequence) {
+        return 1_500_000_000_000L + stampSequence;
+    }
+
+    private static int author(int stampSequence) {
+        return -1 - (stampSequence % 7);
+    }
+}
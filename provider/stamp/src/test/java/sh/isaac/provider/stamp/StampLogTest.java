@@ -0,0 +1,440 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ *
+ * You may not use this file except in compliance with the License.
+ *
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package sh.isaac.provider.stamp;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+import sh.isaac.api.Status;
+import sh.isaac.api.commit.Stamp;
+import sh.isaac.api.commit.UncommittedStamp;
+import sh.isaac.api.util.RecursiveDelete;
+
+/**
+ * Writes stamps to a {@link StampLog}, and reads them back into a new table and index, as the stamp provider does when
+ * it starts: after a partial record, after compaction, after failed writes and compactions, and after an upgrade from
+ * the file written before the log.
+ */
+public class StampLogTest {
+
+    private static final int RECORD_BYTES = 25;
+    private static final int HEADER_BYTES = 8;
+
+    private File directory;
+    private Path logPath;
+
+    @BeforeMethod
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("stamp-log").toFile();
+        logPath = directory.toPath().resolve("stamp-manager.log");
+    }
+
+    @AfterMethod
+    public void tearDown() throws IOException {
+        RecursiveDelete.delete(directory);
+    }
+
+    @Test
+    public void testReopen() throws IOException {
+        StampTable table = new StampTable();
+        StampLog log = new StampLog(logPath);
+        Assert.assertEquals(log.open(table, new StampIndex(table)), 0);
+        for (int stampSequence = 1; stampSequence <= 100; stampSequence++) {
+            put(table, log, stampSequence, stamp(stampSequence));
+        }
+        log.flush(table);
+        log.close();
+
+        Reopened reopened = new Reopened();
+        Assert.assertEquals(reopened.maxStampSequence, 100);
+        Assert.assertEquals(reopened.log.getRecordCount(), 100);
+        assertStamps(reopened, table, 100);
+        reopened.log.close();
+    }
+
+    @Test
+    public void testOpenAfterPartialRecord() throws IOException {
+        StampTable table = new StampTable();
+        StampLog log = new StampLog(logPath);
+        log.open(table, new StampIndex(table));
+        for (int stampSequence = 1; stampSequence <= 3; stampSequence++) {
+            put(table, log, stampSequence, stamp(stampSequence));
+        }
+        log.flush(table);
+        log.close();
+
+        // An interrupted write of a fourth record
+        try (FileChannel channel = FileChannel.open(logPath, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            channel.write(ByteBuffer.wrap(new byte[RECORD_BYTES - 1]));
+        }
+
+        Reopened reopened = new Reopened();
+        Assert.assertEquals(reopened.maxStampSequence, 3);
+        Assert.assertEquals(reopened.log.getRecordCount(), 3);
+        Assert.assertEquals(Files.size(logPath), HEADER_BYTES + 3L * RECORD_BYTES);
+        assertStamps(reopened, table, 3);
+
+        // Records appended after the partial record was discarded read back with the others
+        put(reopened.table, reopened.log, 4, stamp(4));
+        put(table, null, 4, stamp(4));
+        reopened.log.flush(reopened.table);
+        reopened.log.close();
+
+        reopened = new Reopened();
+        Assert.assertEquals(reopened.maxStampSequence, 4);
+        assertStamps(reopened, table, 4);
+        reopened.log.close();
+    }
+
+    @Test
+    public void testCompactThenReopen() throws IOException {
+        StampTable table = new StampTable();
+        StampLog log = new StampLog(logPath);
+        log.open(table, new StampIndex(table));
+        for (int stampSequence = 1; stampSequence <= 10; stampSequence++) {
+            put(table, log, stampSequence, stamp(stampSequence));
+        }
+        // Later records for the same stamp sequences replace the earlier ones
+        for (int time = 1; time <= 5; time++) {
+            put(table, log, 2, new Stamp(Status.INACTIVE, 1000L + time, -1, -2, -3));
+        }
+        // An uncommitted stamp is not compacted
+        put(table, log, 11, new Stamp(Status.ACTIVE, Long.MAX_VALUE, -1, -2, -3));
+        log.flush(table);
+        Assert.assertEquals(log.getRecordCount(), 16);
+
+        log.compact(table, 12);
+        Assert.assertEquals(log.getRecordCount(), 10);
+        Assert.assertEquals(Files.size(logPath), HEADER_BYTES + 10L * RECORD_BYTES);
+        Assert.assertFalse(Files.exists(logPath.resolveSibling(logPath.getFileName() + ".compact")));
+
+        // The compacted log is appended to
+        put(table, log, 12, stamp(12));
+        log.flush(table);
+        log.close();
+
+        Reopened reopened = new Reopened();
+        Assert.assertEquals(reopened.maxStampSequence, 12);
+        Assert.assertEquals(reopened.log.getRecordCount(), 11);
+        Assert.assertEquals(reopened.table.getStamp(2), new Stamp(Status.INACTIVE, 1005L, -1, -2, -3));
+        Assert.assertFalse(reopened.table.contains(11));
+        for (int stampSequence : new int[]{1, 2, 3, 10, 12}) {
+            Assert.assertEquals(reopened.table.getStamp(stampSequence), table.getStamp(stampSequence));
+        }
+        Assert.assertEquals(reopened.index.get(Status.INACTIVE, 1005L, -1, -2, -3), 2);
+        reopened.log.close();
+    }
+
+    @Test
+    public void testUpgradeFromLegacyFile() throws IOException {
+        Path legacyPath = directory.toPath().resolve("stamp-manager.data");
+        UncommittedStamp uncommittedStamp = new UncommittedStamp(Status.ACTIVE, -1, -2, -3);
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(legacyPath)))) {
+            out.writeInt(21);
+            out.writeInt(19);
+            for (int stampSequence = 1; stampSequence <= 19; stampSequence++) {
+                Stamp stamp = stamp(stampSequence);
+                out.writeInt(stampSequence);
+                out.writeUTF(stamp.getStatus().name());
+                out.writeLong(stamp.getTime());
+                out.writeInt(stamp.getAuthorNid());
+                out.writeInt(stamp.getModuleNid());
+                out.writeInt(stamp.getPathNid());
+            }
+            out.writeInt(1);
+            uncommittedStamp.write(out);
+            out.writeInt(20);
+        }
+
+        StampTable table = new StampTable();
+        StampIndex index = new StampIndex(table);
+        Map<UncommittedStamp, Integer> uncommitted = new HashMap<>();
+        Assert.assertEquals(StampProvider.readLegacyData(legacyPath, table, index, uncommitted), 21);
+        Assert.assertEquals(uncommitted, Map.of(uncommittedStamp, 20));
+        Assert.assertEquals(table.size(), 19);
+        Assert.assertEquals(index.get(Status.INACTIVE, 1002L, -4, -5, -6), 2);
+
+        // As the provider upgrades: the log does not exist yet, so it is created empty, and the legacy stamps are
+        // compacted into it
+        StampLog log = new StampLog(logPath);
+        Assert.assertEquals(log.open(table, index), 0);
+        log.compact(table, 21);
+        log.close();
+
+        Reopened reopened = new Reopened();
+        Assert.assertEquals(reopened.maxStampSequence, 19);
+        assertStamps(reopened, table, 19);
+        reopened.log.close();
+    }
+
+    @Test
+    public void testFailedFlushIsRetried() throws IOException {
+        StampTable table = new StampTable();
+        StampLog log = new StampLog(logPath);
+        log.open(table, new StampIndex(table));
+        put(table, log, 1, stamp(1));
+        log.flush(table);
+        log.close();
+
+        FailingStampLog failing = new FailingStampLog();
+        StampTable readTable = new StampTable();
+        failing.open(readTable, new StampIndex(readTable));
+        for (int stampSequence = 2; stampSequence <= 4; stampSequence++) {
+            put(table, failing, stampSequence, stamp(stampSequence));
+        }
+        failing.channel.failWrites = true;
+        Assert.assertThrows(IOException.class, () -> failing.flush(table));
+        // The part of a record written before the failure is removed
+        Assert.assertEquals(Files.size(logPath), HEADER_BYTES + RECORD_BYTES);
+        Assert.assertEquals(failing.getRecordCount(), 1);
+
+        failing.channel.failWrites = false;
+        put(table, failing, 5, stamp(5));
+        failing.flush(table);
+        Assert.assertEquals(failing.getRecordCount(), 5);
+        failing.close();
+
+        Reopened reopened = new Reopened();
+        Assert.assertEquals(reopened.maxStampSequence, 5);
+        Assert.assertEquals(reopened.log.getRecordCount(), 5);
+        assertStamps(reopened, table, 5);
+        reopened.log.close();
+    }
+
+    @Test
+    public void testFailedCompactLeavesLogOpen() throws IOException {
+        StampTable table = new StampTable();
+        StampLog log = new StampLog(logPath);
+        log.open(table, new StampIndex(table));
+        put(table, log, 1, stamp(1));
+        put(table, log, 1, stamp(1));
+        log.flush(table);
+        log.close();
+
+        FailingStampLog failing = new FailingStampLog();
+        StampTable readTable = new StampTable();
+        failing.open(readTable, new StampIndex(readTable));
+        put(table, failing, 2, stamp(2));
+        failing.failReplace = true;
+        Assert.assertThrows(IOException.class, () -> failing.compact(table, 3));
+        Assert.assertEquals(failing.getRecordCount(), 2);
+
+        // The current log is still open, and the stamp recorded before the compaction is still written
+        failing.failReplace = false;
+        put(table, failing, 3, stamp(3));
+        failing.flush(table);
+        Assert.assertEquals(failing.getRecordCount(), 4);
+        failing.compact(table, 4);
+        Assert.assertEquals(failing.getRecordCount(), 3);
+        put(table, failing, 4, stamp(4));
+        failing.flush(table);
+        failing.close();
+
+        Reopened reopened = new Reopened();
+        Assert.assertEquals(reopened.maxStampSequence, 4);
+        Assert.assertEquals(reopened.log.getRecordCount(), 4);
+        assertStamps(reopened, table, 4);
+        reopened.log.close();
+    }
+
+    /**
+     * Distinct stamps, half of them inactive, with negative nids.
+     */
+    private static Stamp stamp(int stampSequence) {
+        return new Stamp(stampSequence % 2 == 0 ? Status.INACTIVE : Status.ACTIVE, 1000L + stampSequence,
+                -stampSequence - 2, -5, -6);
+    }
+
+    private static void put(StampTable table, StampLog log, int stampSequence, Stamp stamp) {
+        table.put(stampSequence, stamp);
+        if (log != null) {
+            log.append(stampSequence);
+        }
+    }
+
+    private static void assertStamps(Reopened reopened, StampTable expected, int stampCount) {
+        Assert.assertEquals(reopened.table.size(), stampCount);
+        for (int stampSequence = 1; stampSequence <= stampCount; stampSequence++) {
+            Stamp stamp = expected.getStamp(stampSequence);
+            Assert.assertEquals(reopened.table.getStamp(stampSequence), stamp);
+            Assert.assertEquals(reopened.index.get(stamp.getStatus(), stamp.getTime(), stamp.getAuthorNid(),
+                    stamp.getModuleNid(), stamp.getPathNid()), stampSequence);
+        }
+    }
+
+    /**
+     * A log whose channel fails writes, and which fails to replace the log with a compacted one, on request. A failed
+     * write writes part of the buffer first, as a write interrupted by a full disk may.
+     */
+    private class FailingStampLog extends StampLog {
+
+        private FailingChannel channel;
+        private boolean failReplace;
+
+        FailingStampLog() {
+            super(logPath);
+        }
+
+        @Override
+        FileChannel openChannel(Path path) throws IOException {
+            channel = new FailingChannel(super.openChannel(path));
+            return channel;
+        }
+
+        @Override
+        void replaceLog(Path compactPath) throws IOException {
+            if (failReplace) {
+                throw new IOException("Simulated move failure");
+            }
+            super.replaceLog(compactPath);
+        }
+    }
+
+    private static class FailingChannel extends FileChannel {
+
+        private final FileChannel delegate;
+        private volatile boolean failWrites;
+
+        FailingChannel(FileChannel delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public int write(ByteBuffer src) throws IOException {
+            if (failWrites) {
+                ByteBuffer part = src.duplicate();
+                part.limit(part.position() + Math.min(3, part.remaining()));
+                src.position(src.position() + delegate.write(part));
+                throw new IOException("Simulated write failure");
+            }
+            return delegate.write(src);
+        }
+
+        @Override
+        public void force(boolean metaData) throws IOException {
+            delegate.force(metaData);
+        }
+
+        @Override
+        public int read(ByteBuffer dst) throws IOException {
+            return delegate.read(dst);
+        }
+
+        @Override
+        public long read(ByteBuffer[] dsts, int offset, int length) throws IOException {
+            return delegate.read(dsts, offset, length);
+        }
+
+        @Override
+        public long write(ByteBuffer[] srcs, int offset, int length) throws IOException {
+            return delegate.write(srcs, offset, length);
+        }
+
+        @Override
+        public long position() throws IOException {
+            return delegate.position();
+        }
+
+        @Override
+        public FileChannel position(long newPosition) throws IOException {
+            delegate.position(newPosition);
+            return this;
+        }
+
+        @Override
+        public long size() throws IOException {
+            return delegate.size();
+        }
+
+        @Override
+        public FileChannel truncate(long size) throws IOException {
+            delegate.truncate(size);
+            return this;
+        }
+
+        @Override
+        public long transferTo(long position, long count, WritableByteChannel target) throws IOException {
+            return delegate.transferTo(position, count, target);
+        }
+
+        @Override
+        public long transferFrom(ReadableByteChannel src, long position, long count) throws IOException {
+            return delegate.transferFrom(src, position, count);
+        }
+
+        @Override
+        public int read(ByteBuffer dst, long position) throws IOException {
+            return delegate.read(dst, position);
+        }
+
+        @Override
+        public int write(ByteBuffer src, long position) throws IOException {
+            return delegate.write(src, position);
+        }
+
+        @Override
+        public MappedByteBuffer map(MapMode mode, long position, long size) throws IOException {
+            return delegate.map(mode, position, size);
+        }
+
+        @Override
+        public FileLock lock(long position, long size, boolean shared) throws IOException {
+            return delegate.lock(position, size, shared);
+        }
+
+        @Override
+        public FileLock tryLock(long position, long size, boolean shared) throws IOException {
+            return delegate.tryLock(position, size, shared);
+        }
+
+        @Override
+        protected void implCloseChannel() throws IOException {
+            delegate.close();
+        }
+    }
+
+    /**
+     * The log opened again into a new table and index.
+     */
+    private class Reopened {
+
+        final StampTable table = new StampTable();
+        final StampIndex index = new StampIndex(table);
+        final StampLog log = new StampLog(logPath);
+        final int maxStampSequence;
+
+        Reopened() throws IOException {
+            maxStampSequence = log.open(table, index);
+        }
+    }
+}
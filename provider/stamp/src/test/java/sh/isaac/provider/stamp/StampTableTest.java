@@ -0,0 +1,111 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ *
+ * You may not use this file except in compliance with the License.
+ *
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package sh.isaac.provider.stamp;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+import sh.isaac.api.Status;
+import sh.isaac.api.commit.Stamp;
+
+/**
+ * Reads of a {@link StampTable}: the bulk reads, the size, and reads of a stamp while it is written again at the same
+ * stamp sequence, as an uncommitted stamp is when it is committed.
+ */
+public class StampTableTest {
+
+    @Test
+    public void testBulkReads() {
+        StampTable table = new StampTable();
+        table.put(1, new Stamp(Status.ACTIVE, 1001L, -1, -2, -3));
+        table.put(20_000, new Stamp(Status.INACTIVE, 1002L, -4, -5, -6));
+        int[] stampSequences = {20_000, -1, 1, 2, 100_000};
+
+        long[] times = new long[stampSequences.length];
+        table.getTimes(stampSequences, times, stampSequence -> stampSequence * 10L);
+        Assert.assertEquals(times, new long[]{1002L, -10L, 1001L, 20L, 1_000_000L});
+
+        int[] nids = new int[stampSequences.length];
+        table.getAuthorNids(stampSequences, nids, stampSequence -> stampSequence);
+        Assert.assertEquals(nids, new int[]{-4, -1, -1, 2, 100_000});
+        table.getModuleNids(stampSequences, nids, stampSequence -> stampSequence);
+        Assert.assertEquals(nids, new int[]{-5, -1, -2, 2, 100_000});
+        table.getPathNids(stampSequences, nids, stampSequence -> stampSequence);
+        Assert.assertEquals(nids, new int[]{-6, -1, -3, 2, 100_000});
+    }
+
+    @Test
+    public void testSize() {
+        StampTable table = new StampTable();
+        Assert.assertEquals(table.size(), 0);
+        table.put(1, new Stamp(Status.ACTIVE, Long.MAX_VALUE, -1, -2, -3));
+        table.put(20_000, new Stamp(Status.INACTIVE, 1002L, -4, -5, -6));
+        Assert.assertEquals(table.size(), 2);
+
+        // A stamp written again at the same stamp sequence is not counted again
+        table.put(1, new Stamp(Status.ACTIVE, 1001L, -1, -2, -3));
+        Assert.assertEquals(table.size(), 2);
+
+        table.clear();
+        Assert.assertEquals(table.size(), 0);
+        table.put(1, new Stamp(Status.ACTIVE, 1001L, -1, -2, -3));
+        Assert.assertEquals(table.size(), 1);
+    }
+
+    @Test
+    public void testOverwriteIsReadConsistently() throws Exception {
+        StampTable table = new StampTable();
+        Stamp uncommitted = new Stamp(Status.ACTIVE, Long.MAX_VALUE, -1, -2, -3);
+        Stamp committed = new Stamp(Status.INACTIVE, 1_500_000_000_000L, -4, -5, -6);
+        table.put(1, uncommitted);
+        AtomicBoolean writing = new AtomicBoolean(true);
+        int readers = 3;
+        ExecutorService executor = Executors.newFixedThreadPool(readers + 1);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            futures.add(executor.submit(() -> {
+                for (int write = 0; write < 2_000_000; write++) {
+                    table.put(1, write % 2 == 0 ? committed : uncommitted);
+                }
+                writing.set(false);
+            }));
+            for (int reader = 0; reader < readers; reader++) {
+                futures.add(executor.submit(() -> {
+                    while (writing.get()) {
+                        Stamp stamp = table.getStamp(1);
+                        Assert.assertTrue(stamp.equals(uncommitted) || stamp.equals(committed));
+                        // The new time is never matched with the old attributes, nor the old time with the new
+                        Assert.assertFalse(table.matches(1, Status.ACTIVE, 1_500_000_000_000L, -1, -2, -3));
+                        Assert.assertFalse(table.matches(1, Status.INACTIVE, Long.MAX_VALUE, -4, -5, -6));
+                        Assert.assertNotEquals(table.getTime(1), 0L);
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        Assert.assertEquals(table.getStamp(1), uncommitted);
+    }
+}
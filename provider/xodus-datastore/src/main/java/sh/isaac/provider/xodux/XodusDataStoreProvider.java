@@ -22,14 +22,16 @@ import java.lang.reflect.Method;
 import java.nio.ByteBuffer;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Optional;
 import java.util.OptionalInt;
 import java.util.Spliterator;
 import java.util.Spliterator.OfInt;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.Future;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
@@ -37,6 +39,7 @@ import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.BinaryOperator;
 import java.util.function.IntConsumer;
+import java.util.function.ObjIntConsumer;
 import java.util.function.Supplier;
 import java.util.stream.IntStream;
 import java.util.stream.StreamSupport;
@@ -102,7 +105,7 @@ public class XodusDataStoreProvider implements DataStoreSubService
 	private DataStoreStartState datastoreStartState = DataStoreStartState.NOT_YET_CHECKED;
 	private Optional<UUID> dataStoreId = Optional.empty();
 
-	private ArrayList<DataWriteListener> writeListeners = new ArrayList<>();
+	private final List<DataWriteListener> writeListeners = new CopyOnWriteArrayList<>();
 
 	private final String COMPONENT_TO_SEMANTIC_NIDS_MAP = "componentToSemanticNidsMap";
 	private final String NID_TO_ASSEMBLAGE_NID_MAP = "nidToAssemblageNidMap";
@@ -494,41 +497,76 @@ public class XodusDataStoreProvider implements DataStoreSubService
 		}
 		Store assemblageToChronicle = getStore(getEnvIdForItem(assemblageId.getAsInt(), nid), CHRONICLE, false);
 		Store assemblageToVersion = getStore(getEnvIdForItem(assemblageId.getAsInt(), nid), VERSION, true);
-		ArrayByteIterable computedKey = nidToIterable(nid);
-		
-		ByteArrayDataBuffer badb = new ByteArrayDataBuffer();
 		
 		Transaction txn = assemblageToChronicle.getEnvironment().beginReadonlyTransaction();
 		try
 		{
-			ByteIterable bi = assemblageToChronicle.get(txn, computedKey);
-			if (bi != null)
+			return readChronologyVersionData(txn, assemblageToChronicle, assemblageToVersion, nid);
+		}
+		finally
+		{
+			txn.abort();
+		}
+	}
+	
+	/**
+	 * Reads all of the nids within one read only transaction per environment, rather than one per nid.
+	 */
+	@Override
+	public void getChronologyVersionData(int[] nids, ObjIntConsumer<ByteArrayDataBuffer> consumer)
+	{
+		HashMap<Environment, Transaction> transactions = new HashMap<>();
+		try
+		{
+			for (int nid : nids)
 			{
-				
-				Iterator byteIterator = new ArrayByteIterable(bi).iterator();
-				while (byteIterator.hasNext())
+				OptionalInt assemblageId = getAssemblageOfNid(nid);
+				if (assemblageId.isPresent())
 				{
-					badb.putByte(byteIterator.next());
+					Store assemblageToChronicle = getStore(getEnvIdForItem(assemblageId.getAsInt(), nid), CHRONICLE, false);
+					Store assemblageToVersion = getStore(getEnvIdForItem(assemblageId.getAsInt(), nid), VERSION, true);
+					Transaction txn = transactions.computeIfAbsent(assemblageToChronicle.getEnvironment(), 
+							env -> env.beginReadonlyTransaction());
+					Optional<ByteArrayDataBuffer> data = readChronologyVersionData(txn, assemblageToChronicle, assemblageToVersion, nid);
+					if (data.isPresent())
+					{
+						consumer.accept(data.get(), nid);
+					}
 				}
 			}
-			else
-			{
-				return Optional.empty();
-			}
 		}
 		finally
 		{
-			txn.abort();
+			transactions.values().forEach(txn -> txn.abort());
 		}
+	}
+	
+	private Optional<ByteArrayDataBuffer> readChronologyVersionData(Transaction txn, Store assemblageToChronicle, Store assemblageToVersion, int nid)
+	{
+		ArrayByteIterable computedKey = nidToIterable(nid);
 		
-		txn = assemblageToVersion.getEnvironment().beginReadonlyTransaction();
+		ByteArrayDataBuffer badb = new ByteArrayDataBuffer();
+		
+		ByteIterable bi = assemblageToChronicle.get(txn, computedKey);
+		if (bi != null)
+		{
+			Iterator byteIterator = new ArrayByteIterable(bi).iterator();
+			while (byteIterator.hasNext())
+			{
+				badb.putByte(byteIterator.next());
+			}
+		}
+		else
+		{
+			return Optional.empty();
+		}
 		
 		try (Cursor cursor = assemblageToVersion.openCursor(txn))
 		{
-			final ByteIterable bi = cursor.getSearchKey(computedKey);
-			if (bi != null)
+			final ByteIterable versionBi = cursor.getSearchKey(computedKey);
+			if (versionBi != null)
 			{
-				Iterator byteIterator = new ArrayByteIterable(bi).iterator();
+				Iterator byteIterator = new ArrayByteIterable(versionBi).iterator();
 				while (byteIterator.hasNext())
 				{
 					badb.putByte(byteIterator.next());
@@ -549,10 +587,6 @@ public class XodusDataStoreProvider implements DataStoreSubService
 				throw new RuntimeException("Should be impossible to have chronicle data with no version data");
 			}
 		}
-		finally
-		{
-			txn.abort();
-		}
 		
 		badb.trimToSize();
 		badb.flip();
@@ -585,6 +619,40 @@ public class XodusDataStoreProvider implements DataStoreSubService
 		txn.abort();
 		return results.asArray();
 	}
+	
+	/**
+	 * Reads all of the components within one read only transaction.
+	 */
+	@Override
+	public int[][] getSemanticNidsForComponents(int[] componentNids)
+	{
+		Store componentToSemanticNidsMap = getStore(COMPONENT_TO_SEMANTIC_NIDS_MAP, true);
+		int[][] results = new int[componentNids.length][];
+
+		Transaction txn = componentToSemanticNidsMap.getEnvironment().beginReadonlyTransaction();
+		try (Cursor cursor = componentToSemanticNidsMap.openCursor(txn))
+		{
+			for (int i = 0; i < componentNids.length; i++)
+			{
+				NidSet semanticNids = new NidSet();
+				final ByteIterable v = cursor.getSearchKey(nidToIterable(componentNids[i]));
+				if (v != null)
+				{
+					semanticNids.add(compressedByteIterableToNid(v));
+					while (cursor.getNextDup())
+					{
+						semanticNids.add(compressedByteIterableToNid(cursor.getValue()));
+					}
+				}
+				results[i] = semanticNids.asArray();
+			}
+		}
+		finally
+		{
+			txn.abort();
+		}
+		return results;
+	}
 
 	@Override
 	public int getAssemblageMemoryInUse(int assemblageNid)
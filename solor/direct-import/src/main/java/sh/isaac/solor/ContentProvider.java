@@ -20,8 +20,10 @@ import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.nio.charset.Charset;
+import java.nio.file.FileSystems;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.Optional;
 import java.util.function.Supplier;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipFile;
@@ -36,10 +38,12 @@ public class ContentProvider implements Supplier<ContentStreamProvider>
 	String streamSourceName;
 	Supplier<ContentStreamProvider> contentStream;
 	private Supplier<byte[]> itemByteSupplier;
+	private Path path;
 
 	public ContentProvider(Path path)
 	{
 		this.streamSourceName = path.toString();
+		this.path = path;
 		this.contentStream = () -> new ContentStreamProvider()
 		{
 			@Override
@@ -158,6 +162,19 @@ public class ContentProvider implements Supplier<ContentStreamProvider>
 		return streamSourceName;
 	}
 
+	/**
+	 * @return the path of the content, if it is an uncompressed file on the default file system, which may be read
+	 * directly, rather than through {@link #get()}
+	 */
+	public Optional<Path> getPath()
+	{
+		if (path != null && path.getFileSystem() == FileSystems.getDefault() && Files.isRegularFile(path))
+		{
+			return Optional.of(path);
+		}
+		return Optional.empty();
+	}
+
 	/** 
 	 * {@inheritDoc}
 	 */
@@ -0,0 +1,341 @@
+/*
+ * Copyright 2019 Organizations participating in ISAAC, ISAAC's KOMET, and SOLOR development include the
+         US Veterans Health Administration, OSHERA, and the Health Services Platform Consortium..
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package sh.isaac.solor.direct;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import sh.isaac.api.util.NamedThreadFactory;
+import sh.isaac.solor.ContentProvider;
+import sh.isaac.solor.ContentStreamProvider;
+
+/**
+ * Reads the records of a tab or pipe delimited file, such as an RF2 or RRF file, as the columns of each line.
+ *
+ * Uncompressed files are memory mapped; other content, such as zip entries, is first decompressed into a staging
+ * file. The file is divided into fixed size chunks, and the line boundaries of each chunk are found and its lines
+ * split into columns on a pool of chunk reader threads, ahead of the consumer. Each chunk is copied out of the mapping
+ * into one byte array, and its columns are decoded from that array, so no string is created for the line itself.
+ * Records are returned in file order, with the columns of {@link String#split(String)}: trailing empty columns are
+ * dropped, and a blank line is a single empty column.
+ *
+ * Each reader has one chunk in flight, and reads further ahead only while a permit for another chunk is available.
+ * The permits are shared by all readers, so the chunks held in memory are bounded by the number of readers, plus
+ * {@link #READ_AHEAD_CHUNKS}, however many files are read at once.
+ *
+ * Each call to {@link #iterator()} reads the file again from the start.
+ *
+ * @author kec
+ */
+public class DelimitedRecordReader implements Iterable<String[]>, AutoCloseable {
+
+    private static final int CHUNK_SIZE = 4 * 1024 * 1024;
+    private static final int CHUNK_READERS = Math.max(2, Runtime.getRuntime().availableProcessors());
+    /**
+     * The chunks that may be read ahead of their consumers, by all readers together.
+     */
+    static final int READ_AHEAD_CHUNKS = CHUNK_READERS;
+    private static final Semaphore READ_AHEAD = new Semaphore(READ_AHEAD_CHUNKS);
+    private static final ExecutorService CHUNK_READER_POOL;
+    private static final int SCAN_SIZE = 64 * 1024;
+    private static final String[] BLANK_LINE = {""};
+
+    static {
+        ThreadPoolExecutor pool = new ThreadPoolExecutor(CHUNK_READERS, CHUNK_READERS, 60, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), new NamedThreadFactory("DelimitedRecordReader chunk reader", true));
+        pool.allowCoreThreadTimeOut(true);
+        CHUNK_READER_POOL = pool;
+    }
+
+    //~--- fields --------------------------------------------------------------
+    private final FileChannel channel;
+    private final Path stagingFile;
+    private final long size;
+    private final byte delimiter;
+    private final boolean hasHeader;
+    private final int chunkSize;
+    private final Set<RecordIterator> openIterators = ConcurrentHashMap.newKeySet();
+
+    //~--- constructors --------------------------------------------------------
+    /**
+     * @param contentProvider the content to read
+     * @param delimiter the column delimiter, which must be a single byte character
+     * @param hasHeader true if the first line is a header, which is skipped
+     * @throws IOException if the content cannot be opened or staged
+     */
+    public DelimitedRecordReader(ContentProvider contentProvider, char delimiter, boolean hasHeader) throws IOException {
+        this(contentProvider, delimiter, hasHeader, CHUNK_SIZE);
+    }
+
+    DelimitedRecordReader(ContentProvider contentProvider, char delimiter, boolean hasHeader, int chunkSize) throws IOException {
+        if (delimiter > 0x7F) {
+            throw new IllegalArgumentException("Delimiter must be a single byte character: " + delimiter);
+        }
+        this.delimiter = (byte) delimiter;
+        this.hasHeader = hasHeader;
+        this.chunkSize = chunkSize;
+        Optional<Path> path = contentProvider.getPath();
+        if (path.isPresent()) {
+            this.stagingFile = null;
+            this.channel = FileChannel.open(path.get(), StandardOpenOption.READ);
+        } else {
+            this.stagingFile = Files.createTempFile("direct-import-", ".staged");
+            try (ContentStreamProvider csp = contentProvider.get(); InputStream in = csp.get()) {
+                Files.copy(in, stagingFile, StandardCopyOption.REPLACE_EXISTING);
+            } catch (IOException e) {
+                Files.deleteIfExists(stagingFile);
+                throw e;
+            } catch (Exception e) {
+                Files.deleteIfExists(stagingFile);
+                throw new IOException("Unable to stage " + contentProvider.getStreamSourceName(), e);
+            }
+            this.channel = FileChannel.open(stagingFile, StandardOpenOption.READ);
+        }
+        this.size = channel.size();
+    }
+
+    //~--- methods -------------------------------------------------------------
+    /**
+     * @return the permits to read chunks ahead that are not in use by any reader
+     */
+    static int availableReadAheadPermits() {
+        return READ_AHEAD.availablePermits();
+    }
+
+    @Override
+    public Iterator<String[]> iterator() {
+        return new RecordIterator();
+    }
+
+    /**
+     * Closes the file, and releases the read ahead of any iterator that was not read to the end.
+     */
+    @Override
+    public void close() throws IOException {
+        for (RecordIterator openIterator : openIterators) {
+            openIterator.release();
+        }
+        channel.close();
+        if (stagingFile != null) {
+            Files.deleteIfExists(stagingFile);
+        }
+    }
+
+    /**
+     * @param position a position in the file
+     * @return the start of the first line that starts at or after the position
+     */
+    private long lineStartAtOrAfter(long position) throws IOException {
+        if (position <= 0) {
+            return 0;
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(SCAN_SIZE);
+        long scanPosition = position - 1;
+        while (scanPosition < size) {
+            buffer.clear();
+            int read = channel.read(buffer, scanPosition);
+            if (read < 0) {
+                break;
+            }
+            for (int i = 0; i < read; i++) {
+                if (buffer.get(i) == '\n') {
+                    return scanPosition + i + 1;
+                }
+            }
+            scanPosition += read;
+        }
+        return size;
+    }
+
+    private List<String[]> readChunk(int chunk) {
+        try {
+            long start = lineStartAtOrAfter((long) chunk * chunkSize);
+            long end = lineStartAtOrAfter(Math.min(size, (long) (chunk + 1) * chunkSize));
+            if (end <= start) {
+                // a single line spans the whole chunk, and belongs to an earlier one
+                return Collections.emptyList();
+            }
+            if (end - start > Integer.MAX_VALUE) {
+                throw new IOException("Line too long at position " + start);
+            }
+            MappedByteBuffer mapping = channel.map(FileChannel.MapMode.READ_ONLY, start, end - start);
+            byte[] bytes = new byte[mapping.remaining()];
+            mapping.get(bytes);
+            return split(bytes, chunk == 0 && hasHeader);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private List<String[]> split(byte[] bytes, boolean skipFirstLine) {
+        ArrayList<String[]> records = new ArrayList<>();
+        int lineStart = 0;
+        boolean skip = skipFirstLine;
+        while (lineStart < bytes.length) {
+            int lineEnd = lineStart;
+            int columnCount = 1;
+            while (lineEnd < bytes.length && bytes[lineEnd] != '\n') {
+                if (bytes[lineEnd] == delimiter) {
+                    columnCount++;
+                }
+                lineEnd++;
+            }
+            int nextLineStart = lineEnd + 1;
+            if (lineEnd > lineStart && bytes[lineEnd - 1] == '\r') {
+                lineEnd--;
+            }
+            if (skip) {
+                skip = false;
+            } else if (lineEnd > lineStart) {
+                records.add(splitLine(bytes, lineStart, lineEnd, columnCount));
+            } else {
+                records.add(BLANK_LINE.clone());
+            }
+            lineStart = nextLineStart;
+        }
+        return records;
+    }
+
+    private String[] splitLine(byte[] bytes, int lineStart, int lineEnd, int columnCount) {
+        String[] columns = new String[columnCount];
+        int column = 0;
+        int columnStart = lineStart;
+        int lastNonEmpty = -1;
+        for (int i = lineStart; i <= lineEnd; i++) {
+            if (i == lineEnd || bytes[i] == delimiter) {
+                if (i > columnStart) {
+                    columns[column] = new String(bytes, columnStart, i - columnStart, StandardCharsets.UTF_8);
+                    lastNonEmpty = column;
+                } else {
+                    columns[column] = "";
+                }
+                column++;
+                columnStart = i + 1;
+            }
+        }
+        if (lastNonEmpty + 1 < columnCount) {
+            String[] trimmed = new String[lastNonEmpty + 1];
+            System.arraycopy(columns, 0, trimmed, 0, trimmed.length);
+            return trimmed;
+        }
+        return columns;
+    }
+
+    //~--- inner classes -------------------------------------------------------
+    private class ChunkRead {
+
+        private final CompletableFuture<List<String[]>> records;
+        private final boolean readAhead;
+
+        private ChunkRead(int chunk, boolean readAhead) {
+            this.records = CompletableFuture.supplyAsync(() -> readChunk(chunk), CHUNK_READER_POOL);
+            this.readAhead = readAhead;
+        }
+    }
+
+    private class RecordIterator implements Iterator<String[]> {
+
+        private final int chunkCount = (int) ((size + chunkSize - 1) / chunkSize);
+        private final ArrayDeque<ChunkRead> chunksInFlight = new ArrayDeque<>();
+        private int nextChunk = 0;
+        private Iterator<String[]> records = Collections.emptyIterator();
+
+        private RecordIterator() {
+            openIterators.add(this);
+            submitChunks();
+        }
+
+        /**
+         * Submit the next chunk if none is in flight, and then read ahead while there are permits.
+         */
+        private synchronized void submitChunks() {
+            while (nextChunk < chunkCount) {
+                if (chunksInFlight.isEmpty()) {
+                    chunksInFlight.add(new ChunkRead(nextChunk++, false));
+                } else if (READ_AHEAD.tryAcquire()) {
+                    chunksInFlight.add(new ChunkRead(nextChunk++, true));
+                } else {
+                    return;
+                }
+            }
+        }
+
+        private synchronized ChunkRead removeChunk() {
+            ChunkRead chunkRead = chunksInFlight.poll();
+            if (chunkRead != null && chunkRead.readAhead) {
+                READ_AHEAD.release();
+            }
+            return chunkRead;
+        }
+
+        /**
+         * Releases the permits of the chunks in flight, which will not be read.
+         */
+        private synchronized void release() {
+            while (removeChunk() != null) {
+                // released
+            }
+            nextChunk = chunkCount;
+            openIterators.remove(this);
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (!records.hasNext()) {
+                ChunkRead chunkRead = removeChunk();
+                if (chunkRead == null) {
+                    openIterators.remove(this);
+                    return false;
+                }
+                submitChunks();
+                records = chunkRead.records.join().iterator();
+            }
+            return true;
+        }
+
+        @Override
+        public String[] next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            return records.next();
+        }
+    }
+}
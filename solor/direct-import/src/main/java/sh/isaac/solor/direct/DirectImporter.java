@@ -55,8 +55,15 @@ import java.util.Map.Entry;
 import java.util.NoSuchElementException;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipFile;
@@ -70,7 +77,6 @@ import sh.isaac.api.LookupService;
 import sh.isaac.api.Status;
 import sh.isaac.api.bootstrap.TermAux;
 import sh.isaac.api.chronicle.Chronology;
-import sh.isaac.api.component.concept.ConceptService;
 import sh.isaac.api.component.semantic.SemanticChronology;
 import sh.isaac.api.component.semantic.version.dynamic.DynamicColumnInfo;
 import sh.isaac.api.component.semantic.version.dynamic.DynamicDataType;
@@ -78,6 +84,7 @@ import sh.isaac.api.component.semantic.version.dynamic.DynamicUtility;
 import sh.isaac.api.index.IndexBuilderService;
 import sh.isaac.api.progress.PersistTaskResult;
 import sh.isaac.api.task.TimedTaskWithProgressTracker;
+import sh.isaac.api.util.NamedThreadFactory;
 import sh.isaac.api.util.UuidT3Generator;
 import sh.isaac.model.semantic.DynamicUsageDescriptionImpl;
 import sh.isaac.solor.ContentProvider;
@@ -98,6 +105,9 @@ public class DirectImporter
     private static final int WRITE_PERMITS = Runtime.getRuntime()
             .availableProcessors() * 2;
 
+    private static final int FILE_READERS = Math.max(2, Runtime.getRuntime()
+            .availableProcessors() / 2);
+
     public static HashSet<String> watchTokens = new HashSet<>();
 
     public static Boolean importDynamic = true;
@@ -323,7 +333,6 @@ public class DirectImporter
     }
 
     protected int doImport(ArrayList<ImportSpecification> specificationsToImport, final long time) throws ExecutionException, IOException, UnsupportedOperationException, InterruptedException {
-        int fileCount = 0;
         Collections.sort(specificationsToImport);
         StringBuilder builder = new StringBuilder();
         builder.append("Importing the following zip entries: \n");
@@ -332,165 +341,283 @@ public class DirectImporter
             builder.append(": ").append(spec.contentProvider.getStreamSourceName()).append("\n");
         }
 
-        HashMap<String, UUID> createdColumnConcepts = new HashMap<>();
+        ConcurrentHashMap<String, UUID> createdColumnConcepts = new ConcurrentHashMap<>();
 
         LOG.info(builder.toString());
 
         addToTotalWork(specificationsToImport.size());
 
-        for (ImportSpecification importSpecification : specificationsToImport) {
-            String message = "Importing " + trimZipName(importSpecification.contentProvider.getStreamSourceName());
-            updateMessage(message);
-            LOG.info("\n\n" + message + "\n");
-            if (message.toLowerCase().contains("loinc.csv")) {
-                System.out.println("About to import loinc...");
+        ImportSpecification refsetDescriptor = specificationsToImport.stream()
+                .filter(spec -> spec.streamType == ImportStreamType.DYNAMIC)
+                .findFirst().orElse(null);
+        AtomicInteger fileCount = new AtomicInteger();
+        ExecutorService fileReaders = Executors.newFixedThreadPool(FILE_READERS, new NamedThreadFactory("DirectImporter file reader", true));
+        ArrayList<CompletableFuture<Void>> fileImports = new ArrayList<>(specificationsToImport.size());
+        CompletableFuture<Void> firstFailure = new CompletableFuture<>();
+        try {
+            for (int i = 0; i < specificationsToImport.size(); i++) {
+                ImportSpecification importSpecification = specificationsToImport.get(i);
+                ArrayList<CompletableFuture<Void>> prerequisites = new ArrayList<>();
+                for (int j = 0; j < i; j++) {
+                    if (mustFollow(importSpecification, specificationsToImport.get(j), refsetDescriptor)) {
+                        prerequisites.add(fileImports.get(j));
+                    }
+                }
+                CompletableFuture<Void> fileImport = CompletableFuture.allOf(prerequisites.toArray(new CompletableFuture<?>[prerequisites.size()]))
+                        .thenRunAsync(() -> {
+                            importFile(importSpecification, createdColumnConcepts);
+                            fileCount.incrementAndGet();
+                            completedUnitOfWork();
+                        }, fileReaders);
+                fileImport.whenComplete((result, ex) -> {
+                    if (ex != null) {
+                        firstFailure.completeExceptionally(ex);
+                    }
+                });
+                fileImports.add(fileImport);
             }
+            CompletableFuture.anyOf(CompletableFuture.allOf(fileImports.toArray(new CompletableFuture<?>[fileImports.size()])), firstFailure).get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        } finally {
+            // After a failure, the files not yet started are not read, and the files being read are finished
+            // before the failure is thrown
+            fileImports.forEach(fileImport -> fileImport.cancel(false));
+            fileReaders.shutdown();
+            while (!fileReaders.awaitTermination(1, TimeUnit.MINUTES)) {
+                LOG.info("Waiting for the files being read to finish");
+            }
+        }
 
-            try (ContentStreamProvider csp = importSpecification.contentProvider.get()) {
-                try (BufferedReader br = new BufferedReader(new InputStreamReader(csp.get(), Charset.forName("UTF-8")))) {
-                    fileCount++;
-
-                    switch (importSpecification.streamType) {
-                        case ALTERNATIVE_IDENTIFIER:
-                            readAlternativeIdentifiers(br, importSpecification);
-                            break;
+        updateMessage("Synchronizing indexes...");
+        for (IndexBuilderService indexer : LookupService.get().getAllServices(IndexBuilderService.class)) {
+            try {
+                indexer.sync().get();
+            } catch (Exception e) {
+                LOG.error("problem calling sync on index", e);
+            }
+        }
+        updateMessage("Synchronizing concept and semantic databases...");
+        Get.conceptService().sync().get();
+        Get.assemblageService().sync().get();
 
-                        case CONCEPT:
-                            readConcepts(br, importSpecification);
-                            break;
+        LOG.info("Loaded " + fileCount.get() + " files in " + ((System.currentTimeMillis() - time) / 1000) + " seconds");
+        return fileCount.get();
+    }
 
-                        case DESCRIPTION:
-                            readDescriptions(br, importSpecification);
-                            break;
+    /**
+     * Determine if the import of one file must wait for the import of another, which sorts ahead of it.
+     * RF2 files wait only for the files that provide the components they refer to, so independent files
+     * (for example the description and relationship files) are read concurrently. Files of other formats
+     * synchronize on the whole write semaphore, so they are imported alone, in sort order.
+     *
+     * @param later the file that sorts later
+     * @param earlier the file that sorts earlier
+     * @param refsetDescriptor the first dynamic refset file, which configures all the other dynamic refsets
+     * @return true if the later file may only be read once the earlier file is written
+     */
+    private static boolean mustFollow(ImportSpecification later, ImportSpecification earlier, ImportSpecification refsetDescriptor) {
+        if (!later.streamType.isPipelined() || !earlier.streamType.isPipelined()) {
+            return true;
+        }
+        if (later.streamType.getPrerequisites().contains(earlier.streamType)) {
+            return true;
+        }
+        return later.streamType == ImportStreamType.DYNAMIC && earlier == refsetDescriptor;
+    }
 
-                        case DIALECT:
-                            readDialect(br, importSpecification);
-                            break;
+    private void importFile(ImportSpecification importSpecification, ConcurrentHashMap<String, UUID> createdColumnConcepts) {
+        String message = "Importing " + trimZipName(importSpecification.contentProvider.getStreamSourceName());
+        updateMessage(message);
+        LOG.info("\n\n" + message + "\n");
+        if (message.toLowerCase().contains("loinc.csv")) {
+            System.out.println("About to import loinc...");
+        }
 
-                        case INFERRED_RELATIONSHIP:
-                            readInferredRelationships(br, importSpecification);
-                            break;
+        try {
+            if (importSpecification.streamType.isPipelined() || importSpecification.streamType == ImportStreamType.RXNORM_CONSO) {
+                boolean rrf = importSpecification.streamType == ImportStreamType.RXNORM_CONSO;
+                try (DelimitedRecordReader records = new DelimitedRecordReader(importSpecification.contentProvider, rrf ? '|' : '\t', !rrf)) {
+                    readRecords(records, importSpecification, createdColumnConcepts);
+                }
+            } else {
+                try (ContentStreamProvider csp = importSpecification.contentProvider.get()) {
+                    try (BufferedReader br = new BufferedReader(new InputStreamReader(csp.get(), Charset.forName("UTF-8")))) {
+                        switch (importSpecification.streamType) {
+                            case LOINC:
+                                readLOINC(br, importSpecification);
+                                break;
+
+                            case CLINVAR:
+                                ClinvarImporter clinvarImporter = new ClinvarImporter(this.writeSemaphore, WRITE_PERMITS);
+                                clinvarImporter.runImport(br);
+                                break;
+
+                            case CVX:
+                                CVXImporter cvxImporter = new CVXImporter(this.writeSemaphore, WRITE_PERMITS);
+                                cvxImporter.runImport(csp.get());
+
+                                break;
+                            case LIVD:
+                                LIVDImporter livdImporter = new LIVDImporter(this.writeSemaphore, WRITE_PERMITS);
+                                livdImporter.runImport(csp.get());
+                                break;
+
+                            case SRF_CONCEPT:
+                            case SRF_DESCRIPTION:
+                            case SRF_STATED_RELATIONSHIP:
+                            case SRF_INFERRED_RELATIONSHIP:
+                            case SRF_INT1_ASSEMBLAGE:
+                            case SRF_NID1_ASSEMBLAGE:
+                            case SRF_STR1_ASSEMBLAGE:
+                            case SRF_MEMBER_ASSEMBLAGE:
+                            case SRF_NID1_INT2_ASSEMBLAGE:
+                            case SRF_NID1_NID2_ASSEMBLAGE:
+                            case SRF_NID1_STR2_ASSEMBLAGE:
+                            case SRF_STR1_STR2_ASSEMBLAGE:
+                            case SRF_NID1_NID2_INT3_ASSEMBLAGE:
+                            case SRF_NID1_NID2_STR3_ASSEMBLAGE:
+                            case SRF_STR1_NID2_NID3_NID4_ASSEMBLAGE:
+                            case SRF_STR1_STR2_NID3_NID4_ASSEMBLAGE:
+                            case SRF_STR1_STR2_NID3_NID4_NID5_ASSEMBLAGE:
+                            case SRF_NID1_INT2_STR3_STR4_NID5_NID6_ASSEMBLAGE:
+                            case SRF_INT1_INT2_STR3_STR4_STR5_NID6_NID7_ASSEMBLAGE:
+                            case SRF_STR1_STR2_STR3_STR4_STR5_STR6_STR7_ASSEMBLAGE:
+
+                                SRFImporter.RunImport(br, importSpecification, this.writeSemaphore, WRITE_PERMITS, importType);
+                                break;
+
+                            default:
+                                throw new UnsupportedOperationException("Can't handle: " + importSpecification.streamType);
+                        }
+                    }
+                }
+            }
+        } catch (Exception e) {
+            LOG.error("Unexpected error", e);
+            throw new RuntimeException("Bad:", e);
+        }
+    }
 
-                        case STATED_RELATIONSHIP:
-                            readStatedRelationships(br, importSpecification);
-                            break;
+    private void readRecords(DelimitedRecordReader records, ImportSpecification importSpecification,
+            ConcurrentHashMap<String, UUID> createdColumnConcepts) throws IOException {
+        switch (importSpecification.streamType) {
+            case ALTERNATIVE_IDENTIFIER:
+                readAlternativeIdentifiers(records, importSpecification);
+                break;
 
-                        //TODO Dan notes, none of these refset importer patterns is properly annotating the created refset assemblage concept
-                        //with the metadata that should be placed on the refset definition concept.  That said, I'm not going to fix it, because
-                        //all of this code should simply be thrown away, as the 'Dynamic' import mode already handles this properly.
-                        // set the variable 'importDynamic' to true, and all of your problems with this missing metadata go away :)
-                        case INT1_INT2_STR3_STR4_STR5_NID6_NID7_REFSET:
-                            readINT1_INT2_STR3_STR4_STR5_NID6_NID7_REFSET(br, importSpecification);
-                            break;
-                        case INT1_REFSET:
-                            readINT1_REFSET(br, importSpecification);
-                            break;
-                        case MEMBER_REFSET:
-                            readMEMBER_REFSET(br, importSpecification);
-                            break;
-                        case NID1_INT2_REFSET:
-                            readNID1_INT2_REFSET(br, importSpecification);
-                            break;
-                        case NID1_INT2_STR3_STR4_NID5_NID6_REFSET:
-                            readNID1_INT2_STR3_STR4_NID5_NID6_REFSET(br, importSpecification);
-                            break;
-                        case NID1_NID2_INT3_REFSET:
-                            readNID1_NID2_INT3_REFSET(br, importSpecification);
-                            break;
-                        case NID1_NID2_REFSET:
-                            readNID1_NID2_REFSET(br, importSpecification);
-                            break;
-                        case NID1_NID2_STR3_REFSET:
-                            readNID1_NID2_STR3_REFSET(br, importSpecification);
-                            break;
-                        case NID1_REFSET:
-                            readNID1_REFSET(br, importSpecification);
-                            break;
-                        case NID1_STR2_REFSET:
-                            readNID1_STR2_REFSET(br, importSpecification);
-                            break;
-                        case STR1_REFSET:
-                            readSTR1_REFSET(br, importSpecification);
-                            break;
-                        case STR1_STR2_NID3_NID4_REFSET:
-                            readSTR1_STR2_NID3_NID4_REFSET(br, importSpecification);
-                            break;
-                        case STR1_STR2_REFSET:
-                            readSTR1_STR2_REFSET(br, importSpecification);
-                            break;
-                        case STR1_STR2_STR3_STR4_STR5_STR6_STR7_REFSET:
-                            readSTR1_STR2_STR3_STR4_STR5_STR6_STR7_REFSET(br, importSpecification);
-                            break;
-                        case STR1_NID2_NID3_NID4_REFSET:
-                            readSTR1_NID2_NID3_NID4_REFSET(br, importSpecification);
-                            break;
-                        case STR1_STR2_NID3_NID4_NID5_REFSET:
-                            readSTR1_STR2_NID3_NID4_NID5_REFSET(br, importSpecification);
-                            break;
-                        case DYNAMIC:
-                            read_DYNAMIC_REFSET(br, importSpecification, createdColumnConcepts);
-                            break;
+            case CONCEPT:
+                readConcepts(records, importSpecification);
+                break;
 
-                        case RXNORM_CONSO:
-                            readRXNORM_CONSO(br, importSpecification);
-                            break;
+            case DESCRIPTION:
+                readDescriptions(records, importSpecification);
+                break;
 
-                        case LOINC:
-                            readLOINC(br, importSpecification);
-                            break;
+            case DIALECT:
+                readDialect(records, importSpecification);
+                break;
 
-                        case CLINVAR:
-                            ClinvarImporter clinvarImporter = new ClinvarImporter(this.writeSemaphore, WRITE_PERMITS);
-                            clinvarImporter.runImport(br);
-                            break;
+            case INFERRED_RELATIONSHIP:
+                readInferredRelationships(records, importSpecification);
+                break;
 
-                        case CVX:
-                            CVXImporter cvxImporter = new CVXImporter(this.writeSemaphore, WRITE_PERMITS);
-                            cvxImporter.runImport(csp.get());
+            case STATED_RELATIONSHIP:
+                readStatedRelationships(records, importSpecification);
+                break;
 
-                            break;
-                        case LIVD:
-                            LIVDImporter livdImporter = new LIVDImporter(this.writeSemaphore, WRITE_PERMITS);
-                            livdImporter.runImport(csp.get());
-                            break;
+            //TODO Dan notes, none of these refset importer patterns is properly annotating the created refset assemblage concept
+            //with the metadata that should be placed on the refset definition concept.  That said, I'm not going to fix it, because
+            //all of this code should simply be thrown away, as the 'Dynamic' import mode already handles this properly.
+            // set the variable 'importDynamic' to true, and all of your problems with this missing metadata go away :)
+            case INT1_INT2_STR3_STR4_STR5_NID6_NID7_REFSET:
+                readINT1_INT2_STR3_STR4_STR5_NID6_NID7_REFSET(records, importSpecification);
+                break;
+            case INT1_REFSET:
+                readINT1_REFSET(records, importSpecification);
+                break;
+            case MEMBER_REFSET:
+                readMEMBER_REFSET(records, importSpecification);
+                break;
+            case NID1_INT2_REFSET:
+                readNID1_INT2_REFSET(records, importSpecification);
+                break;
+            case NID1_INT2_STR3_STR4_NID5_NID6_REFSET:
+                readNID1_INT2_STR3_STR4_NID5_NID6_REFSET(records, importSpecification);
+                break;
+            case NID1_NID2_INT3_REFSET:
+                readNID1_NID2_INT3_REFSET(records, importSpecification);
+                break;
+            case NID1_NID2_REFSET:
+                readNID1_NID2_REFSET(records, importSpecification);
+                break;
+            case NID1_NID2_STR3_REFSET:
+                readNID1_NID2_STR3_REFSET(records, importSpecification);
+                break;
+            case NID1_REFSET:
+                readNID1_REFSET(records, importSpecification);
+                break;
+            case NID1_STR2_REFSET:
+                readNID1_STR2_REFSET(records, importSpecification);
+                break;
+            case STR1_REFSET:
+                readSTR1_REFSET(records, importSpecification);
+                break;
+            case STR1_STR2_NID3_NID4_REFSET:
+                readSTR1_STR2_NID3_NID4_REFSET(records, importSpecification);
+                break;
+            case STR1_STR2_REFSET:
+                readSTR1_STR2_REFSET(records, importSpecification);
+                break;
+            case STR1_STR2_STR3_STR4_STR5_STR6_STR7_REFSET:
+                readSTR1_STR2_STR3_STR4_STR5_STR6_STR7_REFSET(records, importSpecification);
+                break;
+            case STR1_NID2_NID3_NID4_REFSET:
+                readSTR1_NID2_NID3_NID4_REFSET(records, importSpecification);
+                break;
+            case STR1_STR2_NID3_NID4_NID5_REFSET:
+                readSTR1_STR2_NID3_NID4_NID5_REFSET(records, importSpecification);
+                break;
+            case DYNAMIC:
+                read_DYNAMIC_REFSET(records, importSpecification, createdColumnConcepts);
+                break;
 
-                        case SRF_CONCEPT:
-                        case SRF_DESCRIPTION:
-                        case SRF_STATED_RELATIONSHIP:
-                        case SRF_INFERRED_RELATIONSHIP:
-                        case SRF_INT1_ASSEMBLAGE:
-                        case SRF_NID1_ASSEMBLAGE:
-                        case SRF_STR1_ASSEMBLAGE:
-                        case SRF_MEMBER_ASSEMBLAGE:
-                        case SRF_NID1_INT2_ASSEMBLAGE:
-                        case SRF_NID1_NID2_ASSEMBLAGE:
-                        case SRF_NID1_STR2_ASSEMBLAGE:
-                        case SRF_STR1_STR2_ASSEMBLAGE:
-                        case SRF_NID1_NID2_INT3_ASSEMBLAGE:
-                        case SRF_NID1_NID2_STR3_ASSEMBLAGE:
-                        case SRF_STR1_NID2_NID3_NID4_ASSEMBLAGE:
-                        case SRF_STR1_STR2_NID3_NID4_ASSEMBLAGE:
-                        case SRF_STR1_STR2_NID3_NID4_NID5_ASSEMBLAGE:
-                        case SRF_NID1_INT2_STR3_STR4_NID5_NID6_ASSEMBLAGE:
-                        case SRF_INT1_INT2_STR3_STR4_STR5_NID6_NID7_ASSEMBLAGE:
-                        case SRF_STR1_STR2_STR3_STR4_STR5_STR6_STR7_ASSEMBLAGE:
-
-                            SRFImporter.RunImport(br, importSpecification, this.writeSemaphore, WRITE_PERMITS, importType);
-                            break;
+            case RXNORM_CONSO:
+                readRXNORM_CONSO(records, importSpecification);
+                break;
+            default:
+                throw new UnsupportedOperationException("Can't handle: " + importSpecification.streamType);
+        }
+    }
 
-                        default:
-                            throw new UnsupportedOperationException("Can't handle: " + importSpecification.streamType);
-                    }
+    /**
+     * Wait for the writers of a single file, rather than draining the write semaphore, which
+     * would also wait for the writers of every other file being imported concurrently. Every
+     * writer is waited for, since each holds a write permit until it finishes, and then the
+     * first failure is thrown.
+     */
+    private void awaitFileWrites(List<Future<?>> fileWrites) {
+        RuntimeException failure = null;
+        for (Future<?> fileWrite : fileWrites) {
+            try {
+                fileWrite.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RuntimeException(e);
+            } catch (ExecutionException e) {
+                if (failure == null) {
+                    failure = new RuntimeException("Failed to write a file", e.getCause());
+                } else {
+                    failure.addSuppressed(e.getCause());
                 }
-            } catch (Exception e) {
-                LOG.error("Unexpected error", e);
-                throw new RuntimeException("Bad:", e);
             }
-            completedUnitOfWork();
         }
-
-        LOG.info("Loaded " + fileCount + " files in " + ((System.currentTimeMillis() - time) / 1000) + " seconds");
-        return fileCount;
+        if (failure != null) {
+            throw failure;
+        }
     }
 
     protected void processEntry(ContentProvider contentProvider, ArrayList<ImportSpecification> entriesToImport1) {
@@ -772,20 +899,18 @@ public class DirectImporter
         this.writeSemaphore.release(WRITE_PERMITS);
     }
 
-    private void readRXNORM_CONSO(BufferedReader br,
+    private void readRXNORM_CONSO(DelimitedRecordReader records,
             ImportSpecification importSpecification) throws IOException {
         updateMessage("Importing RxNorm data...");
         long commitTime = System.currentTimeMillis();
         AssemblageService assemblageService = Get.assemblageService();
         final int writeSize = 102400;
         ArrayList<String[]> columnsToWrite = new ArrayList<>(writeSize);
-        String rowString;
 
-        // RRF has no header row br.readLine();  // discard header row
         boolean empty = true;
-        while ((rowString = br.readLine()) != null) {
+        for (String[] columns : records) {
             empty = false;
-            String[] columns = checkWatchTokensAndSplit(rowString, importSpecification);
+            checkWatchTokens(columns, importSpecification);
 
             columnsToWrite.add(columns);
 
@@ -835,19 +960,17 @@ public class DirectImporter
         this.writeSemaphore.release(WRITE_PERMITS);
     }
 
-    private void readINT1_INT2_STR3_STR4_STR5_NID6_NID7_REFSET(BufferedReader br,
+    private void readINT1_INT2_STR3_STR4_STR5_NID6_NID7_REFSET(DelimitedRecordReader records,
             ImportSpecification importSpecification)
             throws IOException {
-        AssemblageService assemblageService = Get.assemblageService();
         final int writeSize = 102400;
         ArrayList<String[]> columnsToWrite = new ArrayList<>(writeSize);
-        String rowString;
+        ArrayList<Future<?>> fileWrites = new ArrayList<>();
 
-        br.readLine();  // discard header row
         boolean empty = true;
-        while ((rowString = br.readLine()) != null) {
+        for (String[] columns : records) {
             empty = false;
-            String[] columns = checkWatchTokensAndSplit(rowString, importSpecification);
+            checkWatchTokens(columns, importSpecification);
 
             columnsToWrite.add(columns);
 
@@ -857,8 +980,8 @@ public class DirectImporter
                                 importSpecification.contentProvider.getStreamSourceName()),
                         importSpecification, importType);
                 columnsToWrite = new ArrayList<>(writeSize);
-                Get.executor()
-                        .submit(writer);
+                fileWrites.add(Get.executor()
+                        .submit(writer));
             }
         }
 
@@ -870,23 +993,12 @@ public class DirectImporter
                     "Processing iissscc semantics from: " + trimZipName(
                             importSpecification.contentProvider.getStreamSourceName()),
                     importSpecification, importType);
-            Get.executor()
-                    .submit(writer);
+            fileWrites.add(Get.executor()
+                    .submit(writer));
         }
 
         updateMessage("Waiting for refset file completion...");
-        this.writeSemaphore.acquireUninterruptibly(WRITE_PERMITS);
-        for (IndexBuilderService indexer : LookupService.get().getAllServices(IndexBuilderService.class)) {
-            try {
-                indexer.sync().get();
-            } catch (Exception e) {
-                LOG.error("problem calling sync on index", e);
-            }
-        }
-        updateMessage("Synchronizing semantic database...");
-        assemblageService.sync();
-        this.writeSemaphore.release(WRITE_PERMITS);
-
+        awaitFileWrites(fileWrites);
     }
 
     protected String[] checkWatchTokensAndSplit(String rowString, ImportSpecification importSpecification) {
@@ -896,37 +1008,39 @@ public class DirectImporter
         } else {
 
             columns = rowString.split("\t");
-            if (!watchTokens.isEmpty()) {
-                int watchCount = 0;
-                for (String column : columns) {
-                    if (watchTokens.contains(column)) {
-                        watchCount++;
-                        if (watchCount > 0 && watchCount <= 3) {
-                            LOG.info("Found watch tokens in: "
-                                    + importSpecification.contentProvider.getStreamSourceName()
-                                    + " \n" + rowString);
-                        }
-                    }
+            checkWatchTokens(columns, importSpecification);
+        }
+        return columns;
+    }
 
+    protected void checkWatchTokens(String[] columns, ImportSpecification importSpecification) {
+        if (!watchTokens.isEmpty() && importSpecification.streamType != ImportStreamType.RXNORM_CONSO) {
+            int watchCount = 0;
+            for (String column : columns) {
+                if (watchTokens.contains(column)) {
+                    watchCount++;
+                    if (watchCount > 0 && watchCount <= 3) {
+                        LOG.info("Found watch tokens in: "
+                                + importSpecification.contentProvider.getStreamSourceName()
+                                + " \n" + String.join("\t", columns));
+                    }
                 }
+
             }
         }
-        return columns;
     }
 
-    private void readINT1_REFSET(BufferedReader br,
+    private void readINT1_REFSET(DelimitedRecordReader records,
             ImportSpecification importSpecification)
             throws IOException {
-        AssemblageService assemblageService = Get.assemblageService();
         final int writeSize = 102400;
         ArrayList<String[]> columnsToWrite = new ArrayList<>(writeSize);
-        String rowString;
+        ArrayList<Future<?>> fileWrites = new ArrayList<>();
 
-        br.readLine();  // discard header row
         boolean empty = true;
-        while ((rowString = br.readLine()) != null) {
+        for (String[] columns : records) {
             empty = false;
-            String[] columns = checkWatchTokensAndSplit(rowString, importSpecification);
+            checkWatchTokens(columns, importSpecification);
 
             columnsToWrite.add(columns);
 
@@ -936,8 +1050,8 @@ public class DirectImporter
                                 importSpecification.contentProvider.getStreamSourceName()),
                         importSpecification, importType);
                 columnsToWrite = new ArrayList<>(writeSize);
-                Get.executor()
-                        .submit(writer);
+                fileWrites.add(Get.executor()
+                        .submit(writer));
             }
         }
 
@@ -949,30 +1063,25 @@ public class DirectImporter
                     "Processing i semantics from: " + trimZipName(
                             importSpecification.contentProvider.getStreamSourceName()),
                     importSpecification, importType);
-            Get.executor()
-                    .submit(writer);
+            fileWrites.add(Get.executor()
+                    .submit(writer));
         }
 
         updateMessage("Waiting for refset file completion...");
-        this.writeSemaphore.acquireUninterruptibly(WRITE_PERMITS);
-        updateMessage("Synchronizing semantic database...");
-        assemblageService.sync();
-        this.writeSemaphore.release(WRITE_PERMITS);
+        awaitFileWrites(fileWrites);
     }
 
-    private void readMEMBER_REFSET(BufferedReader br,
+    private void readMEMBER_REFSET(DelimitedRecordReader records,
             ImportSpecification importSpecification)
             throws IOException {
-        AssemblageService assemblageService = Get.assemblageService();
         final int writeSize = 102400;
         ArrayList<String[]> columnsToWrite = new ArrayList<>(writeSize);
-        String rowString;
+        ArrayList<Future<?>> fileWrites = new ArrayList<>();
 
-        br.readLine();  // discard header row
         boolean empty = true;
-        while ((rowString = br.readLine()) != null) {
+        for (String[] columns : records) {
             empty = false;
-            String[] columns = checkWatchTokensAndSplit(rowString, importSpecification);
+            checkWatchTokens(columns, importSpecification);
 
             columnsToWrite.add(columns);
 
@@ -982,8 +1091,8 @@ public class DirectImporter
                                 importSpecification.contentProvider.getStreamSourceName()),
                         importSpecification, importType);
                 columnsToWrite = new ArrayList<>(writeSize);
-                Get.executor()
-                        .submit(writer);
+                fileWrites.add(Get.executor()
+                        .submit(writer));
             }
         }
 
@@ -995,30 +1104,25 @@ public class DirectImporter
                     "Processing semantics from: " + trimZipName(
                             importSpecification.contentProvider.getStreamSourceName()),
                     importSpecification, importType);
-            Get.executor()
-                    .submit(writer);
+            fileWrites.add(Get.executor()
+                    .submit(writer));
         }
 
         updateMessage("Waiting for refset file completion...");
-        this.writeSemaphore.acquireUninterruptibly(WRITE_PERMITS);
-        updateMessage("Synchronizing semantic database...");
-        assemblageService.sync();
-        this.writeSemaphore.release(WRITE_PERMITS);
+        awaitFileWrites(fileWrites);
     }
 
-    private void readNID1_INT2_REFSET(BufferedReader br,
+    private void readNID1_INT2_REFSET(DelimitedRecordReader records,
             ImportSpecification importSpecification)
             throws IOException {
-        AssemblageService assemblageService = Get.assemblageService();
         final int writeSize = 102400;
         ArrayList<String[]> columnsToWrite = new ArrayList<>(writeSize);
-        String rowString;
+        ArrayList<Future<?>> fileWrites = new ArrayList<>();
 
-        br.readLine();  // discard header row
         boolean empty = true;
-        while ((rowString = br.readLine()) != null) {
+        for (String[] columns : records) {
             empty = false;
-            String[] columns = checkWatchTokensAndSplit(rowString, importSpecification);
+            checkWatchTokens(columns, importSpecification);
 
             columnsToWrite.add(columns);
 
@@ -1028,8 +1132,8 @@ public class DirectImporter
                                 importSpecification.contentProvider.getStreamSourceName()),
                         importSpecification, importType);
                 columnsToWrite = new ArrayList<>(writeSize);
-                Get.executor()
-                        .submit(writer);
+                fileWrites.add(Get.executor()
+                        .submit(writer));
             }
         }
 
@@ -1041,30 +1145,25 @@ public class DirectImporter
                     "Processing ci semantics from: " + trimZipName(
                             importSpecification.contentProvider.getStreamSourceName()),
                     importSpecification, importType);
-            Get.executor()
-                    .submit(writer);
+            fileWrites.add(Get.executor()
+                    .submit(writer));
         }
 
         updateMessage("Waiting for refset file completion...");
-        this.writeSemaphore.acquireUninterruptibly(WRITE_PERMITS);
-        updateMessage("Synchronizing semantic database...");
-        assemblageService.sync();
-        this.writeSemaphore.release(WRITE_PERMITS);
+        awaitFileWrites(fileWrites);
     }
 
-    private void readNID1_INT2_STR3_STR4_NID5_NID6_REFSET(BufferedReader br,
+    private void readNID1_INT2_STR3_STR4_NID5_NID6_REFSET(DelimitedRecordReader records,
             ImportSpecification importSpecification)
             throws IOException {
-        AssemblageService assemblageService = Get.assemblageService();
         final int writeSize = 102400;
         ArrayList<String[]> columnsToWrite = new ArrayList<>(writeSize);
-        String rowString;
+        ArrayList<Future<?>> fileWrites = new ArrayList<>();
 
-        br.readLine();  // discard header row
         boolean empty = true;
-        while ((rowString = br.readLine()) != null) {
+        for (String[] columns : records) {
             empty = false;
-            String[] columns = checkWatchTokensAndSplit(rowString, importSpecification);
+            checkWatchTokens(columns, importSpecification);
 
             columnsToWrite.add(columns);
 
@@ -1074,8 +1173,8 @@ public class DirectImporter
                                 importSpecification.contentProvider.getStreamSourceName()),
                         importSpecification, importType);
                 columnsToWrite = new ArrayList<>(writeSize);
-                Get.executor()
-                        .submit(writer);
+                fileWrites.add(Get.executor()
+                        .submit(writer));
             }
         }
 
@@ -1087,30 +1186,25 @@ public class DirectImporter
                     "Processing cisscc semantics from: " + trimZipName(
                             importSpecification.contentProvider.getStreamSourceName()),
                     importSpecification, importType);
-            Get.executor()
-                    .submit(writer);
+            fileWrites.add(Get.executor()
+                    .submit(writer));
         }
 
         updateMessage("Waiting for refset file completion...");
-        this.writeSemaphore.acquireUninterruptibly(WRITE_PERMITS);
-        updateMessage("Synchronizing semantic database...");
-        assemblageService.sync();
-        this.writeSemaphore.release(WRITE_PERMITS);
+        awaitFileWrites(fileWrites);
     }
 
-    private void readNID1_NID2_INT3_REFSET(BufferedReader br,
+    private void readNID1_NID2_INT3_REFSET(DelimitedRecordReader records,
             ImportSpecification importSpecification)
             throws IOException {
-        AssemblageService assemblageService = Get.assemblageService();
         final int writeSize = 102400;
         ArrayList<String[]> columnsToWrite = new ArrayList<>(writeSize);
-        String rowString;
+        ArrayList<Future<?>> fileWrites = new ArrayList<>();
 
-        br.readLine();  // discard header row
         boolean empty = true;
-        while ((rowString = br.readLine()) != null) {
+        for (String[] columns : records) {
             empty = false;
-            String[] columns = checkWatchTokensAndSplit(rowString, importSpecification);
+            checkWatchTokens(columns, importSpecification);
 
             columnsToWrite.add(columns);
 
@@ -1120,8 +1214,8 @@ public class DirectImporter
                                 importSpecification.contentProvider.getStreamSourceName()),
                         importSpecification, importType);
                 columnsToWrite = new ArrayList<>(writeSize);
-                Get.executor()
-                        .submit(writer);
+                fileWrites.add(Get.executor()
+                        .submit(writer));
             }
         }
 
@@ -1133,30 +1227,25 @@ public class DirectImporter
                     "Processing cci semantics from: " + trimZipName(
                             importSpecification.contentProvider.getStreamSourceName()),
                     importSpecification, importType);
-            Get.executor()
-                    .submit(writer);
+            fileWrites.add(Get.executor()
+                    .submit(writer));
         }
 
         updateMessage("Waiting for refset file completion...");
-        this.writeSemaphore.acquireUninterruptibly(WRITE_PERMITS);
-        updateMessage("Synchronizing semantic database...");
-        assemblageService.sync();
-        this.writeSemaphore.release(WRITE_PERMITS);
+        awaitFileWrites(fileWrites);
     }
 
-    private void readNID1_NID2_REFSET(BufferedReader br,
+    private void readNID1_NID2_REFSET(DelimitedRecordReader records,
             ImportSpecification importSpecification)
             throws IOException {
-        AssemblageService assemblageService = Get.assemblageService();
         final int writeSize = 102400;
         ArrayList<String[]> columnsToWrite = new ArrayList<>(writeSize);
-        String rowString;
+        ArrayList<Future<?>> fileWrites = new ArrayList<>();
 
-        br.readLine();  // discard header row
         boolean empty = true;
-        while ((rowString = br.readLine()) != null) {
+        for (String[] columns : records) {
             empty = false;
-            String[] columns = checkWatchTokensAndSplit(rowString, importSpecification);
+            checkWatchTokens(columns, importSpecification);
 
             columnsToWrite.add(columns);
 
@@ -1166,8 +1255,8 @@ public class DirectImporter
                                 importSpecification.contentProvider.getStreamSourceName()),
                         importSpecification, importType);
                 columnsToWrite = new ArrayList<>(writeSize);
-                Get.executor()
-                        .submit(writer);
+                fileWrites.add(Get.executor()
+                        .submit(writer));
             }
         }
 
@@ -1179,30 +1268,25 @@ public class DirectImporter
                     "Processing iissscc semantics from: " + trimZipName(
                             importSpecification.contentProvider.getStreamSourceName()),
                     importSpecification, importType);
-            Get.executor()
-                    .submit(writer);
+            fileWrites.add(Get.executor()
+                    .submit(writer));
         }
 
         updateMessage("Waiting for refset file completion...");
-        this.writeSemaphore.acquireUninterruptibly(WRITE_PERMITS);
-        updateMessage("Synchronizing semantic database...");
-        assemblageService.sync();
-        this.writeSemaphore.release(WRITE_PERMITS);
+        awaitFileWrites(fileWrites);
     }
 
-    private void readNID1_NID2_STR3_REFSET(BufferedReader br,
+    private void readNID1_NID2_STR3_REFSET(DelimitedRecordReader records,
             ImportSpecification importSpecification)
             throws IOException {
-        AssemblageService assemblageService = Get.assemblageService();
         final int writeSize = 102400;
         ArrayList<String[]> columnsToWrite = new ArrayList<>(writeSize);
-        String rowString;
+        ArrayList<Future<?>> fileWrites = new ArrayList<>();
 
-        br.readLine();  // discard header row
         boolean empty = true;
-        while ((rowString = br.readLine()) != null) {
+        for (String[] columns : records) {
             empty = false;
-            String[] columns = checkWatchTokensAndSplit(rowString, importSpecification);
+            checkWatchTokens(columns, importSpecification);
 
             columnsToWrite.add(columns);
 
@@ -1212,8 +1296,8 @@ public class DirectImporter
                                 importSpecification.contentProvider.getStreamSourceName()),
                         importSpecification, importType);
                 columnsToWrite = new ArrayList<>(writeSize);
-                Get.executor()
-                        .submit(writer);
+                fileWrites.add(Get.executor()
+                        .submit(writer));
             }
         }
 
@@ -1225,30 +1309,25 @@ public class DirectImporter
                     "Processing ccs semantics from: " + trimZipName(
                             importSpecification.contentProvider.getStreamSourceName()),
                     importSpecification, importType);
-            Get.executor()
-                    .submit(writer);
+            fileWrites.add(Get.executor()
+                    .submit(writer));
         }
 
         updateMessage("Waiting for refset file completion...");
-        this.writeSemaphore.acquireUninterruptibly(WRITE_PERMITS);
-        updateMessage("Synchronizing semantic database...");
-        assemblageService.sync();
-        this.writeSemaphore.release(WRITE_PERMITS);
+        awaitFileWrites(fileWrites);
     }
 
-    private void readNID1_REFSET(BufferedReader br,
+    private void readNID1_REFSET(DelimitedRecordReader records,
             ImportSpecification importSpecification)
             throws IOException {
-        AssemblageService assemblageService = Get.assemblageService();
         final int writeSize = 102400;
         ArrayList<String[]> columnsToWrite = new ArrayList<>(writeSize);
-        String rowString;
+        ArrayList<Future<?>> fileWrites = new ArrayList<>();
 
-        br.readLine();  // discard header row
         boolean empty = true;
-        while ((rowString = br.readLine()) != null) {
+        for (String[] columns : records) {
             empty = false;
-            String[] columns = checkWatchTokensAndSplit(rowString, importSpecification);
+            checkWatchTokens(columns, importSpecification);
 
             columnsToWrite.add(columns);
 
@@ -1258,8 +1337,8 @@ public class DirectImporter
                                 importSpecification.contentProvider.getStreamSourceName()),
                         importSpecification, importType);
                 columnsToWrite = new ArrayList<>(writeSize);
-                Get.executor()
-                        .submit(writer);
+                fileWrites.add(Get.executor()
+                        .submit(writer));
             }
         }
 
@@ -1271,30 +1350,25 @@ public class DirectImporter
                     "Processing c semantics from: " + trimZipName(
                             importSpecification.contentProvider.getStreamSourceName()),
                     importSpecification, importType);
-            Get.executor()
-                    .submit(writer);
+            fileWrites.add(Get.executor()
+                    .submit(writer));
         }
 
         updateMessage("Waiting for refset file completion...");
-        this.writeSemaphore.acquireUninterruptibly(WRITE_PERMITS);
-        updateMessage("Synchronizing semantic database...");
-        assemblageService.sync();
-        this.writeSemaphore.release(WRITE_PERMITS);
+        awaitFileWrites(fileWrites);
     }
 
-    private void readNID1_STR2_REFSET(BufferedReader br,
+    private void readNID1_STR2_REFSET(DelimitedRecordReader records,
             ImportSpecification importSpecification)
             throws IOException {
-        AssemblageService assemblageService = Get.assemblageService();
         final int writeSize = 102400;
         ArrayList<String[]> columnsToWrite = new ArrayList<>(writeSize);
-        String rowString;
+        ArrayList<Future<?>> fileWrites = new ArrayList<>();
 
-        br.readLine();  // discard header row
         boolean empty = true;
-        while ((rowString = br.readLine()) != null) {
+        for (String[] columns : records) {
             empty = false;
-            String[] columns = checkWatchTokensAndSplit(rowString, importSpecification);
+            checkWatchTokens(columns, importSpecification);
 
             columnsToWrite.add(columns);
 
@@ -1304,8 +1378,8 @@ public class DirectImporter
                                 importSpecification.contentProvider.getStreamSourceName()),
                         importSpecification, importType);
                 columnsToWrite = new ArrayList<>(writeSize);
-                Get.executor()
-                        .submit(writer);
+                fileWrites.add(Get.executor()
+                        .submit(writer));
             }
         }
 
@@ -1317,30 +1391,25 @@ public class DirectImporter
                     "Processing cs semantics from: " + trimZipName(
                             importSpecification.contentProvider.getStreamSourceName()),
                     importSpecification, importType);
-            Get.executor()
-                    .submit(writer);
+            fileWrites.add(Get.executor()
+                    .submit(writer));
         }
 
         updateMessage("Waiting for refset file completion...");
-        this.writeSemaphore.acquireUninterruptibly(WRITE_PERMITS);
-        updateMessage("Synchronizing semantic database...");
-        assemblageService.sync();
-        this.writeSemaphore.release(WRITE_PERMITS);
+        awaitFileWrites(fileWrites);
     }
 
-    private void readSTR1_REFSET(BufferedReader br,
+    private void readSTR1_REFSET(DelimitedRecordReader records,
             ImportSpecification importSpecification)
             throws IOException {
-        AssemblageService assemblageService = Get.assemblageService();
         final int writeSize = 102400;
         ArrayList<String[]> columnsToWrite = new ArrayList<>(writeSize);
-        String rowString;
+        ArrayList<Future<?>> fileWrites = new ArrayList<>();
 
-        br.readLine();  // discard header row
         boolean empty = true;
-        while ((rowString = br.readLine()) != null) {
+        for (String[] columns : records) {
             empty = false;
-            String[] columns = checkWatchTokensAndSplit(rowString, importSpecification);
+            checkWatchTokens(columns, importSpecification);
 
             columnsToWrite.add(columns);
 
@@ -1350,8 +1419,8 @@ public class DirectImporter
                                 importSpecification.contentProvider.getStreamSourceName()),
                         importSpecification, importType);
                 columnsToWrite = new ArrayList<>(writeSize);
-                Get.executor()
-                        .submit(writer);
+                fileWrites.add(Get.executor()
+                        .submit(writer));
             }
         }
 
@@ -1363,30 +1432,25 @@ public class DirectImporter
                     "Processing s semantics from: " + trimZipName(
                             importSpecification.contentProvider.getStreamSourceName()),
                     importSpecification, importType);
-            Get.executor()
-                    .submit(writer);
+            fileWrites.add(Get.executor()
+                    .submit(writer));
         }
 
         updateMessage("Waiting for refset file completion...");
-        this.writeSemaphore.acquireUninterruptibly(WRITE_PERMITS);
-        updateMessage("Synchronizing semantic database...");
-        assemblageService.sync();
-        this.writeSemaphore.release(WRITE_PERMITS);
+        awaitFileWrites(fileWrites);
     }
 
-    private void readSTR1_STR2_NID3_NID4_REFSET(BufferedReader br,
+    private void readSTR1_STR2_NID3_NID4_REFSET(DelimitedRecordReader records,
             ImportSpecification importSpecification)
             throws IOException {
-        AssemblageService assemblageService = Get.assemblageService();
         final int writeSize = 102400;
         ArrayList<String[]> columnsToWrite = new ArrayList<>(writeSize);
-        String rowString;
+        ArrayList<Future<?>> fileWrites = new ArrayList<>();
 
-        br.readLine();  // discard header row
         boolean empty = true;
-        while ((rowString = br.readLine()) != null) {
+        for (String[] columns : records) {
             empty = false;
-            String[] columns = checkWatchTokensAndSplit(rowString, importSpecification);
+            checkWatchTokens(columns, importSpecification);
 
             columnsToWrite.add(columns);
             if (columns[4].equals("705112009") && (columns[7].equals("712561002") || columns[7].equals("704318007"))) {
@@ -1428,8 +1492,8 @@ public class DirectImporter
                                 importSpecification.contentProvider.getStreamSourceName()),
                         importSpecification, importType);
                 columnsToWrite = new ArrayList<>(writeSize);
-                Get.executor()
-                        .submit(writer);
+                fileWrites.add(Get.executor()
+                        .submit(writer));
             }
         }
 
@@ -1441,30 +1505,25 @@ public class DirectImporter
                     "Processing sscc semantics from: " + trimZipName(
                             importSpecification.contentProvider.getStreamSourceName()),
                     importSpecification, importType);
-            Get.executor()
-                    .submit(writer);
+            fileWrites.add(Get.executor()
+                    .submit(writer));
         }
 
         updateMessage("Waiting for refset file completion...");
-        this.writeSemaphore.acquireUninterruptibly(WRITE_PERMITS);
-        updateMessage("Synchronizing semantic database...");
-        assemblageService.sync();
-        this.writeSemaphore.release(WRITE_PERMITS);
+        awaitFileWrites(fileWrites);
     }
 
-    private void readSTR1_STR2_REFSET(BufferedReader br,
+    private void readSTR1_STR2_REFSET(DelimitedRecordReader records,
             ImportSpecification importSpecification)
             throws IOException {
-        AssemblageService assemblageService = Get.assemblageService();
         final int writeSize = 102400;
         ArrayList<String[]> columnsToWrite = new ArrayList<>(writeSize);
-        String rowString;
+        ArrayList<Future<?>> fileWrites = new ArrayList<>();
 
-        br.readLine();  // discard header row
         boolean empty = true;
-        while ((rowString = br.readLine()) != null) {
+        for (String[] columns : records) {
             empty = false;
-            String[] columns = checkWatchTokensAndSplit(rowString, importSpecification);
+            checkWatchTokens(columns, importSpecification);
 
             columnsToWrite.add(columns);
 
@@ -1474,8 +1533,8 @@ public class DirectImporter
                                 importSpecification.contentProvider.getStreamSourceName()),
                         importSpecification, importType);
                 columnsToWrite = new ArrayList<>(writeSize);
-                Get.executor()
-                        .submit(writer);
+                fileWrites.add(Get.executor()
+                        .submit(writer));
             }
         }
 
@@ -1487,30 +1546,25 @@ public class DirectImporter
                     "Processing ss semantics from: " + trimZipName(
                             importSpecification.contentProvider.getStreamSourceName()),
                     importSpecification, importType);
-            Get.executor()
-                    .submit(writer);
+            fileWrites.add(Get.executor()
+                    .submit(writer));
         }
 
         updateMessage("Waiting for refset file completion...");
-        this.writeSemaphore.acquireUninterruptibly(WRITE_PERMITS);
-        updateMessage("Synchronizing semantic database...");
-        assemblageService.sync();
-        this.writeSemaphore.release(WRITE_PERMITS);
+        awaitFileWrites(fileWrites);
     }
 
-    private void readSTR1_STR2_STR3_STR4_STR5_STR6_STR7_REFSET(BufferedReader br,
+    private void readSTR1_STR2_STR3_STR4_STR5_STR6_STR7_REFSET(DelimitedRecordReader records,
             ImportSpecification importSpecification)
             throws IOException {
-        AssemblageService assemblageService = Get.assemblageService();
         final int writeSize = 102400;
         ArrayList<String[]> columnsToWrite = new ArrayList<>(writeSize);
-        String rowString;
+        ArrayList<Future<?>> fileWrites = new ArrayList<>();
 
-        br.readLine();  // discard header row
         boolean empty = true;
-        while ((rowString = br.readLine()) != null) {
+        for (String[] columns : records) {
             empty = false;
-            String[] columns = checkWatchTokensAndSplit(rowString, importSpecification);
+            checkWatchTokens(columns, importSpecification);
 
             columnsToWrite.add(columns);
 
@@ -1520,8 +1574,8 @@ public class DirectImporter
                                 importSpecification.contentProvider.getStreamSourceName()),
                         importSpecification, importType);
                 columnsToWrite = new ArrayList<>(writeSize);
-                Get.executor()
-                        .submit(writer);
+                fileWrites.add(Get.executor()
+                        .submit(writer));
             }
         }
 
@@ -1533,29 +1587,24 @@ public class DirectImporter
                     "Processing sssssss semantics from: " + trimZipName(
                             importSpecification.contentProvider.getStreamSourceName()),
                     importSpecification, importType);
-            Get.executor()
-                    .submit(writer);
+            fileWrites.add(Get.executor()
+                    .submit(writer));
         }
 
         updateMessage("Waiting for refset file completion...");
-        this.writeSemaphore.acquireUninterruptibly(WRITE_PERMITS);
-        updateMessage("Synchronizing semantic database...");
-        assemblageService.sync();
-        this.writeSemaphore.release(WRITE_PERMITS);
+        awaitFileWrites(fileWrites);
     }
 
-    private void readSTR1_NID2_NID3_NID4_REFSET(BufferedReader br,
+    private void readSTR1_NID2_NID3_NID4_REFSET(DelimitedRecordReader records,
             ImportSpecification importSpecification) throws IOException {
-        AssemblageService assemblageService = Get.assemblageService();
         final int writeSize = 102400;
         ArrayList<String[]> columnsToWrite = new ArrayList<>(writeSize);
-        String rowString;
+        ArrayList<Future<?>> fileWrites = new ArrayList<>();
 
-        br.readLine();  // discard header row
         boolean empty = true;
-        while ((rowString = br.readLine()) != null) {
+        for (String[] columns : records) {
             empty = false;
-            String[] columns = checkWatchTokensAndSplit(rowString, importSpecification);
+            checkWatchTokens(columns, importSpecification);
 
             columnsToWrite.add(columns);
 
@@ -1565,8 +1614,8 @@ public class DirectImporter
                                 importSpecification.contentProvider.getStreamSourceName()),
                         importSpecification, importType);
                 columnsToWrite = new ArrayList<>(writeSize);
-                Get.executor()
-                        .submit(writer);
+                fileWrites.add(Get.executor()
+                        .submit(writer));
             }
         }
 
@@ -1578,29 +1627,24 @@ public class DirectImporter
                     "Processing sccc semantics from: " + trimZipName(
                             importSpecification.contentProvider.getStreamSourceName()),
                     importSpecification, importType);
-            Get.executor()
-                    .submit(writer);
+            fileWrites.add(Get.executor()
+                    .submit(writer));
         }
 
         updateMessage("Waiting for refset file completion...");
-        this.writeSemaphore.acquireUninterruptibly(WRITE_PERMITS);
-        updateMessage("Synchronizing semantic database...");
-        assemblageService.sync();
-        this.writeSemaphore.release(WRITE_PERMITS);
+        awaitFileWrites(fileWrites);
     }
 
-    private void readSTR1_STR2_NID3_NID4_NID5_REFSET(BufferedReader br,
+    private void readSTR1_STR2_NID3_NID4_NID5_REFSET(DelimitedRecordReader records,
             ImportSpecification importSpecification) throws IOException {
-        AssemblageService assemblageService = Get.assemblageService();
         final int writeSize = 102400;
         ArrayList<String[]> columnsToWrite = new ArrayList<>(writeSize);
-        String rowString;
+        ArrayList<Future<?>> fileWrites = new ArrayList<>();
 
-        br.readLine();  // discard header row
         boolean empty = true;
-        while ((rowString = br.readLine()) != null) {
+        for (String[] columns : records) {
             empty = false;
-            String[] columns = checkWatchTokensAndSplit(rowString, importSpecification);
+            checkWatchTokens(columns, importSpecification);
 
             columnsToWrite.add(columns);
             if (columns[4].equals("705110001") && (columns[7].contains("712561002") || columns[7].contains("704318007"))) {
@@ -1643,8 +1687,8 @@ public class DirectImporter
                                 importSpecification.contentProvider.getStreamSourceName()),
                         importSpecification, importType);
                 columnsToWrite = new ArrayList<>(writeSize);
-                Get.executor()
-                        .submit(writer);
+                fileWrites.add(Get.executor()
+                        .submit(writer));
             }
         }
 
@@ -1656,25 +1700,20 @@ public class DirectImporter
                     "Processing ssccc semantics from: " + trimZipName(
                             importSpecification.contentProvider.getStreamSourceName()),
                     importSpecification, importType);
-            Get.executor()
-                    .submit(writer);
+            fileWrites.add(Get.executor()
+                    .submit(writer));
         }
 
         updateMessage("Waiting for refset file completion...");
-        this.writeSemaphore.acquireUninterruptibly(WRITE_PERMITS);
-        updateMessage("Synchronizing semantic database...");
-        assemblageService.sync();
-        this.writeSemaphore.release(WRITE_PERMITS);
+        awaitFileWrites(fileWrites);
     }
 
-    private void read_DYNAMIC_REFSET(BufferedReader br,
-            ImportSpecification importSpecification, HashMap<String, UUID> createdColumnConcepts)
+    private void read_DYNAMIC_REFSET(DelimitedRecordReader records,
+            ImportSpecification importSpecification, ConcurrentHashMap<String, UUID> createdColumnConcepts)
             throws IOException {
         AssemblageService assemblageService = Get.assemblageService();
         final int writeSize = 102400;
         ArrayList<String[]> columnsToWrite = new ArrayList<>(writeSize);
-        br.readLine();  //skip header row
-        //String[] headerRow = checkWatchTokensAndSplit(br.readLine(), importSpecification);
 
         if (refsetColumnInfo == null) {
             /*
@@ -1682,15 +1721,14 @@ public class DirectImporter
              * "Reference set descriptor reference set (foundation metadata concept)" (900000000000456007)
              * refset. We must process this file first, to know how to process the rest of the refsets.
              * 
-             * the refset descriptor file shouldn't be too huge, so set a mark on the stream, allowing us to back
-             * it up and read it again, when we actually process it into the DB below.
+             * the refset descriptor file shouldn't be too huge, so read through it once here, and again when we
+             * actually process it into the DB below.
              * 
              * (we can't process it on the fly below, because we need to read it first, to know how to process itself, as it is
              * self describing...)
              */
 
             LOG.info("Reading refset descriptors");
-            br.mark(100000);  //this should be big enough, if not, we should fail on reset
 
             /*
              * columns we care about are 6, 7 and 8: attributeDescription attributeType attributeOrder
@@ -1725,9 +1763,8 @@ public class DirectImporter
              */
             //Configure a hashmap of refsetId -> ArrayList<DynamicColumnInfo>
             refsetColumnInfo = new HashMap<>();
-            String rowString;
-            while ((rowString = br.readLine()) != null) {
-                String[] columns = checkWatchTokensAndSplit(rowString, importSpecification);
+            for (String[] columns : records) {
+                checkWatchTokens(columns, importSpecification);
                 String refsetId = columns[5].trim();  //we actually want the referencedComponentId, not the refsetId, because this is the refset that is being described.
                 int adjustedColumnNumber = Integer.parseInt(columns[8]) - 1;
                 UUID columnHeaderConcept = UuidT3Generator.fromSNOMED(columns[6]);
@@ -1761,7 +1798,6 @@ public class DirectImporter
                     }
                 }
             }
-            br.reset();  //back the stream up, and actually process the refset now.
 
             //Use the metadata we just read, and properly annotate the concepts as dynamic semantics in our system.
             for (Entry<String, ArrayList<DynamicColumnInfo>> refsetDescriptors : refsetColumnInfo.entrySet())
@@ -1821,11 +1857,10 @@ public class DirectImporter
 
         //Process the refset file itself...
         int dataCount = 0;
-        String rowString;
         ArrayList<DynamicRefsetWriter> writers = new ArrayList<>();
-        while ((rowString = br.readLine()) != null) {
+        for (String[] columns : records) {
             dataCount++;
-            String[] columns = checkWatchTokensAndSplit(rowString, importSpecification);
+            checkWatchTokens(columns, importSpecification);
             if (dataCount == 1) {
                 //Another sanity check - the header-row length beyond column 5 should match the column definitions...
                 ArrayList<DynamicColumnInfo> dci = refsetColumnInfo.get(columns[DynamicRefsetWriter.ASSEMBLAGE_SCT_ID_INDEX]);
@@ -1860,7 +1895,6 @@ public class DirectImporter
         }
 
         updateMessage("Waiting for refset file completion...");
-        this.writeSemaphore.acquireUninterruptibly(WRITE_PERMITS);
         int skipped = 0;
         for (DynamicRefsetWriter writer : writers) {
             try {
@@ -1870,37 +1904,30 @@ public class DirectImporter
             }
         }
         LOG.info("Read {} rows of data, and skipped {}", dataCount, skipped);
-        updateMessage("Synchronizing semantic database...");
-        assemblageService.sync();
-        this.writeSemaphore.release(WRITE_PERMITS);
     }
 
-    private void readAlternativeIdentifiers(BufferedReader br,
+    private void readAlternativeIdentifiers(DelimitedRecordReader records,
             ImportSpecification importSpecification)
             throws IOException {
-        String rowString;
 
-        br.readLine();  // discard header row
         LOG.warn("Alternative identifiers not yet supported.");
-        while ((rowString = br.readLine()) != null) {
-            String[] columns = checkWatchTokensAndSplit(rowString, importSpecification);
+        for (String[] columns : records) {
+            checkWatchTokens(columns, importSpecification);
         }
     }
 
-    private void readConcepts(BufferedReader br, ImportSpecification importSpecification)
+    private void readConcepts(DelimitedRecordReader records, ImportSpecification importSpecification)
             throws IOException {
-        ConceptService conceptService = Get.conceptService();
         final int writeSize = 102400;
-        String rowString;
         ArrayList<String[]> columnsToWrite = new ArrayList<>(writeSize);
+        ArrayList<Future<?>> fileWrites = new ArrayList<>();
         
-        br.readLine();  // discard header row
         int lineCount = 1;
         boolean empty = true;
-        while ((rowString = br.readLine()) != null) {
+        for (String[] columns : records) {
             lineCount++;
             empty = false;
-            String[] columns = checkWatchTokensAndSplit(rowString, importSpecification);
+            checkWatchTokens(columns, importSpecification);
 
             columnsToWrite.add(columns);
 
@@ -1912,8 +1939,8 @@ public class DirectImporter
                                 importSpecification.contentProvider.getStreamSourceName()), importType);
 
                 columnsToWrite = new ArrayList<>(writeSize);
-                Get.executor()
-                        .submit(conceptWriter);
+                fileWrites.add(Get.executor()
+                        .submit(conceptWriter));
             }
         }
         LOG.info("Concept linecount: " + lineCount + " in: " + importSpecification.contentProvider.getStreamSourceName());
@@ -1927,36 +1954,24 @@ public class DirectImporter
                     "Finishing concepts from: " + trimZipName(
                             importSpecification.contentProvider.getStreamSourceName()), importType);
 
-            Get.executor()
-                    .submit(conceptWriter);
+            fileWrites.add(Get.executor()
+                    .submit(conceptWriter));
         }
 
         updateMessage("Waiting for concept file completion...");
-        this.writeSemaphore.acquireUninterruptibly(WRITE_PERMITS);
-        for (IndexBuilderService indexer : LookupService.get().getAllServices(IndexBuilderService.class)) {
-            try {
-                indexer.sync().get();
-            } catch (Exception e) {
-                LOG.error("problem calling sync on index", e);
-            }
-        }
-        updateMessage("Synchronizing concept database...");
-        conceptService.sync();
-        this.writeSemaphore.release(WRITE_PERMITS);
+        awaitFileWrites(fileWrites);
     }
 
-    private void readDescriptions(BufferedReader br, ImportSpecification importSpecification)
+    private void readDescriptions(DelimitedRecordReader records, ImportSpecification importSpecification)
             throws IOException {
-        AssemblageService assemblageService = Get.assemblageService();
         final int writeSize = 102400;
         ArrayList<String[]> columnsToWrite = new ArrayList<>(writeSize);
-        String rowString;
+        ArrayList<Future<?>> fileWrites = new ArrayList<>();
 
-        br.readLine();  // discard header row
         boolean empty = true;
-        while ((rowString = br.readLine()) != null) {
+        for (String[] columns : records) {
             empty = false;
-            String[] columns = checkWatchTokensAndSplit(rowString, importSpecification);
+            checkWatchTokens(columns, importSpecification);
 
             columnsToWrite.add(columns);
 
@@ -1968,8 +1983,8 @@ public class DirectImporter
                                 importSpecification.contentProvider.getStreamSourceName()), importType);
 
                 columnsToWrite = new ArrayList<>(writeSize);
-                Get.executor()
-                        .submit(descriptionWriter);
+                fileWrites.add(Get.executor()
+                        .submit(descriptionWriter));
             }
         }
         if (empty) {
@@ -1986,38 +2001,24 @@ public class DirectImporter
                     "Finishing descriptions from: " + trimZipName(
                             importSpecification.contentProvider.getStreamSourceName()), importType);
 
-            Get.executor()
-                    .submit(descriptionWriter);
+            fileWrites.add(Get.executor()
+                    .submit(descriptionWriter));
         }
 
         updateMessage("Waiting for description file completion...");
-        this.writeSemaphore.acquireUninterruptibly(WRITE_PERMITS);
-
-        updateMessage("Synchronizing indexes...");
-        for (IndexBuilderService indexer : LookupService.get().getAllServices(IndexBuilderService.class)) {
-            try {
-                indexer.sync().get();
-            } catch (Exception e) {
-                LOG.error("problem calling sync on index", e);
-            }
-        }
-        updateMessage("Synchronizing description database...");
-        assemblageService.sync();
-        this.writeSemaphore.release(WRITE_PERMITS);
+        awaitFileWrites(fileWrites);
     }
 
-    private void readDialect(BufferedReader br, ImportSpecification importSpecification)
+    private void readDialect(DelimitedRecordReader records, ImportSpecification importSpecification)
             throws IOException {
-        AssemblageService assemblageService = Get.assemblageService();
         final int writeSize = 102400;
         ArrayList<String[]> columnsToWrite = new ArrayList<>(writeSize);
-        String rowString;
+        ArrayList<Future<?>> fileWrites = new ArrayList<>();
 
-        br.readLine();  // discard header row
         boolean empty = true;
-        while ((rowString = br.readLine()) != null) {
+        for (String[] columns : records) {
             empty = false;
-            String[] columns = checkWatchTokensAndSplit(rowString, importSpecification);
+            checkWatchTokens(columns, importSpecification);
 
             columnsToWrite.add(columns);
 
@@ -2029,8 +2030,8 @@ public class DirectImporter
                                 importSpecification.contentProvider.getStreamSourceName()), importType);
 
                 columnsToWrite = new ArrayList<>(writeSize);
-                Get.executor()
-                        .submit(dialectWriter);
+                fileWrites.add(Get.executor()
+                        .submit(dialectWriter));
             }
         }
 
@@ -2044,38 +2045,25 @@ public class DirectImporter
                     "Finishing dialect from: " + trimZipName(
                             importSpecification.contentProvider.getStreamSourceName()), importType);
 
-            Get.executor()
-                    .submit(dialectWriter);
+            fileWrites.add(Get.executor()
+                    .submit(dialectWriter));
         }
 
         updateMessage("Waiting for dialect file completion...");
-        this.writeSemaphore.acquireUninterruptibly(WRITE_PERMITS);
-        updateMessage("Synchronizing indexes...");
-        for (IndexBuilderService indexer : LookupService.get().getAllServices(IndexBuilderService.class)) {
-            try {
-                indexer.sync().get();
-            } catch (Exception e) {
-                LOG.error("problem calling sync on index", e);
-            }
-        }
-        updateMessage("Synchronizing dialect database...");
-        assemblageService.sync();
-        this.writeSemaphore.release(WRITE_PERMITS);
+        awaitFileWrites(fileWrites);
     }
 
-    private void readInferredRelationships(BufferedReader br,
+    private void readInferredRelationships(DelimitedRecordReader records,
             ImportSpecification importSpecification)
             throws IOException {
-        AssemblageService assemblageService = Get.assemblageService();
         final int writeSize = 102400;
         ArrayList<String[]> columnsToWrite = new ArrayList<>(writeSize);
-        String rowString;
+        ArrayList<Future<?>> fileWrites = new ArrayList<>();
 
-        br.readLine();  // discard header row
         boolean empty = true;
-        while ((rowString = br.readLine()) != null) {
+        for (String[] columns : records) {
             empty = false;
-            String[] columns = checkWatchTokensAndSplit(rowString, importSpecification);
+            checkWatchTokens(columns, importSpecification);
 
             columnsToWrite.add(columns);
 
@@ -2088,8 +2076,8 @@ public class DirectImporter
                         importSpecification, importType);
 
                 columnsToWrite = new ArrayList<>(writeSize);
-                Get.executor()
-                        .submit(relWriter);
+                fileWrites.add(Get.executor()
+                        .submit(relWriter));
             }
         }
 
@@ -2104,37 +2092,24 @@ public class DirectImporter
                             importSpecification.contentProvider.getStreamSourceName()),
                     importSpecification, importType);
 
-            Get.executor()
-                    .submit(relWriter);
+            fileWrites.add(Get.executor()
+                    .submit(relWriter));
         }
 
         updateMessage("Waiting for inferred relationship file completion...");
-        this.writeSemaphore.acquireUninterruptibly(WRITE_PERMITS);
-        updateMessage("Synchronizing indexes...");
-        for (IndexBuilderService indexer : LookupService.get().getAllServices(IndexBuilderService.class)) {
-            try {
-                indexer.sync().get();
-            } catch (Exception e) {
-                LOG.error("problem calling sync on index", e);
-            }
-        }
-        updateMessage("Synchronizing relationship database...");
-        assemblageService.sync();
-        this.writeSemaphore.release(WRITE_PERMITS);
+        awaitFileWrites(fileWrites);
     }
 
-    private void readStatedRelationships(BufferedReader br, ImportSpecification importSpecification)
+    private void readStatedRelationships(DelimitedRecordReader records, ImportSpecification importSpecification)
             throws IOException {
-        AssemblageService assemblageService = Get.assemblageService();
         final int writeSize = 102400;
         ArrayList<String[]> columnsToWrite = new ArrayList<>(writeSize);
-        String rowString;
+        ArrayList<Future<?>> fileWrites = new ArrayList<>();
 
-        br.readLine();  // discard header row
         boolean empty = true;
-        while ((rowString = br.readLine()) != null) {
+        for (String[] columns : records) {
             empty = false;
-            String[] columns = checkWatchTokensAndSplit(rowString, importSpecification);
+            checkWatchTokens(columns, importSpecification);
 
             columnsToWrite.add(columns);
 
@@ -2147,8 +2122,8 @@ public class DirectImporter
                         importSpecification, importType);
 
                 columnsToWrite = new ArrayList<>(writeSize);
-                Get.executor()
-                        .submit(relWriter);
+                fileWrites.add(Get.executor()
+                        .submit(relWriter));
             }
         }
 
@@ -2163,23 +2138,12 @@ public class DirectImporter
                             importSpecification.contentProvider.getStreamSourceName()),
                     importSpecification, importType);
 
-            Get.executor()
-                    .submit(relWriter);
+            fileWrites.add(Get.executor()
+                    .submit(relWriter));
         }
 
         updateMessage("Waiting for stated relationship file completion...");
-        this.writeSemaphore.acquireUninterruptibly(WRITE_PERMITS);
-        updateMessage("Synchronizing indexes...");
-        for (IndexBuilderService indexer : LookupService.get().getAllServices(IndexBuilderService.class)) {
-            try {
-                indexer.sync().get();
-            } catch (Exception e) {
-                LOG.error("problem calling sync on index", e);
-            }
-        }
-        updateMessage("Synchronizing relationship database...");
-        assemblageService.sync();
-        this.writeSemaphore.release(WRITE_PERMITS);
+        awaitFileWrites(fileWrites);
     }
 
     public static String trimZipName(String zipName) {
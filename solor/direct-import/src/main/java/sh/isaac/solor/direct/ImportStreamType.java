@@ -41,6 +41,7 @@ package sh.isaac.solor.direct;
 
 //~--- non-JDK imports --------------------------------------------------------
 
+import java.util.EnumSet;
 import sh.isaac.api.chronicle.VersionType;
 
 //~--- enums ------------------------------------------------------------------
@@ -101,6 +102,56 @@ public enum ImportStreamType {
    SRF_STR1_STR2_NID3_NID4_NID5_ASSEMBLAGE
    ;
 
+   /**
+    * @return true if files of this type are read by the direct importer itself, waiting only on their own writers,
+    * so they may be imported concurrently with other files of such types. Files of the remaining types are handed to
+    * importers that wait on the whole write semaphore, and must be imported alone.
+    */
+   public boolean isPipelined() {
+      switch (this) {
+         case RXNORM_CONSO:
+         case LOINC:
+         case CLINVAR:
+         case CVX:
+         case LIVD:
+            return false;
+
+         default:
+            return !name().startsWith("SRF_");
+      }
+   }
+
+   /**
+    * @return the types of RF2 files which must be completely written before a file of this type is read:
+    * concepts before descriptions, relationships and identifiers, descriptions before dialects, and all of these
+    * before refsets. Dynamic refsets also wait for the dialects, as they label the refset definitions with the
+    * preferred description of the refset concept.
+    */
+   public EnumSet<ImportStreamType> getPrerequisites() {
+      switch (this) {
+         case CONCEPT:
+            return EnumSet.noneOf(ImportStreamType.class);
+
+         case DESCRIPTION:
+         case STATED_RELATIONSHIP:
+         case INFERRED_RELATIONSHIP:
+         case ALTERNATIVE_IDENTIFIER:
+            return EnumSet.of(CONCEPT);
+
+         case DIALECT:
+            return EnumSet.of(CONCEPT, DESCRIPTION);
+
+         case DYNAMIC:
+            return EnumSet.of(CONCEPT, DESCRIPTION, STATED_RELATIONSHIP, INFERRED_RELATIONSHIP, ALTERNATIVE_IDENTIFIER, DIALECT);
+
+         default:
+            if (isPipelined()) {
+               return EnumSet.of(CONCEPT, DESCRIPTION, STATED_RELATIONSHIP, INFERRED_RELATIONSHIP, ALTERNATIVE_IDENTIFIER);
+            }
+            return EnumSet.range(CONCEPT, this);
+      }
+   }
+
    public VersionType getSemanticVersionType() {
       switch (this) {
          case SRF_NID1_NID2_INT3_ASSEMBLAGE:
@@ -0,0 +1,236 @@
+/*
+ * Copyright 2019 Organizations participating in ISAAC, ISAAC's KOMET, and SOLOR development include the
+         US Veterans Health Administration, OSHERA, and the Health Services Platform Consortium..
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package sh.isaac.solor.direct;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+import java.util.regex.Pattern;
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+import sh.isaac.solor.ContentProvider;
+
+/**
+ * Reads files through {@link DelimitedRecordReader}, and checks the records against those of
+ * {@link BufferedReader#readLine()} and {@link String#split(String)}, which it replaced.
+ *
+ * @author kec
+ */
+public class DelimitedRecordReaderTest {
+
+    private Path directory;
+
+    @BeforeMethod
+    public void createDirectory() throws IOException {
+        directory = Files.createTempDirectory("delimited-record-reader");
+    }
+
+    @AfterMethod(alwaysRun = true)
+    public void deleteDirectory() throws IOException {
+        try (java.util.stream.Stream<Path> files = Files.list(directory)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                Files.delete(file);
+            }
+        }
+        Files.delete(directory);
+    }
+
+    /**
+     * Chunk sizes smaller than a line, about a line, and larger than the file.
+     */
+    @DataProvider
+    public Object[][] chunkSizes() {
+        return new Object[][]{{1}, {7}, {64}, {4 * 1024 * 1024}};
+    }
+
+    @Test(dataProvider = "chunkSizes")
+    public void testChunkBoundaries(int chunkSize) throws IOException {
+        Random random = new Random(chunkSize);
+        StringBuilder content = new StringBuilder("id\tname\tvalue\n");
+        for (int line = 0; line < 500; line++) {
+            content.append(line).append('\t');
+            int length = random.nextInt(line % 50 == 0 ? 300 : 20);
+            for (int i = 0; i < length; i++) {
+                content.append((char) ('a' + random.nextInt(26)));
+            }
+            content.append('\t').append(random.nextInt(3) == 0 ? "" : "é中").append('\n');
+        }
+        assertRecords(content.toString(), '\t', true, chunkSize);
+        assertRecords(content.toString(), '\t', false, chunkSize);
+    }
+
+    @Test(dataProvider = "chunkSizes")
+    public void testCrlf(int chunkSize) throws IOException {
+        String content = "id|name\r\n1|one\r\n2|two\r\n\r\n3|three";
+        assertRecords(content, '|', true, chunkSize);
+        assertEquals(read(content, '|', true, chunkSize),
+                records(new String[]{"1", "one"}, new String[]{"2", "two"}, new String[]{""}, new String[]{"3", "three"}));
+    }
+
+    @Test(dataProvider = "chunkSizes")
+    public void testHeaderSkip(int chunkSize) throws IOException {
+        String longHeader = "a header longer than the small chunks\tsecond column\n";
+        assertEquals(read(longHeader + "1\t2\n", '\t', true, chunkSize), records(new String[]{"1", "2"}));
+        assertEquals(read(longHeader, '\t', true, chunkSize), records());
+        assertEquals(read("1\t2\n", '\t', false, chunkSize), records(new String[]{"1", "2"}));
+        // A blank first line is the header
+        assertEquals(read("\n1\t2", '\t', true, chunkSize), records(new String[]{"1", "2"}));
+    }
+
+    @Test(dataProvider = "chunkSizes")
+    public void testTrailingEmptyColumns(int chunkSize) throws IOException {
+        String content = "1\t2\t\t\n\t\t3\t\n\t\t\n1\t\t2\n";
+        assertRecords(content, '\t', false, chunkSize);
+        assertEquals(read(content, '\t', false, chunkSize),
+                records(new String[]{"1", "2"}, new String[]{"", "", "3"}, new String[]{}, new String[]{"1", "", "2"}));
+    }
+
+    @Test(dataProvider = "chunkSizes")
+    public void testBlankLines(int chunkSize) throws IOException {
+        // Blank lines are a single empty column, as they were with String.split, but a final line break does not start a line
+        String content = "\n1\t2\n\n\n3\n\n";
+        assertRecords(content, '\t', false, chunkSize);
+        assertEquals(read(content, '\t', false, chunkSize),
+                records(new String[]{""}, new String[]{"1", "2"}, new String[]{""}, new String[]{""}, new String[]{"3"}, new String[]{""}));
+        assertEquals(read("", '\t', false, chunkSize), records());
+    }
+
+    @Test
+    public void testStagedContent() throws IOException {
+        String content = "id\tname\r\n1\tone\r\n2\t\r\n";
+        List<String[]> staged = new ArrayList<>();
+        try (DelimitedRecordReader reader = new DelimitedRecordReader(
+                new ContentProvider("staged", () -> content.getBytes(StandardCharsets.UTF_8)), '\t', true, 8)) {
+            reader.forEach(staged::add);
+        }
+        assertEquals(staged, expected(content, '\t', true));
+    }
+
+    @Test
+    public void testReadAheadIsBounded() throws IOException {
+        StringBuilder content = new StringBuilder();
+        for (int line = 0; line < 1000; line++) {
+            content.append(line).append('\t').append(line * 31).append('\n');
+        }
+        Path file = write(content.toString());
+        int permits = DelimitedRecordReader.availableReadAheadPermits();
+        Assert.assertEquals(permits, DelimitedRecordReader.READ_AHEAD_CHUNKS);
+
+        List<DelimitedRecordReader> readers = new ArrayList<>();
+        List<Iterator<String[]>> iterators = new ArrayList<>();
+        try {
+            for (int i = 0; i < 3; i++) {
+                DelimitedRecordReader reader = new DelimitedRecordReader(new ContentProvider(file), '\t', false, 16);
+                readers.add(reader);
+                iterators.add(reader.iterator());
+                Assert.assertEquals(iterators.get(i).next(), new String[]{"0", "0"});
+            }
+            // The first iterator read ahead with every permit, so the others have only their current chunk in flight
+            Assert.assertEquals(DelimitedRecordReader.availableReadAheadPermits(), 0);
+
+            // An iterator read to the end releases its read ahead, and an iterator without read ahead still reads every record
+            Assert.assertEquals(count(iterators.get(0)), 999);
+            Assert.assertEquals(DelimitedRecordReader.availableReadAheadPermits(), permits);
+            Assert.assertEquals(count(iterators.get(1)), 999);
+
+            // An iterator opened while the third is still open
+            iterators.add(readers.get(2).iterator());
+        } finally {
+            for (DelimitedRecordReader reader : readers) {
+                reader.close();
+            }
+        }
+        // Closing the readers releases the read ahead of the iterators that were not read to the end
+        Assert.assertEquals(DelimitedRecordReader.availableReadAheadPermits(), permits);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testMultiByteDelimiter() throws IOException {
+        new DelimitedRecordReader(new ContentProvider(write("")), 'é', false);
+    }
+
+    private static int count(Iterator<String[]> records) {
+        int count = 0;
+        while (records.hasNext()) {
+            records.next();
+            count++;
+        }
+        return count;
+    }
+
+    private void assertRecords(String content, char delimiter, boolean hasHeader, int chunkSize) throws IOException {
+        assertEquals(read(content, delimiter, hasHeader, chunkSize), expected(content, delimiter, hasHeader));
+    }
+
+    private List<String[]> read(String content, char delimiter, boolean hasHeader, int chunkSize) throws IOException {
+        List<String[]> records = new ArrayList<>();
+        try (DelimitedRecordReader reader = new DelimitedRecordReader(new ContentProvider(write(content)), delimiter, hasHeader, chunkSize)) {
+            reader.forEach(records::add);
+            // Each iteration reads the file again
+            List<String[]> again = new ArrayList<>();
+            reader.forEach(again::add);
+            assertEquals(again, records);
+        }
+        return records;
+    }
+
+    private Path write(String content) throws IOException {
+        return Files.write(Files.createTempFile(directory, "records", ".txt"), content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * The records as the importer read them before {@link DelimitedRecordReader}.
+     */
+    private static List<String[]> expected(String content, char delimiter, boolean hasHeader) throws IOException {
+        List<String[]> records = new ArrayList<>();
+        try (BufferedReader br = new BufferedReader(new StringReader(content))) {
+            if (hasHeader) {
+                br.readLine();
+            }
+            String rowString;
+            while ((rowString = br.readLine()) != null) {
+                records.add(rowString.split(Pattern.quote(Character.toString(delimiter))));
+            }
+        }
+        return records;
+    }
+
+    private static List<String[]> records(String[]... records) {
+        List<String[]> list = new ArrayList<>();
+        for (String[] record : records) {
+            list.add(record);
+        }
+        return list;
+    }
+
+    private static void assertEquals(List<String[]> actual, List<String[]> expected) {
+        Assert.assertEquals(actual.size(), expected.size());
+        for (int i = 0; i < actual.size(); i++) {
+            Assert.assertEquals(actual.get(i), expected.get(i), "record " + i);
+        }
+    }
+}